@@ -0,0 +1,409 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.audio;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Append-optimized, chunked storage for the audio buffers of an audio segment.
+ *
+ * Audio buffers are appended by a single producer thread without locking or copying: buffers are stored in fixed
+ * size chunks and each append publishes the new buffer count, so concurrent readers always see a consistent prefix
+ * of the appended buffers.  Readers access buffers by index, via a snapshot list view, or via a cursor that
+ * streams buffers as they are appended.
+ *
+ * Once a chunk is full, it can optionally be compacted to a 16-bit sample representation to reduce the memory held
+ * by long audio segments.  Buffers read from a compacted chunk are converted back to float samples on each read,
+ * either into a newly allocated buffer or into a reusable buffer supplied by the reader.
+ */
+public class AudioBufferStore
+{
+    public static final int CHUNK_SIZE = 32;
+    private static final float SHORT_TO_FLOAT = 1.0f / Short.MAX_VALUE;
+    private static final Chunk[] EMPTY = new Chunk[0];
+    private AudioSegmentStorage mStorage;
+    private volatile Chunk[] mChunks = EMPTY;
+    private volatile int mSize;
+    private volatile int mGeneration;
+
+    /**
+     * Constructs an instance
+     * @param storage representation for completed chunks
+     */
+    public AudioBufferStore(AudioSegmentStorage storage)
+    {
+        mStorage = storage;
+    }
+
+    /**
+     * Appends the audio buffer.  This method must only be invoked by a single (producer) thread.
+     * @param audioBuffer to append
+     */
+    public void add(float[] audioBuffer)
+    {
+        int size = mSize;
+        int chunkIndex = size / CHUNK_SIZE;
+        int offset = size % CHUNK_SIZE;
+        Chunk[] chunks = mChunks;
+
+        if(chunkIndex == chunks.length)
+        {
+            chunks = Arrays.copyOf(chunks, Math.max(4, chunks.length * 2));
+            mChunks = chunks;
+        }
+
+        if(chunks[chunkIndex] == null)
+        {
+            chunks[chunkIndex] = new Chunk();
+        }
+
+        chunks[chunkIndex].mBuffers[offset] = audioBuffer;
+
+        //Publish the new buffer to readers
+        mSize = size + 1;
+
+        if(offset == CHUNK_SIZE - 1 && mStorage == AudioSegmentStorage.PCM_16)
+        {
+            chunks[chunkIndex].compact();
+        }
+    }
+
+    /**
+     * Number of audio buffers in this store
+     */
+    public int size()
+    {
+        return mSize;
+    }
+
+    /**
+     * Indicates if this store is empty
+     */
+    public boolean isEmpty()
+    {
+        return mSize == 0;
+    }
+
+    /**
+     * Audio buffer at the index
+     * @param index of the buffer
+     * @return audio buffer
+     * @throws IndexOutOfBoundsException if the index is not valid
+     */
+    public float[] get(int index)
+    {
+        if(index < 0 || index >= mSize)
+        {
+            throw new IndexOutOfBoundsException("Index [" + index + "] size [" + mSize + "]");
+        }
+
+        return mChunks[index / CHUNK_SIZE].get(index % CHUNK_SIZE);
+    }
+
+    /**
+     * Copy of the audio buffer at the index, read into a buffer that is owned by the caller.  The reusable buffer is
+     * used when its length matches the length of the audio buffer, otherwise a new buffer is allocated that the
+     * caller can reuse on the next read.  This avoids allocating a buffer for each read of compacted audio.
+     *
+     * @param index of the buffer
+     * @param reusable buffer to receive the samples, or null
+     * @return caller owned copy of the audio buffer
+     * @throws IndexOutOfBoundsException if the index is not valid
+     */
+    public float[] get(int index, float[] reusable)
+    {
+        if(index < 0 || index >= mSize)
+        {
+            throw new IndexOutOfBoundsException("Index [" + index + "] size [" + mSize + "]");
+        }
+
+        return mChunks[index / CHUNK_SIZE].get(index % CHUNK_SIZE, reusable);
+    }
+
+    /**
+     * Creates a cursor for streaming the audio buffers from the start of this store.  The cursor can be polled
+     * repeatedly to read buffers as they are appended.
+     */
+    public Cursor cursor()
+    {
+        return new Cursor();
+    }
+
+    /**
+     * Unmodifiable list view of the audio buffers appended to this store at the time of the call.  Buffers that are
+     * appended later are not included in the view.
+     */
+    public List<float[]> snapshot()
+    {
+        int size = mSize;
+
+        return new AbstractList<>()
+        {
+            @Override
+            public float[] get(int index)
+            {
+                if(index >= size)
+                {
+                    throw new IndexOutOfBoundsException("Index [" + index + "] size [" + size + "]");
+                }
+
+                return AudioBufferStore.this.get(index);
+            }
+
+            @Override
+            public int size()
+            {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * Removes all audio buffers so that the memory can be reclaimed.
+     */
+    public void clear()
+    {
+        //Invalidate open cursors before releasing the chunks so that a cursor never reads a released chunk unnoticed
+        mGeneration++;
+        mSize = 0;
+        mChunks = EMPTY;
+    }
+
+    /**
+     * Streaming reader over the audio buffers of the store.  The cursor tracks its own chunk and offset within the
+     * chunk, so that each read is a direct lookup.  A cursor is lapped when the store is cleared while the cursor is
+     * open, since the buffers that it has not yet read no longer exist.
+     */
+    public class Cursor
+    {
+        private final int mStoreGeneration = mGeneration;
+        private int mPosition;
+        private int mChunkIndex;
+        private int mOffset;
+
+        /**
+         * Index of the next buffer to be read
+         */
+        public int getPosition()
+        {
+            return mPosition;
+        }
+
+        /**
+         * Indicates if the store was cleared after this cursor was created and the unread buffers are lost
+         */
+        public boolean isLapped()
+        {
+            return mStoreGeneration != mGeneration;
+        }
+
+        /**
+         * Indicates if there is an appended buffer that has not yet been read by this cursor
+         */
+        public boolean hasNext()
+        {
+            return mPosition < mSize && !isLapped();
+        }
+
+        /**
+         * Reads the next buffer and advances the cursor
+         * @throws NoSuchElementException if there is no buffer available
+         * @throws IllegalStateException if the cursor is lapped
+         */
+        public float[] next()
+        {
+            return read(null, false);
+        }
+
+        /**
+         * Reads a copy of the next buffer into a caller owned buffer as described for
+         * {@link AudioBufferStore#get(int, float[])} and advances the cursor.
+         * @param reusable buffer to receive the samples, or null
+         * @throws NoSuchElementException if there is no buffer available
+         * @throws IllegalStateException if the cursor is lapped
+         */
+        public float[] next(float[] reusable)
+        {
+            return read(reusable, true);
+        }
+
+        private float[] read(float[] reusable, boolean copy)
+        {
+            if(mPosition >= mSize)
+            {
+                checkLapped();
+                throw new NoSuchElementException("No audio buffer available at position [" + mPosition + "]");
+            }
+
+            Chunk[] chunks = mChunks;
+            Chunk chunk = mChunkIndex < chunks.length ? chunks[mChunkIndex] : null;
+            float[] buffer = null;
+
+            if(chunk != null)
+            {
+                buffer = copy ? chunk.get(mOffset, reusable) : chunk.get(mOffset);
+            }
+
+            //The store may have been cleared while the buffer was read
+            checkLapped();
+
+            mPosition++;
+
+            if(++mOffset == CHUNK_SIZE)
+            {
+                mOffset = 0;
+                mChunkIndex++;
+            }
+
+            return buffer;
+        }
+
+        private void checkLapped()
+        {
+            if(isLapped())
+            {
+                throw new IllegalStateException("Audio buffer store was cleared - cursor lapped at position [" +
+                    mPosition + "]");
+            }
+        }
+    }
+
+    /**
+     * Fixed size chunk of audio buffers.  Once full, the chunk can be compacted to 16-bit samples.  The compacted
+     * samples are published before the float buffers are released, so a reader always finds one of the two.
+     */
+    private static class Chunk
+    {
+        private volatile float[][] mBuffers = new float[CHUNK_SIZE][];
+        private volatile CompactedSamples mCompacted;
+
+        /**
+         * Audio buffer at the offset within the chunk
+         */
+        private float[] get(int offset)
+        {
+            float[][] buffers = mBuffers;
+
+            if(buffers != null)
+            {
+                return buffers[offset];
+            }
+
+            return mCompacted.get(offset);
+        }
+
+        /**
+         * Copy of the audio buffer at the offset within the chunk, in the reusable buffer when its length matches
+         */
+        private float[] get(int offset, float[] reusable)
+        {
+            float[][] buffers = mBuffers;
+
+            if(buffers != null)
+            {
+                float[] buffer = buffers[offset];
+                float[] copy = reusable != null && reusable.length == buffer.length ? reusable : new float[buffer.length];
+                System.arraycopy(buffer, 0, copy, 0, buffer.length);
+                return copy;
+            }
+
+            return mCompacted.get(offset, reusable);
+        }
+
+        /**
+         * Converts the chunk's audio buffers to 16-bit samples and releases the float buffers.
+         */
+        private void compact()
+        {
+            mCompacted = new CompactedSamples(mBuffers);
+            mBuffers = null;
+        }
+    }
+
+    /**
+     * Audio buffers stored contiguously as 16-bit samples in a short array.
+     */
+    private static class CompactedSamples
+    {
+        private int[] mOffsets;
+        private short[] mSamples;
+
+        private CompactedSamples(float[][] buffers)
+        {
+            mOffsets = new int[buffers.length + 1];
+
+            for(int x = 0; x < buffers.length; x++)
+            {
+                mOffsets[x + 1] = mOffsets[x] + buffers[x].length;
+            }
+
+            mSamples = new short[mOffsets[buffers.length]];
+
+            int index = 0;
+
+            for(float[] buffer: buffers)
+            {
+                for(float sample: buffer)
+                {
+                    if(sample >= 1.0f)
+                    {
+                        mSamples[index++] = Short.MAX_VALUE;
+                    }
+                    else if(sample <= -1.0f)
+                    {
+                        mSamples[index++] = -Short.MAX_VALUE;
+                    }
+                    else
+                    {
+                        mSamples[index++] = (short)Math.round(sample * Short.MAX_VALUE);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Converts the buffer at the offset back to float samples
+         */
+        private float[] get(int offset)
+        {
+            return get(offset, null);
+        }
+
+        /**
+         * Converts the buffer at the offset back to float samples, into the reusable buffer when its length matches
+         */
+        private float[] get(int offset, float[] reusable)
+        {
+            int start = mOffsets[offset];
+            int length = mOffsets[offset + 1] - start;
+            float[] buffer = reusable != null && reusable.length == length ? reusable : new float[length];
+
+            for(int x = 0; x < buffer.length; x++)
+            {
+                buffer[x] = mSamples[start + x] * SHORT_TO_FLOAT;
+            }
+
+            return buffer;
+        }
+    }
+}
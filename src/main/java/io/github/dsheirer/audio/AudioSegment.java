@@ -41,7 +41,6 @@ import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -64,6 +63,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 public class AudioSegment implements Listener<IdentifierUpdateNotification>
 {
     private final static Logger mLog = LoggerFactory.getLogger(AudioSegment.class);
+    private static volatile AudioSegmentStorage sAudioSegmentStorage = AudioSegmentStorage.FLOAT;
     private BooleanProperty mComplete = new SimpleBooleanProperty(false);
     private BooleanProperty mDuplicate = new SimpleBooleanProperty(false);
     private BooleanProperty mRecordAudio = new SimpleBooleanProperty(false);
@@ -71,11 +71,11 @@ public class AudioSegment implements Listener<IdentifierUpdateNotification>
     private ObservableSet<BroadcastChannel> mBroadcastChannels = FXCollections.observableSet(new HashSet<>());
     private MutableIdentifierCollection mIdentifierCollection = new MutableIdentifierCollection();
     private Broadcaster<IdentifierUpdateNotification> mIdentifierUpdateNotificationBroadcaster = new Broadcaster<>();
-    private List<float[]> mAudioBuffers = new CopyOnWriteArrayList();
+    private AudioBufferStore mAudioBuffers = new AudioBufferStore(sAudioSegmentStorage);
     private AtomicInteger mConsumerCount = new AtomicInteger();
     private AliasList mAliasList;
     private long mStartTimestamp = System.currentTimeMillis();
-    private long mSampleCount = 0;
+    private volatile long mSampleCount = 0;
     private boolean mDisposing = false;
     private AudioSegment mLinkedAudioSegment;
     private int mTimeslot;
@@ -271,13 +271,27 @@ public class AudioSegment implements Listener<IdentifierUpdateNotification>
     }
 
     /**
-     * Unmodifiable copy of the list of audio buffers for this segment.
+     * Sets the storage representation for the audio buffers of audio segments that are created after this call.
+     *
+     * @param storage for completed chunks of audio buffers
+     */
+    public static void setAudioSegmentStorage(AudioSegmentStorage storage)
+    {
+        if(storage != null)
+        {
+            sAudioSegmentStorage = storage;
+        }
+    }
+
+    /**
+     * Unmodifiable snapshot view of the audio buffers for this segment.  Audio buffers that are added after this call
+     * are not included in the view.
      *
      * @return list of audio buffers
      */
     public List<float[]> getAudioBuffers()
     {
-        return Collections.unmodifiableList(mAudioBuffers);
+        return mAudioBuffers.snapshot();
     }
 
     /**
@@ -308,6 +322,15 @@ public class AudioSegment implements Listener<IdentifierUpdateNotification>
         }
     }
 
+    /**
+     * Creates a cursor for streaming this segment's audio buffers from the start of the segment, including buffers
+     * that are added after this call.  The caller must hold a consumer count on this segment while using the cursor.
+     */
+    public AudioBufferStore.Cursor getAudioBufferCursor()
+    {
+        return mAudioBuffers.cursor();
+    }
+
     /**
      * Indicates if this audio segment has one or more audio buffers
      */
@@ -20,9 +20,12 @@ package io.github.dsheirer.audio.broadcast;
 
 import io.github.dsheirer.alias.id.broadcast.BroadcastChannel;
 import io.github.dsheirer.identifier.IdentifierCollection;
+import io.github.dsheirer.record.EncodedAudioCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collection;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -32,6 +35,7 @@ public class AudioRecording implements Comparable<AudioRecording>
     private final static Logger mLog = LoggerFactory.getLogger(AudioRecording.class);
 
     private Path mPath;
+    private EncodedAudioCache.CachedAudio mCachedAudio;
     private long mStartTime;
     private long mRecordingLength;
     private AtomicInteger mPendingReplayCount = new AtomicInteger();
@@ -57,13 +61,68 @@ public class AudioRecording implements Comparable<AudioRecording>
     }
 
     /**
-     * Path to the completed audio recording
+     * Audio recording that is ready to be streamed, using encoded audio from the encoded audio cache.  The cached
+     * audio handle is released when this recording is disposed.
+     *
+     * @param cachedAudio handle to the encoded audio
+     * @param identifierCollection associated with the recording
+     * @param start time of recording in milliseconds since epoch
+     * @param recordingLength in milliseconds
+     */
+    public AudioRecording(EncodedAudioCache.CachedAudio cachedAudio, Collection<BroadcastChannel> broadcastChannels,
+                          IdentifierCollection identifierCollection, long start, long recordingLength)
+    {
+        this((Path)null, broadcastChannels, identifierCollection, start, recordingLength);
+        mCachedAudio = cachedAudio;
+    }
+
+    /**
+     * Path to the completed audio recording, or null if the recording audio is held by the encoded audio cache
      */
     public Path getPath()
     {
         return mPath;
     }
 
+    /**
+     * Contents of the encoded audio recording
+     * @throws IOException if the recording can't be read
+     */
+    public byte[] getAudio() throws IOException
+    {
+        if(mCachedAudio != null)
+        {
+            return mCachedAudio.getBytes();
+        }
+
+        return Files.readAllBytes(mPath);
+    }
+
+    /**
+     * Releases the recording audio, either by releasing the cached audio handle or deleting the temporary
+     * recording file.  This should only be invoked once there are no pending replays.
+     * @throws IOException if the temporary recording file can't be deleted
+     */
+    public void dispose() throws IOException
+    {
+        if(mCachedAudio != null)
+        {
+            mCachedAudio.release();
+        }
+        else if(mPath != null)
+        {
+            Files.delete(mPath);
+        }
+    }
+
+    /**
+     * Description of the recording source for logging
+     */
+    public String getSourceDescription()
+    {
+        return mCachedAudio != null ? "cached " + mCachedAudio.getRecordFormat() + " audio" : String.valueOf(mPath);
+    }
+
     /**
      * Collection of broadcast channels that this recording should be streamed to
      */
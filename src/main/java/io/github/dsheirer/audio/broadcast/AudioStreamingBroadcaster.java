@@ -29,7 +29,6 @@ import org.slf4j.LoggerFactory;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.nio.file.Files;
 import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.LinkedTransferQueue;
@@ -374,40 +373,37 @@ public abstract class AudioStreamingBroadcaster<T extends BroadcastConfiguration
 
                 try
                 {
-                    if(Files.exists(nextRecording.getPath()))
-                    {
-                        byte[] audio = Files.readAllBytes(nextRecording.getPath());
-
-                        if(audio.length > 0)
-                        {
-                            //Calculate how many bytes we'll send with each processor run interval
-                            double intervals = (double)nextRecording.getRecordingLength() / (double)PROCESSOR_RUN_INTERVAL_MS;
-                            mBytesToStreamPerInterval = (int)((double)audio.length / intervals);
+                    byte[] audio = nextRecording.getAudio();
 
-                            mInputStream = new ByteArrayInputStream(audio);
-                            mInputIdentifierCollection = nextRecording.getIdentifierCollection();
+                    if(audio.length > 0)
+                    {
+                        //Calculate how many bytes we'll send with each processor run interval
+                        double intervals = (double)nextRecording.getRecordingLength() / (double)PROCESSOR_RUN_INTERVAL_MS;
+                        mBytesToStreamPerInterval = (int)((double)audio.length / intervals);
 
-                            mFinalSilencePadding = PROCESSOR_RUN_INTERVAL_MS -
-                                (nextRecording.getRecordingLength() % PROCESSOR_RUN_INTERVAL_MS);
+                        mInputStream = new ByteArrayInputStream(audio);
+                        mInputIdentifierCollection = nextRecording.getIdentifierCollection();
 
-                            while(mFinalSilencePadding >= PROCESSOR_RUN_INTERVAL_MS)
-                            {
-                                mFinalSilencePadding -= PROCESSOR_RUN_INTERVAL_MS;
-                            }
+                        mFinalSilencePadding = PROCESSOR_RUN_INTERVAL_MS -
+                            (nextRecording.getRecordingLength() % PROCESSOR_RUN_INTERVAL_MS);
 
-                            if(connected())
-                            {
-                                broadcastMetadata(nextRecording.getIdentifierCollection());
-                            }
+                        while(mFinalSilencePadding >= PROCESSOR_RUN_INTERVAL_MS)
+                        {
+                            mFinalSilencePadding -= PROCESSOR_RUN_INTERVAL_MS;
+                        }
 
-                            metadataUpdateRequired = false;
+                        if(connected())
+                        {
+                            broadcastMetadata(nextRecording.getIdentifierCollection());
                         }
+
+                        metadataUpdateRequired = false;
                     }
                 }
                 catch(IOException ioe)
                 {
                     mLog.error("Stream [" + getBroadcastConfiguration().getName() + "] error reading temporary audio " +
-                        "stream recording [" + nextRecording.getPath().toString() + "] - skipping recording - ", ioe);
+                        "stream recording [" + nextRecording.getSourceDescription() + "] - skipping recording - ", ioe);
 
                     mInputStream = null;
                     mInputIdentifierCollection = null;
@@ -22,16 +22,13 @@ package io.github.dsheirer.audio.broadcast;
 import io.github.dsheirer.audio.AudioSegment;
 import io.github.dsheirer.identifier.IdentifierCollection;
 import io.github.dsheirer.preference.UserPreferences;
-import io.github.dsheirer.record.AudioSegmentRecorder;
+import io.github.dsheirer.record.EncodedAudioCache;
 import io.github.dsheirer.record.RecordFormat;
 import io.github.dsheirer.sample.Listener;
 import io.github.dsheirer.util.ThreadPool;
-import io.github.dsheirer.util.TimeStamp;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.IOException;
-import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
@@ -40,8 +37,9 @@ import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 /**
- * Audio streaming manager monitors audio segments through completion and creates temporary streaming recordings on
- * disk and enqueues the temporary recording for streaming.
+ * Audio streaming manager monitors audio segments through completion and enqueues the encoded audio for streaming.
+ * Audio segments are encoded through the shared encoded audio cache, so that audio segments that are also recorded
+ * are only encoded once, and the encoded audio is streamed from memory unless the cache spilled it to disk.
  */
 public class AudioStreamingManager implements Listener<AudioSegment>
 {
@@ -51,20 +49,23 @@ public class AudioStreamingManager implements Listener<AudioSegment>
     private Listener<AudioRecording> mAudioRecordingListener;
     private BroadcastFormat mBroadcastFormat;
     private UserPreferences mUserPreferences;
+    private EncodedAudioCache mEncodedAudioCache;
     private ScheduledFuture<?> mAudioSegmentProcessorFuture;
-    private int mNextRecordingNumber = 1;
 
     /**
      * Constructs an instance
      * @param listener to receive completed audio recordings
-     * @param broadcastFormat for temporary recordings
+     * @param broadcastFormat for streaming recordings
      * @param userPreferences to manage recording directories
+     * @param encodedAudioCache shared with the audio recording manager for encoding audio segments
      */
-    public AudioStreamingManager(Listener<AudioRecording> listener, BroadcastFormat broadcastFormat, UserPreferences userPreferences)
+    public AudioStreamingManager(Listener<AudioRecording> listener, BroadcastFormat broadcastFormat,
+                                 UserPreferences userPreferences, EncodedAudioCache encodedAudioCache)
     {
         mAudioRecordingListener = listener;
         mBroadcastFormat = broadcastFormat;
         mUserPreferences = userPreferences;
+        mEncodedAudioCache = encodedAudioCache;
     }
 
     /**
@@ -138,29 +139,27 @@ public class AudioStreamingManager implements Listener<AudioSegment>
 
                 if(mAudioRecordingListener != null && audioSegment.hasBroadcastChannels())
                 {
-                    Path path = getTemporaryRecordingPath();
-                    long length = 0;
-
-                    for(float[] audioBuffer: audioSegment.getAudioBuffers())
-                    {
-                        length += audioBuffer.length;
-                    }
-
-                    length /= 8; //Sample rate is 8000 samples per second, or 8 samples per millisecond.
+                    long length = audioSegment.getDuration();
 
                     try
                     {
-                        AudioSegmentRecorder.record(audioSegment, path, RecordFormat.MP3, mUserPreferences);
-                        IdentifierCollection identifierCollectionCopy =
-                            new IdentifierCollection(audioSegment.getIdentifierCollection().getIdentifiers());
-
-                        AudioRecording audioRecording = new AudioRecording(path, audioSegment.getBroadcastChannels(),
-                            identifierCollectionCopy, audioSegment.getStartTimestamp(), length);
-                        mAudioRecordingListener.receive(audioRecording);
+                        EncodedAudioCache.CachedAudio cachedAudio = mEncodedAudioCache.acquire(audioSegment,
+                            getRecordFormat());
+
+                        if(cachedAudio != null)
+                        {
+                            IdentifierCollection identifierCollectionCopy =
+                                new IdentifierCollection(audioSegment.getIdentifierCollection().getIdentifiers());
+
+                            AudioRecording audioRecording = new AudioRecording(cachedAudio,
+                                audioSegment.getBroadcastChannels(), identifierCollectionCopy,
+                                audioSegment.getStartTimestamp(), length);
+                            mAudioRecordingListener.receive(audioRecording);
+                        }
                     }
-                    catch(IOException ioe)
+                    catch(Exception e)
                     {
-                        mLog.error("Error recording temporary stream MP3");
+                        mLog.error("Error encoding audio segment for streaming", e);
                     }
                 }
 
@@ -170,28 +169,14 @@ public class AudioStreamingManager implements Listener<AudioSegment>
     }
 
     /**
-     * Creates a temporary streaming recording file path
+     * Record format of the encoded audio for the broadcast format
      */
-    private Path getTemporaryRecordingPath()
+    private RecordFormat getRecordFormat()
     {
-        StringBuilder sb = new StringBuilder();
-        sb.append(BroadcastModel.TEMPORARY_STREAM_FILE_SUFFIX);
-
-        //Check for integer overflow and readjust negative value to 0
-        if(mNextRecordingNumber < 0)
+        return switch(mBroadcastFormat)
         {
-            mNextRecordingNumber = 1;
-        }
-
-        int recordingNumber = mNextRecordingNumber++;
-
-        sb.append(recordingNumber).append("_");
-        sb.append(TimeStamp.getLongTimeStamp("_"));
-        sb.append(mBroadcastFormat.getFileExtension());
-
-        Path temporaryRecordingPath = mUserPreferences.getDirectoryPreference().getDirectoryStreaming().resolve(sb.toString());
-
-        return temporaryRecordingPath;
+            case MP3 -> RecordFormat.MP3;
+        };
     }
 
     /**
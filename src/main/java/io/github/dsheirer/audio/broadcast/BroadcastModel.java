@@ -673,7 +673,7 @@ public class BroadcastModel extends AbstractTableModel implements Listener<Audio
     }
 
     /**
-     * Cleanup method to remove a temporary recording file from disk.
+     * Cleanup method to remove a temporary recording file from disk or release its cached audio.
      *
      * @param recording to remove
      */
@@ -681,11 +681,11 @@ public class BroadcastModel extends AbstractTableModel implements Listener<Audio
     {
         try
         {
-            Files.delete(recording.getPath());
+            recording.dispose();
         }
         catch(IOException ioe)
         {
-            mLog.error("Error deleting temporary internet recording file: " + recording.getPath().toString() + " - " +
+            mLog.error("Error deleting temporary internet recording file: " + recording.getSourceDescription() + " - " +
                 ioe.getMessage());
         }
     }
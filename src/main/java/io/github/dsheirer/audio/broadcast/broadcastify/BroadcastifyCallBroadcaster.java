@@ -41,7 +41,6 @@ import io.github.dsheirer.util.ThreadPool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.net.URI;
 import java.net.http.HttpClient;
@@ -297,11 +296,11 @@ public class BroadcastifyCallBroadcaster extends AbstractAudioBroadcaster<Broadc
 
                                     try
                                     {
-                                        filePublisher = HttpRequest.BodyPublishers.ofFile(audioRecording.getPath());
+                                        filePublisher = HttpRequest.BodyPublishers.ofByteArray(audioRecording.getAudio());
                                     }
-                                    catch(FileNotFoundException fnfe)
+                                    catch(IOException ioe)
                                     {
-                                        mLog.error("Broadcastify calls API - audio recording file not found - ignoring upload");
+                                        mLog.error("Broadcastify calls API - audio recording not available - ignoring upload");
                                     }
 
                                     if(filePublisher != null)
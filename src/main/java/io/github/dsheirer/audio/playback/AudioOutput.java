@@ -23,6 +23,7 @@ package io.github.dsheirer.audio.playback;
 
 import com.google.common.eventbus.Subscribe;
 import io.github.dsheirer.alias.id.priority.Priority;
+import io.github.dsheirer.audio.AudioBufferStore;
 import io.github.dsheirer.audio.AudioEvent;
 import io.github.dsheirer.audio.AudioSegment;
 import io.github.dsheirer.eventbus.MyEventBus;
@@ -79,7 +80,8 @@ public abstract class AudioOutput implements LineListener, Listener<IdentifierUp
     private AudioSegment mCurrentAudioSegment;
     private AudioSegment mNextAudioSegment;
     private ReentrantLock mLock = new ReentrantLock();
-    private int mCurrentBufferIndex = 0;
+    private AudioBufferStore.Cursor mCurrentCursor;
+    private float[] mPlaybackBuffer;
     private UserPreferences mUserPreferences;
     private BooleanProperty mEmptyProperty = new SimpleBooleanProperty(true);
     private IntegerProperty mAudioPriority = new SimpleIntegerProperty(Priority.DEFAULT_PRIORITY);
@@ -399,7 +401,7 @@ public abstract class AudioOutput implements LineListener, Listener<IdentifierUp
                     {
                         mCurrentAudioSegment = mNextAudioSegment;
                         mNextAudioSegment = null;
-                        mCurrentBufferIndex = 0;
+                        mCurrentCursor = mCurrentAudioSegment != null ? mCurrentAudioSegment.getAudioBufferCursor() : null;
 
                         if(mCurrentAudioSegment != null)
                         {
@@ -420,9 +422,8 @@ public abstract class AudioOutput implements LineListener, Listener<IdentifierUp
                     {
                         playAudio(getAudioSegmentStartTone());
                     }
-                    else if(mCurrentBufferIndex > 0 &&
-                        (!mCurrentAudioSegment.completeProperty().get() ||
-                            mCurrentBufferIndex < mCurrentAudioSegment.getAudioBufferCount()))
+                    else if(mCurrentCursor.getPosition() > 0 &&
+                        (!mCurrentAudioSegment.completeProperty().get() || mCurrentCursor.hasNext()))
                     {
                         playAudio(getAudioSegmentPreemptionTone());
                     }
@@ -435,7 +436,7 @@ public abstract class AudioOutput implements LineListener, Listener<IdentifierUp
                     dispose(mCurrentAudioSegment);
                     mCurrentAudioSegment = mNextAudioSegment;
                     mNextAudioSegment = null;
-                    mCurrentBufferIndex = 0;
+                    mCurrentCursor = mCurrentAudioSegment != null ? mCurrentAudioSegment.getAudioBufferCursor() : null;
 
                     if(mCurrentAudioSegment != null)
                     {
@@ -461,7 +462,7 @@ public abstract class AudioOutput implements LineListener, Listener<IdentifierUp
             if(mCurrentAudioSegment.isDoNotMonitor() ||
                (mCurrentAudioSegment.isDuplicate() &&
                 mUserPreferences.getDuplicateCallDetectionPreference().isDuplicatePlaybackSuppressionEnabled()) ||
-                (mCurrentAudioSegment.completeProperty().get() && mCurrentBufferIndex >= mCurrentAudioSegment.getAudioBufferCount()))
+                (mCurrentAudioSegment.completeProperty().get() && !mCurrentCursor.hasNext()))
             {
                 if(mCurrentAudioSegment.isDoNotMonitor())
                 {
@@ -492,14 +493,16 @@ public abstract class AudioOutput implements LineListener, Listener<IdentifierUp
             //while processing, exit the loop so that we can evaluate the next for higher priority preempt.  If the next
             //segment is a linked segment, ignore it so that we can close out the current segment.
             while(mCurrentAudioSegment != null && (mNextAudioSegment == null || mNextAudioSegment.isLinked()) &&
-                   mCurrentBufferIndex < mCurrentAudioSegment.getAudioBufferCount() &&
+                   mCurrentCursor.hasNext() &&
                    !mCurrentAudioSegment.isDoNotMonitor() && !(mCurrentAudioSegment.isDuplicate() &&
                 mUserPreferences.getDuplicateCallDetectionPreference().isDuplicatePlaybackSuppressionEnabled()))
             {
-                float[] audioBuffer = mCurrentAudioSegment.getAudioBuffers().get(mCurrentBufferIndex++);
+                //Read into the reusable playback buffer to avoid allocating a buffer for each compacted (16-bit) read
+                float[] audioBuffer = mCurrentCursor.next(mPlaybackBuffer);
 
                 if(audioBuffer != null)
                 {
+                    mPlaybackBuffer = audioBuffer;
                     ByteBuffer audio = convert(audioBuffer);
                     playAudio(audio);
                 }
@@ -541,6 +544,7 @@ public abstract class AudioOutput implements LineListener, Listener<IdentifierUp
 
         dispose(mCurrentAudioSegment);
         mCurrentAudioSegment = null;
+        mCurrentCursor = null;
 
         mAudioEventBroadcaster.clear();
         mIdentifierCollectionListener = null;
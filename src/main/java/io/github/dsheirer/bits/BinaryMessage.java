@@ -49,6 +49,14 @@ public class BinaryMessage extends BitSet
      */
     private CRC mCRC;
 
+    /**
+     * Snapshot of the underlying bitset words used for word-level field extraction.  The snapshot is created lazily
+     * on the first field access and discarded whenever any of the bitset mutator methods are invoked.  Messages are
+     * read by several threads (e.g. decoder and event/UI threads), so the field is volatile to safely publish the
+     * fully populated snapshot array.
+     */
+    private transient volatile long[] mWords;
+
     /**
      * Constructs a bitset that buffers bits added one at a time, up to the size
      * of the this bitset.
@@ -251,6 +259,156 @@ public class BinaryMessage extends BitSet
     {
         this.clear(0, mSize);
         mPointer = 0;
+        mWords = null;
+    }
+
+    /**
+     * Returns the snapshot of the underlying bitset words, creating it if the snapshot was discarded by a mutation.
+     * Words beyond the length of the snapshot array contain only cleared bits.
+     */
+    private long[] words()
+    {
+        long[] words = mWords;
+
+        if(words == null)
+        {
+            words = toLongArray();
+            mWords = words;
+        }
+
+        return words;
+    }
+
+    /**
+     * Extracts up to 64 contiguous bits using at most two bitset words.  The bit at the start index is placed in the
+     * most significant position of the returned value and the bit at start + length - 1 is the least significant bit.
+     *
+     * @param start index of the MSB of the field
+     * @param length of the field, 1 - 64 bits
+     * @return field value
+     */
+    long getWordBits(int start, int length)
+    {
+        long[] words = words();
+        int wordIndex = start >> 6;
+        int shift = start & 0x3F;
+
+        long raw = 0;
+
+        if(wordIndex < words.length)
+        {
+            raw = words[wordIndex] >>> shift;
+        }
+
+        if(shift + length > 64 && wordIndex + 1 < words.length)
+        {
+            raw |= words[wordIndex + 1] << (64 - shift);
+        }
+
+        //The bitset stores bit 0 in the LSB of the word, so reverse the field to place the start bit in the MSB
+        return Long.reverse(raw) >>> (64 - length);
+    }
+
+    /**
+     * Extracts the bit value at the index position from the word snapshot.
+     * @param words snapshot
+     * @param index of the bit
+     * @return 1 if the bit is set or 0 if the bit is clear
+     */
+    private static int getWordBit(long[] words, int index)
+    {
+        int wordIndex = index >> 6;
+
+        if(wordIndex < words.length)
+        {
+            return (int)(words[wordIndex] >>> index) & 1;
+        }
+
+        return 0;
+    }
+
+    @Override
+    public void set(int bitIndex)
+    {
+        super.set(bitIndex);
+        mWords = null;
+    }
+
+    @Override
+    public void set(int bitIndex, boolean value)
+    {
+        super.set(bitIndex, value);
+        mWords = null;
+    }
+
+    @Override
+    public void set(int fromIndex, int toIndex)
+    {
+        super.set(fromIndex, toIndex);
+        mWords = null;
+    }
+
+    @Override
+    public void set(int fromIndex, int toIndex, boolean value)
+    {
+        super.set(fromIndex, toIndex, value);
+        mWords = null;
+    }
+
+    @Override
+    public void clear(int bitIndex)
+    {
+        super.clear(bitIndex);
+        mWords = null;
+    }
+
+    @Override
+    public void clear(int fromIndex, int toIndex)
+    {
+        super.clear(fromIndex, toIndex);
+        mWords = null;
+    }
+
+    @Override
+    public void flip(int bitIndex)
+    {
+        super.flip(bitIndex);
+        mWords = null;
+    }
+
+    @Override
+    public void flip(int fromIndex, int toIndex)
+    {
+        super.flip(fromIndex, toIndex);
+        mWords = null;
+    }
+
+    @Override
+    public void and(BitSet set)
+    {
+        super.and(set);
+        mWords = null;
+    }
+
+    @Override
+    public void or(BitSet set)
+    {
+        super.or(set);
+        mWords = null;
+    }
+
+    @Override
+    public void xor(BitSet set)
+    {
+        super.xor(set);
+        mWords = null;
+    }
+
+    @Override
+    public void andNot(BitSet set)
+    {
+        super.andNot(set);
+        mWords = null;
     }
 
     /**
@@ -431,16 +589,17 @@ public class BinaryMessage extends BitSet
                 + "or less to fit into a primitive integer value");
         }
 
+        long[] words = words();
         int value = 0;
 
         for(int index : bits)
         {
-            value = Integer.rotateLeft(value, 1);
-
-            if(get(index))
+            if(index < 0)
             {
-                value++;
+                throw new IndexOutOfBoundsException("bitIndex < 0: " + index);
             }
+
+            value = (value << 1) | getWordBit(words, index);
         }
 
         return value;
@@ -463,21 +622,54 @@ public class BinaryMessage extends BitSet
                 + "or less to fit into a primitive integer value");
         }
 
+        long[] words = words();
         int value = 0;
 
         for(int index : bits)
         {
-            value = Integer.rotateLeft(value, 1);
-
-            if(get(index + offset))
+            if(index + offset < 0)
             {
-                value++;
+                throw new IndexOutOfBoundsException("bitIndex < 0: " + (index + offset));
             }
+
+            value = (value << 1) | getWordBit(words, index + offset);
         }
 
         return value;
     }
 
+    /**
+     * Returns the integer value of the field described by the precompiled field extractor.
+     *
+     * @param field extractor for the field bit positions
+     * @return integer value of the field
+     * @throws IllegalArgumentException if the field is wider than 32 bits - use {@link #getLong(FieldExtractor)}
+     */
+    public int getInt(FieldExtractor field)
+    {
+        return getInt(field, 0);
+    }
+
+    /**
+     * Returns the integer value of the field described by the precompiled field extractor.
+     *
+     * @param field extractor for the field bit positions
+     * @param offset to apply to each of the field bit positions
+     * @return integer value of the field
+     * @throws IllegalArgumentException if the field is wider than 32 bits - use
+     * {@link #getLong(FieldExtractor, int)}
+     */
+    public int getInt(FieldExtractor field, int offset)
+    {
+        if(field.getLength() > 32)
+        {
+            throw new IllegalArgumentException("Overflow - field is " + field.getLength() + " bits and must be 32 bits " +
+                "or less to fit into a primitive integer value - use getLong()");
+        }
+
+        return (int)field.extract(this, offset);
+    }
+
     public void setInt(int value, int[] indices)
     {
         for(int x = 0; x < indices.length; x++)
@@ -671,16 +863,17 @@ public class BinaryMessage extends BitSet
                 + "or less to fit into a primitive long value");
         }
 
+        long[] words = words();
         long value = 0;
 
         for(int index : bits)
         {
-            value = Long.rotateLeft(value, 1);
-
-            if(get(index))
+            if(index < 0)
             {
-                value++;
+                throw new IndexOutOfBoundsException("bitIndex < 0: " + index);
             }
+
+            value = (value << 1) | getWordBit(words, index);
         }
 
         return value;
@@ -703,21 +896,45 @@ public class BinaryMessage extends BitSet
                 + "or less to fit into a primitive long value");
         }
 
+        long[] words = words();
         long value = 0;
 
         for(int index : bits)
         {
-            value = Long.rotateLeft(value, 1);
-
-            if(get(index + offset))
+            if(index + offset < 0)
             {
-                value++;
+                throw new IndexOutOfBoundsException("bitIndex < 0: " + (index + offset));
             }
+
+            value = (value << 1) | getWordBit(words, index + offset);
         }
 
         return value;
     }
 
+    /**
+     * Returns the long value of the field described by the precompiled field extractor.
+     *
+     * @param field extractor for the field bit positions
+     * @return long value of the field
+     */
+    public long getLong(FieldExtractor field)
+    {
+        return field.extract(this, 0);
+    }
+
+    /**
+     * Returns the long value of the field described by the precompiled field extractor.
+     *
+     * @param field extractor for the field bit positions
+     * @param offset to apply to each of the field bit positions
+     * @return long value of the field
+     */
+    public long getLong(FieldExtractor field, int offset)
+    {
+        return field.extract(this, offset);
+    }
+
     /**
      * Returns the bit values between start and end (inclusive) bit indices.  If the overall length of the bit sequence
      * is not a multiple of 8 bits, the value is zero padded with least significant bits to make it a multiple of 8.
@@ -800,6 +1017,12 @@ public class BinaryMessage extends BitSet
                 + "or less to fit into a primitive integer value");
         }
 
+        //Fast path: contiguous range of 32 bits or less extracted from at most two bitset words
+        if(0 <= start && start <= end && end - start < 32)
+        {
+            return (int)getWordBits(start, end - start + 1);
+        }
+
         int value = 0;
 
         if(start < end)
@@ -870,6 +1093,12 @@ public class BinaryMessage extends BitSet
                 + "or less to fit into a primitive long value");
         }
 
+        //Fast path: contiguous range of 64 bits or less extracted from at most two bitset words
+        if(0 <= start && start <= end && end - start < 64)
+        {
+            return getWordBits(start, end - start + 1);
+        }
+
         long value = 0;
 
         if(start < end)
@@ -0,0 +1,160 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.bits;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Precompiled form of a message field bit index array.  The field bit positions are compiled into runs of
+ * contiguous ascending bit positions so that each run can be extracted from the binary message words with a single
+ * mask-and-shift operation, instead of testing each field bit position individually.
+ *
+ * Field bit positions follow the same convention as the int[] index arrays used by the message classes: index 0 is
+ * the MSB of the field value and index length - 1 is the LSB.  Fields can be up to 64 bits long.
+ */
+public class FieldExtractor
+{
+    private final int[] mIndexes;
+    private final int[] mRunStarts;
+    private final int[] mRunLengths;
+
+    /**
+     * Constructs an instance.  Use the static factory methods to create a field extractor.
+     * @param indexes for the field
+     */
+    private FieldExtractor(int[] indexes)
+    {
+        if(indexes.length == 0 || indexes.length > 64)
+        {
+            throw new IllegalArgumentException("Field must contain 1 to 64 bit positions");
+        }
+
+        List<int[]> runs = new ArrayList<>();
+        int runStart = indexes[0];
+        int runLength = 1;
+
+        for(int x = 1; x < indexes.length; x++)
+        {
+            if(indexes[x] == indexes[x - 1] + 1)
+            {
+                runLength++;
+            }
+            else
+            {
+                runs.add(new int[]{runStart, runLength});
+                runStart = indexes[x];
+                runLength = 1;
+            }
+        }
+
+        runs.add(new int[]{runStart, runLength});
+
+        mIndexes = Arrays.copyOf(indexes, indexes.length);
+        mRunStarts = new int[runs.size()];
+        mRunLengths = new int[runs.size()];
+
+        for(int x = 0; x < runs.size(); x++)
+        {
+            mRunStarts[x] = runs.get(x)[0];
+            mRunLengths[x] = runs.get(x)[1];
+        }
+    }
+
+    /**
+     * Creates a field extractor for the (possibly non-contiguous) field bit positions.
+     * @param indexes of the field bits, ordered MSB to LSB
+     * @return field extractor
+     */
+    public static FieldExtractor of(int ... indexes)
+    {
+        return new FieldExtractor(indexes);
+    }
+
+    /**
+     * Creates a field extractor for the contiguous range of bit positions.
+     * @param start bit position of the field MSB
+     * @param end bit position of the field LSB, inclusive
+     * @return field extractor
+     */
+    public static FieldExtractor range(int start, int end)
+    {
+        return new FieldExtractor(BinaryMessage.getFieldIndexes(start, end - start + 1, false));
+    }
+
+    /**
+     * Field bit positions ordered MSB to LSB
+     */
+    public int[] getIndexes()
+    {
+        return Arrays.copyOf(mIndexes, mIndexes.length);
+    }
+
+    /**
+     * Number of bits in the field
+     */
+    public int getLength()
+    {
+        return mIndexes.length;
+    }
+
+    /**
+     * Number of contiguous runs that this field was compiled into.  A contiguous field has a single run.
+     */
+    public int getRunCount()
+    {
+        return mRunStarts.length;
+    }
+
+    /**
+     * Extracts the field value from the message.
+     * @param message containing the field
+     * @param offset to apply to each of the field bit positions
+     * @return field value
+     */
+    long extract(BinaryMessage message, int offset)
+    {
+        long value = 0;
+
+        for(int x = 0; x < mRunStarts.length; x++)
+        {
+            int start = mRunStarts[x] + offset;
+
+            if(start < 0)
+            {
+                throw new IndexOutOfBoundsException("bitIndex < 0: " + start);
+            }
+
+            int length = mRunLengths[x];
+
+            //Shift in two steps so that a 64-bit run doesn't produce a shift distance of 64 (ie no-op)
+            value = ((value << (length - 1)) << 1) | message.getWordBits(start, length);
+        }
+
+        return value;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "Field " + Arrays.toString(mIndexes) + " runs:" + mRunStarts.length;
+    }
+}
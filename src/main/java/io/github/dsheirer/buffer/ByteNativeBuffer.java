@@ -21,13 +21,15 @@ package io.github.dsheirer.buffer;
 
 import io.github.dsheirer.sample.complex.ComplexSamples;
 import io.github.dsheirer.sample.complex.InterleavedComplexSamples;
+
+import java.nio.ByteBuffer;
 import java.util.Iterator;
 
 /**
  * Native buffer sample array wrapper class that provides access to a stream of either interleaved or
  * non-interleaved complex sample buffers converted from the raw byte sample array.
  */
-public class ByteNativeBuffer implements INativeBuffer
+public class ByteNativeBuffer extends PooledNativeBuffer implements IRawSampleBuffer
 {
     private static final int FRAGMENT_SIZE = 2048;
     private final static float[] LOOKUP_VALUES;
@@ -47,6 +49,7 @@ public class ByteNativeBuffer implements INativeBuffer
 
     private byte[] mSamples;
     private long mTimestamp;
+    private NativeBufferPool<byte[]> mPool;
 
     /**
      * Constructs an instance
@@ -67,6 +70,46 @@ public class ByteNativeBuffer implements INativeBuffer
         mAverageDc = averageDc;
     }
 
+    /**
+     * Constructs an instance that returns the samples array to the pool once all references are released.
+     * @param samples to process
+     * @param timestamp of the samples
+     * @param averageDc measured from sample stream
+     * @param pool to receive the samples array for reuse
+     */
+    public ByteNativeBuffer(byte[] samples, long timestamp, float averageDc, NativeBufferPool<byte[]> pool)
+    {
+        this(samples, timestamp, averageDc);
+        mPool = pool;
+    }
+
+    @Override
+    protected void recycle()
+    {
+        if(mPool != null)
+        {
+            mPool.recycle(mSamples);
+        }
+    }
+
+    @Override
+    public RawSampleEncoding getRawSampleEncoding()
+    {
+        return RawSampleEncoding.UNSIGNED_8_BIT;
+    }
+
+    @Override
+    public int getRawSampleByteCount()
+    {
+        return mSamples.length;
+    }
+
+    @Override
+    public void getRawSamples(ByteBuffer destination)
+    {
+        destination.put(mSamples);
+    }
+
     @Override
     public int sampleCount()
     {
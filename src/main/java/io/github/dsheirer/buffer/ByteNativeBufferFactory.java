@@ -27,11 +27,12 @@ import java.nio.ByteBuffer;
 public class ByteNativeBufferFactory implements INativeBufferFactory
 {
     private DcCorrectionManager mDcCorrectionManager = new DcCorrectionManager();
+    private NativeBufferPool<byte[]> mBufferPool = NativeBufferPool.bytes();
 
     @Override
     public INativeBuffer getBuffer(ByteBuffer samples, long timestamp)
     {
-        byte[] copy = new byte[samples.capacity()];
+        byte[] copy = mBufferPool.get(samples.capacity());
         samples.get(copy);
 
         if(mDcCorrectionManager.shouldCalculateDc())
@@ -39,7 +40,13 @@ public class ByteNativeBufferFactory implements INativeBufferFactory
             calculateDc(copy);
         }
 
-        return new ByteNativeBuffer(copy, timestamp, mDcCorrectionManager.getAverageDc());
+        return new ByteNativeBuffer(copy, timestamp, mDcCorrectionManager.getAverageDc(), mBufferPool);
+    }
+
+    @Override
+    public NativeBufferPool<?> getBufferPool()
+    {
+        return mBufferPool;
     }
 
     /**
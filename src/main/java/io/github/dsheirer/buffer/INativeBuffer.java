@@ -50,4 +50,33 @@ public interface INativeBuffer
      * @return millis since epoch
      */
     long getTimestamp();
+
+    /**
+     * Claims a reference to this buffer.  Pooled buffer implementations recycle the underlying sample array once all
+     * references have been released.  The producer holds a reference while the buffer is broadcast, so listeners that
+     * only access the buffer within the receive() method don't need to claim a reference.  Listeners that queue or
+     * hold the buffer for access after the receive() method returns must claim a reference and release it when done.
+     */
+    default void retain()
+    {
+        //No-op for non-pooled buffers
+    }
+
+    /**
+     * Attempts to claim a reference to this buffer, failing if the buffer was already recycled.  This is intended for
+     * consumers that obtain the buffer from a shared structure where the producer may release it concurrently.
+     * @return true if a reference was claimed and the buffer can be used, or false if the buffer was recycled.
+     */
+    default boolean tryRetain()
+    {
+        return true;
+    }
+
+    /**
+     * Releases a reference to this buffer that was claimed via retain() or held by the producer.
+     */
+    default void release()
+    {
+        //No-op for non-pooled buffers
+    }
 }
@@ -36,4 +36,13 @@ public interface INativeBufferFactory
      * @return instance
      */
     INativeBuffer getBuffer(ByteBuffer samples, long timestamp);
+
+    /**
+     * Optional pool of sample arrays used by this factory, for monitoring pool usage and exhaustion metrics.
+     * @return pool or null if this factory doesn't pool sample arrays
+     */
+    default NativeBufferPool<?> getBufferPool()
+    {
+        return null;
+    }
 }
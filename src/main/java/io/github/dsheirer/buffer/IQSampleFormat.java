@@ -0,0 +1,64 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.buffer;
+
+/**
+ * Raw interleaved complex (I/Q) sample formats for recorded sample data.
+ */
+public enum IQSampleFormat
+{
+    /**
+     * Unsigned 8-bit samples with 127.5 as the zero value (RTL-SDR and 8-bit wave files)
+     */
+    UNSIGNED_8_BIT(1),
+
+    /**
+     * Signed (two's complement) 8-bit samples (HackRF)
+     */
+    SIGNED_8_BIT(1),
+
+    /**
+     * Signed (two's complement) 16-bit little-endian samples (16-bit wave files)
+     */
+    SIGNED_16_BIT(2);
+
+    private int mBytesPerSample;
+
+    IQSampleFormat(int bytesPerSample)
+    {
+        mBytesPerSample = bytesPerSample;
+    }
+
+    /**
+     * Number of bytes for each I or Q sample
+     */
+    public int getBytesPerSample()
+    {
+        return mBytesPerSample;
+    }
+
+    /**
+     * Number of bytes for each complex sample frame (I and Q)
+     */
+    public int getBytesPerFrame()
+    {
+        return mBytesPerSample * 2;
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.buffer;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Native buffer that provides access to the raw samples in their native (tuner) encoding, so that the samples can be
+ * recorded without first converting them to a wider sample format.
+ */
+public interface IRawSampleBuffer extends INativeBuffer
+{
+    /**
+     * Encoding of the raw samples
+     */
+    RawSampleEncoding getRawSampleEncoding();
+
+    /**
+     * Number of bytes required to hold the raw samples in their native encoding.
+     */
+    int getRawSampleByteCount();
+
+    /**
+     * Writes the raw samples in their native encoding into the destination buffer, starting at the buffer's current
+     * position.
+     * @param destination with at least getRawSampleByteCount() bytes remaining
+     */
+    void getRawSamples(ByteBuffer destination);
+}
@@ -0,0 +1,212 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.buffer;
+
+import io.github.dsheirer.sample.complex.ComplexSamples;
+import io.github.dsheirer.sample.complex.InterleavedComplexSamples;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Native buffer that wraps a region of raw interleaved I/Q sample bytes, typically a slice of a memory-mapped
+ * recording file.  The sample bytes are not copied: samples are converted to floats directly from the region, one
+ * fragment at a time, as the consumer iterates the buffer.
+ */
+public class MappedNativeBuffer implements INativeBuffer
+{
+    private static final int FRAGMENT_SIZE = 8192;
+    private final static float[] UNSIGNED_LOOKUP_VALUES;
+    private final static float[] SIGNED_LOOKUP_VALUES;
+
+    static
+    {
+        UNSIGNED_LOOKUP_VALUES = new float[256];
+        SIGNED_LOOKUP_VALUES = new float[256];
+
+        for(int x = 0; x < 256; x++)
+        {
+            UNSIGNED_LOOKUP_VALUES[x] = ((float)x - 127.5f) / 128.0f;
+            SIGNED_LOOKUP_VALUES[x] = (float)((byte)x) / 128.0f;
+        }
+    }
+
+    private ByteBuffer mSamples;
+    private IQSampleFormat mSampleFormat;
+    private long mTimestamp;
+
+    /**
+     * Constructs an instance
+     * @param samples region containing interleaved I/Q sample bytes.  The region's position and limit delimit the
+     * samples and must be a whole number of sample frames.
+     * @param sampleFormat of the sample bytes
+     * @param timestamp of the first sample
+     */
+    public MappedNativeBuffer(ByteBuffer samples, IQSampleFormat sampleFormat, long timestamp)
+    {
+        if(samples.remaining() % sampleFormat.getBytesPerFrame() != 0)
+        {
+            throw new IllegalArgumentException("Samples region length [" + samples.remaining() +
+                "] must be a multiple of the frame size [" + sampleFormat.getBytesPerFrame() + "]");
+        }
+
+        mSamples = samples.slice().order(ByteOrder.LITTLE_ENDIAN);
+        mSampleFormat = sampleFormat;
+        mTimestamp = timestamp;
+    }
+
+    /**
+     * Format of the wrapped sample bytes
+     */
+    public IQSampleFormat getSampleFormat()
+    {
+        return mSampleFormat;
+    }
+
+    @Override
+    public long getTimestamp()
+    {
+        return mTimestamp;
+    }
+
+    @Override
+    public int sampleCount()
+    {
+        return mSamples.capacity() / mSampleFormat.getBytesPerFrame();
+    }
+
+    @Override
+    public Iterator<ComplexSamples> iterator()
+    {
+        return new ComplexSamplesIterator();
+    }
+
+    @Override
+    public Iterator<InterleavedComplexSamples> iteratorInterleaved()
+    {
+        return new InterleavedComplexSamplesIterator();
+    }
+
+    /**
+     * Converts consecutive I/Q samples from the wrapped region into the destination array.
+     * @param sampleIndex of the first sample (not frame) to convert
+     * @param destination for converted samples, fully populated
+     */
+    private void convert(int sampleIndex, float[] destination)
+    {
+        switch(mSampleFormat)
+        {
+            case UNSIGNED_8_BIT:
+                for(int x = 0; x < destination.length; x++)
+                {
+                    destination[x] = UNSIGNED_LOOKUP_VALUES[0xFF & mSamples.get(sampleIndex++)];
+                }
+                break;
+            case SIGNED_8_BIT:
+                for(int x = 0; x < destination.length; x++)
+                {
+                    destination[x] = SIGNED_LOOKUP_VALUES[0xFF & mSamples.get(sampleIndex++)];
+                }
+                break;
+            case SIGNED_16_BIT:
+                int byteIndex = sampleIndex * 2;
+
+                for(int x = 0; x < destination.length; x++)
+                {
+                    destination[x] = (float)mSamples.getShort(byteIndex) / (float)Short.MAX_VALUE;
+                    byteIndex += 2;
+                }
+                break;
+            default:
+                throw new IllegalStateException("Unrecognized sample format: " + mSampleFormat);
+        }
+    }
+
+    /**
+     * Iterator of complex samples over the wrapped sample region
+     */
+    private class ComplexSamplesIterator implements Iterator<ComplexSamples>
+    {
+        private int mFramePointer = 0;
+
+        @Override
+        public boolean hasNext()
+        {
+            return mFramePointer < sampleCount();
+        }
+
+        @Override
+        public ComplexSamples next()
+        {
+            if(!hasNext())
+            {
+                throw new NoSuchElementException("No more samples");
+            }
+
+            int length = Math.min(FRAGMENT_SIZE, sampleCount() - mFramePointer);
+            float[] converted = new float[length * 2];
+            convert(mFramePointer * 2, converted);
+
+            float[] i = new float[length];
+            float[] q = new float[length];
+
+            for(int pointer = 0; pointer < length; pointer++)
+            {
+                i[pointer] = converted[2 * pointer];
+                q[pointer] = converted[2 * pointer + 1];
+            }
+
+            mFramePointer += length;
+            return new ComplexSamples(i, q);
+        }
+    }
+
+    /**
+     * Iterator of interleaved complex samples over the wrapped sample region
+     */
+    private class InterleavedComplexSamplesIterator implements Iterator<InterleavedComplexSamples>
+    {
+        private int mFramePointer = 0;
+
+        @Override
+        public boolean hasNext()
+        {
+            return mFramePointer < sampleCount();
+        }
+
+        @Override
+        public InterleavedComplexSamples next()
+        {
+            if(!hasNext())
+            {
+                throw new NoSuchElementException("No more samples");
+            }
+
+            int length = Math.min(FRAGMENT_SIZE, sampleCount() - mFramePointer);
+            float[] converted = new float[length * 2];
+            convert(mFramePointer * 2, converted);
+
+            mFramePointer += length;
+            return new InterleavedComplexSamples(converted, mTimestamp);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.buffer;
+
+import io.github.dsheirer.util.Dispatcher;
+import io.github.dsheirer.util.DispatcherBackend;
+import io.github.dsheirer.util.DispatcherFactory;
+import io.github.dsheirer.util.DispatcherQueueType;
+import io.github.dsheirer.util.ThreadPool;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Dispatcher for (pooled) native buffers.  Claims a reference to each buffer while it is queued and releases the
+ * reference once the listener has processed the buffer, or when the buffer is discarded due to queue overflow or
+ * shutdown, so that the producer can recycle pooled buffers as soon as the last consumer is done with them.
+ */
+public class NativeBufferDispatcher extends Dispatcher<INativeBuffer>
+{
+    /**
+     * Constructs an instance
+     * @param maxSize of the internal queue
+     * @param threadName to name the dispatcher thread
+     * @param backend for executing the listener
+     * @param executor for the SHARED_EXECUTOR backend, ignored for the other backends
+     * @param queueType for the internal queue
+     */
+    public NativeBufferDispatcher(int maxSize, String threadName, DispatcherBackend backend, Executor executor,
+                                  DispatcherQueueType queueType)
+    {
+        super(maxSize, threadName, new NativeBufferPoisonPill(), backend, executor, queueType);
+    }
+
+    /**
+     * Creates a native buffer dispatcher using the preferred backend and queue type.
+     * @param maxSize of the dispatcher queue
+     * @param name for the dispatcher (thread)
+     * @return dispatcher
+     */
+    public static NativeBufferDispatcher create(int maxSize, String name)
+    {
+        return create(maxSize, name, DispatcherFactory.getBackend(), ThreadPool.DISPATCHER);
+    }
+
+    /**
+     * Creates a native buffer dispatcher with the specified backend and the preferred queue type.
+     * @param maxSize of the dispatcher queue
+     * @param name for the dispatcher (thread)
+     * @param backend to use
+     * @param executor for the shared executor backend
+     * @return dispatcher
+     */
+    public static NativeBufferDispatcher create(int maxSize, String name, DispatcherBackend backend, Executor executor)
+    {
+        return new NativeBufferDispatcher(maxSize, name, backend, executor, DispatcherFactory.getQueueType());
+    }
+
+    @Override
+    protected void retain(INativeBuffer buffer)
+    {
+        buffer.retain();
+    }
+
+    @Override
+    protected void release(INativeBuffer buffer)
+    {
+        buffer.release();
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.buffer;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * Bounded pool of sample arrays for reuse by native buffer factories.
+ *
+ * Arrays are returned to the pool by pooled native buffers once all references to the buffer are released.  When the
+ * pool is empty, a new array is allocated and the request is counted as a pool exhaustion once the total number of
+ * allocated arrays reaches the pool capacity.  Arrays returned when the pool is full, or that don't match the current
+ * array length, are left for garbage collection.
+ *
+ * @param <A> array type
+ */
+public class NativeBufferPool<A>
+{
+    public static final int DEFAULT_CAPACITY = 512;
+
+    private final Queue<A> mPool = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger mPoolSize = new AtomicInteger();
+    private final int mCapacity;
+    private final IntFunction<A> mAllocator;
+    private final ToIntFunction<A> mLength;
+    private final AtomicLong mAllocatedCount = new AtomicLong();
+    private final AtomicLong mReusedCount = new AtomicLong();
+    private final AtomicLong mExhaustedCount = new AtomicLong();
+    private final AtomicLong mDiscardedCount = new AtomicLong();
+    private final AtomicInteger mOutstandingCount = new AtomicInteger();
+
+    /**
+     * Constructs an instance
+     * @param capacity maximum number of idle arrays to retain in the pool
+     * @param allocator to create new arrays of a specified length
+     * @param length function to determine the length of a pooled array
+     */
+    public NativeBufferPool(int capacity, IntFunction<A> allocator, ToIntFunction<A> length)
+    {
+        mCapacity = capacity;
+        mAllocator = allocator;
+        mLength = length;
+    }
+
+    /**
+     * Creates a pool of byte arrays with the default capacity
+     */
+    public static NativeBufferPool<byte[]> bytes()
+    {
+        return new NativeBufferPool<>(DEFAULT_CAPACITY, byte[]::new, array -> array.length);
+    }
+
+    /**
+     * Creates a pool of short arrays with the default capacity
+     */
+    public static NativeBufferPool<short[]> shorts()
+    {
+        return new NativeBufferPool<>(DEFAULT_CAPACITY, short[]::new, array -> array.length);
+    }
+
+    /**
+     * Provides a pooled array of the requested length or allocates a new array when the pool is empty.
+     * @param length of the array
+     * @return array, with undefined contents
+     */
+    public A get(int length)
+    {
+        A array = mPool.poll();
+
+        while(array != null)
+        {
+            mPoolSize.decrementAndGet();
+
+            if(mLength.applyAsInt(array) == length)
+            {
+                mReusedCount.incrementAndGet();
+                mOutstandingCount.incrementAndGet();
+                return array;
+            }
+
+            //Array length changed (ie transfer size changed) - discard the stale array
+            mDiscardedCount.incrementAndGet();
+            array = mPool.poll();
+        }
+
+        if(mAllocatedCount.incrementAndGet() > mCapacity)
+        {
+            mExhaustedCount.incrementAndGet();
+        }
+
+        mOutstandingCount.incrementAndGet();
+        return mAllocator.apply(length);
+    }
+
+    /**
+     * Returns the array to the pool for reuse.
+     * @param array to reuse
+     */
+    public void recycle(A array)
+    {
+        mOutstandingCount.decrementAndGet();
+
+        if(mPoolSize.incrementAndGet() <= mCapacity)
+        {
+            mPool.offer(array);
+        }
+        else
+        {
+            mPoolSize.decrementAndGet();
+            mDiscardedCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Removes all idle arrays from the pool
+     */
+    public void clear()
+    {
+        while(mPool.poll() != null)
+        {
+            mPoolSize.decrementAndGet();
+        }
+    }
+
+    /**
+     * Number of idle arrays currently in the pool
+     */
+    public int getIdleCount()
+    {
+        return mPoolSize.get();
+    }
+
+    /**
+     * Number of arrays currently in use by buffers that have not been released
+     */
+    public int getOutstandingCount()
+    {
+        return mOutstandingCount.get();
+    }
+
+    /**
+     * Total number of arrays allocated by this pool
+     */
+    public long getAllocatedCount()
+    {
+        return mAllocatedCount.get();
+    }
+
+    /**
+     * Number of requests that were served with a recycled array
+     */
+    public long getReusedCount()
+    {
+        return mReusedCount.get();
+    }
+
+    /**
+     * Number of requests that found the pool empty after the pool capacity had already been allocated
+     */
+    public long getExhaustedCount()
+    {
+        return mExhaustedCount.get();
+    }
+
+    /**
+     * Number of returned arrays that were discarded because the pool was full or the array length was stale
+     */
+    public long getDiscardedCount()
+    {
+        return mDiscardedCount.get();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "Native Buffer Pool - Allocated:" + getAllocatedCount() + " Reused:" + getReusedCount() +
+            " Exhausted:" + getExhaustedCount() + " Discarded:" + getDiscardedCount() + " Outstanding:" +
+            getOutstandingCount() + " Idle:" + getIdleCount();
+    }
+}
@@ -0,0 +1,564 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.buffer;
+
+import io.github.dsheirer.sample.Listener;
+import io.github.dsheirer.util.ThreadPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Single producer, multiple consumer hand-off ring for native buffers.
+ *
+ * The producer (ie USB transfer thread) only ever publishes buffers into the ring and never waits on a consumer.
+ * Each registered listener is serviced by a consumer with an independent read cursor, so a slow listener only
+ * affects itself.  When a consumer falls more than the ring capacity behind the producer, it skips forward to the
+ * oldest buffer still in the ring and the skipped buffers are counted as overflow for that consumer.
+ *
+ * Consumers don't have dedicated threads.  When a buffer is published, each consumer schedules a drain task on a
+ * shared executor (the dispatcher pool), if one is not already scheduled, and the drain task delivers the buffers
+ * from the consumer's cursor to its listener.  Only one drain task is scheduled per consumer, so each listener
+ * receives buffers serially and in order.  Listeners are expected to queue each buffer to their own dispatcher rather
+ * than process it inline.
+ *
+ * Each ring slot is guarded by a sequence number (seqlock) so that a consumer can detect when the producer has
+ * overwritten the slot it is reading, and consumers claim a reference while delivering a buffer.  The ring claims a
+ * reference to each buffer when it is published and releases it when every consumer's cursor has passed the buffer,
+ * or when the producer overwrites the slot, so the ring only holds pooled buffers that are waiting for delivery.
+ */
+public class NativeBufferRing
+{
+    private final static Logger mLog = LoggerFactory.getLogger(NativeBufferRing.class);
+    private static final long OVERFLOW_LOG_EVENT_WAIT_PERIOD = TimeUnit.SECONDS.toMillis(10);
+    private static final long STOP_TIMEOUT_MS = 2000;
+    private static final int DRAIN_BATCH_LIMIT = 16;
+    private static final long SLOT_WRITING = -1;
+
+    private final AtomicReferenceArray<INativeBuffer> mSlots;
+    private final AtomicLongArray mSlotSequences;
+    private final int mCapacity;
+    private final int mMask;
+    private final String mName;
+    private final Executor mExecutor;
+    private final List<Consumer> mConsumers = new CopyOnWriteArrayList<>();
+    private final AtomicLong mDeliveredCount = new AtomicLong();
+    private final AtomicLong mOverflowCount = new AtomicLong();
+    private final Object mConsumerLock = new Object();
+    private final Object mTrimLock = new Object();
+    private volatile long mPublishedSequence = -1;
+    private long mTrimmedSequence = -1;
+
+    /**
+     * Constructs an instance that delivers buffers on the shared dispatcher thread pool
+     * @param name for the ring, used for logging
+     * @param capacity of the ring, must be a power of 2
+     */
+    public NativeBufferRing(String name, int capacity)
+    {
+        this(name, capacity, ThreadPool.DISPATCHER);
+    }
+
+    /**
+     * Constructs an instance
+     * @param name for the ring, used for logging
+     * @param capacity of the ring, must be a power of 2
+     * @param executor to run the consumer drain tasks
+     */
+    public NativeBufferRing(String name, int capacity, Executor executor)
+    {
+        if(capacity < 2 || Integer.bitCount(capacity) != 1)
+        {
+            throw new IllegalArgumentException("Ring capacity [" + capacity + "] must be a power of 2");
+        }
+
+        mName = name;
+        mCapacity = capacity;
+        mMask = capacity - 1;
+        mExecutor = executor;
+        mSlots = new AtomicReferenceArray<>(capacity);
+        mSlotSequences = new AtomicLongArray(capacity);
+
+        for(int x = 0; x < capacity; x++)
+        {
+            mSlotSequences.set(x, SLOT_WRITING);
+        }
+    }
+
+    /**
+     * Publishes the buffer to all consumers.  This method must only be invoked by a single producer thread.  The
+     * ring claims its own reference to the buffer, so the producer retains ownership of its reference.
+     * @param buffer to publish
+     */
+    public void publish(INativeBuffer buffer)
+    {
+        long sequence = mPublishedSequence + 1;
+        int index = (int)(sequence & mMask);
+
+        buffer.retain();
+
+        //Mark the slot as being written so that consumers detect a concurrent overwrite
+        mSlotSequences.set(index, SLOT_WRITING);
+        INativeBuffer previous = mSlots.getAndSet(index, buffer);
+        mSlotSequences.set(index, sequence);
+        mPublishedSequence = sequence;
+
+        //An undelivered buffer was overwritten - release the ring's reference
+        if(previous != null)
+        {
+            previous.release();
+        }
+
+        if(mConsumers.isEmpty())
+        {
+            trim();
+        }
+        else
+        {
+            for(Consumer consumer: mConsumers)
+            {
+                consumer.signal();
+            }
+        }
+    }
+
+    /**
+     * Adds a listener and starts a consumer that delivers each subsequently published buffer to the listener.
+     * @param listener to receive buffers
+     */
+    public void addListener(Listener<INativeBuffer> listener)
+    {
+        synchronized(mConsumerLock)
+        {
+            if(getConsumer(listener) == null)
+            {
+                Consumer consumer = new Consumer(listener);
+
+                //Position the cursor while holding the trim lock so that a concurrent trim can't release a buffer
+                //that the consumer has not yet passed
+                synchronized(mTrimLock)
+                {
+                    consumer.mCursor = Math.max(mPublishedSequence, mTrimmedSequence) + 1;
+                    mConsumers.add(consumer);
+                }
+
+                consumer.signal();
+            }
+        }
+    }
+
+    /**
+     * Removes the listener and stops its consumer.  Waits (up to 2 seconds) for a delivery in progress to the
+     * listener to complete, unless invoked from the listener's receive method.
+     * @param listener to remove
+     */
+    public void removeListener(Listener<INativeBuffer> listener)
+    {
+        Consumer consumer;
+
+        synchronized(mConsumerLock)
+        {
+            consumer = getConsumer(listener);
+
+            if(consumer != null)
+            {
+                mConsumers.remove(consumer);
+                consumer.stop();
+            }
+        }
+
+        if(consumer != null)
+        {
+            consumer.awaitDrainComplete();
+            trim();
+        }
+    }
+
+    /**
+     * Consumer for the listener
+     * @return consumer or null
+     */
+    private Consumer getConsumer(Listener<INativeBuffer> listener)
+    {
+        for(Consumer consumer: mConsumers)
+        {
+            if(consumer.getListener() == listener)
+            {
+                return consumer;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Indicates if there are any registered listeners
+     */
+    public boolean hasListeners()
+    {
+        return !mConsumers.isEmpty();
+    }
+
+    /**
+     * Removes all listeners, stops the consumers and releases all buffers held by the ring.
+     */
+    public void clear()
+    {
+        List<Consumer> consumers;
+
+        synchronized(mConsumerLock)
+        {
+            consumers = List.copyOf(mConsumers);
+            mConsumers.clear();
+            consumers.forEach(Consumer::stop);
+        }
+
+        consumers.forEach(Consumer::awaitDrainComplete);
+
+        synchronized(mTrimLock)
+        {
+            for(int x = 0; x < mCapacity; x++)
+            {
+                mSlotSequences.set(x, SLOT_WRITING);
+                INativeBuffer buffer = mSlots.getAndSet(x, null);
+
+                if(buffer != null)
+                {
+                    buffer.release();
+                }
+            }
+
+            mTrimmedSequence = mPublishedSequence;
+        }
+    }
+
+    /**
+     * Releases the ring's reference to each buffer that every consumer has passed.  Buffers that the producer has
+     * overwritten were already released by the producer.
+     */
+    private void trim()
+    {
+        synchronized(mTrimLock)
+        {
+            long published = mPublishedSequence;
+            long limit = published;
+
+            for(Consumer consumer: mConsumers)
+            {
+                limit = Math.min(limit, consumer.getCursor() - 1);
+            }
+
+            for(long sequence = Math.max(mTrimmedSequence + 1, published - mCapacity + 1); sequence <= limit;
+                sequence++)
+            {
+                int index = (int)(sequence & mMask);
+                INativeBuffer buffer = mSlots.get(index);
+
+                //Claim the ring's reference by clearing the slot, unless the producer overwrote it
+                if(buffer != null && mSlotSequences.get(index) == sequence && mSlots.compareAndSet(index, buffer, null))
+                {
+                    buffer.release();
+                }
+            }
+
+            mTrimmedSequence = Math.max(mTrimmedSequence, limit);
+        }
+    }
+
+    /**
+     * Total number of buffers published to this ring
+     */
+    public long getPublishedCount()
+    {
+        return mPublishedSequence + 1;
+    }
+
+    /**
+     * Total number of buffers delivered, summed across all listeners
+     */
+    public long getDeliveredCount()
+    {
+        return mDeliveredCount.get();
+    }
+
+    /**
+     * Total number of buffers skipped due to overflow, summed across all listeners
+     */
+    public long getOverflowCount()
+    {
+        return mOverflowCount.get();
+    }
+
+    /**
+     * Number of buffers delivered to the listener
+     * @param listener that is registered
+     * @return count, or 0 if the listener is not registered
+     */
+    public long getDeliveredCount(Listener<INativeBuffer> listener)
+    {
+        Consumer consumer = getConsumer(listener);
+        return consumer != null ? consumer.mDeliveredCount.get() : 0;
+    }
+
+    /**
+     * Number of buffers skipped for the listener because the listener fell more than the ring capacity behind
+     * @param listener that is registered
+     * @return count, or 0 if the listener is not registered
+     */
+    public long getOverflowCount(Listener<INativeBuffer> listener)
+    {
+        Consumer consumer = getConsumer(listener);
+        return consumer != null ? consumer.mOverflowCount.get() : 0;
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Native Buffer Ring [").append(mName).append("] Capacity:").append(mCapacity);
+        sb.append(" Published:").append(getPublishedCount());
+        sb.append(" Delivered:").append(getDeliveredCount());
+        sb.append(" Overflow:").append(getOverflowCount());
+
+        for(Consumer consumer: mConsumers)
+        {
+            sb.append("\n\t").append(consumer);
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Consumer with an independent read cursor that delivers buffers to a listener from a drain task that is
+     * scheduled on the executor.
+     */
+    class Consumer implements Runnable
+    {
+        private final Listener<INativeBuffer> mListener;
+        private final AtomicLong mDeliveredCount = new AtomicLong();
+        private final AtomicLong mOverflowCount = new AtomicLong();
+        private final AtomicBoolean mDrainScheduled = new AtomicBoolean();
+        private volatile boolean mRunning = true;
+        private volatile Thread mDrainThread;
+        private volatile long mCursor;
+        private long mLastOverflowLogEvent;
+
+        /**
+         * Constructs an instance.  The cursor is positioned when the consumer is added to the ring.
+         * @param listener to receive buffers
+         */
+        Consumer(Listener<INativeBuffer> listener)
+        {
+            mListener = listener;
+        }
+
+        Listener<INativeBuffer> getListener()
+        {
+            return mListener;
+        }
+
+        /**
+         * Sequence of the next buffer to deliver
+         */
+        long getCursor()
+        {
+            return mCursor;
+        }
+
+        /**
+         * Stops delivering buffers.  A drain task in progress completes delivery of the current buffer.
+         */
+        void stop()
+        {
+            mRunning = false;
+        }
+
+        /**
+         * Schedules a drain task if one is not already scheduled.
+         */
+        void signal()
+        {
+            if(mRunning && mCursor <= mPublishedSequence && mDrainScheduled.compareAndSet(false, true))
+            {
+                try
+                {
+                    mExecutor.execute(this);
+                }
+                catch(RejectedExecutionException ree)
+                {
+                    mDrainScheduled.set(false);
+                    mLog.error("Executor rejected drain task for [" + mName + "] consumer [" +
+                        mListener.getClass().getSimpleName() + "]");
+                }
+            }
+        }
+
+        /**
+         * Waits up to 2 seconds for a scheduled or running drain task to complete, unless invoked from the drain
+         * task itself (ie the listener is removing itself).
+         */
+        void awaitDrainComplete()
+        {
+            long timeout = System.currentTimeMillis() + STOP_TIMEOUT_MS;
+
+            while(mDrainScheduled.get() && mDrainThread != Thread.currentThread() &&
+                System.currentTimeMillis() < timeout)
+            {
+                try
+                {
+                    Thread.sleep(1);
+                }
+                catch(InterruptedException ie)
+                {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+
+            if(mDrainScheduled.get() && mDrainThread != Thread.currentThread())
+            {
+                mLog.error("Timeout while waiting for [" + mName + "] consumer [" +
+                    mListener.getClass().getSimpleName() + "] to complete delivery");
+            }
+        }
+
+        /**
+         * Drain task: delivers a limited batch of buffers and then reschedules itself if more buffers are available,
+         * so that consumers sharing the executor are serviced fairly.
+         */
+        @Override
+        public void run()
+        {
+            mDrainThread = Thread.currentThread();
+
+            try
+            {
+                int delivered = 0;
+
+                while(mRunning && delivered < DRAIN_BATCH_LIMIT && mCursor <= mPublishedSequence)
+                {
+                    deliverNext();
+                    delivered++;
+                }
+            }
+            finally
+            {
+                mDrainThread = null;
+                mDrainScheduled.set(false);
+            }
+
+            //Recheck after clearing the scheduled flag to avoid missing a signal from the producer
+            if(mRunning && mCursor <= mPublishedSequence)
+            {
+                signal();
+            }
+        }
+
+        /**
+         * Delivers the buffer at the cursor, skipping forward first if the producer has lapped this consumer.
+         */
+        private void deliverNext()
+        {
+            long published = mPublishedSequence;
+            long oldest = published - mCapacity + 1;
+            long cursor = mCursor;
+
+            if(cursor < oldest)
+            {
+                overflow(oldest - cursor);
+                cursor = oldest;
+            }
+
+            int index = (int)(cursor & mMask);
+            long sequence = mSlotSequences.get(index);
+            INativeBuffer buffer = mSlots.get(index);
+            boolean delivered = false;
+
+            if(sequence == cursor && buffer != null && buffer.tryRetain())
+            {
+                if(mSlotSequences.get(index) == cursor)
+                {
+                    delivered = true;
+
+                    try
+                    {
+                        mListener.receive(buffer);
+                    }
+                    catch(Exception e)
+                    {
+                        mLog.error("Error while delivering native buffer to listener on [" + mName + "]", e);
+                    }
+                }
+
+                buffer.release();
+            }
+
+            mCursor = cursor + 1;
+
+            //Release the ring's reference once every consumer has passed the buffer, before counting the delivery
+            trim();
+
+            if(delivered)
+            {
+                mDeliveredCount.incrementAndGet();
+                NativeBufferRing.this.mDeliveredCount.incrementAndGet();
+            }
+            else
+            {
+                //The slot was overwritten while we were claiming the buffer
+                overflow(1);
+            }
+        }
+
+        /**
+         * Records buffers skipped by this consumer due to overflow.
+         * @param count of skipped buffers
+         */
+        private void overflow(long count)
+        {
+            mOverflowCount.addAndGet(count);
+            NativeBufferRing.this.mOverflowCount.addAndGet(count);
+
+            if(System.currentTimeMillis() > (mLastOverflowLogEvent + OVERFLOW_LOG_EVENT_WAIT_PERIOD))
+            {
+                mLastOverflowLogEvent = System.currentTimeMillis();
+                mLog.warn("Temporary buffer overflow for [" + mName + "] consumer [" +
+                    mListener.getClass().getSimpleName() + "] - throwing away samples - total skipped buffers: " +
+                    mOverflowCount.get());
+            }
+        }
+
+        @Override
+        public String toString()
+        {
+            return "Consumer [" + mListener.getClass().getSimpleName() + "] Delivered:" + mDeliveredCount.get() +
+                " Overflow:" + mOverflowCount.get() + " Lag:" + Math.max(0, mPublishedSequence + 1 - mCursor);
+        }
+    }
+}
@@ -68,7 +68,7 @@ public class NativeSampleDelayBuffer implements Listener<INativeBuffer>
     /**
      * Prepares this instance for disposal by releasing all stored sample buffers.
      */
-    public void dispose()
+    public synchronized void dispose()
     {
         clearBuffer();
         mBroadcaster.clear();
@@ -87,7 +87,11 @@ public class NativeSampleDelayBuffer implements Listener<INativeBuffer>
     {
         for(int x = 0; x < mDelayBuffer.length; x++)
         {
-            mDelayBuffer[x] = null;
+            if(mDelayBuffer[x] != null)
+            {
+                mDelayBuffer[x].release();
+                mDelayBuffer[x] = null;
+            }
         }
 
         mDelayBufferPointer = 0;
@@ -118,6 +122,14 @@ public class NativeSampleDelayBuffer implements Listener<INativeBuffer>
 
         mBroadcaster.receive(samples);
 
+        //Release the oldest buffer that is being overwritten and claim a reference to the new buffer while delayed
+        if(mDelayBuffer[mDelayBufferPointer] != null)
+        {
+            mDelayBuffer[mDelayBufferPointer].release();
+        }
+
+        samples.retain();
+
         //Store the new buffer in the delay queue and increment the pointer
         mDelayBuffer[mDelayBufferPointer++] = samples;
 
@@ -0,0 +1,88 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.buffer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Base reference-counted native buffer.  The buffer is created with a single reference that is owned by the producer.
+ * Once every reference is released, the sample array(s) are returned to the pool via the recycle() method.
+ */
+public abstract class PooledNativeBuffer implements INativeBuffer
+{
+    private final AtomicInteger mReferenceCount = new AtomicInteger(1);
+
+    @Override
+    public void retain()
+    {
+        if(!tryRetain())
+        {
+            throw new IllegalStateException("Unable to retain native buffer - buffer was already recycled");
+        }
+    }
+
+    @Override
+    public boolean tryRetain()
+    {
+        int count;
+
+        do
+        {
+            count = mReferenceCount.get();
+
+            if(count <= 0)
+            {
+                return false;
+            }
+        }
+        while(!mReferenceCount.compareAndSet(count, count + 1));
+
+        return true;
+    }
+
+    @Override
+    public void release()
+    {
+        int count = mReferenceCount.decrementAndGet();
+
+        if(count == 0)
+        {
+            recycle();
+        }
+        else if(count < 0)
+        {
+            throw new IllegalStateException("Native buffer was released more times than it was retained");
+        }
+    }
+
+    /**
+     * Current reference count
+     */
+    public int getReferenceCount()
+    {
+        return mReferenceCount.get();
+    }
+
+    /**
+     * Returns the sample array(s) to the pool once all references to this buffer have been released.  The buffer
+     * must not be accessed after this method is invoked.
+     */
+    protected abstract void recycle();
+}
@@ -0,0 +1,92 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.buffer;
+
+/**
+ * Encodings for the raw (native) sample data held by a native buffer, as delivered by the tuner hardware.
+ */
+public enum RawSampleEncoding
+{
+    /**
+     * Interleaved unsigned 8-bit I/Q samples with 127.5 as the zero value (RTL-SDR)
+     */
+    UNSIGNED_8_BIT(1, 2),
+
+    /**
+     * Interleaved signed (two's complement) 8-bit I/Q samples (HackRF)
+     */
+    SIGNED_8_BIT(2, 2),
+
+    /**
+     * Real unsigned 12-bit samples packed as two samples per three bytes (Airspy), arranged as a plane containing the
+     * low 8 bits of each sample followed by a plane containing the high 4 bits of each pair of samples, with the
+     * first sample in the low nibble.  Each complex sample frame is produced from two real samples, so each frame
+     * occupies three bytes.
+     */
+    PACKED_12_BIT_REAL(3, 3),
+
+    /**
+     * Interleaved signed 16-bit little-endian I/Q samples, used for buffers that don't expose raw native samples.
+     */
+    SIGNED_16_BIT(4, 4);
+
+    private int mCode;
+    private int mBytesPerFrame;
+
+    RawSampleEncoding(int code, int bytesPerFrame)
+    {
+        mCode = code;
+        mBytesPerFrame = bytesPerFrame;
+    }
+
+    /**
+     * Numeric code for the encoding, used to identify the encoding in recording files.
+     */
+    public int getCode()
+    {
+        return mCode;
+    }
+
+    /**
+     * Number of raw bytes for each complex sample frame
+     */
+    public int getBytesPerFrame()
+    {
+        return mBytesPerFrame;
+    }
+
+    /**
+     * Lookup the encoding from the numeric code
+     * @param code to lookup
+     * @return encoding or null if the code is not recognized
+     */
+    public static RawSampleEncoding fromCode(int code)
+    {
+        for(RawSampleEncoding encoding: values())
+        {
+            if(encoding.getCode() == code)
+            {
+                return encoding;
+            }
+        }
+
+        return null;
+    }
+}
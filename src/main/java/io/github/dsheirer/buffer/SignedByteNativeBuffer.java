@@ -22,13 +22,14 @@ package io.github.dsheirer.buffer;
 import io.github.dsheirer.sample.complex.ComplexSamples;
 import io.github.dsheirer.sample.complex.InterleavedComplexSamples;
 
+import java.nio.ByteBuffer;
 import java.util.Iterator;
 
 /**
  * Native buffer sample array wrapper class that provides access to a stream of either interleaved or
  * non-interleaved complex sample buffers converted from the raw byte sample array.
  */
-public class SignedByteNativeBuffer implements INativeBuffer
+public class SignedByteNativeBuffer extends PooledNativeBuffer implements IRawSampleBuffer
 {
     private static final int FRAGMENT_SIZE = 2048;
     private final static float[] LOOKUP_VALUES;
@@ -50,6 +51,7 @@ public class SignedByteNativeBuffer implements INativeBuffer
     private long mTimestamp;
     private float mIAverageDc;
     private float mQAverageDc;
+    private NativeBufferPool<byte[]> mPool;
 
     /**
      * Constructs an instance
@@ -72,12 +74,54 @@ public class SignedByteNativeBuffer implements INativeBuffer
         mQAverageDc = qAverageDc;
     }
 
+    /**
+     * Constructs an instance that returns the samples array to the pool once all references are released.
+     * @param samples to process
+     * @param timestamp of the samples
+     * @param iAverageDc of the sample stream
+     * @param qAverageDc of the sample stream
+     * @param pool to receive the samples array for reuse
+     */
+    public SignedByteNativeBuffer(byte[] samples, long timestamp, float iAverageDc, float qAverageDc,
+                                  NativeBufferPool<byte[]> pool)
+    {
+        this(samples, timestamp, iAverageDc, qAverageDc);
+        mPool = pool;
+    }
+
+    @Override
+    protected void recycle()
+    {
+        if(mPool != null)
+        {
+            mPool.recycle(mSamples);
+        }
+    }
+
     @Override
     public long getTimestamp()
     {
         return mTimestamp;
     }
 
+    @Override
+    public RawSampleEncoding getRawSampleEncoding()
+    {
+        return RawSampleEncoding.SIGNED_8_BIT;
+    }
+
+    @Override
+    public int getRawSampleByteCount()
+    {
+        return mSamples.length;
+    }
+
+    @Override
+    public void getRawSamples(ByteBuffer destination)
+    {
+        destination.put(mSamples);
+    }
+
     @Override
     public int sampleCount()
     {
@@ -67,10 +67,15 @@ public class SignedByteNativeBufferFactory implements INativeBufferFactory
      */
     private float mQAverageDc = 0.0f;
 
+    /**
+     * Pool of sample arrays recycled from released buffers
+     */
+    private NativeBufferPool<byte[]> mBufferPool = NativeBufferPool.bytes();
+
     @Override
     public INativeBuffer getBuffer(ByteBuffer samples, long timestamp)
     {
-        byte[] copy = new byte[samples.capacity()];
+        byte[] copy = mBufferPool.get(samples.capacity());
         samples.get(copy);
 
         if(shouldCalculateDc())
@@ -78,7 +83,13 @@ public class SignedByteNativeBufferFactory implements INativeBufferFactory
             calculateDc(copy);
         }
 
-        return new SignedByteNativeBuffer(copy, timestamp, mIAverageDc, mQAverageDc);
+        return new SignedByteNativeBuffer(copy, timestamp, mIAverageDc, mQAverageDc, mBufferPool);
+    }
+
+    @Override
+    public NativeBufferPool<?> getBufferPool()
+    {
+        return mBufferPool;
     }
 
     /**
@@ -19,17 +19,21 @@
 
 package io.github.dsheirer.buffer.airspy;
 
-import io.github.dsheirer.buffer.INativeBuffer;
+import io.github.dsheirer.buffer.IRawSampleBuffer;
+import io.github.dsheirer.buffer.NativeBufferPool;
+import io.github.dsheirer.buffer.PooledNativeBuffer;
+import io.github.dsheirer.buffer.RawSampleEncoding;
 import io.github.dsheirer.sample.complex.ComplexSamples;
 import io.github.dsheirer.sample.complex.InterleavedComplexSamples;
 import io.github.dsheirer.vector.calibrate.Implementation;
 
+import java.nio.ByteBuffer;
 import java.util.Iterator;
 
 /**
  * Native buffer scalar implementation for Airspy non-packed samples.
  */
-public class AirspyNativeBuffer implements INativeBuffer
+public class AirspyNativeBuffer extends PooledNativeBuffer implements IRawSampleBuffer
 {
     private short[] mSamples;
     private short[] mResidualI;
@@ -38,6 +42,7 @@ public class AirspyNativeBuffer implements INativeBuffer
     private long mTimestamp;
     private Implementation mInterleavedImplementation;
     private Implementation mNonInterleavedImplementation;
+    private NativeBufferPool<short[]> mPool;
 
     /**
      * Constructs an instance
@@ -69,6 +74,66 @@ public class AirspyNativeBuffer implements INativeBuffer
         mNonInterleavedImplementation = nonInterleavedImplementation;
     }
 
+    /**
+     * Constructs an instance that returns the samples array to the pool once all references are released.
+     * @param samples (non-packed) from the airspy device
+     * @param residualI samples from previous buffer
+     * @param residualQ samples from previous buffer
+     * @param averageDc measured
+     * @param timestamp of the buffer
+     * @param interleavedImplementation optimal, scalar vs vector SIMD
+     * @param nonInterleavedImplementation optimal, scalar vs vector SIMD
+     * @param pool to receive the samples array for reuse
+     */
+    public AirspyNativeBuffer(short[] samples, short[] residualI, short[] residualQ, float averageDc,
+                              long timestamp, Implementation interleavedImplementation,
+                              Implementation nonInterleavedImplementation, NativeBufferPool<short[]> pool)
+    {
+        this(samples, residualI, residualQ, averageDc, timestamp, interleavedImplementation,
+                nonInterleavedImplementation);
+        mPool = pool;
+    }
+
+    @Override
+    protected void recycle()
+    {
+        if(mPool != null)
+        {
+            mPool.recycle(mSamples);
+        }
+    }
+
+    @Override
+    public RawSampleEncoding getRawSampleEncoding()
+    {
+        return RawSampleEncoding.PACKED_12_BIT_REAL;
+    }
+
+    @Override
+    public int getRawSampleByteCount()
+    {
+        return mSamples.length / 2 * 3;
+    }
+
+    /**
+     * Packs the 12-bit samples as two planes: the low 8 bits of each sample, followed by the high 4 bits of each pair
+     * of samples packed into one byte.  The high bits vary much less than the low bits, so separating them lets a
+     * byte-oriented compressor exploit that redundancy.
+     */
+    @Override
+    public void getRawSamples(ByteBuffer destination)
+    {
+        for(short sample: mSamples)
+        {
+            destination.put((byte)sample);
+        }
+
+        for(int x = 0; x < mSamples.length; x += 2)
+        {
+            destination.put((byte)(((mSamples[x] >> 8) & 0x0F) | ((mSamples[x + 1] >> 4) & 0xF0)));
+        }
+    }
+
     @Override
     public int sampleCount()
     {
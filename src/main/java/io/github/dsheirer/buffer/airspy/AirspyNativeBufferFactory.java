@@ -21,6 +21,7 @@ package io.github.dsheirer.buffer.airspy;
 
 import io.github.dsheirer.buffer.INativeBuffer;
 import io.github.dsheirer.buffer.INativeBufferFactory;
+import io.github.dsheirer.buffer.NativeBufferPool;
 import io.github.dsheirer.vector.calibrate.CalibrationManager;
 import io.github.dsheirer.vector.calibrate.CalibrationType;
 import io.github.dsheirer.vector.calibrate.Implementation;
@@ -39,6 +40,7 @@ public class AirspyNativeBufferFactory implements INativeBufferFactory
     private IAirspySampleConverter mConverter;
     private Implementation mInterleavedIteratorImplementation;
     private Implementation mNonInterleavedIteratorImplementation;
+    private NativeBufferPool<short[]> mBufferPool = NativeBufferPool.shorts();
 
     /**
      * Constructs an instance
@@ -101,18 +103,24 @@ public class AirspyNativeBufferFactory implements INativeBufferFactory
     @Override
     public INativeBuffer getBuffer(ByteBuffer buffer, long timestamp)
     {
-        short[] samples = mConverter.convert(buffer);
+        short[] samples = mConverter.convert(buffer, mBufferPool.get(mConverter.getSampleCount(buffer)));
 
         INativeBuffer nativeBuffer = new AirspyNativeBuffer(samples,
                 Arrays.copyOf(mResidualI, mResidualI.length),
                 Arrays.copyOf(mResidualQ, mResidualQ.length), mConverter.getAverageDc(), timestamp,
-                mInterleavedIteratorImplementation, mNonInterleavedIteratorImplementation);
+                mInterleavedIteratorImplementation, mNonInterleavedIteratorImplementation, mBufferPool);
 
         extractResidual(samples);
 
         return nativeBuffer;
     }
 
+    @Override
+    public NativeBufferPool<?> getBufferPool()
+    {
+        return mBufferPool;
+    }
+
     /**
      * Extracts the residual overlap samples needed for continuity in the Hilbert transform filter.
      * @param samples to extract residual from
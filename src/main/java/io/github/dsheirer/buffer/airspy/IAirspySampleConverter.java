@@ -31,7 +31,26 @@ public interface IAirspySampleConverter
      * @param buffer of airspy samples
      * @return converted samples
      */
-    short[] convert(ByteBuffer buffer);
+    default short[] convert(ByteBuffer buffer)
+    {
+        return convert(buffer, new short[getSampleCount(buffer)]);
+    }
+
+    /**
+     * Converts the airspy byte samples contained in the byte buffer to their short-valued representation, using the
+     * (reusable) samples array argument as the conversion target.
+     * @param buffer of airspy samples
+     * @param samples array sized via getSampleCount() to receive the converted samples
+     * @return converted samples
+     */
+    short[] convert(ByteBuffer buffer, short[] samples);
+
+    /**
+     * Number of short-valued samples that are produced from the byte buffer.
+     * @param buffer of airspy samples
+     * @return converted sample array length
+     */
+    int getSampleCount(ByteBuffer buffer);
 
     /**
      * Current DC average of the samples that have been processed thus far.
@@ -33,17 +33,20 @@ public class ScalarUnpackedSampleConverter implements IAirspySampleConverter
     private DcCorrectionManager mDcCalculationManager = new DcCorrectionManager();
 
     @Override
-    public short[] convert(ByteBuffer buffer)
+    public int getSampleCount(ByteBuffer buffer)
+    {
+        return buffer.capacity() / 2;
+    }
+
+    @Override
+    public short[] convert(ByteBuffer buffer, short[] samples)
     {
         boolean shouldCalculateDc = mDcCalculationManager.shouldCalculateDc();
 
         int offset = 0;
         short sample;
-        short[] samples;
         byte b1, b2;
 
-        samples = new short[buffer.capacity() / 2];
-
         if(shouldCalculateDc)
         {
             long dcAccumulator = 0;
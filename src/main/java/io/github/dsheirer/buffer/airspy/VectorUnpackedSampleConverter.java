@@ -38,16 +38,19 @@ public class VectorUnpackedSampleConverter implements IAirspySampleConverter
     private DcCorrectionManager mDcCalculationManager = new DcCorrectionManager();
 
     @Override
-    public short[] convert(ByteBuffer buffer)
+    public int getSampleCount(ByteBuffer buffer)
+    {
+        return buffer.capacity() / 2;
+    }
+
+    @Override
+    public short[] convert(ByteBuffer buffer, short[] samples)
     {
         boolean shouldCalculateDc = mDcCalculationManager.shouldCalculateDc();
 
         short sample;
-        short[] samples;
         byte b1, b2;
 
-        samples = new short[buffer.capacity() / 2];
-
         int bytesOffset;
         int rawPointer = 0;
         ShortVector vector;
@@ -24,6 +24,7 @@ import io.github.dsheirer.audio.AudioSegment;
 import io.github.dsheirer.channel.metadata.ChannelAndMetadata;
 import io.github.dsheirer.channel.metadata.ChannelMetadata;
 import io.github.dsheirer.channel.metadata.ChannelMetadataModel;
+import io.github.dsheirer.controller.channel.event.ChannelPrewarmRequest;
 import io.github.dsheirer.controller.channel.event.ChannelStartProcessingRequest;
 import io.github.dsheirer.controller.channel.event.ChannelStopProcessingRequest;
 import io.github.dsheirer.controller.channel.event.PreloadDataContent;
@@ -37,6 +38,7 @@ import io.github.dsheirer.module.Module;
 import io.github.dsheirer.module.ProcessingChain;
 import io.github.dsheirer.module.decode.DecoderFactory;
 import io.github.dsheirer.module.decode.event.IDecodeEvent;
+import io.github.dsheirer.module.decode.traffic.TrafficChannelManager;
 import io.github.dsheirer.module.log.EventLogManager;
 import io.github.dsheirer.preference.UserPreferences;
 import io.github.dsheirer.record.RecorderFactory;
@@ -52,8 +54,10 @@ import io.github.dsheirer.source.tuner.manager.TunerManager;
 import io.github.dsheirer.util.ThreadPool;
 import java.awt.GraphicsEnvironment;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ScheduledFuture;
@@ -74,6 +78,8 @@ public class ChannelProcessingManager implements Listener<ChannelEvent>
 {
     private final static Logger mLog = LoggerFactory.getLogger(ChannelProcessingManager.class);
     private static final String TUNER_UNAVAILABLE_DESCRIPTION = "TUNER UNAVAILABLE";
+    private static final long SOURCE_MONITOR_INTERVAL_SECONDS = 10;
+    private static final int SOURCE_BACKLOG_WARNING_THRESHOLD = 100;
     private Map<Channel,ProcessingChain> mProcessingChains = new ConcurrentHashMap<>();
     private Lock mLock = new ReentrantLock();
 
@@ -90,6 +96,10 @@ public class ChannelProcessingManager implements Listener<ChannelEvent>
     private UserPreferences mUserPreferences;
     private List<Long> mLoggedFrequencies = new ArrayList<>();
     private List<ScheduledFuture<?>> mDelayedChannelStartTasks = new ArrayList<>();
+    private ProcessingChainPool mProcessingChainPool;
+    private ScheduledFuture<?> mProcessingChainPoolMonitor;
+    private ScheduledFuture<?> mChannelSourceMonitor;
+    private Set<Channel> mBackloggedChannels = new HashSet<>();
 
     /**
      * Constructs the channel processing manager
@@ -99,9 +109,12 @@ public class ChannelProcessingManager implements Listener<ChannelEvent>
      * @param tunerManager for obtaining a tuner channel source for the channel
      * @param aliasModel for aliasing of identifiers produced by the channel
      * @param userPreferences for user defined behavior and settings
+     * @param prewarmLimit maximum number of traffic channel processing chains to pre-construct for each traffic
+     * channel manager
      */
     public ChannelProcessingManager(ChannelMapModel channelMapModel, EventLogManager eventLogManager,
-                                    TunerManager tunerManager, AliasModel aliasModel, UserPreferences userPreferences)
+                                    TunerManager tunerManager, AliasModel aliasModel, UserPreferences userPreferences,
+                                    int prewarmLimit)
     {
         mChannelMapModel = channelMapModel;
         mEventLogManager = eventLogManager;
@@ -109,6 +122,42 @@ public class ChannelProcessingManager implements Listener<ChannelEvent>
         mAliasModel = aliasModel;
         mUserPreferences = userPreferences;
         mChannelMetadataModel = new ChannelMetadataModel();
+        mProcessingChainPool = new ProcessingChainPool(ProcessingChainPool.DEFAULT_IDLE_TIMEOUT_MS,
+            ProcessingChainPool.DEFAULT_MAX_SIZE, prewarmLimit, this::disposeProcessingChain);
+        mProcessingChainPoolMonitor = ThreadPool.SCHEDULED.scheduleAtFixedRate(() -> {
+            mProcessingChainPool.removeExpired();
+
+            if(mProcessingChainPool.getPoolHitCount() + mProcessingChainPool.getPoolMissCount() > 0)
+            {
+                mLog.debug(mProcessingChainPool.toString());
+            }
+        }, 1, 1, TimeUnit.MINUTES);
+        mChannelSourceMonitor = ThreadPool.SCHEDULED.scheduleAtFixedRate(() -> {
+            try
+            {
+                monitorChannelSources();
+            }
+            catch(Throwable t)
+            {
+                mLog.error("Error while monitoring channel sources", t);
+            }
+        }, SOURCE_MONITOR_INTERVAL_SECONDS, SOURCE_MONITOR_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Constructs the channel processing manager with the default traffic channel prewarm limit
+     *
+     * @param channelMapModel containing channel maps defined by the user
+     * @param eventLogManager for adding event loggers to channels
+     * @param tunerManager for obtaining a tuner channel source for the channel
+     * @param aliasModel for aliasing of identifiers produced by the channel
+     * @param userPreferences for user defined behavior and settings
+     */
+    public ChannelProcessingManager(ChannelMapModel channelMapModel, EventLogManager eventLogManager,
+                                    TunerManager tunerManager, AliasModel aliasModel, UserPreferences userPreferences)
+    {
+        this(channelMapModel, eventLogManager, tunerManager, aliasModel, userPreferences,
+            ProcessingChainPool.DEFAULT_PREWARM_LIMIT);
     }
 
     /**
@@ -398,7 +447,25 @@ public class ChannelProcessingManager implements Listener<ChannelEvent>
             throw new ChannelException("No Tuner Available");
         }
 
-        ProcessingChain processingChain = new ProcessingChain(channel, mAliasModel);
+        //Reuse a pooled (pre-constructed) processing chain for traffic channels when one is available
+        ProcessingChain processingChain = null;
+        boolean pooled = false;
+
+        if(isPoolable(request))
+        {
+            processingChain = mProcessingChainPool.take(channel);
+            pooled = processingChain != null;
+        }
+
+        if(processingChain == null)
+        {
+            processingChain = constructProcessingChain(channel, request.getTrafficChannelManager());
+
+            if(isPoolable(request))
+            {
+                mProcessingChainPool.register(channel, processingChain);
+            }
+        }
 
         //Certain decoders aggregate the decode events in the parent channel that also includes any events produced
         //by the traffic channels.  Establish listener registration depending on if this channel is a traffic channel
@@ -429,21 +496,13 @@ public class ChannelProcessingManager implements Listener<ChannelEvent>
             processingChain.addDecodeEventListener(listener);
         }
 
-        //Add a listener to detect source error state that indicates the channel should be shutdown.
-        //Note: processing chain will only add this once.
-        processingChain.addSourceEventListener(mSourceErrorListener);
-
-        //Register this manager to receive channel events from traffic channel manager modules within
-        //the processing chain
-        processingChain.addChannelEventListener(this);
-
         //Register channel to receive frequency correction events to show in the spectral display (hack!)
         processingChain.addFrequencyChangeListener(channel);
 
-        /* Processing Modules */
-        List<Module> modules = DecoderFactory.getModules(mChannelMapModel, channel, mAliasModel, mUserPreferences,
-            request.getTrafficChannelManager());
-        processingChain.addModules(modules);
+        if(channel.isTrafficChannel())
+        {
+            mProcessingChainPool.attachFirstAudioMonitor(processingChain, request.getTimestamp(), pooled);
+        }
 
         //Post preload data from the request to the event bus.  Modules that can handle preload data will annotate
         //their processor method with @Subscribe to receive each specific preload data content class.
@@ -537,8 +596,151 @@ public class ChannelProcessingManager implements Listener<ChannelEvent>
             mChannelEventBroadcaster.broadcast(new ChannelEvent(channel, ChannelEvent.Event.NOTIFICATION_PROCESSING_STOP));
             mChannelEventBroadcaster.removeListener(processingChain);
             processingChain.getEventBus().unregister(ChannelProcessingManager.this);
-            processingChain.dispose();
+            disposeProcessingChain(processingChain);
+        }
+    }
+
+    /**
+     * Indicates if the processing chain for the request can be reused from, and returned to, the processing chain
+     * pool.  Only traffic channels that don't link to another channel's decode event history or traffic channel
+     * manager are pooled.
+     */
+    private static boolean isPoolable(ChannelStartProcessingRequest request)
+    {
+        return ProcessingChainPool.isPoolable(request.getChannel()) && request.getTrafficChannelManager() == null &&
+            !request.hasParentDecodeEventHistory() && !request.hasChildDecodeEventHistory();
+    }
+
+    /**
+     * Constructs a processing chain with the decoder modules for the channel.  Per-grant resources (source, event
+     * loggers, recorders, global listeners, event bus registration) are added when the channel is started.
+     *
+     * @param channel to construct
+     * @param trafficChannelManager optional, for the decoder modules
+     * @return constructed processing chain
+     */
+    private ProcessingChain constructProcessingChain(Channel channel, TrafficChannelManager trafficChannelManager)
+    {
+        ProcessingChain processingChain = new ProcessingChain(channel, mAliasModel);
+
+        //Add a listener to detect source error state that indicates the channel should be shutdown.
+        //Note: processing chain will only add this once.
+        processingChain.addSourceEventListener(mSourceErrorListener);
+
+        //Register this manager to receive channel events from traffic channel manager modules within
+        //the processing chain
+        processingChain.addChannelEventListener(this);
+
+        /* Processing Modules */
+        List<Module> modules = DecoderFactory.getModules(mChannelMapModel, channel, mAliasModel, mUserPreferences,
+            trafficChannelManager);
+        processingChain.addModules(modules);
+
+        return processingChain;
+    }
+
+    /**
+     * Disposes the processing chain and removes it from the processing chain pool eligibility list.
+     */
+    private void disposeProcessingChain(ProcessingChain processingChain)
+    {
+        mProcessingChainPool.detachFirstAudioMonitor(processingChain);
+        mProcessingChainPool.unregister(processingChain);
+        processingChain.dispose();
+    }
+
+    /**
+     * Request to pre-construct processing chains for traffic channels so that the first grant on each traffic
+     * channel doesn't incur the processing chain construction cost.  Chains are constructed on the thread pool for
+     * up to the pool's prewarm limit of channels in the request.  The remaining traffic channels are pooled after
+     * first use.
+     *
+     * @param request containing the traffic channels to pre-construct
+     */
+    @Subscribe
+    public void prewarmChannelRequest(ChannelPrewarmRequest request)
+    {
+        List<Channel> channels = request.getChannels();
+
+        for(int x = 0; x < channels.size() && x < mProcessingChainPool.getPrewarmLimit(); x++)
+        {
+            Channel channel = channels.get(x);
+
+            if(!ProcessingChainPool.isPoolable(channel) || isProcessing(channel) || mProcessingChainPool.contains(channel))
+            {
+                continue;
+            }
+
+            ThreadPool.CACHED.submit(() -> {
+                try
+                {
+                    ProcessingChain processingChain = constructProcessingChain(channel, null);
+                    mProcessingChainPool.register(channel, processingChain);
+
+                    if(!mProcessingChainPool.offer(channel, processingChain))
+                    {
+                        disposeProcessingChain(processingChain);
+                    }
+                }
+                catch(Exception e)
+                {
+                    mLog.error("Error pre-constructing processing chain for traffic channel", e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Checks the sample buffer backlog of each processing channel's tuner channel source.  Logs a warning when a
+     * channel's backlog reaches the warning threshold, meaning that the channel's decoders aren't keeping up with the
+     * tuner, and again when the backlog clears.  Queue depth and buffer processing times for channels with a backlog
+     * are logged at debug level.
+     */
+    private void monitorChannelSources()
+    {
+        for(Map.Entry<Channel,ProcessingChain> entry : mProcessingChains.entrySet())
+        {
+            if(entry.getValue().getSource() instanceof TunerChannelSource source)
+            {
+                Channel channel = entry.getKey();
+                int queueDepth = source.getQueueDepth();
+
+                if(queueDepth >= SOURCE_BACKLOG_WARNING_THRESHOLD)
+                {
+                    if(mBackloggedChannels.add(channel))
+                    {
+                        mLog.warn("Channel [" + channel.getName() + "] source is falling behind - " +
+                            getSourceMetrics(source));
+                    }
+                }
+                else if(mBackloggedChannels.remove(channel))
+                {
+                    mLog.info("Channel [" + channel.getName() + "] source backlog cleared - " + getSourceMetrics(source));
+                }
+
+                if(queueDepth > 0 && mLog.isDebugEnabled())
+                {
+                    mLog.debug("Channel [" + channel.getName() + "] source " + getSourceMetrics(source));
+                }
+            }
         }
+
+        mBackloggedChannels.retainAll(mProcessingChains.keySet());
+    }
+
+    private static String getSourceMetrics(TunerChannelSource source)
+    {
+        return "queued buffers [" + source.getQueueDepth() + "] processing time per buffer average [" +
+            String.format("%.2f", source.getAverageProcessingTime() / 1E6) + " ms] max [" +
+            String.format("%.2f", source.getMaxProcessingTime() / 1E6) + " ms]";
+    }
+
+    /**
+     * Processing chain pool for traffic channels
+     */
+    public ProcessingChainPool getProcessingChainPool()
+    {
+        return mProcessingChainPool;
     }
 
     /**
@@ -635,12 +837,36 @@ public class ChannelProcessingManager implements Listener<ChannelEvent>
                     processingChain.removeFrequencyChangeListener(channel);
                     channel.resetFrequencyCorrection();
 
-                    mChannelEventBroadcaster.broadcast(new ChannelEvent(channel, ChannelEvent.Event.NOTIFICATION_PROCESSING_STOP));
+                    //Return eligible traffic channel processing chains to the pool before announcing the stop so that
+                    //an immediate re-grant of the channel can reuse the chain
                     mChannelEventBroadcaster.removeListener(processingChain);
 
                     //Unregister for event bus requests and notifications
                     processingChain.getEventBus().unregister(ChannelProcessingManager.this);
-                    processingChain.dispose();
+                    mProcessingChainPool.detachFirstAudioMonitor(processingChain);
+                    boolean pooled = false;
+
+                    if(mProcessingChainPool.isEligible(channel, processingChain))
+                    {
+                        for(Listener<AudioSegment> listener : mAudioSegmentListeners)
+                        {
+                            processingChain.removeAudioSegmentListener(listener);
+                        }
+
+                        for(Listener<IDecodeEvent> listener : mDecodeEventListeners)
+                        {
+                            processingChain.removeDecodeEventListener(listener);
+                        }
+
+                        pooled = mProcessingChainPool.offer(channel, processingChain);
+                    }
+
+                    mChannelEventBroadcaster.broadcast(new ChannelEvent(channel, ChannelEvent.Event.NOTIFICATION_PROCESSING_STOP));
+
+                    if(!pooled)
+                    {
+                        disposeProcessingChain(processingChain);
+                    }
                 }
                 catch(Exception e)
                 {
@@ -676,6 +902,21 @@ public class ChannelProcessingManager implements Listener<ChannelEvent>
                 mLog.error("Error stopping channel [" + channel.getName() + "] - " + ce.getMessage());
             }
         }
+
+        if(mProcessingChainPoolMonitor != null)
+        {
+            mProcessingChainPoolMonitor.cancel(true);
+            mProcessingChainPoolMonitor = null;
+        }
+
+        if(mChannelSourceMonitor != null)
+        {
+            mChannelSourceMonitor.cancel(true);
+            mChannelSourceMonitor = null;
+        }
+
+        mLog.info(mProcessingChainPool.toString());
+        mProcessingChainPool.clear();
     }
 
     /**
@@ -0,0 +1,463 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.controller.channel;
+
+import io.github.dsheirer.audio.AudioSegment;
+import io.github.dsheirer.module.ProcessingChain;
+import io.github.dsheirer.module.decode.DecoderType;
+import io.github.dsheirer.sample.Listener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Pool of constructed, stopped (reset) processing chains for traffic channels.
+ *
+ * Traffic channel managers allocate traffic channels from a fixed set of channel instances, so a processing chain
+ * that was constructed for a traffic channel can be reused for the next grant on that same channel instance, after
+ * the chain has been stopped and its modules reset.  This avoids constructing the decoder, decoder state, audio and
+ * other modules at the start of each call.
+ *
+ * Only chains that were constructed for the traffic channel (ie not converted from another channel) are eligible
+ * for reuse.  Chains are reset as they're returned to the pool, so that a re-granted chain doesn't carry the decoder
+ * state or decode event history from the previous call.  A pooled chain whose decoder type no longer matches the
+ * channel's decode configuration is disposed instead of reused.  The pool holds at most the maximum number of idle
+ * chains and idle pooled chains are disposed after the idle timeout.
+ *
+ * The pool also tracks grant-to-first-audio latency for pooled versus newly constructed processing chains.
+ */
+public class ProcessingChainPool
+{
+    private final static Logger mLog = LoggerFactory.getLogger(ProcessingChainPool.class);
+    public static final long DEFAULT_IDLE_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(10);
+    public static final int DEFAULT_MAX_SIZE = 64;
+    public static final int DEFAULT_PREWARM_LIMIT = 2;
+
+    private final Map<Channel,PooledChain> mPool = new ConcurrentHashMap<>();
+    private final Map<ProcessingChain,Registration> mEligibleChains = new ConcurrentHashMap<>();
+    private final Map<ProcessingChain,Listener<AudioSegment>> mFirstAudioMonitors = new ConcurrentHashMap<>();
+    private final Object mPoolLock = new Object();
+    private final long mIdleTimeout;
+    private final int mMaxSize;
+    private final int mPrewarmLimit;
+    private final Consumer<ProcessingChain> mDisposer;
+
+    private final AtomicLong mPoolHitCount = new AtomicLong();
+    private final AtomicLong mPoolMissCount = new AtomicLong();
+    private final AtomicLong mReconfiguredCount = new AtomicLong();
+    private final LatencyMetric mPooledLatency = new LatencyMetric();
+    private final LatencyMetric mConstructedLatency = new LatencyMetric();
+
+    /**
+     * Constructs an instance
+     * @param idleTimeout in milliseconds before an idle pooled processing chain is disposed
+     * @param maxSize maximum number of idle processing chains held in the pool
+     * @param prewarmLimit maximum number of traffic channels to pre-construct per prewarm request
+     * @param disposer to dispose of processing chains that are evicted from the pool
+     */
+    public ProcessingChainPool(long idleTimeout, int maxSize, int prewarmLimit, Consumer<ProcessingChain> disposer)
+    {
+        if(maxSize < 0 || prewarmLimit < 0)
+        {
+            throw new IllegalArgumentException("Pool size [" + maxSize + "] and prewarm limit [" + prewarmLimit +
+                "] can't be negative");
+        }
+
+        mIdleTimeout = idleTimeout;
+        mMaxSize = maxSize;
+        mPrewarmLimit = prewarmLimit;
+        mDisposer = disposer;
+    }
+
+    /**
+     * Constructs an instance with the default pool size and prewarm limit
+     * @param idleTimeout in milliseconds before an idle pooled processing chain is disposed
+     * @param disposer to dispose of processing chains that are evicted from the pool
+     */
+    public ProcessingChainPool(long idleTimeout, Consumer<ProcessingChain> disposer)
+    {
+        this(idleTimeout, DEFAULT_MAX_SIZE, DEFAULT_PREWARM_LIMIT, disposer);
+    }
+
+    /**
+     * Indicates if the channel is a candidate for processing chain pooling.
+     */
+    public static boolean isPoolable(Channel channel)
+    {
+        return channel != null && channel.isTrafficChannel();
+    }
+
+    /**
+     * Registers the newly constructed processing chain as eligible for reuse with the channel.
+     * @param channel that the chain was constructed for
+     * @param processingChain constructed for the channel
+     */
+    public void register(Channel channel, ProcessingChain processingChain)
+    {
+        if(isPoolable(channel))
+        {
+            mEligibleChains.put(processingChain, new Registration(channel, getDecoderType(channel)));
+        }
+    }
+
+    /**
+     * Indicates if the processing chain was constructed for the channel and can be returned to the pool
+     */
+    public boolean isEligible(Channel channel, ProcessingChain processingChain)
+    {
+        Registration registration = mEligibleChains.get(processingChain);
+        return registration != null && registration.channel() == channel;
+    }
+
+    /**
+     * Indicates if the processing chain was constructed with the channel's current decoder type.  The user can
+     * change the decode configuration of the channel while its processing chain is idle in the pool.
+     */
+    private boolean isCurrentDecoder(Channel channel, ProcessingChain processingChain)
+    {
+        Registration registration = mEligibleChains.get(processingChain);
+        return registration != null && registration.decoderType() == getDecoderType(channel);
+    }
+
+    private static DecoderType getDecoderType(Channel channel)
+    {
+        return channel.getDecodeConfiguration() != null ? channel.getDecodeConfiguration().getDecoderType() : null;
+    }
+
+    /**
+     * Indicates if the pool contains an idle processing chain for the channel
+     */
+    public boolean contains(Channel channel)
+    {
+        return mPool.containsKey(channel);
+    }
+
+    /**
+     * Removes and returns the pooled processing chain for the channel.  A pooled chain that was constructed for a
+     * different decoder type than the channel's current decode configuration is disposed.
+     * @param channel to retrieve
+     * @return pooled chain or null if there is no reusable pooled chain for the channel
+     */
+    public ProcessingChain take(Channel channel)
+    {
+        if(!isPoolable(channel))
+        {
+            return null;
+        }
+
+        PooledChain pooled = mPool.remove(channel);
+
+        if(pooled != null)
+        {
+            if(isCurrentDecoder(channel, pooled.getProcessingChain()))
+            {
+                mPoolHitCount.incrementAndGet();
+                return pooled.getProcessingChain();
+            }
+
+            mReconfiguredCount.incrementAndGet();
+            dispose(pooled.getProcessingChain());
+        }
+
+        mPoolMissCount.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Resets a stopped processing chain and returns it to the pool for reuse.
+     * @param channel for the chain
+     * @param processingChain that is stopped and detached from any per-grant resources
+     * @return true if the chain was pooled, or false if the chain is not eligible, the channel's decoder type has
+     * changed or the pool is full, and the chain should be disposed
+     */
+    public boolean offer(Channel channel, ProcessingChain processingChain)
+    {
+        if(processingChain.isProcessing() || !isEligible(channel, processingChain) ||
+            !isCurrentDecoder(channel, processingChain) || size() >= mMaxSize)
+        {
+            return false;
+        }
+
+        try
+        {
+            processingChain.reset();
+        }
+        catch(Exception e)
+        {
+            mLog.error("Error resetting processing chain - chain will not be pooled", e);
+            return false;
+        }
+
+        synchronized(mPoolLock)
+        {
+            return mPool.size() < mMaxSize && mPool.putIfAbsent(channel, new PooledChain(processingChain)) == null;
+        }
+    }
+
+    /**
+     * Removes the processing chain from the eligible chains when it is being disposed.
+     */
+    public void unregister(ProcessingChain processingChain)
+    {
+        mEligibleChains.remove(processingChain);
+    }
+
+    /**
+     * Disposes any pooled chains that have been idle longer than the idle timeout.
+     */
+    public void removeExpired()
+    {
+        long now = System.currentTimeMillis();
+
+        for(Map.Entry<Channel,PooledChain> entry : new ArrayList<>(mPool.entrySet()))
+        {
+            if(now - entry.getValue().getPooledTimestamp() > mIdleTimeout && mPool.remove(entry.getKey(),
+                entry.getValue()))
+            {
+                dispose(entry.getValue().getProcessingChain());
+            }
+        }
+    }
+
+    /**
+     * Disposes all pooled processing chains.
+     */
+    public void clear()
+    {
+        List<PooledChain> pooled = new ArrayList<>(mPool.values());
+        mPool.clear();
+
+        for(PooledChain pooledChain : pooled)
+        {
+            dispose(pooledChain.getProcessingChain());
+        }
+    }
+
+    private void dispose(ProcessingChain processingChain)
+    {
+        unregister(processingChain);
+
+        try
+        {
+            mDisposer.accept(processingChain);
+        }
+        catch(Exception e)
+        {
+            mLog.error("Error disposing pooled processing chain", e);
+        }
+    }
+
+    /**
+     * Attaches a one-shot audio segment listener that measures the latency from the channel grant (request) time to
+     * the first audio segment produced by the processing chain.  The listener removes itself from the chain after the
+     * first audio segment.
+     *
+     * @param processingChain to monitor
+     * @param grantTimestamp for the traffic channel grant
+     * @param pooled true if the processing chain was reused from the pool
+     */
+    public void attachFirstAudioMonitor(ProcessingChain processingChain, long grantTimestamp, boolean pooled)
+    {
+        detachFirstAudioMonitor(processingChain);
+
+        Listener<AudioSegment> monitor = new Listener<>()
+        {
+            @Override
+            public void receive(AudioSegment audioSegment)
+            {
+                if(mFirstAudioMonitors.remove(processingChain, this))
+                {
+                    (pooled ? mPooledLatency : mConstructedLatency).add(System.currentTimeMillis() - grantTimestamp);
+                    processingChain.removeAudioSegmentListener(this);
+                }
+            }
+        };
+
+        mFirstAudioMonitors.put(processingChain, monitor);
+        processingChain.addAudioSegmentListener(monitor);
+    }
+
+    /**
+     * Removes the first audio monitor from the processing chain when the channel didn't produce any audio.
+     */
+    public void detachFirstAudioMonitor(ProcessingChain processingChain)
+    {
+        Listener<AudioSegment> monitor = mFirstAudioMonitors.remove(processingChain);
+
+        if(monitor != null)
+        {
+            processingChain.removeAudioSegmentListener(monitor);
+        }
+    }
+
+    /**
+     * Number of idle pooled processing chains
+     */
+    public int size()
+    {
+        return mPool.size();
+    }
+
+    /**
+     * Maximum number of idle pooled processing chains
+     */
+    public int getMaxSize()
+    {
+        return mMaxSize;
+    }
+
+    /**
+     * Maximum number of traffic channels to pre-construct for each prewarm request
+     */
+    public int getPrewarmLimit()
+    {
+        return mPrewarmLimit;
+    }
+
+    /**
+     * Number of traffic channel starts that reused a pooled processing chain
+     */
+    public long getPoolHitCount()
+    {
+        return mPoolHitCount.get();
+    }
+
+    /**
+     * Number of traffic channel starts that had to construct a new processing chain
+     */
+    public long getPoolMissCount()
+    {
+        return mPoolMissCount.get();
+    }
+
+    /**
+     * Number of pooled processing chains that were disposed because the channel's decoder type changed
+     */
+    public long getReconfiguredCount()
+    {
+        return mReconfiguredCount.get();
+    }
+
+    /**
+     * Grant-to-first-audio latency for traffic channels using a pooled processing chain
+     */
+    public LatencyMetric getPooledLatency()
+    {
+        return mPooledLatency;
+    }
+
+    /**
+     * Grant-to-first-audio latency for traffic channels using a newly constructed processing chain
+     */
+    public LatencyMetric getConstructedLatency()
+    {
+        return mConstructedLatency;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "Processing Chain Pool - Idle:" + size() + "/" + mMaxSize + " Reused:" + getPoolHitCount() +
+            " Constructed:" + getPoolMissCount() + " Reconfigured:" + getReconfiguredCount() + " Grant-To-First-Audio Pooled [" + mPooledLatency + "] Constructed [" +
+            mConstructedLatency + "]";
+    }
+
+    /**
+     * Channel and decoder type that an eligible processing chain was constructed for
+     */
+    private record Registration(Channel channel, DecoderType decoderType)
+    {
+    }
+
+    /**
+     * Pooled processing chain with the time that it was added to the pool
+     */
+    private static class PooledChain
+    {
+        private final ProcessingChain mProcessingChain;
+        private final long mPooledTimestamp = System.currentTimeMillis();
+
+        public PooledChain(ProcessingChain processingChain)
+        {
+            mProcessingChain = processingChain;
+        }
+
+        public ProcessingChain getProcessingChain()
+        {
+            return mProcessingChain;
+        }
+
+        public long getPooledTimestamp()
+        {
+            return mPooledTimestamp;
+        }
+    }
+
+    /**
+     * Latency statistics (milliseconds)
+     */
+    public static class LatencyMetric
+    {
+        private long mCount;
+        private long mTotal;
+        private long mMax;
+
+        public synchronized void add(long latency)
+        {
+            mCount++;
+            mTotal += latency;
+            mMax = Math.max(mMax, latency);
+        }
+
+        public synchronized long getCount()
+        {
+            return mCount;
+        }
+
+        /**
+         * Average latency in milliseconds
+         */
+        public synchronized double getAverage()
+        {
+            return mCount > 0 ? (double)mTotal / (double)mCount : 0.0;
+        }
+
+        /**
+         * Maximum latency in milliseconds
+         */
+        public synchronized long getMax()
+        {
+            return mMax;
+        }
+
+        @Override
+        public synchronized String toString()
+        {
+            return "Count:" + mCount + " Avg:" + String.format("%.1f", getAverage()) + "ms Max:" + mMax + "ms";
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.controller.channel.event;
+
+import io.github.dsheirer.controller.channel.Channel;
+import io.github.dsheirer.module.ModuleEventBusMessage;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Request to pre-construct (warm) processing chains for traffic channels ahead of the first channel grant.
+ */
+public class ChannelPrewarmRequest extends ModuleEventBusMessage
+{
+    private final List<Channel> mChannels;
+
+    /**
+     * Constructs an instance
+     * @param channels to pre-construct
+     */
+    public ChannelPrewarmRequest(Collection<Channel> channels)
+    {
+        mChannels = new ArrayList<>(channels);
+    }
+
+    /**
+     * Traffic channels to pre-construct
+     */
+    public List<Channel> getChannels()
+    {
+        return mChannels;
+    }
+}
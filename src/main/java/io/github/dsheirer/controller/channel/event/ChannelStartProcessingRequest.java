@@ -42,6 +42,7 @@ public class ChannelStartProcessingRequest extends ModuleEventBusMessage
     private DecodeEventHistory mParentDecodeEventHistory;
     private DecodeEventHistory mChildDecodeEventHistory;
     private boolean mPersistentAttempt;
+    private final long mTimestamp = System.currentTimeMillis();
 
     /**
      * Constructs an instance
@@ -91,6 +92,14 @@ public class ChannelStartProcessingRequest extends ModuleEventBusMessage
         this(channel, null, null, null);
     }
 
+    /**
+     * Timestamp when this request was created, normally the time of the traffic channel grant.
+     */
+    public long getTimestamp()
+    {
+        return mTimestamp;
+    }
+
     /**
      * Sets a flag to persistently attempt to start this channel.  When set to true, the channel processing manager
      * will repeatedly try to (re)start this channel while the application continues to run.
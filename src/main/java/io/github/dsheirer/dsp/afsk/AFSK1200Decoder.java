@@ -84,6 +84,8 @@ public class AFSK1200Decoder implements Listener<float[]>
         mSampleBuffer = sampleBuffer;
         mSampleBuffer.setTimingGain(mSymbolTimingGain);
         mResampler.setListener(new Decoder());
+        //The decoder processes each resampled buffer immediately and doesn't retain it
+        mResampler.setReuseOutputBuffers(true);
         mNormalOutput = (output == Output.NORMAL);
     }
 
@@ -118,6 +120,31 @@ public class AFSK1200Decoder implements Listener<float[]>
         mResampler.resample(buffer);
     }
 
+    /**
+     * Resets the demodulation state (resampler, correlators and symbol timing) so that the next buffer is
+     * demodulated without any history from previously received audio.
+     */
+    public void reset()
+    {
+        mResampler.reset();
+        mCorrelatorMark = new Correlator(SAMPLE_RATE, MARK, AVERAGING_PERIOD, CORRELATION_PERIOD);
+        mCorrelatorSpace = new Correlator(SAMPLE_RATE, SPACE, AVERAGING_PERIOD, CORRELATION_PERIOD);
+        mSampleBuffer.reset();
+        mTimingErrorDetector.reset();
+    }
+
+    /**
+     * Dispatches a symbol that was demodulated by a shared (normal output) decoder to this decoder's symbol
+     * processor, applying this decoder's output polarity.  Used when several decoders share one demodulator instead
+     * of each demodulating the same audio.
+     *
+     * @param symbol demodulated with normal output: 1200Hz = Mark(1) and 1800Hz = Space(0)
+     */
+    public void receiveSymbol(boolean symbol)
+    {
+        dispatch(symbol);
+    }
+
     protected void dispatch(boolean symbol)
     {
         if(mBinarySymbolProcessor != null)
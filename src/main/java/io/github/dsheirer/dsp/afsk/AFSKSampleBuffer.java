@@ -18,6 +18,8 @@ package io.github.dsheirer.dsp.afsk;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Arrays;
+
 public class AFSKSampleBuffer
 {
     private final static Logger mLog = LoggerFactory.getLogger(AFSKSampleBuffer.class);
@@ -81,6 +83,16 @@ public class AFSKSampleBuffer
         mSymbolSamplingPoint += (mSamplesPerSymbol + (symbolTimingError * mSymbolTimingGain));
     }
 
+    /**
+     * Clears the buffered samples and restores the initial symbol timing
+     */
+    public void reset()
+    {
+        Arrays.fill(mDelayLine, false);
+        mDelayLinePointer = 0;
+        mSymbolSamplingPoint = mSamplesPerSymbol;
+    }
+
     public void setTimingGain(float gain)
     {
         mSymbolTimingGain = gain;
@@ -15,6 +15,8 @@
  ******************************************************************************/
 package io.github.dsheirer.dsp.afsk;
 
+import java.util.Arrays;
+
 /**
  * Zero crossing error detector.  Provides symbol timing error correction values by detecting zero-crossings within
  * each symbol period.  Ideally there should be only 0 or 1 zero crossings within each symbol period.  However, when
@@ -60,6 +62,14 @@ public class AFSKTimingErrorDetector
         mBuffer[mBuffer.length - 1] = sample;
     }
 
+    /**
+     * Clears the buffered samples
+     */
+    public void reset()
+    {
+        Arrays.fill(mBuffer, false);
+    }
+
     /**
      * Determines the symbol timing error for the samples processed thus far.  This method should be invoked once per
      * symbol period, triggered via an external samples per symbol tracking process.
@@ -18,7 +18,17 @@
  */
 package io.github.dsheirer.dsp.filter;
 
+import io.github.dsheirer.dsp.filter.channelizer.IPolyphaseChannelizerFilter;
+import io.github.dsheirer.dsp.filter.channelizer.ScalarPolyphaseChannelizerFilter;
+import io.github.dsheirer.dsp.filter.channelizer.TwoChannelSynthesizerM2;
+import io.github.dsheirer.dsp.filter.channelizer.VectorPolyphaseChannelizerFilter128Bit;
+import io.github.dsheirer.dsp.filter.channelizer.VectorPolyphaseChannelizerFilter256Bit;
+import io.github.dsheirer.dsp.filter.channelizer.VectorPolyphaseChannelizerFilter512Bit;
+import io.github.dsheirer.dsp.filter.channelizer.VectorPolyphaseChannelizerFilter64Bit;
+import io.github.dsheirer.dsp.filter.channelizer.VectorPolyphaseChannelizerFilterDefaultBit;
+import io.github.dsheirer.dsp.filter.channelizer.VectorTwoChannelSynthesizerM2;
 import io.github.dsheirer.dsp.filter.decimate.IRealDecimationFilter;
+import io.github.dsheirer.dsp.filter.design.FilterDesignCache;
 import io.github.dsheirer.dsp.filter.design.FilterDesignException;
 import io.github.dsheirer.dsp.filter.fir.FIRFilterSpecification;
 import io.github.dsheirer.dsp.filter.fir.real.IRealFilter;
@@ -696,13 +706,35 @@ public class FilterFactory
     }
 
     /**
-     * Creates a filter from the filter specification using the remez exchange design algorithm
+     * Creates a filter from the filter specification using the remez exchange design algorithm.  Designs are cached
+     * in the process-wide filter design cache so that each specification is only designed once.
      *
      * @param specification
      * @return filter coefficients
      * @throws FilterDesignException if the filter cannot be designed
      */
     public static float[] getTaps(FIRFilterSpecification specification) throws FilterDesignException
+    {
+        String key = specification.getCacheKey();
+        float[] taps = FilterDesignCache.getInstance().get(key);
+
+        if(taps == null)
+        {
+            taps = designTaps(specification);
+            FilterDesignCache.getInstance().put(key, taps);
+        }
+
+        return taps;
+    }
+
+    /**
+     * Designs a filter from the filter specification using the remez exchange design algorithm
+     *
+     * @param specification
+     * @return filter coefficients or null if the designer can't design the filter
+     * @throws FilterDesignException if the filter cannot be designed
+     */
+    private static float[] designTaps(FIRFilterSpecification specification) throws FilterDesignException
     {
         RemezFIRFilterDesigner designer = new RemezFIRFilterDesigner(specification);
 
@@ -841,6 +873,31 @@ public class FilterFactory
      */
     public static float[] getSincM2Channelizer(double channelBandwidth, int channels, int tapsPerChannel,
                                                boolean logResults) throws FilterDesignException
+    {
+        String key = "SINC_M2_CHANNELIZER|" + channelBandwidth + "|" + channels + "|" + tapsPerChannel;
+        float[] taps = FilterDesignCache.getInstance().get(key);
+
+        if(taps == null)
+        {
+            taps = designSincM2Channelizer(channelBandwidth, channels, tapsPerChannel, logResults);
+            FilterDesignCache.getInstance().put(key, taps);
+        }
+
+        return taps;
+    }
+
+    /**
+     * Designs the polyphase M2 channelizer sync filter.
+     *
+     * @param channelBandwidth per channel
+     * @param channels count
+     * @param tapsPerChannel minimum.  This may be increased to meet the band edge -6.02dB requirement
+     * @param logResults to log the results of the design
+     * @return filter
+     * @throws FilterDesignException if the filter cannot be designed with a band edge of -6.02dB
+     */
+    private static float[] designSincM2Channelizer(double channelBandwidth, int channels, int tapsPerChannel,
+                                                   boolean logResults) throws FilterDesignException
     {
         int currentTapsPerChannel = tapsPerChannel;
         int filterLength = (channels * currentTapsPerChannel) - 1;
@@ -1098,6 +1155,59 @@ public class FilterFactory
         }
     }
 
+    /**
+     * Creates the optimal polyphase channelizer filter-and-sum implementation using calibration data to select
+     * from among the scalar and vector implementations.
+     * @param alignedFilter that is I/Q interleaved and aligned to the channelizer's inline sample buffer
+     * @param subChannelCount number of I/Q sub-channels (2 x channel count)
+     * @return polyphase channelizer filter implementation
+     */
+    public static IPolyphaseChannelizerFilter getPolyphaseChannelizerFilter(float[] alignedFilter, int subChannelCount)
+    {
+        Implementation implementation = CalibrationManager.getInstance()
+            .getImplementation(CalibrationType.FILTER_POLYPHASE_CHANNELIZER);
+
+        switch(implementation)
+        {
+            case VECTOR_SIMD_PREFERRED:
+                return new VectorPolyphaseChannelizerFilterDefaultBit(alignedFilter, subChannelCount);
+            case VECTOR_SIMD_64:
+                return new VectorPolyphaseChannelizerFilter64Bit(alignedFilter, subChannelCount);
+            case VECTOR_SIMD_128:
+                return new VectorPolyphaseChannelizerFilter128Bit(alignedFilter, subChannelCount);
+            case VECTOR_SIMD_256:
+                return new VectorPolyphaseChannelizerFilter256Bit(alignedFilter, subChannelCount);
+            case VECTOR_SIMD_512:
+                return new VectorPolyphaseChannelizerFilter512Bit(alignedFilter, subChannelCount);
+            case UNCALIBRATED:
+            case SCALAR:
+            default:
+                return new ScalarPolyphaseChannelizerFilter(alignedFilter, subChannelCount);
+        }
+    }
+
+    /**
+     * Creates the optimal two-channel polyphase synthesizer implementation using calibration data to select
+     * from among the scalar and vector implementations.
+     * @param filter for the synthesizer
+     * @return synthesizer implementation
+     */
+    public static TwoChannelSynthesizerM2 getTwoChannelSynthesizer(float[] filter)
+    {
+        Implementation implementation = CalibrationManager.getInstance()
+            .getImplementation(CalibrationType.FILTER_POLYPHASE_SYNTHESIZER);
+
+        switch(implementation)
+        {
+            case VECTOR_SIMD_PREFERRED:
+                return new VectorTwoChannelSynthesizerM2(filter);
+            case UNCALIBRATED:
+            case SCALAR:
+            default:
+                return new TwoChannelSynthesizerM2(filter);
+        }
+    }
+
     /**
      * Constructs the optimal decimation filter implementation for filter length and window type
      * using calibration data to select among scalar and vector implementation options.
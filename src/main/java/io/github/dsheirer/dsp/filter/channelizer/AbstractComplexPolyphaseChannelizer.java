@@ -98,16 +98,24 @@ public abstract class AbstractComplexPolyphaseChannelizer implements Listener<In
     }
 
     /**
-     * Dispatches the processed channel samples to any registered polyphase channel outputs.
+     * Dispatches the processed channel samples to any registered polyphase channel outputs.  The buffer's consumer
+     * count is incremented for each channel before delivery so that the buffer is only recycled once every channel
+     * has finished processing it.
      *
-     * @param channelResultsList a list of arrays of I/Q samples per channel
+     * @param channelResultsBuffer containing rows of I/Q samples per channel
      */
-    protected void dispatch(List<float[]> channelResultsList)
+    protected void dispatch(ChannelResultsBuffer channelResultsBuffer)
     {
+        //Hold a reference while distributing so the buffer can't be recycled until all channels have received it
+        channelResultsBuffer.incrementConsumerCount();
+
         for(PolyphaseChannelSource channel : mChannels)
         {
-            channel.receiveChannelResults(channelResultsList);
+            channelResultsBuffer.incrementConsumerCount();
+            channel.receiveChannelResults(channelResultsBuffer);
         }
+
+        channelResultsBuffer.decrementConsumerCount();
     }
 
     /**
@@ -0,0 +1,160 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.dsp.filter.channelizer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reusable matrix of polyphase channelizer results.  Each row contains one channelizer output sample for every
+ * polyphase channel, arranged as interleaved I/Q pairs (I0,Q0,I1,Q1...In,Qn), and all rows are stored in a single
+ * contiguous float array.
+ *
+ * Buffers are obtained from a ChannelResultsBufferPool and are returned to the pool once every consumer has signaled
+ * that it is finished with the buffer via decrementConsumerCount().  The producer is responsible for incrementing the
+ * consumer count for each consumer before distributing the buffer.  A buffer that is never released is simply garbage collected, since
+ * the pool does not retain a reference to buffers that are in use.
+ */
+public class ChannelResultsBuffer
+{
+    /**
+     * Empty buffer for use as a Dispatcher poison pill
+     */
+    public static final ChannelResultsBuffer POISON_PILL = new ChannelResultsBuffer(0, 0, null);
+
+    private final float[] mSamples;
+    private final int mRowLength;
+    private final int mRowCapacity;
+    private final ChannelResultsBufferPool mPool;
+    private final AtomicInteger mConsumerCount = new AtomicInteger();
+    private int mRowCount;
+
+    /**
+     * Constructs an instance
+     * @param rowLength number of floats per row (ie 2 x channel count)
+     * @param rowCapacity maximum number of rows
+     * @param pool to return this buffer to once all consumers are finished, or null for an un-pooled buffer
+     */
+    public ChannelResultsBuffer(int rowLength, int rowCapacity, ChannelResultsBufferPool pool)
+    {
+        mRowLength = rowLength;
+        mRowCapacity = rowCapacity;
+        mSamples = new float[rowLength * rowCapacity];
+        mPool = pool;
+    }
+
+    /**
+     * Contiguous array of channel results rows.  Only the first (row count x row length) values are valid.
+     */
+    public float[] getSamples()
+    {
+        return mSamples;
+    }
+
+    /**
+     * Number of floats in each row
+     */
+    public int getRowLength()
+    {
+        return mRowLength;
+    }
+
+    /**
+     * Maximum number of rows that this buffer can hold
+     */
+    public int getRowCapacity()
+    {
+        return mRowCapacity;
+    }
+
+    /**
+     * Number of rows currently loaded in this buffer
+     */
+    public int getRowCount()
+    {
+        return mRowCount;
+    }
+
+    /**
+     * Index of the first value in the specified row
+     * @param row index
+     * @return offset into the samples array
+     */
+    public int getRowOffset(int row)
+    {
+        return row * mRowLength;
+    }
+
+    /**
+     * Offset of the next unused row.  The producer fills the row at this offset and then invokes incrementRowCount().
+     */
+    public int getNextRowOffset()
+    {
+        return mRowCount * mRowLength;
+    }
+
+    /**
+     * Increments the row count after the producer loads a row.
+     */
+    public void incrementRowCount()
+    {
+        mRowCount++;
+    }
+
+    /**
+     * Indicates if all rows of this buffer have been loaded.
+     */
+    public boolean isFull()
+    {
+        return mRowCount >= mRowCapacity;
+    }
+
+    /**
+     * Increments the consumer count.  This should only be invoked by the producer of the buffer, or by a consumer that
+     * distributes the buffer to additional consumers.
+     */
+    public void incrementConsumerCount()
+    {
+        mConsumerCount.incrementAndGet();
+    }
+
+    /**
+     * Decrements the consumer count.  Each consumer of this buffer should invoke this method once it no longer needs
+     * the buffer contents.  When all consumers are finished, the buffer is returned to the pool for reuse.
+     */
+    public void decrementConsumerCount()
+    {
+        if(mConsumerCount.decrementAndGet() <= 0)
+        {
+            recycle();
+        }
+    }
+
+    /**
+     * Resets this buffer and returns it to the owning pool.
+     */
+    private void recycle()
+    {
+        mRowCount = 0;
+
+        if(mPool != null)
+        {
+            mPool.recycle(this);
+        }
+    }
+}
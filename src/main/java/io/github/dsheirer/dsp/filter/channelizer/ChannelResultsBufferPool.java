@@ -0,0 +1,98 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.dsp.filter.channelizer;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool of reusable channel results buffers for a polyphase channelizer.  Buffers are created on demand and are
+ * recycled when all consumers release them, so that steady-state channelization does not allocate new buffers.
+ *
+ * The pool only holds references to idle buffers.  Buffers that are discarded by a consumer without being released
+ * (e.g. a dispatcher queue overflow) are garbage collected and replaced on demand.
+ */
+public class ChannelResultsBufferPool
+{
+    private final Queue<ChannelResultsBuffer> mBuffers = new ConcurrentLinkedQueue<>();
+    private final int mRowLength;
+    private final int mRowCapacity;
+    private final int mMaximumIdleBuffers;
+    private final AtomicLong mAllocatedCount = new AtomicLong();
+
+    /**
+     * Constructs an instance
+     * @param rowLength for each buffer (ie 2 x channel count)
+     * @param rowCapacity for each buffer
+     * @param maximumIdleBuffers maximum number of idle buffers to retain for reuse
+     */
+    public ChannelResultsBufferPool(int rowLength, int rowCapacity, int maximumIdleBuffers)
+    {
+        mRowLength = rowLength;
+        mRowCapacity = rowCapacity;
+        mMaximumIdleBuffers = maximumIdleBuffers;
+    }
+
+    /**
+     * Provides an empty buffer, reusing an idle buffer when available.
+     */
+    public ChannelResultsBuffer getBuffer()
+    {
+        ChannelResultsBuffer buffer = mBuffers.poll();
+
+        if(buffer == null)
+        {
+            buffer = new ChannelResultsBuffer(mRowLength, mRowCapacity, this);
+            mAllocatedCount.incrementAndGet();
+        }
+
+        return buffer;
+    }
+
+    /**
+     * Returns the buffer to this pool for reuse.  Invoked by the buffer once all consumers have released it.
+     * @param buffer to recycle
+     */
+    void recycle(ChannelResultsBuffer buffer)
+    {
+        if(buffer.getRowLength() == mRowLength && buffer.getRowCapacity() == mRowCapacity &&
+            mBuffers.size() < mMaximumIdleBuffers)
+        {
+            mBuffers.offer(buffer);
+        }
+    }
+
+    /**
+     * Total number of buffers that have been allocated by this pool since it was created.  Once the pool reaches
+     * steady state, this count should no longer increase.
+     */
+    public long getAllocatedCount()
+    {
+        return mAllocatedCount.get();
+    }
+
+    /**
+     * Number of idle buffers that are available for reuse.
+     */
+    public int getIdleCount()
+    {
+        return mBuffers.size();
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.dsp.filter.channelizer;
+
+import io.github.dsheirer.dsp.filter.design.FilterDesignException;
+import io.github.dsheirer.sample.complex.InterleavedComplexSamples;
+
+/**
+ * Non-Maximally Decimated Polyphase Filter Bank (NMDPFB) channelizer that maintains the polyphase filter history in a
+ * double-mapped circular buffer instead of right-shifting the entire sample buffer after each block.
+ *
+ * The circular buffer is twice the length of the inline sample buffer.  Each new block of samples is written twice,
+ * once in each half of the buffer, so that the complete sample history (newest block to oldest block) is always
+ * available as a contiguous region starting at the current block offset.  After each block is filtered, the block
+ * offset moves backward by one block (wrapping to the end of the first half) so that the next block is loaded ahead of
+ * the existing history.  This replaces the (taps-per-channel x channels x 2) float shift per block with a copy of the
+ * new block samples only.
+ *
+ * Filtering, channel results buffering and IFFT processing are identical to the ComplexPolyphaseChannelizerM2.
+ */
+public class CircularComplexPolyphaseChannelizerM2 extends ComplexPolyphaseChannelizerM2
+{
+    private float[] mCircularSamples;
+    private int mBlockOffset;
+    private int mBlockPointer;
+
+    /**
+     * Creates an instance.
+     *
+     * @param taps of a low-pass filter designed for the inbound sample rate with a cutoff frequency
+     * equal to the channel bandwidth (sample rate / filters).
+     * @param sampleRate of the incoming sample stream
+     * @param channelCount - number of filters/channels to output.  This number must be even (divisible by 2).
+     */
+    public CircularComplexPolyphaseChannelizerM2(float[] taps, int sampleRate, int channelCount)
+    {
+        super(taps, sampleRate, channelCount);
+    }
+
+    /**
+     * Creates an instance and designs a Perfect Reconstruction prototype filter appropriate for the baseband sample
+     * rate and quantity of filter taps per polyphase sub-channel.
+     *
+     * @param sampleRate to be channelized.
+     * @param tapsPerChannel to use when designing the filter
+     */
+    public CircularComplexPolyphaseChannelizerM2(double sampleRate, int tapsPerChannel) throws FilterDesignException
+    {
+        super(sampleRate, tapsPerChannel);
+    }
+
+    /**
+     * Receives the complex sample buffer and processes the results through the channelizer.
+     */
+    @Override
+    public void receive(InterleavedComplexSamples complexSamples)
+    {
+        int bufferLength = getSampleBufferLength();
+
+        //(Re)create the circular buffer whenever the channelizer is (re)initialized for a new sample rate
+        if(mCircularSamples == null || mCircularSamples.length != bufferLength * 2)
+        {
+            mCircularSamples = new float[bufferLength * 2];
+            mBlockOffset = 0;
+            mBlockPointer = 0;
+        }
+
+        int samplesPerBlock = getSamplesPerBlock();
+        float[] samples = complexSamples.samples();
+
+        int samplesPointer = 0;
+        int samplesToCopy;
+
+        while(samplesPointer < samples.length)
+        {
+            if(mBlockPointer < samplesPerBlock)
+            {
+                samplesToCopy = samplesPerBlock - mBlockPointer;
+
+                int samplesDiff = samples.length - samplesPointer;
+                if(samplesDiff < samplesToCopy)
+                {
+                    samplesToCopy = samplesDiff;
+                }
+
+                //Write the new samples into both halves of the double-mapped buffer
+                int offset = mBlockOffset + mBlockPointer;
+                System.arraycopy(samples, samplesPointer, mCircularSamples, offset, samplesToCopy);
+                System.arraycopy(samples, samplesPointer, mCircularSamples, offset + bufferLength, samplesToCopy);
+
+                mBlockPointer += samplesToCopy;
+                samplesPointer += samplesToCopy;
+            }
+
+            if(mBlockPointer >= samplesPerBlock)
+            {
+                //Filter buffered samples and produce a single sample across each of the polyphase channels
+                processBlock(mCircularSamples, mBlockOffset);
+
+                //Move the block offset backward to load the next block ahead of the existing sample history
+                mBlockOffset -= samplesPerBlock;
+
+                if(mBlockOffset < 0)
+                {
+                    mBlockOffset += bufferLength;
+                }
+
+                mBlockPointer = 0;
+            }
+        }
+    }
+}
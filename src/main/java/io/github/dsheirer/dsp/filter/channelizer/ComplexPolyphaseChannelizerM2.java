@@ -18,6 +18,7 @@
  */
 package io.github.dsheirer.dsp.filter.channelizer;
 
+import io.github.dsheirer.controller.NamingThreadFactory;
 import io.github.dsheirer.dsp.filter.FilterFactory;
 import io.github.dsheirer.dsp.filter.design.FilterDesignException;
 import io.github.dsheirer.sample.complex.InterleavedComplexSamples;
@@ -28,9 +29,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.text.DecimalFormat;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 
 /**
  * Non-Maximally Decimated Polyphase Filter Bank (NMDPFB) channelizer that divides the input baseband complex sample
@@ -52,9 +54,17 @@ import java.util.List;
  *
  *   -Multiply the inline array of samples and filter coefficients
  *   -Accumulate the results for each sub-channel
+ *    (these two steps are performed by the calibrated scalar or SIMD vector IPolyphaseChannelizerFilter)
  *   -Rearrange the sub-channel results to correctly order the sub-channels
  *   -Perform IFFT
  *
+ * Filter results are written directly into pooled, contiguous channel results buffers (one row per processed block)
+ * and the interim filter arrays are allocated once, so that steady-state channelization does not create garbage.
+ *
+ * The IFFT stage can optionally be split across multiple threads.  Each channel results buffer is divided into
+ * contiguous row stripes that are transformed in parallel and the buffer is only dispatched to the channel outputs once
+ * every stripe is complete, so that the output ordering is preserved.
+ *
  * Note: design the prototype filter as a Nyquist windowed filter with a -6.02 db attenuation at the channel edge
  * frequency if you need Perfect Reconstruction where you'll later re-join two or more channels to form a wider
  * bandwidth channel or to isolate a signal that located between two channels.
@@ -70,18 +80,35 @@ public class ComplexPolyphaseChannelizerM2 extends AbstractComplexPolyphaseChann
      */
     private static final int PROCESSED_CHANNEL_RESULTS_THRESHOLD = 1024;
 
+    /**
+     * Maximum number of idle channel results buffers retained by the buffer pool for reuse
+     */
+    private static final int MAXIMUM_IDLE_RESULTS_BUFFERS = 8;
+
+    /**
+     * Number of channels that a single IFFT thread is expected to sustain when automatically sizing the IFFT stage
+     */
+    private static final int IFFT_CHANNELS_PER_THREAD = 256;
+
     //Sized at 152 buffers a second where max = 5 seconds
     private IFFTProcessorDispatcher mIFFTProcessorDispatcher = new IFFTProcessorDispatcher(5 * 152);
     private FloatFFT_1D mFFT;
     private float[] mInlineSamples;
     private float[] mInlineFilter;
+    private float[] mFilterAccumulator;
+    private IPolyphaseChannelizerFilter mPolyphaseFilter;
     private boolean mTopBlockIndicator = true;
     private int[] mTopBlockMap;
     private int[] mMiddleBlockMap;
     private int mSampleBufferPointer;
     private int mSamplesPerBlock;
     private int mTapsPerChannel;
-    private List<float[]> mProcessedChannelResultsList = new ArrayList<>();
+    private ChannelResultsBufferPool mChannelResultsBufferPool;
+    private ChannelResultsBuffer mChannelResultsBuffer;
+    private int mIFFTThreadCount = 1;
+    private volatile ExecutorService mIFFTExecutor;
+    private volatile IFFTWorker[] mIFFTWorkers;
+    private Semaphore mIFFTWorkerCompletion = new Semaphore(0);
 
     /**
      * Creates a NMDPFB channelizer instance.
@@ -132,15 +159,107 @@ public class ComplexPolyphaseChannelizerM2 extends AbstractComplexPolyphaseChann
      */
     public void start()
     {
+        if(mIFFTThreadCount > 1 && mIFFTExecutor == null)
+        {
+            //The dispatcher thread processes one stripe, so we only need executor threads for the remaining stripes
+            mIFFTExecutor = Executors.newFixedThreadPool(mIFFTThreadCount - 1,
+                new NamingThreadFactory("sdrtrunk polyphase ifft worker"));
+        }
+
         mIFFTProcessorDispatcher.start();
     }
 
     /**
-     * Stops sample processing.
+     * Stops sample processing.  The dispatcher is stopped first and the IFFT executor is then shutdown without
+     * discarding queued stripes, so that a dispatcher that is waiting on stripe completion is always released.
      */
     public void stop()
     {
         mIFFTProcessorDispatcher.stop();
+
+        ExecutorService executor = mIFFTExecutor;
+
+        if(executor != null)
+        {
+            mIFFTExecutor = null;
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Number of channel results buffers queued and awaiting the IFFT stage.
+     */
+    public int getQueueDepth()
+    {
+        return mIFFTProcessorDispatcher.getQueueDepth();
+    }
+
+    /**
+     * Sets the number of threads used to perform the IFFT stage.  This should only be invoked while the channelizer
+     * is stopped.
+     *
+     * @param threadCount to use, or zero to automatically size the thread count for the current channel count
+     */
+    public void setIFFTThreadCount(int threadCount)
+    {
+        if(threadCount < 0)
+        {
+            throw new IllegalArgumentException("IFFT thread count must be zero (automatic) or a positive value");
+        }
+
+        if(mIFFTExecutor != null)
+        {
+            throw new IllegalStateException("IFFT thread count cannot be changed while the channelizer is running");
+        }
+
+        mIFFTThreadCount = threadCount == 0 ? getAutomaticIFFTThreadCount(getChannelCount()) : threadCount;
+        createIFFTWorkers();
+
+        mLog.info("Polyphase channelizer [" + getChannelCount() + "] channels using [" + mIFFTThreadCount +
+            "] IFFT thread" + (mIFFTThreadCount > 1 ? "s" : ""));
+    }
+
+    /**
+     * Number of threads used to perform the IFFT stage.
+     */
+    public int getIFFTThreadCount()
+    {
+        return mIFFTThreadCount;
+    }
+
+    /**
+     * Calculates the number of IFFT threads to use for the channel count, limited to half of the available processors.
+     * @param channelCount of the channelizer
+     * @return thread count, minimum of 1
+     */
+    public static int getAutomaticIFFTThreadCount(int channelCount)
+    {
+        int maximum = Runtime.getRuntime().availableProcessors() / 2;
+        int threads = FastMath.min(channelCount / IFFT_CHANNELS_PER_THREAD, maximum);
+        return FastMath.max(threads, 1);
+    }
+
+    /**
+     * Creates the IFFT stripe workers, each with a dedicated FFT instance, when the IFFT thread count is greater than 1.
+     */
+    private void createIFFTWorkers()
+    {
+        if(mIFFTThreadCount > 1)
+        {
+            IFFTWorker[] workers = new IFFTWorker[mIFFTThreadCount];
+
+            for(int x = 0; x < mIFFTThreadCount; x++)
+            {
+                //The first stripe is processed on the dispatcher thread and doesn't signal completion
+                workers[x] = new IFFTWorker(getChannelCount(), x > 0);
+            }
+
+            mIFFTWorkers = workers;
+        }
+        else
+        {
+            mIFFTWorkers = null;
+        }
     }
 
     /**
@@ -220,13 +339,7 @@ public class ComplexPolyphaseChannelizerM2 extends AbstractComplexPolyphaseChann
             if(mSampleBufferPointer >= mSamplesPerBlock)
             {
                 //Filter buffered samples and produce a single sample across each of the polyphase channels
-                mProcessedChannelResultsList.add(process());
-
-                if(mProcessedChannelResultsList.size() >= PROCESSED_CHANNEL_RESULTS_THRESHOLD)
-                {
-                    mIFFTProcessorDispatcher.receive(new ArrayList<>(mProcessedChannelResultsList));
-                    mProcessedChannelResultsList.clear();
-                }
+                processBlock(mInlineSamples, 0);
 
                 //Right-shift the samples in the buffer over to make room for a new block of samples
                 System.arraycopy(mInlineSamples, 0, mInlineSamples, mSamplesPerBlock, (mInlineSamples.length - mSamplesPerBlock));
@@ -235,6 +348,49 @@ public class ComplexPolyphaseChannelizerM2 extends AbstractComplexPolyphaseChann
         }
     }
 
+    /**
+     * Filters a fully loaded sample buffer to produce a single sample across each of the polyphase channels and loads
+     * the results into the next row of the current channel results buffer, dispatching the channel results buffer
+     * for IFFT processing once it is full.
+     *
+     * @param samples containing the inline sample buffer, ordered newest block to oldest block
+     * @param samplesOffset to the start of the inline sample buffer within the samples array
+     */
+    protected void processBlock(float[] samples, int samplesOffset)
+    {
+        if(mChannelResultsBuffer == null)
+        {
+            mChannelResultsBuffer = mChannelResultsBufferPool.getBuffer();
+        }
+
+        process(samples, samplesOffset, mChannelResultsBuffer.getSamples(), mChannelResultsBuffer.getNextRowOffset());
+        mChannelResultsBuffer.incrementRowCount();
+
+        if(mChannelResultsBuffer.isFull())
+        {
+            //The IFFT stage holds a reference until the buffer is dispatched to the channels, or discarded
+            mChannelResultsBuffer.incrementConsumerCount();
+            mIFFTProcessorDispatcher.receive(mChannelResultsBuffer);
+            mChannelResultsBuffer = null;
+        }
+    }
+
+    /**
+     * Number of interleaved I/Q sample values loaded into the sample buffer per filter block (ie channel count).
+     */
+    protected int getSamplesPerBlock()
+    {
+        return mSamplesPerBlock;
+    }
+
+    /**
+     * Length of the inline sample buffer that is filtered for each block (sub-channel count x taps per channel).
+     */
+    protected int getSampleBufferLength()
+    {
+        return mInlineFilter.length;
+    }
+
     /**
      * Creates a top-block processing accumulator map that maps each interim filter and sample index product
      * to the corresponding final output index for the array that will feed the IFFT.
@@ -332,55 +488,37 @@ public class ComplexPolyphaseChannelizerM2 extends AbstractComplexPolyphaseChann
 
 
     /**
-     * Processes the sample buffer for each new block of sample data that is loaded and distributes the results to any
-     * registered channel listeners.
+     * Processes the sample buffer for each new block of sample data that is loaded and writes a single sample for each
+     * polyphase channel into the output array, starting at the offset.
+     *
+     * @param samples containing the inline sample buffer
+     * @param samplesOffset to the start of the inline sample buffer within the samples array
+     * @param output array to receive the processed channel results (I0,Q0,I1,Q1...In,Qn)
+     * @param offset into the output array for the first processed value
      */
-    private float[] process()
+    private void process(float[] samples, int samplesOffset, float[] output, int offset)
     {
-        int bufferLength = getSubChannelCount() * mTapsPerChannel;
-        float[] inlineInterimOutput = new float[bufferLength];
+        float[] filterAccumulator = mFilterAccumulator;
 
-        //Multiply each of the samples by the corresponding filter tap
-        for(int x = 0; x < mInlineSamples.length; x++)
-        {
-            inlineInterimOutput[x] = mInlineSamples[x] * mInlineFilter[x];
-        }
-
-        float[] filterAccumulator = new float[getSubChannelCount()];
-
-        int tapOffset = 0;
-
-        //Accumulate the sample/filter product results into each of the I/Q sub-channels
-        for(int tap = 0; tap < mTapsPerChannel; tap++)
-        {
-            tapOffset = tap * getSubChannelCount();
-
-            for(int channel = 0; channel < getSubChannelCount(); channel++)
-            {
-                filterAccumulator[channel] += inlineInterimOutput[tapOffset + channel];
-            }
-        }
-
-        float[] processed = new float[getSubChannelCount()];
+        //Multiply each of the samples by the corresponding filter tap and accumulate each of the I/Q sub-channels
+        mPolyphaseFilter.filter(samples, samplesOffset, filterAccumulator);
 
         if(mTopBlockIndicator)
         {
             for(int x = 0; x < getSubChannelCount(); x++)
             {
-                processed[x] = filterAccumulator[mTopBlockMap[x]];
+                output[offset + x] = filterAccumulator[mTopBlockMap[x]];
             }
         }
         else
         {
             for(int x = 0; x < getSubChannelCount(); x++)
             {
-                processed[x] = filterAccumulator[mMiddleBlockMap[x]];
+                output[offset + x] = filterAccumulator[mMiddleBlockMap[x]];
             }
         }
 
         mTopBlockIndicator = !mTopBlockIndicator;
-
-        return processed;
     }
 
     /**
@@ -398,35 +536,164 @@ public class ComplexPolyphaseChannelizerM2 extends AbstractComplexPolyphaseChann
         mMiddleBlockMap = getMiddleBlockMap(channelCount);
         mInlineFilter = getAlignedFilter(coefficients, channelCount, mTapsPerChannel);
         mInlineSamples = new float[bufferLength];
+        mFilterAccumulator = new float[getSubChannelCount()];
+        mPolyphaseFilter = FilterFactory.getPolyphaseChannelizerFilter(mInlineFilter, getSubChannelCount());
+        mChannelResultsBufferPool = new ChannelResultsBufferPool(getSubChannelCount(),
+            PROCESSED_CHANNEL_RESULTS_THRESHOLD, MAXIMUM_IDLE_RESULTS_BUFFERS);
+        mChannelResultsBuffer = null;
+        createIFFTWorkers();
     }
 
     /**
-     * Separate threaded processor to receive and enqueue filtered channel results buffers, perform IFFT on each array
+     * Separate threaded processor to receive and enqueue filtered channel results buffers, perform IFFT on each row
      * as required to align the phase of each polyphase channel, and then dispatch the results to any registered
      * sample consumer channels.
      */
-    public class IFFTProcessorDispatcher extends Dispatcher<List<float[]>>
+    public class IFFTProcessorDispatcher extends Dispatcher<ChannelResultsBuffer>
     {
         public IFFTProcessorDispatcher(int maximumSize)
         {
-            super(maximumSize, "sdrtrunk polyphase ifft processor", Collections.emptyList());
+            super(maximumSize, "sdrtrunk polyphase ifft processor", ChannelResultsBuffer.POISON_PILL);
 
-            //We create a listener interface to receive the batched channel results arrays from the scheduled thread pool
-            //dispatcher thread that is part of this continuous buffer processor.  We perform an IFFT on each
-            //channel results array contained in each results buffer and then dispatch the buffer
+            //We create a listener interface to receive the batched channel results buffers from the dispatcher
+            //thread that is part of this continuous buffer processor.  We perform an IFFT in-place on each
+            //channel results row contained in each results buffer and then dispatch the buffer
             //so that it can be distributed to each channel listener.
-            setListener(list -> {
-                List<float[]> processedChannelResults = new ArrayList<>();
+            setListener(buffer -> {
+                try
+                {
+                    IFFTWorker[] workers = mIFFTWorkers;
+
+                    if(workers == null)
+                    {
+                        float[] samples = buffer.getSamples();
+
+                        for(int row = 0; row < buffer.getRowCount(); row++)
+                        {
+                            //Rotate each of the channels to the correct phase using the IFFT
+                            mFFT.complexInverse(samples, buffer.getRowOffset(row), true);
+                        }
+                    }
+                    else if(!processParallel(buffer, workers))
+                    {
+                        //Executor was shutdown while processing - don't dispatch a partially transformed buffer
+                        return;
+                    }
+
+                    dispatch(buffer);
+                }
+                finally
+                {
+                    buffer.decrementConsumerCount();
+                }
+            });
+
+            //Return buffers that are dropped on overflow, or received/discarded while stopped, to the pool
+            setDiscardListener(ChannelResultsBuffer::decrementConsumerCount);
+        }
+
+        /**
+         * Divides the buffer rows into stripes and performs the IFFT on each stripe in parallel, using the calling
+         * thread to process the first stripe.  Blocks until all stripes are complete.
+         *
+         * @param buffer to transform
+         * @param workers for each stripe
+         * @return true if all stripes were processed
+         */
+        private boolean processParallel(ChannelResultsBuffer buffer, IFFTWorker[] workers)
+        {
+            ExecutorService executor = mIFFTExecutor;
+            int rowCount = buffer.getRowCount();
+            int stripeSize = (int)FastMath.ceil((double)rowCount / (double)workers.length);
+            int submitted = 0;
+            boolean complete = executor != null;
 
-                for(float[] channelResults: list)
+            if(complete)
+            {
+                for(int x = 1; x < workers.length; x++)
                 {
-                    //Rotate each of the channels to the correct phase using the IFFT
-                    mFFT.complexInverse(channelResults, true);
-                    processedChannelResults.add(channelResults);
+                    workers[x].setStripe(buffer, FastMath.min(x * stripeSize, rowCount),
+                        FastMath.min((x + 1) * stripeSize, rowCount));
+
+                    try
+                    {
+                        executor.execute(workers[x]);
+                        submitted++;
+                    }
+                    catch(RejectedExecutionException ree)
+                    {
+                        complete = false;
+                        break;
+                    }
                 }
+            }
 
-                dispatch(processedChannelResults);
-            });
+            workers[0].setStripe(buffer, 0, FastMath.min(stripeSize, rowCount));
+            workers[0].run();
+
+            mIFFTWorkerCompletion.acquireUninterruptibly(submitted);
+
+            return complete;
+        }
+    }
+
+    /**
+     * Performs the IFFT on a contiguous stripe of rows in a channel results buffer.  Each worker uses its own FFT
+     * instance and signals completion via the shared worker completion semaphore.
+     */
+    private class IFFTWorker implements Runnable
+    {
+        private FloatFFT_1D mWorkerFFT;
+        private boolean mSignalCompletion;
+        private ChannelResultsBuffer mBuffer;
+        private int mStartRow;
+        private int mEndRow;
+
+        /**
+         * Constructs an instance
+         * @param channelCount for the FFT size
+         * @param signalCompletion true if this worker should release the completion semaphore after each run
+         */
+        public IFFTWorker(int channelCount, boolean signalCompletion)
+        {
+            mWorkerFFT = new FloatFFT_1D(channelCount);
+            mSignalCompletion = signalCompletion;
+        }
+
+        /**
+         * Assigns the stripe of rows to process on the next run
+         * @param buffer containing the rows
+         * @param startRow inclusive
+         * @param endRow exclusive
+         */
+        public void setStripe(ChannelResultsBuffer buffer, int startRow, int endRow)
+        {
+            mBuffer = buffer;
+            mStartRow = startRow;
+            mEndRow = endRow;
+        }
+
+        @Override
+        public void run()
+        {
+            try
+            {
+                float[] samples = mBuffer.getSamples();
+
+                for(int row = mStartRow; row < mEndRow; row++)
+                {
+                    mWorkerFFT.complexInverse(samples, mBuffer.getRowOffset(row), true);
+                }
+            }
+            finally
+            {
+                mBuffer = null;
+
+                if(mSignalCompletion)
+                {
+                    mIFFTWorkerCompletion.release();
+                }
+            }
         }
     }
 }
@@ -0,0 +1,39 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.dsp.filter.channelizer;
+
+/**
+ * Polyphase channelizer filter-and-sum stage.  Multiplies the channelizer's inline sample buffer by the aligned
+ * (I/Q interleaved) prototype filter and accumulates the products for each of the I/Q sub-channels.
+ *
+ * The inline sample buffer and filter are both organized as (taps per channel) consecutive blocks of (sub-channel
+ * count) values, so that each sub-channel accumulator is the sum of the products at the same index in each block.
+ */
+public interface IPolyphaseChannelizerFilter
+{
+    /**
+     * Filters the inline sample buffer and loads the accumulated result for each sub-channel into the accumulator.
+     *
+     * @param samples array containing the inline sample buffer
+     * @param samplesOffset to the start of the inline sample buffer in the samples array
+     * @param accumulator array with length equal to the sub-channel count to receive the filtered results.  Existing
+     * values in the accumulator are overwritten.
+     */
+    void filter(float[] samples, int samplesOffset, float[] accumulator);
+}
@@ -20,7 +20,7 @@ package io.github.dsheirer.dsp.filter.channelizer;
 
 import io.github.dsheirer.buffer.INativeBuffer;
 import io.github.dsheirer.buffer.INativeBufferProvider;
-import io.github.dsheirer.buffer.NativeBufferPoisonPill;
+import io.github.dsheirer.buffer.NativeBufferDispatcher;
 import io.github.dsheirer.controller.channel.event.ChannelStopProcessingRequest;
 import io.github.dsheirer.dsp.filter.FilterFactory;
 import io.github.dsheirer.dsp.filter.channelizer.output.IPolyphaseChannelOutputProcessor;
@@ -28,6 +28,9 @@ import io.github.dsheirer.dsp.filter.channelizer.output.OneChannelOutputProcesso
 import io.github.dsheirer.dsp.filter.channelizer.output.TwoChannelOutputProcessor;
 import io.github.dsheirer.dsp.filter.design.FilterDesignException;
 import io.github.dsheirer.eventbus.MyEventBus;
+import io.github.dsheirer.preference.UserPreferences;
+import io.github.dsheirer.preference.source.PolyphaseBufferType;
+import io.github.dsheirer.preference.source.TunerPreference;
 import io.github.dsheirer.sample.Broadcaster;
 import io.github.dsheirer.sample.Listener;
 import io.github.dsheirer.sample.complex.InterleavedComplexSamples;
@@ -76,6 +79,7 @@ public class PolyphaseChannelManager implements ISourceEventProcessor
     private static final double CHANNEL_OVERSAMPLING = 2.0;
     private static final int POLYPHASE_CHANNELIZER_TAPS_PER_CHANNEL = 9;
     private static final int POLYPHASE_SYNTHESIZER_TAPS_PER_CHANNEL = 9;
+    private static TunerPreference sTunerPreference;
 
     private Broadcaster<SourceEvent> mSourceEventBroadcaster = new Broadcaster<>();
     private INativeBufferProvider mNativeBufferProvider;
@@ -87,6 +91,8 @@ public class PolyphaseChannelManager implements ISourceEventProcessor
     private Dispatcher mBufferDispatcher;
     private Map<Integer,float[]> mOutputProcessorFilters = new HashMap<>();
     private boolean mRunning = true;
+    private int mIFFTThreadCount;
+    private PolyphaseBufferType mPolyphaseBufferType;
 
     /**
      * Creates a polyphase channel manager instance.
@@ -114,9 +120,23 @@ public class PolyphaseChannelManager implements ISourceEventProcessor
         }
 
         mChannelCalculator = new ChannelCalculator(sampleRate, channelCount, frequency, CHANNEL_OVERSAMPLING);
-        mBufferDispatcher = new Dispatcher(500, "sdrtrunk polyphase buffer processor",
-                new NativeBufferPoisonPill());
+        mBufferDispatcher = NativeBufferDispatcher.create(500, "sdrtrunk polyphase buffer processor");
         mBufferDispatcher.setListener(mNativeBufferReceiver);
+        mIFFTThreadCount = getTunerPreference().getPolyphaseIFFTThreadCount();
+        mPolyphaseBufferType = getTunerPreference().getPolyphaseBufferType();
+    }
+
+    /**
+     * Lazily loads the tuner preference that provides the polyphase IFFT thread count setting.
+     */
+    private static TunerPreference getTunerPreference()
+    {
+        if(sTunerPreference == null)
+        {
+            sTunerPreference = new UserPreferences().getTunerPreference();
+        }
+
+        return sTunerPreference;
     }
 
     /**
@@ -129,6 +149,17 @@ public class PolyphaseChannelManager implements ISourceEventProcessor
         this(tunerController, tunerController.getFrequency(), tunerController.getSampleRate());
     }
 
+    /**
+     * Sets the number of threads used by the polyphase channelizer IFFT stage.  The setting is applied the next time
+     * that the channelizer is created (ie when the first channel is started or the tuner sample rate changes).
+     *
+     * @param threadCount to use, or zero (TunerPreference.IFFT_THREAD_COUNT_AUTOMATIC) to size automatically
+     */
+    public void setIFFTThreadCount(int threadCount)
+    {
+        mIFFTThreadCount = threadCount;
+    }
+
     public void stopAllChannels()
     {
         mRunning = false;
@@ -153,6 +184,29 @@ public class PolyphaseChannelManager implements ISourceEventProcessor
         }
     }
 
+    /**
+     * Largest number of buffers queued and awaiting processing across the buffer dispatcher, the channelizer and the
+     * channel sources.
+     */
+    public int getBacklog()
+    {
+        int backlog = mBufferDispatcher.getQueueDepth();
+
+        ComplexPolyphaseChannelizerM2 channelizer = mPolyphaseChannelizer;
+
+        if(channelizer != null)
+        {
+            backlog = Math.max(backlog, channelizer.getQueueDepth());
+        }
+
+        for(TunerChannelSource tunerChannelSource: mChannelSources)
+        {
+            backlog = Math.max(backlog, tunerChannelSource.getQueueDepth());
+        }
+
+        return backlog;
+    }
+
     /**
      * Current channel sample rate which is (2 * channel bandwidth).
      */
@@ -360,8 +414,18 @@ public class PolyphaseChannelManager implements ISourceEventProcessor
 
             try
             {
-                mPolyphaseChannelizer = new ComplexPolyphaseChannelizerM2(tunerSampleRate,
-                    POLYPHASE_CHANNELIZER_TAPS_PER_CHANNEL);
+                if(mPolyphaseBufferType == PolyphaseBufferType.CIRCULAR)
+                {
+                    mPolyphaseChannelizer = new CircularComplexPolyphaseChannelizerM2(tunerSampleRate,
+                        POLYPHASE_CHANNELIZER_TAPS_PER_CHANNEL);
+                }
+                else
+                {
+                    mPolyphaseChannelizer = new ComplexPolyphaseChannelizerM2(tunerSampleRate,
+                        POLYPHASE_CHANNELIZER_TAPS_PER_CHANNEL);
+                }
+
+                mPolyphaseChannelizer.setIFFTThreadCount(mIFFTThreadCount);
             }
             catch(IllegalArgumentException iae)
             {
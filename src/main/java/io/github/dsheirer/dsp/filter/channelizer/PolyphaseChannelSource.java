@@ -27,8 +27,6 @@ import io.github.dsheirer.source.tuner.channel.StreamProcessorWithHeartbeat;
 import io.github.dsheirer.source.tuner.channel.TunerChannel;
 import io.github.dsheirer.source.tuner.channel.TunerChannelSource;
 
-import java.util.List;
-
 /**
  * Polyphase Channelizer's Tuner Channel Source implementation.  Wraps a ChannelOutputProcessor instance and
  * provides tuner channel source functionality.  Supports dynamic swapout of the underlying channel output processor
@@ -108,6 +106,27 @@ public class PolyphaseChannelSource extends TunerChannelSource implements Listen
         mStreamHeartbeatProcessor.receive(complexSamples);
     }
 
+    @Override
+    public int getQueueDepth()
+    {
+        IPolyphaseChannelOutputProcessor processor = mPolyphaseChannelOutputProcessor;
+        return processor != null ? processor.getQueueDepth() : 0;
+    }
+
+    @Override
+    public long getAverageProcessingTime()
+    {
+        IPolyphaseChannelOutputProcessor processor = mPolyphaseChannelOutputProcessor;
+        return processor != null ? processor.getAverageProcessingTime() : 0;
+    }
+
+    @Override
+    public long getMaxProcessingTime()
+    {
+        IPolyphaseChannelOutputProcessor processor = mPolyphaseChannelOutputProcessor;
+        return processor != null ? processor.getMaxProcessingTime() : 0;
+    }
+
     /**
      * Channel output processor used by this channel source to convert polyphase channel results into a specific
      * channel complex buffer output stream.
@@ -169,16 +188,19 @@ public class PolyphaseChannelSource extends TunerChannelSource implements Listen
      * queued for processing to extract the target channel samples, process them for frequency correction and/or
      * channel aggregation, and dispatch the results to the downstream sample listener/consumer.
      *
-     * @param channelResultsList containing a list of polyphase channelizer output arrays.
+     * Note: the receiver of the buffer is responsible for decrementing the buffer's consumer count once processing
+     * is complete.
+     *
+     * @param channelResultsBuffer containing rows of polyphase channelizer output.
      */
-    public void receiveChannelResults(List<float[]> channelResultsList)
+    public void receiveChannelResults(ChannelResultsBuffer channelResultsBuffer)
     {
         if(mReplacementPolyphaseChannelOutputProcessor != null)
         {
             swapOutputProcessor();
         }
 
-        mPolyphaseChannelOutputProcessor.receiveChannelResults(channelResultsList);
+        mPolyphaseChannelOutputProcessor.receiveChannelResults(channelResultsBuffer);
     }
 
     /**
@@ -0,0 +1,67 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.dsp.filter.channelizer;
+
+import java.util.Arrays;
+
+/**
+ * Scalar implementation of the polyphase channelizer filter-and-sum stage.
+ *
+ * Filtering is performed in two steps (multiply then accumulate) to allow the Hotspot compiler to more easily
+ * recognize and auto-vectorize the array product.
+ */
+public class ScalarPolyphaseChannelizerFilter implements IPolyphaseChannelizerFilter
+{
+    private float[] mFilter;
+    private float[] mInterimOutput;
+    private int mSubChannelCount;
+
+    /**
+     * Constructs an instance
+     * @param filter that is aligned and I/Q interleaved for the inline sample buffer
+     * @param subChannelCount number of I/Q sub-channels (2 x channel count)
+     */
+    public ScalarPolyphaseChannelizerFilter(float[] filter, int subChannelCount)
+    {
+        mFilter = filter;
+        mSubChannelCount = subChannelCount;
+        mInterimOutput = new float[filter.length];
+    }
+
+    @Override
+    public void filter(float[] samples, int samplesOffset, float[] accumulator)
+    {
+        //Multiply each of the samples by the corresponding filter tap
+        for(int x = 0; x < mFilter.length; x++)
+        {
+            mInterimOutput[x] = samples[samplesOffset + x] * mFilter[x];
+        }
+
+        Arrays.fill(accumulator, 0.0f);
+
+        //Accumulate the sample/filter product results into each of the I/Q sub-channels
+        for(int tapOffset = 0; tapOffset < mFilter.length; tapOffset += mSubChannelCount)
+        {
+            for(int channel = 0; channel < mSubChannelCount; channel++)
+            {
+                accumulator[channel] += mInterimOutput[tapOffset + channel];
+            }
+        }
+    }
+}
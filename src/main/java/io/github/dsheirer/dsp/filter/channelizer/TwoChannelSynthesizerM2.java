@@ -43,6 +43,8 @@ import org.slf4j.LoggerFactory;
  * java to use SIMD for the array product and then normal processing for the accumulation.  Since this is a two-channel
  * processor and the results of each filter accumulation are added, we use a single accumulator across both filters.
  *
+ * The multiply and accumulate step is implemented by the accumulate() method, which can be overridden by SIMD vector
+ * implementations.  Use FilterFactory.getTwoChannelSynthesizer() to obtain the calibrated optimal implementation.
  */
 public class TwoChannelSynthesizerM2
 {
@@ -50,8 +52,8 @@ public class TwoChannelSynthesizerM2
     private float[] mSerpentineDataBuffer;
     private float[] mIQInterleavedFilter;
     private float[] mFilterVectorProduct;
-    private float mIAccumulator;
-    private float mQAccumulator;
+    protected float mIAccumulator;
+    protected float mQAccumulator;
     private FloatFFT_1D mFFT = new FloatFFT_1D(2);
     private boolean mTopBlockFlag = true;
 
@@ -130,25 +132,7 @@ public class TwoChannelSynthesizerM2
                 System.arraycopy(IFFTBuffer, 2, mSerpentineDataBuffer, 0, 2);
             }
 
-            //Note: in order to use Java's ability to leverage SIMD intrinsics, we perform filtering in two steps
-            //(multiply then accumulate) since our filter and data are structured with I and Q vectors interleaved.
-            //This approach allows the Hotspot compiler to more easily recognize the scalor operations.
-
-            //Multiply data samples by the I/Q interleaved filter to form the vector product
-            for(int y = 0; y < mSerpentineDataBuffer.length; y++)
-            {
-                mFilterVectorProduct[y] = mSerpentineDataBuffer[y] * mIQInterleavedFilter[y];
-            }
-
-            //Accumulate output I/Q samples from vector product
-            mIAccumulator = 0.0f;
-            mQAccumulator = 0.0f;
-
-            for(int y = 0; y < mFilterVectorProduct.length; y += 2)
-            {
-                mIAccumulator += mFilterVectorProduct[y];
-                mQAccumulator += mFilterVectorProduct[y + 1];
-            }
+            accumulate(mSerpentineDataBuffer, mIQInterleavedFilter);
 
             i[x] = mIAccumulator;
             q[x] = mQAccumulator;
@@ -159,6 +143,36 @@ public class TwoChannelSynthesizerM2
         return new ComplexSamples(i, q);
     }
 
+    /**
+     * Multiplies the I/Q interleaved data buffer by the I/Q interleaved filter and accumulates the I and Q products
+     * into the I and Q accumulators.
+     *
+     * @param data buffer of interleaved I/Q samples
+     * @param filter of interleaved I/Q coefficients, same length as the data buffer
+     */
+    protected void accumulate(float[] data, float[] filter)
+    {
+        //Note: in order to use Java's ability to leverage SIMD intrinsics, we perform filtering in two steps
+        //(multiply then accumulate) since our filter and data are structured with I and Q vectors interleaved.
+        //This approach allows the Hotspot compiler to more easily recognize the scalor operations.
+
+        //Multiply data samples by the I/Q interleaved filter to form the vector product
+        for(int y = 0; y < data.length; y++)
+        {
+            mFilterVectorProduct[y] = data[y] * filter[y];
+        }
+
+        //Accumulate output I/Q samples from vector product
+        mIAccumulator = 0.0f;
+        mQAccumulator = 0.0f;
+
+        for(int y = 0; y < mFilterVectorProduct.length; y += 2)
+        {
+            mIAccumulator += mFilterVectorProduct[y];
+            mQAccumulator += mFilterVectorProduct[y + 1];
+        }
+    }
+
     /**
      * Creates an interleaved I/Q filter where each coefficient from the filter argument is duplicated and the returned
      * filter is twice the length of the original filter.
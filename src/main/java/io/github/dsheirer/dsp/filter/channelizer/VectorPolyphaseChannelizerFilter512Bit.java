@@ -0,0 +1,85 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.dsp.filter.channelizer;
+
+import io.github.dsheirer.vector.VectorUtilities;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Polyphase channelizer filter-and-sum stage.
+ * Note: this filter uses Project Panama SIMD instructions available in JDK 17+
+ *
+ * Each SIMD lane accumulates one sub-channel, using a fused multiply-add across each of the filter tap blocks.  Any
+ * sub-channels beyond the last full SIMD lane width are processed with scalar operations.
+ */
+public class VectorPolyphaseChannelizerFilter512Bit implements IPolyphaseChannelizerFilter
+{
+    private static final VectorSpecies<Float> VECTOR_SPECIES = FloatVector.SPECIES_512;
+    private float[] mFilter;
+    private int mSubChannelCount;
+    private int mVectorSubChannelCount;
+
+    /**
+     * Constructs an instance
+     * @param filter that is aligned and I/Q interleaved for the inline sample buffer
+     * @param subChannelCount number of I/Q sub-channels (2 x channel count)
+     */
+    public VectorPolyphaseChannelizerFilter512Bit(float[] filter, int subChannelCount)
+    {
+        VectorUtilities.checkSpecies(VECTOR_SPECIES);
+        mFilter = filter;
+        mSubChannelCount = subChannelCount;
+        mVectorSubChannelCount = VECTOR_SPECIES.loopBound(subChannelCount);
+    }
+
+    @Override
+    public void filter(float[] samples, int samplesOffset, float[] accumulator)
+    {
+        FloatVector channelAccumulator, sampleVector, filterVector;
+
+        for(int channel = 0; channel < mVectorSubChannelCount; channel += VECTOR_SPECIES.length())
+        {
+            channelAccumulator = FloatVector.zero(VECTOR_SPECIES);
+
+            for(int tapOffset = 0; tapOffset < mFilter.length; tapOffset += mSubChannelCount)
+            {
+                filterVector = FloatVector.fromArray(VECTOR_SPECIES, mFilter, tapOffset + channel);
+                sampleVector = FloatVector.fromArray(VECTOR_SPECIES, samples, samplesOffset + tapOffset + channel);
+                channelAccumulator = sampleVector.fma(filterVector, channelAccumulator);
+            }
+
+            channelAccumulator.intoArray(accumulator, channel);
+        }
+
+        float scalarAccumulator;
+
+        for(int channel = mVectorSubChannelCount; channel < mSubChannelCount; channel++)
+        {
+            scalarAccumulator = 0.0f;
+
+            for(int tapOffset = 0; tapOffset < mFilter.length; tapOffset += mSubChannelCount)
+            {
+                scalarAccumulator += samples[samplesOffset + tapOffset + channel] * mFilter[tapOffset + channel];
+            }
+
+            accumulator[channel] = scalarAccumulator;
+        }
+    }
+}
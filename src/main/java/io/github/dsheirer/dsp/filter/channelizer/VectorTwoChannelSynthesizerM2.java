@@ -0,0 +1,69 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.dsp.filter.channelizer;
+
+import io.github.dsheirer.vector.VectorUtilities;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Two-channel polyphase synthesizer that performs the multiply and accumulate step using a fused multiply-add across
+ * the interleaved I/Q data buffer and filter and then reduces the I and Q lanes separately via lane masks.
+ * Note: this synthesizer uses Project Panama SIMD instructions available in JDK 17+
+ */
+public class VectorTwoChannelSynthesizerM2 extends TwoChannelSynthesizerM2
+{
+    private static final VectorSpecies<Float> VECTOR_SPECIES = FloatVector.SPECIES_PREFERRED;
+    private static final VectorMask<Float> I_MASK = VectorUtilities.getIVectorMask(VECTOR_SPECIES);
+    private static final VectorMask<Float> Q_MASK = VectorUtilities.getQVectorMask(VECTOR_SPECIES);
+
+    /**
+     * Constructs an instance
+     * @param filter to use for polyphase synthesis of two channels.
+     */
+    public VectorTwoChannelSynthesizerM2(float[] filter)
+    {
+        super(filter);
+    }
+
+    @Override
+    protected void accumulate(float[] data, float[] filter)
+    {
+        FloatVector accumulator = FloatVector.zero(VECTOR_SPECIES);
+        int vectorLength = VECTOR_SPECIES.loopBound(data.length);
+
+        for(int y = 0; y < vectorLength; y += VECTOR_SPECIES.length())
+        {
+            accumulator = FloatVector.fromArray(VECTOR_SPECIES, data, y)
+                .fma(FloatVector.fromArray(VECTOR_SPECIES, filter, y), accumulator);
+        }
+
+        mIAccumulator = accumulator.reduceLanes(VectorOperators.ADD, I_MASK);
+        mQAccumulator = accumulator.reduceLanes(VectorOperators.ADD, Q_MASK);
+
+        //Lane width is always even, so any remaining values start on an I/Q pair boundary
+        for(int y = vectorLength; y < data.length; y += 2)
+        {
+            mIAccumulator += data[y] * filter[y];
+            mQAccumulator += data[y + 1] * filter[y + 1];
+        }
+    }
+}
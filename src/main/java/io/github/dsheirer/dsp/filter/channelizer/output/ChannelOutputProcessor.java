@@ -18,20 +18,20 @@
  */
 package io.github.dsheirer.dsp.filter.channelizer.output;
 
+import io.github.dsheirer.dsp.filter.channelizer.ChannelResultsBuffer;
 import io.github.dsheirer.sample.Listener;
 import io.github.dsheirer.sample.complex.ComplexSamples;
 import io.github.dsheirer.util.Dispatcher;
+import io.github.dsheirer.util.DispatcherFactory;
+import io.github.dsheirer.util.DispatcherOverflowPolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Collections;
-import java.util.List;
-
 public abstract class ChannelOutputProcessor implements IPolyphaseChannelOutputProcessor
 {
     private final static Logger mLog = LoggerFactory.getLogger(ChannelOutputProcessor.class);
 
-    private Dispatcher<List<float[]>> mChannelResultsDispatcher;
+    private Dispatcher<ChannelResultsBuffer> mChannelResultsDispatcher;
     protected Listener<ComplexSamples> mComplexSamplesListener;
     private int mInputChannelCount;
 
@@ -46,8 +46,22 @@ public abstract class ChannelOutputProcessor implements IPolyphaseChannelOutputP
     public ChannelOutputProcessor(int inputChannelCount, double sampleRate)
     {
         mInputChannelCount = inputChannelCount;
-        mChannelResultsDispatcher = new Dispatcher<>((int)sampleRate, "sdrtrunk polyphase channel", Collections.emptyList());
-        mChannelResultsDispatcher.setListener(floats -> process(floats));
+        mChannelResultsDispatcher = DispatcherFactory.create((int)sampleRate, "sdrtrunk polyphase channel",
+            ChannelResultsBuffer.POISON_PILL);
+        mChannelResultsDispatcher.setListener(buffer -> {
+            try
+            {
+                process(buffer);
+            }
+            finally
+            {
+                buffer.decrementConsumerCount();
+            }
+        });
+        //Return results buffers that are dropped on overflow or discarded at shutdown to the shared pool
+        mChannelResultsDispatcher.setDiscardListener(ChannelResultsBuffer::decrementConsumerCount);
+        //When the channel falls behind, discard the stalest samples so that decoding resumes with current samples
+        mChannelResultsDispatcher.setOverflowPolicy(DispatcherOverflowPolicy.DROP_OLDEST);
     }
 
     @Override
@@ -82,16 +96,35 @@ public abstract class ChannelOutputProcessor implements IPolyphaseChannelOutputP
     }
 
     @Override
-    public void receiveChannelResults(List<float[]> channelResultsList)
+    public void receiveChannelResults(ChannelResultsBuffer channelResultsBuffer)
     {
-        mChannelResultsDispatcher.receive(channelResultsList);
+        mChannelResultsDispatcher.receive(channelResultsBuffer);
     }
 
     /**
-     * Sub-class implementation to process one polyphase channelizer result array.
-     * @param channelResults to process
+     * Sub-class implementation to process each of the rows in a polyphase channelizer results buffer.  The buffer
+     * is released by this class once processing is complete, so implementations should not retain a reference to it.
+     * @param channelResultsBuffer to process
      */
-    public abstract void process(List<float[]> channelResults);
+    public abstract void process(ChannelResultsBuffer channelResultsBuffer);
+
+    @Override
+    public int getQueueDepth()
+    {
+        return mChannelResultsDispatcher.getQueueDepth();
+    }
+
+    @Override
+    public long getAverageProcessingTime()
+    {
+        return mChannelResultsDispatcher.getAverageProcessingTime();
+    }
+
+    @Override
+    public long getMaxProcessingTime()
+    {
+        return mChannelResultsDispatcher.getMaxProcessingTime();
+    }
 
     @Override
     public int getInputChannelCount()
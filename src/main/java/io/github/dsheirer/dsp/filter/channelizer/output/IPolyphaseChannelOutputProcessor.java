@@ -18,6 +18,7 @@
  */
 package io.github.dsheirer.dsp.filter.channelizer.output;
 
+import io.github.dsheirer.dsp.filter.channelizer.ChannelResultsBuffer;
 import io.github.dsheirer.sample.Listener;
 import io.github.dsheirer.sample.complex.ComplexSamples;
 
@@ -35,10 +36,11 @@ public interface IPolyphaseChannelOutputProcessor
      */
     void stop();
     /**
-     * Receive and enqueue output results from the polyphase analysis channelizer
+     * Receive and enqueue output results from the polyphase analysis channelizer.  The processor must decrement the
+     * buffer's consumer count once it has finished processing the buffer.
      * @param channelResults to enqueue
      */
-    void receiveChannelResults(List<float[]> channelResults);
+    void receiveChannelResults(ChannelResultsBuffer channelResults);
 
     /**
      * Listener to receive assembled complex samples buffers
@@ -58,6 +60,21 @@ public interface IPolyphaseChannelOutputProcessor
      */
     void setFrequencyOffset(long frequency);
 
+    /**
+     * Number of channel results buffers queued and awaiting processing
+     */
+    int getQueueDepth();
+
+    /**
+     * Average time spent processing each channel results buffer, in nanoseconds
+     */
+    long getAverageProcessingTime();
+
+    /**
+     * Maximum time spent processing a single channel results buffer, in nanoseconds
+     */
+    long getMaxProcessingTime();
+
     /**
      * Indicates the number of input channels processed by this output processor
      */
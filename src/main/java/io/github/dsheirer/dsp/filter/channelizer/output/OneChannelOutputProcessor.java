@@ -18,6 +18,7 @@
  */
 package io.github.dsheirer.dsp.filter.channelizer.output;
 
+import io.github.dsheirer.dsp.filter.channelizer.ChannelResultsBuffer;
 import io.github.dsheirer.sample.complex.ComplexSamples;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -80,14 +81,17 @@ public class OneChannelOutputProcessor extends ChannelOutputProcessor
      * Extract the channel from the channel results array and pass to the assembler.  The assembler will
      * apply frequency translation and gain and indicate when a buffer is fully assembled.
      *
-     * @param lists to process containing a list of a list of channel array of I/Q sample pairs (I0,Q0,I1,Q1...In,Qn)
+     * @param channelResultsBuffer to process containing rows of channel I/Q sample pairs (I0,Q0,I1,Q1...In,Qn)
      */
     @Override
-    public void process(List<float[]> channelResultsList)
+    public void process(ChannelResultsBuffer channelResultsBuffer)
     {
-        for(float[] channelResults: channelResultsList)
+        float[] channelResults = channelResultsBuffer.getSamples();
+
+        for(int row = 0; row < channelResultsBuffer.getRowCount(); row++)
         {
-            mMixerAssembler.receive(channelResults[mChannelOffset], channelResults[mChannelOffset + 1]);
+            int offset = channelResultsBuffer.getRowOffset(row) + mChannelOffset;
+            mMixerAssembler.receive(channelResults[offset], channelResults[offset + 1]);
 
             if(mMixerAssembler.hasBuffer())
             {
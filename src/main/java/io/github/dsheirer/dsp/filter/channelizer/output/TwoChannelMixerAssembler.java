@@ -19,6 +19,7 @@
 
 package io.github.dsheirer.dsp.filter.channelizer.output;
 
+import io.github.dsheirer.dsp.filter.FilterFactory;
 import io.github.dsheirer.dsp.filter.channelizer.TwoChannelSynthesizerM2;
 import io.github.dsheirer.dsp.oscillator.FS4DownConverter;
 import io.github.dsheirer.sample.complex.ComplexSamples;
@@ -48,7 +49,7 @@ public class TwoChannelMixerAssembler extends MixerAssembler
      */
     public void setSynthesisFilter(float[] filter)
     {
-        mTwoChannelSynthesizer = new TwoChannelSynthesizerM2(filter);
+        mTwoChannelSynthesizer = FilterFactory.getTwoChannelSynthesizer(filter);
     }
 
     /**
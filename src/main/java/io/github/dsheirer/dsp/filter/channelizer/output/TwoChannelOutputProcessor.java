@@ -18,6 +18,7 @@
  */
 package io.github.dsheirer.dsp.filter.channelizer.output;
 
+import io.github.dsheirer.dsp.filter.channelizer.ChannelResultsBuffer;
 import io.github.dsheirer.sample.complex.ComplexSamples;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -91,15 +92,19 @@ public class TwoChannelOutputProcessor extends ChannelOutputProcessor
      * Extract the channel from the channel results array, apply frequency translation, and deliver the
      * extracted frequency-corrected channel I/Q sample set to the complex sample listener.
      *
-     * @param lists to process containing a list of a list of an array of channel I/Q sample pairs (I0,Q0,I1,Q1...In,Qn)
+     * @param channelResultsBuffer to process containing rows of channel I/Q sample pairs (I0,Q0,I1,Q1...In,Qn)
      */
     @Override
-    public void process(List<float[]> channelResultsList)
+    public void process(ChannelResultsBuffer channelResultsBuffer)
     {
-        for(float[] channelResults : channelResultsList)
+        float[] channelResults = channelResultsBuffer.getSamples();
+
+        for(int row = 0; row < channelResultsBuffer.getRowCount(); row++)
         {
-            mMixerAssembler.receive(channelResults[mChannelOffset1], channelResults[mChannelOffset1 + 1],
-                    channelResults[mChannelOffset2], channelResults[mChannelOffset2 + 1]);
+            int rowOffset = channelResultsBuffer.getRowOffset(row);
+            mMixerAssembler.receive(channelResults[rowOffset + mChannelOffset1],
+                    channelResults[rowOffset + mChannelOffset1 + 1], channelResults[rowOffset + mChannelOffset2],
+                    channelResults[rowOffset + mChannelOffset2 + 1]);
 
             if(mMixerAssembler.hasBuffer())
             {
@@ -0,0 +1,464 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.dsp.filter.design;
+
+import io.github.dsheirer.util.ThreadPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Process-wide, thread-safe, bounded (least recently used) cache of designed filter coefficients.
+ *
+ * Filter design (e.g. Remez exchange) is expensive relative to the setup cost of a traffic channel and the same
+ * handful of filter specifications are designed over and over as channels are allocated and torn down.  The cache
+ * is keyed by a canonical string describing the full filter specification and hands out a copy of the cached
+ * coefficients so that callers can't corrupt the cached version.
+ *
+ * The cache can optionally be persisted to a file so that designs survive an application restart.  The file starts
+ * with a version line that identifies the file format and the filter designer revision and a file with any other
+ * version line is discarded.  All file access (load, compaction and appending newly designed filters) runs on the
+ * persistence executor so that channel allocation threads never wait on disk I/O.
+ */
+public class FilterDesignCache
+{
+    private static final Logger mLog = LoggerFactory.getLogger(FilterDesignCache.class);
+    public static final int DEFAULT_CAPACITY = 256;
+
+    /**
+     * Version of the persistence file layout.
+     */
+    public static final int FORMAT_VERSION = 1;
+
+    /**
+     * Revision of the filter design algorithms whose output is cached.  Increment this value whenever a change to the
+     * Remez designer or to the FilterFactory design methods alters the coefficients produced for an existing key so
+     * that previously persisted designs are discarded.
+     */
+    public static final int DESIGNER_REVISION = 1;
+
+    static final String VERSION_LINE = "#filter design cache format:" + FORMAT_VERSION + " designer:" +
+        DESIGNER_REVISION;
+    private static final String KEY_SEPARATOR = "\t";
+    private static final String TAP_SEPARATOR = ",";
+    private static FilterDesignCache sInstance;
+
+    private final Map<String,float[]> mCache;
+    private final int mCapacity;
+    private final Executor mPersistenceExecutor;
+    private final Object mPersistenceLock = new Object();
+    private final List<String> mPendingLines = new ArrayList<>();
+    private Path mPersistenceFile;
+    private boolean mLoaded;
+    private boolean mFlushScheduled;
+    private long mHitCount;
+    private long mMissCount;
+
+    /**
+     * Constructs an instance
+     * @param capacity maximum number of cached filter designs
+     * @param persistenceExecutor to run persistence file access
+     */
+    public FilterDesignCache(int capacity, Executor persistenceExecutor)
+    {
+        mCapacity = capacity;
+        mPersistenceExecutor = persistenceExecutor;
+        mCache = new LinkedHashMap<>(16, 0.75f, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String,float[]> eldest)
+            {
+                return size() > mCapacity;
+            }
+        };
+    }
+
+    /**
+     * Constructs an instance that runs persistence file access on the shared cached thread pool.
+     * @param capacity maximum number of cached filter designs
+     */
+    public FilterDesignCache(int capacity)
+    {
+        this(capacity, ThreadPool.CACHED);
+    }
+
+    /**
+     * Access the process-wide singleton instance.
+     */
+    public static synchronized FilterDesignCache getInstance()
+    {
+        if(sInstance == null)
+        {
+            sInstance = new FilterDesignCache(DEFAULT_CAPACITY);
+        }
+
+        return sInstance;
+    }
+
+    /**
+     * Retrieves a copy of the cached filter coefficients for the key.
+     * @param key describing the filter specification
+     * @return copy of the cached coefficients or null if the key is not cached
+     */
+    public float[] get(String key)
+    {
+        float[] taps;
+
+        synchronized(mCache)
+        {
+            taps = mCache.get(key);
+
+            if(taps != null)
+            {
+                mHitCount++;
+            }
+            else
+            {
+                mMissCount++;
+            }
+        }
+
+        return taps != null ? taps.clone() : null;
+    }
+
+    /**
+     * Adds the filter coefficients to the cache and queues them for appending to the persistence file, when enabled.
+     * @param key describing the filter specification
+     * @param taps to cache.  A copy of the taps is cached.
+     */
+    public void put(String key, float[] taps)
+    {
+        if(key == null || taps == null)
+        {
+            return;
+        }
+
+        float[] copy = taps.clone();
+        float[] previous;
+
+        synchronized(mCache)
+        {
+            previous = mCache.put(key, copy);
+        }
+
+        if(previous == null)
+        {
+            append(key, copy);
+        }
+    }
+
+    /**
+     * Number of filter designs currently cached
+     */
+    public int size()
+    {
+        synchronized(mCache)
+        {
+            return mCache.size();
+        }
+    }
+
+    /**
+     * Number of cache lookups that found a cached design
+     */
+    public long getHitCount()
+    {
+        synchronized(mCache)
+        {
+            return mHitCount;
+        }
+    }
+
+    /**
+     * Number of cache lookups that did not find a cached design
+     */
+    public long getMissCount()
+    {
+        synchronized(mCache)
+        {
+            return mMissCount;
+        }
+    }
+
+    /**
+     * Removes all cached designs.  Does not modify the persistence file.
+     */
+    public void clear()
+    {
+        synchronized(mCache)
+        {
+            mCache.clear();
+        }
+    }
+
+    /**
+     * Enables persistence of filter designs to the file.  Designs contained in the file are loaded into the cache on
+     * the persistence executor and subsequent designs are appended to the file.  Designs added to the cache before
+     * the load completes are not replaced by the loaded designs.
+     *
+     * @param file for persisting filter designs, or null to disable persistence
+     */
+    public void setPersistenceFile(Path file)
+    {
+        synchronized(mPersistenceLock)
+        {
+            mPersistenceFile = file;
+            mLoaded = false;
+            mPendingLines.clear();
+        }
+
+        if(file != null)
+        {
+            mPersistenceExecutor.execute(() -> load(file));
+        }
+    }
+
+    /**
+     * Loads the persistence file and rewrites (compacts) the file when it has a different version or contains stale,
+     * duplicate or unreadable entries.
+     */
+    private void load(Path file)
+    {
+        synchronized(mPersistenceLock)
+        {
+            if(!file.equals(mPersistenceFile))
+            {
+                return;
+            }
+
+            boolean rewrite = true;
+
+            if(Files.exists(file))
+            {
+                try(BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8))
+                {
+                    String version = reader.readLine();
+
+                    if(VERSION_LINE.equals(version))
+                    {
+                        int lineCount = 0;
+                        String line;
+
+                        while((line = reader.readLine()) != null)
+                        {
+                            lineCount++;
+                            int split = line.indexOf(KEY_SEPARATOR);
+
+                            if(split > 0)
+                            {
+                                float[] taps = parse(line.substring(split + 1));
+
+                                if(taps != null)
+                                {
+                                    synchronized(mCache)
+                                    {
+                                        mCache.putIfAbsent(line.substring(0, split), taps);
+                                    }
+                                }
+                            }
+                        }
+
+                        mLog.info("Loaded [" + size() + "] filter designs from the filter design cache");
+                        rewrite = lineCount > size();
+                    }
+                    else
+                    {
+                        mLog.info("Discarding filter design cache file [" + file + "] with version [" + version +
+                            "] - expected [" + VERSION_LINE + "]");
+                    }
+                }
+                catch(IOException ioe)
+                {
+                    mLog.warn("Unable to load filter design cache file [" + file + "]", ioe);
+                }
+            }
+
+            mLoaded = true;
+
+            if(rewrite)
+            {
+                rewrite();
+            }
+            else
+            {
+                writePending();
+            }
+        }
+    }
+
+    /**
+     * Rewrites the persistence file with the version line and the current cache contents.  Pending appends are
+     * included in the cache contents and are discarded.
+     */
+    private void rewrite()
+    {
+        List<Map.Entry<String,float[]>> entries;
+
+        synchronized(mCache)
+        {
+            entries = new ArrayList<>(mCache.entrySet());
+        }
+
+        mPendingLines.clear();
+
+        try(BufferedWriter writer = Files.newBufferedWriter(mPersistenceFile, StandardCharsets.UTF_8))
+        {
+            writer.write(VERSION_LINE);
+            writer.newLine();
+
+            for(Map.Entry<String,float[]> entry : entries)
+            {
+                writer.write(format(entry.getKey(), entry.getValue()));
+                writer.newLine();
+            }
+        }
+        catch(IOException ioe)
+        {
+            mLog.warn("Unable to write filter design cache file [" + mPersistenceFile + "] - disabling filter " +
+                "design persistence", ioe);
+            mPersistenceFile = null;
+        }
+    }
+
+    /**
+     * Queues the design for appending to the persistence file, when enabled, and schedules a flush of the queued
+     * designs on the persistence executor.
+     */
+    private void append(String key, float[] taps)
+    {
+        synchronized(mPersistenceLock)
+        {
+            if(mPersistenceFile == null)
+            {
+                return;
+            }
+
+            mPendingLines.add(format(key, taps));
+
+            if(!mFlushScheduled)
+            {
+                mFlushScheduled = true;
+                mPersistenceExecutor.execute(this::flush);
+            }
+        }
+    }
+
+    /**
+     * Appends queued designs to the persistence file once the file is loaded.
+     */
+    private void flush()
+    {
+        synchronized(mPersistenceLock)
+        {
+            mFlushScheduled = false;
+
+            if(mLoaded)
+            {
+                writePending();
+            }
+        }
+    }
+
+    /**
+     * Appends queued designs to the persistence file.  Invoked while holding the persistence lock.
+     */
+    private void writePending()
+    {
+        if(mPersistenceFile == null || mPendingLines.isEmpty())
+        {
+            return;
+        }
+
+        try(BufferedWriter writer = Files.newBufferedWriter(mPersistenceFile, StandardCharsets.UTF_8,
+            StandardOpenOption.CREATE, StandardOpenOption.APPEND))
+        {
+            for(String line : mPendingLines)
+            {
+                writer.write(line);
+                writer.newLine();
+            }
+        }
+        catch(IOException ioe)
+        {
+            mLog.warn("Unable to persist filter design to cache file [" + mPersistenceFile + "] - disabling " +
+                "filter design persistence", ioe);
+            mPersistenceFile = null;
+        }
+
+        mPendingLines.clear();
+    }
+
+    /**
+     * Formats the design as a single line using the exact (hexadecimal) bit patterns of the coefficients
+     */
+    private static String format(String key, float[] taps)
+    {
+        StringBuilder sb = new StringBuilder(key.length() + taps.length * 9);
+        sb.append(key).append(KEY_SEPARATOR);
+
+        for(int x = 0; x < taps.length; x++)
+        {
+            if(x > 0)
+            {
+                sb.append(TAP_SEPARATOR);
+            }
+
+            sb.append(Integer.toHexString(Float.floatToRawIntBits(taps[x])));
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Parses the formatted coefficients
+     * @return coefficients or null if the value can't be parsed
+     */
+    private static float[] parse(String value)
+    {
+        String[] tokens = value.split(TAP_SEPARATOR);
+        float[] taps = new float[tokens.length];
+
+        try
+        {
+            for(int x = 0; x < tokens.length; x++)
+            {
+                taps[x] = Float.intBitsToFloat(Integer.parseUnsignedInt(tokens[x], 16));
+            }
+        }
+        catch(NumberFormatException nfe)
+        {
+            return null;
+        }
+
+        return taps;
+    }
+}
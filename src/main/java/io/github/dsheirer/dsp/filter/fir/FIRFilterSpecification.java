@@ -61,6 +61,29 @@ public class FIRFilterSpecification
         return sb.toString();
     }
 
+    /**
+     * Canonical key that uniquely describes this specification, for caching designed filters.  Derived values like
+     * the grid size are not included since they are calculated from the values included in the key.
+     */
+    public String getCacheKey()
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append("REMEZ|").append(mRemezFilterType.name());
+        sb.append("|").append(mOrder);
+        sb.append("|").append(mGridDensity);
+
+        for(FrequencyBand band : mFrequencyBands)
+        {
+            sb.append("|").append(band.getStart());
+            sb.append(":").append(band.getEnd());
+            sb.append(":").append(band.getAmplitude());
+            sb.append(":").append(band.getRippleDB());
+            sb.append(":").append(band.mWeight);
+        }
+
+        return sb.toString();
+    }
+
     public void addFrequencyBand(FrequencyBand band)
     {
         mFrequencyBands.add(band);
@@ -0,0 +1,307 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.dsp.filter.resample;
+
+import io.github.dsheirer.dsp.filter.FilterFactory;
+import io.github.dsheirer.dsp.filter.design.FilterDesignException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+
+/**
+ * Streaming polyphase rational (L/M) resampler for real samples.
+ *
+ * The output/input rate ratio is approximated by the rational L/M (exact for the rates used in this application, with
+ * at most 1024 interpolation phases).  A Kaiser windowed-sinc prototype low-pass filter is designed at the interpolated
+ * (L x input) rate with the cutoff below the lower of the input and output Nyquist frequencies and decomposed into L
+ * phases.  Each output sample is the dot product of one phase of the filter with the most recent input samples, so the
+ * zero-stuffed and decimated samples are never calculated.
+ *
+ * All state (filter phases, input sample history and phase accumulator) is allocated at construction.  Resampling
+ * writes into a caller supplied output buffer and does not allocate.
+ */
+public class PolyphaseResampler
+{
+    private final static Logger mLog = LoggerFactory.getLogger(PolyphaseResampler.class);
+    private static final int MAX_PHASES = 1024;
+    private static final int ZERO_CROSSINGS = 16;
+    private static final double PASS_BAND = 0.85;
+    private static final float ATTENUATION = 80.0f;
+
+    private int mInterpolation;
+    private int mDecimation;
+    private int mTapsPerPhase;
+    private int mUnrolledTaps;
+    private float[][] mPhases;
+    private float[] mHistory;
+    private int mHistoryPointer;
+    private int mPhase;
+    private int mFlushLength;
+
+    /**
+     * Constructs an instance
+     * @param inputRate sample rate
+     * @param outputRate sample rate
+     */
+    public PolyphaseResampler(double inputRate, double outputRate)
+    {
+        if(inputRate <= 0.0 || outputRate <= 0.0)
+        {
+            throw new IllegalArgumentException("Input and output sample rates must be positive values");
+        }
+
+        int[] ratio = getRatio(outputRate / inputRate);
+        mInterpolation = ratio[0];
+        mDecimation = ratio[1];
+
+        //Prototype filter cutoff, normalized to the interpolated sample rate
+        double cutoff = 0.5 * PASS_BAND / Math.max(mInterpolation, mDecimation);
+        mTapsPerPhase = (int)Math.ceil(ZERO_CROSSINGS / (cutoff * mInterpolation));
+        mUnrolledTaps = mTapsPerPhase - (mTapsPerPhase % 4);
+        int length = mTapsPerPhase * mInterpolation;
+
+        float[] prototype;
+
+        try
+        {
+            //Sinc filters are odd-length, so the (even length) prototype is padded with a zero coefficient
+            prototype = FilterFactory.getKaiserSinc(length % 2 == 1 ? length : length - 1, cutoff, ATTENUATION);
+        }
+        catch(FilterDesignException fde)
+        {
+            throw new IllegalStateException("Unable to design resampler filter", fde);
+        }
+
+        //Decompose into phases, with coefficients in reverse order (oldest sample first) and with gain of L to
+        //compensate for the zero-stuffed samples
+        mPhases = new float[mInterpolation][mTapsPerPhase];
+
+        for(int phase = 0; phase < mInterpolation; phase++)
+        {
+            for(int tap = 0; tap < mTapsPerPhase; tap++)
+            {
+                int index = phase + (tap * mInterpolation);
+                float coefficient = index < prototype.length ? prototype[index] : 0.0f;
+                mPhases[phase][mTapsPerPhase - 1 - tap] = coefficient * mInterpolation;
+            }
+        }
+
+        //Input samples with the length of the filter delay flush the final samples through the filter
+        mFlushLength = (int)Math.ceil((prototype.length - 1) / 2.0 / mInterpolation);
+
+        //History is doubled so that the most recent samples are always contiguous
+        mHistory = new float[mTapsPerPhase * 2];
+    }
+
+    /**
+     * Approximates the resample ratio as L/M with L less than or equal to the maximum phases, using continued
+     * fractions.
+     * @return array of {L, M}
+     */
+    static int[] getRatio(double ratio)
+    {
+        long previousNumerator = 0;
+        long previousDenominator = 1;
+        long numerator = 1;
+        long denominator = 0;
+        double remainder = ratio;
+        int[] best = null;
+
+        for(int x = 0; x < 32; x++)
+        {
+            long term = (long)Math.floor(remainder);
+            long nextNumerator = term * numerator + previousNumerator;
+            long nextDenominator = term * denominator + previousDenominator;
+
+            if(nextNumerator > MAX_PHASES || nextDenominator > Integer.MAX_VALUE)
+            {
+                break;
+            }
+
+            previousNumerator = numerator;
+            previousDenominator = denominator;
+            numerator = nextNumerator;
+            denominator = nextDenominator;
+            best = new int[]{(int)numerator, (int)denominator};
+
+            double fraction = remainder - term;
+
+            if(Math.abs((double)numerator / denominator - ratio) < ratio * 1E-12 || fraction < 1E-12)
+            {
+                break;
+            }
+
+            remainder = 1.0 / fraction;
+        }
+
+        if(best == null)
+        {
+            //Ratio is less than 1 / Integer.MAX_VALUE or the first convergent exceeds the maximum phases
+            throw new IllegalArgumentException("Unsupported resample ratio [" + ratio + "]");
+        }
+
+        double error = Math.abs((double)best[0] / best[1] - ratio) / ratio;
+
+        if(error > 1E-9)
+        {
+            mLog.debug("Resample ratio [" + ratio + "] approximated as [" + best[0] + "/" + best[1] +
+                "] relative error [" + error + "]");
+        }
+
+        return best;
+    }
+
+    /**
+     * Interpolation factor (L)
+     */
+    public int getInterpolation()
+    {
+        return mInterpolation;
+    }
+
+    /**
+     * Decimation factor (M)
+     */
+    public int getDecimation()
+    {
+        return mDecimation;
+    }
+
+    /**
+     * Number of filter taps applied to calculate each output sample
+     */
+    public int getTapsPerPhase()
+    {
+        return mTapsPerPhase;
+    }
+
+    /**
+     * Number of zero-valued input samples needed to flush the final input samples through the filter
+     */
+    public int getFlushLength()
+    {
+        return mFlushLength;
+    }
+
+    /**
+     * Maximum number of output samples produced when resampling the specified number of input samples
+     */
+    public int getOutputCapacity(int inputLength)
+    {
+        return (int)(((long)inputLength * mInterpolation) / mDecimation) + 1;
+    }
+
+    /**
+     * Resamples the input samples into the output buffer.
+     * @param input samples
+     * @param inputOffset of the first input sample
+     * @param inputLength number of input samples
+     * @param output buffer with at least getOutputCapacity(inputLength) samples available from the output offset
+     * @param outputOffset of the first output sample
+     * @return number of output samples written to the output buffer
+     */
+    public int resample(float[] input, int inputOffset, int inputLength, float[] output, int outputOffset)
+    {
+        int outputPointer = outputOffset;
+
+        for(int x = inputOffset; x < inputOffset + inputLength; x++)
+        {
+            outputPointer = process(input[x], output, outputPointer);
+        }
+
+        return outputPointer - outputOffset;
+    }
+
+    /**
+     * Flushes the final input samples through the filter, producing the remaining output samples.
+     * @param output buffer with at least getOutputCapacity(getFlushLength()) samples available from the output offset
+     * @param outputOffset of the first output sample
+     * @return number of output samples written to the output buffer
+     */
+    public int flush(float[] output, int outputOffset)
+    {
+        int outputPointer = outputOffset;
+
+        for(int x = 0; x < mFlushLength; x++)
+        {
+            outputPointer = process(0.0f, output, outputPointer);
+        }
+
+        return outputPointer - outputOffset;
+    }
+
+    /**
+     * Clears the input sample history and resets the phase.
+     */
+    public void reset()
+    {
+        Arrays.fill(mHistory, 0.0f);
+        mHistoryPointer = 0;
+        mPhase = 0;
+    }
+
+    /**
+     * Loads the input sample and calculates the output samples for each of the interpolated sample times between
+     * this input sample and the next input sample.
+     * @return updated output pointer
+     */
+    private int process(float sample, float[] output, int outputPointer)
+    {
+        mHistory[mHistoryPointer] = sample;
+        mHistory[mHistoryPointer + mTapsPerPhase] = sample;
+        mHistoryPointer++;
+
+        if(mHistoryPointer == mTapsPerPhase)
+        {
+            mHistoryPointer = 0;
+        }
+
+        while(mPhase < mInterpolation)
+        {
+            float[] coefficients = mPhases[mPhase];
+            float accumulator0 = 0.0f;
+            float accumulator1 = 0.0f;
+            float accumulator2 = 0.0f;
+            float accumulator3 = 0.0f;
+            int tap = 0;
+
+            //Oldest sample is at the history pointer.  Independent accumulators allow the multiply-adds to overlap.
+            for(; tap < mUnrolledTaps; tap += 4)
+            {
+                accumulator0 += coefficients[tap] * mHistory[mHistoryPointer + tap];
+                accumulator1 += coefficients[tap + 1] * mHistory[mHistoryPointer + tap + 1];
+                accumulator2 += coefficients[tap + 2] * mHistory[mHistoryPointer + tap + 2];
+                accumulator3 += coefficients[tap + 3] * mHistory[mHistoryPointer + tap + 3];
+            }
+
+            for(; tap < mTapsPerPhase; tap++)
+            {
+                accumulator0 += coefficients[tap] * mHistory[mHistoryPointer + tap];
+            }
+
+            output[outputPointer++] = (accumulator0 + accumulator1) + (accumulator2 + accumulator3);
+            mPhase += mDecimation;
+        }
+
+        mPhase -= mInterpolation;
+        return outputPointer;
+    }
+}
@@ -18,42 +18,55 @@
  */
 package io.github.dsheirer.dsp.filter.resample;
 
-import com.laszlosystems.libresample4j.Resampler;
-import com.laszlosystems.libresample4j.SampleBuffers;
 import io.github.dsheirer.sample.Listener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.nio.ByteBuffer;
-import java.nio.FloatBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
- * Real sample buffer resampler
+ * Real sample buffer resampler.
+ *
+ * Resamples with a streaming PolyphaseResampler and delivers the resampled samples to the listener in uniform length
+ * output arrays.  The resampled samples are staged in a fixed output ring buffer until a full output array is
+ * available.
+ *
+ * By default, each output array is a new array that the listener may retain.  Listeners that fully process each
+ * output array before returning (and don't retain it) can enable reusable output buffers so that resampling doesn't
+ * allocate.
  */
 public class RealResampler
 {
     protected static final Logger mLog = LoggerFactory.getLogger(RealResampler.class);
 
-    private Resampler mResampler;
+    private PolyphaseResampler mResampler;
     private Listener<float[]> mResampledListener;
-    private BufferManager mBufferManager;
     private double mResampleFactor;
+    private int mOutputArrayLength;
+    private float[] mResampled;
+    private float[] mRingBuffer;
+    private int mRingReadPointer;
+    private int mRingCount;
+    private float[] mReusableOutputBuffer;
+    private boolean mReuseOutputBuffers;
 
     /**
      * Constructs an instance.
      * @param inputRate sample rate
      * @param outputRate sample rate
-     * @param bufferSize for the input and output float buffers sized large enough to hold at least two of the
-     * input or output buffer lengths, whichever is larger
+     * @param bufferSize initial size of the resampling buffer, in samples.  The buffer is enlarged when a larger input
+     * buffer is received.
      * @param outputArrayLength to create uniform length output arrays
      */
     public RealResampler(double inputRate, double outputRate, int bufferSize, int outputArrayLength)
     {
         mResampleFactor = outputRate / inputRate;
-        mResampler = new Resampler(true, mResampleFactor, mResampleFactor);
-        mBufferManager = new BufferManager(bufferSize, outputArrayLength);
+        mResampler = new PolyphaseResampler(inputRate, outputRate);
+        mOutputArrayLength = outputArrayLength;
+        mResampled = new float[Math.max(mResampler.getOutputCapacity(bufferSize),
+            mResampler.getOutputCapacity(mResampler.getFlushLength()))];
+        mRingBuffer = new float[mOutputArrayLength];
     }
 
     /**
@@ -65,7 +78,18 @@ public class RealResampler
     }
 
     /**
-     * Resamples all of the audio packets
+     * Enables or disables reusable output buffers.  When enabled, the same output array is delivered to the
+     * listener for each output buffer and the listener must not retain the array after it returns.
+     * @param reuse true to reuse the output array
+     */
+    public void setReuseOutputBuffers(boolean reuse)
+    {
+        mReuseOutputBuffers = reuse;
+    }
+
+    /**
+     * Resamples all of the audio packets.  The final (partial length) output array is included and the resampler is
+     * reset, ready to resample a new sequence of audio packets.
      * @param audioPackets to resample
      * @return resampled audio packets
      */
@@ -73,21 +97,18 @@ public class RealResampler
     {
         List<float[]> resampled = new ArrayList<>();
 
-        mResampledListener = resampledAudio -> resampled.add(resampledAudio);
+        Listener<float[]> listener = mResampledListener;
+        boolean reuse = mReuseOutputBuffers;
+        mResampledListener = resampled::add;
+        mReuseOutputBuffers = false;
 
         for(int x = 0; x < audioPackets.size(); x++)
         {
-            if(x == audioPackets.size() - 1)
-            {
-                resample(audioPackets.get(x), true);
-            }
-            else
-            {
-                resample(audioPackets.get(x));
-            }
+            resample(audioPackets.get(x), x == audioPackets.size() - 1);
         }
 
-        mResampledListener = null;
+        mResampledListener = listener;
+        mReuseOutputBuffers = reuse;
         return resampled;
     }
 
@@ -103,98 +124,111 @@ public class RealResampler
     /**
      * Primary input method to the resampler
      * @param samples to resample
-     * @param lastBatch set to true if this is the last set of samples
+     * @param lastBatch set to true if this is the last set of samples, to flush the final samples through the
+     * resampler and deliver the final (partial length) output array, and then reset the resampler
      */
     public void resample(float[] samples, boolean lastBatch)
     {
-        mBufferManager.load(samples);
-        mResampler.process(mResampleFactor, mBufferManager, lastBatch);
+        if(mResampled.length < mResampler.getOutputCapacity(samples.length))
+        {
+            mResampled = new float[mResampler.getOutputCapacity(samples.length)];
+        }
+
+        load(mResampler.resample(samples, 0, samples.length, mResampled, 0));
+
+        if(lastBatch)
+        {
+            load(mResampler.flush(mResampled, 0));
+
+            if(mRingCount > 0)
+            {
+                float[] remaining = new float[mRingCount];
+                read(remaining);
+                dispatch(remaining);
+            }
+
+            mResampler.reset();
+        }
     }
 
     /**
-     * Registers the listener to receive the resampled output buffers
-     * @param listener to receive buffers
+     * Clears the resampler input history and discards any resampled samples that were staged for the next output
+     * array, ready to resample a new sequence of samples.
      */
-    public void setListener(Listener<float[]> listener)
+    public void reset()
     {
-        mResampledListener = listener;
+        mResampler.reset();
+        mRingReadPointer = 0;
+        mRingCount = 0;
     }
 
     /**
-     * Buffer manager for input and output buffers used during the resampling process.
+     * Loads resampled samples into the ring buffer and dispatches each full output array.
+     * @param count of resampled samples to load
      */
-    public class BufferManager implements SampleBuffers
+    private void load(int count)
     {
-        private int mOutputArrayLength;
-        private FloatBuffer mInputBuffer;
-        private FloatBuffer mOutputBuffer;
-
-        /**
-         * Constructs an instance
-         * @param bufferSize for the input and output float buffers
-         * @param outputArrayLength to create uniform length output sample arrays
-         */
-        public BufferManager(int bufferSize, int outputArrayLength)
+        int pointer = 0;
+
+        while(pointer < count)
         {
-            mOutputArrayLength = outputArrayLength;
+            int writePointer = (mRingReadPointer + mRingCount) % mRingBuffer.length;
+            int length = Math.min(count - pointer, Math.min(mOutputArrayLength - mRingCount,
+                mRingBuffer.length - writePointer));
+            System.arraycopy(mResampled, pointer, mRingBuffer, writePointer, length);
+            mRingCount += length;
+            pointer += length;
+
+            if(mRingCount == mOutputArrayLength)
+            {
+                float[] output;
 
-            //The size of the underlying byte buffer in bytes is 4 times the requested input buffer size in floats
-            mInputBuffer = ByteBuffer.allocate(bufferSize * 4).asFloatBuffer();
-            mOutputBuffer = ByteBuffer.allocate(bufferSize * 4).asFloatBuffer();
-        }
+                if(mReuseOutputBuffers)
+                {
+                    if(mReusableOutputBuffer == null)
+                    {
+                        mReusableOutputBuffer = new float[mOutputArrayLength];
+                    }
 
-        /**
-         * Queues the buffer samples for resampling
-         */
-        public void load(float[] samples)
-        {
-            mInputBuffer.put(samples);
-        }
+                    output = mReusableOutputBuffer;
+                }
+                else
+                {
+                    output = new float[mOutputArrayLength];
+                }
 
-        @Override
-        public int getInputBufferLength()
-        {
-            return mInputBuffer.position();
+                read(output);
+                dispatch(output);
+            }
         }
+    }
 
-        @Override
-        public int getOutputBufferLength()
-        {
-            return mOutputBuffer.remaining();
-        }
+    /**
+     * Reads (and removes) samples from the ring buffer to fill the array
+     */
+    private void read(float[] output)
+    {
+        int firstLength = Math.min(output.length, mRingBuffer.length - mRingReadPointer);
+        System.arraycopy(mRingBuffer, mRingReadPointer, output, 0, firstLength);
+        System.arraycopy(mRingBuffer, 0, output, firstLength, output.length - firstLength);
+        mRingReadPointer = (mRingReadPointer + output.length) % mRingBuffer.length;
+        mRingCount -= output.length;
+    }
 
-        /**
-         * Provides input to the resampler
-         */
-        @Override
-        public void produceInput(float[] samples, int offset, int length)
+    private void dispatch(float[] output)
+    {
+        if(mResampledListener != null)
         {
-            mInputBuffer.flip();
-            mInputBuffer.get(samples, offset, length);
-            mInputBuffer.compact();
+            mResampledListener.receive(output);
         }
+    }
 
-        /**
-         * Receives output from the resampler and dispatches output buffers periodically.
-         */
-        @Override
-        public void consumeOutput(float[] samples, int offset, int length)
-        {
-            mOutputBuffer.put(samples, offset, length);
-
-            while(mOutputBuffer.position() > mOutputArrayLength)
-            {
-                float[] resampled = new float[mOutputArrayLength];
-
-                mOutputBuffer.flip();
-                mOutputBuffer.get(resampled);
-                mOutputBuffer.compact();
-
-                if(mResampledListener != null)
-                {
-                    mResampledListener.receive(resampled);
-                }
-            }
-        }
+    /**
+     * Registers the listener to receive the resampled output buffers
+     * @param listener to receive buffers
+     */
+    public void setListener(Listener<float[]> listener)
+    {
+        mResampledListener = listener;
     }
 }
@@ -17,6 +17,7 @@ package io.github.dsheirer.dsp.psk;
 
 import io.github.dsheirer.dsp.psk.pll.IPhaseLockedLoop;
 import io.github.dsheirer.dsp.symbol.Dibit;
+import io.github.dsheirer.dsp.symbol.ISymbolConfidenceListener;
 import io.github.dsheirer.sample.complex.Complex;
 
 public class DQPSKDecisionDirectedDemodulator extends PSKDemodulator<Dibit>
@@ -28,6 +29,7 @@ public class DQPSKDecisionDirectedDemodulator extends PSKDemodulator<Dibit>
     private Complex mCurrentSample = new Complex(0, 0);
     private Complex mPrecedingSymbol = new Complex(0, 0);
     protected Complex mCurrentSymbol = new Complex(0, 0);
+    private ISymbolConfidenceListener mSymbolConfidenceListener;
 
     /**
      * Decoder for Differential Quaternary Phase Shift Keying (DQPSK).  This decoder uses both a Costas Loop (PLL) and
@@ -44,6 +46,17 @@ public class DQPSKDecisionDirectedDemodulator extends PSKDemodulator<Dibit>
         super(interpolatingSampleBuffer, phaseLockedLoop);
     }
 
+    /**
+     * Registers an optional listener to receive the decision confidence for each symbol, for use in soft-decision
+     * decoding.  The listener is notified immediately before each symbol is dispatched to the symbol listener.
+     *
+     * @param listener to receive symbol confidence, or null to clear the listener
+     */
+    public void setSymbolConfidenceListener(ISymbolConfidenceListener listener)
+    {
+        mSymbolConfidenceListener = listener;
+    }
+
     /**
      * Calculates a symbol from the interpolating buffer
      */
@@ -85,6 +98,11 @@ public class DQPSKDecisionDirectedDemodulator extends PSKDemodulator<Dibit>
         mPreviousPrecedingSample.setValues(mPrecedingSample);
         mPreviousCurrentSample.setValues(mCurrentSample);
 
+        if(mSymbolConfidenceListener != null)
+        {
+            mSymbolConfidenceListener.symbolConfidence(mSymbolEvaluator.getSymbolConfidence());
+        }
+
         broadcast(mSymbolEvaluator.getSymbolDecision());
     }
 }
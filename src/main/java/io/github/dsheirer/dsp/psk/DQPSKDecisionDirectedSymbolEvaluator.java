@@ -25,11 +25,13 @@ public class DQPSKDecisionDirectedSymbolEvaluator implements IPSKSymbolEvaluator
     private static final Complex ROTATE_FROM_PLUS_45 = Complex.fromAngle(-1.0 * FastMath.PI / 4.0);
     private static final Complex ROTATE_FROM_MINUS_45 = Complex.fromAngle(1.0 * FastMath.PI / 4.0);
     private static final Complex ROTATE_FROM_MINUS_135 = Complex.fromAngle(3.0 * FastMath.PI / 4.0);
+    private static final float DECISION_BOUNDARY = (float)FastMath.sin(FastMath.PI / 4.0);
 
     private Complex mEvaluationSymbol = new Complex(0, 0);
     private float mPhaseError = 0.0f;
     private float mTimingError = 0.0f;
     private float mTimingErrorPolarity = 1.0f;
+    private float mSymbolConfidence = 1.0f;
     private Dibit mSymbolDecision = Dibit.D00_PLUS_1;
 
     /**
@@ -98,6 +100,13 @@ public class DQPSKDecisionDirectedSymbolEvaluator implements IPSKSymbolEvaluator
         //arctan of the error angle relative to 0 radians and this provides our error value
         float errorNormalized = normalize(mEvaluationSymbol.quadrature(), 0.3f);
 
+        //Symbol confidence is derived from the angular error relative to the +/- 45 degree decision boundary.  The
+        //quadrature value is normalized by the sample magnitude to give the sine of the error angle, so that the
+        //confidence doesn't vary with signal level.
+        float errorSine = FastMath.abs(mEvaluationSymbol.quadrature()) / mEvaluationSymbol.magnitude();
+        float boundaryDistance = errorSine / DECISION_BOUNDARY;
+        mSymbolConfidence = Float.isNaN(boundaryDistance) ? 0.0f : FastMath.max(0.0f, 1.0f - boundaryDistance);
+
         mPhaseError = -errorNormalized;
 
         //Timing error is the same as phase error with the sign corrected according to the vector's angular rotation
@@ -161,6 +170,17 @@ public class DQPSKDecisionDirectedSymbolEvaluator implements IPSKSymbolEvaluator
         return mTimingError;
     }
 
+    /**
+     * Confidence of the symbol decision.
+     *
+     * @return confidence in range 0.0 (symbol sampled on a decision boundary) to 1.0 (symbol sampled on the
+     * reference symbol angle), independent of the sampled symbol magnitude
+     */
+    public float getSymbolConfidence()
+    {
+        return mSymbolConfidence;
+    }
+
     /**
      * Reference symbol that is closest to the transmitted/sampled symbol.
      */
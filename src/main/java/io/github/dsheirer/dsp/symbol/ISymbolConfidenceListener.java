@@ -0,0 +1,35 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.dsp.symbol;
+
+/**
+ * Listener interface to receive the decision confidence for each demodulated symbol.  Demodulators notify this
+ * listener immediately before dispatching the symbol decision so that a listener can associate the confidence
+ * with the symbol that follows.
+ */
+public interface ISymbolConfidenceListener
+{
+    /**
+     * Confidence of the symbol decision that will be dispatched next.
+     *
+     * @param confidence in the range of 0.0 (sampled on a decision boundary) to 1.0 (sampled on the reference
+     * symbol)
+     */
+    void symbolConfidence(float confidence);
+}
@@ -0,0 +1,391 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.edac.trellis;
+
+import io.github.dsheirer.bits.BinaryMessage;
+import io.github.dsheirer.bits.CorrectedBinaryMessage;
+
+/**
+ * Table-driven Viterbi decoder for trellis coded modulation (TCM) encoded messages that use 4-bit transmitted
+ * symbols (constellation points).
+ *
+ * This decoder performs a classic add-compare-select (ACS) across the trellis using precomputed tables: a flattened
+ * state transition table and a branch metric table that contains the Hamming distance between each received symbol
+ * and each expected symbol.  Path metrics are held in primitive arrays and each time instant's survivor decisions
+ * are bit-packed into a single integer in the traceback buffer, so decoding a message only allocates the decoded
+ * output message.
+ *
+ * Decoded output is identical to the node/path based ViterbiDecoder implementations: ties between competing paths
+ * are resolved in favor of the lowest preceding state, the trellis starts in state zero and the final transmitted
+ * symbol is flushed with an input value of zero.
+ *
+ * Soft-decision decoding is supported by supplying a per-dibit symbol confidence (0.0 - 1.0) along with the encoded
+ * message.  Each bit error is then weighted by the quantized confidence of the dibit that carried it, so that bit
+ * errors from symbols that were sampled close to a decision boundary are cheaper for the decoder to correct.
+ *
+ * Working buffers are held per-thread so that a single (static) decoder instance can be shared across decoders.
+ */
+public abstract class TableViterbiDecoder
+{
+    protected static final int SYMBOL_BIT_LENGTH = 4;
+    private static final int SYMBOL_VALUE_COUNT = 1 << SYMBOL_BIT_LENGTH;
+    private static final int UNREACHABLE = Integer.MAX_VALUE / 2;
+    private static final int FLUSHING_INPUT_VALUE = 0;
+
+    /**
+     * Soft-decision bit error weights range from 1 (no confidence) to this maximum (full confidence)
+     */
+    private static final int SOFT_WEIGHT_MAXIMUM = 8;
+
+    /**
+     * Hamming distance between a received symbol and an expected symbol, indexed by [received][expected]
+     */
+    private static final int[][] HAMMING_DISTANCE = new int[SYMBOL_VALUE_COUNT][SYMBOL_VALUE_COUNT];
+
+    static
+    {
+        for(int received = 0; received < SYMBOL_VALUE_COUNT; received++)
+        {
+            for(int expected = 0; expected < SYMBOL_VALUE_COUNT; expected++)
+            {
+                HAMMING_DISTANCE[received][expected] = Integer.bitCount(received ^ expected);
+            }
+        }
+    }
+
+    private final int mInputBitLength;
+    private final int mStateCount;
+    private final int mStateMask;
+    private final int[] mTransitions;
+    private final ThreadLocal<Workspace> mWorkspace;
+
+    /**
+     * Constructs an instance
+     *
+     * @param inputBitLength for coding (e.g. 3/4 rate input bit length is 3)
+     * @param transitionMatrix of transmitted 4-bit output values indexed by [preceding state][input value]
+     */
+    protected TableViterbiDecoder(int inputBitLength, int[][] transitionMatrix)
+    {
+        mInputBitLength = inputBitLength;
+        mStateCount = 1 << inputBitLength;
+        mStateMask = mStateCount - 1;
+
+        if(mStateCount * mInputBitLength > Integer.SIZE)
+        {
+            throw new IllegalArgumentException("Survivor decisions for input bit length [" + inputBitLength +
+                "] can't be packed into a 32-bit traceback entry");
+        }
+
+        if(transitionMatrix.length != mStateCount)
+        {
+            throw new IllegalArgumentException("Transition matrix must contain [" + mStateCount + "] states");
+        }
+
+        //Flattened transition table indexed by [preceding state][input value]
+        mTransitions = new int[mStateCount * mStateCount];
+
+        for(int state = 0; state < mStateCount; state++)
+        {
+            for(int input = 0; input < mStateCount; input++)
+            {
+                mTransitions[state * mStateCount + input] = transitionMatrix[state][input];
+            }
+        }
+
+        mWorkspace = ThreadLocal.withInitial(() -> new Workspace(mStateCount));
+    }
+
+    /**
+     * Size in bits of the input and state values (e.g. 3/4 rate input size is 3)
+     */
+    public int getInputBitLength()
+    {
+        return mInputBitLength;
+    }
+
+    /**
+     * Count of input or state values
+     */
+    public int getStateCount()
+    {
+        return mStateCount;
+    }
+
+    /**
+     * Transmitted output value when the encoder is in the preceding state and receives the input value.
+     */
+    protected int getOutputValue(int precedingState, int inputValue)
+    {
+        return mTransitions[precedingState * mStateCount + inputValue];
+    }
+
+    /**
+     * Number of transmitted 4-bit symbols contained in the encoded message.
+     *
+     * @param encodedMessage to decode
+     * @return symbol count
+     */
+    protected int getSymbolCount(BinaryMessage encodedMessage)
+    {
+        //Ensure we have an integral number of transmitted symbols (nibbles) in the message
+        if(encodedMessage.size() % SYMBOL_BIT_LENGTH != 0)
+        {
+            throw new IllegalArgumentException("Encoded message must contain an integral number of 4-bit symbols -" +
+                " message size: " + encodedMessage.size());
+        }
+
+        return encodedMessage.size() / SYMBOL_BIT_LENGTH;
+    }
+
+    /**
+     * Extracts the transmitted 4-bit symbol at the symbol index from the (deinterleaved) encoded message.
+     *
+     * @param encodedMessage to decode
+     * @param symbolIndex of the symbol to extract
+     * @return symbol value
+     */
+    protected int getSymbol(BinaryMessage encodedMessage, int symbolIndex)
+    {
+        int offset = symbolIndex * SYMBOL_BIT_LENGTH;
+        return encodedMessage.getInt(offset, offset + SYMBOL_BIT_LENGTH - 1);
+    }
+
+    /**
+     * Quantizes a dibit symbol confidence value to a soft-decision bit error weight.
+     *
+     * @param confidence in range 0.0 (on the decision boundary) to 1.0 (on the reference symbol)
+     * @return weight in range 1 to SOFT_WEIGHT_MAXIMUM
+     */
+    private static int getWeight(float confidence)
+    {
+        if(confidence >= 1.0f || Float.isNaN(confidence))
+        {
+            return SOFT_WEIGHT_MAXIMUM;
+        }
+        else if(confidence <= 0.0f)
+        {
+            return 1;
+        }
+
+        return 1 + Math.round(confidence * (SOFT_WEIGHT_MAXIMUM - 1));
+    }
+
+    /**
+     * Decodes the TCM encoded message and returns the most likely transmitted sequence of input values, excluding
+     * the final flushing input value.  The corrected bit count of the returned message is set to the cumulative
+     * error metric of the surviving path.
+     *
+     * @param encodedMessage to decode
+     * @return decoded message
+     */
+    public CorrectedBinaryMessage decode(BinaryMessage encodedMessage)
+    {
+        return decode(encodedMessage, null);
+    }
+
+    /**
+     * Decodes the TCM encoded message using soft-decision branch metrics derived from the confidence of each of the
+     * dibit symbols that carried the encoded message.  The corrected bit count of the returned message is set to the
+     * number of (hard) bit errors corrected along the surviving path.
+     *
+     * @param encodedMessage to decode
+     * @param dibitConfidence array with a confidence value (0.0 - 1.0) for each dibit in the (deinterleaved) encoded
+     * message, where each 4-bit symbol is carried by two consecutive dibits.  A null value performs hard decision
+     * decoding.
+     * @return decoded message
+     */
+    public CorrectedBinaryMessage decode(BinaryMessage encodedMessage, float[] dibitConfidence)
+    {
+        int symbolCount = getSymbolCount(encodedMessage);
+
+        if(symbolCount < 1)
+        {
+            throw new IllegalArgumentException("Encoded message must contain at least one 4-bit symbol");
+        }
+
+        if(dibitConfidence != null && dibitConfidence.length < symbolCount * 2)
+        {
+            throw new IllegalArgumentException("Dibit confidence array must contain [" + (symbolCount * 2) +
+                "] values for the encoded message");
+        }
+
+        int decodedCount = symbolCount - 1;
+
+        Workspace workspace = mWorkspace.get();
+        int[] traceback = workspace.getTraceback(decodedCount);
+        int[] metrics = workspace.mMetrics;
+        int[] nextMetrics = workspace.mNextMetrics;
+        int[] softCosts = workspace.mSoftCosts;
+        int[] swap;
+
+        //The encoder always starts in state zero
+        metrics[0] = 0;
+
+        for(int state = 1; state < mStateCount; state++)
+        {
+            metrics[state] = UNREACHABLE;
+        }
+
+        for(int step = 0; step < decodedCount; step++)
+        {
+            int[] costs = getCosts(encodedMessage, dibitConfidence, step, softCosts);
+            int decisions = 0;
+
+            //Add-compare-select for each next state, which is equal to the input value for the time instant
+            for(int input = 0; input < mStateCount; input++)
+            {
+                int bestMetric = UNREACHABLE;
+                int bestState = 0;
+
+                for(int state = 0; state < mStateCount; state++)
+                {
+                    int metric = metrics[state] + costs[mTransitions[state * mStateCount + input]];
+
+                    //Strictly less-than so that ties are resolved in favor of the lowest preceding state
+                    if(metric < bestMetric)
+                    {
+                        bestMetric = metric;
+                        bestState = state;
+                    }
+                }
+
+                nextMetrics[input] = bestMetric;
+                decisions |= bestState << (input * mInputBitLength);
+            }
+
+            traceback[step] = decisions;
+
+            swap = metrics;
+            metrics = nextMetrics;
+            nextMetrics = swap;
+        }
+
+        //Flush each surviving path with the final symbol and a flushing input value and select the best path
+        int[] costs = getCosts(encodedMessage, dibitConfidence, decodedCount, softCosts);
+        int bestMetric = UNREACHABLE;
+        int bestState = 0;
+
+        for(int state = 0; state < mStateCount; state++)
+        {
+            int metric = metrics[state] + costs[mTransitions[state * mStateCount + FLUSHING_INPUT_VALUE]];
+
+            if(metric < bestMetric)
+            {
+                bestMetric = metric;
+                bestState = state;
+            }
+        }
+
+        //Trace back through the survivor decisions.  The state at each time instant is the decoded input value.
+        CorrectedBinaryMessage message = new CorrectedBinaryMessage(decodedCount * mInputBitLength);
+        int state = bestState;
+        int bitErrors = HAMMING_DISTANCE[getSymbol(encodedMessage, decodedCount)]
+            [mTransitions[bestState * mStateCount + FLUSHING_INPUT_VALUE]];
+
+        for(int step = decodedCount - 1; step >= 0; step--)
+        {
+            int messageOffset = step * mInputBitLength;
+
+            for(int bit = 0; bit < mInputBitLength; bit++)
+            {
+                if(((state >> (mInputBitLength - 1 - bit)) & 1) == 1)
+                {
+                    message.set(messageOffset + bit);
+                }
+            }
+
+            int precedingState = (traceback[step] >> (state * mInputBitLength)) & mStateMask;
+
+            if(dibitConfidence != null)
+            {
+                bitErrors += HAMMING_DISTANCE[getSymbol(encodedMessage, step)]
+                    [mTransitions[precedingState * mStateCount + state]];
+            }
+
+            state = precedingState;
+        }
+
+        //Transfer the corrected error count to the message.  For hard decisions, this is the best path metric.
+        message.setCorrectedBitCount(dibitConfidence != null ? bitErrors : bestMetric);
+
+        return message;
+    }
+
+    /**
+     * Branch costs for each of the expected symbol values for the received symbol at the step.
+     *
+     * @param encodedMessage to decode
+     * @param dibitConfidence optional soft-decision dibit confidence values, or null for hard decision costs
+     * @param step or symbol index in the encoded message
+     * @param softCosts buffer to reuse for soft-decision costs
+     * @return costs indexed by expected symbol value
+     */
+    private int[] getCosts(BinaryMessage encodedMessage, float[] dibitConfidence, int step, int[] softCosts)
+    {
+        int symbol = getSymbol(encodedMessage, step);
+
+        if(dibitConfidence == null)
+        {
+            return HAMMING_DISTANCE[symbol];
+        }
+
+        //Most significant dibit in the symbol is the first of the two dibits
+        int weight1 = getWeight(dibitConfidence[step * 2]);
+        int weight2 = getWeight(dibitConfidence[step * 2 + 1]);
+
+        for(int expected = 0; expected < SYMBOL_VALUE_COUNT; expected++)
+        {
+            int errors = symbol ^ expected;
+            softCosts[expected] = Integer.bitCount(errors & 0xC) * weight1 + Integer.bitCount(errors & 0x3) * weight2;
+        }
+
+        return softCosts;
+    }
+
+    /**
+     * Per-thread working buffers for path metrics and survivor decisions.
+     */
+    private static class Workspace
+    {
+        private int[] mMetrics;
+        private int[] mNextMetrics;
+        private int[] mSoftCosts = new int[SYMBOL_VALUE_COUNT];
+        private int[] mTraceback = new int[64];
+
+        public Workspace(int stateCount)
+        {
+            mMetrics = new int[stateCount];
+            mNextMetrics = new int[stateCount];
+        }
+
+        /**
+         * Traceback buffer with capacity for at least the specified number of time instants.
+         */
+        public int[] getTraceback(int length)
+        {
+            if(mTraceback.length < length)
+            {
+                mTraceback = new int[length];
+            }
+
+            return mTraceback;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.edac.trellis;
+
+import io.github.dsheirer.bits.BinaryMessage;
+
+/**
+ * Table-driven Viterbi decoder for Digital Mobile Radio (DMR) 3/4 rate Trellis Coded Modulation (TCM) encoded
+ * messages.
+ *
+ * Symbols are read directly from the interleaved 196-bit message using a precomputed deinterleave table, so no
+ * intermediate deinterleaved message is created.  Produces identical results to ViterbiDecoder_3_4_DMR.
+ */
+public class TableViterbiDecoder_3_4_DMR extends TableViterbiDecoder
+{
+    private static final int MESSAGE_BIT_LENGTH = 196;
+
+    /**
+     * Interleaved bit index for each deinterleaved bit index.  This is the inverse of the deinterleave table used
+     * by ViterbiDecoder_3_4_DMR.
+     */
+    private static final int[] INTERLEAVED_INDEXES = new int[MESSAGE_BIT_LENGTH];
+
+    static
+    {
+        int[] deinterleave = new int[]{0, 1, 2, 3, 16, 17, 18, 19, 32, 33, 34, 35, 48, 49, 50,
+            51, 64, 65, 66, 67, 80, 81, 82, 83, 96, 97, 98, 99, 112, 113, 114, 115, 128, 129, 130, 131, 144, 145, 146, 147,
+            160, 161, 162, 163, 176, 177, 178, 179, 192, 193, 194, 195, 4, 5, 6, 7, 20, 21, 22, 23, 36, 37, 38, 39, 52, 53,
+            54, 55, 68, 69, 70, 71, 84, 85, 86, 87, 100, 101, 102, 103, 116, 117, 118, 119, 132, 133, 134, 135, 148, 149,
+            150, 151, 164, 165, 166, 167, 180, 181, 182, 183, 8, 9, 10, 11, 24, 25, 26, 27, 40, 41, 42, 43, 56, 57, 58, 59,
+            72, 73, 74, 75, 88, 89, 90, 91, 104, 105, 106, 107, 120, 121, 122, 123, 136, 137, 138, 139, 152, 153, 154, 155,
+            168, 169, 170, 171, 184, 185, 186, 187, 12, 13, 14, 15, 28, 29, 30, 31, 44, 45, 46, 47, 60, 61, 62, 63, 76, 77,
+            78, 79, 92, 93, 94, 95, 108, 109, 110, 111, 124, 125, 126, 127, 140, 141, 142, 143, 156, 157, 158, 159, 172,
+            173, 174, 175, 188, 189, 190, 191};
+
+        for(int x = 0; x < deinterleave.length; x++)
+        {
+            INTERLEAVED_INDEXES[deinterleave[x]] = x;
+        }
+    }
+
+    /**
+     * Constructs an instance
+     */
+    public TableViterbiDecoder_3_4_DMR()
+    {
+        super(3, DMR_3_4_Node.DMR_TRANSITION_MATRIX);
+    }
+
+    /**
+     * DMR TCM encoded messages contain 49 symbols (196 bits / 4)
+     */
+    @Override
+    protected int getSymbolCount(BinaryMessage encodedMessage)
+    {
+        return MESSAGE_BIT_LENGTH / SYMBOL_BIT_LENGTH;
+    }
+
+    /**
+     * Extracts the deinterleaved symbol directly from the interleaved message
+     */
+    @Override
+    protected int getSymbol(BinaryMessage encodedMessage, int symbolIndex)
+    {
+        int offset = symbolIndex * SYMBOL_BIT_LENGTH;
+        int symbol = 0;
+
+        for(int x = offset; x < offset + SYMBOL_BIT_LENGTH; x++)
+        {
+            symbol <<= 1;
+
+            if(encodedMessage.get(INTERLEAVED_INDEXES[x]))
+            {
+                symbol++;
+            }
+        }
+
+        return symbol;
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.edac.trellis;
+
+/**
+ * Table-driven Viterbi decoder for APCO-25 3/4 rate Trellis Coded Modulation (TCM) encoded messages.
+ *
+ * Decodes a deinterleaved 196-bit message into 144 bits with identical results to ViterbiDecoder_3_4_P25.
+ */
+public class TableViterbiDecoder_3_4_P25 extends TableViterbiDecoder
+{
+    /**
+     * Constructs an instance
+     */
+    public TableViterbiDecoder_3_4_P25()
+    {
+        super(3, P25_3_4_Node.TRANSITION_MATRIX);
+    }
+}
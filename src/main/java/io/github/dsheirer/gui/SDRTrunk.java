@@ -21,6 +21,7 @@ package io.github.dsheirer.gui;
 import com.jidesoft.plaf.LookAndFeelFactory;
 import com.jidesoft.swing.JideSplitPane;
 import io.github.dsheirer.alias.AliasModel;
+import io.github.dsheirer.audio.AudioSegment;
 import io.github.dsheirer.audio.DuplicateCallDetector;
 import io.github.dsheirer.audio.broadcast.AudioStreamingManager;
 import io.github.dsheirer.audio.broadcast.BroadcastFormat;
@@ -31,6 +32,7 @@ import io.github.dsheirer.controller.channel.Channel;
 import io.github.dsheirer.controller.channel.ChannelAutoStartFrame;
 import io.github.dsheirer.controller.channel.ChannelException;
 import io.github.dsheirer.controller.channel.ChannelSelectionManager;
+import io.github.dsheirer.dsp.filter.design.FilterDesignCache;
 import io.github.dsheirer.eventbus.MyEventBus;
 import io.github.dsheirer.gui.icon.ViewIconManagerRequest;
 import io.github.dsheirer.gui.playlist.ViewPlaylistRequest;
@@ -41,11 +43,13 @@ import io.github.dsheirer.gui.preference.calibration.CalibrationDialog;
 import io.github.dsheirer.icon.IconModel;
 import io.github.dsheirer.log.ApplicationLog;
 import io.github.dsheirer.map.MapService;
+import io.github.dsheirer.module.decode.event.store.DecodeEventStore;
 import io.github.dsheirer.module.log.EventLogManager;
 import io.github.dsheirer.playlist.PlaylistManager;
 import io.github.dsheirer.preference.UserPreferences;
 import io.github.dsheirer.properties.SystemProperties;
 import io.github.dsheirer.record.AudioRecordingManager;
+import io.github.dsheirer.record.EncodedAudioCache;
 import io.github.dsheirer.sample.Listener;
 import io.github.dsheirer.settings.SettingsManager;
 import io.github.dsheirer.source.tuner.Tuner;
@@ -114,6 +118,9 @@ public class SDRTrunk implements Listener<TunerEvent>
     private boolean mBroadcastStatusVisible;
     private AudioRecordingManager mAudioRecordingManager;
     private AudioStreamingManager mAudioStreamingManager;
+    private EncodedAudioCache mEncodedAudioCache;
+    private EventLogManager mEventLogManager;
+    private DecodeEventStore mDecodeEventStore;
     private BroadcastStatusPanel mBroadcastStatusPanel;
     private ControllerPanel mControllerPanel;
     private IconModel mIconModel = new IconModel();
@@ -170,6 +177,10 @@ public class SDRTrunk implements Listener<TunerEvent>
         //Log current properties setting
         SystemProperties.getInstance().logCurrentSettings();
 
+        //Persist designed filters so that warm restarts don't have to redesign channel filters
+        FilterDesignCache.getInstance().setPersistenceFile(mUserPreferences.getDirectoryPreference()
+            .getDirectoryConfiguration().resolve("filter_design.cache"));
+
         //Register FontAwesome so we can use the fonts in Swing windows
         IconFontSwing.register(FontAwesome.getIconFont());
 
@@ -179,8 +190,8 @@ public class SDRTrunk implements Listener<TunerEvent>
         mSettingsManager = new SettingsManager();
 
         AliasModel aliasModel = new AliasModel();
-        EventLogManager eventLogManager = new EventLogManager(aliasModel, mUserPreferences);
-        mPlaylistManager = new PlaylistManager(mUserPreferences, mTunerManager, aliasModel, eventLogManager, mIconModel);
+        mEventLogManager = new EventLogManager(aliasModel, mUserPreferences);
+        mPlaylistManager = new PlaylistManager(mUserPreferences, mTunerManager, aliasModel, mEventLogManager, mIconModel);
 
         if(!GraphicsEnvironment.isHeadless())
         {
@@ -195,11 +206,13 @@ public class SDRTrunk implements Listener<TunerEvent>
 
         AudioPlaybackManager audioPlaybackManager = new AudioPlaybackManager(mUserPreferences);
 
-        mAudioRecordingManager = new AudioRecordingManager(mUserPreferences);
+        AudioSegment.setAudioSegmentStorage(mUserPreferences.getRecordPreference().getAudioSegmentStorage());
+        mEncodedAudioCache = new EncodedAudioCache(mUserPreferences);
+        mAudioRecordingManager = new AudioRecordingManager(mUserPreferences, mEncodedAudioCache);
         mAudioRecordingManager.start();
 
         mAudioStreamingManager = new AudioStreamingManager(mPlaylistManager.getBroadcastModel(), BroadcastFormat.MP3,
-            mUserPreferences);
+            mUserPreferences, mEncodedAudioCache);
         mAudioStreamingManager.start();
 
         DuplicateCallDetector duplicateCallDetector = new DuplicateCallDetector(mUserPreferences);
@@ -212,6 +225,24 @@ public class SDRTrunk implements Listener<TunerEvent>
         MapService mapService = new MapService(mIconModel);
         mPlaylistManager.getChannelProcessingManager().addDecodeEventListener(mapService);
 
+        if(mUserPreferences.getDecodeEventPreference().isEventStoreEnabled())
+        {
+            DecodeEventStore decodeEventStore = new DecodeEventStore(mUserPreferences.getDirectoryPreference()
+                .getDirectoryEventLog().resolve(DecodeEventStore.DIRECTORY_NAME),
+                mUserPreferences.getDecodeEventPreference().getEventStoreRetentionDays());
+
+            try
+            {
+                decodeEventStore.start();
+                mPlaylistManager.getChannelProcessingManager().addDecodeEventListener(decodeEventStore);
+                mDecodeEventStore = decodeEventStore;
+            }
+            catch(IOException ioe)
+            {
+                mLog.error("Error starting decode event store - decode events will not be stored", ioe);
+            }
+        }
+
         if(!GraphicsEnvironment.isHeadless())
         {
             mControllerPanel = new ControllerPanel(mPlaylistManager, audioPlaybackManager, mIconModel, mapService,
@@ -503,7 +534,17 @@ public class SDRTrunk implements Listener<TunerEvent>
         mJavaFxWindowManager.shutdown();
         mLog.info("Stopping channels ...");
         mPlaylistManager.getChannelProcessingManager().shutdown();
+        mEventLogManager.stop();
+
+        if(mDecodeEventStore != null)
+        {
+            mDecodeEventStore.stop();
+        }
+
         mAudioRecordingManager.stop();
+        mAudioStreamingManager.stop();
+        mLog.info(mEncodedAudioCache.getMetricsSummary());
+        mEncodedAudioCache.stop();
 
         mLog.info("Stopping spectral display ...");
         mSpectralPanel.clearTuner();
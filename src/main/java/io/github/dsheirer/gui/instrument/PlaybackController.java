@@ -394,6 +394,23 @@ public class PlaybackController extends HBox implements IFrameLocationListener
             mPlaybackPositionText = new TextField("0");
             mPlaybackPositionText.setAlignment(Pos.CENTER);
             mPlaybackPositionText.setPrefWidth(80);
+
+            //Enter a frame index to jump to that position when the source supports seeking
+            mPlaybackPositionText.setOnAction(event -> {
+                if(mControllableFileSource != null && mControllableFileSource.isSeekable())
+                {
+                    String position = mPlaybackPositionText.getText().trim();
+
+                    try
+                    {
+                        mControllableFileSource.seek(Long.parseLong(position));
+                    }
+                    catch(NumberFormatException | IOException e)
+                    {
+                        mLog.error("Unable to seek to playback position [" + position + "]");
+                    }
+                }
+            });
         }
 
         return mPlaybackPositionText;
@@ -21,6 +21,7 @@ import io.github.dsheirer.preference.UserPreferences;
 import io.github.dsheirer.preference.event.DecodeEventPreference;
 import javafx.geometry.HPos;
 import javafx.geometry.Insets;
+import javafx.scene.control.CheckBox;
 import javafx.scene.control.ChoiceBox;
 import javafx.scene.control.Label;
 import javafx.scene.layout.GridPane;
@@ -38,6 +39,7 @@ public class DecodeEventViewPreferenceEditor extends HBox
     private GridPane mEditorPane;
     private ChoiceBox<DisplayableTimestamp> mTimestampFormatChoiceBox;
     private Label mTimestampFormatLabel;
+    private CheckBox mEventStoreEnabledCheckBox;
 
     public DecodeEventViewPreferenceEditor(UserPreferences userPreferences)
     {
@@ -55,6 +57,9 @@ public class DecodeEventViewPreferenceEditor extends HBox
             GridPane.setHalignment(getTimestampFormatLabel(), HPos.LEFT);
             mEditorPane.add(getTimestampFormatLabel(), 0, 0);
             mEditorPane.add(getTimestampFormatChoiceBox(), 1, 0);
+            GridPane.setMargin(getEventStoreEnabledCheckBox(), new Insets(10, 0, 0, 0));
+            mEditorPane.add(getEventStoreEnabledCheckBox(), 0, 1, 2, 1);
+            mEditorPane.add(new Label("Decode event store changes take effect after application restart"), 0, 2, 2, 1);
         }
 
         return mEditorPane;
@@ -101,6 +106,19 @@ public class DecodeEventViewPreferenceEditor extends HBox
         return mTimestampFormatChoiceBox;
     }
 
+    private CheckBox getEventStoreEnabledCheckBox()
+    {
+        if(mEventStoreEnabledCheckBox == null)
+        {
+            mEventStoreEnabledCheckBox = new CheckBox("Save Decode Events To Searchable Event Store");
+            mEventStoreEnabledCheckBox.setSelected(mDecodeEventPreference.isEventStoreEnabled());
+            mEventStoreEnabledCheckBox.onActionProperty().set(event ->
+                mDecodeEventPreference.setEventStoreEnabled(getEventStoreEnabledCheckBox().isSelected()));
+        }
+
+        return mEventStoreEnabledCheckBox;
+    }
+
     public class DisplayableTimestamp
     {
         private TimestampFormat mTimestampFormat;
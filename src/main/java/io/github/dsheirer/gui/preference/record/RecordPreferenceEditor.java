@@ -19,8 +19,10 @@
 
 package io.github.dsheirer.gui.preference.record;
 
+import io.github.dsheirer.audio.AudioSegmentStorage;
 import io.github.dsheirer.preference.UserPreferences;
 import io.github.dsheirer.preference.record.RecordPreference;
+import io.github.dsheirer.record.BasebandRecordFormat;
 import io.github.dsheirer.record.RecordFormat;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
@@ -43,6 +45,8 @@ public class RecordPreferenceEditor extends HBox
     private RecordPreference mRecordPreference;
     private GridPane mEditorPane;
     private ComboBox<RecordFormat> mRecordFormatComboBox;
+    private ComboBox<BasebandRecordFormat> mBasebandRecordFormatComboBox;
+    private ComboBox<AudioSegmentStorage> mAudioSegmentStorageComboBox;
 
     public RecordPreferenceEditor(UserPreferences userPreferences)
     {
@@ -64,6 +68,19 @@ public class RecordPreferenceEditor extends HBox
             mEditorPane.add(label, 0, 0);
 
             mEditorPane.add(getRecordFormatComboBox(), 1, 0);
+
+            Label basebandLabel = new Label("Baseband Recording Format:");
+            mEditorPane.add(basebandLabel, 0, 1);
+
+            mEditorPane.add(getBasebandRecordFormatComboBox(), 1, 1);
+
+            Label storageLabel = new Label("Audio Segment Storage:");
+            mEditorPane.add(storageLabel, 0, 2);
+
+            mEditorPane.add(getAudioSegmentStorageComboBox(), 1, 2);
+
+            Label restartLabel = new Label("Audio segment storage changes take effect after application restart");
+            mEditorPane.add(restartLabel, 1, 3);
         }
 
         return mEditorPane;
@@ -88,4 +105,32 @@ public class RecordPreferenceEditor extends HBox
 
         return mRecordFormatComboBox;
     }
+
+    private ComboBox<BasebandRecordFormat> getBasebandRecordFormatComboBox()
+    {
+        if(mBasebandRecordFormatComboBox == null)
+        {
+            mBasebandRecordFormatComboBox = new ComboBox<>();
+            mBasebandRecordFormatComboBox.getItems().addAll(BasebandRecordFormat.values());
+            mBasebandRecordFormatComboBox.getSelectionModel().select(mRecordPreference.getBasebandRecordFormat());
+            mBasebandRecordFormatComboBox.getSelectionModel().selectedItemProperty()
+                .addListener((observable, oldValue, newValue) -> mRecordPreference.setBasebandRecordFormat(newValue));
+        }
+
+        return mBasebandRecordFormatComboBox;
+    }
+
+    private ComboBox<AudioSegmentStorage> getAudioSegmentStorageComboBox()
+    {
+        if(mAudioSegmentStorageComboBox == null)
+        {
+            mAudioSegmentStorageComboBox = new ComboBox<>();
+            mAudioSegmentStorageComboBox.getItems().addAll(AudioSegmentStorage.values());
+            mAudioSegmentStorageComboBox.getSelectionModel().select(mRecordPreference.getAudioSegmentStorage());
+            mAudioSegmentStorageComboBox.getSelectionModel().selectedItemProperty()
+                .addListener((observable, oldValue, newValue) -> mRecordPreference.setAudioSegmentStorage(newValue));
+        }
+
+        return mAudioSegmentStorageComboBox;
+    }
 }
@@ -24,6 +24,9 @@ package io.github.dsheirer.gui.preference.tuner;
 
 import io.github.dsheirer.preference.UserPreferences;
 import io.github.dsheirer.preference.source.ChannelizerType;
+import io.github.dsheirer.preference.source.PolyphaseBufferType;
+import io.github.dsheirer.util.DispatcherBackend;
+import io.github.dsheirer.util.DispatcherQueueType;
 import io.github.dsheirer.preference.source.TunerPreference;
 import javafx.geometry.HPos;
 import javafx.geometry.Insets;
@@ -35,6 +38,7 @@ import javafx.scene.control.Label;
 import javafx.scene.control.Separator;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
+import javafx.util.StringConverter;
 
 
 /**
@@ -46,6 +50,18 @@ public class TunerPreferenceEditor extends HBox
         "channelizer is more efficient when decoding 3 or more channels.";
     private static final String HELP_TEXT_HETERODYNE = "Processes each channel on-demand.  This " +
         "channelizer may work better for computers with constrained resources when processing a small number of channels.";
+    private static final String HELP_TEXT_BUFFER_TYPE = "Polyphase channelizer filter history buffer.  The circular " +
+        "buffer avoids shifting the entire filter history for each block of samples and may be faster for tuners " +
+        "with a high sample rate.";
+    private static final String HELP_TEXT_IFFT_THREADS = "Number of threads used by the polyphase channelizer to " +
+        "process each tuner.  Automatic uses additional threads for wideband tuners on multi-core computers.";
+    private static final String HELP_TEXT_DISPATCHER_BACKEND = "Threads used to deliver sample buffers to channels, " +
+        "channelizers and recorders.  Platform creates a maximum priority thread for each.  Shared executor processes " +
+        "all with a small number of threads sized to the computer's processor count and may work better when " +
+        "monitoring many channels.  Please restart the application for this change to take effect.";
+    private static final String HELP_TEXT_DISPATCHER_QUEUE = "Queue used to hand-off sample buffers between threads.  " +
+        "The lock-free queue avoids locking and per-buffer allocation.  Please restart the application for this " +
+        "change to take effect.";
 
     private TunerPreference mTunerPreference;
     private GridPane mEditorPane;
@@ -55,6 +71,18 @@ public class TunerPreferenceEditor extends HBox
     private Label mHelpTextPolyphaseLabel;
     private Label mHeterodyneLabel;
     private Label mHelpTextHeterodyneLabel;
+    private Label mIFFTThreadCountLabel;
+    private ChoiceBox<Integer> mIFFTThreadCountChoiceBox;
+    private Label mHelpTextIFFTThreadCountLabel;
+    private Label mBufferTypeLabel;
+    private ChoiceBox<PolyphaseBufferType> mBufferTypeChoiceBox;
+    private Label mHelpTextBufferTypeLabel;
+    private Label mDispatcherBackendLabel;
+    private ChoiceBox<DispatcherBackend> mDispatcherBackendChoiceBox;
+    private Label mHelpTextDispatcherBackendLabel;
+    private Label mDispatcherQueueLabel;
+    private ChoiceBox<DispatcherQueueType> mDispatcherQueueChoiceBox;
+    private Label mHelpTextDispatcherQueueLabel;
 
     public TunerPreferenceEditor(UserPreferences userPreferences)
     {
@@ -79,6 +107,23 @@ public class TunerPreferenceEditor extends HBox
             mEditorPane.add(new Label(" "), 0, 6);
             mEditorPane.add(getHeterodyneLabel(), 0, 7, 2, 1);
             mEditorPane.add(getHelpTextHeterodyneLabel(), 0, 8, 2, 3);
+            mEditorPane.add(new Separator(Orientation.HORIZONTAL), 0, 11, 2, 1);
+            GridPane.setHalignment(getIFFTThreadCountLabel(), HPos.LEFT);
+            mEditorPane.add(getIFFTThreadCountLabel(), 0, 12);
+            mEditorPane.add(getIFFTThreadCountChoiceBox(), 1, 12);
+            mEditorPane.add(getHelpTextIFFTThreadCountLabel(), 0, 13, 2, 3);
+            GridPane.setHalignment(getBufferTypeLabel(), HPos.LEFT);
+            mEditorPane.add(getBufferTypeLabel(), 0, 16);
+            mEditorPane.add(getBufferTypeChoiceBox(), 1, 16);
+            mEditorPane.add(getHelpTextBufferTypeLabel(), 0, 17, 2, 3);
+            GridPane.setHalignment(getDispatcherBackendLabel(), HPos.LEFT);
+            mEditorPane.add(getDispatcherBackendLabel(), 0, 20);
+            mEditorPane.add(getDispatcherBackendChoiceBox(), 1, 20);
+            mEditorPane.add(getHelpTextDispatcherBackendLabel(), 0, 21, 2, 3);
+            GridPane.setHalignment(getDispatcherQueueLabel(), HPos.LEFT);
+            mEditorPane.add(getDispatcherQueueLabel(), 0, 24);
+            mEditorPane.add(getDispatcherQueueChoiceBox(), 1, 24);
+            mEditorPane.add(getHelpTextDispatcherQueueLabel(), 0, 25, 2, 3);
         }
 
         return mEditorPane;
@@ -161,4 +206,197 @@ public class TunerPreferenceEditor extends HBox
 
         return mHelpTextHeterodyneLabel;
     }
+
+    private Label getIFFTThreadCountLabel()
+    {
+        if(mIFFTThreadCountLabel == null)
+        {
+            mIFFTThreadCountLabel = new Label("Polyphase Threads");
+        }
+
+        return mIFFTThreadCountLabel;
+    }
+
+    private ChoiceBox<Integer> getIFFTThreadCountChoiceBox()
+    {
+        if(mIFFTThreadCountChoiceBox == null)
+        {
+            mIFFTThreadCountChoiceBox = new ChoiceBox<>();
+
+            int processors = Runtime.getRuntime().availableProcessors();
+
+            for(int x = TunerPreference.IFFT_THREAD_COUNT_AUTOMATIC; x <= processors; x++)
+            {
+                mIFFTThreadCountChoiceBox.getItems().add(x);
+            }
+
+            mIFFTThreadCountChoiceBox.setConverter(new StringConverter<>()
+            {
+                @Override
+                public String toString(Integer value)
+                {
+                    if(value == null)
+                    {
+                        return null;
+                    }
+
+                    return value == TunerPreference.IFFT_THREAD_COUNT_AUTOMATIC ? "Automatic" : value.toString();
+                }
+
+                @Override
+                public Integer fromString(String string)
+                {
+                    return null;
+                }
+            });
+
+            mIFFTThreadCountChoiceBox.getSelectionModel().select(Integer.valueOf(mTunerPreference.getPolyphaseIFFTThreadCount()));
+
+            mIFFTThreadCountChoiceBox.setOnAction(event -> {
+                Integer selected = mIFFTThreadCountChoiceBox.getSelectionModel().getSelectedItem();
+
+                if(selected != null)
+                {
+                    mTunerPreference.setPolyphaseIFFTThreadCount(selected);
+                }
+            });
+        }
+
+        return mIFFTThreadCountChoiceBox;
+    }
+
+    private Label getHelpTextIFFTThreadCountLabel()
+    {
+        if(mHelpTextIFFTThreadCountLabel == null)
+        {
+            mHelpTextIFFTThreadCountLabel = new Label(HELP_TEXT_IFFT_THREADS + "  Changes are applied the next time " +
+                "that a tuner starts providing channels.");
+            mHelpTextIFFTThreadCountLabel.setWrapText(true);
+        }
+
+        return mHelpTextIFFTThreadCountLabel;
+    }
+
+    private Label getBufferTypeLabel()
+    {
+        if(mBufferTypeLabel == null)
+        {
+            mBufferTypeLabel = new Label("Polyphase Buffer");
+        }
+
+        return mBufferTypeLabel;
+    }
+
+    private ChoiceBox<PolyphaseBufferType> getBufferTypeChoiceBox()
+    {
+        if(mBufferTypeChoiceBox == null)
+        {
+            mBufferTypeChoiceBox = new ChoiceBox<>();
+            mBufferTypeChoiceBox.getItems().addAll(PolyphaseBufferType.values());
+            mBufferTypeChoiceBox.getSelectionModel().select(mTunerPreference.getPolyphaseBufferType());
+            mBufferTypeChoiceBox.setOnAction(event -> {
+                PolyphaseBufferType selected = mBufferTypeChoiceBox.getSelectionModel().getSelectedItem();
+
+                if(selected != null)
+                {
+                    mTunerPreference.setPolyphaseBufferType(selected);
+                }
+            });
+        }
+
+        return mBufferTypeChoiceBox;
+    }
+
+    private Label getHelpTextBufferTypeLabel()
+    {
+        if(mHelpTextBufferTypeLabel == null)
+        {
+            mHelpTextBufferTypeLabel = new Label(HELP_TEXT_BUFFER_TYPE);
+            mHelpTextBufferTypeLabel.setWrapText(true);
+        }
+
+        return mHelpTextBufferTypeLabel;
+    }
+
+    private Label getDispatcherBackendLabel()
+    {
+        if(mDispatcherBackendLabel == null)
+        {
+            mDispatcherBackendLabel = new Label("Sample Dispatch Threads");
+        }
+
+        return mDispatcherBackendLabel;
+    }
+
+    private ChoiceBox<DispatcherBackend> getDispatcherBackendChoiceBox()
+    {
+        if(mDispatcherBackendChoiceBox == null)
+        {
+            mDispatcherBackendChoiceBox = new ChoiceBox<>();
+            mDispatcherBackendChoiceBox.getItems().addAll(DispatcherBackend.values());
+            mDispatcherBackendChoiceBox.getSelectionModel().select(mTunerPreference.getDispatcherBackend());
+            mDispatcherBackendChoiceBox.setOnAction(event -> {
+                DispatcherBackend selected = mDispatcherBackendChoiceBox.getSelectionModel().getSelectedItem();
+
+                if(selected != null)
+                {
+                    mTunerPreference.setDispatcherBackend(selected);
+                }
+            });
+        }
+
+        return mDispatcherBackendChoiceBox;
+    }
+
+    private Label getHelpTextDispatcherBackendLabel()
+    {
+        if(mHelpTextDispatcherBackendLabel == null)
+        {
+            mHelpTextDispatcherBackendLabel = new Label(HELP_TEXT_DISPATCHER_BACKEND);
+            mHelpTextDispatcherBackendLabel.setWrapText(true);
+        }
+
+        return mHelpTextDispatcherBackendLabel;
+    }
+
+    private Label getDispatcherQueueLabel()
+    {
+        if(mDispatcherQueueLabel == null)
+        {
+            mDispatcherQueueLabel = new Label("Sample Dispatch Queue");
+        }
+
+        return mDispatcherQueueLabel;
+    }
+
+    private ChoiceBox<DispatcherQueueType> getDispatcherQueueChoiceBox()
+    {
+        if(mDispatcherQueueChoiceBox == null)
+        {
+            mDispatcherQueueChoiceBox = new ChoiceBox<>();
+            mDispatcherQueueChoiceBox.getItems().addAll(DispatcherQueueType.values());
+            mDispatcherQueueChoiceBox.getSelectionModel().select(mTunerPreference.getDispatcherQueueType());
+            mDispatcherQueueChoiceBox.setOnAction(event -> {
+                DispatcherQueueType selected = mDispatcherQueueChoiceBox.getSelectionModel().getSelectedItem();
+
+                if(selected != null)
+                {
+                    mTunerPreference.setDispatcherQueueType(selected);
+                }
+            });
+        }
+
+        return mDispatcherQueueChoiceBox;
+    }
+
+    private Label getHelpTextDispatcherQueueLabel()
+    {
+        if(mHelpTextDispatcherQueueLabel == null)
+        {
+            mHelpTextDispatcherQueueLabel = new Label(HELP_TEXT_DISPATCHER_QUEUE);
+            mHelpTextDispatcherQueueLabel.setWrapText(true);
+        }
+
+        return mHelpTextDispatcherQueueLabel;
+    }
 }
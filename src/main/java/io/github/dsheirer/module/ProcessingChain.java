@@ -47,6 +47,8 @@ import io.github.dsheirer.message.IMessage;
 import io.github.dsheirer.message.IMessageListener;
 import io.github.dsheirer.message.IMessageProvider;
 import io.github.dsheirer.message.MessageHistory;
+import io.github.dsheirer.module.decode.afsk.AbstractAFSKDecoder;
+import io.github.dsheirer.module.decode.afsk.SharedAFSK1200Demodulator;
 import io.github.dsheirer.module.decode.event.DecodeEventHistory;
 import io.github.dsheirer.module.decode.event.IDecodeEvent;
 import io.github.dsheirer.module.decode.event.IDecodeEventListener;
@@ -115,6 +117,7 @@ public class ProcessingChain implements Listener<ChannelEvent>
     private Broadcaster<SourceEvent> mSourceEventBroadcaster = new Broadcaster<>();
     private Broadcaster<IMessage> mMessageBroadcaster = new Broadcaster<>();
     private Broadcaster<SquelchStateEvent> mSquelchStateEventBroadcaster = new Broadcaster<>();
+    private SharedAFSK1200Demodulator mSharedAFSK1200Demodulator;
     private AtomicBoolean mRunning = new AtomicBoolean();
     private List<Module> mModules = new ArrayList<>();
     private DecodeEventHistory mDecodeEventHistory = new DecodeEventHistory(500);
@@ -239,6 +242,14 @@ public class ProcessingChain implements Listener<ChannelEvent>
         return mRunning.get();
     }
 
+    /**
+     * Sample source for this processing chain, or null if the chain doesn't have a source
+     */
+    public Source getSource()
+    {
+        return mSource;
+    }
+
     /**
      * Indicates if this chain's source is the same as the source argument
      */
@@ -389,7 +400,18 @@ public class ProcessingChain implements Listener<ChannelEvent>
             mMessageBroadcaster.addListener(((IMessageListener)module).getMessageListener());
         }
 
-        if(module instanceof IRealBufferListener)
+        if(module instanceof AbstractAFSKDecoder afskDecoder && afskDecoder.isShareable())
+        {
+            //AFSK decoders share one demodulator rather than each demodulating the same audio
+            if(mSharedAFSK1200Demodulator == null)
+            {
+                mSharedAFSK1200Demodulator = new SharedAFSK1200Demodulator();
+                mDemodulatedAudioBufferBroadcaster.addListener(mSharedAFSK1200Demodulator);
+            }
+
+            mSharedAFSK1200Demodulator.add(afskDecoder);
+        }
+        else if(module instanceof IRealBufferListener)
         {
             mDemodulatedAudioBufferBroadcaster.addListener(((IRealBufferListener)module).getBufferListener());
         }
@@ -456,7 +478,20 @@ public class ProcessingChain implements Listener<ChannelEvent>
             mHeartbeatBroadcaster.removeListener(((IHeartbeatListener)module).getHeartbeatListener());
         }
 
-        if(module instanceof IRealBufferListener)
+        if(module instanceof AbstractAFSKDecoder afskDecoder && afskDecoder.isShareable())
+        {
+            if(mSharedAFSK1200Demodulator != null)
+            {
+                mSharedAFSK1200Demodulator.remove(afskDecoder);
+
+                if(mSharedAFSK1200Demodulator.isEmpty())
+                {
+                    mDemodulatedAudioBufferBroadcaster.removeListener(mSharedAFSK1200Demodulator);
+                    mSharedAFSK1200Demodulator = null;
+                }
+            }
+        }
+        else if(module instanceof IRealBufferListener)
         {
             mDemodulatedAudioBufferBroadcaster.removeListener(((IRealBufferListener)module).getBufferListener());
         }
@@ -713,11 +748,36 @@ public class ProcessingChain implements Listener<ChannelEvent>
                 module.stop();
             }
 
-            //Reset each of the modules
-            for(Module module : mModules)
-            {
-                module.reset();
-            }
+            resetModules();
+        }
+    }
+
+    /**
+     * Resets each of the modules, including the decoder states and the decode event and message histories, so that
+     * a stopped processing chain can be reused for another channel grant.
+     * @throws IllegalStateException if the processing chain is processing
+     */
+    public void reset()
+    {
+        if(isProcessing())
+        {
+            throw new IllegalStateException("Processing chain must be stopped before it can be reset");
+        }
+
+        resetModules();
+    }
+
+    private void resetModules()
+    {
+        for(Module module : mModules)
+        {
+            module.reset();
+        }
+
+        //Shared AFSK decoders are reset above, but the demodulator that feeds them isn't a module
+        if(mSharedAFSK1200Demodulator != null)
+        {
+            mSharedAFSK1200Demodulator.reset();
         }
     }
 
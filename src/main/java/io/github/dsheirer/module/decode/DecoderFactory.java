@@ -197,7 +197,7 @@ public class DecoderFactory
         switch(p25Config.getModulation())
         {
             case C4FM:
-                modules.add(new P25P1DecoderC4FM());
+                modules.add(new P25P1DecoderC4FM(p25Config.isSoftDecision()));
                 break;
             case CQPSK:
                 modules.add(new P25P1DecoderLSM());
@@ -18,6 +18,7 @@
  */
 package io.github.dsheirer.module.decode.afsk;
 
+import io.github.dsheirer.bits.IBinarySymbolProcessor;
 import io.github.dsheirer.dsp.afsk.AFSK1200Decoder;
 import io.github.dsheirer.module.decode.Decoder;
 import io.github.dsheirer.sample.Listener;
@@ -28,11 +29,19 @@ import io.github.dsheirer.sample.real.IRealBufferListener;
  *
  * This class handles the AFSK 1200 decoder and incoming sample stream buffer management.
  *
- * Sub-class implementations should invoke getDecoder().setListener() to receive decoded symbol stream.
+ * Sub-class implementations should invoke setSymbolProcessor() to receive the decoded symbol stream.
+ *
+ * Decoders constructed with an output polarity (rather than a specific AFSK 1200 decoder instance) are shareable: the
+ * processing chain feeds all shareable AFSK decoders from one SharedAFSK1200Demodulator instead of each decoder
+ * demodulating the same audio.  A shareable decoder only creates its own AFSK 1200 decoder if it is fed audio
+ * directly, so shared decoders don't carry an unused resampler and correlators.
  */
 public abstract class AbstractAFSKDecoder extends Decoder implements IRealBufferListener, Listener<float[]>
 {
     private AFSK1200Decoder mAFSK1200Decoder;
+    private AFSK1200Decoder.Output mOutput;
+    private IBinarySymbolProcessor mSymbolProcessor;
+    private boolean mShareable;
 
     public AbstractAFSKDecoder(AFSK1200Decoder decoder)
     {
@@ -41,18 +50,83 @@ public abstract class AbstractAFSKDecoder extends Decoder implements IRealBuffer
 
     public AbstractAFSKDecoder(AFSK1200Decoder.Output output)
     {
-        mAFSK1200Decoder = new AFSK1200Decoder(output);
+        mOutput = output;
+        mShareable = true;
+    }
+
+    /**
+     * Indicates if this decoder can receive symbols from a shared demodulator.  Decoders constructed with a specific
+     * (e.g. instrumented) AFSK 1200 decoder instance are not shareable.
+     */
+    public boolean isShareable()
+    {
+        return mShareable;
+    }
+
+    /**
+     * Registers the processor to receive the decoded symbols, with this decoder's output polarity applied.
+     */
+    protected void setSymbolProcessor(IBinarySymbolProcessor symbolProcessor)
+    {
+        mSymbolProcessor = symbolProcessor;
+
+        if(mAFSK1200Decoder != null)
+        {
+            mAFSK1200Decoder.setSymbolProcessor(symbolProcessor);
+        }
+    }
+
+    /**
+     * Receives a symbol from a shared demodulator, in place of demodulating the audio buffers with this decoder.
+     * @param symbol demodulated with normal output polarity
+     */
+    public void receiveSymbol(boolean symbol)
+    {
+        if(mShareable)
+        {
+            if(mSymbolProcessor != null)
+            {
+                mSymbolProcessor.process(mOutput == AFSK1200Decoder.Output.NORMAL ? symbol : !symbol);
+            }
+        }
+        else
+        {
+            mAFSK1200Decoder.receiveSymbol(symbol);
+        }
     }
 
+    /**
+     * AFSK 1200 decoder for demodulating the audio buffers that are fed directly to this decoder, created on first
+     * use for shareable decoders.
+     */
     protected AFSK1200Decoder getDecoder()
     {
+        if(mAFSK1200Decoder == null)
+        {
+            mAFSK1200Decoder = new AFSK1200Decoder(mOutput);
+            mAFSK1200Decoder.setSymbolProcessor(mSymbolProcessor);
+        }
+
         return mAFSK1200Decoder;
     }
 
+    /**
+     * Resets the demodulation state of this decoder's AFSK 1200 decoder.  The state of a shared demodulator is
+     * reset by the processing chain.  Sub-classes that override this method should invoke super.reset().
+     */
+    @Override
+    public void reset()
+    {
+        if(mAFSK1200Decoder != null)
+        {
+            mAFSK1200Decoder.reset();
+        }
+    }
+
     @Override
     public void receive(float[] realBuffer)
     {
-        mAFSK1200Decoder.receive(realBuffer);
+        getDecoder().receive(realBuffer);
     }
 
     @Override
@@ -0,0 +1,103 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.module.decode.afsk;
+
+import io.github.dsheirer.dsp.afsk.AFSK1200Decoder;
+import io.github.dsheirer.sample.Listener;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Shared AFSK 1200-baud demodulator for a processing chain.  Demodulates the 8 kHz FM-demodulated audio once (resampling,
+ * mark/space correlation and symbol timing recovery) and dispatches each symbol to all registered AFSK decoders (e.g.
+ * Fleetsync II, MDC-1200, LJ-1200 and Tait 1200 auxiliary decoders), which apply their own output polarity.
+ */
+public class SharedAFSK1200Demodulator implements Listener<float[]>
+{
+    private AFSK1200Decoder mAFSK1200Decoder = new AFSK1200Decoder(AFSK1200Decoder.Output.NORMAL);
+    private List<AbstractAFSKDecoder> mDecoders = new CopyOnWriteArrayList<>();
+
+    /**
+     * Constructs an instance
+     */
+    public SharedAFSK1200Demodulator()
+    {
+        mAFSK1200Decoder.setSymbolProcessor(this::dispatch);
+    }
+
+    /**
+     * Adds a shareable decoder to receive the demodulated symbols
+     */
+    public void add(AbstractAFSKDecoder decoder)
+    {
+        if(!decoder.isShareable())
+        {
+            throw new IllegalArgumentException("AFSK decoder [" + decoder.getDecoderType() + "] is not shareable");
+        }
+
+        mDecoders.add(decoder);
+    }
+
+    /**
+     * Removes the decoder from receiving the demodulated symbols
+     */
+    public void remove(AbstractAFSKDecoder decoder)
+    {
+        mDecoders.remove(decoder);
+    }
+
+    /**
+     * Indicates if there are no decoders registered to receive the demodulated symbols
+     */
+    public boolean isEmpty()
+    {
+        return mDecoders.isEmpty();
+    }
+
+    /**
+     * Demodulates the buffer of 8 kHz FM-demodulated audio samples
+     */
+    @Override
+    public void receive(float[] buffer)
+    {
+        mAFSK1200Decoder.receive(buffer);
+    }
+
+    /**
+     * Resets the demodulation state so that the next buffer is demodulated without any history from previously
+     * received audio.
+     */
+    public void reset()
+    {
+        mAFSK1200Decoder.reset();
+    }
+
+    /**
+     * Dispatches the demodulated symbol to each of the registered decoders
+     */
+    private void dispatch(boolean symbol)
+    {
+        for(AbstractAFSKDecoder decoder: mDecoders)
+        {
+            decoder.receiveSymbol(symbol);
+        }
+    }
+}
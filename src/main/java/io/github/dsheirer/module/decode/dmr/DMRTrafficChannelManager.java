@@ -27,6 +27,7 @@ import io.github.dsheirer.controller.channel.ChannelEvent;
 import io.github.dsheirer.controller.channel.ChannelEvent.Event;
 import io.github.dsheirer.controller.channel.IChannelEventListener;
 import io.github.dsheirer.controller.channel.IChannelEventProvider;
+import io.github.dsheirer.controller.channel.event.ChannelPrewarmRequest;
 import io.github.dsheirer.controller.channel.event.ChannelStartProcessingRequest;
 import io.github.dsheirer.identifier.Identifier;
 import io.github.dsheirer.identifier.IdentifierCollection;
@@ -626,6 +627,12 @@ public class DMRTrafficChannelManager extends TrafficChannelManager implements I
         {
             getInterModuleEventBus().post(FrequencyLockChangeRequest.lock(frequency));
         }
+
+        //Pre-construct processing chains for the first traffic channels that will be allocated
+        if(mManagedTrafficChannels != null && !mManagedTrafficChannels.isEmpty())
+        {
+            getInterModuleEventBus().post(new ChannelPrewarmRequest(mManagedTrafficChannels));
+        }
     }
 
     @Override
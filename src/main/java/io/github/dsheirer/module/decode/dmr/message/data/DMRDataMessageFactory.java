@@ -23,7 +23,7 @@ import io.github.dsheirer.bits.BitSetFullException;
 import io.github.dsheirer.bits.CorrectedBinaryMessage;
 import io.github.dsheirer.edac.BPTC_196_96;
 import io.github.dsheirer.edac.CRCDMR;
-import io.github.dsheirer.edac.trellis.ViterbiDecoder_3_4_DMR;
+import io.github.dsheirer.edac.trellis.TableViterbiDecoder_3_4_DMR;
 import io.github.dsheirer.module.decode.dmr.DMRSyncPattern;
 import io.github.dsheirer.module.decode.dmr.message.CACH;
 import io.github.dsheirer.module.decode.dmr.message.data.block.DataBlock1Rate;
@@ -61,7 +61,7 @@ import org.slf4j.LoggerFactory;
 public class DMRDataMessageFactory
 {
     private final static Logger mLog = LoggerFactory.getLogger(DMRDataMessageFactory.class);
-    private static final ViterbiDecoder_3_4_DMR VITERBI_DECODER = new ViterbiDecoder_3_4_DMR();
+    private static final TableViterbiDecoder_3_4_DMR VITERBI_DECODER = new TableViterbiDecoder_3_4_DMR();
 
     /**
      * Creates a data message class
@@ -0,0 +1,238 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.module.decode.event.store;
+
+/**
+ * Decode event store query.  All criteria that are specified must match (logical AND).  Identifier criteria match
+ * either the displayed identifier or the identifier value, ignoring case.
+ *
+ * Use the builder to create a query:
+ *
+ * DecodeEventQuery query = DecodeEventQuery.builder().talkgroup("1234").from(start).to(end).build();
+ */
+public class DecodeEventQuery
+{
+    public static final int DEFAULT_LIMIT = 10000;
+    private long mStart = Long.MIN_VALUE;
+    private long mEnd = Long.MAX_VALUE;
+    private String mTalkgroup;
+    private String mRadio;
+    private String mProtocol;
+    private String mSystem;
+    private int mLimit = DEFAULT_LIMIT;
+
+    private DecodeEventQuery()
+    {
+    }
+
+    /**
+     * Creates a query builder
+     */
+    public static Builder builder()
+    {
+        return new Builder();
+    }
+
+    /**
+     * Earliest event start time (inclusive) in milliseconds since epoch
+     */
+    public long getStart()
+    {
+        return mStart;
+    }
+
+    /**
+     * Latest event start time (exclusive) in milliseconds since epoch
+     */
+    public long getEnd()
+    {
+        return mEnd;
+    }
+
+    /**
+     * Normalized TO identifier to match, or null
+     */
+    public String getTalkgroup()
+    {
+        return mTalkgroup;
+    }
+
+    /**
+     * Normalized FROM identifier to match, or null
+     */
+    public String getRadio()
+    {
+        return mRadio;
+    }
+
+    /**
+     * Normalized protocol to match, or null
+     */
+    public String getProtocol()
+    {
+        return mProtocol;
+    }
+
+    /**
+     * Normalized system name to match, or null
+     */
+    public String getSystem()
+    {
+        return mSystem;
+    }
+
+    /**
+     * Maximum number of events to return
+     */
+    public int getLimit()
+    {
+        return mLimit;
+    }
+
+    /**
+     * Indicates if the query has a time range criteria
+     */
+    public boolean hasTimeRange()
+    {
+        return mStart != Long.MIN_VALUE || mEnd != Long.MAX_VALUE;
+    }
+
+    /**
+     * Indicates if the record matches all of the criteria of this query
+     */
+    public boolean matches(DecodeEventRecord record)
+    {
+        return record.getTimeStart() >= mStart && record.getTimeStart() < mEnd &&
+            matches(mTalkgroup, record.getTo(), record.getToValue()) &&
+            matches(mRadio, record.getFrom(), record.getFromValue()) &&
+            matches(mProtocol, record.getProtocol(), null) &&
+            matches(mSystem, record.getSystem(), null);
+    }
+
+    private static boolean matches(String criteria, String value, String alternateValue)
+    {
+        return criteria == null || criteria.equals(DecodeEventRecord.normalize(value)) ||
+            (alternateValue != null && criteria.equals(DecodeEventRecord.normalize(alternateValue)));
+    }
+
+    @Override
+    public String toString()
+    {
+        return "Query start [" + mStart + "] end [" + mEnd + "] talkgroup [" + mTalkgroup + "] radio [" + mRadio +
+            "] protocol [" + mProtocol + "] system [" + mSystem + "] limit [" + mLimit + "]";
+    }
+
+    /**
+     * Query builder
+     */
+    public static class Builder
+    {
+        private DecodeEventQuery mQuery = new DecodeEventQuery();
+
+        private Builder()
+        {
+        }
+
+        /**
+         * Earliest event start time (inclusive)
+         * @param start in milliseconds since epoch
+         */
+        public Builder from(long start)
+        {
+            mQuery.mStart = start;
+            return this;
+        }
+
+        /**
+         * Latest event start time (exclusive)
+         * @param end in milliseconds since epoch
+         */
+        public Builder to(long end)
+        {
+            mQuery.mEnd = end;
+            return this;
+        }
+
+        /**
+         * TO identifier (e.g. talkgroup) to match
+         */
+        public Builder talkgroup(String talkgroup)
+        {
+            mQuery.mTalkgroup = criteria(talkgroup);
+            return this;
+        }
+
+        /**
+         * FROM identifier (e.g. radio) to match
+         */
+        public Builder radio(String radio)
+        {
+            mQuery.mRadio = criteria(radio);
+            return this;
+        }
+
+        /**
+         * Protocol (enumeration entry name, e.g. APCO25) to match
+         */
+        public Builder protocol(String protocol)
+        {
+            mQuery.mProtocol = criteria(protocol);
+            return this;
+        }
+
+        /**
+         * System name to match
+         */
+        public Builder system(String system)
+        {
+            mQuery.mSystem = criteria(system);
+            return this;
+        }
+
+        /**
+         * Maximum number of events to return, most recent events first
+         */
+        public Builder limit(int limit)
+        {
+            if(limit < 1)
+            {
+                throw new IllegalArgumentException("Limit must be a positive value");
+            }
+
+            mQuery.mLimit = limit;
+            return this;
+        }
+
+        public DecodeEventQuery build()
+        {
+            if(mQuery.mStart >= mQuery.mEnd)
+            {
+                throw new IllegalArgumentException("Query start time must be before the end time");
+            }
+
+            return mQuery;
+        }
+
+        private static String criteria(String value)
+        {
+            return value != null && !value.isBlank() ? DecodeEventRecord.normalize(value) : null;
+        }
+    }
+}
@@ -0,0 +1,364 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.module.decode.event.store;
+
+import io.github.dsheirer.channel.IChannelDescriptor;
+import io.github.dsheirer.identifier.Form;
+import io.github.dsheirer.identifier.Identifier;
+import io.github.dsheirer.identifier.IdentifierClass;
+import io.github.dsheirer.identifier.IdentifierCollection;
+import io.github.dsheirer.identifier.Role;
+import io.github.dsheirer.identifier.configuration.FrequencyConfigurationIdentifier;
+import io.github.dsheirer.module.decode.event.IDecodeEvent;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Immutable decode event as stored in the decode event store.  The identifiers and channel details of the decode
+ * event are captured as strings when the record is created, so that the record is independent of the (mutable)
+ * decode event and identifier collection.
+ *
+ * Decoders update some decode events (e.g. calls) over their lifetime, so the store can contain several versions of
+ * an event.  All versions of an event share the same event ID.
+ */
+public class DecodeEventRecord
+{
+    private static final int NO_TIMESLOT = -1;
+    private long mEventId;
+    private long mTimeStart;
+    private long mDuration;
+    private long mFrequency;
+    private int mTimeslot;
+    private String mProtocol;
+    private String mEventType;
+    private String mDescription;
+    private String mFrom;
+    private String mFromValue;
+    private String mTo;
+    private String mToValue;
+    private String mSystem;
+    private String mSite;
+    private String mChannel;
+    private String mDetails;
+
+    DecodeEventRecord()
+    {
+    }
+
+    /**
+     * Creates a record from the decode event.
+     * @param decodeEvent to capture
+     * @param eventId shared by all versions of the decode event
+     * @return record
+     */
+    public static DecodeEventRecord from(IDecodeEvent decodeEvent, long eventId)
+    {
+        DecodeEventRecord record = new DecodeEventRecord();
+        record.mEventId = eventId;
+        record.mTimeStart = decodeEvent.getTimeStart();
+        record.mDuration = decodeEvent.getDuration();
+        record.mTimeslot = decodeEvent.hasTimeslot() ? decodeEvent.getTimeslot() : NO_TIMESLOT;
+        record.mProtocol = decodeEvent.getProtocol() != null ? decodeEvent.getProtocol().name() : "";
+        record.mEventType = decodeEvent.getEventType() != null ? decodeEvent.getEventType().name() : "";
+        record.mDescription = valueOf(decodeEvent.getEventDescription());
+        record.mDetails = valueOf(decodeEvent.getDetails());
+
+        IdentifierCollection identifiers = decodeEvent.getIdentifierCollection();
+
+        Identifier from = first(identifiers.getIdentifiers(Role.FROM));
+        record.mFrom = from != null ? from.toString() : "";
+        record.mFromValue = from != null ? valueOf(from.getValue()) : "";
+
+        Identifier to = first(identifiers.getIdentifiers(Role.TO));
+        record.mTo = to != null ? to.toString() : "";
+        record.mToValue = to != null ? valueOf(to.getValue()) : "";
+
+        record.mSystem = configuration(identifiers, Form.SYSTEM);
+        record.mSite = configuration(identifiers, Form.SITE);
+        record.mChannel = configuration(identifiers, Form.CHANNEL);
+
+        Identifier frequency = identifiers.getIdentifier(IdentifierClass.CONFIGURATION, Form.CHANNEL_FREQUENCY,
+            Role.ANY);
+
+        if(frequency instanceof FrequencyConfigurationIdentifier frequencyIdentifier)
+        {
+            record.mFrequency = frequencyIdentifier.getValue();
+        }
+        else
+        {
+            IChannelDescriptor descriptor = decodeEvent.getChannelDescriptor();
+            record.mFrequency = descriptor != null ? descriptor.getDownlinkFrequency() : 0;
+        }
+
+        return record;
+    }
+
+    private static Identifier first(List<Identifier> identifiers)
+    {
+        return identifiers != null && !identifiers.isEmpty() ? identifiers.get(0) : null;
+    }
+
+    private static String configuration(IdentifierCollection identifiers, Form form)
+    {
+        Identifier identifier = identifiers.getIdentifier(IdentifierClass.CONFIGURATION, form, Role.ANY);
+        return identifier != null ? valueOf(identifier.getValue()) : "";
+    }
+
+    private static String valueOf(Object value)
+    {
+        return value != null ? value.toString() : "";
+    }
+
+    /**
+     * Normalizes an index key or query value, so that matching is not case sensitive.
+     */
+    public static String normalize(String value)
+    {
+        return value != null ? value.trim().toLowerCase(Locale.ROOT) : "";
+    }
+
+    /**
+     * Writes this record to the output
+     */
+    public void write(DataOutput output) throws IOException
+    {
+        output.writeLong(mEventId);
+        output.writeLong(mTimeStart);
+        output.writeLong(mDuration);
+        output.writeLong(mFrequency);
+        output.writeInt(mTimeslot);
+        writeString(output, mProtocol);
+        writeString(output, mEventType);
+        writeString(output, mDescription);
+        writeString(output, mFrom);
+        writeString(output, mFromValue);
+        writeString(output, mTo);
+        writeString(output, mToValue);
+        writeString(output, mSystem);
+        writeString(output, mSite);
+        writeString(output, mChannel);
+        writeString(output, mDetails);
+    }
+
+    /**
+     * Reads a record from the input
+     */
+    public static DecodeEventRecord read(DataInput input) throws IOException
+    {
+        DecodeEventRecord record = new DecodeEventRecord();
+        record.mEventId = input.readLong();
+        record.mTimeStart = input.readLong();
+        record.mDuration = input.readLong();
+        record.mFrequency = input.readLong();
+        record.mTimeslot = input.readInt();
+        record.mProtocol = readString(input);
+        record.mEventType = readString(input);
+        record.mDescription = readString(input);
+        record.mFrom = readString(input);
+        record.mFromValue = readString(input);
+        record.mTo = readString(input);
+        record.mToValue = readString(input);
+        record.mSystem = readString(input);
+        record.mSite = readString(input);
+        record.mChannel = readString(input);
+        record.mDetails = readString(input);
+        return record;
+    }
+
+    private static void writeString(DataOutput output, String value) throws IOException
+    {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(DataInput input) throws IOException
+    {
+        int length = input.readInt();
+
+        if(length < 0 || length > DecodeEventStoreSegment.MAX_RECORD_LENGTH)
+        {
+            throw new IOException("Invalid string length [" + length + "]");
+        }
+
+        byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Event ID, shared by all versions of a decode event
+     */
+    public long getEventId()
+    {
+        return mEventId;
+    }
+
+    /**
+     * Event start time in milliseconds since epoch
+     */
+    public long getTimeStart()
+    {
+        return mTimeStart;
+    }
+
+    /**
+     * Event duration in milliseconds, or 0 if there is no duration
+     */
+    public long getDuration()
+    {
+        return mDuration;
+    }
+
+    /**
+     * Channel frequency in Hertz, or 0 if unknown
+     */
+    public long getFrequency()
+    {
+        return mFrequency;
+    }
+
+    /**
+     * Indicates if the event has a timeslot
+     */
+    public boolean hasTimeslot()
+    {
+        return mTimeslot != NO_TIMESLOT;
+    }
+
+    /**
+     * Timeslot for the event, when hasTimeslot() is true
+     */
+    public int getTimeslot()
+    {
+        return mTimeslot;
+    }
+
+    /**
+     * Protocol (enumeration entry name) of the decoder that produced the event
+     */
+    public String getProtocol()
+    {
+        return mProtocol;
+    }
+
+    /**
+     * Decode event type (enumeration entry name)
+     */
+    public String getEventType()
+    {
+        return mEventType;
+    }
+
+    /**
+     * Event description
+     */
+    public String getDescription()
+    {
+        return mDescription;
+    }
+
+    /**
+     * FROM identifier as displayed, or empty
+     */
+    public String getFrom()
+    {
+        return mFrom;
+    }
+
+    /**
+     * FROM identifier value, or empty
+     */
+    public String getFromValue()
+    {
+        return mFromValue;
+    }
+
+    /**
+     * TO identifier as displayed, or empty
+     */
+    public String getTo()
+    {
+        return mTo;
+    }
+
+    /**
+     * TO identifier value, or empty
+     */
+    public String getToValue()
+    {
+        return mToValue;
+    }
+
+    /**
+     * System name from the channel configuration, or empty
+     */
+    public String getSystem()
+    {
+        return mSystem;
+    }
+
+    /**
+     * Site name from the channel configuration, or empty
+     */
+    public String getSite()
+    {
+        return mSite;
+    }
+
+    /**
+     * Channel name from the channel configuration, or empty
+     */
+    public String getChannel()
+    {
+        return mChannel;
+    }
+
+    /**
+     * Event details, or empty
+     */
+    public String getDetails()
+    {
+        return mDetails;
+    }
+
+    /**
+     * Record as a list of cell values, in the order of getColumnNames()
+     */
+    public Object[] toCells()
+    {
+        return new Object[]{mTimeStart, mDuration, mProtocol, mEventType, mDescription, mFrom, mTo, mSystem, mSite,
+            mChannel, mFrequency, hasTimeslot() ? mTimeslot : "", mDetails};
+    }
+
+    /**
+     * Column names for the cell values of toCells()
+     */
+    public static String[] getColumnNames()
+    {
+        return new String[]{"TIMESTAMP", "DURATION_MS", "PROTOCOL", "EVENT_TYPE", "EVENT", "FROM", "TO", "SYSTEM",
+            "SITE", "CHANNEL", "FREQUENCY", "TIMESLOT", "DETAILS"};
+    }
+}
@@ -0,0 +1,581 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.module.decode.event.store;
+
+import io.github.dsheirer.module.decode.event.IDecodeEvent;
+import io.github.dsheirer.sample.Listener;
+import io.github.dsheirer.util.Dispatcher;
+import io.github.dsheirer.util.IBatchListener;
+import io.github.dsheirer.util.ThreadPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Embedded, append-only decode event store with indexes on event time, talkgroup (TO) and radio (FROM) identifiers,
+ * protocol and system.
+ *
+ * The store receives decode events from the processing chain decode event broadcasters.  Decoders update and
+ * re-broadcast the same decode event (e.g. for each voice frame of a call), so updates are coalesced: a version of
+ * the decode event is written once the event has not been updated for 2 seconds, and at least once a minute for
+ * long-running events.  All versions of a decode event share the same event ID and queries return the latest version.
+ * Each update is captured as a record on the calling (decoder) thread, so that the written version is a consistent
+ * snapshot of the event rather than a read of the event while the decoder is modifying it.
+ *
+ * Records are written by a dedicated writer thread in batches to the active segment.  The active segment is sealed
+ * and a new segment is started once the segment reaches 64 MB or is a day old.  Sealed segments older than the
+ * retention period are deleted.
+ *
+ * The store can also be opened read-only (load() without start()) to query the events, see DecodeEventStoreCli.
+ */
+public class DecodeEventStore implements Listener<IDecodeEvent>
+{
+    private final static Logger mLog = LoggerFactory.getLogger(DecodeEventStore.class);
+    public static final String DIRECTORY_NAME = "event_store";
+    private static final DecodeEventRecord POISON_PILL = new DecodeEventRecord();
+    private static final int QUEUE_SIZE = 10000;
+    private static final int MAX_BATCH_SIZE = 256;
+    private static final int MAX_PENDING_EVENTS = 5000;
+    private static final long SETTLE_MS = 2000;
+    private static final long MAX_PENDING_AGE_MS = 60000;
+    private static final long SETTLE_INTERVAL_MS = 500;
+    private static final long MAX_SEGMENT_SIZE = 64L * 1024 * 1024;
+    private static final long MAX_SEGMENT_AGE_MS = TimeUnit.DAYS.toMillis(1);
+    private static final long RETENTION_INTERVAL_MS = TimeUnit.HOURS.toMillis(1);
+    private static final long DROPPED_LOG_INTERVAL_MS = 10000;
+    private static final long STOP_TIMEOUT_MS = 5000;
+    private Path mDirectory;
+    private long mRetentionMs;
+    private List<DecodeEventStoreSegment> mSegments = new CopyOnWriteArrayList<>();
+    private DecodeEventStoreSegment mActiveSegment;
+    private final Object mActiveSegmentLock = new Object();
+    private Dispatcher<DecodeEventRecord> mDispatcher;
+    //Access ordered, so that the least recently updated events are first
+    private Map<IDecodeEvent,PendingEvent> mPendingEvents = new LinkedHashMap<>(256, 0.75f, true);
+    private Map<IDecodeEvent,Long> mEventIds = new WeakHashMap<>();
+    private AtomicLong mEventIdSequence = new AtomicLong(System.currentTimeMillis() * 1000);
+    private ScheduledFuture<?> mSettleFuture;
+    private ScheduledFuture<?> mRetentionFuture;
+    private AtomicLong mWrittenCount = new AtomicLong();
+    private AtomicLong mDroppedCount = new AtomicLong();
+    private AtomicLong mErrorCount = new AtomicLong();
+    private volatile long mLastDroppedLogTimestamp;
+    private boolean mRunning;
+
+    /**
+     * Constructs an instance
+     * @param directory for the event store segment files
+     * @param retentionDays number of days to retain decode events, or zero to retain all decode events
+     */
+    public DecodeEventStore(Path directory, int retentionDays)
+    {
+        mDirectory = directory;
+        mRetentionMs = TimeUnit.DAYS.toMillis(Math.max(0, retentionDays));
+        mDispatcher = new Dispatcher<>(QUEUE_SIZE, "sdrtrunk decode event store", POISON_PILL);
+        mDispatcher.setBatchListener(new BatchWriter(), MAX_BATCH_SIZE);
+        mDispatcher.setDiscardListener(this::dropped);
+    }
+
+    /**
+     * Loads the existing segments from the store directory.
+     * @throws IOException if the store directory can't be read
+     */
+    public void load() throws IOException
+    {
+        if(!Files.isDirectory(mDirectory))
+        {
+            return;
+        }
+
+        List<DecodeEventStoreSegment> segments = new ArrayList<>();
+
+        try(DirectoryStream<Path> stream = Files.newDirectoryStream(mDirectory, DecodeEventStoreSegment::isDataFile))
+        {
+            for(Path path: stream)
+            {
+                try
+                {
+                    segments.add(DecodeEventStoreSegment.open(path));
+                }
+                catch(IOException | NumberFormatException e)
+                {
+                    mLog.error("Error opening decode event store segment [" + path + "] - ignoring", e);
+                }
+            }
+        }
+
+        segments.sort(Comparator.comparingLong(DecodeEventStoreSegment::getId));
+        mSegments.clear();
+        mSegments.addAll(segments);
+    }
+
+    /**
+     * Starts the store: loads the existing segments, seals any segments that were not sealed at the last shutdown
+     * and starts the writer thread and the periodic coalescing and retention tasks.
+     * @throws IOException if the store directory can't be created or read
+     */
+    public synchronized void start() throws IOException
+    {
+        if(mRunning)
+        {
+            return;
+        }
+
+        Files.createDirectories(mDirectory);
+        load();
+
+        for(DecodeEventStoreSegment segment: mSegments)
+        {
+            if(!segment.isSealed())
+            {
+                try
+                {
+                    segment.seal();
+                }
+                catch(IOException ioe)
+                {
+                    mLog.error("Error sealing decode event store segment [" + segment + "]", ioe);
+                }
+            }
+        }
+
+        mDispatcher.start();
+        mSettleFuture = ThreadPool.SCHEDULED.scheduleAtFixedRate(() -> flushPending(false), SETTLE_INTERVAL_MS,
+            SETTLE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+
+        if(mRetentionMs > 0)
+        {
+            mRetentionFuture = ThreadPool.SCHEDULED.scheduleAtFixedRate(this::applyRetention, 0,
+                RETENTION_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        }
+
+        mRunning = true;
+        mLog.info("Decode event store started [" + mDirectory + "] segments [" + mSegments.size() + "]");
+    }
+
+    /**
+     * Stops the store: writes all pending and queued decode events (waiting up to 5 seconds) and seals the active
+     * segment.
+     */
+    public synchronized void stop()
+    {
+        if(!mRunning)
+        {
+            return;
+        }
+
+        mRunning = false;
+        mSettleFuture.cancel(false);
+
+        if(mRetentionFuture != null)
+        {
+            mRetentionFuture.cancel(false);
+        }
+
+        flushPending(true);
+        mDispatcher.flushAndStop();
+
+        long deadline = System.currentTimeMillis() + STOP_TIMEOUT_MS;
+
+        while(mDispatcher.isRunning() && System.currentTimeMillis() < deadline)
+        {
+            try
+            {
+                Thread.sleep(10);
+            }
+            catch(InterruptedException ie)
+            {
+                break;
+            }
+        }
+
+        if(mDispatcher.isRunning())
+        {
+            mLog.warn("Timeout while waiting for queued decode events to be written to the decode event store");
+            mDispatcher.stop();
+        }
+
+        sealActiveSegment();
+        mLog.info(getMetricsSummary());
+    }
+
+    /**
+     * Receives a decode event, or an update to a previously received decode event, from a decoder.
+     */
+    @Override
+    public void receive(IDecodeEvent decodeEvent)
+    {
+        if(decodeEvent == null)
+        {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        Long eventId;
+
+        synchronized(mPendingEvents)
+        {
+            eventId = mEventIds.get(decodeEvent);
+
+            if(eventId == null)
+            {
+                eventId = mEventIdSequence.incrementAndGet();
+                mEventIds.put(decodeEvent, eventId);
+            }
+        }
+
+        //Snapshot the event on the decoder thread, outside of the lock
+        DecodeEventRecord record;
+
+        try
+        {
+            record = DecodeEventRecord.from(decodeEvent, eventId);
+        }
+        catch(Throwable t)
+        {
+            mErrorCount.incrementAndGet();
+            mLog.error("Error capturing decode event for the decode event store", t);
+            return;
+        }
+
+        synchronized(mPendingEvents)
+        {
+            PendingEvent pending = mPendingEvents.get(decodeEvent);
+
+            if(pending != null)
+            {
+                pending.mRecord = record;
+                pending.mLastUpdate = now;
+            }
+            else
+            {
+                //Too many events are being updated - write the least recently updated event to make room
+                if(mPendingEvents.size() >= MAX_PENDING_EVENTS)
+                {
+                    Iterator<Map.Entry<IDecodeEvent,PendingEvent>> it = mPendingEvents.entrySet().iterator();
+                    mDispatcher.receive(it.next().getValue().mRecord);
+                    it.remove();
+                }
+
+                mPendingEvents.put(decodeEvent, new PendingEvent(record, now));
+            }
+        }
+    }
+
+    /**
+     * Writes a version of each pending decode event that has settled (no updates for 2 seconds) or that has been
+     * pending for longer than a minute.  Unless all pending events are written, no more events are written than
+     * there is space in the write queue and the remaining events are written on the next pass.
+     * @param all true to write all pending decode events
+     */
+    private void flushPending(boolean all)
+    {
+        long now = System.currentTimeMillis();
+        int capacity = all ? Integer.MAX_VALUE : QUEUE_SIZE - mDispatcher.getQueueDepth();
+        int count = 0;
+
+        //Records are queued while holding the lock so that stop() can't queue the poison pill ahead of records that
+        //a concurrent settle pass has already removed from the pending map.  Queuing never blocks.
+        synchronized(mPendingEvents)
+        {
+            Iterator<PendingEvent> it = mPendingEvents.values().iterator();
+
+            while(it.hasNext() && count < capacity)
+            {
+                PendingEvent pending = it.next();
+
+                if(all || now - pending.mLastUpdate >= SETTLE_MS || now - pending.mFirstUpdate >= MAX_PENDING_AGE_MS)
+                {
+                    mDispatcher.receive(pending.mRecord);
+                    it.remove();
+                    count++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Counts a decode event record that was dropped because the queue was full and logs a (rate-limited) warning.
+     */
+    private void dropped(DecodeEventRecord record)
+    {
+        if(record != POISON_PILL)
+        {
+            long dropped = mDroppedCount.incrementAndGet();
+            long now = System.currentTimeMillis();
+
+            if(now - mLastDroppedLogTimestamp > DROPPED_LOG_INTERVAL_MS)
+            {
+                mLastDroppedLogTimestamp = now;
+                mLog.warn("Decode event store queue is full - total dropped decode events [" + dropped + "]");
+            }
+        }
+    }
+
+    /**
+     * Seals the active segment, if there is one.
+     */
+    private void sealActiveSegment()
+    {
+        synchronized(mActiveSegmentLock)
+        {
+            if(mActiveSegment != null)
+            {
+                try
+                {
+                    mActiveSegment.seal();
+                }
+                catch(IOException ioe)
+                {
+                    mLog.error("Error sealing decode event store segment [" + mActiveSegment + "]", ioe);
+                }
+
+                mActiveSegment = null;
+            }
+        }
+    }
+
+    /**
+     * Deletes sealed segments where all decode events are older than the retention period.
+     */
+    private void applyRetention()
+    {
+        long threshold = System.currentTimeMillis() - mRetentionMs;
+
+        for(DecodeEventStoreSegment segment: mSegments)
+        {
+            if(segment.isSealed() && segment.getMaxTime() < threshold && segment.getId() < threshold)
+            {
+                mSegments.remove(segment);
+
+                try
+                {
+                    segment.delete();
+                    mLog.info("Deleted expired decode event store segment [" + segment + "]");
+                }
+                catch(IOException ioe)
+                {
+                    mLog.error("Error deleting expired decode event store segment [" + segment + "]", ioe);
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the decode events that match the query.  Only the latest version of each decode event is returned.
+     * @param query to match
+     * @return matching decode events, most recent events first, up to the query limit
+     */
+    public List<DecodeEventRecord> query(DecodeEventQuery query)
+    {
+        List<DecodeEventRecord> results = new ArrayList<>();
+        Set<Long> eventIds = new HashSet<>();
+        List<DecodeEventStoreSegment> segments = new ArrayList<>(mSegments);
+        Comparator<DecodeEventRecord> mostRecentFirst = Comparator.comparingLong(DecodeEventRecord::getTimeStart)
+            .reversed();
+
+        //Newest segments first and newest records first within each segment, so the latest version of each decode
+        //event is found first
+        for(int x = segments.size() - 1; x >= 0; x--)
+        {
+            DecodeEventStoreSegment segment = segments.get(x);
+
+            //Stop once the limit is reached and the remaining (older) segments can't have more recent events
+            if(results.size() >= query.getLimit() &&
+                segment.getMaxTime() < results.get(results.size() - 1).getTimeStart())
+            {
+                break;
+            }
+
+            int[] positions = segment.getCandidatePositions(query);
+
+            if(positions.length == 0)
+            {
+                continue;
+            }
+
+            try(FileChannel channel = segment.openReader())
+            {
+                for(int y = positions.length - 1; y >= 0; y--)
+                {
+                    DecodeEventRecord record = segment.read(channel, positions[y]);
+
+                    if(eventIds.add(record.getEventId()) && query.matches(record))
+                    {
+                        results.add(record);
+                    }
+                }
+            }
+            catch(IOException ioe)
+            {
+                mLog.error("Error reading decode event store segment [" + segment + "]", ioe);
+            }
+
+            results.sort(mostRecentFirst);
+
+            if(results.size() > query.getLimit())
+            {
+                results.subList(query.getLimit(), results.size()).clear();
+            }
+        }
+
+        return results;
+    }
+
+    /**
+     * Number of segments in this store
+     */
+    public int getSegmentCount()
+    {
+        return mSegments.size();
+    }
+
+    /**
+     * Number of decode event records written to the store since start
+     */
+    public long getWrittenCount()
+    {
+        return mWrittenCount.get();
+    }
+
+    /**
+     * Number of decode event records dropped because the write queue was full
+     */
+    public long getDroppedCount()
+    {
+        return mDroppedCount.get();
+    }
+
+    /**
+     * Summary of the decode event store metrics for logging
+     */
+    public String getMetricsSummary()
+    {
+        int pending;
+
+        synchronized(mPendingEvents)
+        {
+            pending = mPendingEvents.size();
+        }
+
+        return "Decode event store - segments [" + mSegments.size() + "] written [" + mWrittenCount.get() +
+            "] dropped [" + mDroppedCount.get() + "] errors [" + mErrorCount.get() + "] pending [" + pending +
+            "] queued [" + mDispatcher.getQueueDepth() + "] batches [" + mDispatcher.getBatchCount() + "]";
+    }
+
+    /**
+     * Tracks a decode event that is being updated, with the record captured from the latest update, until a version
+     * of the event is written to the store.
+     */
+    private static class PendingEvent
+    {
+        private DecodeEventRecord mRecord;
+        private long mFirstUpdate;
+        private long mLastUpdate;
+
+        private PendingEvent(DecodeEventRecord record, long timestamp)
+        {
+            mRecord = record;
+            mFirstUpdate = timestamp;
+            mLastUpdate = timestamp;
+        }
+    }
+
+    /**
+     * Appends each batch of decode event records to the active segment, starting a new segment as needed.
+     */
+    private class BatchWriter implements IBatchListener<DecodeEventRecord>
+    {
+        @Override
+        public void receive(List<DecodeEventRecord> batch)
+        {
+            try
+            {
+                DecodeEventStoreSegment segment = getActiveSegment();
+                segment.append(batch);
+                mWrittenCount.addAndGet(batch.size());
+            }
+            catch(IOException ioe)
+            {
+                long errors = mErrorCount.incrementAndGet();
+
+                if(errors == 1 || errors % 1000 == 0)
+                {
+                    mLog.error("Error writing decode events to the decode event store - errors [" + errors + "]", ioe);
+                }
+
+                //Start a new segment with the next batch
+                sealActiveSegment();
+            }
+        }
+
+        /**
+         * Active segment for writing, sealing the current segment and starting a new segment when the current segment
+         * is full or too old.
+         */
+        private DecodeEventStoreSegment getActiveSegment() throws IOException
+        {
+            synchronized(mActiveSegmentLock)
+            {
+                long now = System.currentTimeMillis();
+
+                if(mActiveSegment != null && (mActiveSegment.getDataLength() >= MAX_SEGMENT_SIZE ||
+                    now - mActiveSegment.getId() >= MAX_SEGMENT_AGE_MS))
+                {
+                    sealActiveSegment();
+                }
+
+                if(mActiveSegment == null)
+                {
+                    long id = now;
+
+                    //Segment IDs must be unique and increasing
+                    for(DecodeEventStoreSegment segment: mSegments)
+                    {
+                        id = Math.max(id, segment.getId() + 1);
+                    }
+
+                    mActiveSegment = DecodeEventStoreSegment.create(mDirectory, id);
+                    mSegments.add(mActiveSegment);
+                }
+
+                return mActiveSegment;
+            }
+        }
+    }
+}
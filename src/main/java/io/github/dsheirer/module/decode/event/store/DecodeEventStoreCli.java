@@ -0,0 +1,176 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.module.decode.event.store;
+
+import io.github.dsheirer.preference.UserPreferences;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.apache.commons.csv.QuoteMode;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Command line query tool for the decode event store.  Opens the store read-only, so it can be used while the
+ * application is running, and prints the matching decode events as CSV, most recent events first.
+ *
+ * Example: all calls to talkgroup 1234 during the last 7 days
+ *
+ * DecodeEventStoreCli --talkgroup 1234 --days 7
+ */
+public class DecodeEventStoreCli
+{
+    private static void usage()
+    {
+        System.out.println("Usage: DecodeEventStoreCli [options]");
+        System.out.println("  --dir path         decode event store directory (default: event_store in the event " +
+            "log directory)");
+        System.out.println("  --from time        earliest event start time, inclusive (ISO date, date-time or instant)");
+        System.out.println("  --to time          latest event start time, exclusive (ISO date, date-time or instant)");
+        System.out.println("  --days count       events from the last number of days");
+        System.out.println("  --talkgroup id     events to the talkgroup or identifier (TO)");
+        System.out.println("  --radio id         events from the radio or identifier (FROM)");
+        System.out.println("  --protocol name    events for the protocol (e.g. APCO25_PHASE1)");
+        System.out.println("  --system name      events for the system");
+        System.out.println("  --limit count      maximum number of events (default: " + DecodeEventQuery.DEFAULT_LIMIT +
+            ")");
+    }
+
+    /**
+     * Parses an ISO instant (2022-05-01T10:15:30Z), local date-time (2022-05-01T10:15) or local date (2022-05-01)
+     * @return milliseconds since epoch
+     */
+    private static long parseTime(String value)
+    {
+        try
+        {
+            return Instant.parse(value).toEpochMilli();
+        }
+        catch(DateTimeParseException e)
+        {
+            //Try the local formats
+        }
+
+        try
+        {
+            return LocalDateTime.parse(value).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        }
+        catch(DateTimeParseException e)
+        {
+            return LocalDate.parse(value).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        }
+    }
+
+    public static void main(String[] args)
+    {
+        Path directory = null;
+        DecodeEventQuery.Builder builder = DecodeEventQuery.builder();
+
+        try
+        {
+            for(int x = 0; x < args.length; x++)
+            {
+                String option = args[x];
+
+                if(option.equals("--help") || option.equals("-h"))
+                {
+                    usage();
+                    System.exit(0);
+                }
+
+                if(++x >= args.length)
+                {
+                    usage();
+                    System.exit(1);
+                }
+
+                String value = args[x];
+
+                switch(option)
+                {
+                    case "--dir" -> directory = Path.of(value);
+                    case "--from" -> builder.from(parseTime(value));
+                    case "--to" -> builder.to(parseTime(value));
+                    case "--days" -> builder.from(System.currentTimeMillis() -
+                        TimeUnit.DAYS.toMillis(Long.parseLong(value)));
+                    case "--talkgroup" -> builder.talkgroup(value);
+                    case "--radio" -> builder.radio(value);
+                    case "--protocol" -> builder.protocol(value);
+                    case "--system" -> builder.system(value);
+                    case "--limit" -> builder.limit(Integer.parseInt(value));
+                    default ->
+                    {
+                        System.err.println("Unrecognized option: " + option);
+                        usage();
+                        System.exit(1);
+                    }
+                }
+            }
+
+            DecodeEventQuery query = builder.build();
+
+            if(directory == null)
+            {
+                directory = new UserPreferences().getDirectoryPreference().getDirectoryEventLog()
+                    .resolve(DecodeEventStore.DIRECTORY_NAME);
+            }
+
+            DecodeEventStore store = new DecodeEventStore(directory, 0);
+            store.load();
+            List<DecodeEventRecord> records = store.query(query);
+
+            CSVFormat format = CSVFormat.Builder.create(CSVFormat.DEFAULT).setQuoteMode(QuoteMode.ALL)
+                .setHeader(DecodeEventRecord.getColumnNames()).build();
+
+            try(CSVPrinter printer = new CSVPrinter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), format))
+            {
+                for(DecodeEventRecord record: records)
+                {
+                    Object[] cells = record.toCells();
+                    cells[0] = Instant.ofEpochMilli(record.getTimeStart());
+                    printer.printRecord(cells);
+                }
+            }
+
+            System.err.println("Events: " + records.size() + " from store segments: " + store.getSegmentCount());
+        }
+        catch(DateTimeParseException | IllegalArgumentException e)
+        {
+            System.err.println("Invalid argument - " + e.getMessage());
+            System.exit(1);
+        }
+        catch(IOException ioe)
+        {
+            System.err.println("Error reading decode event store - " + ioe.getMessage());
+            System.exit(1);
+        }
+
+        System.exit(0);
+    }
+}
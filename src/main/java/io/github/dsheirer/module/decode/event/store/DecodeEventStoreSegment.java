@@ -0,0 +1,748 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.module.decode.event.store;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Decode event store segment: an append-only data file of decode event records and the in-memory indexes over those
+ * records.
+ *
+ * Data file: 8-byte header (magic, version) followed by records.  Each record is framed as a 4-byte body length, the
+ * record body and a 4-byte CRC-32 of the body, so that a partially written record at the end of the file (e.g. after
+ * a crash) is detected and ignored.
+ *
+ * Indexes: record ordinals (append order) are indexed by event start time (one minute buckets), by TO and FROM
+ * identifier, by protocol and by system.  When a segment is sealed, the indexes are saved to an index file next to
+ * the data file, so that the indexes of sealed segments are loaded rather than rebuilt from the data file.
+ */
+class DecodeEventStoreSegment
+{
+    private final static Logger mLog = LoggerFactory.getLogger(DecodeEventStoreSegment.class);
+    static final int MAX_RECORD_LENGTH = 1024 * 1024;
+    static final String FILE_PREFIX = "events_";
+    static final String DATA_EXTENSION = ".events";
+    static final String INDEX_EXTENSION = ".index";
+    private static final int DATA_MAGIC = 0x53444556; //SDEV
+    private static final int INDEX_MAGIC = 0x53444549; //SDEI
+    private static final int VERSION = 1;
+    private static final int HEADER_LENGTH = 8;
+    private static final int FRAME_OVERHEAD = 8;
+    private static final long TIME_BUCKET_MS = 60000;
+
+    private long mId;
+    private Path mDataPath;
+    private Path mIndexPath;
+    private IntArray mPositions = new IntArray();
+    private Map<Long,IntArray> mTimeIndex = new HashMap<>();
+    private Map<String,IntArray> mToIndex = new HashMap<>();
+    private Map<String,IntArray> mFromIndex = new HashMap<>();
+    private Map<String,IntArray> mProtocolIndex = new HashMap<>();
+    private Map<String,IntArray> mSystemIndex = new HashMap<>();
+    private long mMinTime = Long.MAX_VALUE;
+    private long mMaxTime = Long.MIN_VALUE;
+    private long mDataLength;
+    private DataOutputStream mOutput;
+    private ByteArrayOutputStream mBodyBuffer;
+    private DataOutputStream mBodyOutput;
+    private CRC32 mCRC;
+    private boolean mSealed;
+
+    private DecodeEventStoreSegment(Path directory, long id)
+    {
+        mId = id;
+        mDataPath = directory.resolve(FILE_PREFIX + id + DATA_EXTENSION);
+        mIndexPath = directory.resolve(FILE_PREFIX + id + INDEX_EXTENSION);
+    }
+
+    /**
+     * Creates a new, writable segment
+     * @param directory for the segment files
+     * @param id for the segment (creation timestamp)
+     * @return segment
+     * @throws IOException if the data file can't be created
+     */
+    static DecodeEventStoreSegment create(Path directory, long id) throws IOException
+    {
+        DecodeEventStoreSegment segment = new DecodeEventStoreSegment(directory, id);
+        segment.mOutput = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(segment.mDataPath,
+            StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE), 65536));
+        segment.mOutput.writeInt(DATA_MAGIC);
+        segment.mOutput.writeInt(VERSION);
+        segment.mOutput.flush();
+        segment.mDataLength = HEADER_LENGTH;
+        segment.mBodyBuffer = new ByteArrayOutputStream();
+        segment.mBodyOutput = new DataOutputStream(segment.mBodyBuffer);
+        segment.mCRC = new CRC32();
+        return segment;
+    }
+
+    /**
+     * Opens an existing (read-only) segment, loading the saved indexes when the segment was sealed, or rebuilding
+     * the indexes from the data file otherwise.
+     * @param dataPath of the segment data file
+     * @return segment
+     * @throws IOException if the data file can't be read
+     */
+    static DecodeEventStoreSegment open(Path dataPath) throws IOException
+    {
+        String name = dataPath.getFileName().toString();
+        long id = Long.parseLong(name.substring(FILE_PREFIX.length(), name.length() - DATA_EXTENSION.length()));
+        DecodeEventStoreSegment segment = new DecodeEventStoreSegment(dataPath.getParent(), id);
+
+        if(!segment.loadIndex())
+        {
+            segment.rebuildIndex();
+        }
+
+        return segment;
+    }
+
+    /**
+     * Indicates if the file name is a segment data file name
+     */
+    static boolean isDataFile(Path path)
+    {
+        String name = path.getFileName().toString();
+        return name.startsWith(FILE_PREFIX) && name.endsWith(DATA_EXTENSION);
+    }
+
+    /**
+     * Segment ID (creation timestamp)
+     */
+    long getId()
+    {
+        return mId;
+    }
+
+    /**
+     * Indicates if this segment is sealed (complete and read-only)
+     */
+    boolean isSealed()
+    {
+        return mSealed;
+    }
+
+    /**
+     * Length of the committed data in the data file
+     */
+    synchronized long getDataLength()
+    {
+        return mDataLength;
+    }
+
+    /**
+     * Number of records in this segment
+     */
+    synchronized int getRecordCount()
+    {
+        return mPositions.size();
+    }
+
+    /**
+     * Earliest event start time in this segment, or Long.MAX_VALUE if empty
+     */
+    synchronized long getMinTime()
+    {
+        return mMinTime;
+    }
+
+    /**
+     * Latest event start time in this segment, or Long.MIN_VALUE if empty
+     */
+    synchronized long getMaxTime()
+    {
+        return mMaxTime;
+    }
+
+    /**
+     * Appends the records to the data file and then adds them to the indexes, so that queries only find records
+     * that have been written to the data file.
+     * @param records to append
+     * @throws IOException on any errors writing to the data file
+     */
+    void append(List<DecodeEventRecord> records) throws IOException
+    {
+        if(mOutput == null)
+        {
+            throw new IOException("Segment [" + mDataPath + "] is not writable");
+        }
+
+        long position = getDataLength();
+        long[] positions = new long[records.size()];
+
+        for(int x = 0; x < records.size(); x++)
+        {
+            mBodyBuffer.reset();
+            records.get(x).write(mBodyOutput);
+            mBodyOutput.flush();
+
+            byte[] body = mBodyBuffer.toByteArray();
+            mCRC.reset();
+            mCRC.update(body);
+
+            mOutput.writeInt(body.length);
+            mOutput.write(body);
+            mOutput.writeInt((int)mCRC.getValue());
+
+            positions[x] = position;
+            position += body.length + FRAME_OVERHEAD;
+        }
+
+        mOutput.flush();
+
+        synchronized(this)
+        {
+            for(int x = 0; x < records.size(); x++)
+            {
+                index(records.get(x), (int)positions[x]);
+            }
+
+            mDataLength = position;
+        }
+    }
+
+    /**
+     * Seals this segment: closes the data file and saves the indexes to the index file.  A segment that was opened
+     * with an incomplete record at the end of the data file (e.g. after a crash) is truncated to its last complete
+     * record.
+     */
+    void seal() throws IOException
+    {
+        if(mOutput != null)
+        {
+            mOutput.close();
+            mOutput = null;
+        }
+        else if(Files.size(mDataPath) > getDataLength())
+        {
+            try(FileChannel channel = FileChannel.open(mDataPath, StandardOpenOption.WRITE))
+            {
+                channel.truncate(getDataLength());
+            }
+        }
+
+        saveIndex();
+        mSealed = true;
+    }
+
+    /**
+     * Deletes the segment data and index files
+     */
+    void delete() throws IOException
+    {
+        Files.deleteIfExists(mIndexPath);
+        Files.deleteIfExists(mDataPath);
+    }
+
+    /**
+     * Adds the record at the data file position to the indexes.  Caller must hold this segment's monitor.
+     */
+    private void index(DecodeEventRecord record, int position)
+    {
+        int ordinal = mPositions.size();
+        mPositions.add(position);
+
+        long time = record.getTimeStart();
+        mMinTime = Math.min(mMinTime, time);
+        mMaxTime = Math.max(mMaxTime, time);
+        mTimeIndex.computeIfAbsent(Math.floorDiv(time, TIME_BUCKET_MS), key -> new IntArray()).add(ordinal);
+
+        index(mToIndex, record.getTo(), ordinal);
+        index(mToIndex, record.getToValue(), ordinal);
+        index(mFromIndex, record.getFrom(), ordinal);
+        index(mFromIndex, record.getFromValue(), ordinal);
+        index(mProtocolIndex, record.getProtocol(), ordinal);
+        index(mSystemIndex, record.getSystem(), ordinal);
+    }
+
+    private static void index(Map<String,IntArray> index, String value, int ordinal)
+    {
+        String key = DecodeEventRecord.normalize(value);
+
+        if(!key.isEmpty())
+        {
+            IntArray postings = index.computeIfAbsent(key, k -> new IntArray());
+
+            //The displayed identifier and the identifier value are often the same key
+            if(postings.size() == 0 || postings.last() != ordinal)
+            {
+                postings.add(ordinal);
+            }
+        }
+    }
+
+    /**
+     * Determines the data file positions of the records that can match the query, using the indexes.  The records
+     * must still be checked against the query, since time buckets are coarser than the query time range.
+     * @param query to match
+     * @return record positions in ascending order, possibly empty
+     */
+    synchronized int[] getCandidatePositions(DecodeEventQuery query)
+    {
+        if(mPositions.size() == 0 || query.getEnd() <= mMinTime || query.getStart() > mMaxTime)
+        {
+            return new int[0];
+        }
+
+        int[] ordinals = null;
+
+        for(Object[] criteria: new Object[][]{{mToIndex, query.getTalkgroup()}, {mFromIndex, query.getRadio()},
+            {mProtocolIndex, query.getProtocol()}, {mSystemIndex, query.getSystem()}})
+        {
+            String key = (String)criteria[1];
+
+            if(key != null)
+            {
+                @SuppressWarnings("unchecked")
+                IntArray postings = ((Map<String,IntArray>)criteria[0]).get(key);
+
+                if(postings == null)
+                {
+                    return new int[0];
+                }
+
+                ordinals = ordinals == null ? postings.toArray() : intersect(ordinals, postings.toArray());
+            }
+        }
+
+        if(query.getStart() > mMinTime || query.getEnd() <= mMaxTime)
+        {
+            ordinals = ordinals == null ? getTimeOrdinals(query) : intersect(ordinals, getTimeOrdinals(query));
+        }
+
+        if(ordinals == null)
+        {
+            return mPositions.toArray();
+        }
+
+        int[] positions = new int[ordinals.length];
+
+        for(int x = 0; x < ordinals.length; x++)
+        {
+            positions[x] = mPositions.get(ordinals[x]);
+        }
+
+        return positions;
+    }
+
+    /**
+     * Ordinals of the records in the time buckets that overlap the query time range, in ascending order
+     */
+    private int[] getTimeOrdinals(DecodeEventQuery query)
+    {
+        long first = Math.floorDiv(Math.max(query.getStart(), mMinTime), TIME_BUCKET_MS);
+        long last = Math.floorDiv(Math.min(query.getEnd() - 1, mMaxTime), TIME_BUCKET_MS);
+        IntArray ordinals = new IntArray();
+
+        if(last - first + 1 <= mTimeIndex.size())
+        {
+            for(long bucket = first; bucket <= last; bucket++)
+            {
+                IntArray postings = mTimeIndex.get(bucket);
+
+                if(postings != null)
+                {
+                    ordinals.addAll(postings);
+                }
+            }
+        }
+        else
+        {
+            for(Map.Entry<Long,IntArray> entry: mTimeIndex.entrySet())
+            {
+                if(first <= entry.getKey() && entry.getKey() <= last)
+                {
+                    ordinals.addAll(entry.getValue());
+                }
+            }
+        }
+
+        int[] sorted = ordinals.toArray();
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    /**
+     * Intersection of two sorted arrays
+     */
+    private static int[] intersect(int[] a, int[] b)
+    {
+        int[] result = new int[Math.min(a.length, b.length)];
+        int count = 0;
+        int x = 0;
+        int y = 0;
+
+        while(x < a.length && y < b.length)
+        {
+            if(a[x] < b[y])
+            {
+                x++;
+            }
+            else if(a[x] > b[y])
+            {
+                y++;
+            }
+            else
+            {
+                result[count++] = a[x];
+                x++;
+                y++;
+            }
+        }
+
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * Opens the data file for reading records
+     */
+    FileChannel openReader() throws IOException
+    {
+        return FileChannel.open(mDataPath, StandardOpenOption.READ);
+    }
+
+    /**
+     * Reads the record at the position
+     * @param channel from openReader()
+     * @param position of the record
+     * @return record
+     * @throws IOException if the record can't be read or is corrupt
+     */
+    DecodeEventRecord read(FileChannel channel, int position) throws IOException
+    {
+        ByteBuffer lengthBuffer = ByteBuffer.allocate(4);
+        readFully(channel, lengthBuffer, position);
+        int length = lengthBuffer.getInt(0);
+
+        if(length <= 0 || length > MAX_RECORD_LENGTH)
+        {
+            throw new IOException("Invalid record length [" + length + "] at position [" + position + "]");
+        }
+
+        ByteBuffer frame = ByteBuffer.allocate(length + 4);
+        readFully(channel, frame, position + 4);
+
+        CRC32 crc = new CRC32();
+        crc.update(frame.array(), 0, length);
+
+        if((int)crc.getValue() != frame.getInt(length))
+        {
+            throw new IOException("Record CRC mismatch at position [" + position + "]");
+        }
+
+        return DecodeEventRecord.read(new DataInputStream(new ByteArrayInputStream(frame.array(), 0, length)));
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException
+    {
+        while(buffer.hasRemaining())
+        {
+            int read = channel.read(buffer, position + buffer.position());
+
+            if(read < 0)
+            {
+                throw new IOException("Unexpected end of segment data file");
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the indexes by scanning the data file.  Scanning stops at the first incomplete or corrupt record.
+     */
+    private void rebuildIndex() throws IOException
+    {
+        try(FileChannel channel = openReader())
+        {
+            long size = channel.size();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+
+            if(size < HEADER_LENGTH)
+            {
+                throw new IOException("Segment data file [" + mDataPath + "] is too short");
+            }
+
+            readFully(channel, header, 0);
+
+            if(header.getInt(0) != DATA_MAGIC || header.getInt(4) != VERSION)
+            {
+                throw new IOException("Segment data file [" + mDataPath + "] has an unrecognized format");
+            }
+
+            long position = HEADER_LENGTH;
+            ByteBuffer lengthBuffer = ByteBuffer.allocate(4);
+
+            synchronized(this)
+            {
+                while(position + FRAME_OVERHEAD <= size)
+                {
+                    lengthBuffer.clear();
+                    readFully(channel, lengthBuffer, position);
+                    int length = lengthBuffer.getInt(0);
+
+                    if(length <= 0 || length > MAX_RECORD_LENGTH || position + length + FRAME_OVERHEAD > size)
+                    {
+                        break;
+                    }
+
+                    try
+                    {
+                        index(read(channel, (int)position), (int)position);
+                    }
+                    catch(IOException ioe)
+                    {
+                        mLog.warn("Ignoring corrupt record at position [" + position + "] in [" + mDataPath + "]");
+                        break;
+                    }
+
+                    position += length + FRAME_OVERHEAD;
+                }
+
+                mDataLength = position;
+            }
+        }
+    }
+
+    /**
+     * Saves the indexes to the index file
+     */
+    private synchronized void saveIndex() throws IOException
+    {
+        try(DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(mIndexPath))))
+        {
+            output.writeInt(INDEX_MAGIC);
+            output.writeInt(VERSION);
+            output.writeLong(mDataLength);
+            output.writeLong(mMinTime);
+            output.writeLong(mMaxTime);
+            mPositions.write(output);
+
+            output.writeInt(mTimeIndex.size());
+
+            for(Map.Entry<Long,IntArray> entry: mTimeIndex.entrySet())
+            {
+                output.writeLong(entry.getKey());
+                entry.getValue().write(output);
+            }
+
+            for(Map<String,IntArray> index: getStringIndexes())
+            {
+                output.writeInt(index.size());
+
+                for(Map.Entry<String,IntArray> entry: index.entrySet())
+                {
+                    output.writeUTF(entry.getKey());
+                    entry.getValue().write(output);
+                }
+            }
+        }
+    }
+
+    /**
+     * Loads the indexes from the index file, if it exists and matches the data file.
+     * @return true if the indexes were loaded
+     */
+    private synchronized boolean loadIndex()
+    {
+        if(!Files.exists(mIndexPath))
+        {
+            return false;
+        }
+
+        try(DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(mIndexPath))))
+        {
+            if(input.readInt() != INDEX_MAGIC || input.readInt() != VERSION)
+            {
+                mLog.warn("Ignoring index file with unrecognized format [" + mIndexPath + "]");
+                return false;
+            }
+
+            long dataLength = input.readLong();
+
+            if(dataLength != Files.size(mDataPath))
+            {
+                mLog.warn("Ignoring index file that doesn't match the data file [" + mIndexPath + "]");
+                return false;
+            }
+
+            mDataLength = dataLength;
+            mMinTime = input.readLong();
+            mMaxTime = input.readLong();
+            mPositions = IntArray.read(input);
+
+            int timeBuckets = input.readInt();
+
+            for(int x = 0; x < timeBuckets; x++)
+            {
+                mTimeIndex.put(input.readLong(), IntArray.read(input));
+            }
+
+            for(Map<String,IntArray> index: getStringIndexes())
+            {
+                int keys = input.readInt();
+
+                for(int x = 0; x < keys; x++)
+                {
+                    index.put(input.readUTF(), IntArray.read(input));
+                }
+            }
+
+            mSealed = true;
+            return true;
+        }
+        catch(IOException ioe)
+        {
+            mLog.warn("Error loading index file [" + mIndexPath + "] - rebuilding index", ioe);
+            mPositions = new IntArray();
+            mTimeIndex.clear();
+
+            for(Map<String,IntArray> index: getStringIndexes())
+            {
+                index.clear();
+            }
+
+            mMinTime = Long.MAX_VALUE;
+            mMaxTime = Long.MIN_VALUE;
+            return false;
+        }
+    }
+
+    private List<Map<String,IntArray>> getStringIndexes()
+    {
+        List<Map<String,IntArray>> indexes = new ArrayList<>();
+        indexes.add(mToIndex);
+        indexes.add(mFromIndex);
+        indexes.add(mProtocolIndex);
+        indexes.add(mSystemIndex);
+        return indexes;
+    }
+
+    @Override
+    public String toString()
+    {
+        return mDataPath.toString();
+    }
+
+    /**
+     * Growable array of int values (record positions or ordinals)
+     */
+    private static class IntArray
+    {
+        private int[] mValues;
+        private int mSize;
+
+        private IntArray()
+        {
+            this(4);
+        }
+
+        private IntArray(int capacity)
+        {
+            mValues = new int[Math.max(1, capacity)];
+        }
+
+        private void add(int value)
+        {
+            if(mSize == mValues.length)
+            {
+                mValues = Arrays.copyOf(mValues, mSize * 2);
+            }
+
+            mValues[mSize++] = value;
+        }
+
+        private void addAll(IntArray other)
+        {
+            for(int x = 0; x < other.mSize; x++)
+            {
+                add(other.mValues[x]);
+            }
+        }
+
+        private int get(int index)
+        {
+            return mValues[index];
+        }
+
+        private int last()
+        {
+            return mValues[mSize - 1];
+        }
+
+        private int size()
+        {
+            return mSize;
+        }
+
+        private int[] toArray()
+        {
+            return Arrays.copyOf(mValues, mSize);
+        }
+
+        private void write(DataOutputStream output) throws IOException
+        {
+            output.writeInt(mSize);
+
+            for(int x = 0; x < mSize; x++)
+            {
+                output.writeInt(mValues[x]);
+            }
+        }
+
+        private static IntArray read(DataInputStream input) throws IOException
+        {
+            int size = input.readInt();
+
+            if(size < 0)
+            {
+                throw new IOException("Invalid index size [" + size + "]");
+            }
+
+            IntArray array = new IntArray(size);
+
+            for(int x = 0; x < size; x++)
+            {
+                array.add(input.readInt());
+            }
+
+            return array;
+        }
+    }
+}
@@ -61,7 +61,7 @@ public class Fleetsync2Decoder extends AbstractAFSKDecoder
     private void init()
     {
         mMessageFramer = new MessageFramer(SyncPattern.FLEETSYNC2.getPattern(), MESSAGE_LENGTH);
-        getDecoder().setSymbolProcessor(mMessageFramer);
+        setSymbolProcessor(mMessageFramer);
         mMessageProcessor = new Fleetsync2MessageProcessor();
         mMessageFramer.addMessageListener(mMessageProcessor);
         mMessageProcessor.setMessageListener(getMessageListener());
@@ -76,6 +76,7 @@ public class Fleetsync2Decoder extends AbstractAFSKDecoder
     @Override
     public void reset()
     {
+        super.reset();
         mMessageFramer.reset();
     }
 }
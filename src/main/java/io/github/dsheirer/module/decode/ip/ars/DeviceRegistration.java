@@ -21,6 +21,7 @@
 package io.github.dsheirer.module.decode.ip.ars;
 
 import io.github.dsheirer.bits.BinaryMessage;
+import io.github.dsheirer.bits.FieldExtractor;
 import io.github.dsheirer.identifier.Identifier;
 import io.github.dsheirer.module.decode.ip.ars.identifier.ARSDevice;
 import io.github.dsheirer.module.decode.ip.ars.identifier.ARSPassword;
@@ -39,7 +40,7 @@ public class DeviceRegistration extends ARSHeader
     private final static Logger mLog = LoggerFactory.getLogger(DeviceRegistration.class);
 
     private static final int SECOND_HEADER_EXTENSION_FLAG = 24;
-    private static final int[] EVENT = {25, 26};
+    private static final FieldExtractor EVENT = FieldExtractor.of(25, 26);
     private static final int[] ENCODING = {27, 28, 29, 30, 31};
     private static final int DEVICE_IDENTIFIER_START = 24;
     private static final int DEVICE_IDENTIFIER_START_EXTENDED_HEADER = 32;
@@ -21,6 +21,7 @@
 package io.github.dsheirer.module.decode.ip.ars;
 
 import io.github.dsheirer.bits.BinaryMessage;
+import io.github.dsheirer.bits.FieldExtractor;
 import io.github.dsheirer.identifier.Identifier;
 
 import java.util.Collections;
@@ -28,7 +29,7 @@ import java.util.List;
 
 public class RegistrationAcknowledgement extends ARSHeader
 {
-    private static final int[] TIMER_OR_REASON = {25, 26, 27, 28, 29, 30, 31};
+    private static final FieldExtractor TIMER_OR_REASON = FieldExtractor.of(25, 26, 27, 28, 29, 30, 31);
 
     /**
      * Constructs a parser for a header contained within a binary message starting at the offset.
@@ -21,6 +21,7 @@
 package io.github.dsheirer.module.decode.ip.ipv4;
 
 import io.github.dsheirer.bits.BinaryMessage;
+import io.github.dsheirer.bits.FieldExtractor;
 import io.github.dsheirer.identifier.ipv4.IPV4Identifier;
 import io.github.dsheirer.module.decode.ip.Header;
 import io.github.dsheirer.module.decode.ip.IPProtocol;
@@ -28,14 +29,17 @@ import io.github.dsheirer.module.decode.p25.identifier.ipv4.APCO25IpAddress;
 
 public class IPV4Header extends Header
 {
-    private static final int[] VERSION = {0, 1, 2, 3};
-    private static final int[] HEADER_LENGTH = {4, 5, 6, 7};
-    private static final int[] TOTAL_LENGTH = {16, 17, 18, 19, 20, 21, 22, 23, 24, 25, 26, 27, 28, 29, 30, 31};
-    private static final int[] PROTOCOL = {72, 73, 74, 75, 76, 77, 78, 79};
-    private static final int[] FROM_ADDRESS = {96, 97, 98, 99, 100, 101, 102, 103, 104, 105, 106, 107, 108, 109, 110,
-        111, 112, 113, 114, 115, 116, 117, 118, 119, 120, 121, 122, 123, 124, 125, 126, 127};
-    private static final int[] TO_ADDRESS = {128, 129, 130, 131, 132, 133, 134, 135, 136, 137, 138, 139, 140, 141, 142,
-        143, 144, 145, 146, 147, 148, 149, 150, 151, 152, 153, 154, 155, 156, 157, 158, 159};
+    private static final FieldExtractor VERSION = FieldExtractor.of(0, 1, 2, 3);
+    private static final FieldExtractor HEADER_LENGTH = FieldExtractor.of(4, 5, 6, 7);
+    private static final FieldExtractor TOTAL_LENGTH = FieldExtractor.of(16, 17, 18, 19, 20, 21, 22, 23, 24, 25, 26, 27,
+            28, 29, 30, 31);
+    private static final FieldExtractor PROTOCOL = FieldExtractor.of(72, 73, 74, 75, 76, 77, 78, 79);
+    private static final FieldExtractor FROM_ADDRESS = FieldExtractor.of(96, 97, 98, 99, 100, 101, 102, 103, 104, 105,
+            106, 107, 108, 109, 110, 111, 112, 113, 114, 115, 116, 117, 118, 119, 120, 121, 122, 123, 124, 125, 126,
+            127);
+    private static final FieldExtractor TO_ADDRESS = FieldExtractor.of(128, 129, 130, 131, 132, 133, 134, 135, 136, 137,
+            138, 139, 140, 141, 142, 143, 144, 145, 146, 147, 148, 149, 150, 151, 152, 153, 154, 155, 156, 157, 158,
+            159);
 
     private IPV4Identifier mFromAddress;
     private IPV4Identifier mToAddress;
@@ -20,6 +20,7 @@
 package io.github.dsheirer.module.decode.ip.lrrp;
 
 import io.github.dsheirer.bits.BinaryMessage;
+import io.github.dsheirer.bits.FieldExtractor;
 import io.github.dsheirer.identifier.Identifier;
 import io.github.dsheirer.module.decode.ip.Header;
 
@@ -31,8 +32,8 @@ import java.util.List;
  */
 public class LRRPHeader extends Header
 {
-    private static final int[] TYPE = {0, 1, 2, 3, 4, 5, 6, 7};
-    private static final int[] LENGTH = {8, 9, 10, 11, 12, 13, 14, 15};
+    private static final FieldExtractor TYPE = FieldExtractor.of(0, 1, 2, 3, 4, 5, 6, 7);
+    private static final FieldExtractor LENGTH = FieldExtractor.of(8, 9, 10, 11, 12, 13, 14, 15);
 
     /**
      * Constructs a parser for a header contained within a binary message starting at the offset.
@@ -52,7 +52,7 @@ public class MDCDecoder extends AbstractAFSKDecoder
     private void init()
     {
         mNRZDecoder = new NRZDecoder(NRZDecoder.MODE_INVERTED);
-        getDecoder().setSymbolProcessor(mNRZDecoder);
+        setSymbolProcessor(mNRZDecoder);
         mMessageFramer = new MessageFramer(SyncPattern.MDC1200.getPattern(), MESSAGE_LENGTH);
         mNRZDecoder.setListener(mMessageFramer);
         mMessageProcessor = new MDCMessageProcessor();
@@ -24,6 +24,7 @@ import io.github.dsheirer.controller.channel.ChannelEvent;
 import io.github.dsheirer.controller.channel.ChannelEvent.Event;
 import io.github.dsheirer.controller.channel.IChannelEventListener;
 import io.github.dsheirer.controller.channel.IChannelEventProvider;
+import io.github.dsheirer.controller.channel.event.ChannelPrewarmRequest;
 import io.github.dsheirer.controller.channel.event.ChannelStartProcessingRequest;
 import io.github.dsheirer.identifier.Identifier;
 import io.github.dsheirer.identifier.IdentifierCollection;
@@ -693,6 +694,11 @@ public class P25TrafficChannelManager extends TrafficChannelManager implements I
     @Override
     public void start()
     {
+        //Pre-construct processing chains for the first traffic channels that will be allocated
+        if(mManagedPhase1TrafficChannels != null && !mManagedPhase1TrafficChannels.isEmpty())
+        {
+            getInterModuleEventBus().post(new ChannelPrewarmRequest(mManagedPhase1TrafficChannels));
+        }
     }
 
     @Override
@@ -38,6 +38,7 @@ public class DecodeConfigP25Phase1 extends DecodeConfiguration
 
     private int mTrafficChannelPoolSize = TRAFFIC_CHANNEL_LIMIT_DEFAULT;
     private boolean mIgnoreDataCalls = false;
+    private boolean mSoftDecision = false;
 
     public DecodeConfigP25Phase1()
     {
@@ -71,6 +72,22 @@ public class DecodeConfigP25Phase1 extends DecodeConfiguration
         mIgnoreDataCalls = ignore;
     }
 
+    /**
+     * Indicates if the C4FM decoder should use soft-decision trellis decoding for TSBK and PDU blocks.
+     */
+    @JacksonXmlProperty(isAttribute = true, localName = "soft_decision")
+    public boolean isSoftDecision()
+    {
+        return mSoftDecision;
+    }
+
+    /**
+     * Enables or disables soft-decision trellis decoding for the C4FM decoder
+     */
+    public void setSoftDecision(boolean softDecision)
+    {
+        mSoftDecision = softDecision;
+    }
 
     @JacksonXmlProperty(isAttribute = true, localName = "traffic_channel_pool_size")
     public int getTrafficChannelPoolSize()
@@ -55,14 +55,27 @@ public class P25P1DecoderC4FM extends P25P1Decoder
     private Map<Double,float[]> mBasebandFilters = new HashMap<>();
     protected IRealFilter mIBasebandFilter;
     protected IRealFilter mQBasebandFilter;
+    private boolean mSoftDecision;
 
     /**
      * P25 Phase 1 - standard C4FM modulation decoder.  Uses Differential QPSK decoding with a Costas PLL and a
      * decision-directed phase and timing error detector.
      */
     public P25P1DecoderC4FM()
+    {
+        this(false);
+    }
+
+    /**
+     * P25 Phase 1 - standard C4FM modulation decoder with optional soft-decision trellis decoding where the
+     * demodulator's per-symbol decision confidence is used by the Viterbi decoder for TSBK and PDU blocks.
+     *
+     * @param softDecision true to enable soft-decision trellis decoding
+     */
+    public P25P1DecoderC4FM(boolean softDecision)
     {
         super(4800.0);
+        mSoftDecision = softDecision;
         setSampleRate(25000.0);
     }
 
@@ -90,6 +103,12 @@ public class P25P1DecoderC4FM extends P25P1Decoder
         mMessageFramer.setSyncDetectListener(mFrequencyCorrectionSyncMonitor);
         mMessageFramer.setListener(getMessageProcessor());
         mMessageFramer.setSampleRate(sampleRate);
+        mMessageFramer.setSoftDecision(mSoftDecision);
+
+        if(mSoftDecision)
+        {
+            mQPSKDemodulator.setSymbolConfidenceListener(mMessageFramer);
+        }
 
         mQPSKDemodulator.setSymbolListener(getDibitBroadcaster());
         getDibitBroadcaster().addListener(mMessageFramer);
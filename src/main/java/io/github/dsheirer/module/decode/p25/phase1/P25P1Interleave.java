@@ -118,6 +118,26 @@ public class P25P1Interleave
         return message;
     }
 
+    /**
+     * Deinterleaves per-dibit symbol confidence values to align with a message deinterleaved with the pattern.  The
+     * data deinterleave pattern moves bits in (even-aligned) pairs, so each dibit maps to a single dibit position.
+     *
+     * @param pattern to use for deinterleaving
+     * @param interleaved confidence values with one value per dibit of the interleaved message
+     * @return deinterleaved confidence values with length equal to half of the pattern length
+     */
+    public static float[] deinterleaveDibitConfidence(int[] pattern, float[] interleaved)
+    {
+        float[] deinterleaved = new float[pattern.length / 2];
+
+        for(int x = 0; x < deinterleaved.length; x++)
+        {
+            deinterleaved[pattern[x * 2] / 2] = interleaved[x];
+        }
+
+        return deinterleaved;
+    }
+
     /**
      * Deinterleaves the message bits between start and end and returns them in a new message
      * @param pattern to use for deinterleaving
@@ -28,6 +28,7 @@ import io.github.dsheirer.bits.CorrectedBinaryMessage;
 import io.github.dsheirer.controller.channel.Channel;
 import io.github.dsheirer.dsp.psk.pll.IPhaseLockedLoop;
 import io.github.dsheirer.dsp.symbol.Dibit;
+import io.github.dsheirer.dsp.symbol.ISymbolConfidenceListener;
 import io.github.dsheirer.dsp.symbol.ISyncDetectListener;
 import io.github.dsheirer.message.IMessage;
 import io.github.dsheirer.message.Message;
@@ -68,7 +69,7 @@ import java.util.function.Consumer;
  * P25 Sync Detector and Message Framer.  Includes capability to detect PLL out-of-phase lock errors
  * and issue phase corrections.
  */
-public class P25P1MessageFramer implements Listener<Dibit>, IP25P1DataUnitDetectListener
+public class P25P1MessageFramer implements Listener<Dibit>, IP25P1DataUnitDetectListener, ISymbolConfidenceListener
 {
     private final static Logger mLog = LoggerFactory.getLogger(P25P1MessageFramer.class);
 
@@ -86,6 +87,10 @@ public class P25P1MessageFramer implements Listener<Dibit>, IP25P1DataUnitDetect
     private double mBitRate;
     private long mCurrentTime = System.currentTimeMillis();
     private ISyncDetectListener mSyncDetectListener;
+    private boolean mSoftDecision = false;
+    private float mSymbolConfidence = 1.0f;
+    //Symbol confidence for each dibit of a 196-bit trellis coded TSBK/PDU block
+    private float[] mDibitConfidence = new float[98];
 
     public P25P1MessageFramer(IPhaseLockedLoop phaseLockedLoop, int bitRate)
     {
@@ -106,6 +111,35 @@ public class P25P1MessageFramer implements Listener<Dibit>, IP25P1DataUnitDetect
         mDataUnitDetector.setSampleRate(sampleRate);
     }
 
+    /**
+     * Enables or disables soft-decision trellis decoding of TSBK and PDU blocks.  When enabled, this framer must be
+     * registered as the symbol confidence listener for the demodulator that produces the dibit stream.
+     */
+    public void setSoftDecision(boolean softDecision)
+    {
+        mSoftDecision = softDecision;
+    }
+
+    /**
+     * Receives the decision confidence for the next dibit symbol that will be received by this framer.
+     */
+    @Override
+    public void symbolConfidence(float confidence)
+    {
+        mSymbolConfidence = confidence;
+    }
+
+    /**
+     * Dibit symbol confidence values for the current trellis coded message block when soft-decision decoding is
+     * enabled.
+     *
+     * @return confidence values or null for hard-decision decoding
+     */
+    private float[] getDibitConfidence()
+    {
+        return mSoftDecision ? mDibitConfidence : null;
+    }
+
     /**
      * Registers a sync detect listener to be notified each time a sync pattern and NID are detected.
      */
@@ -191,6 +225,16 @@ public class P25P1MessageFramer implements Listener<Dibit>, IP25P1DataUnitDetect
 
             try
             {
+                if(mSoftDecision)
+                {
+                    int dibitIndex = mBinaryMessage.pointer() / 2;
+
+                    if(dibitIndex < mDibitConfidence.length)
+                    {
+                        mDibitConfidence[dibitIndex] = mSymbolConfidence;
+                    }
+                }
+
                 mBinaryMessage.add(dibit.getBit1());
                 mBinaryMessage.add(dibit.getBit2());
                 
@@ -234,7 +278,8 @@ public class P25P1MessageFramer implements Listener<Dibit>, IP25P1DataUnitDetect
             switch(mDataUnitID)
             {
                 case PACKET_HEADER_DATA_UNIT:
-                    mPDUSequence = PDUMessageFactory.createPacketSequence(mNAC, mCurrentTime, mBinaryMessage);
+                    mPDUSequence = PDUMessageFactory.createPacketSequence(mNAC, mCurrentTime, mBinaryMessage,
+                        getDibitConfidence());
 
                     if(mPDUSequence != null)
                     {
@@ -262,11 +307,13 @@ public class P25P1MessageFramer implements Listener<Dibit>, IP25P1DataUnitDetect
                     {
                         if(mPDUSequence.getHeader().isConfirmationRequired())
                         {
-                            mPDUSequence.addDataBlock(PDUMessageFactory.createConfirmedDataBlock(mBinaryMessage));
+                            mPDUSequence.addDataBlock(PDUMessageFactory.createConfirmedDataBlock(mBinaryMessage,
+                                getDibitConfidence()));
                         }
                         else
                         {
-                            mPDUSequence.addDataBlock(PDUMessageFactory.createUnconfirmedDataBlock(mBinaryMessage));
+                            mPDUSequence.addDataBlock(PDUMessageFactory.createUnconfirmedDataBlock(mBinaryMessage,
+                                getDibitConfidence()));
                         }
 
                         if(mPDUSequence.isComplete())
@@ -321,7 +368,7 @@ public class P25P1MessageFramer implements Listener<Dibit>, IP25P1DataUnitDetect
                 case TRUNKING_SIGNALING_BLOCK_2:
                 case TRUNKING_SIGNALING_BLOCK_3:
                     TSBKMessage tsbkMessage = TSBKMessageFactory.create(mChannelStatusProcessor.getDirection(),
-                        mDataUnitID, mBinaryMessage, mNAC, getTimestamp());
+                        mDataUnitID, mBinaryMessage, getDibitConfidence(), mNAC, getTimestamp());
 
                     mMessageListener.receive(tsbkMessage);
 
@@ -21,6 +21,7 @@
 package io.github.dsheirer.module.decode.p25.phase1.message.lc;
 
 import io.github.dsheirer.bits.BinaryMessage;
+import io.github.dsheirer.bits.FieldExtractor;
 import io.github.dsheirer.identifier.Identifier;
 import io.github.dsheirer.module.decode.p25.reference.Vendor;
 
@@ -34,8 +35,8 @@ public abstract class LinkControlWord
 {
     private static final int ENCRYPTION_FLAG = 0;
     private static final int STANDARD_VENDOR_ID_FLAG = 1;
-    private static final int[] OPCODE = {2, 3, 4, 5, 6, 7};
-    private static final int[] VENDOR = {8, 9, 10, 11, 12, 13, 14, 15};
+    private static final FieldExtractor OPCODE = FieldExtractor.of(2, 3, 4, 5, 6, 7);
+    private static final FieldExtractor VENDOR = FieldExtractor.of(8, 9, 10, 11, 12, 13, 14, 15);
 
     private BinaryMessage mMessage;
     private LinkControlOpcode mLinkControlOpcode;
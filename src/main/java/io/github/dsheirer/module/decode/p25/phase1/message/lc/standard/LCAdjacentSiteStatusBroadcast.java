@@ -23,6 +23,7 @@
 package io.github.dsheirer.module.decode.p25.phase1.message.lc.standard;
 
 import io.github.dsheirer.bits.BinaryMessage;
+import io.github.dsheirer.bits.FieldExtractor;
 import io.github.dsheirer.channel.IChannelDescriptor;
 import io.github.dsheirer.identifier.Identifier;
 import io.github.dsheirer.module.decode.p25.identifier.APCO25Lra;
@@ -42,13 +43,14 @@ import java.util.List;
  */
 public class LCAdjacentSiteStatusBroadcast extends LinkControlWord implements IFrequencyBandReceiver
 {
-    private static final int[] LRA = {8, 9, 10, 11, 12, 13, 14, 15};
-    private static final int[] SYSTEM = {20, 21, 22, 23, 24, 25, 26, 27, 28, 29, 30, 31};
-    private static final int[] RFSS = {32, 33, 34, 35, 36, 37, 38, 39};
-    private static final int[] SITE = {40, 41, 42, 43, 44, 45, 46, 47};
-    private static final int[] FREQUENCY_BAND = {48, 49, 50, 51};
-    private static final int[] CHANNEL_NUMBER = {52, 53, 54, 55, 56, 57, 58, 59, 60, 61, 62, 63};
-    private static final int[] SERVICE_CLASS = {64, 65, 66, 67, 68, 69, 70, 71};
+    private static final FieldExtractor LRA = FieldExtractor.of(8, 9, 10, 11, 12, 13, 14, 15);
+    private static final FieldExtractor SYSTEM = FieldExtractor.of(20, 21, 22, 23, 24, 25, 26, 27, 28, 29, 30, 31);
+    private static final FieldExtractor RFSS = FieldExtractor.of(32, 33, 34, 35, 36, 37, 38, 39);
+    private static final FieldExtractor SITE = FieldExtractor.of(40, 41, 42, 43, 44, 45, 46, 47);
+    private static final FieldExtractor FREQUENCY_BAND = FieldExtractor.of(48, 49, 50, 51);
+    private static final FieldExtractor CHANNEL_NUMBER = FieldExtractor.of(52, 53, 54, 55, 56, 57, 58, 59, 60, 61, 62,
+            63);
+    private static final FieldExtractor SERVICE_CLASS = FieldExtractor.of(64, 65, 66, 67, 68, 69, 70, 71);
 
     private List<Identifier> mIdentifiers;
     private Identifier mLRA;
@@ -23,6 +23,7 @@
 package io.github.dsheirer.module.decode.p25.phase1.message.lc.standard;
 
 import io.github.dsheirer.bits.BinaryMessage;
+import io.github.dsheirer.bits.FieldExtractor;
 import io.github.dsheirer.identifier.Identifier;
 import io.github.dsheirer.module.decode.p25.identifier.talkgroup.APCO25Talkgroup;
 import io.github.dsheirer.module.decode.p25.phase1.message.lc.LinkControlWord;
@@ -38,8 +39,8 @@ public class LCCallTermination extends LinkControlWord
     private static final int MOTOROLA_SYSTEM_CONTROLLER = 0xFFFFFD;
     private static final int HARRIS_SYSTEM_CONTROLLER = 0;
 
-    private static final int[] ADDRESS = {48, 49, 50, 51, 52, 53, 54, 55, 56, 57, 58, 59, 60, 61, 62, 63, 64, 65, 66,
-            67, 68, 69, 70, 71};
+    private static final FieldExtractor ADDRESS = FieldExtractor.of(48, 49, 50, 51, 52, 53, 54, 55, 56, 57, 58, 59, 60,
+            61, 62, 63, 64, 65, 66, 67, 68, 69, 70, 71);
 
     private Identifier mAddress;
     private List<Identifier> mIdentifiers;
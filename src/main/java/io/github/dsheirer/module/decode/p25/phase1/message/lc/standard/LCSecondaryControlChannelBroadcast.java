@@ -23,6 +23,7 @@
 package io.github.dsheirer.module.decode.p25.phase1.message.lc.standard;
 
 import io.github.dsheirer.bits.BinaryMessage;
+import io.github.dsheirer.bits.FieldExtractor;
 import io.github.dsheirer.channel.IChannelDescriptor;
 import io.github.dsheirer.identifier.Identifier;
 import io.github.dsheirer.module.decode.p25.identifier.APCO25Rfss;
@@ -40,14 +41,16 @@ import java.util.List;
  */
 public class LCSecondaryControlChannelBroadcast extends LinkControlWord implements IFrequencyBandReceiver
 {
-    private static final int[] RFSS = {8, 9, 10, 11, 12, 13, 14, 15};
-    private static final int[] SITE = {16, 17, 18, 19, 20, 21, 22, 23};
-    private static final int[] FREQUENCY_BAND_A = {24, 25, 26, 27};
-    private static final int[] CHANNEL_NUMBER_A = {28, 29, 30, 31, 32, 33, 34, 35, 36, 37, 38, 39};
-    private static final int[] SERVICE_CLASS_A = {40, 41, 42, 43, 44, 45, 46, 47};
-    private static final int[] FREQUENCY_BAND_B = {48, 49, 50, 51};
-    private static final int[] CHANNEL_NUMBER_B = {52, 53, 54, 55, 56, 57, 58, 59, 60, 61, 62, 63};
-    private static final int[] SERVICE_CLASS_B = {64, 65, 66, 67, 68, 69, 70, 71};
+    private static final FieldExtractor RFSS = FieldExtractor.of(8, 9, 10, 11, 12, 13, 14, 15);
+    private static final FieldExtractor SITE = FieldExtractor.of(16, 17, 18, 19, 20, 21, 22, 23);
+    private static final FieldExtractor FREQUENCY_BAND_A = FieldExtractor.of(24, 25, 26, 27);
+    private static final FieldExtractor CHANNEL_NUMBER_A = FieldExtractor.of(28, 29, 30, 31, 32, 33, 34, 35, 36, 37, 38,
+            39);
+    private static final FieldExtractor SERVICE_CLASS_A = FieldExtractor.of(40, 41, 42, 43, 44, 45, 46, 47);
+    private static final FieldExtractor FREQUENCY_BAND_B = FieldExtractor.of(48, 49, 50, 51);
+    private static final FieldExtractor CHANNEL_NUMBER_B = FieldExtractor.of(52, 53, 54, 55, 56, 57, 58, 59, 60, 61, 62,
+            63);
+    private static final FieldExtractor SERVICE_CLASS_B = FieldExtractor.of(64, 65, 66, 67, 68, 69, 70, 71);
 
     private List<Identifier> mIdentifiers;
     private Identifier mRFSS;
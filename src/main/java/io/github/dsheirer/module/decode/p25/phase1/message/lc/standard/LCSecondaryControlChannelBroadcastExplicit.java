@@ -23,6 +23,7 @@
 package io.github.dsheirer.module.decode.p25.phase1.message.lc.standard;
 
 import io.github.dsheirer.bits.BinaryMessage;
+import io.github.dsheirer.bits.FieldExtractor;
 import io.github.dsheirer.channel.IChannelDescriptor;
 import io.github.dsheirer.identifier.Identifier;
 import io.github.dsheirer.module.decode.p25.identifier.APCO25Rfss;
@@ -40,13 +41,15 @@ import java.util.List;
  */
 public class LCSecondaryControlChannelBroadcastExplicit extends LinkControlWord implements IFrequencyBandReceiver
 {
-    private static final int[] RFSS = {8, 9, 10, 11, 12, 13, 14, 15};
-    private static final int[] SITE = {16, 17, 18, 19, 20, 21, 22, 23};
-    private static final int[] DOWNLINK_FREQUENCY_BAND = {24, 25, 26, 27};
-    private static final int[] DOWNLINK_CHANNEL_NUMBER = {28, 29, 30, 31, 32, 33, 34, 35, 36, 37, 38, 39};
-    private static final int[] UPLINK_FREQUENCY_BAND = {40, 41, 42, 43};
-    private static final int[] UPNLINK_CHANNEL_NUMBER = {44, 45, 46, 47, 48, 49, 50, 51, 52, 53, 54, 55};
-    private static final int[] SERVICE_CLASS = {56, 57, 58, 59, 60, 61, 62, 63};
+    private static final FieldExtractor RFSS = FieldExtractor.of(8, 9, 10, 11, 12, 13, 14, 15);
+    private static final FieldExtractor SITE = FieldExtractor.of(16, 17, 18, 19, 20, 21, 22, 23);
+    private static final FieldExtractor DOWNLINK_FREQUENCY_BAND = FieldExtractor.of(24, 25, 26, 27);
+    private static final FieldExtractor DOWNLINK_CHANNEL_NUMBER = FieldExtractor.of(28, 29, 30, 31, 32, 33, 34, 35, 36,
+            37, 38, 39);
+    private static final FieldExtractor UPLINK_FREQUENCY_BAND = FieldExtractor.of(40, 41, 42, 43);
+    private static final FieldExtractor UPNLINK_CHANNEL_NUMBER = FieldExtractor.of(44, 45, 46, 47, 48, 49, 50, 51, 52,
+            53, 54, 55);
+    private static final FieldExtractor SERVICE_CLASS = FieldExtractor.of(56, 57, 58, 59, 60, 61, 62, 63);
     private static final int[] RESERVED = {64, 65, 66, 67, 68, 69, 70, 71};
 
     private List<Identifier> mIdentifiers;
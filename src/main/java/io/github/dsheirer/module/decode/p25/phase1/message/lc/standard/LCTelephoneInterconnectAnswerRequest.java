@@ -23,6 +23,7 @@
 package io.github.dsheirer.module.decode.p25.phase1.message.lc.standard;
 
 import io.github.dsheirer.bits.BinaryMessage;
+import io.github.dsheirer.bits.FieldExtractor;
 import io.github.dsheirer.identifier.Identifier;
 import io.github.dsheirer.module.decode.p25.identifier.radio.APCO25RadioIdentifier;
 import io.github.dsheirer.module.decode.p25.identifier.telephone.APCO25TelephoneNumber;
@@ -37,18 +38,18 @@ import java.util.List;
  */
 public class LCTelephoneInterconnectAnswerRequest extends LinkControlWord
 {
-    private static final int[] DIGIT_1 = {8, 9, 10, 11};
-    private static final int[] DIGIT_2 = {12, 13, 14, 15};
-    private static final int[] DIGIT_3 = {16, 17, 18, 19};
-    private static final int[] DIGIT_4 = {20, 21, 22, 23};
-    private static final int[] DIGIT_5 = {24, 25, 26, 27};
-    private static final int[] DIGIT_6 = {28, 29, 30, 31};
-    private static final int[] DIGIT_7 = {32, 33, 34, 35};
-    private static final int[] DIGIT_8 = {36, 37, 38, 39};
-    private static final int[] DIGIT_9 = {40, 41, 42, 43};
-    private static final int[] DIGIT_10 = {44, 45, 46, 47};
-    private static final int[] TARGET_ADDRESS = {48, 49, 50, 51, 52, 53, 54, 55, 56, 57, 58, 59, 60, 61, 62, 63, 64,
-            65, 66, 67, 68, 69, 70, 71};
+    private static final FieldExtractor DIGIT_1 = FieldExtractor.of(8, 9, 10, 11);
+    private static final FieldExtractor DIGIT_2 = FieldExtractor.of(12, 13, 14, 15);
+    private static final FieldExtractor DIGIT_3 = FieldExtractor.of(16, 17, 18, 19);
+    private static final FieldExtractor DIGIT_4 = FieldExtractor.of(20, 21, 22, 23);
+    private static final FieldExtractor DIGIT_5 = FieldExtractor.of(24, 25, 26, 27);
+    private static final FieldExtractor DIGIT_6 = FieldExtractor.of(28, 29, 30, 31);
+    private static final FieldExtractor DIGIT_7 = FieldExtractor.of(32, 33, 34, 35);
+    private static final FieldExtractor DIGIT_8 = FieldExtractor.of(36, 37, 38, 39);
+    private static final FieldExtractor DIGIT_9 = FieldExtractor.of(40, 41, 42, 43);
+    private static final FieldExtractor DIGIT_10 = FieldExtractor.of(44, 45, 46, 47);
+    private static final FieldExtractor TARGET_ADDRESS = FieldExtractor.of(48, 49, 50, 51, 52, 53, 54, 55, 56, 57, 58,
+            59, 60, 61, 62, 63, 64, 65, 66, 67, 68, 69, 70, 71);
 
     private Identifier mTargetAddress;
     private Identifier mTelephoneNumber;
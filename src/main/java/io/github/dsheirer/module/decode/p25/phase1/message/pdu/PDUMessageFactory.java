@@ -24,7 +24,8 @@ package io.github.dsheirer.module.decode.p25.phase1.message.pdu;
 import io.github.dsheirer.alias.AliasList;
 import io.github.dsheirer.bits.BinaryMessage;
 import io.github.dsheirer.bits.CorrectedBinaryMessage;
-import io.github.dsheirer.edac.trellis.ViterbiDecoder_1_2_P25;
+import io.github.dsheirer.bits.FieldExtractor;
+import io.github.dsheirer.edac.trellis.TableViterbiDecoder_1_2_P25;
 import io.github.dsheirer.module.decode.p25.phase1.P25P1DataUnitID;
 import io.github.dsheirer.module.decode.p25.phase1.P25P1Interleave;
 import io.github.dsheirer.module.decode.p25.phase1.message.P25Message;
@@ -83,20 +84,32 @@ public class PDUMessageFactory
 {
     private final static Logger mLog = LoggerFactory.getLogger(PDUMessageFactory.class);
 
-    private static final int[] BLOCK_0_UMBTC_OPCODE = {2, 3, 4, 5, 6, 7};
+    private static final FieldExtractor BLOCK_0_UMBTC_OPCODE = FieldExtractor.of(2, 3, 4, 5, 6, 7);
     private static final int PDU0_BEGIN = 0;
     private static final int PDU0_END = 196;
 
-    private static final ViterbiDecoder_1_2_P25 VITERBI_HALF_RATE_DECODER = new ViterbiDecoder_1_2_P25();
+    private static final TableViterbiDecoder_1_2_P25 VITERBI_HALF_RATE_DECODER = new TableViterbiDecoder_1_2_P25();
 
     public static PDUSequence createPacketSequence(int nac, long timestamp, CorrectedBinaryMessage correctedBinaryMessage)
+    {
+        return createPacketSequence(nac, timestamp, correctedBinaryMessage, null);
+    }
+
+    /**
+     * Creates a packet sequence using soft-decision trellis decoding of the packet header.
+     *
+     * @param dibitConfidence for each dibit of the interleaved header, or null for hard-decision decoding
+     */
+    public static PDUSequence createPacketSequence(int nac, long timestamp, CorrectedBinaryMessage correctedBinaryMessage,
+                                                   float[] dibitConfidence)
     {
         //Get deinterleaved header chunk
         BitSet interleaved = correctedBinaryMessage.get(PDU0_BEGIN, PDU0_END);
         CorrectedBinaryMessage deinterleaved = P25P1Interleave.deinterleaveChunk(P25P1Interleave.DATA_DEINTERLEAVE, interleaved);
 
         //Decode 1/2 rate trellis encoded PDU header
-        CorrectedBinaryMessage viterbiDecoded = VITERBI_HALF_RATE_DECODER.decode(deinterleaved);
+        CorrectedBinaryMessage viterbiDecoded = VITERBI_HALF_RATE_DECODER.decode(deinterleaved,
+            getDeinterleavedConfidence(dibitConfidence));
 
         if(viterbiDecoded != null)
         {
@@ -134,18 +147,54 @@ public class PDUMessageFactory
      * Creates a confirmed data block for a packet sequence
      */
     public static DataBlock createConfirmedDataBlock(CorrectedBinaryMessage interleaved)
+    {
+        return createConfirmedDataBlock(interleaved, null);
+    }
+
+    /**
+     * Creates a confirmed data block for a packet sequence using soft-decision trellis decoding.
+     *
+     * @param dibitConfidence for each dibit of the interleaved block, or null for hard-decision decoding
+     */
+    public static DataBlock createConfirmedDataBlock(CorrectedBinaryMessage interleaved, float[] dibitConfidence)
     {
         CorrectedBinaryMessage deinterleaved = P25P1Interleave.deinterleaveChunk(P25P1Interleave.DATA_DEINTERLEAVE, interleaved);
-        return new ConfirmedDataBlock(deinterleaved);
+        return new ConfirmedDataBlock(deinterleaved, getDeinterleavedConfidence(dibitConfidence));
     }
 
     /**
      * Creates an unconfirmed data block for a packet sequence
      */
     public static DataBlock createUnconfirmedDataBlock(CorrectedBinaryMessage interleaved)
+    {
+        return createUnconfirmedDataBlock(interleaved, null);
+    }
+
+    /**
+     * Creates an unconfirmed data block for a packet sequence using soft-decision trellis decoding.
+     *
+     * @param dibitConfidence for each dibit of the interleaved block, or null for hard-decision decoding
+     */
+    public static DataBlock createUnconfirmedDataBlock(CorrectedBinaryMessage interleaved, float[] dibitConfidence)
     {
         CorrectedBinaryMessage deinterleaved = P25P1Interleave.deinterleaveChunk(P25P1Interleave.DATA_DEINTERLEAVE, interleaved);
-        return new UnconfirmedDataBlock(deinterleaved);
+        return new UnconfirmedDataBlock(deinterleaved, getDeinterleavedConfidence(dibitConfidence));
+    }
+
+    /**
+     * Deinterleaves the optional dibit confidence values for a 196-bit data block.
+     *
+     * @param dibitConfidence for the interleaved block, or null
+     * @return deinterleaved confidence values or null
+     */
+    private static float[] getDeinterleavedConfidence(float[] dibitConfidence)
+    {
+        if(dibitConfidence == null)
+        {
+            return null;
+        }
+
+        return P25P1Interleave.deinterleaveDibitConfidence(P25P1Interleave.DATA_DEINTERLEAVE, dibitConfidence);
     }
 
     /**
@@ -22,6 +22,7 @@
 
 package io.github.dsheirer.module.decode.p25.phase1.message.pdu.ambtc.isp;
 
+import io.github.dsheirer.bits.FieldExtractor;
 import io.github.dsheirer.identifier.Identifier;
 import io.github.dsheirer.module.decode.p25.identifier.APCO25System;
 import io.github.dsheirer.module.decode.p25.identifier.APCO25Wacn;
@@ -36,11 +37,14 @@ import java.util.List;
 
 public class AMBTCStatusQueryResponse extends AMBTCMessage
 {
-    private static final int[] HEADER_UNIT_STATUS = {64, 65, 66, 67, 68, 69, 70, 71};
-    private static final int[] HEADER_USER_STATUS = {72, 73, 74, 75, 76, 77, 78, 79};
-    private static final int[] BLOCK_0_WACN = {0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19};
-    private static final int[] BLOCK_0_SYSTEM = {20, 21, 22, 23, 24, 25, 26, 27, 28, 29, 30, 31};
-    private static final int[] BLOCK_0_TARGET_ID = {32, 33, 34, 35, 36, 37, 38, 39, 40, 41, 42, 43, 44, 45, 46, 47, 48, 49, 50, 51, 52, 53, 54, 55};
+    private static final FieldExtractor HEADER_UNIT_STATUS = FieldExtractor.of(64, 65, 66, 67, 68, 69, 70, 71);
+    private static final FieldExtractor HEADER_USER_STATUS = FieldExtractor.of(72, 73, 74, 75, 76, 77, 78, 79);
+    private static final FieldExtractor BLOCK_0_WACN = FieldExtractor.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13,
+            14, 15, 16, 17, 18, 19);
+    private static final FieldExtractor BLOCK_0_SYSTEM = FieldExtractor.of(20, 21, 22, 23, 24, 25, 26, 27, 28, 29, 30,
+            31);
+    private static final FieldExtractor BLOCK_0_TARGET_ID = FieldExtractor.of(32, 33, 34, 35, 36, 37, 38, 39, 40, 41,
+            42, 43, 44, 45, 46, 47, 48, 49, 50, 51, 52, 53, 54, 55);
     private static final int[] BLOCK_0_RESERVED = {56, 57, 58, 59, 60, 61, 62, 63};
 
     private Identifier mUnitStatus;
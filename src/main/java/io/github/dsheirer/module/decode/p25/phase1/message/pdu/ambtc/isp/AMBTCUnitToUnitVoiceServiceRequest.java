@@ -22,6 +22,7 @@
 
 package io.github.dsheirer.module.decode.p25.phase1.message.pdu.ambtc.isp;
 
+import io.github.dsheirer.bits.FieldExtractor;
 import io.github.dsheirer.identifier.Identifier;
 import io.github.dsheirer.module.decode.p25.identifier.APCO25System;
 import io.github.dsheirer.module.decode.p25.identifier.APCO25Wacn;
@@ -35,14 +36,15 @@ import java.util.List;
 
 public class AMBTCUnitToUnitVoiceServiceRequest extends AMBTCMessage
 {
-    private static final int[] HEADER_SERVICE_OPTIONS = {64, 65, 66, 67, 68, 69, 70, 71};
+    private static final FieldExtractor HEADER_SERVICE_OPTIONS = FieldExtractor.of(64, 65, 66, 67, 68, 69, 70, 71);
     private static final int[] HEADER_RESERVED = {72, 73, 74, 75, 76, 77, 78, 79};
     private static final int[] BLOCK_0_RESERVED = {0, 1, 2, 3, 4, 5, 6, 7};
-    private static final int[] BLOCK_0_WACN = {8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 23, 24, 25, 26,
-        27};
-    private static final int[] BLOCK_0_SYSTEM = {28, 29, 30, 31, 32, 33, 34, 35, 36, 37, 38, 39};
-    private static final int[] BLOCK_0_TARGET_ID = {40, 41, 42, 43, 44, 45, 46, 47, 48, 49, 50, 51, 52, 53, 54, 55, 56,
-        57, 58, 59, 60, 61, 62, 63};
+    private static final FieldExtractor BLOCK_0_WACN = FieldExtractor.of(8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19,
+            20, 21, 22, 23, 24, 25, 26, 27);
+    private static final FieldExtractor BLOCK_0_SYSTEM = FieldExtractor.of(28, 29, 30, 31, 32, 33, 34, 35, 36, 37, 38,
+            39);
+    private static final FieldExtractor BLOCK_0_TARGET_ID = FieldExtractor.of(40, 41, 42, 43, 44, 45, 46, 47, 48, 49,
+            50, 51, 52, 53, 54, 55, 56, 57, 58, 59, 60, 61, 62, 63);
 
     private VoiceServiceOptions mVoiceServiceOptions;
     private Identifier mWacn;
@@ -22,6 +22,7 @@
 
 package io.github.dsheirer.module.decode.p25.phase1.message.pdu.ambtc.osp;
 
+import io.github.dsheirer.bits.FieldExtractor;
 import io.github.dsheirer.channel.IChannelDescriptor;
 import io.github.dsheirer.identifier.Identifier;
 import io.github.dsheirer.module.decode.p25.identifier.APCO25System;
@@ -41,18 +42,22 @@ import java.util.List;
 
 public class AMBTCIndividualDataChannelGrant extends AMBTCMessage implements IFrequencyBandReceiver
 {
-    private static final int[] HEADER_SERVICE_OPTIONS = {64, 65, 66, 67, 68, 69, 70, 71};
+    private static final FieldExtractor HEADER_SERVICE_OPTIONS = FieldExtractor.of(64, 65, 66, 67, 68, 69, 70, 71);
     private static final int[] HEADER_RESERVED = {72, 73, 74, 75, 76, 77, 78, 79};
-    private static final int[] BLOCK_0_WACN = {0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19};
-    private static final int[] BLOCK_0_SYSTEM = {20, 21, 22, 23, 24, 25, 26, 27, 28, 29, 30, 31};
-    private static final int[] BLOCK_0_SOURCE_ID = {32, 33, 34, 35, 36, 37, 38, 39, 40, 41, 42, 43, 44, 45, 46, 47, 48,
-        49, 50, 51, 52, 53, 54, 55};
-    private static final int[] BLOCK_0_TARGET_ADDRESS = {56, 57, 58, 59, 60, 61, 62, 63, 64, 65, 66, 67, 68, 69, 70,
-        71, 72, 73, 74, 75, 76, 77, 78, 79};
-    private static final int[] BLOCK_0_DOWNLINK_FREQUENCY_BAND = {80, 81, 82, 83};
-    private static final int[] BLOCK_0_DOWNLINK_CHANNEL_NUMBER = {84, 85, 86, 87, 88, 89, 90, 91, 92, 93, 94, 95};
-    private static final int[] BLOCK_1_UPLINK_FREQUENCY_BAND = {0, 1, 2, 3};
-    private static final int[] BLOCK_1_UPLINK_CHANNEL_NUMBER = {4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15};
+    private static final FieldExtractor BLOCK_0_WACN = FieldExtractor.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13,
+            14, 15, 16, 17, 18, 19);
+    private static final FieldExtractor BLOCK_0_SYSTEM = FieldExtractor.of(20, 21, 22, 23, 24, 25, 26, 27, 28, 29, 30,
+            31);
+    private static final FieldExtractor BLOCK_0_SOURCE_ID = FieldExtractor.of(32, 33, 34, 35, 36, 37, 38, 39, 40, 41,
+            42, 43, 44, 45, 46, 47, 48, 49, 50, 51, 52, 53, 54, 55);
+    private static final FieldExtractor BLOCK_0_TARGET_ADDRESS = FieldExtractor.of(56, 57, 58, 59, 60, 61, 62, 63, 64,
+            65, 66, 67, 68, 69, 70, 71, 72, 73, 74, 75, 76, 77, 78, 79);
+    private static final FieldExtractor BLOCK_0_DOWNLINK_FREQUENCY_BAND = FieldExtractor.of(80, 81, 82, 83);
+    private static final FieldExtractor BLOCK_0_DOWNLINK_CHANNEL_NUMBER = FieldExtractor.of(84, 85, 86, 87, 88, 89, 90,
+            91, 92, 93, 94, 95);
+    private static final FieldExtractor BLOCK_1_UPLINK_FREQUENCY_BAND = FieldExtractor.of(0, 1, 2, 3);
+    private static final FieldExtractor BLOCK_1_UPLINK_CHANNEL_NUMBER = FieldExtractor.of(4, 5, 6, 7, 8, 9, 10, 11, 12,
+            13, 14, 15);
 
     private DataServiceOptions mDataServiceOptions;
     private Identifier mWacn;
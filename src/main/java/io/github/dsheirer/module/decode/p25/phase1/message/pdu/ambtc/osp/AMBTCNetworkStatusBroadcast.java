@@ -22,6 +22,7 @@
 
 package io.github.dsheirer.module.decode.p25.phase1.message.pdu.ambtc.osp;
 
+import io.github.dsheirer.bits.FieldExtractor;
 import io.github.dsheirer.channel.IChannelDescriptor;
 import io.github.dsheirer.identifier.Identifier;
 import io.github.dsheirer.module.decode.p25.identifier.APCO25System;
@@ -47,15 +48,20 @@ public class AMBTCNetworkStatusBroadcast extends AMBTCMessage implements IFreque
 {
 
     //    private static final int[] HEADER_LRA = {24, 25, 26, 27, 28, 29, 30, 31};
-    private static final int[] HEADER_SYSTEM = {36, 37, 38, 39, 40, 41, 42, 43, 44, 45, 46, 47};
+    private static final FieldExtractor HEADER_SYSTEM = FieldExtractor.of(36, 37, 38, 39, 40, 41, 42, 43, 44, 45, 46,
+            47);
     //    private static final int[] HEADER_RFSS = {64, 65, 66, 67, 68, 69, 70, 71};
     //    private static final int[] HEADER_SITE = {72, 73, 74, 75, 76, 77, 78, 79};
-    private static final int[] BLOCK_0_WACN = {0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19};
-    private static final int[] BLOCK_0_DOWNLINK_FREQUENCY_BAND = {24, 25, 26, 27};
-    private static final int[] BLOCK_0_DOWNLINK_CHANNEL_NUMBER = {28, 29, 30, 31, 32, 33, 34, 35, 36, 37, 38, 39};
-    private static final int[] BLOCK_0_UPLINK_FREQUENCY_BAND = {40, 41, 42, 43};
-    private static final int[] BLOCK_0_UPLINK_CHANNEL_NUMBER = {44, 45, 46, 47, 48, 49, 50, 51, 52, 53, 54, 55};
-    private static final int[] BLOCK_0_SYSTEM_SERVICE_CLASS = {56, 57, 58, 59, 60, 61, 62, 63};
+    private static final FieldExtractor BLOCK_0_WACN = FieldExtractor.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13,
+            14, 15, 16, 17, 18, 19);
+    private static final FieldExtractor BLOCK_0_DOWNLINK_FREQUENCY_BAND = FieldExtractor.of(24, 25, 26, 27);
+    private static final FieldExtractor BLOCK_0_DOWNLINK_CHANNEL_NUMBER = FieldExtractor.of(28, 29, 30, 31, 32, 33, 34,
+            35, 36, 37, 38, 39);
+    private static final FieldExtractor BLOCK_0_UPLINK_FREQUENCY_BAND = FieldExtractor.of(40, 41, 42, 43);
+    private static final FieldExtractor BLOCK_0_UPLINK_CHANNEL_NUMBER = FieldExtractor.of(44, 45, 46, 47, 48, 49, 50,
+            51, 52, 53, 54, 55);
+    private static final FieldExtractor BLOCK_0_SYSTEM_SERVICE_CLASS = FieldExtractor.of(56, 57, 58, 59, 60, 61, 62,
+            63);
 
     private ScrambleParameters mScrambleParameters;
     private Identifier mWacn;
@@ -22,6 +22,7 @@
 
 package io.github.dsheirer.module.decode.p25.phase1.message.pdu.ambtc.osp;
 
+import io.github.dsheirer.bits.FieldExtractor;
 import io.github.dsheirer.identifier.Identifier;
 import io.github.dsheirer.identifier.encryption.EncryptionKeyIdentifier;
 import io.github.dsheirer.module.decode.p25.identifier.encryption.APCO25EncryptionKey;
@@ -37,8 +38,10 @@ import java.util.List;
  */
 public class AMBTCProtectionParameterBroadcast extends AMBTCMessage
 {
-    private static final int[] HEADER_ALGORITHM_ID = {64, 65, 66, 67, 68, 69, 70, 71, 72, 73, 74, 75, 76, 77, 78, 79};
-    private static final int[] BLOCK_0_KEY_ID = {0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15};
+    private static final FieldExtractor HEADER_ALGORITHM_ID = FieldExtractor.of(64, 65, 66, 67, 68, 69, 70, 71, 72, 73,
+            74, 75, 76, 77, 78, 79);
+    private static final FieldExtractor BLOCK_0_KEY_ID = FieldExtractor.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13,
+            14, 15);
     private static final int[] BLOCK_0_INBOUND_MESSAGE_INDICATOR_1 = {16, 17, 18, 19, 20, 21, 22, 23, 24, 25, 26, 27,
         28, 29, 30, 31, 32, 33, 34, 35, 36, 37, 38, 39, 40, 41, 42, 43, 44, 45, 46, 47, 48, 49, 50, 51, 52, 53, 54, 55};
     private static final int[] BLOCK_0_INBOUND_MESSAGE_INDICATOR_2 = {56, 57, 58, 59, 60, 61, 62, 63, 64, 65, 66, 67,
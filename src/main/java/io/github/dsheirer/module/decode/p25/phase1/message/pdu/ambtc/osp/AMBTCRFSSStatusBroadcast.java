@@ -22,6 +22,7 @@
 
 package io.github.dsheirer.module.decode.p25.phase1.message.pdu.ambtc.osp;
 
+import io.github.dsheirer.bits.FieldExtractor;
 import io.github.dsheirer.channel.IChannelDescriptor;
 import io.github.dsheirer.identifier.Identifier;
 import io.github.dsheirer.module.decode.p25.identifier.APCO25Lra;
@@ -46,15 +47,18 @@ import java.util.List;
 public class AMBTCRFSSStatusBroadcast extends AMBTCMessage implements IFrequencyBandReceiver
 {
 
-    private static final int[] HEADER_LRA = {24, 25, 26, 27, 28, 29, 30, 31};
+    private static final FieldExtractor HEADER_LRA = FieldExtractor.of(24, 25, 26, 27, 28, 29, 30, 31);
     private static final int HEADER_ACTIVE_NETWORK_CONNECTION_TO_RFSS_CONTROLLER_FLAG = 35;
-    private static final int[] HEADER_SYSTEM = {36, 37, 38, 39, 40, 41, 42, 43, 44, 45, 46, 47};
-    private static final int[] BLOCK_0_RFSS = {0, 1, 2, 3, 4, 5, 6, 7};
-    private static final int[] BLOCK_0_SITE = {8, 9, 10, 11, 12, 13, 14, 15};
-    private static final int[] BLOCK_0_DOWNLINK_FREQUENCY_BAND = {16, 17, 18, 19};
-    private static final int[] BLOCK_0_DOWNLINK_CHANNEL_NUMBER = {20, 21, 22, 23, 24, 25, 26, 27, 28, 29, 30, 31};
-    private static final int[] BLOCK_0_UPLINK_FREQUENCY_BAND = {32, 33, 34, 35};
-    private static final int[] BLOCK_0_UPLINK_CHANNEL_NUMBER = {36, 37, 38, 39, 40, 41, 42, 43, 44, 45, 46, 47};
+    private static final FieldExtractor HEADER_SYSTEM = FieldExtractor.of(36, 37, 38, 39, 40, 41, 42, 43, 44, 45, 46,
+            47);
+    private static final FieldExtractor BLOCK_0_RFSS = FieldExtractor.of(0, 1, 2, 3, 4, 5, 6, 7);
+    private static final FieldExtractor BLOCK_0_SITE = FieldExtractor.of(8, 9, 10, 11, 12, 13, 14, 15);
+    private static final FieldExtractor BLOCK_0_DOWNLINK_FREQUENCY_BAND = FieldExtractor.of(16, 17, 18, 19);
+    private static final FieldExtractor BLOCK_0_DOWNLINK_CHANNEL_NUMBER = FieldExtractor.of(20, 21, 22, 23, 24, 25, 26,
+            27, 28, 29, 30, 31);
+    private static final FieldExtractor BLOCK_0_UPLINK_FREQUENCY_BAND = FieldExtractor.of(32, 33, 34, 35);
+    private static final FieldExtractor BLOCK_0_UPLINK_CHANNEL_NUMBER = FieldExtractor.of(36, 37, 38, 39, 40, 41, 42,
+            43, 44, 45, 46, 47);
 
     private Identifier mLra;
     private Identifier mSystem;
@@ -22,6 +22,7 @@
 
 package io.github.dsheirer.module.decode.p25.phase1.message.pdu.ambtc.osp;
 
+import io.github.dsheirer.bits.FieldExtractor;
 import io.github.dsheirer.identifier.Identifier;
 import io.github.dsheirer.module.decode.p25.identifier.APCO25System;
 import io.github.dsheirer.module.decode.p25.identifier.APCO25Wacn;
@@ -44,10 +45,11 @@ import java.util.List;
 public class AMBTCRoamingAddressResponse extends AMBTCMessage
 {
     private static final int LAST_MESSAGE_FLAG = 64;
-    private static final int[] HEADER_MSN = {68, 69, 70, 71};
-    private static final int[] HEADER_WACN_A = {72, 73, 74, 75, 76, 77, 78, 79};
-    private static final int[] BLOCK_0_WACN_A = {0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11};
-    private static final int[] BLOCK_0_SYSTEM_A = {12, 13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 23};
+    private static final FieldExtractor HEADER_MSN = FieldExtractor.of(68, 69, 70, 71);
+    private static final FieldExtractor HEADER_WACN_A = FieldExtractor.of(72, 73, 74, 75, 76, 77, 78, 79);
+    private static final FieldExtractor BLOCK_0_WACN_A = FieldExtractor.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11);
+    private static final FieldExtractor BLOCK_0_SYSTEM_A = FieldExtractor.of(12, 13, 14, 15, 16, 17, 18, 19, 20, 21, 22,
+            23);
 
     private Identifier mWacn;
     private Identifier mSystem;
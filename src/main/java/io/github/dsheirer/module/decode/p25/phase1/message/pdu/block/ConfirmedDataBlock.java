@@ -24,7 +24,7 @@ import io.github.dsheirer.bits.BinaryMessage;
 import io.github.dsheirer.bits.CorrectedBinaryMessage;
 import io.github.dsheirer.edac.CRC;
 import io.github.dsheirer.edac.CRCP25;
-import io.github.dsheirer.edac.trellis.ViterbiDecoder_3_4_P25;
+import io.github.dsheirer.edac.trellis.TableViterbiDecoder_3_4_P25;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -36,13 +36,23 @@ public class ConfirmedDataBlock extends DataBlock
     public static final int PAYLOAD_START = 16;
     public static final int PAYLOAD_END = 144;
 
-    private static final ViterbiDecoder_3_4_P25 VITERBI_THREE_QUARTER_RATE_DECODER = new ViterbiDecoder_3_4_P25();
+    private static final TableViterbiDecoder_3_4_P25 VITERBI_THREE_QUARTER_RATE_DECODER = new TableViterbiDecoder_3_4_P25();
     private CorrectedBinaryMessage mDecodedMessage;
     private boolean mValid;
 
     public ConfirmedDataBlock(CorrectedBinaryMessage correctedBinaryMessage)
     {
-        mDecodedMessage = VITERBI_THREE_QUARTER_RATE_DECODER.decode(correctedBinaryMessage);
+        this(correctedBinaryMessage, null);
+    }
+
+    /**
+     * Constructs a confirmed data block from the deinterleaved message using soft-decision trellis decoding.
+     * @param correctedBinaryMessage containing deinterleaved 196-bit data block.
+     * @param dibitConfidence for each dibit of the deinterleaved block, or null for hard-decision decoding
+     */
+    public ConfirmedDataBlock(CorrectedBinaryMessage correctedBinaryMessage, float[] dibitConfidence)
+    {
+        mDecodedMessage = VITERBI_THREE_QUARTER_RATE_DECODER.decode(correctedBinaryMessage, dibitConfidence);
         mDecodedMessage.incrementCorrectedBitCount(correctedBinaryMessage.getCorrectedBitCount());
 
         checkCRC();
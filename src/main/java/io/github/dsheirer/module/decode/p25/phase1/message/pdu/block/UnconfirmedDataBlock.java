@@ -21,14 +21,14 @@
 package io.github.dsheirer.module.decode.p25.phase1.message.pdu.block;
 
 import io.github.dsheirer.bits.CorrectedBinaryMessage;
-import io.github.dsheirer.edac.trellis.ViterbiDecoder_1_2_P25;
+import io.github.dsheirer.edac.trellis.TableViterbiDecoder_1_2_P25;
 
 /**
  * P25 Unconfirmed Data block that uses 1/2 rate trellis coding.
  */
 public class UnconfirmedDataBlock extends DataBlock
 {
-    private static final ViterbiDecoder_1_2_P25 VITERBI_HALF_RATE_DECODER = new ViterbiDecoder_1_2_P25();
+    private static final TableViterbiDecoder_1_2_P25 VITERBI_HALF_RATE_DECODER = new TableViterbiDecoder_1_2_P25();
     private CorrectedBinaryMessage mDecodedMessage;
 
     /**
@@ -37,7 +37,17 @@ public class UnconfirmedDataBlock extends DataBlock
      */
     public UnconfirmedDataBlock(CorrectedBinaryMessage correctedBinaryMessage)
     {
-        mDecodedMessage = VITERBI_HALF_RATE_DECODER.decode(correctedBinaryMessage);
+        this(correctedBinaryMessage, null);
+    }
+
+    /**
+     * Constructs an unconfirmed data block from the deinterleaved message using soft-decision trellis decoding.
+     * @param correctedBinaryMessage containing deinterleaved 196-bit data block.
+     * @param dibitConfidence for each dibit of the deinterleaved block, or null for hard-decision decoding
+     */
+    public UnconfirmedDataBlock(CorrectedBinaryMessage correctedBinaryMessage, float[] dibitConfidence)
+    {
+        mDecodedMessage = VITERBI_HALF_RATE_DECODER.decode(correctedBinaryMessage, dibitConfidence);
         mDecodedMessage.incrementCorrectedBitCount(correctedBinaryMessage.getCorrectedBitCount());
     }
 
@@ -21,6 +21,7 @@
 package io.github.dsheirer.module.decode.p25.phase1.message.pdu.packet.sndcp;
 
 import io.github.dsheirer.bits.BinaryMessage;
+import io.github.dsheirer.bits.FieldExtractor;
 import io.github.dsheirer.identifier.Identifier;
 import io.github.dsheirer.module.decode.p25.identifier.ipv4.APCO25IpAddress;
 import io.github.dsheirer.module.decode.p25.reference.MDPConfigurationOption;
@@ -38,20 +39,21 @@ import java.util.List;
  */
 public class ActivateTdsContextAccept extends SNDCPMessage
 {
-    private static final int[] NSAPI = {4, 5, 6, 7};
-    private static final int[] PDUPM = {8, 9, 10, 11};
-    private static final int[] READY_TIMER = {12, 13, 14, 15};
-    private static final int[] STANDBY_TIMER = {16, 17, 18, 19};
-    private static final int[] NAT = {20, 21, 22, 23};
-    private static final int[] IPV4_ADDRESS = {24, 25, 26, 27, 28, 29, 30, 31, 32, 33, 34, 35, 36, 37, 38, 39, 40, 41,
-        42, 43, 44, 45, 46, 47, 48, 49, 50, 51, 52, 53, 54, 55};
+    private static final FieldExtractor NSAPI = FieldExtractor.of(4, 5, 6, 7);
+    private static final FieldExtractor PDUPM = FieldExtractor.of(8, 9, 10, 11);
+    private static final FieldExtractor READY_TIMER = FieldExtractor.of(12, 13, 14, 15);
+    private static final FieldExtractor STANDBY_TIMER = FieldExtractor.of(16, 17, 18, 19);
+    private static final FieldExtractor NAT = FieldExtractor.of(20, 21, 22, 23);
+    private static final FieldExtractor IPV4_ADDRESS = FieldExtractor.of(24, 25, 26, 27, 28, 29, 30, 31, 32, 33, 34, 35,
+            36, 37, 38, 39, 40, 41, 42, 43, 44, 45, 46, 47, 48, 49, 50, 51, 52, 53, 54, 55);
     private static final int TCP_IP_HEADER_COMPRESSION = 56;
-    private static final int[] IP_HEADER_COMPRESSION_BITMAP = {56, 57, 58, 59, 60, 61, 62, 63};
-    private static final int[] TCPSS = {64, 65, 66, 67};
-    private static final int[] UDPSS = {68, 69, 70, 71};
-    private static final int[] MTU = {72, 73, 74, 75};
-    private static final int[] UDP_IP_HEADER_COMPRESSION_BITMAP = {76, 77, 78, 79};
-    private static final int[] MDPCO = {80, 81, 82, 83, 84, 85, 86, 87};
+    private static final FieldExtractor IP_HEADER_COMPRESSION_BITMAP = FieldExtractor.of(56, 57, 58, 59, 60, 61, 62,
+            63);
+    private static final FieldExtractor TCPSS = FieldExtractor.of(64, 65, 66, 67);
+    private static final FieldExtractor UDPSS = FieldExtractor.of(68, 69, 70, 71);
+    private static final FieldExtractor MTU = FieldExtractor.of(72, 73, 74, 75);
+    private static final FieldExtractor UDP_IP_HEADER_COMPRESSION_BITMAP = FieldExtractor.of(76, 77, 78, 79);
+    private static final FieldExtractor MDPCO = FieldExtractor.of(80, 81, 82, 83, 84, 85, 86, 87);
     private static final int[] DATA_ACCESS_CONTROL = {88, 89, 90, 91, 92, 93, 94, 95, 96, 97, 98, 99, 100, 101, 102, 103};
 
     private Identifier mIPAddress;
@@ -21,6 +21,7 @@
 package io.github.dsheirer.module.decode.p25.phase1.message.pdu.packet.sndcp;
 
 import io.github.dsheirer.bits.BinaryMessage;
+import io.github.dsheirer.bits.FieldExtractor;
 import io.github.dsheirer.identifier.Identifier;
 
 import java.util.ArrayList;
@@ -32,8 +33,8 @@ import java.util.List;
  */
 public class DeActivateTdsContextRequest extends SNDCPMessage
 {
-    private static final int[] NSAPI = {4, 5, 6, 7};
-    private static final int[] DEACTIVATION_TYPE = {8, 9, 10, 11, 12, 13, 14, 15};
+    private static final FieldExtractor NSAPI = FieldExtractor.of(4, 5, 6, 7);
+    private static final FieldExtractor DEACTIVATION_TYPE = FieldExtractor.of(8, 9, 10, 11, 12, 13, 14, 15);
 
     /**
      * Constructs an SNDCP message parser instance.
@@ -23,7 +23,7 @@
 package io.github.dsheirer.module.decode.p25.phase1.message.tsbk;
 
 import io.github.dsheirer.bits.CorrectedBinaryMessage;
-import io.github.dsheirer.edac.trellis.ViterbiDecoder_1_2_P25;
+import io.github.dsheirer.edac.trellis.TableViterbiDecoder_1_2_P25;
 import io.github.dsheirer.module.decode.p25.phase1.P25P1DataUnitID;
 import io.github.dsheirer.module.decode.p25.phase1.P25P1Interleave;
 import io.github.dsheirer.module.decode.p25.phase1.message.tsbk.harris.isp.UnknownHarrisISPMessage;
@@ -128,16 +128,36 @@ import org.slf4j.LoggerFactory;
 public class TSBKMessageFactory
 {
     private final static Logger mLog = LoggerFactory.getLogger(TSBKMessageFactory.class);
-    private static final ViterbiDecoder_1_2_P25 VITERBI_HALF_RATE_DECODER = new ViterbiDecoder_1_2_P25();
+    private static final TableViterbiDecoder_1_2_P25 VITERBI_HALF_RATE_DECODER = new TableViterbiDecoder_1_2_P25();
 
     public static TSBKMessage create(Direction direction, P25P1DataUnitID dataUnitID,
                                      CorrectedBinaryMessage correctedBinaryMessage, int nac, long timestamp)
+    {
+        return create(direction, dataUnitID, correctedBinaryMessage, null, nac, timestamp);
+    }
+
+    /**
+     * Creates a TSBK message using soft-decision trellis decoding.
+     *
+     * @param dibitConfidence for each dibit of the interleaved message, or null for hard-decision decoding
+     */
+    public static TSBKMessage create(Direction direction, P25P1DataUnitID dataUnitID,
+                                     CorrectedBinaryMessage correctedBinaryMessage, float[] dibitConfidence,
+                                     int nac, long timestamp)
     {
         //Get deinterleaved header chunk
         CorrectedBinaryMessage deinterleaved = P25P1Interleave.deinterleaveChunk(P25P1Interleave.DATA_DEINTERLEAVE, correctedBinaryMessage);
 
+        float[] deinterleavedConfidence = null;
+
+        if(dibitConfidence != null)
+        {
+            deinterleavedConfidence = P25P1Interleave.deinterleaveDibitConfidence(P25P1Interleave.DATA_DEINTERLEAVE,
+                dibitConfidence);
+        }
+
         //Decode 1/2 rate trellis encoded PDU header
-        CorrectedBinaryMessage message = VITERBI_HALF_RATE_DECODER.decode(deinterleaved);
+        CorrectedBinaryMessage message = VITERBI_HALF_RATE_DECODER.decode(deinterleaved, deinterleavedConfidence);
 
         if(message == null)
         {
@@ -23,6 +23,7 @@
 package io.github.dsheirer.module.decode.p25.phase1.message.tsbk.standard.osp;
 
 import io.github.dsheirer.bits.CorrectedBinaryMessage;
+import io.github.dsheirer.bits.FieldExtractor;
 import io.github.dsheirer.channel.IChannelDescriptor;
 import io.github.dsheirer.identifier.Identifier;
 import io.github.dsheirer.module.decode.p25.identifier.APCO25Lra;
@@ -43,17 +44,18 @@ import java.util.List;
  */
 public class AdjacentStatusBroadcast extends OSPMessage implements IFrequencyBandReceiver
 {
-    private static final int[] LOCATION_REGISTRATION_AREA = {16, 17, 18, 19, 20, 21, 22, 23};
+    private static final FieldExtractor LOCATION_REGISTRATION_AREA = FieldExtractor.of(16, 17, 18, 19, 20, 21, 22, 23);
     private static final int CONVENTIONAL_CHANNEL_FLAG = 24;
     private static final int SITE_FAILURE_FLAG = 25;
     private static final int VALID_INFORMATION_FLAG = 26;
     private static final int ACTIVE_NETWORK_CONNECTION_TO_RFSS_CONTROLLER_FLAG = 27;
-    private static final int[] SYSTEM = {28, 29, 30, 31, 32, 33, 34, 35, 36, 37, 38, 39};
-    private static final int[] RFSS = {40, 41, 42, 43, 44, 45, 46, 47};
-    private static final int[] SITE = {48, 49, 50, 51, 52, 53, 54, 55};
-    private static final int[] FREQUENCY_BAND = {56, 57, 58, 59};
-    private static final int[] CHANNEL_NUMBER = {60, 61, 62, 63, 64, 65, 66, 67, 68, 69, 70, 71};
-    private static final int[] SYSTEM_SERVICE_CLASS = {72, 73, 74, 75, 76, 77, 78, 79};
+    private static final FieldExtractor SYSTEM = FieldExtractor.of(28, 29, 30, 31, 32, 33, 34, 35, 36, 37, 38, 39);
+    private static final FieldExtractor RFSS = FieldExtractor.of(40, 41, 42, 43, 44, 45, 46, 47);
+    private static final FieldExtractor SITE = FieldExtractor.of(48, 49, 50, 51, 52, 53, 54, 55);
+    private static final FieldExtractor FREQUENCY_BAND = FieldExtractor.of(56, 57, 58, 59);
+    private static final FieldExtractor CHANNEL_NUMBER = FieldExtractor.of(60, 61, 62, 63, 64, 65, 66, 67, 68, 69, 70,
+            71);
+    private static final FieldExtractor SYSTEM_SERVICE_CLASS = FieldExtractor.of(72, 73, 74, 75, 76, 77, 78, 79);
 
     private Identifier mLocationRegistrationArea;
     private Identifier mSystem;
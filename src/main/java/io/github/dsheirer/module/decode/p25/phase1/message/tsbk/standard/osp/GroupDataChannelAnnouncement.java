@@ -23,6 +23,7 @@
 package io.github.dsheirer.module.decode.p25.phase1.message.tsbk.standard.osp;
 
 import io.github.dsheirer.bits.CorrectedBinaryMessage;
+import io.github.dsheirer.bits.FieldExtractor;
 import io.github.dsheirer.channel.IChannelDescriptor;
 import io.github.dsheirer.identifier.Identifier;
 import io.github.dsheirer.module.decode.p25.identifier.channel.APCO25Channel;
@@ -39,12 +40,16 @@ import java.util.List;
  */
 public class GroupDataChannelAnnouncement extends OSPMessage implements IFrequencyBandReceiver
 {
-    private static final int[] FREQUENCY_BAND_A = {16, 17, 18, 19};
-    private static final int[] CHANNEL_NUMBER_A = {20, 21, 22, 23, 24, 25, 26, 27, 28, 29, 30, 31};
-    private static final int[] GROUP_ADDRESS_A = {32, 33, 34, 35, 36, 37, 38, 39, 40, 41, 42, 43, 44, 45, 46, 47};
-    private static final int[] FREQUENCY_BAND_B = {48, 49, 50, 51};
-    private static final int[] CHANNEL_NUMBER_B = {52, 53, 54, 55, 56, 57, 58, 59, 60, 61, 62, 63};
-    private static final int[] GROUP_ADDRESS_B = {64, 65, 66, 67, 68, 69, 70, 71, 72, 73, 74, 75, 76, 77, 78, 79};
+    private static final FieldExtractor FREQUENCY_BAND_A = FieldExtractor.of(16, 17, 18, 19);
+    private static final FieldExtractor CHANNEL_NUMBER_A = FieldExtractor.of(20, 21, 22, 23, 24, 25, 26, 27, 28, 29, 30,
+            31);
+    private static final FieldExtractor GROUP_ADDRESS_A = FieldExtractor.of(32, 33, 34, 35, 36, 37, 38, 39, 40, 41, 42,
+            43, 44, 45, 46, 47);
+    private static final FieldExtractor FREQUENCY_BAND_B = FieldExtractor.of(48, 49, 50, 51);
+    private static final FieldExtractor CHANNEL_NUMBER_B = FieldExtractor.of(52, 53, 54, 55, 56, 57, 58, 59, 60, 61, 62,
+            63);
+    private static final FieldExtractor GROUP_ADDRESS_B = FieldExtractor.of(64, 65, 66, 67, 68, 69, 70, 71, 72, 73, 74,
+            75, 76, 77, 78, 79);
 
     private IChannelDescriptor mChannelA;
     private Identifier mGroupAddressA;
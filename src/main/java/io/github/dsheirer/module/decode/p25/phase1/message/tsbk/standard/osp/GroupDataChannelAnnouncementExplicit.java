@@ -23,6 +23,7 @@
 package io.github.dsheirer.module.decode.p25.phase1.message.tsbk.standard.osp;
 
 import io.github.dsheirer.bits.CorrectedBinaryMessage;
+import io.github.dsheirer.bits.FieldExtractor;
 import io.github.dsheirer.channel.IChannelDescriptor;
 import io.github.dsheirer.identifier.Identifier;
 import io.github.dsheirer.module.decode.p25.identifier.channel.APCO25ExplicitChannel;
@@ -41,11 +42,14 @@ public class GroupDataChannelAnnouncementExplicit extends OSPMessage implements
 {
     private static final int[] SERVICE_OPTIONS = {16, 17, 18, 19, 20, 21, 22, 23};
     private static final int[] RESERVED = {24, 25, 26, 27, 28, 29, 30, 31};
-    private static final int[] DOWNLINK_FREQUENCY_BAND = {32, 33, 34, 35};
-    private static final int[] DOWNLINK_CHANNEL_NUMBER = {36, 37, 38, 39, 40, 41, 42, 43, 44, 45, 46, 47};
-    private static final int[] UPLINK_FREQUENCY_BAND = {48, 49, 50, 51};
-    private static final int[] UPLINK_CHANNEL_NUMBER = {52, 53, 54, 55, 56, 57, 58, 59, 60, 61, 62, 63};
-    private static final int[] GROUP_ADDRESS = {64, 65, 66, 67, 68, 69, 70, 71, 72, 73, 74, 75, 76, 77, 78, 79};
+    private static final FieldExtractor DOWNLINK_FREQUENCY_BAND = FieldExtractor.of(32, 33, 34, 35);
+    private static final FieldExtractor DOWNLINK_CHANNEL_NUMBER = FieldExtractor.of(36, 37, 38, 39, 40, 41, 42, 43, 44,
+            45, 46, 47);
+    private static final FieldExtractor UPLINK_FREQUENCY_BAND = FieldExtractor.of(48, 49, 50, 51);
+    private static final FieldExtractor UPLINK_CHANNEL_NUMBER = FieldExtractor.of(52, 53, 54, 55, 56, 57, 58, 59, 60,
+            61, 62, 63);
+    private static final FieldExtractor GROUP_ADDRESS = FieldExtractor.of(64, 65, 66, 67, 68, 69, 70, 71, 72, 73, 74,
+            75, 76, 77, 78, 79);
 
     private IChannelDescriptor mChannel;
     private Identifier mGroupAddress;
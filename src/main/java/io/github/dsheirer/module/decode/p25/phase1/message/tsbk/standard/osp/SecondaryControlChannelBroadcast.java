@@ -23,6 +23,7 @@
 package io.github.dsheirer.module.decode.p25.phase1.message.tsbk.standard.osp;
 
 import io.github.dsheirer.bits.CorrectedBinaryMessage;
+import io.github.dsheirer.bits.FieldExtractor;
 import io.github.dsheirer.channel.IChannelDescriptor;
 import io.github.dsheirer.identifier.Identifier;
 import io.github.dsheirer.module.decode.p25.identifier.APCO25Rfss;
@@ -41,14 +42,16 @@ import java.util.List;
  */
 public class SecondaryControlChannelBroadcast extends OSPMessage implements IFrequencyBandReceiver
 {
-    private static final int[] RFSS = {16, 17, 18, 19, 20, 21, 22, 23};
-    private static final int[] SITE = {24, 25, 26, 27, 28, 29, 30, 31};
-    private static final int[] FREQUENCY_BAND_A = {32, 33, 34, 35};
-    private static final int[] CHANNEL_NUMBER_A = {36, 37, 38, 39, 40, 41, 42, 43, 44, 45, 46, 47};
-    private static final int[] SYSTEM_SERVICE_CLASS_A = {48, 49, 50, 51, 52, 53, 54, 55};
-    private static final int[] FREQUENCY_BAND_B = {56, 57, 58, 59};
-    private static final int[] CHANNEL_NUMBER_B = {60, 61, 62, 63, 64, 65, 66, 67, 68, 69, 70, 71};
-    private static final int[] SYSTEM_SERVICE_CLASS_B = {72, 73, 74, 75, 76, 77, 78, 79};
+    private static final FieldExtractor RFSS = FieldExtractor.of(16, 17, 18, 19, 20, 21, 22, 23);
+    private static final FieldExtractor SITE = FieldExtractor.of(24, 25, 26, 27, 28, 29, 30, 31);
+    private static final FieldExtractor FREQUENCY_BAND_A = FieldExtractor.of(32, 33, 34, 35);
+    private static final FieldExtractor CHANNEL_NUMBER_A = FieldExtractor.of(36, 37, 38, 39, 40, 41, 42, 43, 44, 45, 46,
+            47);
+    private static final FieldExtractor SYSTEM_SERVICE_CLASS_A = FieldExtractor.of(48, 49, 50, 51, 52, 53, 54, 55);
+    private static final FieldExtractor FREQUENCY_BAND_B = FieldExtractor.of(56, 57, 58, 59);
+    private static final FieldExtractor CHANNEL_NUMBER_B = FieldExtractor.of(60, 61, 62, 63, 64, 65, 66, 67, 68, 69, 70,
+            71);
+    private static final FieldExtractor SYSTEM_SERVICE_CLASS_B = FieldExtractor.of(72, 73, 74, 75, 76, 77, 78, 79);
 
     private Identifier mRfss;
     private Identifier mSite;
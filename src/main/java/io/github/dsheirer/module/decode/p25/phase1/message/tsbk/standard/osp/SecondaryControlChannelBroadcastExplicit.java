@@ -23,6 +23,7 @@
 package io.github.dsheirer.module.decode.p25.phase1.message.tsbk.standard.osp;
 
 import io.github.dsheirer.bits.CorrectedBinaryMessage;
+import io.github.dsheirer.bits.FieldExtractor;
 import io.github.dsheirer.channel.IChannelDescriptor;
 import io.github.dsheirer.identifier.Identifier;
 import io.github.dsheirer.module.decode.p25.identifier.APCO25Rfss;
@@ -41,14 +42,16 @@ import java.util.List;
  */
 public class SecondaryControlChannelBroadcastExplicit extends OSPMessage implements IFrequencyBandReceiver
 {
-    private static final int[] RFSS = {16, 17, 18, 19, 20, 21, 22, 23};
-    private static final int[] SITE = {24, 25, 26, 27, 28, 29, 30, 31};
-    private static final int[] TRANSMIT_FREQUENCY_BAND = {32, 33, 34, 35};
-    private static final int[] TRANSMIT_CHANNEL_NUMBER = {36, 37, 38, 39, 40, 41, 42, 43, 44, 45, 46, 47};
+    private static final FieldExtractor RFSS = FieldExtractor.of(16, 17, 18, 19, 20, 21, 22, 23);
+    private static final FieldExtractor SITE = FieldExtractor.of(24, 25, 26, 27, 28, 29, 30, 31);
+    private static final FieldExtractor TRANSMIT_FREQUENCY_BAND = FieldExtractor.of(32, 33, 34, 35);
+    private static final FieldExtractor TRANSMIT_CHANNEL_NUMBER = FieldExtractor.of(36, 37, 38, 39, 40, 41, 42, 43, 44,
+            45, 46, 47);
     private static final int[] RESERVED = {48, 49, 50, 51, 52, 53, 54, 55};
-    private static final int[] RECEIVE_FREQUENCY_BAND = {56, 57, 58, 59};
-    private static final int[] RECEIVE_CHANNEL_NUMBER = {60, 61, 62, 63, 64, 65, 66, 67, 68, 69, 70, 71};
-    private static final int[] SYSTEM_SERVICE_CLASS = {72, 73, 74, 75, 76, 77, 78, 79};
+    private static final FieldExtractor RECEIVE_FREQUENCY_BAND = FieldExtractor.of(56, 57, 58, 59);
+    private static final FieldExtractor RECEIVE_CHANNEL_NUMBER = FieldExtractor.of(60, 61, 62, 63, 64, 65, 66, 67, 68,
+            69, 70, 71);
+    private static final FieldExtractor SYSTEM_SERVICE_CLASS = FieldExtractor.of(72, 73, 74, 75, 76, 77, 78, 79);
 
     private Identifier mRfss;
     private Identifier mSite;
@@ -24,6 +24,7 @@ package io.github.dsheirer.module.decode.p25.phase2.message;
 
 import io.github.dsheirer.bits.BinaryMessage;
 import io.github.dsheirer.bits.CorrectedBinaryMessage;
+import io.github.dsheirer.bits.FieldExtractor;
 import io.github.dsheirer.module.decode.p25.phase2.enumeration.ISCHSequence;
 import io.github.dsheirer.module.decode.p25.phase2.enumeration.SuperframeSequence;
 import org.apache.commons.math3.linear.MatrixUtils;
@@ -73,10 +74,10 @@ public class InterSlotSignallingChannel
     }
 
     private static final int[] RESERVED = {0, 1};
-    private static final int[] CHANNEL_NUMBER = {2, 3};
-    private static final int[] ISCH_SEQUENCE = {4, 5};
+    private static final FieldExtractor CHANNEL_NUMBER = FieldExtractor.of(2, 3);
+    private static final FieldExtractor ISCH_SEQUENCE = FieldExtractor.of(4, 5);
     private static final int INBOUND_SACCH_FREE_INDICATOR = 6;
-    private static final int[] SUPERFRAME_SEQUENCE = {7, 8};
+    private static final FieldExtractor SUPERFRAME_SEQUENCE = FieldExtractor.of(7, 8);
 
     private CorrectedBinaryMessage mMessage;
     private boolean mValid;
@@ -20,6 +20,7 @@
 package io.github.dsheirer.module.decode.p25.phase2.message.mac.structure;
 
 import io.github.dsheirer.bits.CorrectedBinaryMessage;
+import io.github.dsheirer.bits.FieldExtractor;
 import io.github.dsheirer.identifier.Identifier;
 import io.github.dsheirer.module.decode.p25.identifier.APCO25Wacn;
 import io.github.dsheirer.module.decode.p25.identifier.radio.APCO25RadioIdentifier;
@@ -36,15 +37,16 @@ public class AcknowledgeResponse extends MacStructure
 {
     private static final int ADDITIONAL_INFORMATION_INDICATOR = 8;
     private static final int EXTENDED_ADDRESS = 9;
-    private static final int[] SERVICE_TYPE = {10, 11, 12, 13, 14, 15};
-
-    private static final int[] TARGET_WACN = {16, 17, 18, 19, 20, 21, 22, 23, 24, 25, 26, 27, 28, 29, 30, 31, 32, 33,
-        34, 35};
-    private static final int[] TARGET_SYSTEM = {36, 37, 38, 39, 40, 41, 42, 43, 44, 45, 46, 47};
-    private static final int[] TARGET_ADDRESS = {48, 49, 50, 51, 52, 53, 54, 55, 56, 57, 58, 59, 60, 61, 62, 63, 64,
-        65, 66, 67, 68, 69, 70, 71};
-    private static final int[] SOURCE_ADDRESS = {24, 25, 26, 27, 28, 29, 30, 31, 32, 33, 34, 35, 36, 37, 38, 39, 40,
-        41, 42, 43, 44, 45, 46, 47};
+    private static final FieldExtractor SERVICE_TYPE = FieldExtractor.of(10, 11, 12, 13, 14, 15);
+
+    private static final FieldExtractor TARGET_WACN = FieldExtractor.of(16, 17, 18, 19, 20, 21, 22, 23, 24, 25, 26, 27,
+            28, 29, 30, 31, 32, 33, 34, 35);
+    private static final FieldExtractor TARGET_SYSTEM = FieldExtractor.of(36, 37, 38, 39, 40, 41, 42, 43, 44, 45, 46,
+            47);
+    private static final FieldExtractor TARGET_ADDRESS = FieldExtractor.of(48, 49, 50, 51, 52, 53, 54, 55, 56, 57, 58,
+            59, 60, 61, 62, 63, 64, 65, 66, 67, 68, 69, 70, 71);
+    private static final FieldExtractor SOURCE_ADDRESS = FieldExtractor.of(24, 25, 26, 27, 28, 29, 30, 31, 32, 33, 34,
+            35, 36, 37, 38, 39, 40, 41, 42, 43, 44, 45, 46, 47);
 
     private List<Identifier> mIdentifiers;
 
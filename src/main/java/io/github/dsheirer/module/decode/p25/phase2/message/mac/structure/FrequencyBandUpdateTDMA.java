@@ -23,6 +23,7 @@
 package io.github.dsheirer.module.decode.p25.phase2.message.mac.structure;
 
 import io.github.dsheirer.bits.CorrectedBinaryMessage;
+import io.github.dsheirer.bits.FieldExtractor;
 import io.github.dsheirer.identifier.Identifier;
 import io.github.dsheirer.module.decode.p25.phase1.message.IFrequencyBand;
 import io.github.dsheirer.module.decode.p25.phase2.message.mac.MacStructure;
@@ -37,13 +38,14 @@ import java.util.List;
  */
 public class FrequencyBandUpdateTDMA extends MacStructure implements IFrequencyBand
 {
-    private static final int[] FREQUENCY_BAND_IDENTIFIER = {8, 9, 10, 11};
-    private static final int[] CHANNEL_TYPE = {12, 13, 14, 15};
+    private static final FieldExtractor FREQUENCY_BAND_IDENTIFIER = FieldExtractor.of(8, 9, 10, 11);
+    private static final FieldExtractor CHANNEL_TYPE = FieldExtractor.of(12, 13, 14, 15);
     private static final int TRANSMIT_OFFSET_SIGN = 16;
-    private static final int[] TRANSMIT_OFFSET = {17, 18, 19, 20, 21, 22, 23, 24, 25, 26, 27, 28, 29};
-    private static final int[] CHANNEL_SPACING = {30, 31, 32, 33, 34, 35, 36, 37, 38, 39};
-    private static final int[] BASE_FREQUENCY = {40, 41, 42, 43, 44, 45, 46, 47, 48, 49, 50, 51, 52, 53, 54, 55, 56, 57,
-        58, 59, 60, 61, 62, 63, 64, 65, 66, 67, 68, 69, 70, 71};
+    private static final FieldExtractor TRANSMIT_OFFSET = FieldExtractor.of(17, 18, 19, 20, 21, 22, 23, 24, 25, 26, 27,
+            28, 29);
+    private static final FieldExtractor CHANNEL_SPACING = FieldExtractor.of(30, 31, 32, 33, 34, 35, 36, 37, 38, 39);
+    private static final FieldExtractor BASE_FREQUENCY = FieldExtractor.of(40, 41, 42, 43, 44, 45, 46, 47, 48, 49, 50,
+            51, 52, 53, 54, 55, 56, 57, 58, 59, 60, 61, 62, 63, 64, 65, 66, 67, 68, 69, 70, 71);
 
     private ChannelType mChannelType;
 
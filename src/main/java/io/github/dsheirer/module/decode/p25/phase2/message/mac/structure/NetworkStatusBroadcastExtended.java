@@ -23,6 +23,7 @@
 package io.github.dsheirer.module.decode.p25.phase2.message.mac.structure;
 
 import io.github.dsheirer.bits.CorrectedBinaryMessage;
+import io.github.dsheirer.bits.FieldExtractor;
 import io.github.dsheirer.channel.IChannelDescriptor;
 import io.github.dsheirer.identifier.Identifier;
 import io.github.dsheirer.module.decode.p25.identifier.APCO25Lra;
@@ -45,15 +46,19 @@ import java.util.List;
  */
 public class NetworkStatusBroadcastExtended extends MacStructure implements IFrequencyBandReceiver
 {
-    private static final int[] LRA = {8, 9, 10, 11, 12, 13, 14, 15};
-    private static final int[] WACN = {16, 17, 18, 19, 20, 21, 22, 23, 24, 25, 26, 27, 28, 29, 30, 31, 32, 33, 34, 35};
-    private static final int[] SYSTEM_ID = {36, 37, 38, 39, 40, 41, 42, 43, 44, 45, 46, 47};
-    private static final int[] TRANSMIT_FREQUENCY_BAND = {48, 49, 50, 51};
-    private static final int[] TRANSMIT_CHANNEL_NUMBER = {52, 53, 54, 55, 56, 57, 58, 59, 60, 61, 62, 63};
-    private static final int[] RECEIVE_FREQUENCY_BAND = {64, 65, 66, 67};
-    private static final int[] RECEIVE_CHANNEL_NUMBER = {68, 69, 70, 71, 72, 73, 74, 75, 76, 77, 78, 79};
-    private static final int[] SERVICE_CLASS = {80, 81, 82, 83, 84, 85, 86, 87};
-    private static final int[] COLOR_CODE = {92, 93, 94, 95, 96, 97, 98, 99, 100, 101, 102, 103};
+    private static final FieldExtractor LRA = FieldExtractor.of(8, 9, 10, 11, 12, 13, 14, 15);
+    private static final FieldExtractor WACN = FieldExtractor.of(16, 17, 18, 19, 20, 21, 22, 23, 24, 25, 26, 27, 28, 29,
+            30, 31, 32, 33, 34, 35);
+    private static final FieldExtractor SYSTEM_ID = FieldExtractor.of(36, 37, 38, 39, 40, 41, 42, 43, 44, 45, 46, 47);
+    private static final FieldExtractor TRANSMIT_FREQUENCY_BAND = FieldExtractor.of(48, 49, 50, 51);
+    private static final FieldExtractor TRANSMIT_CHANNEL_NUMBER = FieldExtractor.of(52, 53, 54, 55, 56, 57, 58, 59, 60,
+            61, 62, 63);
+    private static final FieldExtractor RECEIVE_FREQUENCY_BAND = FieldExtractor.of(64, 65, 66, 67);
+    private static final FieldExtractor RECEIVE_CHANNEL_NUMBER = FieldExtractor.of(68, 69, 70, 71, 72, 73, 74, 75, 76,
+            77, 78, 79);
+    private static final FieldExtractor SERVICE_CLASS = FieldExtractor.of(80, 81, 82, 83, 84, 85, 86, 87);
+    private static final FieldExtractor COLOR_CODE = FieldExtractor.of(92, 93, 94, 95, 96, 97, 98, 99, 100, 101, 102,
+            103);
 
     private List<Identifier> mIdentifiers;
     private Identifier mLRA;
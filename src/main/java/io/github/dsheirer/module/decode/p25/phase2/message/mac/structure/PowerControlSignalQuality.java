@@ -23,6 +23,7 @@
 package io.github.dsheirer.module.decode.p25.phase2.message.mac.structure;
 
 import io.github.dsheirer.bits.CorrectedBinaryMessage;
+import io.github.dsheirer.bits.FieldExtractor;
 import io.github.dsheirer.identifier.Identifier;
 import io.github.dsheirer.module.decode.p25.identifier.radio.APCO25RadioIdentifier;
 import io.github.dsheirer.module.decode.p25.phase2.enumeration.BER;
@@ -37,10 +38,10 @@ import java.util.List;
  */
 public class PowerControlSignalQuality extends MacStructure
 {
-    private static final int[] TARGET_ADDRESS = {8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 23, 24, 25,
-        26, 27, 28, 29, 30, 31};
-    private static final int[] RF_LEVEL = {32, 33, 34, 35};
-    private static final int[] BIT_ERROR_RATE = {36, 37, 38, 39};
+    private static final FieldExtractor TARGET_ADDRESS = FieldExtractor.of(8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19,
+            20, 21, 22, 23, 24, 25, 26, 27, 28, 29, 30, 31);
+    private static final FieldExtractor RF_LEVEL = FieldExtractor.of(32, 33, 34, 35);
+    private static final FieldExtractor BIT_ERROR_RATE = FieldExtractor.of(36, 37, 38, 39);
 
     private List<Identifier> mIdentifiers;
     private Identifier mTargetAddress;
@@ -23,6 +23,7 @@
 package io.github.dsheirer.module.decode.p25.phase2.message.mac.structure;
 
 import io.github.dsheirer.bits.CorrectedBinaryMessage;
+import io.github.dsheirer.bits.FieldExtractor;
 import io.github.dsheirer.channel.IChannelDescriptor;
 import io.github.dsheirer.identifier.Identifier;
 import io.github.dsheirer.identifier.talkgroup.TalkgroupIdentifier;
@@ -40,14 +41,17 @@ import java.util.List;
  */
 public class SNDCPDataChannelAnnouncementExplicit extends MacStructure implements IFrequencyBandReceiver
 {
-    private static final int[] SERVICE_OPTIONS = {8, 9, 10, 11, 12, 13, 14, 15};
+    private static final FieldExtractor SERVICE_OPTIONS = FieldExtractor.of(8, 9, 10, 11, 12, 13, 14, 15);
     private static final int AUTONOMOUS_ACCESS_FLAG = 16;
     private static final int REQUESTED_ACCESS_FLAG = 17;
-    private static final int[] TRANSMIT_FREQUENCY_BAND = {24, 25, 26, 27};
-    private static final int[] TRANSMIT_CHANNEL_NUMBER = {28, 29, 30, 31, 32, 33, 34, 35, 36, 37, 38, 39};
-    private static final int[] RECEIVE_FREQUENCY_BAND = {40, 41, 42, 43};
-    private static final int[] RECEIVE_CHANNEL_NUMBER = {44, 45, 46, 47, 48, 49, 50, 51, 52, 53, 54, 55};
-    private static final int[] DATA_ACCESS_CONTROL = {56, 57, 58, 59, 60, 61, 62, 63, 64, 65, 66, 67, 68, 69, 70, 71};
+    private static final FieldExtractor TRANSMIT_FREQUENCY_BAND = FieldExtractor.of(24, 25, 26, 27);
+    private static final FieldExtractor TRANSMIT_CHANNEL_NUMBER = FieldExtractor.of(28, 29, 30, 31, 32, 33, 34, 35, 36,
+            37, 38, 39);
+    private static final FieldExtractor RECEIVE_FREQUENCY_BAND = FieldExtractor.of(40, 41, 42, 43);
+    private static final FieldExtractor RECEIVE_CHANNEL_NUMBER = FieldExtractor.of(44, 45, 46, 47, 48, 49, 50, 51, 52,
+            53, 54, 55);
+    private static final FieldExtractor DATA_ACCESS_CONTROL = FieldExtractor.of(56, 57, 58, 59, 60, 61, 62, 63, 64, 65,
+            66, 67, 68, 69, 70, 71);
 
     private List<Identifier> mIdentifiers;
     private APCO25Channel mChannel;
@@ -23,6 +23,7 @@
 package io.github.dsheirer.module.decode.p25.phase2.message.mac.structure;
 
 import io.github.dsheirer.bits.CorrectedBinaryMessage;
+import io.github.dsheirer.bits.FieldExtractor;
 import io.github.dsheirer.channel.IChannelDescriptor;
 import io.github.dsheirer.identifier.Identifier;
 import io.github.dsheirer.module.decode.p25.identifier.channel.APCO25Channel;
@@ -39,12 +40,13 @@ import java.util.List;
  */
 public class UnitToUnitVoiceChannelGrantAbbreviated extends MacStructure implements IFrequencyBandReceiver
 {
-    private static final int[] FREQUENCY_BAND = {8, 9, 10, 11};
-    private static final int[] CHANNEL_NUMBER = {12, 13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 23};
-    private static final int[] TARGET_ADDRESS = {16, 17, 18, 19, 20, 21, 22, 23, 24, 25, 26, 27, 28, 29, 30, 31, 32, 33,
-        34, 35, 36, 37, 38, 39};
-    private static final int[] SOURCE_ADDRESS = {40, 41, 42, 43, 44, 45, 46, 47, 48, 49, 50, 51, 52, 53, 54, 55, 56, 57,
-        58, 59, 60, 61, 62, 63};
+    private static final FieldExtractor FREQUENCY_BAND = FieldExtractor.of(8, 9, 10, 11);
+    private static final FieldExtractor CHANNEL_NUMBER = FieldExtractor.of(12, 13, 14, 15, 16, 17, 18, 19, 20, 21, 22,
+            23);
+    private static final FieldExtractor TARGET_ADDRESS = FieldExtractor.of(16, 17, 18, 19, 20, 21, 22, 23, 24, 25, 26,
+            27, 28, 29, 30, 31, 32, 33, 34, 35, 36, 37, 38, 39);
+    private static final FieldExtractor SOURCE_ADDRESS = FieldExtractor.of(40, 41, 42, 43, 44, 45, 46, 47, 48, 49, 50,
+            51, 52, 53, 54, 55, 56, 57, 58, 59, 60, 61, 62, 63);
 
     private List<Identifier> mIdentifiers;
     private APCO25Channel mChannel;
@@ -23,6 +23,7 @@
 package io.github.dsheirer.module.decode.p25.phase2.message.mac.structure;
 
 import io.github.dsheirer.bits.CorrectedBinaryMessage;
+import io.github.dsheirer.bits.FieldExtractor;
 import io.github.dsheirer.channel.IChannelDescriptor;
 import io.github.dsheirer.identifier.Identifier;
 import io.github.dsheirer.module.decode.p25.identifier.channel.APCO25Channel;
@@ -40,17 +41,20 @@ import java.util.List;
  */
 public class UnitToUnitVoiceChannelGrantExtended extends MacStructure implements IFrequencyBandReceiver
 {
-    private static final int[] TRANSMIT_FREQUENCY_BAND = {8, 9, 10, 11};
-    private static final int[] TRANSMIT_CHANNEL_NUMBER = {12, 13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 23};
-    private static final int[] RECEIVE_FREQUENCY_BAND = {24, 25, 26, 27};
-    private static final int[] RECEIVE_CHANNEL_NUMBER = {28, 29, 30, 31, 32, 33, 34, 35, 36, 37, 38, 39};
-    private static final int[] FULLY_QUALIFIED_SOURCE_WACN = {40, 41, 42, 43, 44, 45, 46, 47, 48, 49, 50, 51, 52, 53,
-        54, 55, 56, 57, 58, 59};
-    private static final int[] FULLY_QUALIFIED_SOURCE_SYSTEM = {60, 61, 62, 63, 64, 65, 66, 67, 68, 69, 70, 71};
-    private static final int[] FULLY_QUALIFIED_SOURCE_ID = {72, 73, 74, 75, 76, 77, 78, 79, 80, 81, 82, 83, 84, 85, 86,
-        87, 88, 89, 90, 91, 92, 93, 94, 95};
-    private static final int[] TARGET_ADDRESS = {96, 97, 98, 99, 100, 101, 102, 103, 104, 105, 106, 107, 108, 109, 110,
-        111, 112, 113, 114, 115, 116, 117, 118, 119};
+    private static final FieldExtractor TRANSMIT_FREQUENCY_BAND = FieldExtractor.of(8, 9, 10, 11);
+    private static final FieldExtractor TRANSMIT_CHANNEL_NUMBER = FieldExtractor.of(12, 13, 14, 15, 16, 17, 18, 19, 20,
+            21, 22, 23);
+    private static final FieldExtractor RECEIVE_FREQUENCY_BAND = FieldExtractor.of(24, 25, 26, 27);
+    private static final FieldExtractor RECEIVE_CHANNEL_NUMBER = FieldExtractor.of(28, 29, 30, 31, 32, 33, 34, 35, 36,
+            37, 38, 39);
+    private static final FieldExtractor FULLY_QUALIFIED_SOURCE_WACN = FieldExtractor.of(40, 41, 42, 43, 44, 45, 46, 47,
+            48, 49, 50, 51, 52, 53, 54, 55, 56, 57, 58, 59);
+    private static final FieldExtractor FULLY_QUALIFIED_SOURCE_SYSTEM = FieldExtractor.of(60, 61, 62, 63, 64, 65, 66,
+            67, 68, 69, 70, 71);
+    private static final FieldExtractor FULLY_QUALIFIED_SOURCE_ID = FieldExtractor.of(72, 73, 74, 75, 76, 77, 78, 79,
+            80, 81, 82, 83, 84, 85, 86, 87, 88, 89, 90, 91, 92, 93, 94, 95);
+    private static final FieldExtractor TARGET_ADDRESS = FieldExtractor.of(96, 97, 98, 99, 100, 101, 102, 103, 104, 105,
+            106, 107, 108, 109, 110, 111, 112, 113, 114, 115, 116, 117, 118, 119);
 
     private APCO25Channel mChannel;
     private List<Identifier> mIdentifiers;
@@ -23,6 +23,7 @@
 package io.github.dsheirer.module.decode.p25.phase2.message.mac.structure;
 
 import io.github.dsheirer.bits.CorrectedBinaryMessage;
+import io.github.dsheirer.bits.FieldExtractor;
 import io.github.dsheirer.identifier.Identifier;
 import io.github.dsheirer.module.decode.p25.phase2.message.mac.MacStructure;
 import io.github.dsheirer.module.decode.p25.reference.Vendor;
@@ -35,8 +36,8 @@ import java.util.List;
  */
 public class UnknownVendorMessage extends MacStructure
 {
-    private static final int[] VENDOR = {8, 9, 10, 11, 12, 13, 14, 15};
-    private static final int[] LENGTH = {18, 19, 20, 21, 22, 23};
+    private static final FieldExtractor VENDOR = FieldExtractor.of(8, 9, 10, 11, 12, 13, 14, 15);
+    private static final FieldExtractor LENGTH = FieldExtractor.of(18, 19, 20, 21, 22, 23);
 
     /**
      * Constructs the message
@@ -24,6 +24,7 @@ package io.github.dsheirer.module.decode.p25.phase2.timeslot;
 
 import io.github.dsheirer.bits.BinaryMessage;
 import io.github.dsheirer.bits.CorrectedBinaryMessage;
+import io.github.dsheirer.bits.FieldExtractor;
 import io.github.dsheirer.edac.ReedSolomon_63_35_29_P25;
 import io.github.dsheirer.module.decode.p25.phase2.enumeration.DataUnitID;
 import io.github.dsheirer.module.decode.p25.phase2.message.mac.MacMessage;
@@ -37,58 +38,58 @@ import java.util.List;
  */
 public class SacchTimeslot extends AbstractSignalingTimeslot
 {
-    private static final int[] INFO_1 = {2, 3, 4, 5, 6, 7};
-    private static final int[] INFO_2 = {8, 9, 10, 11, 12, 13};
-    private static final int[] INFO_3 = {14, 15, 16, 17, 18, 19};
-    private static final int[] INFO_4 = {20, 21, 22, 23, 24, 25};
-    private static final int[] INFO_5 = {26, 27, 28, 29, 30, 31};
-    private static final int[] INFO_6 = {32, 33, 34, 35, 36, 37};
-    private static final int[] INFO_7 = {38, 39, 40, 41, 42, 43};
-    private static final int[] INFO_8 = {44, 45, 46, 47, 48, 49};
-    private static final int[] INFO_9 = {50, 51, 52, 53, 54, 55};
-    private static final int[] INFO_10 = {56, 57, 58, 59, 60, 61};
-    private static final int[] INFO_11 = {62, 63, 64, 65, 66, 67};
-    private static final int[] INFO_12 = {68, 69, 70, 71, 72, 73}; //Gap for duid 114-115
-    private static final int[] INFO_13 = {76, 77, 78, 79, 80, 81};
-    private static final int[] INFO_14 = {82, 83, 84, 85, 86, 87};
-    private static final int[] INFO_15 = {88, 89, 90, 91, 92, 93};
-    private static final int[] INFO_16 = {94, 95, 96, 97, 98, 99};
-    private static final int[] INFO_17 = {100, 101, 102, 103, 104, 105};
-    private static final int[] INFO_18 = {106, 107, 108, 109, 110, 111};
-    private static final int[] INFO_19 = {112, 113, 114, 115, 116, 117};
-    private static final int[] INFO_20 = {118, 119, 120, 121, 122, 123};
-    private static final int[] INFO_21 = {124, 125, 126, 127, 128, 129};
-    private static final int[] INFO_22 = {130, 131, 132, 133, 134, 135};
-    private static final int[] INFO_23 = {136, 137, 138, 139, 140, 141};
-    private static final int[] INFO_24 = {142, 143, 144, 145, 146, 147};
-    private static final int[] INFO_25 = {148, 149, 150, 151, 152, 153};
-    private static final int[] INFO_26 = {154, 155, 156, 157, 158, 159};
-    private static final int[] INFO_27 = {160, 161, 162, 163, 164, 165};
-    private static final int[] INFO_28 = {166, 167, 168, 169, 170, 171};
-    private static final int[] INFO_29 = {172, 173, 174, 175, 176, 177};
-    private static final int[] INFO_30 = {178, 179, 180, 181, 182, 183};
-    private static final int[] PARITY_1 = {184, 185, 186, 187, 188, 189};
-    private static final int[] PARITY_2 = {190, 191, 192, 193, 194, 195};
-    private static final int[] PARITY_3 = {196, 197, 198, 199, 200, 201};
-    private static final int[] PARITY_4 = {202, 203, 204, 205, 206, 207};
-    private static final int[] PARITY_5 = {208, 209, 210, 211, 212, 213};
-    private static final int[] PARITY_6 = {214, 215, 216, 217, 218, 219};
-    private static final int[] PARITY_7 = {220, 221, 222, 223, 224, 225};
-    private static final int[] PARITY_8 = {226, 227, 228, 229, 230, 231};
-    private static final int[] PARITY_9 = {232, 233, 234, 235, 236, 237};
-    private static final int[] PARITY_10 = {238, 239, 240, 241, 242, 243}; //Gap for duid 284-285
-    private static final int[] PARITY_11 = {246, 247, 248, 249, 250, 251};
-    private static final int[] PARITY_12 = {252, 253, 254, 255, 256, 257};
-    private static final int[] PARITY_13 = {258, 259, 260, 261, 262, 263};
-    private static final int[] PARITY_14 = {264, 265, 266, 267, 268, 269};
-    private static final int[] PARITY_15 = {270, 271, 272, 273, 274, 275};
-    private static final int[] PARITY_16 = {276, 277, 278, 279, 280, 281};
-    private static final int[] PARITY_17 = {282, 283, 284, 285, 286, 287};
-    private static final int[] PARITY_18 = {288, 289, 290, 291, 292, 293};
-    private static final int[] PARITY_19 = {294, 295, 296, 297, 298, 299};
-    private static final int[] PARITY_20 = {300, 301, 302, 303, 304, 305};
-    private static final int[] PARITY_21 = {306, 307, 308, 309, 310, 311};
-    private static final int[] PARITY_22 = {312, 313, 314, 315, 316, 317};
+    private static final FieldExtractor INFO_1 = FieldExtractor.of(2, 3, 4, 5, 6, 7);
+    private static final FieldExtractor INFO_2 = FieldExtractor.of(8, 9, 10, 11, 12, 13);
+    private static final FieldExtractor INFO_3 = FieldExtractor.of(14, 15, 16, 17, 18, 19);
+    private static final FieldExtractor INFO_4 = FieldExtractor.of(20, 21, 22, 23, 24, 25);
+    private static final FieldExtractor INFO_5 = FieldExtractor.of(26, 27, 28, 29, 30, 31);
+    private static final FieldExtractor INFO_6 = FieldExtractor.of(32, 33, 34, 35, 36, 37);
+    private static final FieldExtractor INFO_7 = FieldExtractor.of(38, 39, 40, 41, 42, 43);
+    private static final FieldExtractor INFO_8 = FieldExtractor.of(44, 45, 46, 47, 48, 49);
+    private static final FieldExtractor INFO_9 = FieldExtractor.of(50, 51, 52, 53, 54, 55);
+    private static final FieldExtractor INFO_10 = FieldExtractor.of(56, 57, 58, 59, 60, 61);
+    private static final FieldExtractor INFO_11 = FieldExtractor.of(62, 63, 64, 65, 66, 67);
+    private static final FieldExtractor INFO_12 = FieldExtractor.of(68, 69, 70, 71, 72, 73); //Gap for duid 114-115
+    private static final FieldExtractor INFO_13 = FieldExtractor.of(76, 77, 78, 79, 80, 81);
+    private static final FieldExtractor INFO_14 = FieldExtractor.of(82, 83, 84, 85, 86, 87);
+    private static final FieldExtractor INFO_15 = FieldExtractor.of(88, 89, 90, 91, 92, 93);
+    private static final FieldExtractor INFO_16 = FieldExtractor.of(94, 95, 96, 97, 98, 99);
+    private static final FieldExtractor INFO_17 = FieldExtractor.of(100, 101, 102, 103, 104, 105);
+    private static final FieldExtractor INFO_18 = FieldExtractor.of(106, 107, 108, 109, 110, 111);
+    private static final FieldExtractor INFO_19 = FieldExtractor.of(112, 113, 114, 115, 116, 117);
+    private static final FieldExtractor INFO_20 = FieldExtractor.of(118, 119, 120, 121, 122, 123);
+    private static final FieldExtractor INFO_21 = FieldExtractor.of(124, 125, 126, 127, 128, 129);
+    private static final FieldExtractor INFO_22 = FieldExtractor.of(130, 131, 132, 133, 134, 135);
+    private static final FieldExtractor INFO_23 = FieldExtractor.of(136, 137, 138, 139, 140, 141);
+    private static final FieldExtractor INFO_24 = FieldExtractor.of(142, 143, 144, 145, 146, 147);
+    private static final FieldExtractor INFO_25 = FieldExtractor.of(148, 149, 150, 151, 152, 153);
+    private static final FieldExtractor INFO_26 = FieldExtractor.of(154, 155, 156, 157, 158, 159);
+    private static final FieldExtractor INFO_27 = FieldExtractor.of(160, 161, 162, 163, 164, 165);
+    private static final FieldExtractor INFO_28 = FieldExtractor.of(166, 167, 168, 169, 170, 171);
+    private static final FieldExtractor INFO_29 = FieldExtractor.of(172, 173, 174, 175, 176, 177);
+    private static final FieldExtractor INFO_30 = FieldExtractor.of(178, 179, 180, 181, 182, 183);
+    private static final FieldExtractor PARITY_1 = FieldExtractor.of(184, 185, 186, 187, 188, 189);
+    private static final FieldExtractor PARITY_2 = FieldExtractor.of(190, 191, 192, 193, 194, 195);
+    private static final FieldExtractor PARITY_3 = FieldExtractor.of(196, 197, 198, 199, 200, 201);
+    private static final FieldExtractor PARITY_4 = FieldExtractor.of(202, 203, 204, 205, 206, 207);
+    private static final FieldExtractor PARITY_5 = FieldExtractor.of(208, 209, 210, 211, 212, 213);
+    private static final FieldExtractor PARITY_6 = FieldExtractor.of(214, 215, 216, 217, 218, 219);
+    private static final FieldExtractor PARITY_7 = FieldExtractor.of(220, 221, 222, 223, 224, 225);
+    private static final FieldExtractor PARITY_8 = FieldExtractor.of(226, 227, 228, 229, 230, 231);
+    private static final FieldExtractor PARITY_9 = FieldExtractor.of(232, 233, 234, 235, 236, 237);
+    private static final FieldExtractor PARITY_10 = FieldExtractor.of(238, 239, 240, 241, 242, 243); //Gap for duid 284-285
+    private static final FieldExtractor PARITY_11 = FieldExtractor.of(246, 247, 248, 249, 250, 251);
+    private static final FieldExtractor PARITY_12 = FieldExtractor.of(252, 253, 254, 255, 256, 257);
+    private static final FieldExtractor PARITY_13 = FieldExtractor.of(258, 259, 260, 261, 262, 263);
+    private static final FieldExtractor PARITY_14 = FieldExtractor.of(264, 265, 266, 267, 268, 269);
+    private static final FieldExtractor PARITY_15 = FieldExtractor.of(270, 271, 272, 273, 274, 275);
+    private static final FieldExtractor PARITY_16 = FieldExtractor.of(276, 277, 278, 279, 280, 281);
+    private static final FieldExtractor PARITY_17 = FieldExtractor.of(282, 283, 284, 285, 286, 287);
+    private static final FieldExtractor PARITY_18 = FieldExtractor.of(288, 289, 290, 291, 292, 293);
+    private static final FieldExtractor PARITY_19 = FieldExtractor.of(294, 295, 296, 297, 298, 299);
+    private static final FieldExtractor PARITY_20 = FieldExtractor.of(300, 301, 302, 303, 304, 305);
+    private static final FieldExtractor PARITY_21 = FieldExtractor.of(306, 307, 308, 309, 310, 311);
+    private static final FieldExtractor PARITY_22 = FieldExtractor.of(312, 313, 314, 315, 316, 317);
 
     private List<MacMessage> mMacMessages;
 
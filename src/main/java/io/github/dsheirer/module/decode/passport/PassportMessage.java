@@ -21,6 +21,7 @@ package io.github.dsheirer.module.decode.passport;
 
 
 import io.github.dsheirer.bits.CorrectedBinaryMessage;
+import io.github.dsheirer.bits.FieldExtractor;
 import io.github.dsheirer.edac.CRC;
 import io.github.dsheirer.edac.CRCPassport;
 import io.github.dsheirer.identifier.Identifier;
@@ -37,15 +38,17 @@ import java.util.List;
 public class PassportMessage extends Message
 {
     private static final int[] SYNC = {0, 1, 2, 3, 4, 5, 6, 7, 8};
-    private static final int[] DIGITAL_COLOR_CODE = {9, 10};
-    private static final int[] CHANNEL_NUMBER = {11, 12, 13, 14, 15, 16, 17, 18, 19, 20, 21};
-    private static final int[] SITE = {22, 23, 24, 25, 26, 27, 28};
-    private static final int[] GROUP = {29, 30, 31, 32, 33, 34, 35, 36, 37, 38, 39, 40, 41, 42, 43, 44};
-    private static final int[] RADIO_ID = {22, 23, 24, 25, 26, 27, 28, 29, 30, 31, 32, 33, 34, 35, 36, 37, 38, 39, 40, 41, 42, 43, 44};
-    private static final int[] NEIGHBOR_BAND = {33, 34, 35, 36};
-    private static final int[] SITE_BAND = {41, 42, 43, 44};
-    private static final int[] TYPE = {45, 46, 47, 48};
-    private static final int[] FREE = {49, 50, 51, 52, 53, 54, 55, 56, 57, 58, 59};
+    private static final FieldExtractor DIGITAL_COLOR_CODE = FieldExtractor.of(9, 10);
+    private static final FieldExtractor CHANNEL_NUMBER = FieldExtractor.of(11, 12, 13, 14, 15, 16, 17, 18, 19, 20, 21);
+    private static final FieldExtractor SITE = FieldExtractor.of(22, 23, 24, 25, 26, 27, 28);
+    private static final FieldExtractor GROUP = FieldExtractor.of(29, 30, 31, 32, 33, 34, 35, 36, 37, 38, 39, 40, 41,
+            42, 43, 44);
+    private static final FieldExtractor RADIO_ID = FieldExtractor.of(22, 23, 24, 25, 26, 27, 28, 29, 30, 31, 32, 33, 34,
+            35, 36, 37, 38, 39, 40, 41, 42, 43, 44);
+    private static final FieldExtractor NEIGHBOR_BAND = FieldExtractor.of(33, 34, 35, 36);
+    private static final FieldExtractor SITE_BAND = FieldExtractor.of(41, 42, 43, 44);
+    private static final FieldExtractor TYPE = FieldExtractor.of(45, 46, 47, 48);
+    private static final FieldExtractor FREE = FieldExtractor.of(49, 50, 51, 52, 53, 54, 55, 56, 57, 58, 59);
     private static final int[] CHECKSUM = {60, 61, 62, 63, 64, 65, 66, 67};
 
     private CorrectedBinaryMessage mMessage;
@@ -60,9 +60,10 @@ public class DecodeEventLogger extends EventLogger implements IDecodeEventListen
             .setQuoteMode(QuoteMode.ALL)
             .build();
 
-    public DecodeEventLogger(AliasModel aliasModel, Path logDirectory, String fileNameSuffix, long frequency)
+    public DecodeEventLogger(AliasModel aliasModel, EventLogWriter eventLogWriter, Path logDirectory,
+                             String fileNameSuffix, long frequency)
     {
-        super(logDirectory, fileNameSuffix, frequency);
+        super(eventLogWriter, logDirectory, fileNameSuffix, frequency);
         mAliasModel = aliasModel;
     }
 
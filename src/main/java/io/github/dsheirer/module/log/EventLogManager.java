@@ -39,11 +39,33 @@ public class EventLogManager
 
     private UserPreferences mUserPreferences;
     private AliasModel mAliasModel;
+    private EventLogWriter mEventLogWriter;
 
     public EventLogManager(AliasModel aliasModel, UserPreferences userPreferences)
     {
         mAliasModel = aliasModel;
         mUserPreferences = userPreferences;
+        mEventLogWriter = new EventLogWriter(userPreferences.getDecodeEventPreference().getEventLogQueueSize(),
+            userPreferences.getDecodeEventPreference().getEventLogFlushInterval(),
+            userPreferences.getDecodeEventPreference().getEventLogMaxBatchSize());
+    }
+
+    /**
+     * Asynchronous writer shared by all event loggers created by this manager
+     */
+    public EventLogWriter getEventLogWriter()
+    {
+        return mEventLogWriter;
+    }
+
+    /**
+     * Stops the event log writer after writing any queued log entries.  Invoke after the channels (and their event
+     * loggers) have been stopped.
+     */
+    public void stop()
+    {
+        mEventLogWriter.stop();
+        mLog.info(mEventLogWriter.getMetricsSummary());
     }
 
     public List<Module> getLoggers(Channel channel)
@@ -96,13 +118,15 @@ public class EventLogManager
         switch(eventLogType)
         {
             case CALL_EVENT:
-                return new DecodeEventLogger(mAliasModel, eventLogDirectory, sb.toString(), frequency);
+                return new DecodeEventLogger(mAliasModel, mEventLogWriter, eventLogDirectory, sb.toString(), frequency);
             case DECODED_MESSAGE:
-                return new MessageEventLogger(eventLogDirectory, sb.toString(), MessageEventLogger.Type.DECODED, frequency);
+                return new MessageEventLogger(mEventLogWriter, eventLogDirectory, sb.toString(),
+                    MessageEventLogger.Type.DECODED, frequency);
             case TRAFFIC_CALL_EVENT:
-                return new DecodeEventLogger(mAliasModel, eventLogDirectory, sb.toString(), frequency);
+                return new DecodeEventLogger(mAliasModel, mEventLogWriter, eventLogDirectory, sb.toString(), frequency);
             case TRAFFIC_DECODED_MESSAGE:
-                return new MessageEventLogger(eventLogDirectory, sb.toString(), MessageEventLogger.Type.DECODED, frequency);
+                return new MessageEventLogger(mEventLogWriter, eventLogDirectory, sb.toString(),
+                    MessageEventLogger.Type.DECODED, frequency);
             default:
                 return null;
         }
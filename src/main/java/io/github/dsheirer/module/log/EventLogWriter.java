@@ -0,0 +1,411 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.module.log;
+
+import io.github.dsheirer.util.Dispatcher;
+import io.github.dsheirer.util.IBatchListener;
+import io.github.dsheirer.util.ThreadPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Asynchronous event log writer shared by the event loggers of all channels.
+ *
+ * Event loggers enqueue log entries on the caller's (decoder) thread and a single writer thread drains the queue in
+ * batches, writing the entries to buffered log file writers.  Log files are flushed periodically (group commit),
+ * rather than after every entry, so that a busy channel doesn't produce a system call per logged message.  The
+ * flush interval bounds how long an entry can be buffered before it reaches the log file.  A flush interval of zero
+ * flushes every log file that was written after each batch.
+ *
+ * The entry queue is bounded.  Entries that arrive while the queue is full are dropped and counted, so that a slow
+ * disk can't back-pressure the decoders.
+ */
+public class EventLogWriter
+{
+    private final static Logger mLog = LoggerFactory.getLogger(EventLogWriter.class);
+    private static final int WRITE_BUFFER_SIZE = 16384;
+    private static final long DROPPED_LOG_INTERVAL_MS = 10000;
+    private static final long STOP_TIMEOUT_MS = 5000;
+    private static final Entry POISON_PILL = new Entry(null, null);
+    private static final Entry FLUSH = new Entry(null, null);
+    private Dispatcher<Entry> mDispatcher;
+    private List<LogFile> mLogFiles = new CopyOnWriteArrayList<>();
+    private ScheduledFuture<?> mFlushFuture;
+    private long mFlushIntervalMs;
+    private AtomicLong mWrittenCount = new AtomicLong();
+    private AtomicLong mFlushCount = new AtomicLong();
+    private AtomicLong mDroppedCount = new AtomicLong();
+    private volatile long mLastDroppedLogTimestamp;
+
+    /**
+     * Constructs an instance
+     * @param queueSize maximum number of entries waiting to be written
+     * @param flushIntervalMs maximum time that entries are buffered before they are flushed, or zero to flush after
+     * every batch
+     * @param maxBatchSize maximum number of entries written per batch
+     */
+    public EventLogWriter(int queueSize, long flushIntervalMs, int maxBatchSize)
+    {
+        mFlushIntervalMs = flushIntervalMs;
+        mDispatcher = new Dispatcher<>(queueSize, "sdrtrunk event log writer", POISON_PILL);
+        mDispatcher.setBatchListener(new BatchWriter(), maxBatchSize);
+        mDispatcher.setDiscardListener(this::dropped);
+    }
+
+    /**
+     * Opens a log file for writing through this writer.  The writer is started on the first open.
+     * @param path of the log file to create
+     * @return log file handle
+     * @throws IOException if the log file can't be created
+     */
+    public LogFile open(Path path) throws IOException
+    {
+        start();
+        LogFile logFile = new LogFile(path);
+        mLogFiles.add(logFile);
+        return logFile;
+    }
+
+    /**
+     * Starts the writer thread and the periodic flush, if not already started.
+     */
+    private synchronized void start()
+    {
+        if(!mDispatcher.isRunning())
+        {
+            mDispatcher.start();
+
+            if(mFlushIntervalMs > 0)
+            {
+                mFlushFuture = ThreadPool.SCHEDULED.scheduleAtFixedRate(() -> mDispatcher.receive(FLUSH),
+                    mFlushIntervalMs, mFlushIntervalMs, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Stops the writer after writing any queued entries (waiting up to 5 seconds), and then flushes and closes all
+     * log files.
+     */
+    public synchronized void stop()
+    {
+        if(mFlushFuture != null)
+        {
+            mFlushFuture.cancel(false);
+            mFlushFuture = null;
+        }
+
+        if(mDispatcher.isRunning())
+        {
+            mDispatcher.flushAndStop();
+
+            long deadline = System.currentTimeMillis() + STOP_TIMEOUT_MS;
+
+            while(mDispatcher.isRunning() && System.currentTimeMillis() < deadline)
+            {
+                try
+                {
+                    Thread.sleep(10);
+                }
+                catch(InterruptedException ie)
+                {
+                    break;
+                }
+            }
+
+            if(mDispatcher.isRunning())
+            {
+                mLog.warn("Timeout while waiting for queued event log entries to be written");
+                mDispatcher.stop();
+            }
+        }
+
+        for(LogFile logFile: mLogFiles)
+        {
+            logFile.mClosed = true;
+            logFile.mCloseOnFlush = true;
+        }
+
+        flushLogFiles();
+
+        if(mDroppedCount.get() > 0)
+        {
+            mLog.warn(getMetricsSummary());
+        }
+    }
+
+    /**
+     * Counts an entry that was dropped because the queue was full and logs a (rate-limited) warning.
+     */
+    private void dropped(Entry entry)
+    {
+        if(entry.isCloseMarker())
+        {
+            //Close the log file on the next flush instead
+            entry.mLogFile.mCloseOnFlush = true;
+        }
+        else if(entry != FLUSH && entry != POISON_PILL)
+        {
+            long dropped = mDroppedCount.incrementAndGet();
+            long now = System.currentTimeMillis();
+
+            if(now - mLastDroppedLogTimestamp > DROPPED_LOG_INTERVAL_MS)
+            {
+                mLastDroppedLogTimestamp = now;
+                mLog.warn("Event log writer queue is full - total dropped event log entries [" + dropped + "]");
+            }
+        }
+    }
+
+    /**
+     * Flushes all log files and closes (and removes) any log files whose close marker was dropped, or all log files
+     * that have been closed by their event logger when this writer is stopping.
+     */
+    private void flushLogFiles()
+    {
+        Iterator<LogFile> it = mLogFiles.iterator();
+
+        while(it.hasNext())
+        {
+            LogFile logFile = it.next();
+            logFile.flush();
+
+            if(logFile.mCloseOnFlush)
+            {
+                logFile.closeWriter();
+                mLogFiles.remove(logFile);
+            }
+        }
+
+        mFlushCount.incrementAndGet();
+    }
+
+    /**
+     * Number of entries written to log files
+     */
+    public long getWrittenCount()
+    {
+        return mWrittenCount.get();
+    }
+
+    /**
+     * Number of entries dropped because the queue was full
+     */
+    public long getDroppedCount()
+    {
+        return mDroppedCount.get();
+    }
+
+    /**
+     * Number of entries waiting to be written
+     */
+    public int getQueueDepth()
+    {
+        return mDispatcher.getQueueDepth();
+    }
+
+    /**
+     * Summary of the event log writer metrics
+     */
+    public String getMetricsSummary()
+    {
+        return "Event log writer - written [" + getWrittenCount() + "] dropped [" + getDroppedCount() +
+            "] flushes [" + mFlushCount.get() + "] batches [" + mDispatcher.getBatchCount() + "] queued [" +
+            getQueueDepth() + "] open files [" + mLogFiles.size() + "]";
+    }
+
+    /**
+     * Queued log entry, a log file close marker (null text), or the flush marker
+     */
+    private static class Entry
+    {
+        private LogFile mLogFile;
+        private String mText;
+
+        private Entry(LogFile logFile, String text)
+        {
+            mLogFile = logFile;
+            mText = text;
+        }
+
+        private boolean isCloseMarker()
+        {
+            return mLogFile != null && mText == null;
+        }
+    }
+
+    /**
+     * Writes each batch of entries on the writer thread.
+     */
+    private class BatchWriter implements IBatchListener<Entry>
+    {
+        @Override
+        public void receive(List<Entry> batch)
+        {
+            boolean flush = mFlushIntervalMs <= 0;
+
+            for(Entry entry: batch)
+            {
+                if(entry == FLUSH)
+                {
+                    flush = true;
+                }
+                else if(entry.isCloseMarker())
+                {
+                    entry.mLogFile.flush();
+                    entry.mLogFile.closeWriter();
+                    mLogFiles.remove(entry.mLogFile);
+                }
+                else if(entry.mLogFile.append(entry.mText))
+                {
+                    mWrittenCount.incrementAndGet();
+                }
+            }
+
+            if(flush)
+            {
+                flushLogFiles();
+            }
+        }
+    }
+
+    /**
+     * Event log file handle.  Entries are written asynchronously by the event log writer thread.
+     */
+    public class LogFile
+    {
+        private Path mPath;
+        private Writer mWriter;
+        private boolean mDirty;
+        private volatile boolean mClosed;
+        private volatile boolean mCloseOnFlush;
+
+        private LogFile(Path path) throws IOException
+        {
+            mPath = path;
+            mWriter = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(path.toFile())), WRITE_BUFFER_SIZE);
+        }
+
+        /**
+         * Path to the log file
+         */
+        public Path getPath()
+        {
+            return mPath;
+        }
+
+        /**
+         * Enqueues the entry to be written to this log file.  The entry is dropped if the writer queue is full.
+         * @param entry to write, a line separator is appended.
+         */
+        public void write(String entry)
+        {
+            if(!mClosed)
+            {
+                mDispatcher.receive(new Entry(this, entry != null ? entry : ""));
+            }
+        }
+
+        /**
+         * Closes this log file once all entries enqueued before this call have been written.
+         */
+        public void close()
+        {
+            mClosed = true;
+            mDispatcher.receive(new Entry(this, null));
+        }
+
+        /**
+         * Writes the entry to the buffered writer.  Invoked on the writer thread.
+         * @return true if the entry was written
+         */
+        private synchronized boolean append(String entry)
+        {
+            if(mWriter != null)
+            {
+                try
+                {
+                    mWriter.write(entry);
+                    mWriter.write('\n');
+                    mDirty = true;
+                    return true;
+                }
+                catch(IOException ioe)
+                {
+                    mLog.error("Error writing entry to event log file [" + mPath + "]", ioe);
+                }
+            }
+
+            return false;
+        }
+
+        /**
+         * Flushes buffered entries to the log file, if any entries were written since the last flush.
+         */
+        private synchronized void flush()
+        {
+            if(mWriter != null && mDirty)
+            {
+                try
+                {
+                    mWriter.flush();
+                    mDirty = false;
+                }
+                catch(IOException ioe)
+                {
+                    mLog.error("Error flushing event log file [" + mPath + "]", ioe);
+                }
+            }
+        }
+
+        /**
+         * Closes the underlying writer.
+         */
+        private synchronized void closeWriter()
+        {
+            if(mWriter != null)
+            {
+                try
+                {
+                    mWriter.close();
+                }
+                catch(IOException ioe)
+                {
+                    mLog.error("Couldn't close event log file [" + mPath + "]", ioe);
+                }
+
+                mWriter = null;
+            }
+        }
+    }
+}
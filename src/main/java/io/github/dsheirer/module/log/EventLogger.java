@@ -24,24 +24,27 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
-import java.io.OutputStreamWriter;
-import java.io.Writer;
+import java.io.IOException;
 import java.nio.file.Path;
 
+/**
+ * Base event logger.  Log entries are written asynchronously through the shared event log writer, so that logging
+ * doesn't block the decoder thread on file I/O.
+ */
 public abstract class EventLogger extends Module
 {
     private final static Logger mLog = LoggerFactory.getLogger(EventLogger.class);
 
+    private EventLogWriter mEventLogWriter;
     private Path mLogDirectory;
     private String mFileNameSuffix;
     private String mLogFileName;
     private long mFrequency;
-    protected Writer mLogFile;
+    protected EventLogWriter.LogFile mLogFile;
 
-    public EventLogger(Path logDirectory, String fileNameSuffix, long frequency)
+    public EventLogger(EventLogWriter eventLogWriter, Path logDirectory, String fileNameSuffix, long frequency)
     {
+        mEventLogWriter = eventLogWriter;
         mLogDirectory = logDirectory;
         mFileNameSuffix = fileNameSuffix;
         mFrequency = frequency;
@@ -81,11 +84,11 @@ public abstract class EventLogger extends Module
 
                 mLog.info("Creating log file:" + mLogFileName);
 
-                mLogFile = new OutputStreamWriter(new FileOutputStream(mLogFileName));
+                mLogFile = mEventLogWriter.open(Path.of(mLogFileName));
 
                 write(getHeader());
             }
-            catch(FileNotFoundException e)
+            catch(IOException e)
             {
                 mLog.error("Couldn't create log file in directory:" + mLogDirectory);
             }
@@ -96,32 +99,18 @@ public abstract class EventLogger extends Module
     {
         if(mLogFile != null)
         {
-            try
-            {
-                mLogFile.flush();
-                mLogFile.close();
-                mLogFile = null;
-            }
-            catch(Exception e)
-            {
-                mLog.error("Couldn't close log file:" + mFileNameSuffix);
-            }
+            mLogFile.close();
+            mLogFile = null;
         }
     }
 
     protected void write(String eventLogEntry)
     {
-        try
-        {
-            if(mLogFile != null)
-            {
-                mLogFile.write((eventLogEntry != null ? eventLogEntry : "") + "\n");
-                mLogFile.flush();
-            }
-        }
-        catch(Exception e)
+        EventLogWriter.LogFile logFile = mLogFile;
+
+        if(logFile != null)
         {
-            mLog.error("Error writing entry to event log file", e);
+            logFile.write(eventLogEntry);
         }
     }
 }
@@ -77,6 +77,7 @@ public class PlaylistManager implements Listener<ChannelEvent>
     private AtomicBoolean mPlaylistSavePending = new AtomicBoolean();
     private ScheduledFuture<?> mPlaylistSaveFuture;
     private boolean mPlaylistLoading = false;
+    private boolean mReadOnly = false;
 
     /**
      * Playlist manager - manages all channel configurations, channel maps, and alias lists and handles loading or
@@ -226,6 +227,37 @@ public class PlaylistManager implements Listener<ChannelEvent>
         init();
     }
 
+    /**
+     * Loads the specified playlist into the models without changing the current playlist preference.  Automatic
+     * playlist saves are disabled afterward so that the loaded playlist is never written over the current playlist.
+     * Intended for headless tools that process a playlist other than the current playlist.
+     * @param path to the playlist file
+     * @throws IOException if the playlist cannot be read
+     */
+    public void loadReadOnly(Path path) throws IOException
+    {
+        if(path == null || !Files.exists(path))
+        {
+            throw new IOException("Playlist file not found [" + path + "]");
+        }
+
+        saveNow();
+        mReadOnly = true;
+
+        JacksonXmlModule xmlModule = new JacksonXmlModule();
+        xmlModule.setDefaultUseWrapper(false);
+        ObjectMapper objectMapper = new XmlMapper(xmlModule)
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+        try(InputStream in = Files.newInputStream(path))
+        {
+            PlaylistV2 playlist = objectMapper.readValue(in, PlaylistV2.class);
+            PlaylistUpdater.update(playlist);
+            mLog.info("Loading playlist (read-only) [" + path + "]");
+            transferPlaylistToModels(playlist);
+        }
+    }
+
     /**
      * Checks the path argument to determine if it is a valid V2 playlist file by loading and deserializer the file.
      * @param path to check
@@ -542,7 +574,7 @@ public class PlaylistManager implements Listener<ChannelEvent>
      */
     public void schedulePlaylistSave()
     {
-        if(!mPlaylistLoading)
+        if(!mPlaylistLoading && !mReadOnly)
         {
             if(mPlaylistSavePending.compareAndSet(false, true))
             {
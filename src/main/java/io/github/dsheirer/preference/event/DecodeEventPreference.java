@@ -30,7 +30,7 @@ import org.slf4j.LoggerFactory;
 import java.util.prefs.Preferences;
 
 /**
- * User preferences for the display of channel decode events
+ * User preferences for the display and logging of channel decode events
  */
 public class DecodeEventPreference extends Preference
 {
@@ -38,6 +38,15 @@ public class DecodeEventPreference extends Preference
     private Preferences mPreferences = Preferences.userNodeForPackage(DecodeEventPreference.class);
     private TimestampFormat mTimestampFormat = TimestampFormat.TIMESTAMP_DEFAULT;
     private static final String TIMESTAMP_FORMAT_KEY = "timestamp.format";
+    private static final String EVENT_LOG_FLUSH_INTERVAL_KEY = "event.log.flush.interval";
+    private static final String EVENT_LOG_MAX_BATCH_SIZE_KEY = "event.log.max.batch.size";
+    private static final String EVENT_LOG_QUEUE_SIZE_KEY = "event.log.queue.size";
+    private static final String EVENT_STORE_ENABLED_KEY = "event.store.enabled";
+    private static final String EVENT_STORE_RETENTION_DAYS_KEY = "event.store.retention.days";
+    public static final long DEFAULT_EVENT_LOG_FLUSH_INTERVAL_MS = 1000;
+    public static final int DEFAULT_EVENT_LOG_MAX_BATCH_SIZE = 256;
+    public static final int DEFAULT_EVENT_LOG_QUEUE_SIZE = 10000;
+    public static final int DEFAULT_EVENT_STORE_RETENTION_DAYS = 30;
 
     public DecodeEventPreference(Listener<PreferenceType> updateListener)
     {
@@ -87,4 +96,97 @@ public class DecodeEventPreference extends Preference
         mPreferences.put(TIMESTAMP_FORMAT_KEY, mTimestampFormat.name());
         notifyPreferenceUpdated();
     }
+
+    /**
+     * Maximum time that event log entries are buffered before they are flushed to the log files.  A value of zero
+     * flushes the log files after every batch of entries.
+     * @return flush interval in milliseconds
+     */
+    public long getEventLogFlushInterval()
+    {
+        return Math.max(0, mPreferences.getLong(EVENT_LOG_FLUSH_INTERVAL_KEY, DEFAULT_EVENT_LOG_FLUSH_INTERVAL_MS));
+    }
+
+    /**
+     * Sets the event log flush interval.  Takes effect the next time the application starts.
+     * @param intervalMs flush interval in milliseconds, or zero to flush after every batch
+     */
+    public void setEventLogFlushInterval(long intervalMs)
+    {
+        mPreferences.putLong(EVENT_LOG_FLUSH_INTERVAL_KEY, Math.max(0, intervalMs));
+        notifyPreferenceUpdated();
+    }
+
+    /**
+     * Maximum number of event log entries written per batch
+     */
+    public int getEventLogMaxBatchSize()
+    {
+        return Math.max(1, mPreferences.getInt(EVENT_LOG_MAX_BATCH_SIZE_KEY, DEFAULT_EVENT_LOG_MAX_BATCH_SIZE));
+    }
+
+    /**
+     * Sets the maximum number of event log entries written per batch.  Takes effect the next time the application
+     * starts.
+     */
+    public void setEventLogMaxBatchSize(int maxBatchSize)
+    {
+        mPreferences.putInt(EVENT_LOG_MAX_BATCH_SIZE_KEY, Math.max(1, maxBatchSize));
+        notifyPreferenceUpdated();
+    }
+
+    /**
+     * Maximum number of event log entries waiting to be written.  Entries that arrive when the queue is full are
+     * dropped and counted.
+     */
+    public int getEventLogQueueSize()
+    {
+        return Math.max(1, mPreferences.getInt(EVENT_LOG_QUEUE_SIZE_KEY, DEFAULT_EVENT_LOG_QUEUE_SIZE));
+    }
+
+    /**
+     * Sets the maximum number of event log entries waiting to be written.  Takes effect the next time the
+     * application starts.
+     */
+    public void setEventLogQueueSize(int queueSize)
+    {
+        mPreferences.putInt(EVENT_LOG_QUEUE_SIZE_KEY, Math.max(1, queueSize));
+        notifyPreferenceUpdated();
+    }
+
+    /**
+     * Indicates if decode events are saved to the indexed decode event store.  Disabled by default.
+     */
+    public boolean isEventStoreEnabled()
+    {
+        return mPreferences.getBoolean(EVENT_STORE_ENABLED_KEY, false);
+    }
+
+    /**
+     * Enables or disables the decode event store.  Takes effect the next time the application starts.
+     */
+    public void setEventStoreEnabled(boolean enabled)
+    {
+        mPreferences.putBoolean(EVENT_STORE_ENABLED_KEY, enabled);
+        notifyPreferenceUpdated();
+    }
+
+    /**
+     * Number of days that decode events are retained in the decode event store, or zero to retain all decode events
+     */
+    public int getEventStoreRetentionDays()
+    {
+        return Math.max(0, mPreferences.getInt(EVENT_STORE_RETENTION_DAYS_KEY, DEFAULT_EVENT_STORE_RETENTION_DAYS));
+    }
+
+    /**
+     * Sets the number of days that decode events are retained in the decode event store.  Takes effect the next
+     * time the application starts.
+     * @param retentionDays number of days, or zero to retain all decode events
+     */
+    public void setEventStoreRetentionDays(int retentionDays)
+    {
+        mPreferences.putInt(EVENT_STORE_RETENTION_DAYS_KEY, Math.max(0, retentionDays));
+        notifyPreferenceUpdated();
+    }
 }
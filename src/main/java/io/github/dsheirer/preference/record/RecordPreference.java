@@ -19,8 +19,10 @@
 
 package io.github.dsheirer.preference.record;
 
+import io.github.dsheirer.audio.AudioSegmentStorage;
 import io.github.dsheirer.preference.Preference;
 import io.github.dsheirer.preference.PreferenceType;
+import io.github.dsheirer.record.BasebandRecordFormat;
 import io.github.dsheirer.record.RecordFormat;
 import io.github.dsheirer.sample.Listener;
 import org.slf4j.Logger;
@@ -34,10 +36,21 @@ import java.util.prefs.Preferences;
 public class RecordPreference extends Preference
 {
     private static final String PREFERENCE_KEY_AUDIO_RECORD_FORMAT = "audio.record.format";
+    private static final String PREFERENCE_KEY_BASEBAND_RECORD_FORMAT = "baseband.record.format";
+    private static final String PREFERENCE_KEY_ENCODER_THREAD_COUNT = "audio.record.encoder.threads";
+    private static final String PREFERENCE_KEY_MAX_PENDING_RECORDINGS = "audio.record.max.pending";
+    private static final String PREFERENCE_KEY_AUDIO_SEGMENT_STORAGE = "audio.segment.storage";
+    public static final int DEFAULT_MAX_PENDING_RECORDINGS = 1000;
     private static final RecordFormat DEFAULT_RECORD_FORMAT = RecordFormat.MP3;
+    private static final BasebandRecordFormat DEFAULT_BASEBAND_RECORD_FORMAT = BasebandRecordFormat.WAVE;
+    private static final AudioSegmentStorage DEFAULT_AUDIO_SEGMENT_STORAGE = AudioSegmentStorage.FLOAT;
     private final static Logger mLog = LoggerFactory.getLogger(RecordPreference.class);
     private Preferences mPreferences = Preferences.userNodeForPackage(RecordPreference.class);
     private RecordFormat mAudioRecordFormat;
+    private BasebandRecordFormat mBasebandRecordFormat;
+    private Integer mEncoderThreadCount;
+    private Integer mMaxPendingRecordings;
+    private AudioSegmentStorage mAudioSegmentStorage;
 
     /**
      * Constructs this preference with an update listener
@@ -90,4 +103,149 @@ public class RecordPreference extends Preference
         mPreferences.put(PREFERENCE_KEY_AUDIO_RECORD_FORMAT, audioRecordFormat.name());
         notifyPreferenceUpdated();
     }
+
+    /**
+     * Baseband (tuner I/Q sample) recording format
+     */
+    public BasebandRecordFormat getBasebandRecordFormat()
+    {
+        if(mBasebandRecordFormat == null)
+        {
+            try
+            {
+                String format = mPreferences.get(PREFERENCE_KEY_BASEBAND_RECORD_FORMAT,
+                    DEFAULT_BASEBAND_RECORD_FORMAT.name());
+                mBasebandRecordFormat = BasebandRecordFormat.valueOf(format);
+            }
+            catch(Exception e)
+            {
+                mLog.error("Error parsing baseband record format preference", e);
+            }
+
+            if(mBasebandRecordFormat == null)
+            {
+                mBasebandRecordFormat = DEFAULT_BASEBAND_RECORD_FORMAT;
+            }
+        }
+
+        return mBasebandRecordFormat;
+    }
+
+    /**
+     * Sets the baseband (tuner I/Q sample) recording format
+     */
+    public void setBasebandRecordFormat(BasebandRecordFormat basebandRecordFormat)
+    {
+        mBasebandRecordFormat = basebandRecordFormat;
+        mPreferences.put(PREFERENCE_KEY_BASEBAND_RECORD_FORMAT, basebandRecordFormat.name());
+        notifyPreferenceUpdated();
+    }
+
+    /**
+     * Default number of audio recording encoder threads: half of the available processors, limited to 1 - 4 threads.
+     */
+    public static int getDefaultEncoderThreadCount()
+    {
+        return Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+    }
+
+    /**
+     * Number of threads used to encode (e.g. MP3) completed audio segments for recording
+     */
+    public int getEncoderThreadCount()
+    {
+        if(mEncoderThreadCount == null)
+        {
+            mEncoderThreadCount = mPreferences.getInt(PREFERENCE_KEY_ENCODER_THREAD_COUNT,
+                getDefaultEncoderThreadCount());
+
+            if(mEncoderThreadCount < 1)
+            {
+                mEncoderThreadCount = 1;
+            }
+        }
+
+        return mEncoderThreadCount;
+    }
+
+    /**
+     * Sets the number of threads used to encode completed audio segments for recording
+     * @param count of threads, minimum 1.  Takes effect the next time the application starts.
+     */
+    public void setEncoderThreadCount(int count)
+    {
+        mEncoderThreadCount = Math.max(1, count);
+        mPreferences.putInt(PREFERENCE_KEY_ENCODER_THREAD_COUNT, mEncoderThreadCount);
+        notifyPreferenceUpdated();
+    }
+
+    /**
+     * Maximum number of completed audio segments that can be waiting to be encoded and written.  Audio segments that
+     * complete while the recording pipeline is full are not recorded.
+     */
+    public int getMaxPendingRecordings()
+    {
+        if(mMaxPendingRecordings == null)
+        {
+            mMaxPendingRecordings = mPreferences.getInt(PREFERENCE_KEY_MAX_PENDING_RECORDINGS,
+                DEFAULT_MAX_PENDING_RECORDINGS);
+
+            if(mMaxPendingRecordings < 1)
+            {
+                mMaxPendingRecordings = DEFAULT_MAX_PENDING_RECORDINGS;
+            }
+        }
+
+        return mMaxPendingRecordings;
+    }
+
+    /**
+     * Sets the maximum number of completed audio segments that can be waiting to be encoded and written.
+     * @param maxPending recordings, minimum 1.  Takes effect the next time the application starts.
+     */
+    public void setMaxPendingRecordings(int maxPending)
+    {
+        mMaxPendingRecordings = Math.max(1, maxPending);
+        mPreferences.putInt(PREFERENCE_KEY_MAX_PENDING_RECORDINGS, mMaxPendingRecordings);
+        notifyPreferenceUpdated();
+    }
+
+    /**
+     * Storage representation for the completed chunks of audio held by audio segments while they are being
+     * monitored, streamed and recorded.
+     */
+    public AudioSegmentStorage getAudioSegmentStorage()
+    {
+        if(mAudioSegmentStorage == null)
+        {
+            try
+            {
+                String storage = mPreferences.get(PREFERENCE_KEY_AUDIO_SEGMENT_STORAGE,
+                    DEFAULT_AUDIO_SEGMENT_STORAGE.name());
+                mAudioSegmentStorage = AudioSegmentStorage.valueOf(storage);
+            }
+            catch(Exception e)
+            {
+                mLog.error("Error parsing audio segment storage preference", e);
+            }
+
+            if(mAudioSegmentStorage == null)
+            {
+                mAudioSegmentStorage = DEFAULT_AUDIO_SEGMENT_STORAGE;
+            }
+        }
+
+        return mAudioSegmentStorage;
+    }
+
+    /**
+     * Sets the storage representation for audio segment audio.
+     * @param audioSegmentStorage to use.  Takes effect the next time the application starts.
+     */
+    public void setAudioSegmentStorage(AudioSegmentStorage audioSegmentStorage)
+    {
+        mAudioSegmentStorage = audioSegmentStorage;
+        mPreferences.put(PREFERENCE_KEY_AUDIO_SEGMENT_STORAGE, audioSegmentStorage.name());
+        notifyPreferenceUpdated();
+    }
 }
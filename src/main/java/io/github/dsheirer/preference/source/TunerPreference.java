@@ -22,6 +22,8 @@ package io.github.dsheirer.preference.source;
 import io.github.dsheirer.preference.Preference;
 import io.github.dsheirer.preference.PreferenceType;
 import io.github.dsheirer.sample.Listener;
+import io.github.dsheirer.util.DispatcherBackend;
+import io.github.dsheirer.util.DispatcherQueueType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -35,8 +37,21 @@ public class TunerPreference extends Preference
     private final static Logger mLog = LoggerFactory.getLogger(TunerPreference.class);
     private Preferences mPreferences = Preferences.userNodeForPackage(TunerPreference.class);
     private static final String PREFERENCE_KEY_CHANNELIZER_TYPE = "channelizer.type";
+    private static final String PREFERENCE_KEY_POLYPHASE_IFFT_THREAD_COUNT = "polyphase.ifft.thread.count";
+    private static final String PREFERENCE_KEY_POLYPHASE_BUFFER_TYPE = "polyphase.buffer.type";
+    private static final String PREFERENCE_KEY_DISPATCHER_BACKEND = "dispatcher.backend";
+    private static final String PREFERENCE_KEY_DISPATCHER_QUEUE_TYPE = "dispatcher.queue.type";
+
+    /**
+     * Polyphase IFFT thread count value that indicates the thread count is automatically determined by the channelizer
+     */
+    public static final int IFFT_THREAD_COUNT_AUTOMATIC = 0;
 
     private ChannelizerType mChannelizerType;
+    private Integer mPolyphaseIFFTThreadCount;
+    private PolyphaseBufferType mPolyphaseBufferType;
+    private DispatcherBackend mDispatcherBackend;
+    private DispatcherQueueType mDispatcherQueueType;
 
     /**
      * Constructs a tuner preference with the update listener
@@ -94,4 +109,133 @@ public class TunerPreference extends Preference
         mPreferences.put(PREFERENCE_KEY_CHANNELIZER_TYPE, mChannelizerType.name());
         notifyPreferenceUpdated();
     }
+
+    /**
+     * Number of threads used by the polyphase channelizer to perform the IFFT stage for each tuner.  A value of zero
+     * (IFFT_THREAD_COUNT_AUTOMATIC) indicates that the channelizer should size the thread count according to the
+     * tuner's channel count and the number of available processors.
+     */
+    public int getPolyphaseIFFTThreadCount()
+    {
+        if(mPolyphaseIFFTThreadCount == null)
+        {
+            mPolyphaseIFFTThreadCount = mPreferences.getInt(PREFERENCE_KEY_POLYPHASE_IFFT_THREAD_COUNT,
+                IFFT_THREAD_COUNT_AUTOMATIC);
+        }
+
+        return mPolyphaseIFFTThreadCount;
+    }
+
+    /**
+     * Sets the number of threads used by the polyphase channelizer IFFT stage.
+     * @param threadCount to use, or zero (IFFT_THREAD_COUNT_AUTOMATIC) for automatic sizing.
+     */
+    public void setPolyphaseIFFTThreadCount(int threadCount)
+    {
+        if(threadCount < 0)
+        {
+            throw new IllegalArgumentException("Thread count must be zero (automatic) or a positive value");
+        }
+
+        mPolyphaseIFFTThreadCount = threadCount;
+        mPreferences.putInt(PREFERENCE_KEY_POLYPHASE_IFFT_THREAD_COUNT, threadCount);
+        notifyPreferenceUpdated();
+    }
+
+    /**
+     * Filter history buffer implementation used by the polyphase channelizer
+     */
+    public PolyphaseBufferType getPolyphaseBufferType()
+    {
+        if(mPolyphaseBufferType == null)
+        {
+            String type = mPreferences.get(PREFERENCE_KEY_POLYPHASE_BUFFER_TYPE, PolyphaseBufferType.SHIFTING.name());
+
+            try
+            {
+                mPolyphaseBufferType = PolyphaseBufferType.valueOf(type);
+            }
+            catch(IllegalArgumentException iae)
+            {
+                mPolyphaseBufferType = PolyphaseBufferType.SHIFTING;
+            }
+        }
+
+        return mPolyphaseBufferType;
+    }
+
+    /**
+     * Sets the filter history buffer implementation used by the polyphase channelizer
+     */
+    public void setPolyphaseBufferType(PolyphaseBufferType type)
+    {
+        mPolyphaseBufferType = type;
+        mPreferences.put(PREFERENCE_KEY_POLYPHASE_BUFFER_TYPE, mPolyphaseBufferType.name());
+        notifyPreferenceUpdated();
+    }
+
+    /**
+     * Execution backend used by sample buffer dispatchers (channels, channelizers and recorders)
+     */
+    public DispatcherBackend getDispatcherBackend()
+    {
+        if(mDispatcherBackend == null)
+        {
+            String backend = mPreferences.get(PREFERENCE_KEY_DISPATCHER_BACKEND,
+                DispatcherBackend.PLATFORM_THREAD.name());
+
+            try
+            {
+                mDispatcherBackend = DispatcherBackend.valueOf(backend);
+            }
+            catch(IllegalArgumentException iae)
+            {
+                mDispatcherBackend = DispatcherBackend.PLATFORM_THREAD;
+            }
+        }
+
+        return mDispatcherBackend;
+    }
+
+    /**
+     * Sets the execution backend used by sample buffer dispatchers
+     */
+    public void setDispatcherBackend(DispatcherBackend backend)
+    {
+        mDispatcherBackend = backend;
+        mPreferences.put(PREFERENCE_KEY_DISPATCHER_BACKEND, mDispatcherBackend.name());
+        notifyPreferenceUpdated();
+    }
+
+    /**
+     * Queue implementation used by sample buffer dispatchers
+     */
+    public DispatcherQueueType getDispatcherQueueType()
+    {
+        if(mDispatcherQueueType == null)
+        {
+            String type = mPreferences.get(PREFERENCE_KEY_DISPATCHER_QUEUE_TYPE, DispatcherQueueType.BLOCKING.name());
+
+            try
+            {
+                mDispatcherQueueType = DispatcherQueueType.valueOf(type);
+            }
+            catch(IllegalArgumentException iae)
+            {
+                mDispatcherQueueType = DispatcherQueueType.BLOCKING;
+            }
+        }
+
+        return mDispatcherQueueType;
+    }
+
+    /**
+     * Sets the queue implementation used by sample buffer dispatchers
+     */
+    public void setDispatcherQueueType(DispatcherQueueType type)
+    {
+        mDispatcherQueueType = type;
+        mPreferences.put(PREFERENCE_KEY_DISPATCHER_QUEUE_TYPE, mDispatcherQueueType.name());
+        notifyPreferenceUpdated();
+    }
 }
@@ -20,6 +20,7 @@
 package io.github.dsheirer.record;
 
 import io.github.dsheirer.audio.AudioSegment;
+import io.github.dsheirer.controller.NamingThreadFactory;
 import io.github.dsheirer.identifier.Form;
 import io.github.dsheirer.identifier.Identifier;
 import io.github.dsheirer.identifier.IdentifierClass;
@@ -32,8 +33,8 @@ import io.github.dsheirer.identifier.tone.ToneIdentifier;
 import io.github.dsheirer.identifier.tone.ToneSequence;
 import io.github.dsheirer.preference.UserPreferences;
 import io.github.dsheirer.sample.Listener;
+import io.github.dsheirer.util.Dispatcher;
 import io.github.dsheirer.util.StringUtils;
-import io.github.dsheirer.util.ThreadPool;
 import io.github.dsheirer.util.TimeStamp;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
@@ -41,21 +42,53 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.LinkedTransferQueue;
-import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Monitors audio segments and upon completion records any audio segments that have been flagged as recordable
+ * Monitors audio segments and upon completion records any audio segments that have been flagged as recordable.
+ *
+ * Completed audio segments are recorded by a two stage pipeline.  The encoder stage converts the audio to the
+ * recording format (e.g. MP3) using a configurable number of encoder lanes that run in parallel.  Each audio segment
+ * is assigned to a lane by its TO talkgroup, so that the recordings for a talkgroup are always encoded and written
+ * in the order that the calls completed.  The writer stage creates the recording files serially on a single thread,
+ * so that file naming and disk I/O are not contended.
+ *
+ * Audio segments are encoded through the encoded audio cache that is shared with audio streaming, so that an audio
+ * segment that is both recorded and streamed is only encoded once.
+ *
+ * The number of audio segments waiting in the pipeline is bounded, so that memory use stays bounded when recording
+ * can't keep up.  Audio segments that complete while the pipeline is full are not recorded and are counted as
+ * dropped.
  */
 public class AudioRecordingManager implements Listener<AudioSegment>
 {
     private final static Logger mLog = LoggerFactory.getLogger(AudioRecordingManager.class);
-    private LinkedTransferQueue<AudioSegment> mCompletedAudioSegmentQueue = new LinkedTransferQueue<>();
-    private ScheduledFuture<?> mQueueProcessorHandle;
+    private static final long STOP_TIMEOUT_MS = 30000;
+    private static final long OVERFLOW_LOG_INTERVAL_MS = 10000;
+    private static final RecordingTask POISON_PILL = new RecordingTask(null);
+    private volatile List<Dispatcher<RecordingTask>> mEncoders = Collections.emptyList();
+    private volatile Dispatcher<RecordingTask> mWriter;
+    private volatile boolean mAccepting;
+    private ExecutorService mEncoderExecutor;
+    private ExecutorService mWriterExecutor;
+    private AtomicInteger mPendingCount = new AtomicInteger();
+    private AtomicLong mRecordedCount = new AtomicLong();
+    private AtomicLong mDroppedCount = new AtomicLong();
+    private AtomicLong mEncodedBytes = new AtomicLong();
+    private int mMaxPending;
+    private volatile long mLastOverflowLogTimestamp;
     private UserPreferences mUserPreferences;
+    private EncodedAudioCache mEncodedAudioCache;
+    private boolean mPrivateEncodedAudioCache;
     private int mUnknownAudioRecordingIndex = 1;
     private int mDuplicateAudioRecordingSuffix = 1;
     private String mPreviousRecordingPath = null;
@@ -63,10 +96,22 @@ public class AudioRecordingManager implements Listener<AudioSegment>
     /**
      * Constructs an instance
      * @param userPreferences to determine audio recording format
+     * @param encodedAudioCache shared with audio streaming for encoding audio segments
      */
-    public AudioRecordingManager(UserPreferences userPreferences)
+    public AudioRecordingManager(UserPreferences userPreferences, EncodedAudioCache encodedAudioCache)
     {
         mUserPreferences = userPreferences;
+        mEncodedAudioCache = encodedAudioCache;
+    }
+
+    /**
+     * Constructs an instance with a private encoded audio cache
+     * @param userPreferences to determine audio recording format
+     */
+    public AudioRecordingManager(UserPreferences userPreferences)
+    {
+        this(userPreferences, new EncodedAudioCache(userPreferences));
+        mPrivateEncodedAudioCache = true;
     }
 
     /**
@@ -74,23 +119,87 @@ public class AudioRecordingManager implements Listener<AudioSegment>
      */
     public void start()
     {
-        if(mQueueProcessorHandle == null)
+        if(mWriter == null)
         {
-            mQueueProcessorHandle = ThreadPool.SCHEDULED.scheduleAtFixedRate(new QueueProcessor(),
-                0, 1, TimeUnit.SECONDS);
+            int encoderCount = mUserPreferences.getRecordPreference().getEncoderThreadCount();
+            mMaxPending = mUserPreferences.getRecordPreference().getMaxPendingRecordings();
+
+            mEncoderExecutor = Executors.newFixedThreadPool(encoderCount,
+                new NamingThreadFactory("sdrtrunk audio recording encoder"));
+            mWriterExecutor = Executors.newSingleThreadExecutor(new NamingThreadFactory("sdrtrunk audio recording writer"));
+
+            mWriter = new Dispatcher<>(mMaxPending, "sdrtrunk audio recording writer", POISON_PILL, mWriterExecutor);
+            mWriter.setListener(new RecordingWriter());
+            mWriter.setDiscardListener(this::complete);
+            mWriter.start();
+
+            List<Dispatcher<RecordingTask>> encoders = new ArrayList<>();
+
+            for(int x = 0; x < encoderCount; x++)
+            {
+                Dispatcher<RecordingTask> encoder = new Dispatcher<>(mMaxPending,
+                    "sdrtrunk audio recording encoder " + x, POISON_PILL, mEncoderExecutor);
+                encoder.setListener(new RecordingEncoder());
+                encoder.setDiscardListener(this::discard);
+                encoder.start();
+                encoders.add(encoder);
+            }
+
+            mEncoders = encoders;
+            mAccepting = true;
+
+            mLog.info("Audio recording pipeline started with [" + encoderCount + "] encoder threads and a maximum of [" +
+                mMaxPending + "] pending recordings");
         }
     }
 
     /**
-     * Stops the manager and records any remaining queued audio segments.
+     * Stops the manager after recording any remaining queued audio segments, waiting up to 30 seconds for the
+     * pipeline to empty.
      */
     public void stop()
     {
-        if(mQueueProcessorHandle != null)
+        if(mWriter != null)
         {
-            mQueueProcessorHandle.cancel(true);
-            processAudioSegments();
-            mQueueProcessorHandle = null;
+            mAccepting = false;
+            long deadline = System.currentTimeMillis() + STOP_TIMEOUT_MS;
+
+            while(mPendingCount.get() > 0 && System.currentTimeMillis() < deadline)
+            {
+                try
+                {
+                    Thread.sleep(10);
+                }
+                catch(InterruptedException ie)
+                {
+                    break;
+                }
+            }
+
+            if(mPendingCount.get() > 0)
+            {
+                mLog.warn("Audio recording pipeline stopped with [" + mPendingCount.get() +
+                    "] recordings still pending - these will not be recorded");
+            }
+
+            for(Dispatcher<RecordingTask> encoder: mEncoders)
+            {
+                encoder.stop();
+            }
+
+            mWriter.stop();
+            mEncoderExecutor.shutdown();
+            mWriterExecutor.shutdown();
+
+            mLog.info(getMetricsSummary());
+
+            if(mPrivateEncodedAudioCache)
+            {
+                mEncodedAudioCache.stop();
+            }
+
+            mEncoders = Collections.emptyList();
+            mWriter = null;
         }
     }
 
@@ -124,7 +233,21 @@ public class AudioRecordingManager implements Listener<AudioSegment>
 
         if(audioSegment.recordAudioProperty().get())
         {
-            mCompletedAudioSegmentQueue.add(audioSegment);
+            List<Dispatcher<RecordingTask>> encoders = mEncoders;
+
+            if(!mAccepting || encoders.isEmpty())
+            {
+                drop(audioSegment, "recording pipeline is not running");
+            }
+            else if(mPendingCount.incrementAndGet() > mMaxPending)
+            {
+                mPendingCount.decrementAndGet();
+                drop(audioSegment, "recording pipeline is full");
+            }
+            else
+            {
+                encoders.get(getLane(audioSegment, encoders.size())).receive(new RecordingTask(audioSegment));
+            }
         }
         else
         {
@@ -133,38 +256,174 @@ public class AudioRecordingManager implements Listener<AudioSegment>
     }
 
     /**
-     * Processes any queued audio segments
+     * Determines the encoder lane for the audio segment from the TO talkgroup, so that all recordings for a
+     * talkgroup are processed in order by the same lane.
+     * @param audioSegment to assign
+     * @param laneCount number of encoder lanes
+     * @return lane index
      */
-    private void processAudioSegments()
+    private static int getLane(AudioSegment audioSegment, int laneCount)
     {
-        RecordFormat recordFormat = mUserPreferences.getRecordPreference().getAudioRecordFormat();
-        AudioSegment audioSegment = mCompletedAudioSegmentQueue.poll();
+        IdentifierCollection identifierCollection = audioSegment.getIdentifierCollection();
+        Identifier to = identifierCollection.getIdentifier(IdentifierClass.USER, Form.TALKGROUP, Role.TO);
 
-        while(audioSegment != null)
+        if(to == null)
         {
-            if(audioSegment.isDuplicate() && mUserPreferences.getDuplicateCallDetectionPreference().isDuplicateRecordingSuppressionEnabled())
+            List<Identifier> toIdentifiers = identifierCollection.getIdentifiers(Role.TO);
+
+            if(!toIdentifiers.isEmpty())
             {
-                audioSegment.decrementConsumerCount();
+                to = toIdentifiers.get(0);
             }
-            else
-            {
-                Path path = getAudioRecordingPath(audioSegment.getIdentifierCollection(), recordFormat);
+        }
 
-                try
-                {
-                    AudioSegmentRecorder.record(audioSegment, path, recordFormat, mUserPreferences);
-                }
-                catch(IOException ioe)
-                {
-                    mLog.error("Error recording audio segment to [" + path.toString() + "]");
-                }
+        return to != null ? Math.floorMod(to.toString().hashCode(), laneCount) : 0;
+    }
 
-                audioSegment.decrementConsumerCount();
-            }
+    /**
+     * Drops an audio segment that can't be recorded and logs a (rate-limited) warning.
+     */
+    private void drop(AudioSegment audioSegment, String reason)
+    {
+        audioSegment.decrementConsumerCount();
+        long dropped = mDroppedCount.incrementAndGet();
+        long now = System.currentTimeMillis();
+
+        if(now - mLastOverflowLogTimestamp > OVERFLOW_LOG_INTERVAL_MS)
+        {
+            mLastOverflowLogTimestamp = now;
+            mLog.warn("Audio segment not recorded - " + reason + " - total dropped recordings [" + dropped + "]");
+        }
+    }
+
+    /**
+     * Releases a recording task that won't be processed by an encoder, due to shutdown.
+     */
+    private void discard(RecordingTask task)
+    {
+        if(task.getAudioSegment() != null)
+        {
+            task.getAudioSegment().decrementConsumerCount();
+        }
+
+        complete(task);
+    }
 
-            //Grab the next one to record
-            audioSegment = mCompletedAudioSegmentQueue.poll();
+    /**
+     * Signals that a recording task has left the pipeline
+     */
+    private void complete(RecordingTask task)
+    {
+        if(task.getEncoded() != null)
+        {
+            task.getEncoded().release();
         }
+
+        mPendingCount.decrementAndGet();
+    }
+
+    /**
+     * Number of recordings waiting to be encoded or written
+     */
+    public int getPendingCount()
+    {
+        return mPendingCount.get();
+    }
+
+    /**
+     * Number of recordings queued for the encoders
+     */
+    public int getEncoderQueueDepth()
+    {
+        int depth = 0;
+
+        for(Dispatcher<RecordingTask> encoder: mEncoders)
+        {
+            depth += encoder.getQueueDepth();
+        }
+
+        return depth;
+    }
+
+    /**
+     * Number of encoded recordings queued for the writer
+     */
+    public int getWriterQueueDepth()
+    {
+        Dispatcher<RecordingTask> writer = mWriter;
+        return writer != null ? writer.getQueueDepth() : 0;
+    }
+
+    /**
+     * Average time to encode an audio segment, across all encoder lanes
+     * @return average encode time in nanoseconds
+     */
+    public long getAverageEncodeTime()
+    {
+        long count = 0;
+        long time = 0;
+
+        for(Dispatcher<RecordingTask> encoder: mEncoders)
+        {
+            count += encoder.getProcessedCount();
+            time += encoder.getProcessingTime();
+        }
+
+        return count > 0 ? time / count : 0;
+    }
+
+    /**
+     * Maximum time to encode an audio segment, across all encoder lanes
+     * @return maximum encode time in nanoseconds
+     */
+    public long getMaxEncodeTime()
+    {
+        long max = 0;
+
+        for(Dispatcher<RecordingTask> encoder: mEncoders)
+        {
+            max = Math.max(max, encoder.getMaxProcessingTime());
+        }
+
+        return max;
+    }
+
+    /**
+     * Average time to write a recording file
+     * @return average write time in nanoseconds
+     */
+    public long getAverageWriteTime()
+    {
+        Dispatcher<RecordingTask> writer = mWriter;
+        return writer != null ? writer.getAverageProcessingTime() : 0;
+    }
+
+    /**
+     * Number of recording files written
+     */
+    public long getRecordedCount()
+    {
+        return mRecordedCount.get();
+    }
+
+    /**
+     * Number of completed audio segments that were not recorded because the pipeline was full or not running
+     */
+    public long getDroppedCount()
+    {
+        return mDroppedCount.get();
+    }
+
+    /**
+     * Summary of the recording pipeline metrics
+     */
+    public String getMetricsSummary()
+    {
+        return "Audio recording pipeline - recorded [" + getRecordedCount() + "] dropped [" + getDroppedCount() +
+            "] pending [" + getPendingCount() + "] encoder queue [" + getEncoderQueueDepth() + "] writer queue [" +
+            getWriterQueueDepth() + "] avg encode [" + TimeUnit.NANOSECONDS.toMillis(getAverageEncodeTime()) +
+            " ms] max encode [" + TimeUnit.NANOSECONDS.toMillis(getMaxEncodeTime()) + " ms] avg write [" +
+            TimeUnit.NANOSECONDS.toMillis(getAverageWriteTime()) + " ms] encoded bytes [" + mEncodedBytes.get() + "]";
     }
 
     /**
@@ -317,9 +576,18 @@ public class AudioRecordingManager implements Listener<AudioSegment>
             mPreviousRecordingPath = sbFinal.toString();
         }
 
-        sbFinal.append(recordFormat.getExtension());
+        Path path = getRecordingBasePath().resolve(sbFinal + recordFormat.getExtension());
+
+        //Recordings from the parallel encoders can be interleaved, so also ensure an existing recording is never
+        //overwritten by a recording with the same name
+        int version = mDuplicateAudioRecordingSuffix;
 
-        return getRecordingBasePath().resolve(sbFinal.toString());
+        while(Files.exists(path))
+        {
+            path = getRecordingBasePath().resolve(sbFinal + "_V" + version++ + recordFormat.getExtension());
+        }
+
+        return path;
     }
 
 
@@ -345,21 +613,131 @@ public class AudioRecordingManager implements Listener<AudioSegment>
     }
 
     /**
-     * Threaded queue processor to process/record each recordable audio segment
+     * Encoder stage: converts the audio segment to the recording format and forwards the encoded recording to the
+     * writer.  The audio segment is released once it is encoded, so that its audio buffers can be reclaimed while
+     * the recording waits for the writer.
      */
-    public class QueueProcessor implements Runnable
+    public class RecordingEncoder implements Listener<RecordingTask>
     {
         @Override
-        public void run()
+        public void receive(RecordingTask task)
         {
+            AudioSegment audioSegment = task.getAudioSegment();
+
             try
             {
-                processAudioSegments();
+                if(audioSegment.isDuplicate() &&
+                    mUserPreferences.getDuplicateCallDetectionPreference().isDuplicateRecordingSuppressionEnabled())
+                {
+                    complete(task);
+                    return;
+                }
+
+                RecordFormat recordFormat = mUserPreferences.getRecordPreference().getAudioRecordFormat();
+                EncodedAudioCache.CachedAudio encoded = mEncodedAudioCache.acquire(audioSegment, recordFormat);
+
+                if(encoded == null)
+                {
+                    complete(task);
+                    return;
+                }
+
+                IdentifierCollection identifiers = audioSegment.getIdentifierCollection();
+                task.setEncoded(encoded, new IdentifierCollection(identifiers.getIdentifiers(),
+                    identifiers.getTimeslot()));
+                mEncodedBytes.addAndGet(encoded.getSize());
+
+                Dispatcher<RecordingTask> writer = mWriter;
+
+                if(writer != null && writer.isRunning())
+                {
+                    writer.receive(task);
+                }
+                else
+                {
+                    complete(task);
+                }
+            }
+            catch(Throwable t)
+            {
+                mLog.error("Error while encoding audio segment for recording", t);
+                complete(task);
+            }
+            finally
+            {
+                audioSegment.decrementConsumerCount();
+            }
+        }
+    }
+
+    /**
+     * Writer stage: writes encoded recordings to files.
+     */
+    public class RecordingWriter implements Listener<RecordingTask>
+    {
+        @Override
+        public void receive(RecordingTask task)
+        {
+            EncodedAudioCache.CachedAudio encoded = task.getEncoded();
+            Path path = getAudioRecordingPath(task.getIdentifierCollection(), encoded.getRecordFormat());
+
+            try
+            {
+                encoded.writeTo(path);
+                mRecordedCount.incrementAndGet();
+            }
+            catch(IOException ioe)
+            {
+                mLog.error("Error recording audio segment to [" + path.toString() + "]");
             }
             catch(Throwable t)
             {
-                mLog.error("Error while processing queued audio segments to recordings", t);
+                mLog.error("Error while writing audio segment recording to [" + path.toString() + "]", t);
             }
+            finally
+            {
+                complete(task);
+            }
+        }
+    }
+
+    /**
+     * Audio segment recording request that flows through the encoder and writer stages
+     */
+    public static class RecordingTask
+    {
+        private AudioSegment mAudioSegment;
+        private EncodedAudioCache.CachedAudio mEncoded;
+        private IdentifierCollection mIdentifierCollection;
+
+        public RecordingTask(AudioSegment audioSegment)
+        {
+            mAudioSegment = audioSegment;
+        }
+
+        public AudioSegment getAudioSegment()
+        {
+            return mAudioSegment;
+        }
+
+        /**
+         * Sets the encoded recording and a copy of the audio segment identifiers, since the audio segment's
+         * identifiers are cleared once the audio segment is released.
+         */
+        public void setEncoded(EncodedAudioCache.CachedAudio encoded, IdentifierCollection identifierCollection)
+        {
+            mEncoded = encoded;
+            mIdentifierCollection = identifierCollection;
+        }
+
+        public EncodedAudioCache.CachedAudio getEncoded()
+        {
+            return mEncoded;
+        }
+
+        public IdentifierCollection getIdentifierCollection()
+        {
+            return mIdentifierCollection;
         }
     }
 }
@@ -34,6 +34,7 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import org.slf4j.Logger;
@@ -59,16 +60,50 @@ public class AudioSegmentRecorder
     public static void record(AudioSegment audioSegment, Path path, RecordFormat recordFormat,
                               UserPreferences userPreferences) throws IOException
     {
-        switch(recordFormat)
+        EncodedAudioSegment encodedAudioSegment = encode(audioSegment, recordFormat, userPreferences);
+
+        if(encodedAudioSegment != null)
+        {
+            write(encodedAudioSegment, path);
+        }
+    }
+
+    /**
+     * Encodes the audio segment using the specified recording format, without writing it to a file.
+     * @param audioSegment to encode
+     * @param recordFormat to use (WAVE, MP3)
+     * @param userPreferences for MP3 encoder settings
+     * @return encoded audio segment or null if the audio segment has no audio
+     */
+    public static EncodedAudioSegment encode(AudioSegment audioSegment, RecordFormat recordFormat,
+                                             UserPreferences userPreferences)
+    {
+        return switch(recordFormat)
+        {
+            case MP3 -> encodeMP3(audioSegment, userPreferences);
+            case WAVE -> encodeWAVE(audioSegment);
+        };
+    }
+
+    /**
+     * Writes the encoded audio segment to a file
+     * @param encodedAudioSegment to write
+     * @param path for the recording
+     * @throws IOException on any errors
+     */
+    public static void write(EncodedAudioSegment encodedAudioSegment, Path path) throws IOException
+    {
+        switch(encodedAudioSegment.getRecordFormat())
         {
             case MP3:
-                recordMP3(audioSegment, path, userPreferences);
+                writeMP3(encodedAudioSegment, path);
                 break;
             case WAVE:
-                recordWAVE(audioSegment, path);
+                writeWAVE(encodedAudioSegment, path);
                 break;
             default:
-                throw new IllegalArgumentException("Unrecognized recording format [" + recordFormat.name() + "]");
+                throw new IllegalArgumentException("Unrecognized recording format [" +
+                    encodedAudioSegment.getRecordFormat().name() + "]");
         }
     }
 
@@ -80,42 +115,74 @@ public class AudioSegmentRecorder
      */
     public static void recordMP3(AudioSegment audioSegment, Path path, UserPreferences userPreferences) throws IOException
     {
-        if(audioSegment.hasAudio())
+        EncodedAudioSegment encodedAudioSegment = encodeMP3(audioSegment, userPreferences);
+
+        if(encodedAudioSegment != null)
         {
-            OutputStream outputStream = new FileOutputStream(path.toFile());
+            writeMP3(encodedAudioSegment, path);
+        }
+    }
 
-            //Write ID3 metadata
+    /**
+     * Encodes the audio segment to MP3 frames with an ID3 metadata tag.
+     * @param audioSegment to encode
+     * @param userPreferences for MP3 encoder settings
+     * @return encoded audio segment or null if the audio segment has no audio
+     */
+    public static EncodedAudioSegment encodeMP3(AudioSegment audioSegment, UserPreferences userPreferences)
+    {
+        if(audioSegment.hasAudio())
+        {
+            //ID3 metadata
             Map<AudioMetadata,String> metadataMap = AudioMetadataUtils.getMetadataMap(audioSegment.getIdentifierCollection(),
                 audioSegment.getAliasList());
 
             byte[] id3Bytes = AudioMetadataUtils.getMP3ID3(metadataMap);
-            outputStream.write(id3Bytes);
 
-            //Convert audio to MP3 and write to file
+            //Convert audio to MP3
             InputAudioFormat inputAudioFormat = userPreferences.getMP3Preference().getAudioSampleRate();
             MP3Setting mp3Setting = userPreferences.getMP3Preference().getMP3Setting();
 
             boolean normalizeAudio = userPreferences.getMP3Preference().isNormalizeAudioBeforeEncode();
 
             MP3AudioConverter converter = new MP3AudioConverter(inputAudioFormat, mp3Setting, normalizeAudio);
-            List<byte[]> mp3Frames = converter.convert(audioSegment.getAudioBuffers());
-            for(byte[] mp3Frame: mp3Frames)
+            List<ByteBuffer> frames = new ArrayList<>();
+
+            for(byte[] mp3Frame: converter.convert(audioSegment.getAudioBuffers()))
+            {
+                frames.add(ByteBuffer.wrap(mp3Frame));
+            }
+
+            for(byte[] lastFrame: converter.flush())
             {
-                outputStream.write(mp3Frame);
+                frames.add(ByteBuffer.wrap(lastFrame));
             }
 
-            List<byte[]> lastFrames = converter.flush();
+            return new EncodedAudioSegment(RecordFormat.MP3, id3Bytes, frames, null, null);
+        }
+
+        return null;
+    }
 
-            if(!lastFrames.isEmpty())
+    /**
+     * Writes the MP3 encoded audio segment to the specified path.
+     */
+    private static void writeMP3(EncodedAudioSegment encodedAudioSegment, Path path) throws IOException
+    {
+        try(OutputStream outputStream = new FileOutputStream(path.toFile()))
+        {
+            if(encodedAudioSegment.getHeader() != null)
             {
-                for(byte[] lastFrame: lastFrames)
-                {
-                    outputStream.write(lastFrame);
-                }
+                outputStream.write(encodedAudioSegment.getHeader());
+            }
+
+            for(ByteBuffer mp3Frame: encodedAudioSegment.getAudio())
+            {
+                outputStream.write(mp3Frame.array(), mp3Frame.arrayOffset() + mp3Frame.position(),
+                    mp3Frame.remaining());
             }
 
             outputStream.flush();
-            outputStream.close();
         }
     }
 
@@ -126,14 +193,29 @@ public class AudioSegmentRecorder
      * @throws IOException on any errors
      */
     public static void recordWAVE(AudioSegment audioSegment, Path path) throws IOException
+    {
+        EncodedAudioSegment encodedAudioSegment = encodeWAVE(audioSegment);
+
+        if(encodedAudioSegment != null)
+        {
+            writeWAVE(encodedAudioSegment, path);
+        }
+    }
+
+    /**
+     * Converts the audio segment to 16-bit PCM sample buffers with wave metadata chunks.
+     * @param audioSegment to encode
+     * @return encoded audio segment or null if the audio segment has no audio
+     */
+    public static EncodedAudioSegment encodeWAVE(AudioSegment audioSegment)
     {
         if(audioSegment.hasAudio())
         {
-            WaveWriter writer = new WaveWriter(AudioFormats.PCM_SIGNED_8000_HZ_16_BIT_MONO, path);
+            List<ByteBuffer> samples = new ArrayList<>();
 
             for(float[] audioBuffer: audioSegment.getAudioBuffers())
             {
-                writer.writeData(ConversionUtils.convertToSigned16BitSamples(audioBuffer));
+                samples.add(ConversionUtils.convertToSigned16BitSamples(audioBuffer));
             }
 
             Map<AudioMetadata,String> metadataMap = AudioMetadataUtils.getMetadataMap(audioSegment.getIdentifierCollection(),
@@ -142,8 +224,25 @@ public class AudioSegmentRecorder
             ByteBuffer listChunk = AudioMetadataUtils.getLISTChunk(metadataMap);
             byte[] id3Bytes = AudioMetadataUtils.getMP3ID3(metadataMap);
             ByteBuffer id3Chunk = AudioMetadataUtils.getID3Chunk(id3Bytes);
-            writer.writeMetadata(listChunk, id3Chunk);
-            writer.close();
+            return new EncodedAudioSegment(RecordFormat.WAVE, null, samples, listChunk, id3Chunk);
+        }
+
+        return null;
+    }
+
+    /**
+     * Writes the wave encoded audio segment to the specified path.
+     */
+    private static void writeWAVE(EncodedAudioSegment encodedAudioSegment, Path path) throws IOException
+    {
+        WaveWriter writer = new WaveWriter(AudioFormats.PCM_SIGNED_8000_HZ_16_BIT_MONO, path);
+
+        for(ByteBuffer samples: encodedAudioSegment.getAudio())
+        {
+            writer.writeData(samples);
         }
+
+        writer.writeMetadata(encodedAudioSegment.getListChunk(), encodedAudioSegment.getID3Chunk());
+        writer.close();
     }
 }
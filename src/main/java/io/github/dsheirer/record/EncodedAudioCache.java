@@ -0,0 +1,551 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.record;
+
+import io.github.dsheirer.audio.AudioSegment;
+import io.github.dsheirer.audio.broadcast.BroadcastModel;
+import io.github.dsheirer.preference.UserPreferences;
+import io.github.dsheirer.util.ThreadPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shared cache of encoded audio segments, so that an audio segment is encoded once per format no matter how many
+ * consumers (audio recording, audio streaming) need the encoded audio.
+ *
+ * Consumers acquire a reference counted handle to the encoded audio while they still hold the audio segment and
+ * release the handle when they're finished with the encoded audio.  The first acquire encodes the audio segment
+ * and concurrent acquires for the same segment and format wait for that encoding to complete.  Entries that are no
+ * longer referenced are retained for a short grace period, so that a consumer that processes the completed audio
+ * segment slightly later still finds the encoded audio, and are then removed.
+ *
+ * The encoded audio is held in memory.  When the total size of the in-memory entries exceeds the memory limit, the
+ * oldest entries are spilled to temporary files in the streaming directory and are then read from disk.
+ */
+public class EncodedAudioCache
+{
+    private final static Logger mLog = LoggerFactory.getLogger(EncodedAudioCache.class);
+    public static final long DEFAULT_MAX_MEMORY_BYTES = 64 * 1024 * 1024;
+    private static final long RETENTION_MS = 10000;
+    private static final long SWEEP_INTERVAL_MS = 2500;
+    private static final String SPILL_FILE_PREFIX = BroadcastModel.TEMPORARY_STREAM_FILE_SUFFIX + "cache_";
+    private Map<Key,Entry> mEntries = new ConcurrentHashMap<>();
+    private Queue<Entry> mInMemoryEntries = new ConcurrentLinkedQueue<>();
+    private UserPreferences mUserPreferences;
+    private long mMaxMemoryBytes;
+    private AtomicLong mMemoryBytes = new AtomicLong();
+    private AtomicLong mEncodeCount = new AtomicLong();
+    private AtomicLong mHitCount = new AtomicLong();
+    private AtomicLong mSpillCount = new AtomicLong();
+    private AtomicInteger mSpillFileNumber = new AtomicInteger();
+    private ScheduledFuture<?> mSweeperFuture;
+
+    /**
+     * Constructs an instance
+     * @param userPreferences for encoder settings and the spill directory
+     * @param maxMemoryBytes maximum size of encoded audio to hold in memory before spilling entries to disk
+     */
+    public EncodedAudioCache(UserPreferences userPreferences, long maxMemoryBytes)
+    {
+        mUserPreferences = userPreferences;
+        mMaxMemoryBytes = maxMemoryBytes;
+    }
+
+    /**
+     * Constructs an instance with the default memory limit
+     * @param userPreferences for encoder settings and the spill directory
+     */
+    public EncodedAudioCache(UserPreferences userPreferences)
+    {
+        this(userPreferences, DEFAULT_MAX_MEMORY_BYTES);
+    }
+
+    /**
+     * Acquires a handle to the audio segment encoded in the record format, encoding the audio segment if it has not
+     * already been encoded.  The caller must hold a consumer count on the audio segment for the duration of this
+     * call and must release the returned handle once it is finished with the encoded audio.
+     *
+     * @param audioSegment to encode
+     * @param recordFormat for the encoded audio
+     * @return handle to the encoded audio, or null if the audio segment has no audio
+     */
+    public CachedAudio acquire(AudioSegment audioSegment, RecordFormat recordFormat)
+    {
+        startSweeper();
+
+        Key key = new Key(audioSegment, recordFormat);
+
+        while(true)
+        {
+            Entry entry = mEntries.computeIfAbsent(key, Entry::new);
+            boolean encoder = false;
+
+            synchronized(entry)
+            {
+                //Entry was removed by the sweeper after we fetched it from the map - try again
+                if(entry.mRemoved)
+                {
+                    continue;
+                }
+
+                //Reserve the entry so that the sweeper leaves it alone while it is being encoded
+                entry.mReferenceCount++;
+
+                if(!entry.mEncoded && !entry.mEncoding)
+                {
+                    entry.mEncoding = true;
+                    encoder = true;
+                }
+            }
+
+            //Encode outside of the entry monitor so that the sweeper and other handles aren't blocked by the encoder
+            if(encoder)
+            {
+                encode(entry, audioSegment, recordFormat);
+            }
+            else
+            {
+                awaitEncoded(entry);
+            }
+
+            synchronized(entry)
+            {
+                entry.mLastReleaseTimestamp = System.currentTimeMillis();
+
+                if(entry.mSize == 0)
+                {
+                    entry.mReferenceCount--;
+                    return null;
+                }
+            }
+
+            return new CachedAudio(entry);
+        }
+    }
+
+    /**
+     * Encodes the audio segment for the entry and wakes any callers waiting on the encoded audio.  The caller must
+     * have claimed the encoding for the entry and must not hold the entry's monitor.
+     */
+    private void encode(Entry entry, AudioSegment audioSegment, RecordFormat recordFormat)
+    {
+        EncodedAudioSegment encodedAudioSegment = null;
+
+        try
+        {
+            encodedAudioSegment = AudioSegmentRecorder.encode(audioSegment, recordFormat, mUserPreferences);
+        }
+        finally
+        {
+            mEncodeCount.incrementAndGet();
+
+            synchronized(entry)
+            {
+                entry.mEncodedAudioSegment = encodedAudioSegment;
+                entry.mSize = encodedAudioSegment != null ? encodedAudioSegment.getSize() : 0;
+                entry.mEncoding = false;
+                entry.mEncoded = true;
+                entry.notifyAll();
+            }
+        }
+
+        if(encodedAudioSegment != null)
+        {
+            mInMemoryEntries.add(entry);
+
+            if(mMemoryBytes.addAndGet(entry.mSize) > mMaxMemoryBytes)
+            {
+                spill();
+            }
+        }
+    }
+
+    /**
+     * Waits for another caller to finish encoding the entry.  Waiting releases the entry's monitor, so the sweeper
+     * is not blocked while the encode is in progress.
+     */
+    private void awaitEncoded(Entry entry)
+    {
+        boolean interrupted = false;
+
+        synchronized(entry)
+        {
+            while(!entry.mEncoded)
+            {
+                try
+                {
+                    entry.wait();
+                }
+                catch(InterruptedException ie)
+                {
+                    interrupted = true;
+                }
+            }
+        }
+
+        mHitCount.incrementAndGet();
+
+        if(interrupted)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Spills the oldest in-memory entries to disk until the in-memory total is within the memory limit.
+     */
+    private void spill()
+    {
+        Entry entry;
+
+        while(mMemoryBytes.get() > mMaxMemoryBytes && (entry = mInMemoryEntries.poll()) != null)
+        {
+            synchronized(entry)
+            {
+                if(entry.mEncodedAudioSegment != null && !entry.mRemoved)
+                {
+                    try
+                    {
+                        spill(entry);
+                    }
+                    catch(IOException ioe)
+                    {
+                        mLog.error("Error spilling encoded audio to disk - retaining in memory", ioe);
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the entry's encoded audio to a spill file and releases the in-memory copy.  The caller must hold the
+     * entry's monitor.
+     */
+    private void spill(Entry entry) throws IOException
+    {
+        Path path = mUserPreferences.getDirectoryPreference().getDirectoryStreaming()
+            .resolve(SPILL_FILE_PREFIX + mSpillFileNumber.incrementAndGet() + entry.mKey.mRecordFormat.getExtension());
+
+        AudioSegmentRecorder.write(entry.mEncodedAudioSegment, path);
+        entry.mSpillPath = path;
+        entry.mEncodedAudioSegment = null;
+        mMemoryBytes.addAndGet(-entry.mSize);
+        mSpillCount.incrementAndGet();
+    }
+
+    /**
+     * Removes entries that are no longer referenced and whose retention period has elapsed.
+     */
+    private void sweep()
+    {
+        long threshold = System.currentTimeMillis() - RETENTION_MS;
+        Iterator<Entry> it = mEntries.values().iterator();
+
+        while(it.hasNext())
+        {
+            Entry entry = it.next();
+
+            synchronized(entry)
+            {
+                //Entries that are still being encoded are referenced by the encoder and are skipped
+                if(entry.mEncoded && entry.mReferenceCount <= 0 && entry.mLastReleaseTimestamp < threshold)
+                {
+                    entry.mRemoved = true;
+                    mEntries.remove(entry.mKey, entry);
+
+                    if(entry.mEncodedAudioSegment != null)
+                    {
+                        mMemoryBytes.addAndGet(-entry.mSize);
+                        entry.mEncodedAudioSegment = null;
+                    }
+
+                    if(entry.mSpillPath != null)
+                    {
+                        try
+                        {
+                            Files.deleteIfExists(entry.mSpillPath);
+                        }
+                        catch(IOException ioe)
+                        {
+                            mLog.error("Error deleting encoded audio spill file [" + entry.mSpillPath + "]", ioe);
+                        }
+                    }
+                }
+            }
+        }
+
+        mInMemoryEntries.removeIf(entry -> entry.mRemoved);
+    }
+
+    /**
+     * Starts the scheduled sweeper if it is not already running.
+     */
+    private synchronized void startSweeper()
+    {
+        if(mSweeperFuture == null)
+        {
+            mSweeperFuture = ThreadPool.SCHEDULED.scheduleAtFixedRate(() -> {
+                try
+                {
+                    sweep();
+                }
+                catch(Throwable t)
+                {
+                    mLog.error("Error while sweeping encoded audio cache", t);
+                }
+            }, SWEEP_INTERVAL_MS, SWEEP_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Stops the sweeper and removes all entries, including any spill files, regardless of outstanding references.
+     */
+    public synchronized void stop()
+    {
+        if(mSweeperFuture != null)
+        {
+            mSweeperFuture.cancel(true);
+            mSweeperFuture = null;
+        }
+
+        for(Entry entry: mEntries.values())
+        {
+            synchronized(entry)
+            {
+                entry.mReferenceCount = 0;
+                entry.mLastReleaseTimestamp = 0;
+            }
+        }
+
+        sweep();
+    }
+
+    /**
+     * Number of encoded entries in the cache
+     */
+    public int getEntryCount()
+    {
+        return mEntries.size();
+    }
+
+    /**
+     * Size of the encoded audio currently held in memory
+     */
+    public long getMemoryBytes()
+    {
+        return mMemoryBytes.get();
+    }
+
+    /**
+     * Summary of the cache metrics
+     */
+    public String getMetricsSummary()
+    {
+        return "Encoded audio cache - encoded [" + mEncodeCount.get() + "] reused [" + mHitCount.get() +
+            "] spilled [" + mSpillCount.get() + "] entries [" + getEntryCount() + "] memory bytes [" +
+            getMemoryBytes() + "]";
+    }
+
+    /**
+     * Cache key: the audio segment (by identity) and record format
+     */
+    private static class Key
+    {
+        private AudioSegment mAudioSegment;
+        private RecordFormat mRecordFormat;
+
+        private Key(AudioSegment audioSegment, RecordFormat recordFormat)
+        {
+            mAudioSegment = audioSegment;
+            mRecordFormat = recordFormat;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            return o instanceof Key other && mAudioSegment == other.mAudioSegment &&
+                mRecordFormat == other.mRecordFormat;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return 31 * System.identityHashCode(mAudioSegment) + mRecordFormat.hashCode();
+        }
+    }
+
+    /**
+     * Cache entry.  All fields are guarded by the entry's monitor.
+     */
+    private static class Entry
+    {
+        private Key mKey;
+        private boolean mEncoding;
+        private boolean mEncoded;
+        private boolean mRemoved;
+        private EncodedAudioSegment mEncodedAudioSegment;
+        private Path mSpillPath;
+        private long mSize;
+        private int mReferenceCount;
+        private long mLastReleaseTimestamp;
+
+        private Entry(Key key)
+        {
+            mKey = key;
+        }
+    }
+
+    /**
+     * Reference counted handle to encoded audio.  The handle must be released once the encoded audio is no longer
+     * needed.
+     */
+    public class CachedAudio
+    {
+        private Entry mEntry;
+        private AtomicBoolean mReleased = new AtomicBoolean();
+
+        private CachedAudio(Entry entry)
+        {
+            mEntry = entry;
+        }
+
+        /**
+         * Format of the encoded audio
+         */
+        public RecordFormat getRecordFormat()
+        {
+            return mEntry.mKey.mRecordFormat;
+        }
+
+        /**
+         * Size of the encoded audio in bytes
+         */
+        public long getSize()
+        {
+            return mEntry.mSize;
+        }
+
+        /**
+         * Writes the encoded audio as a recording file to the path.
+         * @param path for the recording
+         * @throws IOException on any errors
+         */
+        public void writeTo(Path path) throws IOException
+        {
+            synchronized(mEntry)
+            {
+                checkReleased();
+
+                if(mEntry.mEncodedAudioSegment != null)
+                {
+                    AudioSegmentRecorder.write(mEntry.mEncodedAudioSegment, path);
+                }
+                else
+                {
+                    Files.copy(mEntry.mSpillPath, path, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+        }
+
+        /**
+         * Contents of the encoded audio recording file.
+         * @return file bytes
+         * @throws IOException if the encoded audio was spilled to disk and can't be read
+         */
+        public byte[] getBytes() throws IOException
+        {
+            synchronized(mEntry)
+            {
+                checkReleased();
+
+                EncodedAudioSegment encoded = mEntry.mEncodedAudioSegment;
+
+                if(encoded != null && encoded.getRecordFormat() == RecordFormat.MP3)
+                {
+                    byte[] bytes = new byte[(int)encoded.getSize()];
+                    int offset = 0;
+
+                    if(encoded.getHeader() != null)
+                    {
+                        System.arraycopy(encoded.getHeader(), 0, bytes, 0, encoded.getHeader().length);
+                        offset = encoded.getHeader().length;
+                    }
+
+                    for(ByteBuffer frame: encoded.getAudio())
+                    {
+                        int length = frame.remaining();
+                        frame.duplicate().get(bytes, offset, length);
+                        offset += length;
+                    }
+
+                    return bytes;
+                }
+
+                //Wave file headers are produced by the wave writer, so wave audio is spilled to disk and read back
+                if(encoded != null)
+                {
+                    spill(mEntry);
+                }
+
+                return Files.readAllBytes(mEntry.mSpillPath);
+            }
+        }
+
+        /**
+         * Releases this handle.  Subsequent calls have no effect.
+         */
+        public void release()
+        {
+            if(mReleased.compareAndSet(false, true))
+            {
+                synchronized(mEntry)
+                {
+                    mEntry.mReferenceCount--;
+                    mEntry.mLastReleaseTimestamp = System.currentTimeMillis();
+                }
+            }
+        }
+
+        private void checkReleased()
+        {
+            if(mReleased.get())
+            {
+                throw new IllegalStateException("Cached audio handle has been released");
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.record;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Audio segment that has been encoded to a recording format and is ready to be written to a file.  Encoding and
+ * writing are separate steps so that the (CPU intensive) encoding can run on a different thread than the file I/O.
+ */
+public class EncodedAudioSegment
+{
+    private RecordFormat mRecordFormat;
+    private byte[] mHeader;
+    private List<ByteBuffer> mAudio;
+    private ByteBuffer mListChunk;
+    private ByteBuffer mID3Chunk;
+    private long mSize;
+
+    /**
+     * Constructs an instance
+     * @param recordFormat of the encoded audio
+     * @param header bytes to write ahead of the audio (MP3 ID3 tag), or null
+     * @param audio encoded audio frames (MP3) or 16-bit PCM sample buffers (WAVE)
+     * @param listChunk wave LIST metadata chunk, or null
+     * @param id3Chunk wave ID3 metadata chunk, or null
+     */
+    public EncodedAudioSegment(RecordFormat recordFormat, byte[] header, List<ByteBuffer> audio, ByteBuffer listChunk,
+                               ByteBuffer id3Chunk)
+    {
+        mRecordFormat = recordFormat;
+        mHeader = header;
+        mAudio = audio;
+        mListChunk = listChunk;
+        mID3Chunk = id3Chunk;
+
+        mSize = header != null ? header.length : 0;
+
+        for(ByteBuffer buffer: audio)
+        {
+            mSize += buffer.remaining();
+        }
+    }
+
+    /**
+     * Recording format of the encoded audio
+     */
+    public RecordFormat getRecordFormat()
+    {
+        return mRecordFormat;
+    }
+
+    /**
+     * Header bytes to write ahead of the audio, or null
+     */
+    public byte[] getHeader()
+    {
+        return mHeader;
+    }
+
+    /**
+     * Encoded audio frames or PCM sample buffers
+     */
+    public List<ByteBuffer> getAudio()
+    {
+        return mAudio;
+    }
+
+    /**
+     * Wave LIST metadata chunk, or null
+     */
+    public ByteBuffer getListChunk()
+    {
+        return mListChunk;
+    }
+
+    /**
+     * Wave ID3 metadata chunk, or null
+     */
+    public ByteBuffer getID3Chunk()
+    {
+        return mID3Chunk;
+    }
+
+    /**
+     * Size of the header and encoded audio in bytes
+     */
+    public long getSize()
+    {
+        return mSize;
+    }
+}
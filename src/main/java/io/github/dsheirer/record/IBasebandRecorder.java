@@ -0,0 +1,51 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.record;
+
+import io.github.dsheirer.buffer.INativeBuffer;
+import io.github.dsheirer.sample.Listener;
+
+/**
+ * Recorder for the native sample buffers produced by a tuner
+ */
+public interface IBasebandRecorder extends Listener<INativeBuffer>
+{
+    /**
+     * Sets the sample rate of the recorded samples
+     */
+    void setSampleRate(float sampleRate);
+
+    /**
+     * Sets the tuner center frequency of the recorded samples, for recording formats that store the frequency.
+     */
+    default void setFrequency(long frequency)
+    {
+    }
+
+    /**
+     * Starts recording
+     */
+    void start();
+
+    /**
+     * Stops recording and closes the recording file
+     */
+    void stop();
+}
@@ -0,0 +1,105 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.record.baseband;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Compact baseband recording file format.  Stores tuner samples in their native encoding (e.g. 8-bit RTL-SDR or
+ * packed 12-bit Airspy) in a sequence of independently compressed chunks, followed by a timestamp index of the
+ * chunks.  All values are big-endian.
+ *
+ * File header (32 bytes):
+ *   magic (int) 'SDRB', version (short), sample encoding code (byte), reserved (byte), sample rate (double),
+ *   center frequency (long), recording start timestamp (long)
+ *
+ * Chunk (28 byte header followed by the stored sample bytes):
+ *   magic (int) 'CHNK', flags (int), timestamp of the first sample (long), complex sample frame count (int),
+ *   raw sample byte length (int), stored byte length (int)
+ *
+ * Index, written when the recording is closed:
+ *   magic (int) 'INDX', chunk count (int), then for each chunk: timestamp (long), chunk file offset (long) and
+ *   starting frame (long)
+ *
+ * Footer (12 bytes): index file offset (long), magic (int) 'SDRB'
+ *
+ * When a recording is not closed cleanly (e.g. the application crashes) the index and footer are missing and the
+ * reader rebuilds the index by scanning the chunk headers.
+ */
+public class CompactBasebandFormat
+{
+    public static final String FILE_EXTENSION = ".bbz";
+    public static final int FILE_MAGIC = 0x53445242; //SDRB
+    public static final int CHUNK_MAGIC = 0x43484E4B; //CHNK
+    public static final int INDEX_MAGIC = 0x494E4458; //INDX
+    public static final short VERSION = 1;
+    public static final int HEADER_LENGTH = 32;
+    public static final int CHUNK_HEADER_LENGTH = 28;
+    public static final int INDEX_HEADER_LENGTH = 8;
+    public static final int INDEX_ENTRY_LENGTH = 24;
+    public static final int FOOTER_LENGTH = 12;
+
+    /**
+     * Chunk flag indicating that the stored sample bytes are deflate compressed.  Otherwise, the raw sample bytes
+     * are stored uncompressed.
+     */
+    public static final int FLAG_DEFLATED = 0x01;
+
+    private CompactBasebandFormat()
+    {
+    }
+
+    /**
+     * Indicates if the file is a compact baseband recording, by checking the file header magic value.
+     * @param path to check
+     * @return true if the file is a compact baseband recording
+     */
+    public static boolean isCompactBaseband(Path path)
+    {
+        if(path != null && Files.isRegularFile(path))
+        {
+            try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ))
+            {
+                ByteBuffer magic = ByteBuffer.allocate(4);
+
+                while(magic.hasRemaining())
+                {
+                    if(channel.read(magic) < 0)
+                    {
+                        return false;
+                    }
+                }
+
+                return magic.getInt(0) == FILE_MAGIC;
+            }
+            catch(IOException ioe)
+            {
+                //Do nothing, we'll return false
+            }
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,601 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.record.baseband;
+
+import io.github.dsheirer.buffer.ByteNativeBufferFactory;
+import io.github.dsheirer.buffer.INativeBuffer;
+import io.github.dsheirer.buffer.INativeBufferFactory;
+import io.github.dsheirer.buffer.IQSampleFormat;
+import io.github.dsheirer.buffer.MappedNativeBuffer;
+import io.github.dsheirer.buffer.RawSampleEncoding;
+import io.github.dsheirer.buffer.SignedByteNativeBufferFactory;
+import io.github.dsheirer.buffer.airspy.AirspyNativeBufferFactory;
+import io.github.dsheirer.source.wave.IRecordingReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reader for compact baseband recording files (see CompactBasebandFormat).  The chunk index is loaded when the file
+ * is opened, or rebuilt by scanning the chunk headers when the recording wasn't closed cleanly, so the reader can
+ * position to any chunk by frame, by time offset or by recorded timestamp.
+ *
+ * Each read decompresses the next chunk and produces a native buffer of the same type that the tuner produced when
+ * the samples were recorded, so playback follows the same sample conversion path as the live tuner.  Chunks are the
+ * unit of compression, so reads and positioning are aligned to chunk boundaries.
+ *
+ * This class is not thread safe.
+ */
+public class CompactBasebandReader implements IRecordingReader
+{
+    private static final Logger mLog = LoggerFactory.getLogger(CompactBasebandReader.class);
+    private Path mPath;
+    private FileChannel mFileChannel;
+    private RawSampleEncoding mEncoding;
+    private double mSampleRate;
+    private long mFrequency;
+    private long mStartTimestamp;
+    private long[] mIndexTimestamps;
+    private long[] mIndexOffsets;
+    private long[] mIndexFrames;
+    private int mChunkCount;
+    private long mFrameCount;
+    private int mChunkPosition;
+    private INativeBufferFactory mNativeBufferFactory;
+    private Inflater mInflater = new Inflater(true);
+    private ByteBuffer mChunkHeader = ByteBuffer.allocate(CompactBasebandFormat.CHUNK_HEADER_LENGTH);
+    private ByteBuffer mStoredSamples = ByteBuffer.allocate(0);
+    private byte[] mRawSamples = new byte[0];
+    private byte[] mUnpackedSamples = new byte[0];
+
+    /**
+     * Opens the compact baseband recording file and loads the chunk index.
+     * @param path to the recording
+     * @throws IOException if the file can't be opened or is not a compact baseband recording
+     */
+    public CompactBasebandReader(Path path) throws IOException
+    {
+        mPath = path;
+        mFileChannel = FileChannel.open(path, StandardOpenOption.READ);
+
+        try
+        {
+            ByteBuffer header = ByteBuffer.allocate(CompactBasebandFormat.HEADER_LENGTH);
+            readFully(header, 0);
+            header.flip();
+
+            if(header.getInt() != CompactBasebandFormat.FILE_MAGIC)
+            {
+                throw new IOException("Not a compact baseband recording [" + path + "]");
+            }
+
+            short version = header.getShort();
+
+            if(version > CompactBasebandFormat.VERSION)
+            {
+                throw new IOException("Unsupported compact baseband recording version [" + version + "]");
+            }
+
+            int code = header.get();
+            mEncoding = RawSampleEncoding.fromCode(code);
+
+            if(mEncoding == null)
+            {
+                throw new IOException("Unrecognized compact baseband sample encoding [" + code + "]");
+            }
+
+            header.get();
+            mSampleRate = header.getDouble();
+            mFrequency = header.getLong();
+            mStartTimestamp = header.getLong();
+
+            if(!loadIndex())
+            {
+                mLog.info("Compact baseband recording index is missing - rebuilding index for [" + path + "]");
+                rebuildIndex();
+            }
+        }
+        catch(IOException ioe)
+        {
+            mFileChannel.close();
+            throw ioe;
+        }
+
+        mNativeBufferFactory = switch(mEncoding)
+        {
+            case UNSIGNED_8_BIT -> new ByteNativeBufferFactory();
+            case SIGNED_8_BIT -> new SignedByteNativeBufferFactory();
+            case PACKED_12_BIT_REAL -> new AirspyNativeBufferFactory();
+            default -> null;
+        };
+    }
+
+    /**
+     * Loads the chunk index written at the end of the file.
+     * @return true if the index was loaded, or false if the index is missing or invalid
+     */
+    private boolean loadIndex() throws IOException
+    {
+        long size = mFileChannel.size();
+
+        if(size < CompactBasebandFormat.HEADER_LENGTH + CompactBasebandFormat.INDEX_HEADER_LENGTH +
+            CompactBasebandFormat.FOOTER_LENGTH)
+        {
+            return false;
+        }
+
+        ByteBuffer footer = ByteBuffer.allocate(CompactBasebandFormat.FOOTER_LENGTH);
+        readFully(footer, size - CompactBasebandFormat.FOOTER_LENGTH);
+        footer.flip();
+        long indexOffset = footer.getLong();
+
+        if(footer.getInt() != CompactBasebandFormat.FILE_MAGIC || indexOffset < CompactBasebandFormat.HEADER_LENGTH ||
+            indexOffset > size - CompactBasebandFormat.INDEX_HEADER_LENGTH - CompactBasebandFormat.FOOTER_LENGTH)
+        {
+            return false;
+        }
+
+        ByteBuffer indexHeader = ByteBuffer.allocate(CompactBasebandFormat.INDEX_HEADER_LENGTH);
+        readFully(indexHeader, indexOffset);
+        indexHeader.flip();
+        int count = indexHeader.getInt(4);
+
+        if(indexHeader.getInt(0) != CompactBasebandFormat.INDEX_MAGIC || count < 0 ||
+            indexOffset + CompactBasebandFormat.INDEX_HEADER_LENGTH +
+                ((long)count * CompactBasebandFormat.INDEX_ENTRY_LENGTH) + CompactBasebandFormat.FOOTER_LENGTH != size)
+        {
+            return false;
+        }
+
+        ByteBuffer entries = ByteBuffer.allocate(count * CompactBasebandFormat.INDEX_ENTRY_LENGTH);
+        readFully(entries, indexOffset + CompactBasebandFormat.INDEX_HEADER_LENGTH);
+        entries.flip();
+
+        mIndexTimestamps = new long[count + 1];
+        mIndexOffsets = new long[count + 1];
+        mIndexFrames = new long[count + 1];
+
+        for(int x = 0; x < count; x++)
+        {
+            mIndexTimestamps[x] = entries.getLong();
+            mIndexOffsets[x] = entries.getLong();
+            mIndexFrames[x] = entries.getLong();
+        }
+
+        mChunkCount = count;
+
+        //The trailing entry marks the end of the chunk data
+        mIndexOffsets[count] = indexOffset;
+
+        if(count > 0)
+        {
+            //Read the last chunk header to determine the total frame count
+            ByteBuffer chunkHeader = readChunkHeader(count - 1);
+            mFrameCount = mIndexFrames[count - 1] + chunkHeader.getInt(16);
+        }
+
+        mIndexFrames[count] = mFrameCount;
+        return true;
+    }
+
+    /**
+     * Rebuilds the chunk index by scanning the chunk headers.  Stops at the first incomplete or invalid chunk, which
+     * is usually a partially written chunk at the end of a recording that was not closed cleanly.
+     */
+    private void rebuildIndex() throws IOException
+    {
+        int capacity = 1024;
+        mIndexTimestamps = new long[capacity];
+        mIndexOffsets = new long[capacity];
+        mIndexFrames = new long[capacity];
+        mChunkCount = 0;
+        mFrameCount = 0;
+
+        long size = mFileChannel.size();
+        long offset = CompactBasebandFormat.HEADER_LENGTH;
+        ByteBuffer header = ByteBuffer.allocate(CompactBasebandFormat.CHUNK_HEADER_LENGTH);
+
+        while(offset + CompactBasebandFormat.CHUNK_HEADER_LENGTH <= size)
+        {
+            header.clear();
+            readFully(header, offset);
+
+            if(header.getInt(0) != CompactBasebandFormat.CHUNK_MAGIC)
+            {
+                break;
+            }
+
+            int storedLength = header.getInt(24);
+            long next = offset + CompactBasebandFormat.CHUNK_HEADER_LENGTH + storedLength;
+
+            if(storedLength < 0 || next > size)
+            {
+                break;
+            }
+
+            if(mChunkCount + 1 >= capacity)
+            {
+                capacity *= 2;
+                mIndexTimestamps = Arrays.copyOf(mIndexTimestamps, capacity);
+                mIndexOffsets = Arrays.copyOf(mIndexOffsets, capacity);
+                mIndexFrames = Arrays.copyOf(mIndexFrames, capacity);
+            }
+
+            mIndexTimestamps[mChunkCount] = header.getLong(8);
+            mIndexOffsets[mChunkCount] = offset;
+            mIndexFrames[mChunkCount] = mFrameCount;
+            mChunkCount++;
+            mFrameCount += header.getInt(16);
+            offset = next;
+        }
+
+        mIndexOffsets[mChunkCount] = offset;
+        mIndexFrames[mChunkCount] = mFrameCount;
+    }
+
+    /**
+     * Reads the header for the chunk at the index position.  Package-private for the reader benchmark.
+     */
+    ByteBuffer readChunkHeader(int chunk) throws IOException
+    {
+        mChunkHeader.clear();
+        readFully(mChunkHeader, mIndexOffsets[chunk]);
+        mChunkHeader.flip();
+
+        if(mChunkHeader.getInt(0) != CompactBasebandFormat.CHUNK_MAGIC)
+        {
+            throw new IOException("Invalid chunk header at offset [" + mIndexOffsets[chunk] + "]");
+        }
+
+        return mChunkHeader;
+    }
+
+    /**
+     * Path for the file
+     */
+    public Path getPath()
+    {
+        return mPath;
+    }
+
+    /**
+     * Sample encoding of the recording
+     */
+    public RawSampleEncoding getEncoding()
+    {
+        return mEncoding;
+    }
+
+    @Override
+    public double getSampleRate()
+    {
+        return mSampleRate;
+    }
+
+    /**
+     * Tuner center frequency when the recording was made
+     */
+    public long getFrequency()
+    {
+        return mFrequency;
+    }
+
+    /**
+     * Timestamp when the recording was started
+     */
+    public long getStartTimestamp()
+    {
+        return mStartTimestamp;
+    }
+
+    /**
+     * Number of chunks in the recording
+     */
+    public int getChunkCount()
+    {
+        return mChunkCount;
+    }
+
+    @Override
+    public long getFrameCount()
+    {
+        return mFrameCount;
+    }
+
+    @Override
+    public long getFramePosition()
+    {
+        return mIndexFrames[mChunkPosition];
+    }
+
+    /**
+     * Duration of the recording in milliseconds, measured from the recorded timestamps of the first and last chunks
+     * so that any gaps in the recording are included.
+     */
+    @Override
+    public long getDuration()
+    {
+        if(mChunkCount == 0)
+        {
+            return 0;
+        }
+
+        long lastChunkFrames = mIndexFrames[mChunkCount] - mIndexFrames[mChunkCount - 1];
+        return mIndexTimestamps[mChunkCount - 1] - mIndexTimestamps[0] + (long)(lastChunkFrames * 1000.0 / mSampleRate);
+    }
+
+    /**
+     * Current position as a time offset from the recorded timestamp of the first chunk, in milliseconds.
+     */
+    @Override
+    public long getTimeOffset()
+    {
+        if(mChunkPosition < mChunkCount)
+        {
+            return mIndexTimestamps[mChunkPosition] - mIndexTimestamps[0];
+        }
+
+        return getDuration();
+    }
+
+    /**
+     * Sets the current position to the start of the chunk that contains the frame.
+     */
+    @Override
+    public void seek(long frame)
+    {
+        if(frame >= mFrameCount)
+        {
+            mChunkPosition = mChunkCount;
+            return;
+        }
+
+        int index = Arrays.binarySearch(mIndexFrames, 0, mChunkCount, Math.max(frame, 0));
+        mChunkPosition = index >= 0 ? index : Math.max(0, -index - 2);
+    }
+
+    @Override
+    public void seekToTime(long milliseconds)
+    {
+        if(mChunkCount > 0)
+        {
+            seekToTimestamp(mIndexTimestamps[0] + milliseconds);
+        }
+    }
+
+    /**
+     * Sets the current position to the start of the last chunk recorded at or before the timestamp, or to the first
+     * chunk when the timestamp precedes the recording.
+     * @param timestamp in milliseconds since epoch
+     */
+    public void seekToTimestamp(long timestamp)
+    {
+        int index = Arrays.binarySearch(mIndexTimestamps, 0, mChunkCount, timestamp);
+
+        if(index >= 0)
+        {
+            //Move to the first of any chunks that share the same timestamp
+            while(index > 0 && mIndexTimestamps[index - 1] == timestamp)
+            {
+                index--;
+            }
+
+            mChunkPosition = index;
+        }
+        else
+        {
+            mChunkPosition = Math.max(0, -index - 2);
+        }
+    }
+
+    /**
+     * Advances the current position by at least one chunk, to the chunk that contains the frame at the current
+     * position plus the number of frames.
+     */
+    @Override
+    public void skip(int frames)
+    {
+        if(mChunkPosition < mChunkCount)
+        {
+            int current = mChunkPosition;
+            seek(getFramePosition() + frames);
+
+            if(mChunkPosition <= current)
+            {
+                mChunkPosition = current + 1;
+            }
+        }
+    }
+
+    /**
+     * Recorded timestamp of the chunk at the current position
+     */
+    public long getRecordedTimestamp()
+    {
+        if(mChunkPosition < mChunkCount)
+        {
+            return mIndexTimestamps[mChunkPosition];
+        }
+
+        return 0;
+    }
+
+    /**
+     * Reads and decompresses the chunk at the current position and advances the position to the next chunk.
+     * @param frames requested - ignored since reads are aligned to chunks
+     * @param timestamp to assign to the buffer
+     * @return native buffer containing the chunk samples
+     */
+    @Override
+    public INativeBuffer read(int frames, long timestamp) throws IOException
+    {
+        if(mFileChannel == null)
+        {
+            throw new IOException("File is closed");
+        }
+
+        if(mChunkPosition >= mChunkCount)
+        {
+            throw new EOFException("End of file reached");
+        }
+
+        ByteBuffer header = readChunkHeader(mChunkPosition);
+        int flags = header.getInt(4);
+        int rawLength = header.getInt(20);
+        int storedLength = header.getInt(24);
+
+        if(mStoredSamples.capacity() < storedLength)
+        {
+            mStoredSamples = ByteBuffer.allocate(storedLength);
+        }
+
+        mStoredSamples.clear().limit(storedLength);
+        readFully(mStoredSamples, mIndexOffsets[mChunkPosition] + CompactBasebandFormat.CHUNK_HEADER_LENGTH);
+
+        if(mRawSamples.length < rawLength)
+        {
+            mRawSamples = new byte[rawLength];
+        }
+
+        if((flags & CompactBasebandFormat.FLAG_DEFLATED) == CompactBasebandFormat.FLAG_DEFLATED)
+        {
+            mInflater.reset();
+            mInflater.setInput(mStoredSamples.array(), 0, storedLength);
+
+            try
+            {
+                int inflated = 0;
+
+                while(inflated < rawLength && !mInflater.finished())
+                {
+                    int count = mInflater.inflate(mRawSamples, inflated, rawLength - inflated);
+
+                    if(count == 0 && (mInflater.needsInput() || mInflater.needsDictionary()))
+                    {
+                        break;
+                    }
+
+                    inflated += count;
+                }
+
+                if(inflated != rawLength)
+                {
+                    throw new IOException("Chunk [" + mChunkPosition + "] decompressed to [" + inflated +
+                        "] bytes - expected [" + rawLength + "]");
+                }
+            }
+            catch(DataFormatException dfe)
+            {
+                throw new IOException("Chunk [" + mChunkPosition + "] data is corrupt", dfe);
+            }
+        }
+        else
+        {
+            System.arraycopy(mStoredSamples.array(), 0, mRawSamples, 0, rawLength);
+        }
+
+        mChunkPosition++;
+
+        return switch(mEncoding)
+        {
+            case UNSIGNED_8_BIT, SIGNED_8_BIT ->
+                mNativeBufferFactory.getBuffer(ByteBuffer.wrap(mRawSamples, 0, rawLength).slice(), timestamp);
+            case PACKED_12_BIT_REAL -> mNativeBufferFactory.getBuffer(unpack(rawLength), timestamp);
+            default -> new MappedNativeBuffer(ByteBuffer.wrap(Arrays.copyOf(mRawSamples, rawLength)),
+                IQSampleFormat.SIGNED_16_BIT, timestamp);
+        };
+    }
+
+    /**
+     * Unpacks the planar packed 12-bit samples into 16-bit little-endian samples, the unpacked format that is accepted
+     * by the Airspy native buffer factory.
+     * @param length of the packed samples
+     * @return unpacked samples
+     */
+    private ByteBuffer unpack(int length)
+    {
+        int sampleCount = length / 3 * 2;
+        int unpackedLength = sampleCount * 2;
+
+        if(mUnpackedSamples.length < unpackedLength)
+        {
+            mUnpackedSamples = new byte[unpackedLength];
+        }
+
+        int offset = 0;
+        int highBits;
+
+        for(int x = 0; x < sampleCount; x += 2)
+        {
+            highBits = mRawSamples[sampleCount + (x / 2)];
+            mUnpackedSamples[offset++] = mRawSamples[x];
+            mUnpackedSamples[offset++] = (byte)(highBits & 0x0F);
+            mUnpackedSamples[offset++] = mRawSamples[x + 1];
+            mUnpackedSamples[offset++] = (byte)((highBits >> 4) & 0x0F);
+        }
+
+        return ByteBuffer.wrap(mUnpackedSamples, 0, unpackedLength).slice();
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        if(mFileChannel != null)
+        {
+            mFileChannel.close();
+            mFileChannel = null;
+            mInflater.end();
+        }
+    }
+
+    /**
+     * Reads bytes from the channel at the offset until the buffer is full.
+     */
+    private void readFully(ByteBuffer buffer, long offset) throws IOException
+    {
+        long start = offset - buffer.position();
+
+        while(buffer.hasRemaining())
+        {
+            int read = mFileChannel.read(buffer, start + buffer.position());
+
+            if(read < 0)
+            {
+                throw new EOFException("Unexpected end of file");
+            }
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return "Compact Baseband Recording [" + mPath + "] encoding [" + mEncoding + "] sample rate [" + mSampleRate +
+            "] frequency [" + mFrequency + "] chunks [" + mChunkCount + "] frames [" + mFrameCount + "]";
+    }
+}
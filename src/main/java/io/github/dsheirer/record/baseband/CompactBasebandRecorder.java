@@ -0,0 +1,232 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.record.baseband;
+
+import io.github.dsheirer.buffer.INativeBuffer;
+import io.github.dsheirer.buffer.NativeBufferDispatcher;
+import io.github.dsheirer.buffer.RawSampleEncoding;
+import io.github.dsheirer.module.Module;
+import io.github.dsheirer.record.IBasebandRecorder;
+import io.github.dsheirer.record.wave.IRecordingStatusListener;
+import io.github.dsheirer.sample.Listener;
+import io.github.dsheirer.source.ISourceEventListener;
+import io.github.dsheirer.source.SourceEvent;
+import io.github.dsheirer.util.Dispatcher;
+import io.github.dsheirer.util.ThreadPool;
+import io.github.dsheirer.util.TimeStamp;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Baseband recorder module for recording the native sample buffers produced by a tuner to compact baseband
+ * recording files (see CompactBasebandFormat).  Samples are recorded in their native encoding and compressed on a
+ * background dispatcher thread.
+ *
+ * The recording rolls over to a new file when the file reaches the maximum size, or when the sample rate, center
+ * frequency or native sample encoding changes, so that each file fully describes the samples that it contains.
+ */
+public class CompactBasebandRecorder extends Module implements IBasebandRecorder, ISourceEventListener
+{
+    private static final Logger mLog = LoggerFactory.getLogger(CompactBasebandRecorder.class);
+    private static final long STATUS_UPDATE_BYTE_INTERVAL = 1_048_576;
+    private static final long MAX_RECORDING_SIZE = (long)Integer.MAX_VALUE * 2l;
+    private Dispatcher<INativeBuffer> mBufferProcessor = NativeBufferDispatcher.create(500,
+            "sdrtrunk compact baseband recorder");
+
+    private AtomicBoolean mRunning = new AtomicBoolean();
+    private CompactBasebandWriter mWriter;
+    private String mFilePrefix;
+    private IRecordingStatusListener mStatusListener;
+    private volatile float mSampleRate;
+    private volatile long mFrequency;
+    private float mWriterSampleRate;
+    private long mWriterFrequency;
+    private long mLastReportedSize = 0;
+    private int mRecordingCount = 0;
+
+    /**
+     * Constructs an instance
+     * @param sampleRate of the recorded samples
+     * @param filePrefix for the recording file names
+     * @param statusListener to receive recording file name and size updates
+     */
+    public CompactBasebandRecorder(float sampleRate, String filePrefix, IRecordingStatusListener statusListener)
+    {
+        mSampleRate = sampleRate;
+        mFilePrefix = filePrefix;
+        mStatusListener = statusListener;
+        mBufferProcessor.setListener(new ChunkWriter());
+    }
+
+    @Override
+    public void setSampleRate(float sampleRate)
+    {
+        mSampleRate = sampleRate;
+    }
+
+    @Override
+    public void setFrequency(long frequency)
+    {
+        mFrequency = frequency;
+    }
+
+    private String getFileName()
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append(mFilePrefix);
+        sb.append("_");
+        sb.append(TimeStamp.getTimeStamp("_"));
+        sb.append(CompactBasebandFormat.FILE_EXTENSION);
+        return sb.toString();
+    }
+
+    @Override
+    public void start()
+    {
+        if(mRunning.compareAndSet(false, true))
+        {
+            mRecordingCount = 0;
+            mBufferProcessor.start();
+        }
+    }
+
+    @Override
+    public void stop()
+    {
+        if(mRunning.compareAndSet(true, false))
+        {
+            mBufferProcessor.stop();
+
+            //Thread this operation so that it doesn't tie up the calling thread.
+            ThreadPool.CACHED.submit(this::closeRecording);
+        }
+    }
+
+    /**
+     * Closes the current recording file, which writes the chunk index to the file.
+     */
+    private synchronized void closeRecording()
+    {
+        if(mWriter != null)
+        {
+            try
+            {
+                mWriter.close();
+                mLog.info("Closed compact baseband recording [" + mWriter.getPath() + "] - compressed [" +
+                    mWriter.getRawByteCount() + "] sample bytes to [" + mWriter.getFileSize() + "] bytes");
+            }
+            catch(IOException ioe)
+            {
+                mLog.error("Error closing compact baseband recording", ioe);
+            }
+
+            mWriter = null;
+        }
+    }
+
+    /**
+     * Closes the current recording, if any, and creates a new recording file for samples with the encoding.
+     */
+    private synchronized void rollRecording(RawSampleEncoding encoding) throws IOException
+    {
+        closeRecording();
+
+        mWriterSampleRate = mSampleRate;
+        mWriterFrequency = mFrequency;
+        mLastReportedSize = 0;
+        String filePath = getFileName();
+        mWriter = new CompactBasebandWriter(Paths.get(filePath), encoding, mWriterSampleRate, mWriterFrequency);
+        mStatusListener.update(++mRecordingCount, filePath, 0);
+    }
+
+    @Override
+    public void receive(INativeBuffer nativeBuffer)
+    {
+        if(mRunning.get())
+        {
+            //Queue the buffer with the buffer processor so that recording occurs on the buffer processor thread
+            mBufferProcessor.receive(nativeBuffer);
+        }
+    }
+
+    @Override
+    public void reset()
+    {
+    }
+
+    @Override
+    public Listener<SourceEvent> getSourceEventListener()
+    {
+        return sourceEvent ->
+        {
+            switch(sourceEvent.getEvent())
+            {
+                case NOTIFICATION_SAMPLE_RATE_CHANGE:
+                    setSampleRate(sourceEvent.getValue().floatValue());
+                    break;
+                case NOTIFICATION_FREQUENCY_CHANGE:
+                    setFrequency(sourceEvent.getValue().longValue());
+                    break;
+            }
+        };
+    }
+
+    /**
+     * Writes native buffers delivered from the buffer processor to the current recording file.
+     */
+    public class ChunkWriter implements Listener<INativeBuffer>
+    {
+        @Override
+        public void receive(INativeBuffer nativeBuffer)
+        {
+            try
+            {
+                synchronized(CompactBasebandRecorder.this)
+                {
+                    RawSampleEncoding encoding = CompactBasebandWriter.getEncoding(nativeBuffer);
+
+                    if(mWriter == null || mWriter.getEncoding() != encoding || mWriter.getFileSize() > MAX_RECORDING_SIZE ||
+                        mWriterSampleRate != mSampleRate || mWriterFrequency != mFrequency)
+                    {
+                        rollRecording(encoding);
+                    }
+
+                    mWriter.write(nativeBuffer);
+
+                    if(mWriter.getFileSize() > (mLastReportedSize + STATUS_UPDATE_BYTE_INTERVAL))
+                    {
+                        mStatusListener.update(mRecordingCount, mWriter.getPath().toString(), mWriter.getFileSize());
+                        mLastReportedSize = mWriter.getFileSize();
+                    }
+                }
+            }
+            catch(IOException ioe)
+            {
+                mLog.error("I/O exception while writing native buffers to compact baseband recorder - stopping " +
+                    "recorder", ioe);
+                stop();
+            }
+        }
+    }
+}
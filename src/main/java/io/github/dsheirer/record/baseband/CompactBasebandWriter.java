@@ -0,0 +1,356 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.record.baseband;
+
+import io.github.dsheirer.buffer.INativeBuffer;
+import io.github.dsheirer.buffer.IRawSampleBuffer;
+import io.github.dsheirer.buffer.RawSampleEncoding;
+import io.github.dsheirer.sample.complex.InterleavedComplexSamples;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.zip.Deflater;
+
+/**
+ * Writes native buffers to a compact baseband recording file (see CompactBasebandFormat).  Each native buffer is
+ * written as a single chunk containing the raw samples in their native encoding, deflate compressed using the
+ * Huffman-only strategy.  Sample data has very few repeated byte sequences, so the entropy coding of the sample
+ * value distribution provides nearly all of the compression gain for a fraction of the cost of full deflate
+ * compression.  Chunks that don't compress are stored uncompressed.
+ *
+ * Native buffers that don't expose their raw samples are stored as 16-bit samples.
+ *
+ * This class is not thread safe.
+ */
+public class CompactBasebandWriter implements AutoCloseable
+{
+    private static final int INITIAL_INDEX_CAPACITY = 1024;
+    private Path mPath;
+    private FileChannel mFileChannel;
+    private RawSampleEncoding mEncoding;
+    private Deflater mDeflater = new Deflater(Deflater.BEST_SPEED, true);
+    private ByteBuffer mRawSamples = ByteBuffer.allocate(0);
+    private byte[] mStoredSamples = new byte[0];
+    private ByteBuffer mChunkHeader = ByteBuffer.allocate(CompactBasebandFormat.CHUNK_HEADER_LENGTH);
+    private ByteBuffer[] mChunk = new ByteBuffer[2];
+    private long[] mIndexTimestamps = new long[INITIAL_INDEX_CAPACITY];
+    private long[] mIndexOffsets = new long[INITIAL_INDEX_CAPACITY];
+    private long[] mIndexFrames = new long[INITIAL_INDEX_CAPACITY];
+    private int mChunkCount;
+    private long mFrameCount;
+    private long mFileSize;
+    private long mRawByteCount;
+
+    /**
+     * Creates the recording file and writes the file header.
+     * @param path for the recording file
+     * @param encoding of the samples to be recorded
+     * @param sampleRate of the samples to be recorded
+     * @param frequency of the tuner
+     * @throws IOException if the file can't be created
+     */
+    public CompactBasebandWriter(Path path, RawSampleEncoding encoding, double sampleRate, long frequency)
+        throws IOException
+    {
+        mPath = path;
+        mEncoding = encoding;
+        mDeflater.setStrategy(Deflater.HUFFMAN_ONLY);
+        mFileChannel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE);
+
+        ByteBuffer header = ByteBuffer.allocate(CompactBasebandFormat.HEADER_LENGTH);
+        header.putInt(CompactBasebandFormat.FILE_MAGIC);
+        header.putShort(CompactBasebandFormat.VERSION);
+        header.put((byte)encoding.getCode());
+        header.put((byte)0);
+        header.putDouble(sampleRate);
+        header.putLong(frequency);
+        header.putLong(System.currentTimeMillis());
+        header.flip();
+        writeFully(header);
+    }
+
+    /**
+     * Encoding that is used to record the native buffer
+     */
+    public static RawSampleEncoding getEncoding(INativeBuffer nativeBuffer)
+    {
+        if(nativeBuffer instanceof IRawSampleBuffer rawSampleBuffer)
+        {
+            return rawSampleBuffer.getRawSampleEncoding();
+        }
+
+        return RawSampleEncoding.SIGNED_16_BIT;
+    }
+
+    /**
+     * Writes the native buffer to the recording as a single chunk.
+     * @param nativeBuffer to write, with a sample encoding that matches the encoding of this recording
+     * @throws IOException if there is an error writing to the file
+     * @throws IllegalArgumentException if the native buffer sample encoding doesn't match this recording
+     */
+    public void write(INativeBuffer nativeBuffer) throws IOException
+    {
+        if(mFileChannel == null)
+        {
+            throw new IOException("Recording is closed");
+        }
+
+        if(getEncoding(nativeBuffer) != mEncoding)
+        {
+            throw new IllegalArgumentException("Native buffer sample encoding [" + getEncoding(nativeBuffer) +
+                "] doesn't match the recording sample encoding [" + mEncoding + "]");
+        }
+
+        int rawLength = loadRawSamples(nativeBuffer);
+        byte[] raw = mRawSamples.array();
+
+        if(mStoredSamples.length < rawLength)
+        {
+            mStoredSamples = new byte[rawLength];
+        }
+
+        mDeflater.reset();
+        mDeflater.setInput(raw, 0, rawLength);
+        mDeflater.finish();
+
+        int storedLength = 0;
+
+        while(!mDeflater.finished() && storedLength < rawLength)
+        {
+            storedLength += mDeflater.deflate(mStoredSamples, storedLength, rawLength - storedLength);
+        }
+
+        int flags = 0;
+        ByteBuffer stored;
+
+        if(mDeflater.finished() && storedLength < rawLength)
+        {
+            flags |= CompactBasebandFormat.FLAG_DEFLATED;
+            stored = ByteBuffer.wrap(mStoredSamples, 0, storedLength);
+        }
+        else
+        {
+            storedLength = rawLength;
+            stored = ByteBuffer.wrap(raw, 0, rawLength);
+        }
+
+        mChunkHeader.clear();
+        mChunkHeader.putInt(CompactBasebandFormat.CHUNK_MAGIC);
+        mChunkHeader.putInt(flags);
+        mChunkHeader.putLong(nativeBuffer.getTimestamp());
+        mChunkHeader.putInt(nativeBuffer.sampleCount());
+        mChunkHeader.putInt(rawLength);
+        mChunkHeader.putInt(storedLength);
+        mChunkHeader.flip();
+
+        addIndexEntry(nativeBuffer.getTimestamp(), mFileSize, mFrameCount);
+
+        mChunk[0] = mChunkHeader;
+        mChunk[1] = stored;
+        long length = mChunkHeader.remaining() + stored.remaining();
+
+        while(mChunk[1].hasRemaining())
+        {
+            mFileChannel.write(mChunk);
+        }
+
+        mFileSize += length;
+        mFrameCount += nativeBuffer.sampleCount();
+        mRawByteCount += rawLength;
+        mChunk[1] = null;
+    }
+
+    /**
+     * Loads the raw samples from the native buffer into the raw samples buffer.
+     * @return number of raw sample bytes
+     */
+    private int loadRawSamples(INativeBuffer nativeBuffer)
+    {
+        int length;
+
+        if(nativeBuffer instanceof IRawSampleBuffer rawSampleBuffer)
+        {
+            length = rawSampleBuffer.getRawSampleByteCount();
+        }
+        else
+        {
+            length = nativeBuffer.sampleCount() * RawSampleEncoding.SIGNED_16_BIT.getBytesPerFrame();
+        }
+
+        if(mRawSamples.capacity() < length)
+        {
+            mRawSamples = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        mRawSamples.clear();
+
+        if(nativeBuffer instanceof IRawSampleBuffer rawSampleBuffer)
+        {
+            rawSampleBuffer.getRawSamples(mRawSamples);
+        }
+        else
+        {
+            Iterator<InterleavedComplexSamples> iterator = nativeBuffer.iteratorInterleaved();
+
+            while(iterator.hasNext())
+            {
+                for(float sample: iterator.next().samples())
+                {
+                    if(sample > 1.0f)
+                    {
+                        mRawSamples.putShort(Short.MAX_VALUE);
+                    }
+                    else if(sample < -1.0f)
+                    {
+                        mRawSamples.putShort((short)-Short.MAX_VALUE);
+                    }
+                    else
+                    {
+                        mRawSamples.putShort((short)(sample * Short.MAX_VALUE));
+                    }
+                }
+            }
+        }
+
+        return mRawSamples.position();
+    }
+
+    /**
+     * Adds an entry to the chunk index
+     */
+    private void addIndexEntry(long timestamp, long offset, long frame)
+    {
+        if(mChunkCount == mIndexTimestamps.length)
+        {
+            int capacity = mIndexTimestamps.length * 2;
+            mIndexTimestamps = Arrays.copyOf(mIndexTimestamps, capacity);
+            mIndexOffsets = Arrays.copyOf(mIndexOffsets, capacity);
+            mIndexFrames = Arrays.copyOf(mIndexFrames, capacity);
+        }
+
+        mIndexTimestamps[mChunkCount] = timestamp;
+        mIndexOffsets[mChunkCount] = offset;
+        mIndexFrames[mChunkCount] = frame;
+        mChunkCount++;
+    }
+
+    /**
+     * Writes the chunk index and file footer and closes the file.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        if(mFileChannel != null)
+        {
+            try
+            {
+                long indexOffset = mFileSize;
+                ByteBuffer index = ByteBuffer.allocate(CompactBasebandFormat.INDEX_HEADER_LENGTH +
+                    (mChunkCount * CompactBasebandFormat.INDEX_ENTRY_LENGTH) + CompactBasebandFormat.FOOTER_LENGTH);
+                index.putInt(CompactBasebandFormat.INDEX_MAGIC);
+                index.putInt(mChunkCount);
+
+                for(int x = 0; x < mChunkCount; x++)
+                {
+                    index.putLong(mIndexTimestamps[x]);
+                    index.putLong(mIndexOffsets[x]);
+                    index.putLong(mIndexFrames[x]);
+                }
+
+                index.putLong(indexOffset);
+                index.putInt(CompactBasebandFormat.FILE_MAGIC);
+                index.flip();
+                writeFully(index);
+            }
+            finally
+            {
+                mFileChannel.close();
+                mFileChannel = null;
+                mDeflater.end();
+            }
+        }
+    }
+
+    /**
+     * Writes the buffer contents to the file
+     */
+    private void writeFully(ByteBuffer buffer) throws IOException
+    {
+        while(buffer.hasRemaining())
+        {
+            mFileSize += mFileChannel.write(buffer);
+        }
+    }
+
+    /**
+     * Path of the recording file
+     */
+    public Path getPath()
+    {
+        return mPath;
+    }
+
+    /**
+     * Sample encoding of the recording
+     */
+    public RawSampleEncoding getEncoding()
+    {
+        return mEncoding;
+    }
+
+    /**
+     * Current size of the recording file in bytes
+     */
+    public long getFileSize()
+    {
+        return mFileSize;
+    }
+
+    /**
+     * Number of raw (uncompressed) sample bytes written to the recording
+     */
+    public long getRawByteCount()
+    {
+        return mRawByteCount;
+    }
+
+    /**
+     * Number of complex sample frames written to the recording
+     */
+    public long getFrameCount()
+    {
+        return mFrameCount;
+    }
+
+    /**
+     * Number of chunks written to the recording
+     */
+    public int getChunkCount()
+    {
+        return mChunkCount;
+    }
+}
@@ -23,6 +23,8 @@ import io.github.dsheirer.protocol.Protocol;
 import io.github.dsheirer.sample.Listener;
 import io.github.dsheirer.sample.buffer.IByteBufferListener;
 import io.github.dsheirer.util.Dispatcher;
+import io.github.dsheirer.util.IBatchListener;
+import io.github.dsheirer.util.DispatcherFactory;
 import io.github.dsheirer.util.StringUtils;
 import io.github.dsheirer.util.TimeStamp;
 import org.slf4j.Logger;
@@ -30,11 +32,12 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.nio.channels.WritableByteChannel;
-import java.nio.file.Files;
+import java.nio.channels.FileChannel;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
 import java.util.EnumSet;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -49,8 +52,9 @@ public class BinaryRecorder extends Module implements IByteBufferListener
 {
     private final static Logger mLog = LoggerFactory.getLogger(BinaryRecorder.class);
     private static final int MAX_RECORDING_BYTE_SIZE = 524288;  //500 kB
+    private static final int MAX_BATCH_SIZE = Dispatcher.DEFAULT_MAX_BATCH_SIZE;
 
-    private Dispatcher<ByteBuffer> mBufferProcessor = new Dispatcher<>(500,
+    private Dispatcher<ByteBuffer> mBufferProcessor = DispatcherFactory.create(500,
             "sdrtrunk binary recorder", ByteBuffer.allocate(0));
     private AtomicBoolean mRunning = new AtomicBoolean();
     private Path mBaseRecordingPath;
@@ -70,7 +74,7 @@ public class BinaryRecorder extends Module implements IByteBufferListener
     {
         mBaseRecordingPath = baseRecordingPath;
         mRecordingIdentifier = recordingIdentifier;
-        mBufferProcessor.setListener(mBinaryWriter);
+        mBufferProcessor.setBatchListener(mBinaryWriter, MAX_BATCH_SIZE);
         mProtocol = protocol;
     }
 
@@ -97,7 +101,7 @@ public class BinaryRecorder extends Module implements IByteBufferListener
             if(mBufferProcessor != null)
             {
                 mBufferProcessor.flushAndStop();
-                mBufferProcessor.setListener(null);
+                mBufferProcessor.setBatchListener(null);
 
                 try
                 {
@@ -142,19 +146,21 @@ public class BinaryRecorder extends Module implements IByteBufferListener
     }
 
     /**
-     * Binary writer implementation for reusable byte buffers delivered from buffer processor
+     * Binary writer implementation for reusable byte buffers delivered from buffer processor.  Batches of buffers are
+     * written to the file with a single gathering write.
      */
-    public class BinaryWriter implements Listener<ByteBuffer>
+    public class BinaryWriter implements Listener<ByteBuffer>, IBatchListener<ByteBuffer>
     {
         private Path mCurrentPath;
-        private WritableByteChannel mWritableByteChannel;
+        private FileChannel mWritableByteChannel;
+        private final ByteBuffer[] mGatherBuffers = new ByteBuffer[MAX_BATCH_SIZE];
 
         public void start(Path path) throws IOException
         {
             synchronized(this)
             {
                 mCurrentPath = path;
-                mWritableByteChannel = Files.newByteChannel(path,
+                mWritableByteChannel = FileChannel.open(path,
                     EnumSet.of(StandardOpenOption.CREATE, StandardOpenOption.WRITE));
             }
         }
@@ -189,7 +195,7 @@ public class BinaryRecorder extends Module implements IByteBufferListener
                     }
 
                     mCurrentPath = getRecordingPath();
-                    mWritableByteChannel = Files.newByteChannel(mCurrentPath,
+                    mWritableByteChannel = FileChannel.open(mCurrentPath,
                         EnumSet.of(StandardOpenOption.CREATE, StandardOpenOption.WRITE));
                     mLog.info("Binary (bitstream) recording started: " + mCurrentPath.toString());
                 }
@@ -222,18 +228,69 @@ public class BinaryRecorder extends Module implements IByteBufferListener
                 }
                 catch(IOException ioe)
                 {
-                    mLog.error("Error recording demodulated bits to file [" +
-                            (mCurrentPath != null ? mCurrentPath.toString() : "no file") + "] - stopping recorder");
+                    handleWriteError();
+                }
+            }
+        }
 
-                    try
+        /**
+         * Batch receive method for incoming byte buffers.  Writes the batch with a single gathering write.
+         * @param batch of byte buffers to record
+         */
+        @Override
+        public void receive(List<ByteBuffer> batch)
+        {
+            if(mWritableByteChannel != null)
+            {
+                int count = batch.size();
+                long remaining = 0;
+
+                for(int x = 0; x < count; x++)
+                {
+                    mGatherBuffers[x] = batch.get(x);
+                    remaining += mGatherBuffers[x].remaining();
+                }
+
+                try
+                {
+                    while(remaining > 0)
                     {
-                        stop();
+                        long written = mWritableByteChannel.write(mGatherBuffers, 0, count);
+                        mBytesRecordedCounter += (int)written;
+                        remaining -= written;
                     }
-                    catch(IOException ioe2)
+
+                    if(mBytesRecordedCounter > MAX_RECORDING_BYTE_SIZE)
                     {
-                        mLog.error("Error stopping recorder after write error", ioe2.getLocalizedMessage());
+                        cycleRecording();
                     }
                 }
+                catch(IOException ioe)
+                {
+                    handleWriteError();
+                }
+                finally
+                {
+                    Arrays.fill(mGatherBuffers, 0, count, null);
+                }
+            }
+        }
+
+        /**
+         * Logs a write error and stops the recorder.
+         */
+        private void handleWriteError()
+        {
+            mLog.error("Error recording demodulated bits to file [" +
+                    (mCurrentPath != null ? mCurrentPath.toString() : "no file") + "] - stopping recorder");
+
+            try
+            {
+                stop();
+            }
+            catch(IOException ioe2)
+            {
+                mLog.error("Error stopping recorder after write error", ioe2.getLocalizedMessage());
             }
         }
     }
@@ -26,6 +26,7 @@ import io.github.dsheirer.sample.complex.IComplexSamplesListener;
 import io.github.dsheirer.source.ISourceEventListener;
 import io.github.dsheirer.source.SourceEvent;
 import io.github.dsheirer.util.Dispatcher;
+import io.github.dsheirer.util.DispatcherFactory;
 import io.github.dsheirer.util.ThreadPool;
 import io.github.dsheirer.util.TimeStamp;
 import org.slf4j.Logger;
@@ -45,7 +46,7 @@ public class ComplexSamplesWaveRecorder extends Module implements IComplexSample
 {
     private final static Logger mLog = LoggerFactory.getLogger(ComplexSamplesWaveRecorder.class);
 
-    private Dispatcher<ComplexSamples> mBufferProcessor = new Dispatcher<>(500,
+    private Dispatcher<ComplexSamples> mBufferProcessor = DispatcherFactory.create(500,
             "sdrtrunk complex wave recorder", new ComplexSamples(new float[0], new float[0]));
 
     private AtomicBoolean mRunning = new AtomicBoolean();
@@ -19,8 +19,9 @@
 package io.github.dsheirer.record.wave;
 
 import io.github.dsheirer.buffer.INativeBuffer;
-import io.github.dsheirer.buffer.NativeBufferPoisonPill;
+import io.github.dsheirer.buffer.NativeBufferDispatcher;
 import io.github.dsheirer.module.Module;
+import io.github.dsheirer.record.IBasebandRecorder;
 import io.github.dsheirer.sample.ConversionUtils;
 import io.github.dsheirer.sample.Listener;
 import io.github.dsheirer.sample.complex.InterleavedComplexSamples;
@@ -43,13 +44,13 @@ import java.util.concurrent.atomic.AtomicBoolean;
 /**
  * WAVE audio recorder module for recording complex (I&Q) samples to a wave file
  */
-public class NativeBufferWaveRecorder extends Module implements Listener<INativeBuffer>, ISourceEventListener
+public class NativeBufferWaveRecorder extends Module implements IBasebandRecorder, ISourceEventListener
 {
     private static final Logger mLog = LoggerFactory.getLogger(ComplexSamplesWaveRecorder.class);
     private static final long STATUS_UPDATE_BYTE_INTERVAL = 1_048_576;
     private static final long MAX_RECORDING_SIZE = (long)Integer.MAX_VALUE * 2l;
-    private Dispatcher<INativeBuffer> mBufferProcessor = new Dispatcher<>(500,
-            "sdrtrunk native buffer wave recorder", new NativeBufferPoisonPill());
+    private Dispatcher<INativeBuffer> mBufferProcessor = NativeBufferDispatcher.create(500,
+            "sdrtrunk native buffer wave recorder");
 
     private AtomicBoolean mRunning = new AtomicBoolean();
     private NativeBufferWaveWriter mWriter;
@@ -68,6 +69,7 @@ public class NativeBufferWaveRecorder extends Module implements Listener<INative
         setSampleRate(sampleRate);
     }
 
+    @Override
     public void setSampleRate(float sampleRate)
     {
         if(mAudioFormat == null || mAudioFormat.getSampleRate() != sampleRate)
@@ -92,6 +94,7 @@ public class NativeBufferWaveRecorder extends Module implements Listener<INative
         return sb.toString();
     }
 
+    @Override
     public void start()
     {
         if(mRunning.compareAndSet(false, true))
@@ -150,6 +153,7 @@ public class NativeBufferWaveRecorder extends Module implements Listener<INative
         }
     }
 
+    @Override
     public void stop()
     {
         if(mRunning.compareAndSet(true, false))
@@ -18,7 +18,7 @@
  */
 package io.github.dsheirer.sample;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.locks.ReentrantLock;
@@ -27,17 +27,36 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Broadcasts an item to multiple listeners
+ *
+ * Listeners are stored in an immutable array snapshot that is replaced (copy-on-write) each time a listener is added
+ * or removed.  Broadcasting reads the current snapshot without locking or allocation, which is important for
+ * high-rate producers like the per-symbol dibit broadcasts in the P25/DMR decoders.  Single and two-listener
+ * snapshots, which are the common case, are dispatched without iterating the array.
+ *
+ * Note: a listener that is removed while a broadcast is in progress on another thread may still receive that
+ * element, and elements broadcast concurrently from multiple threads are no longer serialized by this class.
  */
 public class Broadcaster<T> implements Listener<T>
 {
     private final static Logger mLog = LoggerFactory.getLogger(Broadcaster.class);
+    private static final Listener<?>[] NO_LISTENERS = new Listener<?>[0];
     private ReentrantLock mLock = new ReentrantLock();
-    private List<Listener<T>> mListeners = new ArrayList<>();
+    private volatile Listener<T>[] mListeners = noListeners();
 
     public Broadcaster()
     {
     }
 
+    /**
+     * Shared empty listener array, typed for this broadcaster.  The array is empty, so the cast can't expose an
+     * element of the wrong type.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> Listener<T>[] noListeners()
+    {
+        return (Listener<T>[])NO_LISTENERS;
+    }
+
     /**
      * Implements the Listener<T> interface to receive an element and broadcast that element to all registered
      * listeners.
@@ -63,7 +82,7 @@ public class Broadcaster<T> implements Listener<T>
      */
     public boolean hasListeners()
     {
-        return !mListeners.isEmpty();
+        return mListeners.length > 0;
     }
 
     /**
@@ -71,15 +90,16 @@ public class Broadcaster<T> implements Listener<T>
      */
     public int getListenerCount()
     {
-        return mListeners.size();
+        return mListeners.length;
     }
 
     /**
-     * The list of listeners currently registered with this broadcaster
+     * The list of listeners currently registered with this broadcaster.  The returned list is a snapshot and does
+     * not reflect listeners that are subsequently added or removed.
      */
     public List<Listener<T>> getListeners()
     {
-        return Collections.unmodifiableList(mListeners);
+        return Collections.unmodifiableList(Arrays.asList(mListeners));
     }
 
     /**
@@ -95,10 +115,19 @@ public class Broadcaster<T> implements Listener<T>
 
             try
             {
-                if(!mListeners.contains(listener))
+                Listener<T>[] current = mListeners;
+
+                for(Listener<T> existing: current)
                 {
-                    mListeners.add(listener);
+                    if(existing.equals(listener))
+                    {
+                        return;
+                    }
                 }
+
+                Listener<T>[] updated = Arrays.copyOf(current, current.length + 1);
+                updated[current.length] = listener;
+                mListeners = updated;
             }
             finally
             {
@@ -118,7 +147,26 @@ public class Broadcaster<T> implements Listener<T>
 
             try
             {
-                mListeners.remove(listener);
+                Listener<T>[] current = mListeners;
+
+                for(int x = 0; x < current.length; x++)
+                {
+                    if(current[x].equals(listener))
+                    {
+                        if(current.length == 1)
+                        {
+                            mListeners = noListeners();
+                        }
+                        else
+                        {
+                            Listener<T>[] updated = Arrays.copyOf(current, current.length - 1);
+                            System.arraycopy(current, x + 1, updated, x, current.length - x - 1);
+                            mListeners = updated;
+                        }
+
+                        return;
+                    }
+                }
             }
             finally
             {
@@ -132,7 +180,16 @@ public class Broadcaster<T> implements Listener<T>
      */
     public void clear()
     {
-        mListeners.clear();
+        mLock.lock();
+
+        try
+        {
+            mListeners = noListeners();
+        }
+        finally
+        {
+            mLock.unlock();
+        }
     }
 
     /**
@@ -140,20 +197,25 @@ public class Broadcaster<T> implements Listener<T>
      */
     public void broadcast(T t)
     {
-        mLock.lock();
-
-        try
-        {
-            List<Listener<T>> listeners = new ArrayList<>(mListeners);
+        Listener<T>[] listeners = mListeners;
 
-            for(Listener listener: listeners)
-            {
-                listener.receive(t);
-            }
-        }
-        finally
+        switch(listeners.length)
         {
-            mLock.unlock();
+            case 0:
+                break;
+            case 1:
+                listeners[0].receive(t);
+                break;
+            case 2:
+                listeners[0].receive(t);
+                listeners[1].receive(t);
+                break;
+            default:
+                for(Listener<T> listener: listeners)
+                {
+                    listener.receive(t);
+                }
+                break;
         }
     }
 }
@@ -45,4 +45,22 @@ public interface IControllableFileSource
     public void setListener(IFrameLocationListener listener);
 
     public void removeListener(IFrameLocationListener listener);
+
+    /**
+     * Indicates if this source supports moving the playback position with seek()
+     */
+    default boolean isSeekable()
+    {
+        return false;
+    }
+
+    /**
+     * Moves the playback position to the frame index.
+     * @param frame index
+     * @throws IOException if the position cannot be changed
+     */
+    default void seek(long frame) throws IOException
+    {
+        throw new IOException("Seek is not supported by this source");
+    }
 }
@@ -19,7 +19,7 @@
 package io.github.dsheirer.source.tuner.channel;
 
 import io.github.dsheirer.buffer.INativeBuffer;
-import io.github.dsheirer.buffer.NativeBufferPoisonPill;
+import io.github.dsheirer.buffer.NativeBufferDispatcher;
 import io.github.dsheirer.dsp.filter.decimate.DecimationFilterFactory;
 import io.github.dsheirer.dsp.filter.decimate.IRealDecimationFilter;
 import io.github.dsheirer.dsp.filter.design.FilterDesignException;
@@ -29,6 +29,7 @@ import io.github.dsheirer.sample.Listener;
 import io.github.dsheirer.sample.complex.ComplexSamples;
 import io.github.dsheirer.source.SourceEvent;
 import io.github.dsheirer.util.Dispatcher;
+import io.github.dsheirer.util.DispatcherOverflowPolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -46,7 +47,7 @@ public class HalfBandTunerChannelSource<T extends INativeBuffer> extends TunerCh
     //Maximum number of filled buffers for the blocking queue
     private static final int BUFFER_MAX_CAPACITY = 600;
 
-    private Dispatcher<T> mBufferDispatcher;
+    private Dispatcher<INativeBuffer> mBufferDispatcher;
     private ComplexMixer mFrequencyCorrectionMixer;
     private IRealDecimationFilter mIDecimationFilter;
     private IRealDecimationFilter mQDecimationFilter;
@@ -79,9 +80,11 @@ public class HalfBandTunerChannelSource<T extends INativeBuffer> extends TunerCh
         mIDecimationFilter = DecimationFilterFactory.getRealDecimationFilter(decimation);
         mQDecimationFilter = DecimationFilterFactory.getRealDecimationFilter(decimation);
 
-        mBufferDispatcher = new Dispatcher(BUFFER_MAX_CAPACITY, "sdrtrunk heterodyne channel " +
-                tunerChannel.getFrequency(), new NativeBufferPoisonPill());
+        mBufferDispatcher = NativeBufferDispatcher.create(BUFFER_MAX_CAPACITY,
+                "sdrtrunk heterodyne channel " + tunerChannel.getFrequency());
         mBufferDispatcher.setListener(new NativeBufferProcessor());
+        //When the channel falls behind, discard the stalest samples so that decoding resumes with current samples
+        mBufferDispatcher.setOverflowPolicy(DispatcherOverflowPolicy.DROP_OLDEST);
 
         //Setup the frequency mixer to the current source frequency
         mChannelSampleRate = sampleRate / (double)decimation;
@@ -111,6 +114,24 @@ public class HalfBandTunerChannelSource<T extends INativeBuffer> extends TunerCh
     {
     }
 
+    @Override
+    public int getQueueDepth()
+    {
+        return mBufferDispatcher.getQueueDepth();
+    }
+
+    @Override
+    public long getAverageProcessingTime()
+    {
+        return mBufferDispatcher.getAverageProcessingTime();
+    }
+
+    @Override
+    public long getMaxProcessingTime()
+    {
+        return mBufferDispatcher.getMaxProcessingTime();
+    }
+
     /**
      * Primary interface for receiving incoming complex sample buffers to be frequency translated and decimated.
      */
@@ -217,10 +238,10 @@ public class HalfBandTunerChannelSource<T extends INativeBuffer> extends TunerCh
     /**
      * Processes native buffers received from the dispatcher and sends to the registered listener
      */
-    public class NativeBufferProcessor implements Listener<T>
+    public class NativeBufferProcessor implements Listener<INativeBuffer>
     {
         @Override
-        public void receive(T nativeBuffer)
+        public void receive(INativeBuffer nativeBuffer)
         {
             Iterator<ComplexSamples> iterator = nativeBuffer.iterator();
 
@@ -20,13 +20,14 @@
 package io.github.dsheirer.source.tuner.channel;
 
 import io.github.dsheirer.buffer.INativeBuffer;
-import io.github.dsheirer.buffer.NativeBufferPoisonPill;
+import io.github.dsheirer.buffer.NativeBufferDispatcher;
 import io.github.dsheirer.sample.Listener;
 import io.github.dsheirer.sample.complex.ComplexSamples;
 import io.github.dsheirer.source.ISourceEventListener;
 import io.github.dsheirer.source.SourceEvent;
 import io.github.dsheirer.source.tuner.TunerController;
 import io.github.dsheirer.util.Dispatcher;
+import io.github.dsheirer.util.DispatcherOverflowPolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -56,9 +57,11 @@ public class PassThroughChannelSource extends TunerChannelSource implements ISou
     {
         super(listener, tunerChannel);
         mTunerController = tunerController;
-        mBufferDispatcher = new Dispatcher<>(500, "sdrtrunk pass-through channel " +
-                tunerChannel.getFrequency(), new NativeBufferPoisonPill());
+        mBufferDispatcher = NativeBufferDispatcher.create(500, "sdrtrunk pass-through channel " +
+                tunerChannel.getFrequency());
         mBufferDispatcher.setListener(new BufferProcessor());
+        //When the channel falls behind, discard the stalest samples so that decoding resumes with current samples
+        mBufferDispatcher.setOverflowPolicy(DispatcherOverflowPolicy.DROP_OLDEST);
         mStreamHeartbeatProcessor = new StreamProcessorWithHeartbeat<>(getHeartbeatManager(), HEARTBEAT_INTERVAL_MS);
     }
 
@@ -114,6 +117,24 @@ public class PassThroughChannelSource extends TunerChannelSource implements ISou
         return mTunerController.getSampleRate();
     }
 
+    @Override
+    public int getQueueDepth()
+    {
+        return mBufferDispatcher.getQueueDepth();
+    }
+
+    @Override
+    public long getAverageProcessingTime()
+    {
+        return mBufferDispatcher.getAverageProcessingTime();
+    }
+
+    @Override
+    public long getMaxProcessingTime()
+    {
+        return mBufferDispatcher.getMaxProcessingTime();
+    }
+
     @Override
     public void receive(INativeBuffer buffer)
     {
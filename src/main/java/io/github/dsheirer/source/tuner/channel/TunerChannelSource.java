@@ -103,6 +103,32 @@ public abstract class TunerChannelSource extends ComplexSource implements ISourc
         return mTunerChannel;
     }
 
+    /**
+     * Number of sample buffers queued and awaiting processing by this channel source.
+     */
+    public int getQueueDepth()
+    {
+        return 0;
+    }
+
+    /**
+     * Average time this channel source spends processing each sample buffer.
+     * @return average processing time in nanoseconds
+     */
+    public long getAverageProcessingTime()
+    {
+        return 0;
+    }
+
+    /**
+     * Maximum time this channel source has spent processing a single sample buffer.
+     * @return maximum processing time in nanoseconds
+     */
+    public long getMaxProcessingTime()
+    {
+        return 0;
+    }
+
     /**
      * Starts this tuner channel source producing sample stream.
      */
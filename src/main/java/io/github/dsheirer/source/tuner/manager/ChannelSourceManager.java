@@ -82,6 +82,16 @@ public abstract class ChannelSourceManager implements ISourceEventProcessor
      */
     public abstract void setErrorMessage(String errorMessage);
 
+    /**
+     * Largest number of sample buffers queued and awaiting processing across the processing stages of this manager
+     * and its channel sources.  Used to apply back-pressure to sample sources that can produce samples faster than
+     * real time, such as free-running recording playback.
+     */
+    public int getBacklog()
+    {
+        return 0;
+    }
+
     /**
      * Adds a listener to receive source events
      */
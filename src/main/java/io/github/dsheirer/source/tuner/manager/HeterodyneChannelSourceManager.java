@@ -73,6 +73,19 @@ public class HeterodyneChannelSourceManager extends ChannelSourceManager
         }
     }
 
+    @Override
+    public int getBacklog()
+    {
+        int backlog = 0;
+
+        for(HalfBandTunerChannelSource channelSource: mChannelSources)
+        {
+            backlog = Math.max(backlog, channelSource.getQueueDepth());
+        }
+
+        return backlog;
+    }
+
     @Override
     public SortedSet<TunerChannel> getTunerChannels()
     {
@@ -67,6 +67,19 @@ public class PassThroughSourceManager extends ChannelSourceManager
         }
     }
 
+    @Override
+    public int getBacklog()
+    {
+        int backlog = 0;
+
+        for(TunerChannelSource tunerChannelSource: mTunerChannelSources)
+        {
+            backlog = Math.max(backlog, tunerChannelSource.getQueueDepth());
+        }
+
+        return backlog;
+    }
+
     @Override
     public SortedSet<TunerChannel> getTunerChannels()
     {
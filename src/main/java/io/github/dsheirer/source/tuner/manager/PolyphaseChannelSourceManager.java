@@ -406,6 +406,12 @@ public class PolyphaseChannelSourceManager extends ChannelSourceManager
         return mPolyphaseChannelManager.getTunerChannelCount();
     }
 
+    @Override
+    public int getBacklog()
+    {
+        return mPolyphaseChannelManager.getBacklog();
+    }
+
     /**
      * Allocates a tuner channel source for the tuner channel.
      *
@@ -21,6 +21,8 @@ package io.github.dsheirer.source.tuner.recording;
 
 import io.github.dsheirer.preference.UserPreferences;
 import io.github.dsheirer.properties.SystemProperties;
+import io.github.dsheirer.record.baseband.CompactBasebandFormat;
+import io.github.dsheirer.record.baseband.CompactBasebandReader;
 import io.github.dsheirer.source.tuner.configuration.TunerConfigurationManager;
 import io.github.dsheirer.source.tuner.manager.DiscoveredRecordingTuner;
 import io.github.dsheirer.source.tuner.ui.DiscoveredTunerModel;
@@ -28,6 +30,7 @@ import java.awt.Dimension;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.io.File;
+import java.io.IOException;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import net.miginfocom.swing.MigLayout;
@@ -62,7 +65,7 @@ public class AddRecordingTunerDialog extends JFrame
     private JTextField mFrequencyTextField;
     private JButton mAddButton;
     private JButton mCancelButton;
-    private static final Pattern TUNER_RECORDING_PATTERN = Pattern.compile(".*_(\\d*)_baseband_\\d{8}_\\d{6}\\.wav");
+    private static final Pattern TUNER_RECORDING_PATTERN = Pattern.compile(".*_(\\d*)_baseband_\\d{8}_\\d{6}\\.(wav|bbz)");
 
     public AddRecordingTunerDialog(UserPreferences userPreferences, DiscoveredTunerModel discoveredTunerModel,
                                    TunerConfigurationManager tunerConfigurationManager)
@@ -105,13 +108,14 @@ public class AddRecordingTunerDialog extends JFrame
                 @Override
                 public boolean accept(File f)
                 {
-                    return f.getAbsolutePath().endsWith(".wav") || f.isDirectory();
+                    return f.getAbsolutePath().endsWith(".wav") ||
+                        f.getAbsolutePath().endsWith(CompactBasebandFormat.FILE_EXTENSION) || f.isDirectory();
                 }
 
                 @Override
                 public String getDescription()
                 {
-                    return "Recordings (*.wav)";
+                    return "Recordings (*.wav, *" + CompactBasebandFormat.FILE_EXTENSION + ")";
                 }
             });
 
@@ -135,7 +139,18 @@ public class AddRecordingTunerDialog extends JFrame
                 {
                     Matcher m = TUNER_RECORDING_PATTERN.matcher(mSelectedRecording.getName());
 
-                    if(m.matches())
+                    if(CompactBasebandFormat.isCompactBaseband(mSelectedRecording.toPath()))
+                    {
+                        try(CompactBasebandReader reader = new CompactBasebandReader(mSelectedRecording.toPath()))
+                        {
+                            mFrequencyTextField.setText(String.valueOf(reader.getFrequency()));
+                        }
+                        catch(IOException ioe)
+                        {
+                            mLog.error("Error reading compact baseband recording frequency", ioe);
+                        }
+                    }
+                    else if(m.matches())
                     {
                         mFrequencyTextField.setText(m.group(1));
                     }
@@ -0,0 +1,436 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.source.tuner.recording;
+
+import io.github.dsheirer.alias.AliasModel;
+import io.github.dsheirer.audio.AudioSegment;
+import io.github.dsheirer.controller.channel.Channel;
+import io.github.dsheirer.controller.channel.ChannelException;
+import io.github.dsheirer.icon.IconModel;
+import io.github.dsheirer.module.decode.event.IDecodeEvent;
+import io.github.dsheirer.module.log.EventLogManager;
+import io.github.dsheirer.playlist.PlaylistManager;
+import io.github.dsheirer.preference.UserPreferences;
+import io.github.dsheirer.record.AudioRecordingManager;
+import io.github.dsheirer.source.tuner.manager.DiscoveredRecordingTuner;
+import io.github.dsheirer.source.tuner.manager.TunerManager;
+import io.github.dsheirer.util.TimeStamp;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Headless command-line decoder for baseband I/Q recordings.
+ *
+ * Replays a recording through a recording tuner in free-running mode, so that the recording is decoded as fast as the
+ * channelizer and decoders can process the samples, and decodes the channels from the current playlist (or a
+ * specified playlist) that fall within the recording bandwidth.  Decode events are logged to the console and to the
+ * channel event logs configured in the playlist, and audio is recorded when requested.  The decoder exits once the
+ * end of the recording is reached and the channelizer and channel processing stages have processed the remaining
+ * queued buffers.  The playlist is always loaded read-only, so that decoding never modifies the user's playlist.
+ *
+ * Usage: OfflineDecoder [options] recording.wav center_frequency_hz
+ *
+ *   --playlist path    playlist to load, read-only (default: current playlist)
+ *   --channel name     channel to decode, can be repeated (default: all channels within the recording bandwidth)
+ *   --offset seconds   start decoding at the time offset from the start of the recording
+ *   --record-audio     record channel audio per the user's audio recording preferences
+ *   --real-time        replay at real time instead of free-running
+ */
+public class OfflineDecoder
+{
+    private final static Logger mLog = LoggerFactory.getLogger(OfflineDecoder.class);
+    private static final long DRAIN_TIMEOUT_MS = 60000;
+    private static final long DRAIN_SETTLE_MS = 250;
+    private static final long DRAIN_POLL_MS = 10;
+
+    private File mRecording;
+    private long mCenterFrequency;
+    private Path mPlaylist;
+    private List<String> mChannelNames = new ArrayList<>();
+    private boolean mRecordAudio;
+    private boolean mRealTime;
+    private long mStartOffset;
+    private AtomicLong mDecodeEventCount = new AtomicLong();
+
+    /**
+     * Constructs an instance
+     * @param recording file containing 16-bit complex I/Q samples
+     * @param centerFrequency of the recording in hertz
+     */
+    public OfflineDecoder(File recording, long centerFrequency)
+    {
+        mRecording = recording;
+        mCenterFrequency = centerFrequency;
+    }
+
+    /**
+     * Sets the playlist to load (read-only) instead of the current playlist
+     */
+    public void setPlaylist(Path playlist)
+    {
+        mPlaylist = playlist;
+    }
+
+    /**
+     * Adds a channel name to decode.  When no channel names are specified, all channels within the recording
+     * bandwidth are decoded.
+     */
+    public void addChannelName(String channelName)
+    {
+        mChannelNames.add(channelName);
+    }
+
+    /**
+     * Enables audio recording per the user's audio recording preferences
+     */
+    public void setRecordAudio(boolean recordAudio)
+    {
+        mRecordAudio = recordAudio;
+    }
+
+    /**
+     * Replays the recording at real time instead of free-running
+     */
+    public void setRealTime(boolean realTime)
+    {
+        mRealTime = realTime;
+    }
+
+    /**
+     * Sets the time offset from the start of the recording where decoding starts
+     * @param milliseconds offset
+     */
+    public void setStartOffset(long milliseconds)
+    {
+        mStartOffset = milliseconds;
+    }
+
+    /**
+     * Decodes the recording, blocking until the end of the recording is reached.
+     * @return number of decode events produced
+     */
+    public long decode() throws IOException, InterruptedException
+    {
+        UserPreferences userPreferences = new UserPreferences();
+        AudioSegment.setAudioSegmentStorage(userPreferences.getRecordPreference().getAudioSegmentStorage());
+
+        //The tuner manager is not started so that USB tuners are not discovered or claimed
+        TunerManager tunerManager = new TunerManager(userPreferences);
+
+        RecordingTunerConfiguration config = new RecordingTunerConfiguration("Offline " + mRecording.getName());
+        config.setPath(mRecording.getAbsolutePath());
+        config.setFrequency(mCenterFrequency);
+        config.setFreeRunning(!mRealTime);
+
+        DiscoveredRecordingTuner discoveredTuner = new DiscoveredRecordingTuner(userPreferences, config);
+        discoveredTuner.setEnabled(true);
+
+        if(!discoveredTuner.hasTuner() || discoveredTuner.hasErrorMessage())
+        {
+            throw new IOException("Unable to start recording tuner - " + discoveredTuner.getErrorMessage());
+        }
+
+        tunerManager.getDiscoveredTunerModel().addDiscoveredTuner(discoveredTuner);
+
+        RecordingTuner tuner = (RecordingTuner)discoveredTuner.getTuner();
+        CountDownLatch complete = new CountDownLatch(1);
+        //The tuner is already playing, so the controller applies the listener to the running recording.  Real-time
+        //playback stops at the end of the recording instead of looping once the listener is registered.
+        tuner.getTunerController().setPlaybackCompleteListener(complete::countDown);
+
+        if(mStartOffset > 0)
+        {
+            tuner.getTunerController().seekToTime(mStartOffset);
+        }
+
+        AliasModel aliasModel = new AliasModel();
+        EventLogManager eventLogManager = new EventLogManager(aliasModel, userPreferences);
+        PlaylistManager playlistManager = new PlaylistManager(userPreferences, tunerManager, aliasModel,
+            eventLogManager, new IconModel());
+
+        //Load read-only so that playlist updates never schedule a save over the user's playlist
+        playlistManager.loadReadOnly(mPlaylist != null ? mPlaylist :
+            userPreferences.getPlaylistPreference().getPlaylist());
+
+        playlistManager.getChannelProcessingManager().addDecodeEventListener(this::log);
+
+        AudioRecordingManager audioRecordingManager = null;
+
+        if(mRecordAudio)
+        {
+            audioRecordingManager = new AudioRecordingManager(userPreferences);
+            audioRecordingManager.start();
+            playlistManager.getChannelProcessingManager().addAudioSegmentListener(audioRecordingManager);
+        }
+
+        List<Channel> channels = getChannels(playlistManager, tuner.getTunerController().getCurrentSampleRate());
+
+        if(channels.isEmpty())
+        {
+            discoveredTuner.setEnabled(false);
+            throw new IOException("No playlist channels to decode within the recording bandwidth");
+        }
+
+        int started = 0;
+
+        for(Channel channel: channels)
+        {
+            try
+            {
+                playlistManager.getChannelProcessingManager().start(channel);
+                mLog.info("Decoding channel [" + channel.getName() + "]");
+                started++;
+            }
+            catch(ChannelException ce)
+            {
+                mLog.error("Unable to start channel [" + channel.getName() + "] - " + ce.getMessage());
+            }
+        }
+
+        long start = System.currentTimeMillis();
+
+        if(started > 0)
+        {
+            complete.await();
+            awaitDrained(tuner);
+        }
+
+        long elapsed = System.currentTimeMillis() - start;
+
+        playlistManager.getChannelProcessingManager().shutdown();
+        discoveredTuner.setEnabled(false);
+
+        if(audioRecordingManager != null)
+        {
+            audioRecordingManager.stop();
+        }
+
+        eventLogManager.stop();
+
+        mLog.info("Decoding complete - channels [" + started + "] decode events [" + mDecodeEventCount.get() +
+            "] elapsed [" + elapsed + "] ms");
+
+        return mDecodeEventCount.get();
+    }
+
+    /**
+     * Waits for the channelizer and channel processing stages to process the buffers that were still queued when the
+     * end of the recording was reached.  The backlog must remain empty for a settle period so that the final buffer
+     * that each stage dequeued is also fully processed.
+     * @param tuner providing the downstream processing backlog
+     */
+    private void awaitDrained(RecordingTuner tuner) throws InterruptedException
+    {
+        long deadline = System.currentTimeMillis() + DRAIN_TIMEOUT_MS;
+        long idleStart = 0;
+
+        while(System.currentTimeMillis() < deadline)
+        {
+            long now = System.currentTimeMillis();
+
+            if(tuner.getBacklog() > 0)
+            {
+                idleStart = 0;
+            }
+            else if(idleStart == 0)
+            {
+                idleStart = now;
+            }
+            else if(now - idleStart >= DRAIN_SETTLE_MS)
+            {
+                return;
+            }
+
+            Thread.sleep(DRAIN_POLL_MS);
+        }
+
+        mLog.warn("Timeout waiting for queued buffers to be processed - backlog [" + tuner.getBacklog() + "]");
+    }
+
+    /**
+     * Identifies the standard (non-traffic) playlist channels to decode, either by name, or all channels within the
+     * recording bandwidth when no names were specified.
+     */
+    private List<Channel> getChannels(PlaylistManager playlistManager, double sampleRate)
+    {
+        List<Channel> channels = new ArrayList<>();
+
+        if(mChannelNames.isEmpty())
+        {
+            long halfBandwidth = (long)(sampleRate / 2.0);
+
+            for(Channel channel: playlistManager.getChannelModel()
+                .getChannelsInFrequencyRange(mCenterFrequency - halfBandwidth, mCenterFrequency + halfBandwidth))
+            {
+                if(channel.getChannelType() == Channel.ChannelType.STANDARD)
+                {
+                    channels.add(channel);
+                }
+            }
+        }
+        else
+        {
+            for(String channelName: mChannelNames)
+            {
+                boolean found = false;
+
+                for(Channel channel: playlistManager.getChannelModel().getChannels())
+                {
+                    if(channelName.equals(channel.getName()) && channel.getChannelType() == Channel.ChannelType.STANDARD)
+                    {
+                        channels.add(channel);
+                        found = true;
+                    }
+                }
+
+                if(!found)
+                {
+                    mLog.warn("Channel [" + channelName + "] not found in playlist");
+                }
+            }
+        }
+
+        return channels;
+    }
+
+    /**
+     * Logs the decode event to the console
+     */
+    private void log(IDecodeEvent event)
+    {
+        mDecodeEventCount.incrementAndGet();
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(TimeStamp.getFormattedDate(event.getTimeStart())).append(" ");
+        sb.append(TimeStamp.getFormattedTimeWithMilliseconds(event.getTimeStart()));
+        sb.append(" ").append(event.getProtocol());
+        sb.append(" ").append(event.getEventType());
+        sb.append(" ").append(event.getIdentifierCollection());
+
+        if(event.getDetails() != null)
+        {
+            sb.append(" ").append(event.getDetails());
+        }
+
+        System.out.println(sb);
+    }
+
+    private static void usage()
+    {
+        System.out.println("Usage: OfflineDecoder [options] recording.wav center_frequency_hz");
+        System.out.println("  --playlist path    playlist to load, read-only (default: current playlist)");
+        System.out.println("  --channel name     channel to decode, can be repeated (default: all channels within " +
+            "the recording bandwidth)");
+        System.out.println("  --offset seconds   start decoding at the time offset from the start of the recording");
+        System.out.println("  --record-audio     record channel audio per the audio recording preferences");
+        System.out.println("  --real-time        replay at real time instead of free-running");
+    }
+
+    public static void main(String[] args)
+    {
+        System.setProperty("java.awt.headless", "true");
+
+        List<String> positional = new ArrayList<>();
+        Path playlist = null;
+        List<String> channelNames = new ArrayList<>();
+        boolean recordAudio = false;
+        boolean realTime = false;
+        String startOffset = null;
+
+        for(int x = 0; x < args.length; x++)
+        {
+            switch(args[x])
+            {
+                case "--playlist":
+                    if(++x < args.length)
+                    {
+                        playlist = Path.of(args[x]);
+                    }
+                    break;
+                case "--channel":
+                    if(++x < args.length)
+                    {
+                        channelNames.add(args[x]);
+                    }
+                    break;
+                case "--offset":
+                    if(++x < args.length)
+                    {
+                        startOffset = args[x];
+                    }
+                    break;
+                case "--record-audio":
+                    recordAudio = true;
+                    break;
+                case "--real-time":
+                    realTime = true;
+                    break;
+                default:
+                    positional.add(args[x]);
+                    break;
+            }
+        }
+
+        if(positional.size() != 2)
+        {
+            usage();
+            System.exit(1);
+        }
+
+        int status = 0;
+
+        try
+        {
+            OfflineDecoder decoder = new OfflineDecoder(new File(positional.get(0)), Long.parseLong(positional.get(1)));
+            decoder.setPlaylist(playlist);
+            channelNames.forEach(decoder::addChannelName);
+            decoder.setRecordAudio(recordAudio);
+            decoder.setRealTime(realTime);
+
+            if(startOffset != null)
+            {
+                decoder.setStartOffset((long)(Double.parseDouble(startOffset) * 1000.0));
+            }
+
+            decoder.decode();
+        }
+        catch(NumberFormatException nfe)
+        {
+            mLog.error("Invalid numeric argument - " + nfe.getMessage());
+            status = 1;
+        }
+        catch(Exception e)
+        {
+            mLog.error("Error decoding recording", e);
+            status = 1;
+        }
+
+        //Shared thread pools are not daemon threads
+        System.exit(status);
+    }
+}
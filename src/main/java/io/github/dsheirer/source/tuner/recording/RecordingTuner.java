@@ -47,6 +47,23 @@ public class RecordingTuner extends Tuner
         super(new RecordingTunerController(tunerErrorListener, config.getPath(), config.getFrequency()), tunerErrorListener);
 
         mUserPreferences = userPreferences;
+        getTunerController().setFreeRunning(config.isFreeRunning());
+        getTunerController().setBacklogMonitor(this::getBacklog);
+    }
+
+    /**
+     * Downstream processing backlog used to apply back-pressure to free-running playback and to detect when the
+     * channel processing stages have processed all of the buffers from the recording.
+     * @return largest number of queued buffers across the channel processing stages, or -1 if there are no consumers
+     */
+    public int getBacklog()
+    {
+        if(!getTunerController().hasBufferListeners() || getChannelSourceManager() == null)
+        {
+            return -1;
+        }
+
+        return getChannelSourceManager().getBacklog();
     }
 
     @Override
@@ -33,6 +33,7 @@ public class RecordingTunerConfiguration extends TunerConfiguration
 {
     private static final Logger mLog = LoggerFactory.getLogger(RecordingTunerConfiguration.class);
     private String mPath;
+    private boolean mFreeRunning;
 
     /**
      * Jackson constructor
@@ -68,6 +69,21 @@ public class RecordingTunerConfiguration extends TunerConfiguration
         mPath = path;
     }
 
+    /**
+     * Indicates if the recording is played back free-running (as fast as the channels can process the samples)
+     * instead of at real time.
+     */
+    @JacksonXmlProperty(isAttribute = true, localName = "free_running")
+    public boolean isFreeRunning()
+    {
+        return mFreeRunning;
+    }
+
+    public void setFreeRunning(boolean freeRunning)
+    {
+        mFreeRunning = freeRunning;
+    }
+
     public static RecordingTunerConfiguration create()
     {
         return new RecordingTunerConfiguration("Recording " + System.currentTimeMillis());
@@ -26,6 +26,7 @@ import io.github.dsheirer.source.tuner.TunerType;
 import io.github.dsheirer.source.wave.ComplexWaveSource;
 import java.io.File;
 import java.io.IOException;
+import java.util.function.IntSupplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -40,10 +41,13 @@ public class RecordingTunerController extends TunerController
 
     public static final int DC_NOISE_BANDWIDTH = 0;
     public static final double USABLE_BANDWIDTH_PERCENTAGE = 1.00;
-    private ComplexWaveSource mComplexWaveSource;
+    private volatile ComplexWaveSource mComplexWaveSource;
     private String mPath;
     private long mCenterFrequency;
     private boolean mRunning;
+    private boolean mFreeRunning;
+    private IntSupplier mBacklogMonitor = () -> hasBufferListeners() ? 0 : -1;
+    private volatile Runnable mPlaybackCompleteListener;
 
     /**
      * Constructs an instance
@@ -65,6 +69,67 @@ public class RecordingTunerController extends TunerController
         setUsableBandwidthPercentage(USABLE_BANDWIDTH_PERCENTAGE);
     }
 
+    /**
+     * Enables free-running playback, where the recording is played back as fast as the downstream channels can
+     * process the samples, using the backlog monitor to apply back-pressure, and playback stops at the end of the
+     * recording.  Must be set before the controller is started.
+     * @param freeRunning true for faster than real time playback
+     */
+    public void setFreeRunning(boolean freeRunning)
+    {
+        mFreeRunning = freeRunning;
+    }
+
+    /**
+     * Indicates if this controller is configured for free-running playback
+     */
+    public boolean isFreeRunning()
+    {
+        return mFreeRunning;
+    }
+
+    /**
+     * Sets the monitor that provides the downstream processing backlog for free-running playback.  The default
+     * monitor only pauses playback while there are no buffer listeners registered.
+     * @param backlogMonitor that provides the number of buffers awaiting processing, or -1 when there are no consumers
+     */
+    public void setBacklogMonitor(IntSupplier backlogMonitor)
+    {
+        mBacklogMonitor = backlogMonitor;
+    }
+
+    /**
+     * Sets a listener to be notified when playback reaches the end of the recording.  Real-time playback stops at the
+     * end of the recording instead of looping while a listener is registered.  The listener is applied to the
+     * recording immediately when the controller is already started.
+     */
+    public void setPlaybackCompleteListener(Runnable listener)
+    {
+        mPlaybackCompleteListener = listener;
+
+        ComplexWaveSource complexWaveSource = mComplexWaveSource;
+
+        if(complexWaveSource != null)
+        {
+            complexWaveSource.setPlaybackCompleteListener(listener);
+        }
+    }
+
+    /**
+     * Moves the playback position to the time offset from the start of the recording.
+     * @param milliseconds offset from the start of the recording
+     * @throws IOException if the recording is not loaded
+     */
+    public void seekToTime(long milliseconds) throws IOException
+    {
+        if(mComplexWaveSource == null)
+        {
+            throw new IOException("Recording is not loaded");
+        }
+
+        mComplexWaveSource.seekToTime(milliseconds);
+    }
+
     @Override
     public void start() throws SourceException
     {
@@ -82,6 +147,9 @@ public class RecordingTunerController extends TunerController
             }
 
             mComplexWaveSource.setListener(complexSamples -> broadcast(complexSamples));
+            mComplexWaveSource.setFreeRunning(mFreeRunning);
+            mComplexWaveSource.setBacklogMonitor(mBacklogMonitor);
+            mComplexWaveSource.setPlaybackCompleteListener(mPlaybackCompleteListener);
 
             try
             {
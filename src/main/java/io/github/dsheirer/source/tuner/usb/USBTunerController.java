@@ -20,6 +20,7 @@ package io.github.dsheirer.source.tuner.usb;
 
 import io.github.dsheirer.buffer.INativeBuffer;
 import io.github.dsheirer.buffer.INativeBufferFactory;
+import io.github.dsheirer.buffer.NativeBufferRing;
 import io.github.dsheirer.sample.Listener;
 import io.github.dsheirer.source.SourceException;
 import io.github.dsheirer.source.tuner.ITunerErrorListener;
@@ -55,6 +56,7 @@ public abstract class USBTunerController extends TunerController
     private static final int USB_BULK_TRANSFER_BUFFER_POOL_SIZE = 8;
     private static final byte USB_BULK_TRANSFER_ENDPOINT = (byte) 0x81;
     private static final long USB_BULK_TRANSFER_TIMEOUT_MS = 2000l;
+    private static final int USB_BUFFER_RING_SIZE = 128;
 
     private int mBus;
     private String mPortAddress;
@@ -66,6 +68,7 @@ public abstract class USBTunerController extends TunerController
     private UsbEventProcessor mEventProcessor = new UsbEventProcessor();
     private AtomicBoolean mStreaming = new AtomicBoolean();
     private ReentrantLock mListenerLock = new ReentrantLock();
+    private NativeBufferRing mBufferRing = new NativeBufferRing("usb tuner", USB_BUFFER_RING_SIZE);
     private boolean mRunning = false;
 
     //Troubleshooting libusb bug: https://github.com/DSheirer/sdrtrunk/issues/1253
@@ -268,6 +271,7 @@ public abstract class USBTunerController extends TunerController
     {
         mRunning = false;
         stopStreaming();
+        mBufferRing.clear();
         mNativeBufferBroadcaster.clear();
         deviceStop();
 
@@ -332,6 +336,13 @@ public abstract class USBTunerController extends TunerController
 
             //Perform final event processing iteration so LibUsb returns all of our cancelled tranfers
             mEventProcessor.handleFinalEvents();
+
+            if(getNativeBufferFactory().getBufferPool() != null)
+            {
+                mLog.info(getTunerType() + " stopped streaming - " + getNativeBufferFactory().getBufferPool());
+            }
+
+            mLog.info(getTunerType() + " stopped streaming - " + mBufferRing);
         }
     }
 
@@ -438,6 +449,8 @@ public abstract class USBTunerController extends TunerController
 
     /**
      * Adds the IQ buffer listener and automatically starts stream buffer transfer processing, if not already started.
+     * Each listener has its own cursor in the hand-off ring and receives buffers from a drain task on the shared
+     * dispatcher pool, so a slow listener only affects itself.
      */
     @Override
     public void addBufferListener(Listener<INativeBuffer> listener)
@@ -450,7 +463,7 @@ public abstract class USBTunerController extends TunerController
             {
                 boolean hasExistingListeners = hasBufferListeners();
 
-                super.addBufferListener(listener);
+                mBufferRing.addListener(listener);
 
                 if(!hasExistingListeners)
                 {
@@ -464,6 +477,15 @@ public abstract class USBTunerController extends TunerController
         }
     }
 
+    /**
+     * Indicates if there are any buffer listeners registered with the hand-off ring.
+     */
+    @Override
+    public boolean hasBufferListeners()
+    {
+        return mBufferRing.hasListeners();
+    }
+
     /**
      * Removes the IQ buffer listener and stops stream buffer transfer processing if there are no more listeners.
      */
@@ -474,7 +496,7 @@ public abstract class USBTunerController extends TunerController
 
         try
         {
-            super.removeBufferListener(listener);
+            mBufferRing.removeListener(listener);
 
             if(!hasBufferListeners())
             {
@@ -651,7 +673,7 @@ public abstract class USBTunerController extends TunerController
 
         /**
          * Makes a copy of the transfer's native memory byte array payload so that the transfer can be reused.
-         * Dispatches the native buffer to registered listeners.
+         * Publishes the native buffer to the hand-off ring for delivery to registered listeners.
          * @param transfer to copy and dispatch
          */
         private void dispatchTransfer(Transfer transfer)
@@ -659,7 +681,18 @@ public abstract class USBTunerController extends TunerController
             //Pass the transfer's byte buffer so the native buffer factory can make a copy of the byte array contents
             //and package it as a native buffer.
             INativeBuffer nativeBuffer = getNativeBufferFactory().getBuffer(transfer.buffer(), System.currentTimeMillis());
-            mNativeBufferBroadcaster.broadcast(nativeBuffer);
+
+            try
+            {
+                //Hand-off to the buffer ring so that listener processing never delays transfer resubmission
+                mBufferRing.publish(nativeBuffer);
+            }
+            finally
+            {
+                //Release the producer's reference - pooled buffers are recycled once the ring and all listeners
+                //release them
+                nativeBuffer.release();
+            }
         }
     }
 
@@ -18,9 +18,9 @@
  */
 package io.github.dsheirer.source.wave;
 
-import io.github.dsheirer.buffer.FloatNativeBuffer;
 import io.github.dsheirer.buffer.INativeBuffer;
-import io.github.dsheirer.sample.ConversionUtils;
+import io.github.dsheirer.record.baseband.CompactBasebandFormat;
+import io.github.dsheirer.record.baseband.CompactBasebandReader;
 import io.github.dsheirer.sample.Listener;
 import io.github.dsheirer.sample.SampleType;
 import io.github.dsheirer.source.IControllableFileSource;
@@ -32,29 +32,46 @@ import org.apache.commons.math3.util.FastMath;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import javax.sound.sampled.AudioFormat;
-import javax.sound.sampled.AudioInputStream;
-import javax.sound.sampled.AudioSystem;
 import javax.sound.sampled.UnsupportedAudioFileException;
 import java.io.File;
 import java.io.IOException;
-import java.util.Arrays;
-import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
-
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntSupplier;
+
+/**
+ * Complex (I/Q) sample file source for wave files with 2 channels of 8-bit or 16-bit samples and for compact baseband
+ * recordings.  Wave files are memory-mapped and each buffer wraps the mapped sample bytes (see MappedIQFile).
+ * Compact baseband recordings are decompressed one chunk per buffer (see CompactBasebandReader).  The playback
+ * position can be moved to any frame or time offset.
+ *
+ * Supports manual stepping through the file, real-time playback paced by a scheduled timer, and free-running
+ * playback that reads and broadcasts buffers as fast as the downstream consumers can process them.  Free-running
+ * playback applies back-pressure by pausing while the downstream backlog exceeds the maximum backlog, or while there
+ * are no consumers registered, and stops at the end of the file.  Real-time playback loops at the end of the file,
+ * unless a playback complete listener is registered, in which case it stops at the end of the file.
+ */
 public class ComplexWaveSource extends Source implements IControllableFileSource, AutoCloseable
 {
     private final static Logger mLog = LoggerFactory.getLogger(ComplexWaveSource.class);
+    public static final int DEFAULT_MAXIMUM_BACKLOG = 16;
+    private static final long BACKLOG_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
 
     private IFrameLocationListener mFrameLocationListener;
-    private int mBytesPerFrame;
-    private int mFrameCounter = 0;
     private long mFrequency = 0;
     private Listener<INativeBuffer> mListener;
-    private AudioInputStream mInputStream;
+    private IRecordingReader mIQFile;
     private File mFile;
     private boolean mAutoReplay;
-    private ScheduledFuture<?> mReplayController;
+    private boolean mFreeRunning;
+    private IntSupplier mBacklogMonitor;
+    private int mMaximumBacklog = DEFAULT_MAXIMUM_BACKLOG;
+    private volatile Runnable mPlaybackCompleteListener;
+    private volatile boolean mPlaying;
+    private long mPlaybackStartTimestamp;
+    private long mFramesPlayed;
+    private volatile Future<?> mReplayController;
 
     /**
      * Constructs an instance with optional auto-replay at near real time.
@@ -82,6 +99,64 @@ public class ComplexWaveSource extends Source implements IControllableFileSource
         this(file, false);
     }
 
+    /**
+     * Enables free-running playback.  When enabled, start() reads and broadcasts buffers as fast as the downstream
+     * consumers can process them instead of pacing playback at real time, and playback stops at the end of the file.
+     * Buffer timestamps advance with the sample position in the recording rather than the wall clock.
+     * @param freeRunning true for faster than real time playback
+     */
+    public void setFreeRunning(boolean freeRunning)
+    {
+        mFreeRunning = freeRunning;
+    }
+
+    /**
+     * Indicates if this source is configured for free-running (faster than real time) playback.
+     */
+    public boolean isFreeRunning()
+    {
+        return mFreeRunning;
+    }
+
+    /**
+     * Sets the monitor that provides the current downstream processing backlog, used to apply back-pressure during
+     * free-running playback.  A negative backlog value indicates that there are no downstream consumers and playback
+     * pauses until consumers are registered.
+     * @param backlogMonitor that provides the number of buffers awaiting processing downstream
+     */
+    public void setBacklogMonitor(IntSupplier backlogMonitor)
+    {
+        mBacklogMonitor = backlogMonitor;
+    }
+
+    /**
+     * Sets the maximum downstream backlog.  Free-running playback pauses while the backlog exceeds this value.
+     * @param maximumBacklog buffer count
+     */
+    public void setMaximumBacklog(int maximumBacklog)
+    {
+        mMaximumBacklog = maximumBacklog;
+    }
+
+    /**
+     * Sets a listener to be notified when playback reaches the end of the file, or stops because of a read error.
+     * Real-time playback stops at the end of the file instead of looping while a listener is registered.  This can be
+     * set while playback is running.
+     * @param listener to notify, or null
+     */
+    public void setPlaybackCompleteListener(Runnable listener)
+    {
+        mPlaybackCompleteListener = listener;
+    }
+
+    /**
+     * Number of sample frames played since playback was started.
+     */
+    public long getFramesPlayed()
+    {
+        return mFramesPlayed;
+    }
+
     @Override public SampleType getSampleType()
     {
         return SampleType.COMPLEX;
@@ -110,7 +185,6 @@ public class ComplexWaveSource extends Source implements IControllableFileSource
     public void reset()
     {
         stop();
-        mFrameCounter = 0;
         start();
     }
 
@@ -125,7 +199,7 @@ public class ComplexWaveSource extends Source implements IControllableFileSource
     @Override
     public void start()
     {
-        if(mInputStream == null)
+        if(mIQFile == null)
         {
             try
             {
@@ -137,7 +211,14 @@ public class ComplexWaveSource extends Source implements IControllableFileSource
             }
         }
 
-        if(mAutoReplay)
+        if(mFreeRunning)
+        {
+            mPlaying = true;
+            mPlaybackStartTimestamp = System.currentTimeMillis();
+            mFramesPlayed = 0;
+            mReplayController = ThreadPool.CACHED.submit(new FreeRunningReplayController());
+        }
+        else if(mAutoReplay)
         {
             long intervalMilliseconds = 50; //20 intervals per second
             double framesPerInterval = getSampleRate() / 20.0d;
@@ -153,9 +234,12 @@ public class ComplexWaveSource extends Source implements IControllableFileSource
     {
         try
         {
+            mPlaying = false;
+
             if(mReplayController != null)
             {
-                mReplayController.cancel(true);
+                mReplayController.cancel(!mFreeRunning);
+                mReplayController = null;
             }
 
             close();
@@ -169,20 +253,75 @@ public class ComplexWaveSource extends Source implements IControllableFileSource
     @Override
     public long getFrameCount() throws IOException
     {
+        if(mIQFile != null)
+        {
+            return mIQFile.getFrameCount();
+        }
+
         return 0;
     }
 
     @Override
     public double getSampleRate()
     {
-        if(mInputStream != null)
+        if(mIQFile != null)
         {
-            return mInputStream.getFormat().getSampleRate();
+            return mIQFile.getSampleRate();
         }
 
         return 0;
     }
 
+    /**
+     * Current playback position as a frame index
+     */
+    public long getFramePosition()
+    {
+        if(mIQFile != null)
+        {
+            return mIQFile.getFramePosition();
+        }
+
+        return 0;
+    }
+
+    @Override
+    public boolean isSeekable()
+    {
+        return true;
+    }
+
+    /**
+     * Moves the playback position to the frame index.
+     * @param frame index, constrained to the length of the file
+     */
+    @Override
+    public synchronized void seek(long frame) throws IOException
+    {
+        if(mIQFile == null)
+        {
+            throw new IOException("File is not open");
+        }
+
+        mIQFile.seek(frame);
+        broadcast(mIQFile.getFramePosition());
+    }
+
+    /**
+     * Moves the playback position to the time offset from the start of the recording.
+     * @param milliseconds offset from the start of the recording
+     */
+    public synchronized void seekToTime(long milliseconds) throws IOException
+    {
+        if(mIQFile == null)
+        {
+            throw new IOException("File is not open");
+        }
+
+        mIQFile.seekToTime(milliseconds);
+        broadcast(mIQFile.getFramePosition());
+    }
+
     /**
      * Returns the frequency set for this file.  Normally returns zero, but
      * the value can be set with setFrequency() method.
@@ -203,34 +342,29 @@ public class ComplexWaveSource extends Source implements IControllableFileSource
     /**
      * Closes the source file
      */
-    public void close() throws IOException
+    public synchronized void close() throws IOException
     {
-        if(mInputStream != null)
+        if(mIQFile != null)
         {
-            mInputStream.close();
-            mInputStream = null;
+            mIQFile.close();
+            mIQFile = null;
         }
     }
 
     /**
      * Opens the source file for reading
      */
-    public void open() throws IOException, UnsupportedAudioFileException
+    public synchronized void open() throws IOException, UnsupportedAudioFileException
     {
-        if(mInputStream == null)
+        if(mIQFile == null)
         {
-            mInputStream = AudioSystem.getAudioInputStream(mFile);
-
-            AudioFormat format = mInputStream.getFormat();
-
-            mBytesPerFrame = format.getFrameSize();
-
-            if(format.getChannels() != 2 || format.getSampleSizeInBits() != 16)
+            if(CompactBasebandFormat.isCompactBaseband(mFile.toPath()))
+            {
+                mIQFile = new CompactBasebandReader(mFile.toPath());
+            }
+            else
             {
-                throw new IOException("Unsupported Wave Format - EXPECTED: 2 " +
-                        "channels 16-bit samples FOUND: " +
-                        mInputStream.getFormat().getChannels() + " channels " +
-                        mInputStream.getFormat().getSampleSizeInBits() + "-bit samples");
+                mIQFile = MappedIQFile.openWave(mFile.toPath());
             }
 
             /* Broadcast that we're at frame location 0 */
@@ -238,6 +372,27 @@ public class ComplexWaveSource extends Source implements IControllableFileSource
         }
     }
 
+    /**
+     * Indicates if the file is open and the playback position is at the end of the file.
+     */
+    private synchronized boolean isEndOfFile()
+    {
+        return mIQFile != null && mIQFile.getFramesRemaining() <= 0;
+    }
+
+    /**
+     * Notifies the playback complete listener, if registered.
+     */
+    private void playbackComplete()
+    {
+        Runnable listener = mPlaybackCompleteListener;
+
+        if(listener != null)
+        {
+            listener.run();
+        }
+    }
+
     /**
      * Reads the number of frames and sends a buffer to the listener
      */
@@ -250,34 +405,34 @@ public class ComplexWaveSource extends Source implements IControllableFileSource
     /**
      * Reads the number of frames and optionally sends the buffer(s) to the listener
      */
-    public void next(int frames, boolean broadcast) throws IOException
+    public synchronized void next(int frames, boolean broadcast) throws IOException
     {
-        if(mInputStream != null)
+        if(mIQFile != null)
         {
-            byte[] buffer = new byte[mBytesPerFrame * frames];
-
-        	/* Fill the buffer with samples from the file */
-            int samplesRead = mInputStream.read(buffer);
+            if(mIQFile.getFramesRemaining() <= 0)
+            {
+                throw new IOException("End of file reached");
+            }
 
-            mFrameCounter += samplesRead;
+            long timestamp = System.currentTimeMillis();
 
-            broadcast(mFrameCounter);
+            if(mFreeRunning)
+            {
+                timestamp = mPlaybackStartTimestamp + mIQFile.getTimeOffset();
+            }
 
             if(broadcast && mListener != null)
             {
-                if(samplesRead < 0)
-                {
-                    throw new IOException("End of file reached");
-                }
-
-                if(samplesRead < buffer.length)
-                {
-                    buffer = Arrays.copyOf(buffer, samplesRead);
-                }
-
-                float[] samples = ConversionUtils.convertFromSigned16BitSamples(buffer);
-                mListener.receive(new FloatNativeBuffer(samples, System.currentTimeMillis()));
+                INativeBuffer buffer = mIQFile.read(frames, timestamp);
+                mFramesPlayed += buffer.sampleCount();
+                mListener.receive(buffer);
+            }
+            else
+            {
+                mIQFile.skip(frames);
             }
+
+            broadcast(mIQFile.getFramePosition());
         }
     }
 
@@ -304,13 +459,11 @@ public class ComplexWaveSource extends Source implements IControllableFileSource
         return mFile;
     }
 
-    private void broadcast(int byteLocation)
+    private void broadcast(long frameLocation)
     {
-        int frameLocation = (int)(byteLocation / mBytesPerFrame);
-
         if(mFrameLocationListener != null)
         {
-            mFrameLocationListener.frameLocationUpdated(frameLocation);
+            mFrameLocationListener.frameLocationUpdated((int)Math.min(frameLocation, Integer.MAX_VALUE));
         }
     }
 
@@ -331,21 +484,8 @@ public class ComplexWaveSource extends Source implements IControllableFileSource
      */
     public static boolean supports(File file)
     {
-        try(AudioInputStream ais = AudioSystem.getAudioInputStream(file))
-        {
-            AudioFormat format = ais.getFormat();
-
-            if(format.getChannels() == 2 && format.getSampleSizeInBits() == 16)
-            {
-                return true;
-            }
-        }
-        catch(Exception e)
-        {
-            //Do nothing, we'll return a default of false
-        }
-
-        return false;
+        return file != null && (MappedIQFile.isSupportedWave(file.toPath()) ||
+            CompactBasebandFormat.isCompactBaseband(file.toPath()));
     }
 
     public class ReplayController implements Runnable
@@ -353,6 +493,7 @@ public class ComplexWaveSource extends Source implements IControllableFileSource
         private double mFramesPerInterval;
         private int mFramesRead;
         private int mIntervals;
+        private boolean mComplete;
 
         public ReplayController(double framesPerInterval)
         {
@@ -362,19 +503,147 @@ public class ComplexWaveSource extends Source implements IControllableFileSource
         @Override
         public void run()
         {
+            if(mComplete)
+            {
+                return;
+            }
+
             mIntervals++;
             int framesToRead = (int) FastMath.floor((mIntervals * mFramesPerInterval) - mFramesRead);
 
+            //Recordings that are read in fixed size chunks can deliver more frames than requested, so we skip
+            //intervals until the playback time catches up with the frames that were delivered
+            if(framesToRead <= 0)
+            {
+                return;
+            }
+
+            if(isEndOfFile())
+            {
+                if(mPlaybackCompleteListener != null)
+                {
+                    mLog.info("End of recording - real-time playback complete [" + mFile.getName() + "]");
+                    complete();
+                }
+                else
+                {
+                    mLog.debug("End of Recording - looping");
+                    reset();
+                }
+
+                return;
+            }
+
             try
             {
+                long position = getFramePosition();
                 next(framesToRead, true);
-                mFramesRead += framesToRead;
+                mFramesRead += (int)(getFramePosition() - position);
             }
             catch(IOException ioe)
             {
-                mLog.debug("End of Recording - looping [" + ioe.getLocalizedMessage() + "]");
-                reset();
+                mLog.error("Error during real-time playback of [" + mFile.getName() + "] - stopping", ioe);
+                complete();
             }
         }
+
+        /**
+         * Cancels this scheduled replay controller and notifies the playback complete listener.  The file is left
+         * open so that it can be closed by the owner of this source.
+         */
+        private void complete()
+        {
+            mComplete = true;
+
+            Future<?> replayController = mReplayController;
+
+            if(replayController != null)
+            {
+                replayController.cancel(false);
+            }
+
+            playbackComplete();
+        }
+    }
+
+    /**
+     * Free-running playback controller.  Reads and broadcasts buffers as fast as downstream consumers can process
+     * them, pausing while the downstream backlog exceeds the maximum backlog.  Stops at the end of the file, or on a
+     * read error, and notifies the playback complete listener.
+     */
+    public class FreeRunningReplayController implements Runnable
+    {
+        @Override
+        public void run()
+        {
+            int framesPerBuffer = getBufferSampleCount();
+            boolean complete = false;
+
+            try
+            {
+                while(mPlaying && !complete)
+                {
+                    if(isBacklogged())
+                    {
+                        LockSupport.parkNanos(BACKLOG_PARK_NANOS);
+                    }
+                    else
+                    {
+                        synchronized(ComplexWaveSource.this)
+                        {
+                            if(mPlaying && mIQFile != null)
+                            {
+                                if(mIQFile.getFramesRemaining() <= 0)
+                                {
+                                    complete = true;
+                                    mLog.info("End of recording - free-running playback complete [" +
+                                        mFile.getName() + "] - played [" + mFramesPlayed + "] frames in [" +
+                                        (System.currentTimeMillis() - mPlaybackStartTimestamp) + "] ms");
+                                }
+                                else
+                                {
+                                    next(framesPerBuffer, true);
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+            catch(Throwable t)
+            {
+                complete = true;
+                mLog.error("Error during free-running playback of [" + mFile.getName() + "] - played [" +
+                    mFramesPlayed + "] frames", t);
+            }
+
+            mPlaying = false;
+
+            if(complete)
+            {
+                playbackComplete();
+            }
+        }
+
+        /**
+         * Indicates if playback should pause because there are no downstream consumers or the downstream backlog is
+         * above the maximum.
+         */
+        private boolean isBacklogged()
+        {
+            if(mListener == null)
+            {
+                return true;
+            }
+
+            IntSupplier backlogMonitor = mBacklogMonitor;
+
+            if(backlogMonitor != null)
+            {
+                int backlog = backlogMonitor.getAsInt();
+                return backlog < 0 || backlog > mMaximumBacklog;
+            }
+
+            return false;
+        }
     }
 }
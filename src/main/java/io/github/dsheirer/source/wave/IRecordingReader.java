@@ -0,0 +1,101 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.source.wave;
+
+import io.github.dsheirer.buffer.INativeBuffer;
+
+import java.io.IOException;
+
+/**
+ * Reader for a complex (I/Q) sample recording file that supports positioning by sample frame or by time offset.
+ */
+public interface IRecordingReader extends AutoCloseable
+{
+    /**
+     * Sample rate of the recording
+     */
+    double getSampleRate();
+
+    /**
+     * Total number of complex sample frames in the recording
+     */
+    long getFrameCount();
+
+    /**
+     * Current position as a frame index, where the next read starts.
+     */
+    long getFramePosition();
+
+    /**
+     * Number of frames remaining from the current position to the end of the recording
+     */
+    default long getFramesRemaining()
+    {
+        return getFrameCount() - getFramePosition();
+    }
+
+    /**
+     * Duration of the recording in milliseconds
+     */
+    long getDuration();
+
+    /**
+     * Current position as a time offset from the start of the recording in milliseconds
+     */
+    long getTimeOffset();
+
+    /**
+     * Sets the current position to the specified frame index, or to the nearest preceding position that the
+     * recording can be read from.
+     * @param frame index, constrained to the range of the recording
+     */
+    void seek(long frame);
+
+    /**
+     * Sets the current position to the specified time offset from the start of the recording, or to the nearest
+     * preceding position that the recording can be read from.
+     * @param milliseconds time offset, constrained to the duration of the recording
+     */
+    void seekToTime(long milliseconds);
+
+    /**
+     * Advances the current position by (at least) the number of frames without reading the samples.
+     * @param frames to skip
+     */
+    void skip(int frames);
+
+    /**
+     * Reads the next buffer of samples from the current position and advances the position.  The buffer contains up
+     * to the requested number of frames, unless the recording is stored in fixed size blocks, in which case the
+     * buffer contains the next block.
+     * @param frames requested
+     * @param timestamp to assign to the buffer
+     * @return native buffer
+     * @throws java.io.EOFException if the current position is at the end of the recording
+     * @throws IOException if there is an error reading the recording
+     */
+    INativeBuffer read(int frames, long timestamp) throws IOException;
+
+    /**
+     * Closes the recording
+     */
+    @Override
+    void close() throws IOException;
+}
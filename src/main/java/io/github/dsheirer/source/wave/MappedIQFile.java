@@ -0,0 +1,388 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.source.wave;
+
+import io.github.dsheirer.buffer.IQSampleFormat;
+import io.github.dsheirer.buffer.MappedNativeBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Memory-mapped reader for complex (I/Q) sample recordings, either wave files with 2 channels of 8-bit or 16-bit
+ * samples, or headerless raw files with a specified sample format and sample rate.
+ *
+ * The file is mapped in windows and each read produces a native buffer that wraps a slice of the current window,
+ * so the sample bytes are never copied on the reading thread.  The reader supports random positioning by sample
+ * frame or by time offset from the start of the recording.
+ *
+ * This class is not thread safe.
+ */
+public class MappedIQFile implements IRecordingReader
+{
+    private final static Logger mLog = LoggerFactory.getLogger(MappedIQFile.class);
+
+    /**
+     * Size of each mapped region of the file.  Reads that extend past the end of the current region remap the file
+     * starting at the current position.
+     */
+    public static final long MAP_WINDOW_SIZE = 64 * 1024 * 1024;
+    private static final int WAVE_FORMAT_PCM = 1;
+    private static final int WAVE_FORMAT_EXTENSIBLE = 0xFFFE;
+
+    private Path mPath;
+    private FileChannel mFileChannel;
+    private IQSampleFormat mSampleFormat;
+    private double mSampleRate;
+    private long mDataOffset;
+    private long mFrameCount;
+    private long mFramePosition;
+    private MappedByteBuffer mWindow;
+    private long mWindowOffset;
+
+    /**
+     * Constructs an instance.  Use the static openWave() or openRaw() methods to create an instance.
+     */
+    private MappedIQFile(Path path, FileChannel fileChannel, IQSampleFormat sampleFormat, double sampleRate,
+                         long dataOffset, long dataLength)
+    {
+        mPath = path;
+        mFileChannel = fileChannel;
+        mSampleFormat = sampleFormat;
+        mSampleRate = sampleRate;
+        mDataOffset = dataOffset;
+        mFrameCount = dataLength / sampleFormat.getBytesPerFrame();
+    }
+
+    /**
+     * Opens a wave file containing 2 channels (I/Q) of 8-bit unsigned or 16-bit signed samples.
+     * @param path to the wave file
+     * @return opened reader
+     * @throws IOException if the file cannot be read or is not a supported wave file
+     */
+    public static MappedIQFile openWave(Path path) throws IOException
+    {
+        FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ);
+
+        try
+        {
+            long fileSize = fileChannel.size();
+            ByteBuffer header = ByteBuffer.allocate(12).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(fileChannel, header, 0);
+
+            if(header.getInt(0) != fourCC("RIFF") || header.getInt(8) != fourCC("WAVE"))
+            {
+                throw new IOException("Not a RIFF/WAVE file");
+            }
+
+            IQSampleFormat sampleFormat = null;
+            double sampleRate = 0;
+            long offset = 12;
+            ByteBuffer chunkHeader = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+
+            while(offset + 8 <= fileSize)
+            {
+                chunkHeader.clear();
+                readFully(fileChannel, chunkHeader, offset);
+                int chunkId = chunkHeader.getInt(0);
+                long chunkSize = Integer.toUnsignedLong(chunkHeader.getInt(4));
+                long chunkStart = offset + 8;
+
+                if(chunkId == fourCC("fmt "))
+                {
+                    ByteBuffer format = ByteBuffer.allocate(16).order(ByteOrder.LITTLE_ENDIAN);
+                    readFully(fileChannel, format, chunkStart);
+                    int formatTag = Short.toUnsignedInt(format.getShort(0));
+                    int channels = Short.toUnsignedInt(format.getShort(2));
+                    sampleRate = Integer.toUnsignedLong(format.getInt(4));
+                    int bitsPerSample = Short.toUnsignedInt(format.getShort(14));
+
+                    if(formatTag != WAVE_FORMAT_PCM && formatTag != WAVE_FORMAT_EXTENSIBLE)
+                    {
+                        throw new IOException("Unsupported wave format tag [" + formatTag + "]");
+                    }
+
+                    if(channels != 2 || (bitsPerSample != 8 && bitsPerSample != 16))
+                    {
+                        throw new IOException("Unsupported Wave Format - EXPECTED: 2 channels 8 or 16-bit samples " +
+                            "FOUND: " + channels + " channels " + bitsPerSample + "-bit samples");
+                    }
+
+                    //Per the wave specification, 8-bit samples are unsigned and 16-bit samples are signed
+                    sampleFormat = bitsPerSample == 8 ? IQSampleFormat.UNSIGNED_8_BIT : IQSampleFormat.SIGNED_16_BIT;
+                }
+                else if(chunkId == fourCC("data"))
+                {
+                    if(sampleFormat == null)
+                    {
+                        throw new IOException("Wave file data chunk precedes the format chunk");
+                    }
+
+                    //Recordings larger than 4 GB overflow the 32-bit chunk size - use the remainder of the file
+                    long dataLength = fileSize - chunkStart;
+
+                    if(chunkSize > 0 && chunkSize != 0xFFFFFFFFL && chunkSize < dataLength)
+                    {
+                        dataLength = chunkSize;
+                    }
+
+                    return new MappedIQFile(path, fileChannel, sampleFormat, sampleRate, chunkStart, dataLength);
+                }
+
+                //Chunks are padded to an even byte boundary
+                offset = chunkStart + chunkSize + (chunkSize & 1);
+            }
+
+            throw new IOException("Wave file does not contain a data chunk");
+        }
+        catch(IOException ioe)
+        {
+            fileChannel.close();
+            throw ioe;
+        }
+    }
+
+    /**
+     * Opens a headerless raw file of interleaved I/Q samples.
+     * @param path to the raw file
+     * @param sampleFormat of the samples
+     * @param sampleRate of the samples
+     * @return opened reader
+     * @throws IOException if the file cannot be read
+     */
+    public static MappedIQFile openRaw(Path path, IQSampleFormat sampleFormat, double sampleRate) throws IOException
+    {
+        if(sampleRate <= 0)
+        {
+            throw new IllegalArgumentException("Sample rate must be a positive value");
+        }
+
+        FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ);
+        return new MappedIQFile(path, fileChannel, sampleFormat, sampleRate, 0, fileChannel.size());
+    }
+
+    /**
+     * Indicates if the file is a wave file that can be opened with openWave().
+     */
+    public static boolean isSupportedWave(Path path)
+    {
+        try
+        {
+            openWave(path).close();
+            return true;
+        }
+        catch(Exception e)
+        {
+            //Do nothing, we'll return false
+        }
+
+        return false;
+    }
+
+    /**
+     * Path for the file
+     */
+    public Path getPath()
+    {
+        return mPath;
+    }
+
+    /**
+     * Sample format of the file
+     */
+    public IQSampleFormat getSampleFormat()
+    {
+        return mSampleFormat;
+    }
+
+    /**
+     * Sample rate of the file
+     */
+    @Override
+    public double getSampleRate()
+    {
+        return mSampleRate;
+    }
+
+    /**
+     * Total number of complex sample frames in the file
+     */
+    @Override
+    public long getFrameCount()
+    {
+        return mFrameCount;
+    }
+
+    /**
+     * Current position as a frame index, where the next read starts.
+     */
+    @Override
+    public long getFramePosition()
+    {
+        return mFramePosition;
+    }
+
+    /**
+     * Number of frames remaining from the current position to the end of the file
+     */
+    @Override
+    public long getFramesRemaining()
+    {
+        return mFrameCount - mFramePosition;
+    }
+
+    /**
+     * Duration of the recording in milliseconds
+     */
+    @Override
+    public long getDuration()
+    {
+        return (long)(mFrameCount * 1000.0 / mSampleRate);
+    }
+
+    /**
+     * Current position as a time offset from the start of the recording in milliseconds
+     */
+    @Override
+    public long getTimeOffset()
+    {
+        return (long)(mFramePosition * 1000.0 / mSampleRate);
+    }
+
+    /**
+     * Sets the current position to the specified frame index
+     * @param frame index, constrained to the range of the file
+     */
+    @Override
+    public void seek(long frame)
+    {
+        mFramePosition = Math.max(0, Math.min(frame, mFrameCount));
+    }
+
+    /**
+     * Sets the current position to the specified time offset from the start of the recording.
+     * @param milliseconds time offset, constrained to the duration of the file
+     */
+    @Override
+    public void seekToTime(long milliseconds)
+    {
+        seek((long)(milliseconds * mSampleRate / 1000.0));
+    }
+
+    @Override
+    public void skip(int frames)
+    {
+        seek(mFramePosition + frames);
+    }
+
+    /**
+     * Reads up to the requested number of frames from the current position and advances the position.
+     * @param frames to read
+     * @param timestamp to assign to the buffer
+     * @return native buffer that wraps the mapped sample bytes, containing fewer frames than requested when the end
+     * of the file is reached
+     * @throws EOFException if the current position is at the end of the file
+     * @throws IOException if the file cannot be mapped
+     */
+    @Override
+    public MappedNativeBuffer read(int frames, long timestamp) throws IOException
+    {
+        if(mFileChannel == null)
+        {
+            throw new IOException("File is closed");
+        }
+
+        int framesToRead = (int)Math.min(frames, getFramesRemaining());
+
+        if(framesToRead <= 0)
+        {
+            throw new EOFException("End of file reached");
+        }
+
+        int length = framesToRead * mSampleFormat.getBytesPerFrame();
+        long offset = mDataOffset + (mFramePosition * mSampleFormat.getBytesPerFrame());
+
+        if(mWindow == null || offset < mWindowOffset || (offset + length) > (mWindowOffset + mWindow.capacity()))
+        {
+            long dataEnd = mDataOffset + (mFrameCount * mSampleFormat.getBytesPerFrame());
+            long windowSize = Math.min(Math.max(MAP_WINDOW_SIZE, length), dataEnd - offset);
+            mWindow = mFileChannel.map(FileChannel.MapMode.READ_ONLY, offset, windowSize);
+            mWindowOffset = offset;
+        }
+
+        ByteBuffer slice = mWindow.slice((int)(offset - mWindowOffset), length);
+        mFramePosition += framesToRead;
+        return new MappedNativeBuffer(slice, mSampleFormat, timestamp);
+    }
+
+    /**
+     * Closes the file.  Buffers that were previously read remain valid until they are garbage collected.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        mWindow = null;
+
+        if(mFileChannel != null)
+        {
+            mFileChannel.close();
+            mFileChannel = null;
+        }
+    }
+
+    /**
+     * Reads bytes from the channel at the offset until the buffer is full.
+     */
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long offset) throws IOException
+    {
+        while(buffer.hasRemaining())
+        {
+            int read = channel.read(buffer, offset + buffer.position());
+
+            if(read < 0)
+            {
+                throw new EOFException("Unexpected end of file while reading header");
+            }
+        }
+    }
+
+    /**
+     * Little-endian integer value of a four character code
+     */
+    private static int fourCC(String code)
+    {
+        return (code.charAt(0)) | (code.charAt(1) << 8) | (code.charAt(2) << 16) | (code.charAt(3) << 24);
+    }
+
+    @Override
+    public String toString()
+    {
+        return "Mapped I/Q File [" + mPath + "] format [" + mSampleFormat + "] sample rate [" + mSampleRate +
+            "] frames [" + mFrameCount + "]";
+    }
+}
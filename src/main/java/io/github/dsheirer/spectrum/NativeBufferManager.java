@@ -42,10 +42,17 @@ import java.util.concurrent.LinkedTransferQueue;
  * is updated on the consumer side with each request.  This class is designed for the get() operation to consistently
  * request the same size buffer, with occasional changes.
  *
+ * Queued buffers are retained until they are consumed or cleared, so that pooled native buffers are not recycled
+ * while they are held by this manager.  The add(), get() and clear() methods are invoked from different threads (buffer
+ * distribution, DFT processing and the GUI) and the queues are guarded by a single lock, so that each queued buffer is
+ * released exactly once.  Buffers that satisfy a get() request are detached from the queues while holding the lock and
+ * are then copied and released without holding the lock.
+ *
  * @param <T> native buffer
  */
 public class NativeBufferManager<T extends INativeBuffer>
 {
+    private final Object mLock = new Object();
     private LinkedTransferQueue<T> mTransferQueue = new LinkedTransferQueue<>();
     private List<T> mProducerQueue = new ArrayList<>();
     private List<T> mConsumerQueue = new ArrayList<>();
@@ -66,19 +73,23 @@ public class NativeBufferManager<T extends INativeBuffer>
      */
     public void add(T nativeBuffer)
     {
-        //If we have enough produced buffers and the transfer queue is empty ... move them to the queue
-        if(mProducerAvailable >= mRequestSize && mTransferQueue.isEmpty())
+        synchronized(mLock)
         {
-            mTransferQueue.addAll(mProducerQueue);
-            mProducerQueue.clear();
-            mProducerAvailable = 0;
-        }
+            //If we have enough produced buffers and the transfer queue is empty ... move them to the queue
+            if(mProducerAvailable >= mRequestSize && mTransferQueue.isEmpty())
+            {
+                mTransferQueue.addAll(mProducerQueue);
+                mProducerQueue.clear();
+                mProducerAvailable = 0;
+            }
 
-        //Add this buffer to the producer queue if it's needed to meet the anticipated request size
-        if(mProducerAvailable < mRequestSize)
-        {
-            mProducerQueue.add(nativeBuffer);
-            mProducerAvailable += nativeBuffer.sampleCount();
+            //Add this buffer to the producer queue if it's needed to meet the anticipated request size
+            if(mProducerAvailable < mRequestSize)
+            {
+                nativeBuffer.retain();
+                mProducerQueue.add(nativeBuffer);
+                mProducerAvailable += nativeBuffer.sampleCount();
+            }
         }
     }
 
@@ -87,9 +98,29 @@ public class NativeBufferManager<T extends INativeBuffer>
      */
     public void clear()
     {
-        mTransferQueue.clear();
-        mProducerQueue.clear();
-        mConsumerQueue.clear();
+        synchronized(mLock)
+        {
+            List<T> drained = new ArrayList<>();
+            mTransferQueue.drainTo(drained);
+            release(drained);
+            release(mProducerQueue);
+            release(mConsumerQueue);
+            mProducerAvailable = 0;
+        }
+    }
+
+    /**
+     * Releases and removes each of the buffers in the list.
+     * @param buffers to release
+     */
+    private void release(List<T> buffers)
+    {
+        for(T buffer: buffers)
+        {
+            buffer.release();
+        }
+
+        buffers.clear();
     }
 
     /**
@@ -101,32 +132,39 @@ public class NativeBufferManager<T extends INativeBuffer>
      */
     public float[] get(int requestedSamples) throws IOException
     {
-        //Update the producer's sample quota if it changes
-        if(requestedSamples != mRequestSize)
+        List<T> consumed;
+
+        synchronized(mLock)
         {
-            mRequestSize = requestedSamples;
-        }
+            //Update the producer's sample quota if it changes
+            if(requestedSamples != mRequestSize)
+            {
+                mRequestSize = requestedSamples;
+            }
 
-        List<T> drained = new ArrayList<>();
-        mTransferQueue.drainTo(drained);
-        mConsumerQueue.addAll(drained);
+            mTransferQueue.drainTo(mConsumerQueue);
 
-        int count = 0;
+            int count = 0;
 
-        for(T buffer: mConsumerQueue)
-        {
-            count += buffer.sampleCount();
-        }
+            for(T buffer: mConsumerQueue)
+            {
+                count += buffer.sampleCount();
+            }
 
-        if(count < requestedSamples)
-        {
-            throw new IOException("Insufficient samples.  Please try again later");
+            if(count < requestedSamples)
+            {
+                throw new IOException("Insufficient samples.  Please try again later");
+            }
+
+            //Detach the buffers so that a concurrent clear() doesn't release them while they are being copied
+            consumed = new ArrayList<>(mConsumerQueue);
+            mConsumerQueue.clear();
         }
 
         float[] samples = new float[requestedSamples * 2];
         int samplesPointer = 0;
 
-        for(T buffer: mConsumerQueue)
+        for(T buffer: consumed)
         {
             Iterator<InterleavedComplexSamples> iterator = buffer.iteratorInterleaved();
 
@@ -144,7 +182,7 @@ public class NativeBufferManager<T extends INativeBuffer>
             }
         }
 
-        mConsumerQueue.clear();
+        release(consumed);
         return samples;
     }
 }
@@ -0,0 +1,223 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.util;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded, lock-free, multi-producer multi-consumer array queue.
+ *
+ * Each slot carries a sequence number that indicates whether the slot is ready to be written by a producer or read
+ * by a consumer for the current lap around the array (D. Vyukov's bounded MPMC queue).  Producers and consumers only
+ * contend on a single compare-and-set of the enqueue or dequeue position and no nodes are allocated per element.
+ *
+ * The capacity is rounded up to the next power of two.  Iterators are weakly consistent snapshots of the queued
+ * elements and don't support removal.
+ *
+ * @param <E> element type
+ */
+public class BoundedLockFreeQueue<E> extends AbstractQueue<E>
+{
+    private final AtomicReferenceArray<E> mElements;
+    private final AtomicLongArray mSequences;
+    private final int mMask;
+    private final AtomicLong mEnqueuePosition = new AtomicLong();
+    private final AtomicLong mDequeuePosition = new AtomicLong();
+
+    /**
+     * Constructs an instance
+     * @param capacity of the queue, rounded up to the next power of two
+     */
+    public BoundedLockFreeQueue(int capacity)
+    {
+        if(capacity < 1 || capacity > (1 << 30))
+        {
+            throw new IllegalArgumentException("Capacity [" + capacity + "] must be in range 1 - 2^30");
+        }
+
+        int size = Integer.highestOneBit(capacity);
+
+        if(size < capacity)
+        {
+            size <<= 1;
+        }
+
+        mElements = new AtomicReferenceArray<>(size);
+        mSequences = new AtomicLongArray(size);
+        mMask = size - 1;
+
+        for(int x = 0; x < size; x++)
+        {
+            mSequences.set(x, x);
+        }
+    }
+
+    /**
+     * Capacity of this queue
+     */
+    public int capacity()
+    {
+        return mMask + 1;
+    }
+
+    @Override
+    public boolean offer(E element)
+    {
+        if(element == null)
+        {
+            throw new NullPointerException("Element cannot be null");
+        }
+
+        long position = mEnqueuePosition.get();
+        int index;
+
+        while(true)
+        {
+            index = (int)(position & mMask);
+            long difference = mSequences.get(index) - position;
+
+            if(difference == 0)
+            {
+                if(mEnqueuePosition.compareAndSet(position, position + 1))
+                {
+                    break;
+                }
+
+                position = mEnqueuePosition.get();
+            }
+            else if(difference < 0)
+            {
+                //Queue is full
+                return false;
+            }
+            else
+            {
+                position = mEnqueuePosition.get();
+            }
+        }
+
+        mElements.lazySet(index, element);
+        mSequences.set(index, position + 1);
+        return true;
+    }
+
+    @Override
+    public E poll()
+    {
+        long position = mDequeuePosition.get();
+        int index;
+
+        while(true)
+        {
+            index = (int)(position & mMask);
+            long difference = mSequences.get(index) - (position + 1);
+
+            if(difference == 0)
+            {
+                if(mDequeuePosition.compareAndSet(position, position + 1))
+                {
+                    break;
+                }
+
+                position = mDequeuePosition.get();
+            }
+            else if(difference < 0)
+            {
+                //Queue is empty
+                return null;
+            }
+            else
+            {
+                position = mDequeuePosition.get();
+            }
+        }
+
+        E element = mElements.get(index);
+        mElements.lazySet(index, null);
+        mSequences.set(index, position + mMask + 1);
+        return element;
+    }
+
+    @Override
+    public E peek()
+    {
+        long position = mDequeuePosition.get();
+        int index = (int)(position & mMask);
+
+        if(mSequences.get(index) == position + 1)
+        {
+            return mElements.get(index);
+        }
+
+        return null;
+    }
+
+    @Override
+    public int size()
+    {
+        long size = mEnqueuePosition.get() - mDequeuePosition.get();
+        return (int)Math.max(0, Math.min(size, capacity()));
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        return mEnqueuePosition.get() == mDequeuePosition.get();
+    }
+
+    /**
+     * Weakly consistent iterator over a snapshot of the elements queued at the time of the call, in queue order.
+     * Elements that are concurrently dequeued while the snapshot is taken are omitted and elements enqueued after
+     * the call are not included.  The iterator does not support removal.
+     */
+    @Override
+    public Iterator<E> iterator()
+    {
+        long dequeuePosition = mDequeuePosition.get();
+        long enqueuePosition = mEnqueuePosition.get();
+        List<E> snapshot = new ArrayList<>((int)Math.max(0, Math.min(enqueuePosition - dequeuePosition, capacity())));
+
+        for(long position = dequeuePosition; position < enqueuePosition; position++)
+        {
+            int index = (int)(position & mMask);
+
+            //The slot is occupied by this position's element only while its sequence is position + 1.  Recheck the
+            //sequence after the read in case a consumer dequeued the element (and a producer refilled the slot).
+            if(mSequences.get(index) == position + 1)
+            {
+                E element = mElements.get(index);
+
+                if(element != null && mSequences.get(index) == position + 1)
+                {
+                    snapshot.add(element);
+                }
+            }
+        }
+
+        return Collections.unmodifiableList(snapshot).iterator();
+    }
+}
@@ -22,25 +22,91 @@ import io.github.dsheirer.sample.Listener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * Threaded processor for receiving elements from a separate producer thread and forwarding those buffers to a
  * registered listener on this consumer/dispatcher thread.
+ *
+ * The execution backend is pluggable (see DispatcherBackend).  By default, each dispatcher creates a dedicated
+ * maximum priority platform thread.  The shared executor backend schedules a drain task on a (shared) executor whenever
+ * elements are queued.  Only one drain task is scheduled at a time, so elements are always delivered to the listener
+ * serially and in order, while many dispatchers can share a small, bounded set of worker threads.
+ *
+ * The queue implementation is also selectable (see DispatcherQueueType): a linked blocking queue (default) or a
+ * bounded lock-free array queue.
+ *
+ * A batch listener can be registered instead of an element listener.  In batch mode, each wake-up drains all
+ * available elements (up to the max batch size) and delivers them to the batch listener as a single list.
+ *
+ * When the queue is full, the overflow policy (see DispatcherOverflowPolicy) determines whether the newest or the
+ * oldest element is dropped.  Dropped elements are counted and
+ * any element that is not delivered (overflow or shutdown) is passed to the optional discard listener so that the
+ * owner can release resources held by the element.
+ *
+ * Subclasses that dispatch reference counted elements can override the retain() and release() methods to claim a
+ * reference while an element is queued and release it once the listener has processed the element, or when the
+ * element is discarded due to queue overflow or shutdown (see NativeBufferDispatcher).
  */
 public class Dispatcher<E> implements Listener<E>
 {
     private final static Logger mLog = LoggerFactory.getLogger(Dispatcher.class);
     private static final long OVERFLOW_LOG_EVENT_WAIT_PERIOD = TimeUnit.SECONDS.toMillis(10);
-    private LinkedBlockingQueue<E> mQueue;
+    private static final long STOP_TIMEOUT_MS = 2000;
+
+    /**
+     * Maximum number of elements processed per drain task before yielding the worker thread to other dispatchers
+     */
+    private static final int DRAIN_BATCH_LIMIT = 8;
+
+    /**
+     * Maximum time a dedicated thread parks while waiting on an empty lock-free queue before re-checking
+     */
+    private static final long LOCK_FREE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    /**
+     * Time a stop request parks between attempts to enqueue the poison pill to a full queue
+     */
+    private static final long STOP_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    /**
+     * Default maximum number of elements delivered per batch to a batch listener
+     */
+    public static final int DEFAULT_MAX_BATCH_SIZE = 64;
+
+    private Queue<E> mQueue;
+    private DispatcherBackend mBackend = DispatcherBackend.PLATFORM_THREAD;
+    private volatile boolean mConsumerWaiting;
     private Listener<E> mListener;
+    private IBatchListener<E> mBatchListener;
+    private int mMaxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+    private List<E> mBatch = new ArrayList<>();
+    private Listener<E> mDiscardListener;
+    private DispatcherOverflowPolicy mOverflowPolicy = DispatcherOverflowPolicy.DROP_NEWEST;
+    private AtomicLong mDroppedCount = new AtomicLong();
+    private volatile long mBatchCount;
     private AtomicBoolean mRunning = new AtomicBoolean();
     private String mThreadName;
-    private Thread mThread;
+    private volatile Thread mThread;
     private E mPoisonPill;
     private long mLastOverflowLogEvent;
+    private Executor mExecutor;
+    private AtomicBoolean mDrainScheduled = new AtomicBoolean();
+    private volatile Thread mDrainThread;
+    private Runnable mDrainTask = new Drainer();
+    private volatile long mProcessedCount;
+    private volatile long mProcessingTime;
+    private volatile long mMaxProcessingTime;
 
     /**
      * Constructs an instance
@@ -59,6 +125,64 @@ public class Dispatcher<E> implements Listener<E>
         mPoisonPill = poisonPill;
     }
 
+    /**
+     * Constructs an instance with the specified execution backend and queue type.
+     * @param maxSize of the internal queue
+     * @param threadName to name the dispatcher thread
+     * @param poisonPill of type E, used to stop processing
+     * @param backend for executing the listener
+     * @param executor for the SHARED_EXECUTOR backend, ignored for the other backends
+     * @param queueType for the internal queue
+     */
+    public Dispatcher(int maxSize, String threadName, E poisonPill, DispatcherBackend backend, Executor executor,
+                      DispatcherQueueType queueType)
+    {
+        this(maxSize, threadName, poisonPill);
+
+        if(backend == DispatcherBackend.SHARED_EXECUTOR)
+        {
+            if(executor == null)
+            {
+                throw new IllegalArgumentException("Executor must be non-null for the shared executor backend");
+            }
+
+            mExecutor = executor;
+        }
+
+        mBackend = backend;
+
+        if(queueType == DispatcherQueueType.LOCK_FREE)
+        {
+            mQueue = new BoundedLockFreeQueue<>(maxSize);
+        }
+    }
+
+    /**
+     * Constructs an instance that processes queued elements on the executor instead of on a dedicated thread.
+     * @param maxSize of the internal queue
+     * @param threadName to identify this dispatcher
+     * @param poisonPill of type E, used to stop processing
+     * @param executor to run the serial drain task, or null to use a dedicated thread
+     */
+    public Dispatcher(int maxSize, String threadName, E poisonPill, Executor executor)
+    {
+        this(maxSize, threadName, poisonPill);
+
+        if(executor != null)
+        {
+            mExecutor = executor;
+            mBackend = DispatcherBackend.SHARED_EXECUTOR;
+        }
+    }
+
+    /**
+     * Execution backend for this dispatcher
+     */
+    public DispatcherBackend getBackend()
+    {
+        return mBackend;
+    }
+
     /**
      * Listener to receive the queued buffers each time this processor runs.
      */
@@ -77,9 +201,64 @@ public class Dispatcher<E> implements Listener<E>
     }
 
     /**
-     * Primary input method for adding buffers to this processor.  Note: incoming buffers will be ignored if this
-     * processor is in a stopped state.  You must invoke start() to allow incoming buffers and initiate buffer
-     * processing.
+     * Sets or changes the batch listener.  When a batch listener is registered, the dispatcher delivers all
+     * available queued elements (up to the max batch size) to the batch listener on each wake-up instead of
+     * delivering each element to the element listener.
+     * @param batchListener to receive batches, or null to revert to element delivery
+     * @param maxBatchSize maximum number of elements per batch
+     */
+    public void setBatchListener(IBatchListener<E> batchListener, int maxBatchSize)
+    {
+        if(maxBatchSize < 1)
+        {
+            throw new IllegalArgumentException("Max batch size must be a positive value");
+        }
+
+        mMaxBatchSize = maxBatchSize;
+        mBatchListener = batchListener;
+    }
+
+    /**
+     * Sets the batch listener with the default max batch size.
+     * @param batchListener to receive batches, or null to revert to element delivery
+     */
+    public void setBatchListener(IBatchListener<E> batchListener)
+    {
+        setBatchListener(batchListener, DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    /**
+     * Sets the optional listener to receive each element that is not delivered to the (batch) listener because it was
+     * dropped due to queue overflow, received while the dispatcher was stopped, or discarded when the dispatcher was
+     * stopped.  Elements received while stopped are never retained, so they are not released.
+     * @param discardListener to receive discarded elements
+     */
+    public void setDiscardListener(Listener<E> discardListener)
+    {
+        mDiscardListener = discardListener;
+    }
+
+    /**
+     * Sets the overflow policy applied when an element is received and the queue is full.
+     * @param policy to apply
+     */
+    public void setOverflowPolicy(DispatcherOverflowPolicy policy)
+    {
+        mOverflowPolicy = policy;
+    }
+
+    /**
+     * Current overflow policy
+     */
+    public DispatcherOverflowPolicy getOverflowPolicy()
+    {
+        return mOverflowPolicy;
+    }
+
+    /**
+     * Primary input method for adding buffers to this processor.  Note: incoming buffers are not queued if this
+     * processor is in a stopped state and are passed directly to the discard listener.  You must invoke start() to
+     * allow incoming buffers and initiate buffer processing.
      *
      * @param e to enqueue for distribution to a registered listener
      */
@@ -87,15 +266,168 @@ public class Dispatcher<E> implements Listener<E>
     {
         if(mRunning.get())
         {
-            if(!mQueue.offer(e))
+            retain(e);
+
+            if(enqueue(e))
+            {
+                signal();
+            }
+            else
             {
-                if(System.currentTimeMillis() > (mLastOverflowLogEvent + OVERFLOW_LOG_EVENT_WAIT_PERIOD))
+                drop(e);
+            }
+        }
+        else
+        {
+            notifyDiscardListener(e);
+        }
+    }
+
+    /**
+     * Enqueues the element, applying the overflow policy when the queue is full.
+     * @param element to enqueue
+     * @return true if the element was enqueued
+     */
+    private boolean enqueue(E element)
+    {
+        if(mQueue.offer(element))
+        {
+            return true;
+        }
+
+        if(mOverflowPolicy == DispatcherOverflowPolicy.DROP_OLDEST)
+        {
+            E oldest = mQueue.poll();
+
+            if(oldest != null)
+            {
+                if(mPoisonPill.equals(oldest))
                 {
-                    mLastOverflowLogEvent = System.currentTimeMillis();
-                    mLog.warn("Temporary buffer overflow for thread [" + mThreadName + "] - throwing away samples");
+                    //A stop request is at the head of the queue, so every queued element arrived after the stop
+                    //request.  Stop now, so that the consumer discards those elements instead of processing them,
+                    //and return the stop request to the queue to wake the consumer.
+                    mRunning.set(false);
+                    mQueue.offer(oldest);
+                    signal();
+                    return false;
                 }
+
+                drop(oldest);
+            }
+
+            return mQueue.offer(element);
+        }
+
+        return false;
+    }
+
+    /**
+     * Drops an element due to queue overflow.
+     * @param element that was dropped
+     */
+    private void drop(E element)
+    {
+        long dropped = mDroppedCount.incrementAndGet();
+        discard(element);
+
+        if(System.currentTimeMillis() > (mLastOverflowLogEvent + OVERFLOW_LOG_EVENT_WAIT_PERIOD))
+        {
+            mLastOverflowLogEvent = System.currentTimeMillis();
+            mLog.warn("Temporary buffer overflow for thread [" + mThreadName + "] - throwing away samples - policy [" +
+                mOverflowPolicy + "] total dropped [" + dropped + "]");
+        }
+    }
+
+    /**
+     * Discards an element that will not be delivered to the listener.
+     * @param element to discard
+     */
+    private void discard(E element)
+    {
+        release(element);
+        notifyDiscardListener(element);
+    }
+
+    /**
+     * Passes an element that will not be delivered to the listener to the optional discard listener.
+     * @param element that was discarded
+     */
+    private void notifyDiscardListener(E element)
+    {
+        Listener<E> discardListener = mDiscardListener;
+
+        if(discardListener != null)
+        {
+            try
+            {
+                discardListener.receive(element);
+            }
+            catch(Exception e)
+            {
+                mLog.error("Error while discarding element for [" + mThreadName + "]", e);
+            }
+        }
+    }
+
+    /**
+     * Notifies the processing backend that an element was queued.
+     */
+    private void signal()
+    {
+        if(mBackend == DispatcherBackend.SHARED_EXECUTOR)
+        {
+            scheduleDrain();
+        }
+        else if(mConsumerWaiting)
+        {
+            Thread thread = mThread;
+
+            if(thread != null)
+            {
+                LockSupport.unpark(thread);
+            }
+        }
+    }
+
+    /**
+     * Retrieves the next queued element, waiting if necessary until an element becomes available.
+     * @return next element or null if this dispatcher was stopped while waiting on a lock-free queue
+     */
+    private E take() throws InterruptedException
+    {
+        if(mQueue instanceof BlockingQueue<E> blockingQueue)
+        {
+            return blockingQueue.take();
+        }
+
+        E element = mQueue.poll();
+
+        while(element == null)
+        {
+            mConsumerWaiting = true;
+
+            //Recheck after flagging to avoid missing a signal from the producer
+            if(mQueue.isEmpty())
+            {
+                LockSupport.parkNanos(this, LOCK_FREE_PARK_NANOS);
             }
+
+            mConsumerWaiting = false;
+
+            if(Thread.interrupted())
+            {
+                throw new InterruptedException();
+            }
+
+            if(!mRunning.get())
+            {
+                return null;
+            }
+
+            element = mQueue.poll();
         }
+
+        return element;
     }
 
     /**
@@ -103,27 +435,45 @@ public class Dispatcher<E> implements Listener<E>
      */
     public void start()
     {
+        if(!mRunning.get())
+        {
+            //Clear any stale elements before accepting new elements
+            clearQueue();
+        }
+
         if(mRunning.compareAndSet(false, true))
         {
-            mThread = new Thread(new Processor());
-            mThread.setName(mThreadName);
-            mThread.setPriority(Thread.MAX_PRIORITY);
-            mThread.start();
+            //Shared executor drain tasks are scheduled as elements arrive
+            if(mBackend == DispatcherBackend.PLATFORM_THREAD)
+            {
+                mThread = new Thread(new Processor());
+                mThread.setName(mThreadName);
+                mThread.setPriority(Thread.MAX_PRIORITY);
+                mThread.start();
+            }
         }
     }
 
     /**
-     * Stops this buffer processor and waits up to two seconds for the processing thread to terminate.
+     * Stops this buffer processor and waits up to two seconds for the processing thread (or in-progress executor
+     * drain task) to terminate.
      */
     public void stop()
     {
         if(mRunning.compareAndSet(true, false))
         {
-            mQueue.offer(mPoisonPill);
+            if(mBackend == DispatcherBackend.SHARED_EXECUTOR)
+            {
+                awaitDrainComplete();
+                clearQueue();
+                return;
+            }
+
+            offerPoisonPill();
 
             try
             {
-                mThread.join(2000);
+                mThread.join(STOP_TIMEOUT_MS);
                 mThread = null;
             }
             catch(Exception e)
@@ -138,7 +488,31 @@ public class Dispatcher<E> implements Listener<E>
      */
     public void flushAndStop()
     {
-        mQueue.offer(mPoisonPill);
+        offerPoisonPill();
+    }
+
+    /**
+     * Enqueues the poison pill.  When the queue is full, retries while the consumer drains the queue, for up to the
+     * stop timeout, so that a stop request is not lost under back-pressure.
+     */
+    private void offerPoisonPill()
+    {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(STOP_TIMEOUT_MS);
+
+        while(!mQueue.offer(mPoisonPill))
+        {
+            signal();
+
+            if(System.nanoTime() > deadline)
+            {
+                mLog.warn("Unable to enqueue stop request for thread [" + mThreadName + "] - queue is full");
+                return;
+            }
+
+            LockSupport.parkNanos(STOP_PARK_NANOS);
+        }
+
+        signal();
     }
 
     /**
@@ -149,6 +523,297 @@ public class Dispatcher<E> implements Listener<E>
         return mRunning.get();
     }
 
+    /**
+     * Number of elements currently queued and awaiting processing
+     */
+    public int getQueueDepth()
+    {
+        return mQueue.size();
+    }
+
+    /**
+     * Total number of elements dropped due to queue overflow
+     */
+    public long getDroppedCount()
+    {
+        return mDroppedCount.get();
+    }
+
+    /**
+     * Total number of batches delivered to the batch listener
+     */
+    public long getBatchCount()
+    {
+        return mBatchCount;
+    }
+
+    /**
+     * Total number of elements processed by the listener
+     */
+    public long getProcessedCount()
+    {
+        return mProcessedCount;
+    }
+
+    /**
+     * Total time spent by the listener processing elements
+     * @return processing time in nanoseconds
+     */
+    public long getProcessingTime()
+    {
+        return mProcessingTime;
+    }
+
+    /**
+     * Average time spent by the listener processing each element
+     * @return average processing time in nanoseconds
+     */
+    public long getAverageProcessingTime()
+    {
+        long count = mProcessedCount;
+        return count > 0 ? mProcessingTime / count : 0;
+    }
+
+    /**
+     * Maximum time spent by the listener processing a single element
+     * @return maximum processing time in nanoseconds
+     */
+    public long getMaxProcessingTime()
+    {
+        return mMaxProcessingTime;
+    }
+
+    /**
+     * Delivers the element to the listener, records processing time metrics and releases the element.
+     *
+     * Note: elements are processed serially, by a single thread at a time, so the metrics fields are only
+     * updated by one thread at a time.
+     * @param element to process
+     */
+    private void process(E element)
+    {
+        long start = System.nanoTime();
+
+        try
+        {
+            if(mListener == null)
+            {
+                throw new IllegalStateException("Listener for [" + mThreadName + "] is null");
+            }
+
+            mListener.receive(element);
+        }
+        catch(Exception e)
+        {
+            mLog.error("Error while processing element", e);
+        }
+        finally
+        {
+            release(element);
+
+            long elapsed = System.nanoTime() - start;
+            mProcessingTime += elapsed;
+            mProcessedCount++;
+
+            if(elapsed > mMaxProcessingTime)
+            {
+                mMaxProcessingTime = elapsed;
+            }
+        }
+    }
+
+    /**
+     * Drains available queued elements, up to the max batch size, into a batch with the first element and delivers
+     * the batch to the batch listener.  Records processing time metrics and releases the elements.  If the poison
+     * pill is encountered, the batch is truncated and this dispatcher is stopped once the batch is delivered, so that
+     * isRunning() doesn't report stopped while the final batch is still being processed.
+     * @param first element of the batch
+     * @return number of elements in the batch
+     */
+    private int processBatch(E first)
+    {
+        List<E> batch = mBatch;
+        batch.add(first);
+
+        if(mMaxBatchSize > 1)
+        {
+            if(mQueue instanceof BlockingQueue<E> blockingQueue)
+            {
+                blockingQueue.drainTo(batch, mMaxBatchSize - 1);
+            }
+            else
+            {
+                E element;
+
+                while(batch.size() < mMaxBatchSize && (element = mQueue.poll()) != null)
+                {
+                    batch.add(element);
+                }
+            }
+        }
+
+        boolean stop = false;
+
+        for(int x = 1; x < batch.size(); x++)
+        {
+            if(mPoisonPill.equals(batch.get(x)))
+            {
+                stop = true;
+
+                for(int y = batch.size() - 1; y > x; y--)
+                {
+                    discard(batch.remove(y));
+                }
+
+                batch.remove(x);
+                break;
+            }
+        }
+
+        int size = batch.size();
+        long start = System.nanoTime();
+
+        try
+        {
+            IBatchListener<E> batchListener = mBatchListener;
+
+            if(batchListener == null)
+            {
+                throw new IllegalStateException("Batch listener for [" + mThreadName + "] is null");
+            }
+
+            batchListener.receive(batch);
+        }
+        catch(Exception e)
+        {
+            mLog.error("Error while processing batch", e);
+        }
+        finally
+        {
+            for(E element: batch)
+            {
+                release(element);
+            }
+
+            batch.clear();
+
+            long elapsed = System.nanoTime() - start;
+            mProcessingTime += elapsed;
+            mProcessedCount += size;
+            mBatchCount++;
+
+            if(elapsed > mMaxProcessingTime)
+            {
+                mMaxProcessingTime = elapsed;
+            }
+
+            if(stop)
+            {
+                mRunning.set(false);
+            }
+        }
+
+        return size;
+    }
+
+    /**
+     * Delivers the element to the batch listener when registered, otherwise to the element listener.
+     * @param element to dispatch
+     * @return number of elements delivered
+     */
+    private int dispatch(E element)
+    {
+        if(mBatchListener != null)
+        {
+            return processBatch(element);
+        }
+
+        process(element);
+        return 1;
+    }
+
+    /**
+     * Schedules the drain task on the executor, if it is not already scheduled.
+     */
+    private void scheduleDrain()
+    {
+        if(mDrainScheduled.compareAndSet(false, true))
+        {
+            try
+            {
+                mExecutor.execute(mDrainTask);
+            }
+            catch(RejectedExecutionException ree)
+            {
+                mDrainScheduled.set(false);
+                mLog.error("Executor rejected drain task for dispatcher [" + mThreadName + "]");
+            }
+        }
+    }
+
+    /**
+     * Waits up to two seconds for a scheduled or in-progress drain task to complete.  Does not wait when invoked
+     * from the drain task itself (ie the listener is stopping this dispatcher).
+     */
+    private void awaitDrainComplete()
+    {
+        long timeout = System.currentTimeMillis() + STOP_TIMEOUT_MS;
+
+        while(mDrainScheduled.get() && mDrainThread != Thread.currentThread() &&
+              System.currentTimeMillis() < timeout)
+        {
+            try
+            {
+                Thread.sleep(1);
+            }
+            catch(InterruptedException ie)
+            {
+                return;
+            }
+        }
+
+        if(mDrainScheduled.get() && mDrainThread != Thread.currentThread())
+        {
+            mLog.error("Timeout while waiting for dispatcher [" + mThreadName + "] drain task to complete");
+        }
+    }
+
+    /**
+     * Invoked when an element is received, before it is queued.  Subclasses can override this method to claim a
+     * reference to the element while it is queued.  Each retained element is passed to release() exactly once.
+     * @param element that was received
+     */
+    protected void retain(E element)
+    {
+    }
+
+    /**
+     * Invoked once a retained element has been processed by the listener or discarded.  Subclasses can override this
+     * method to release the reference claimed in retain().
+     * @param element that was processed or discarded
+     */
+    protected void release(E element)
+    {
+    }
+
+    /**
+     * Removes all queued elements and discards them.
+     */
+    private void clearQueue()
+    {
+        E element = mQueue.poll();
+
+        while(element != null)
+        {
+            if(!mPoisonPill.equals(element))
+            {
+                discard(element);
+            }
+
+            element = mQueue.poll();
+        }
+    }
+
     /**
      * Processor to service the buffer queue and distribute the buffers to the registered listener
      */
@@ -157,15 +822,13 @@ public class Dispatcher<E> implements Listener<E>
         @Override
         public void run()
         {
-            mQueue.clear();
-
             E element;
 
             while(mRunning.get())
             {
                 try
                 {
-                    element = mQueue.take();
+                    element = take();
 
                     if(mPoisonPill.equals(element))
                     {
@@ -173,24 +836,62 @@ public class Dispatcher<E> implements Listener<E>
                     }
                     else if(element != null)
                     {
-                        if(mListener == null)
-                        {
-                            throw new IllegalStateException("Listener for [" + mThreadName + "] is null");
-                        }
-                        mListener.receive(element);
+                        dispatch(element);
                     }
                 }
                 catch(InterruptedException e)
                 {
                     mLog.error("Buffer processor thread was interrupted");
                 }
-                catch(Exception e)
+            }
+
+            clearQueue();
+        }
+    }
+
+    /**
+     * Executor drain task that processes a limited batch of queued elements and then reschedules itself if more
+     * elements remain, so that dispatchers sharing an executor are serviced fairly.
+     */
+    class Drainer implements Runnable
+    {
+        @Override
+        public void run()
+        {
+            mDrainThread = Thread.currentThread();
+
+            try
+            {
+                int processed = 0;
+                int limit = mBatchListener != null ? mMaxBatchSize : DRAIN_BATCH_LIMIT;
+                E element;
+
+                while(mRunning.get() && processed < limit && (element = mQueue.poll()) != null)
                 {
-                    mLog.error("Error while processing element", e);
+                    if(mPoisonPill.equals(element))
+                    {
+                        mRunning.set(false);
+                    }
+                    else
+                    {
+                        processed += dispatch(element);
+                    }
                 }
             }
+            finally
+            {
+                mDrainThread = null;
+                mDrainScheduled.set(false);
+            }
 
-            mQueue.clear();
+            if(!mRunning.get())
+            {
+                clearQueue();
+            }
+            else if(!mQueue.isEmpty())
+            {
+                scheduleDrain();
+            }
         }
     }
 }
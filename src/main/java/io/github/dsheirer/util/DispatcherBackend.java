@@ -0,0 +1,48 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.util;
+
+/**
+ * Execution backend used by a dispatcher to deliver queued elements to its listener.
+ */
+public enum DispatcherBackend
+{
+    /**
+     * Dedicated maximum priority platform (OS) thread per dispatcher
+     */
+    PLATFORM_THREAD("Platform Thread"),
+
+    /**
+     * Serial per-dispatcher drain task executed on a shared, bounded executor
+     */
+    SHARED_EXECUTOR("Shared Executor");
+
+    private String mLabel;
+
+    DispatcherBackend(String label)
+    {
+        mLabel = label;
+    }
+
+    public String toString()
+    {
+        return mLabel;
+    }
+}
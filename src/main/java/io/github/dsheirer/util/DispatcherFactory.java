@@ -0,0 +1,111 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.util;
+
+import io.github.dsheirer.preference.UserPreferences;
+import io.github.dsheirer.preference.source.TunerPreference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Creates dispatchers configured with the execution backend and queue type from the user's tuner preferences, so that
+ * a large installation can avoid creating a maximum priority platform thread for every dispatcher.
+ */
+public class DispatcherFactory
+{
+    private final static Logger mLog = LoggerFactory.getLogger(DispatcherFactory.class);
+    private static volatile DispatcherBackend sBackend;
+    private static volatile DispatcherQueueType sQueueType;
+
+    private DispatcherFactory()
+    {
+    }
+
+    /**
+     * Lazily loads the dispatcher backend and queue type preferences.  The queue type is assigned last, so a
+     * non-null (volatile) queue type indicates that both values are loaded.
+     */
+    private static void load()
+    {
+        if(sQueueType == null)
+        {
+            synchronized(DispatcherFactory.class)
+            {
+                if(sQueueType == null)
+                {
+                    TunerPreference tunerPreference = new UserPreferences().getTunerPreference();
+                    sBackend = tunerPreference.getDispatcherBackend();
+                    sQueueType = tunerPreference.getDispatcherQueueType();
+                    mLog.info("Dispatcher backend [" + sBackend + "] queue type [" + sQueueType + "]");
+                }
+            }
+        }
+    }
+
+    /**
+     * Preferred execution backend for dispatchers
+     */
+    public static DispatcherBackend getBackend()
+    {
+        load();
+        return sBackend;
+    }
+
+    /**
+     * Preferred queue type for dispatchers
+     */
+    public static DispatcherQueueType getQueueType()
+    {
+        load();
+        return sQueueType;
+    }
+
+    /**
+     * Creates a dispatcher using the preferred backend and queue type.  The shared executor backend uses the
+     * application-wide dispatcher thread pool.
+     * @param maxSize of the dispatcher queue
+     * @param name for the dispatcher (thread)
+     * @param poisonPill to stop the dispatcher
+     * @param <E> element type
+     * @return dispatcher
+     */
+    public static <E> Dispatcher<E> create(int maxSize, String name, E poisonPill)
+    {
+        return create(maxSize, name, poisonPill, getBackend(), ThreadPool.DISPATCHER);
+    }
+
+    /**
+     * Creates a dispatcher with the specified backend and the preferred queue type.
+     * @param maxSize of the dispatcher queue
+     * @param name for the dispatcher (thread)
+     * @param poisonPill to stop the dispatcher
+     * @param backend to use
+     * @param executor for the shared executor backend
+     * @param <E> element type
+     * @return dispatcher
+     */
+    public static <E> Dispatcher<E> create(int maxSize, String name, E poisonPill, DispatcherBackend backend,
+                                           Executor executor)
+    {
+        return new Dispatcher<>(maxSize, name, poisonPill, backend, executor, getQueueType());
+    }
+}
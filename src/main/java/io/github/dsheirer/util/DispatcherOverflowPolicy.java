@@ -0,0 +1,36 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.util;
+
+/**
+ * Action taken by a dispatcher when an element is received and the dispatcher queue is full.
+ */
+public enum DispatcherOverflowPolicy
+{
+    /**
+     * Discard the newly received element (default)
+     */
+    DROP_NEWEST,
+
+    /**
+     * Discard the oldest queued element to make room for the newly received element
+     */
+    DROP_OLDEST;
+}
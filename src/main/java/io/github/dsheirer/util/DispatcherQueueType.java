@@ -0,0 +1,48 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.util;
+
+/**
+ * Queue implementation used by a dispatcher to hold elements between the producer and the listener.
+ */
+public enum DispatcherQueueType
+{
+    /**
+     * Linked blocking queue (lock-based, allocates a node per element)
+     */
+    BLOCKING("Blocking"),
+
+    /**
+     * Bounded lock-free array queue (pre-allocated, no per-element allocation)
+     */
+    LOCK_FREE("Lock-Free");
+
+    private String mLabel;
+
+    DispatcherQueueType(String label)
+    {
+        mLabel = label;
+    }
+
+    public String toString()
+    {
+        return mLabel;
+    }
+}
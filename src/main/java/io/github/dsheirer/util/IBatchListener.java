@@ -0,0 +1,37 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.util;
+
+import java.util.List;
+
+/**
+ * Listener that receives a batch of elements at once from a batching dispatcher.
+ *
+ * @param <E> element type
+ */
+public interface IBatchListener<E>
+{
+    /**
+     * Receives a batch of elements, in queue order.  The list is reused by the dispatcher, so implementations must
+     * not retain a reference to the list (or to pooled elements) after this method returns.
+     * @param batch of one or more elements
+     */
+    void receive(List<E> batch);
+}
@@ -34,6 +34,14 @@ public class ThreadPool
     public static ExecutorService CACHED =
             Executors.newCachedThreadPool(new NamingThreadFactory("sdrtrunk cached"));
 
+    /**
+     * Bounded, processor-count sized worker pool shared by all dispatchers (channel sources, channelizers and
+     * recorders) that are configured for the shared executor backend.  Threads are created on demand.
+     */
+    public static ExecutorService DISPATCHER =
+            Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()),
+                new NamingThreadFactory("sdrtrunk dispatcher"));
+
     /**
      * Application-wide shared thread pools and scheduled executor service.
      */
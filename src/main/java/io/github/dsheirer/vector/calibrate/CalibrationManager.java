@@ -27,6 +27,8 @@ import io.github.dsheirer.vector.calibrate.airspy.AirspyUnpackedInterleavedCalib
 import io.github.dsheirer.vector.calibrate.demodulator.FmDemodulatorCalibration;
 import io.github.dsheirer.vector.calibrate.demodulator.SquelchingFmDemodulatorCalibration;
 import io.github.dsheirer.vector.calibrate.filter.FirFilterCalibration;
+import io.github.dsheirer.vector.calibrate.filter.PolyphaseChannelizerFilterCalibration;
+import io.github.dsheirer.vector.calibrate.filter.PolyphaseSynthesizerCalibration;
 import io.github.dsheirer.vector.calibrate.filter.RealDcRemovalCalibration;
 import io.github.dsheirer.vector.calibrate.filter.RealHalfBand11TapFilterCalibration;
 import io.github.dsheirer.vector.calibrate.filter.RealHalfBand15TapFilterCalibration;
@@ -105,6 +107,8 @@ public class CalibrationManager
             sInstance.add(new ComplexMixerCalibration());
             sInstance.add(new FirFilterCalibration());
             sInstance.add(new FmDemodulatorCalibration());
+            sInstance.add(new PolyphaseChannelizerFilterCalibration());
+            sInstance.add(new PolyphaseSynthesizerCalibration());
             sInstance.add(new RealDcRemovalCalibration());
             sInstance.add(new RealHalfBand11TapFilterCalibration());
             sInstance.add(new RealHalfBand15TapFilterCalibration());
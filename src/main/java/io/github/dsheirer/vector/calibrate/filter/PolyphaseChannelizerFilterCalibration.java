@@ -0,0 +1,278 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.vector.calibrate.filter;
+
+import io.github.dsheirer.dsp.filter.channelizer.IPolyphaseChannelizerFilter;
+import io.github.dsheirer.dsp.filter.channelizer.ScalarPolyphaseChannelizerFilter;
+import io.github.dsheirer.dsp.filter.channelizer.VectorPolyphaseChannelizerFilter128Bit;
+import io.github.dsheirer.dsp.filter.channelizer.VectorPolyphaseChannelizerFilter256Bit;
+import io.github.dsheirer.dsp.filter.channelizer.VectorPolyphaseChannelizerFilter512Bit;
+import io.github.dsheirer.dsp.filter.channelizer.VectorPolyphaseChannelizerFilter64Bit;
+import io.github.dsheirer.dsp.filter.channelizer.VectorPolyphaseChannelizerFilterDefaultBit;
+import io.github.dsheirer.vector.calibrate.Calibration;
+import io.github.dsheirer.vector.calibrate.CalibrationException;
+import io.github.dsheirer.vector.calibrate.CalibrationType;
+import io.github.dsheirer.vector.calibrate.Implementation;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorSpecies;
+import org.apache.commons.math3.stat.descriptive.moment.Mean;
+
+/**
+ * Calibration plugin for the polyphase channelizer filter-and-sum stage.
+ */
+public class PolyphaseChannelizerFilterCalibration extends Calibration
+{
+    private static final VectorSpecies<Float> VECTOR_SPECIES = FloatVector.SPECIES_PREFERRED;
+    private static final int CHANNEL_COUNT = 400;
+    private static final int SUB_CHANNEL_COUNT = CHANNEL_COUNT * 2;
+    private static final int TAPS_PER_CHANNEL = 15;
+    private static final int ITERATION_DURATION_MS = 1000;
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int TEST_ITERATIONS = 5;
+
+    private IPolyphaseChannelizerFilter mScalar;
+    private IPolyphaseChannelizerFilter mVectorPreferred;
+    private IPolyphaseChannelizerFilter mVector512;
+    private IPolyphaseChannelizerFilter mVector256;
+    private IPolyphaseChannelizerFilter mVector128;
+    private IPolyphaseChannelizerFilter mVector64;
+
+    /**
+     * Constructs an instance
+     */
+    public PolyphaseChannelizerFilterCalibration()
+    {
+        super(CalibrationType.FILTER_POLYPHASE_CHANNELIZER);
+
+        float[] filter = getFloatSamples(SUB_CHANNEL_COUNT * TAPS_PER_CHANNEL);
+        mScalar = new ScalarPolyphaseChannelizerFilter(filter, SUB_CHANNEL_COUNT);
+        mVectorPreferred = new VectorPolyphaseChannelizerFilterDefaultBit(filter, SUB_CHANNEL_COUNT);
+        mVector64 = new VectorPolyphaseChannelizerFilter64Bit(filter, SUB_CHANNEL_COUNT);
+        mVector128 = new VectorPolyphaseChannelizerFilter128Bit(filter, SUB_CHANNEL_COUNT);
+        mVector256 = new VectorPolyphaseChannelizerFilter256Bit(filter, SUB_CHANNEL_COUNT);
+        mVector512 = new VectorPolyphaseChannelizerFilter512Bit(filter, SUB_CHANNEL_COUNT);
+    }
+
+    /**
+     * Performs calibration to determine optimal (Scalar vs Vector) operation type.
+     * @throws CalibrationException
+     */
+    @Override public void calibrate() throws CalibrationException
+    {
+        float[] samples = getFloatSamples(SUB_CHANNEL_COUNT * TAPS_PER_CHANNEL);
+
+        Mean scalarMean = new Mean();
+
+        for(int x = 0; x < WARMUP_ITERATIONS; x++)
+        {
+            scalarMean.increment(test(mScalar, samples));
+        }
+
+        mLog.info("POLYPHASE CHANNELIZER FILTER WARMUP - SCALAR: " + DECIMAL_FORMAT.format(scalarMean.getResult()));
+
+        Mean vectorPreferredMean = new Mean();
+
+        for(int x = 0; x < WARMUP_ITERATIONS; x++)
+        {
+            vectorPreferredMean.increment(test(mVectorPreferred, samples));
+        }
+
+        mLog.info("POLYPHASE CHANNELIZER FILTER WARMUP - VECTOR PREFERRED: " +
+            DECIMAL_FORMAT.format(vectorPreferredMean.getResult()));
+
+        Mean vector512Mean = new Mean();
+
+        if(VECTOR_SPECIES.length() >= 16)
+        {
+            for(int x = 0; x < WARMUP_ITERATIONS; x++)
+            {
+                vector512Mean.increment(test(mVector512, samples));
+            }
+
+            mLog.info("POLYPHASE CHANNELIZER FILTER WARMUP - VECTOR 512: " +
+                DECIMAL_FORMAT.format(vector512Mean.getResult()));
+        }
+
+        Mean vector256Mean = new Mean();
+
+        if(VECTOR_SPECIES.length() >= 8)
+        {
+            for(int x = 0; x < WARMUP_ITERATIONS; x++)
+            {
+                vector256Mean.increment(test(mVector256, samples));
+            }
+
+            mLog.info("POLYPHASE CHANNELIZER FILTER WARMUP - VECTOR 256: " +
+                DECIMAL_FORMAT.format(vector256Mean.getResult()));
+        }
+
+        Mean vector128Mean = new Mean();
+
+        if(VECTOR_SPECIES.length() >= 4)
+        {
+            for(int x = 0; x < WARMUP_ITERATIONS; x++)
+            {
+                vector128Mean.increment(test(mVector128, samples));
+            }
+
+            mLog.info("POLYPHASE CHANNELIZER FILTER WARMUP - VECTOR 128: " +
+                DECIMAL_FORMAT.format(vector128Mean.getResult()));
+        }
+
+        Mean vector64Mean = new Mean();
+
+        if(VECTOR_SPECIES.length() >= 2)
+        {
+            for(int x = 0; x < WARMUP_ITERATIONS; x++)
+            {
+                vector64Mean.increment(test(mVector64, samples));
+            }
+
+            mLog.info("POLYPHASE CHANNELIZER FILTER WARMUP - VECTOR 64: " +
+                DECIMAL_FORMAT.format(vector64Mean.getResult()));
+        }
+
+        //Test starts ...
+        scalarMean.clear();
+
+        for(int x = 0; x < TEST_ITERATIONS; x++)
+        {
+            scalarMean.increment(test(mScalar, samples));
+        }
+
+        mLog.info("POLYPHASE CHANNELIZER FILTER - SCALAR: " + DECIMAL_FORMAT.format(scalarMean.getResult()));
+
+        double bestScore = scalarMean.getResult();
+        setImplementation(Implementation.SCALAR);
+
+        vectorPreferredMean.clear();
+
+        for(int x = 0; x < TEST_ITERATIONS; x++)
+        {
+            vectorPreferredMean.increment(test(mVectorPreferred, samples));
+        }
+
+        mLog.info("POLYPHASE CHANNELIZER FILTER - VECTOR PREFERRED: " +
+            DECIMAL_FORMAT.format(vectorPreferredMean.getResult()));
+
+        if(vectorPreferredMean.getResult() > bestScore)
+        {
+            bestScore = vectorPreferredMean.getResult();
+            setImplementation(Implementation.VECTOR_SIMD_PREFERRED);
+        }
+
+        if(VECTOR_SPECIES.length() >= 16)
+        {
+            vector512Mean.clear();
+
+            for(int x = 0; x < TEST_ITERATIONS; x++)
+            {
+                vector512Mean.increment(test(mVector512, samples));
+            }
+
+            mLog.info("POLYPHASE CHANNELIZER FILTER - VECTOR 512: " + DECIMAL_FORMAT.format(vector512Mean.getResult()));
+
+            if(vector512Mean.getResult() > bestScore)
+            {
+                bestScore = vector512Mean.getResult();
+                setImplementation(Implementation.VECTOR_SIMD_512);
+            }
+        }
+
+        if(VECTOR_SPECIES.length() >= 8)
+        {
+            vector256Mean.clear();
+
+            for(int x = 0; x < TEST_ITERATIONS; x++)
+            {
+                vector256Mean.increment(test(mVector256, samples));
+            }
+
+            mLog.info("POLYPHASE CHANNELIZER FILTER - VECTOR 256: " + DECIMAL_FORMAT.format(vector256Mean.getResult()));
+
+            if(vector256Mean.getResult() > bestScore)
+            {
+                bestScore = vector256Mean.getResult();
+                setImplementation(Implementation.VECTOR_SIMD_256);
+            }
+        }
+
+        if(VECTOR_SPECIES.length() >= 4)
+        {
+            vector128Mean.clear();
+
+            for(int x = 0; x < TEST_ITERATIONS; x++)
+            {
+                vector128Mean.increment(test(mVector128, samples));
+            }
+
+            mLog.info("POLYPHASE CHANNELIZER FILTER - VECTOR 128: " + DECIMAL_FORMAT.format(vector128Mean.getResult()));
+
+            if(vector128Mean.getResult() > bestScore)
+            {
+                bestScore = vector128Mean.getResult();
+                setImplementation(Implementation.VECTOR_SIMD_128);
+            }
+        }
+
+        if(VECTOR_SPECIES.length() >= 2)
+        {
+            vector64Mean.clear();
+
+            for(int x = 0; x < TEST_ITERATIONS; x++)
+            {
+                vector64Mean.increment(test(mVector64, samples));
+            }
+
+            mLog.info("POLYPHASE CHANNELIZER FILTER - VECTOR 64: " + DECIMAL_FORMAT.format(vector64Mean.getResult()));
+
+            if(vector64Mean.getResult() > bestScore)
+            {
+                setImplementation(Implementation.VECTOR_SIMD_64);
+            }
+        }
+
+        mLog.info("POLYPHASE CHANNELIZER FILTER - SET OPTIMAL IMPLEMENTATION TO: " + getImplementation());
+    }
+
+    /**
+     * Tests the filter implementation for the iteration duration.
+     * @param filter to test
+     * @param samples to filter
+     * @return count of filter operations completed
+     */
+    private long test(IPolyphaseChannelizerFilter filter, float[] samples)
+    {
+        float[] output = new float[SUB_CHANNEL_COUNT];
+        double accumulator = 0.0f;
+        long count = 0;
+
+        long start = System.currentTimeMillis();
+
+        while((System.currentTimeMillis() - start) < ITERATION_DURATION_MS)
+        {
+            filter.filter(samples, 0, output);
+            accumulator += output[0];
+            count++;
+        }
+
+        return count + (long)(accumulator * 0);
+    }
+}
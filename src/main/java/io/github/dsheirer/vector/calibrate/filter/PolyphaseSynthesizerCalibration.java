@@ -0,0 +1,137 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.vector.calibrate.filter;
+
+import io.github.dsheirer.dsp.filter.FilterFactory;
+import io.github.dsheirer.dsp.filter.channelizer.TwoChannelSynthesizerM2;
+import io.github.dsheirer.dsp.filter.channelizer.VectorTwoChannelSynthesizerM2;
+import io.github.dsheirer.dsp.filter.design.FilterDesignException;
+import io.github.dsheirer.sample.complex.ComplexSamples;
+import io.github.dsheirer.vector.calibrate.Calibration;
+import io.github.dsheirer.vector.calibrate.CalibrationException;
+import io.github.dsheirer.vector.calibrate.CalibrationType;
+import io.github.dsheirer.vector.calibrate.Implementation;
+import org.apache.commons.math3.stat.descriptive.moment.Mean;
+
+/**
+ * Calibrates the two-channel polyphase synthesizer implementations to determine the optimal instance.
+ */
+public class PolyphaseSynthesizerCalibration extends Calibration
+{
+    private static final int SAMPLE_SIZE = 2048;
+    private static final int ITERATION_DURATION_MS = 1000;
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int TEST_ITERATIONS = 5;
+    private TwoChannelSynthesizerM2 mScalar;
+    private TwoChannelSynthesizerM2 mVector;
+
+    /**
+     * Constructs an instance
+     */
+    public PolyphaseSynthesizerCalibration()
+    {
+        super(CalibrationType.FILTER_POLYPHASE_SYNTHESIZER);
+
+        try
+        {
+            float[] filter = FilterFactory.getSincM2Synthesizer(25000.0, 12500.0, 2, 12);
+            mScalar = new TwoChannelSynthesizerM2(filter);
+            mVector = new VectorTwoChannelSynthesizerM2(filter);
+        }
+        catch(FilterDesignException fde)
+        {
+            mLog.error("Error creating synthesizer filter for polyphase synthesizer calibration");
+        }
+    }
+
+    @Override public void calibrate() throws CalibrationException
+    {
+        if(mScalar == null)
+        {
+            return;
+        }
+
+        ComplexSamples channel1 = new ComplexSamples(getFloatSamples(SAMPLE_SIZE), getFloatSamples(SAMPLE_SIZE));
+        ComplexSamples channel2 = new ComplexSamples(getFloatSamples(SAMPLE_SIZE), getFloatSamples(SAMPLE_SIZE));
+
+        Mean scalarMean = new Mean();
+
+        for(int x = 0; x < WARMUP_ITERATIONS; x++)
+        {
+            scalarMean.increment(test(mScalar, channel1, channel2));
+        }
+
+        mLog.info("POLYPHASE SYNTHESIZER WARMUP - SCALAR:" + DECIMAL_FORMAT.format(scalarMean.getResult()));
+
+        Mean vectorMean = new Mean();
+
+        for(int x = 0; x < WARMUP_ITERATIONS; x++)
+        {
+            vectorMean.increment(test(mVector, channel1, channel2));
+        }
+
+        mLog.info("POLYPHASE SYNTHESIZER WARMUP - VECTOR:" + DECIMAL_FORMAT.format(vectorMean.getResult()));
+
+        scalarMean.clear();
+
+        for(int x = 0; x < TEST_ITERATIONS; x++)
+        {
+            scalarMean.increment(test(mScalar, channel1, channel2));
+        }
+
+        mLog.info("POLYPHASE SYNTHESIZER - SCALAR:" + DECIMAL_FORMAT.format(scalarMean.getResult()));
+
+        vectorMean.clear();
+
+        for(int x = 0; x < TEST_ITERATIONS; x++)
+        {
+            vectorMean.increment(test(mVector, channel1, channel2));
+        }
+
+        mLog.info("POLYPHASE SYNTHESIZER - VECTOR:" + DECIMAL_FORMAT.format(vectorMean.getResult()));
+
+        if(scalarMean.getResult() > vectorMean.getResult())
+        {
+            setImplementation(Implementation.SCALAR);
+        }
+        else
+        {
+            setImplementation(Implementation.VECTOR_SIMD_PREFERRED);
+        }
+
+        mLog.info("POLYPHASE SYNTHESIZER - IMPLEMENTATION SET TO:" + getImplementation());
+    }
+
+    private long test(TwoChannelSynthesizerM2 synthesizer, ComplexSamples channel1, ComplexSamples channel2)
+    {
+        long start = System.currentTimeMillis();
+        double accumulator = 0.0;
+        long count = 0;
+
+        while((System.currentTimeMillis() - start) < ITERATION_DURATION_MS)
+        {
+            ComplexSamples synthesized = synthesizer.process(channel1, channel2);
+            accumulator += synthesized.i()[2];
+            count++;
+        }
+
+        return count + (long)(accumulator * 0);
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.audio;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.NoSuchElementException;
+
+public class AudioBufferStoreTest
+{
+    private static final int BUFFER_LENGTH = 160;
+
+    private static float[] buffer(int index)
+    {
+        float[] buffer = new float[BUFFER_LENGTH];
+
+        for(int x = 0; x < BUFFER_LENGTH; x++)
+        {
+            buffer[x] = (float)Math.sin(index + x * 0.01);
+        }
+
+        return buffer;
+    }
+
+    /**
+     * Cursor streams the buffers across chunk boundaries as they're appended, for both storage representations.
+     */
+    @Test
+    void cursorStreamsAppendedBuffers()
+    {
+        for(AudioSegmentStorage storage : AudioSegmentStorage.values())
+        {
+            AudioBufferStore store = new AudioBufferStore(storage);
+            AudioBufferStore.Cursor cursor = store.cursor();
+            Assertions.assertFalse(cursor.hasNext());
+            Assertions.assertThrows(NoSuchElementException.class, cursor::next);
+
+            int count = AudioBufferStore.CHUNK_SIZE * 3 + 5;
+            float[] reusable = null;
+
+            for(int x = 0; x < count; x++)
+            {
+                store.add(buffer(x));
+                Assertions.assertTrue(cursor.hasNext());
+                reusable = cursor.next(reusable);
+                Assertions.assertArrayEquals(buffer(x), reusable, 1.0f / Short.MAX_VALUE, storage.name());
+                Assertions.assertFalse(cursor.hasNext());
+            }
+
+            Assertions.assertEquals(count, cursor.getPosition());
+
+            AudioBufferStore.Cursor second = store.cursor();
+
+            for(int x = 0; x < count; x++)
+            {
+                Assertions.assertArrayEquals(buffer(x), second.next(), 1.0f / Short.MAX_VALUE, storage.name());
+            }
+
+            Assertions.assertFalse(second.isLapped());
+        }
+    }
+
+    /**
+     * Reads into a reusable buffer return a caller owned copy and reuse the buffer when the length matches.
+     */
+    @Test
+    void reusableReadsReturnCallerOwnedBuffer()
+    {
+        for(AudioSegmentStorage storage : AudioSegmentStorage.values())
+        {
+            AudioBufferStore store = new AudioBufferStore(storage);
+
+            for(int x = 0; x < AudioBufferStore.CHUNK_SIZE + 1; x++)
+            {
+                store.add(buffer(x));
+            }
+
+            float[] reusable = new float[BUFFER_LENGTH];
+
+            for(int x = 0; x < store.size(); x++)
+            {
+                float[] read = store.get(x, reusable);
+                Assertions.assertSame(reusable, read);
+                Assertions.assertArrayEquals(store.get(x), read, storage.name());
+            }
+
+            //Modifying the caller owned buffer doesn't modify the stored audio
+            float[] last = store.get(AudioBufferStore.CHUNK_SIZE, reusable);
+            last[0] = 5.0f;
+            Assertions.assertNotEquals(5.0f, store.get(AudioBufferStore.CHUNK_SIZE)[0]);
+
+            //A reusable buffer of the wrong length is replaced
+            float[] wrongLength = new float[BUFFER_LENGTH / 2];
+            Assertions.assertEquals(BUFFER_LENGTH, store.get(0, wrongLength).length);
+        }
+    }
+
+    /**
+     * Clearing the store while a cursor is open laps the cursor, so that it doesn't silently read released audio.
+     */
+    @Test
+    void clearLapsOpenCursors()
+    {
+        AudioBufferStore store = new AudioBufferStore(AudioSegmentStorage.PCM_16);
+
+        for(int x = 0; x < AudioBufferStore.CHUNK_SIZE * 2; x++)
+        {
+            store.add(buffer(x));
+        }
+
+        AudioBufferStore.Cursor cursor = store.cursor();
+        cursor.next();
+        store.clear();
+
+        Assertions.assertTrue(cursor.isLapped());
+        Assertions.assertFalse(cursor.hasNext());
+        Assertions.assertThrows(IllegalStateException.class, cursor::next);
+
+        //Audio appended after the clear isn't read by the lapped cursor
+        store.add(buffer(0));
+        store.add(buffer(1));
+        Assertions.assertFalse(cursor.hasNext());
+        Assertions.assertThrows(IllegalStateException.class, cursor::next);
+        Assertions.assertFalse(store.cursor().isLapped());
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.bits;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.text.DecimalFormat;
+import java.util.Random;
+
+/**
+ * Compares per-bit, word-level int[] and FieldExtractor field extraction throughput using the field layouts of
+ * P25 Phase 1 TSBK messages.
+ */
+public class FieldExtractorBenchmark
+{
+    private final static Logger mLog = LoggerFactory.getLogger(FieldExtractorBenchmark.class);
+
+    private static long perBit(BinaryMessage message, int[] bits)
+    {
+        long value = 0;
+
+        for(int index : bits)
+        {
+            value <<= 1;
+
+            if(message.get(index))
+            {
+                value++;
+            }
+        }
+
+        return value;
+    }
+
+    public static void main(String[] args)
+    {
+        int[][] fields = new int[][]{
+            {0}, {1}, {2, 3, 4, 5, 6, 7}, {8, 9, 10, 11, 12, 13, 14, 15},
+            BinaryMessage.getFieldIndexes(16, 8, false), BinaryMessage.getFieldIndexes(24, 16, false),
+            BinaryMessage.getFieldIndexes(40, 24, false), BinaryMessage.getFieldIndexes(56, 24, false),
+            BinaryMessage.getFieldIndexes(16, 4, false), BinaryMessage.getFieldIndexes(20, 12, false),
+            {16, 17, 18, 19, 40, 41, 42, 43, 44, 45, 46, 47}, BinaryMessage.getFieldIndexes(60, 36, false)};
+
+        FieldExtractor[] extractors = new FieldExtractor[fields.length];
+
+        for(int x = 0; x < fields.length; x++)
+        {
+            extractors[x] = FieldExtractor.of(fields[x]);
+        }
+
+        Random random = new Random(5);
+        int messageCount = 10_000;
+        BinaryMessage[] messages = new BinaryMessage[messageCount];
+
+        for(int x = 0; x < messageCount; x++)
+        {
+            BinaryMessage message = new BinaryMessage(96);
+
+            for(int y = 0; y < 96; y++)
+            {
+                if(random.nextBoolean())
+                {
+                    message.set(y);
+                }
+            }
+
+            messages[x] = message;
+        }
+
+        DecimalFormat df = new DecimalFormat("0.0");
+        int iterations = 20;
+        long accumulator = 0;
+
+        for(int test = 0; test < 3; test++)
+        {
+            long start = System.nanoTime();
+
+            for(int i = 0; i < iterations; i++)
+            {
+                for(BinaryMessage message : messages)
+                {
+                    for(int[] field : fields)
+                    {
+                        accumulator += perBit(message, field);
+                    }
+                }
+            }
+
+            long legacy = System.nanoTime() - start;
+            start = System.nanoTime();
+
+            for(int i = 0; i < iterations; i++)
+            {
+                for(BinaryMessage message : messages)
+                {
+                    for(int[] field : fields)
+                    {
+                        accumulator += message.getLong(field);
+                    }
+                }
+            }
+
+            long wordIndex = System.nanoTime() - start;
+            start = System.nanoTime();
+
+            for(int i = 0; i < iterations; i++)
+            {
+                for(BinaryMessage message : messages)
+                {
+                    for(FieldExtractor extractor : extractors)
+                    {
+                        accumulator += message.getLong(extractor);
+                    }
+                }
+            }
+
+            long extractor = System.nanoTime() - start;
+            double count = (double)iterations * messageCount * fields.length;
+
+            mLog.info("Per-field ns - per-bit: " + df.format(legacy / count) + " word int[]: " +
+                df.format(wordIndex / count) + " field extractor: " + df.format(extractor / count));
+        }
+
+        mLog.info("Accumulator: " + accumulator);
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.bits;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class FieldExtractorTest
+{
+    /**
+     * P25 TSBK style field layouts: header flags, opcode and vendor, 8/16/24-bit fields, a split field and a field
+     * that spans the first 64-bit word boundary.
+     */
+    private static final int[][] FIELDS = new int[][]{
+        {0}, {1}, {2, 3, 4, 5, 6, 7}, {8, 9, 10, 11, 12, 13, 14, 15},
+        BinaryMessage.getFieldIndexes(16, 8, false), BinaryMessage.getFieldIndexes(24, 16, false),
+        BinaryMessage.getFieldIndexes(40, 24, false), BinaryMessage.getFieldIndexes(56, 24, false),
+        {16, 17, 18, 19, 40, 41, 42, 43, 44, 45, 46, 47}, BinaryMessage.getFieldIndexes(60, 36, false),
+        {7, 6, 5, 4, 3, 2, 1, 0}, {90, 91, 92, 93, 94, 95, 96, 97, 98, 99}};
+
+    /**
+     * Reference per-bit field extraction.
+     */
+    private static long get(BinaryMessage message, int[] bits, int offset)
+    {
+        long value = 0;
+
+        for(int index : bits)
+        {
+            value <<= 1;
+
+            if(message.get(index + offset))
+            {
+                value++;
+            }
+        }
+
+        return value;
+    }
+
+    private static BinaryMessage randomMessage(Random random, int size)
+    {
+        BinaryMessage message = new BinaryMessage(size);
+
+        for(int x = 0; x < size; x++)
+        {
+            if(random.nextBoolean())
+            {
+                message.set(x);
+            }
+        }
+
+        return message;
+    }
+
+    @Test
+    void runCompilation()
+    {
+        Assertions.assertEquals(1, FieldExtractor.range(24, 39).getRunCount());
+        Assertions.assertEquals(2, FieldExtractor.of(16, 17, 18, 19, 40, 41, 42, 43).getRunCount());
+        Assertions.assertEquals(8, FieldExtractor.of(FIELDS[10]).getRunCount());
+        Assertions.assertArrayEquals(FIELDS[8], FieldExtractor.of(FIELDS[8]).getIndexes());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> FieldExtractor.of());
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> FieldExtractor.of(BinaryMessage.getFieldIndexes(0, 65, false)));
+    }
+
+    /**
+     * Field extractor and word-level int[] methods match per-bit extraction, including fields that extend beyond the
+     * message size and fields read with an offset.
+     */
+    @Test
+    void matchesPerBitExtraction()
+    {
+        Random random = new Random(8);
+
+        for(int x = 0; x < 2000; x++)
+        {
+            BinaryMessage message = randomMessage(random, 96);
+
+            for(int[] field : FIELDS)
+            {
+                FieldExtractor extractor = FieldExtractor.of(field);
+                long expected = get(message, field, 0);
+                Assertions.assertEquals(expected, message.getLong(field));
+                Assertions.assertEquals(expected, message.getLong(extractor));
+
+                if(field.length <= 32)
+                {
+                    Assertions.assertEquals((int)expected, message.getInt(field));
+                    Assertions.assertEquals((int)expected, message.getInt(extractor));
+                }
+
+                int offset = random.nextInt(40);
+                expected = get(message, field, offset);
+                Assertions.assertEquals(expected, message.getLong(field, offset));
+                Assertions.assertEquals(expected, message.getLong(extractor, offset));
+
+                if(field.length <= 32)
+                {
+                    Assertions.assertEquals((int)expected, message.getInt(field, offset));
+                    Assertions.assertEquals((int)expected, message.getInt(extractor, offset));
+                }
+            }
+        }
+    }
+
+    /**
+     * Fields wider than 32 bits can't be read as an int and must be read with getLong().
+     */
+    @Test
+    void intRejectsFieldsWiderThan32Bits()
+    {
+        BinaryMessage message = new BinaryMessage(96);
+        message.set(0, 96);
+        FieldExtractor wide = FieldExtractor.range(0, 32);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> message.getInt(wide));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> message.getInt(wide, 8));
+        Assertions.assertEquals(0x1FFFFFFFFL, message.getLong(wide));
+        Assertions.assertEquals(-1, message.getInt(FieldExtractor.range(0, 31)));
+    }
+
+    @Test
+    void contiguousRangeMatchesPerBitExtraction()
+    {
+        Random random = new Random(9);
+
+        for(int x = 0; x < 2000; x++)
+        {
+            BinaryMessage message = randomMessage(random, 196);
+            int start = random.nextInt(180);
+            int end = Math.min(195, start + random.nextInt(32));
+            int[] field = BinaryMessage.getFieldIndexes(start, end - start + 1, false);
+            Assertions.assertEquals((int)get(message, field, 0), message.getInt(start, end));
+        }
+    }
+
+    /**
+     * Every bitset mutator discards the cached word snapshot.
+     */
+    @Test
+    void mutationsInvalidateWordSnapshot()
+    {
+        FieldExtractor extractor = FieldExtractor.range(0, 63);
+        BinaryMessage message = new BinaryMessage(64);
+        Assertions.assertEquals(0, message.getLong(extractor));
+
+        message.set(63);
+        Assertions.assertEquals(1, message.getLong(extractor));
+        message.flip(62);
+        Assertions.assertEquals(3, message.getLong(extractor));
+        message.clear(63);
+        Assertions.assertEquals(2, message.getLong(extractor));
+        message.set(0, 64);
+        Assertions.assertEquals(-1L, message.getLong(extractor));
+        message.clear(0, 32);
+        Assertions.assertEquals(0xFFFFFFFFL, message.getLong(extractor));
+        message.xor(message);
+        Assertions.assertEquals(0, message.getLong(extractor));
+
+        BinaryMessage other = new BinaryMessage(64);
+        other.set(60);
+        message.or(other);
+        Assertions.assertEquals(8, message.getLong(extractor));
+        message.andNot(other);
+        Assertions.assertEquals(0, message.getLong(extractor));
+
+        message.set(5, true);
+        message.load(60, 4, 0xF);
+        Assertions.assertEquals((1L << 58) | 0xF, message.getLong(extractor));
+        message.clear();
+        Assertions.assertEquals(0, message.getLong(extractor));
+    }
+
+    /**
+     * Concurrent readers sharing a message (e.g. several event listeners) all lazily build and observe a complete
+     * word snapshot.
+     */
+    @Test
+    void concurrentReadersSeeCompleteSnapshot() throws Exception
+    {
+        Random random = new Random(10);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try
+        {
+            for(int x = 0; x < 200; x++)
+            {
+                BinaryMessage message = randomMessage(random, 96);
+                long[] expected = new long[FIELDS.length];
+
+                for(int y = 0; y < FIELDS.length; y++)
+                {
+                    expected[y] = get(message, FIELDS[y], 0);
+                }
+
+                Future<?>[] futures = new Future<?>[4];
+
+                for(int t = 0; t < futures.length; t++)
+                {
+                    futures[t] = executor.submit(() -> {
+                        for(int y = 0; y < FIELDS.length; y++)
+                        {
+                            Assertions.assertEquals(expected[y], message.getLong(FieldExtractor.of(FIELDS[y])));
+                        }
+                    });
+                }
+
+                for(Future<?> future : futures)
+                {
+                    future.get(10, TimeUnit.SECONDS);
+                }
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+}
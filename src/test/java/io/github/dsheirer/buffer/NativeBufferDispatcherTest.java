@@ -0,0 +1,154 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.buffer;
+
+import io.github.dsheirer.sample.complex.ComplexSamples;
+import io.github.dsheirer.sample.complex.InterleavedComplexSamples;
+import io.github.dsheirer.util.DispatcherBackend;
+import io.github.dsheirer.util.DispatcherQueueType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class NativeBufferDispatcherTest
+{
+    /**
+     * Pooled buffer that counts recycle invocations
+     */
+    private static class TestBuffer extends PooledNativeBuffer
+    {
+        private final AtomicInteger mRecycleCount;
+
+        TestBuffer(AtomicInteger recycleCount)
+        {
+            mRecycleCount = recycleCount;
+        }
+
+        @Override
+        protected void recycle()
+        {
+            mRecycleCount.incrementAndGet();
+        }
+
+        @Override
+        public Iterator<ComplexSamples> iterator()
+        {
+            return Collections.emptyIterator();
+        }
+
+        @Override
+        public Iterator<InterleavedComplexSamples> iteratorInterleaved()
+        {
+            return Collections.emptyIterator();
+        }
+
+        @Override
+        public int sampleCount()
+        {
+            return 0;
+        }
+
+        @Override
+        public long getTimestamp()
+        {
+            return 0;
+        }
+    }
+
+    @Test
+    void pooledBufferReferenceCounting()
+    {
+        AtomicInteger recycled = new AtomicInteger();
+        TestBuffer buffer = new TestBuffer(recycled);
+        buffer.retain();
+        Assertions.assertEquals(2, buffer.getReferenceCount());
+        buffer.release();
+        Assertions.assertEquals(0, recycled.get());
+        buffer.release();
+        Assertions.assertEquals(1, recycled.get());
+        Assertions.assertFalse(buffer.tryRetain());
+        Assertions.assertThrows(IllegalStateException.class, buffer::retain);
+        Assertions.assertThrows(IllegalStateException.class, buffer::release);
+    }
+
+    /**
+     * Buffers are held while queued so that the producer can release its reference immediately after broadcasting,
+     * and are recycled once the listener is done with them.
+     */
+    @Test
+    void buffersRecycleAfterListenerProcessing() throws Exception
+    {
+        int count = 1000;
+        AtomicInteger recycled = new AtomicInteger();
+        AtomicInteger unretained = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(count);
+        NativeBufferDispatcher dispatcher = new NativeBufferDispatcher(count, "test", DispatcherBackend.PLATFORM_THREAD,
+            null, DispatcherQueueType.LOCK_FREE);
+        dispatcher.setListener(buffer -> {
+            if(((TestBuffer)buffer).getReferenceCount() < 1)
+            {
+                unretained.incrementAndGet();
+            }
+
+            latch.countDown();
+        });
+        dispatcher.start();
+
+        for(int x = 0; x < count; x++)
+        {
+            TestBuffer buffer = new TestBuffer(recycled);
+            dispatcher.receive(buffer);
+            buffer.release();
+        }
+
+        Assertions.assertTrue(latch.await(10, TimeUnit.SECONDS));
+        dispatcher.stop();
+        Assertions.assertEquals(0, unretained.get());
+        Assertions.assertEquals(count, recycled.get());
+    }
+
+    @Test
+    void discardedBuffersAreRecycled()
+    {
+        AtomicInteger recycled = new AtomicInteger();
+        NativeBufferDispatcher dispatcher = new NativeBufferDispatcher(4, "test", DispatcherBackend.SHARED_EXECUTOR,
+            command -> {}, DispatcherQueueType.BLOCKING);
+        dispatcher.setListener(buffer -> Assertions.fail("drain task never runs"));
+        dispatcher.start();
+
+        for(int x = 0; x < 6; x++)
+        {
+            TestBuffer buffer = new TestBuffer(recycled);
+            dispatcher.receive(buffer);
+            buffer.release();
+        }
+
+        //Overflowed buffers are recycled immediately, queued buffers when the dispatcher is stopped
+        Assertions.assertEquals(2, recycled.get());
+        Assertions.assertEquals(2, dispatcher.getDroppedCount());
+        dispatcher.stop();
+        Assertions.assertEquals(6, recycled.get());
+    }
+}
@@ -0,0 +1,361 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.buffer;
+
+import io.github.dsheirer.sample.Listener;
+import io.github.dsheirer.sample.complex.ComplexSamples;
+import io.github.dsheirer.sample.complex.InterleavedComplexSamples;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class NativeBufferRingTest
+{
+    /**
+     * Pooled buffer that carries a sequence number and counts recycle invocations
+     */
+    private static class TestBuffer extends PooledNativeBuffer
+    {
+        private final long mSequence;
+        private final AtomicInteger mRecycleCount;
+
+        TestBuffer(long sequence, AtomicInteger recycleCount)
+        {
+            mSequence = sequence;
+            mRecycleCount = recycleCount;
+        }
+
+        @Override
+        protected void recycle()
+        {
+            mRecycleCount.incrementAndGet();
+        }
+
+        @Override
+        public Iterator<ComplexSamples> iterator()
+        {
+            return Collections.emptyIterator();
+        }
+
+        @Override
+        public Iterator<InterleavedComplexSamples> iteratorInterleaved()
+        {
+            return Collections.emptyIterator();
+        }
+
+        @Override
+        public int sampleCount()
+        {
+            return 0;
+        }
+
+        @Override
+        public long getTimestamp()
+        {
+            return mSequence;
+        }
+    }
+
+    /**
+     * Publishes the buffer the way the USB transfer thread does, releasing the producer's reference afterwards.
+     */
+    private static void publish(NativeBufferRing ring, long sequence, AtomicInteger recycled)
+    {
+        TestBuffer buffer = new TestBuffer(sequence, recycled);
+        ring.publish(buffer);
+        buffer.release();
+    }
+
+    /**
+     * Waits for the consumers to finish delivering (or skipping) the number of buffers, summed across the listeners
+     */
+    private static void awaitDelivered(NativeBufferRing ring, long count) throws InterruptedException
+    {
+        long timeout = System.currentTimeMillis() + 5000;
+
+        while(ring.getDeliveredCount() + ring.getOverflowCount() < count && System.currentTimeMillis() < timeout)
+        {
+            Thread.sleep(1);
+        }
+    }
+
+    /**
+     * Each buffer is delivered to every listener, in order, and is recycled as soon as delivery completes rather than
+     * when its ring slot is eventually overwritten.
+     */
+    @Test
+    void deliversToAllListenersAndReleasesSlots() throws Exception
+    {
+        int count = 1000;
+        NativeBufferRing ring = new NativeBufferRing("test", 128);
+        AtomicInteger recycled = new AtomicInteger();
+        List<Long> first = Collections.synchronizedList(new ArrayList<>());
+        List<Long> second = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch latch = new CountDownLatch(count);
+        Listener<INativeBuffer> firstListener = buffer -> first.add(buffer.getTimestamp());
+        Listener<INativeBuffer> secondListener = buffer -> {
+            second.add(buffer.getTimestamp());
+            latch.countDown();
+        };
+        ring.addListener(firstListener);
+        ring.addListener(secondListener);
+
+        for(int x = 0; x < count; x++)
+        {
+            publish(ring, x, recycled);
+
+            //Pace the producer so that no buffers are overwritten
+            while(Math.min(ring.getDeliveredCount(firstListener), ring.getDeliveredCount(secondListener)) + 64 < x)
+            {
+                Thread.yield();
+            }
+        }
+
+        Assertions.assertTrue(latch.await(10, TimeUnit.SECONDS));
+        awaitDelivered(ring, 2L * count);
+        Assertions.assertEquals(0, ring.getOverflowCount());
+        Assertions.assertEquals(count, ring.getDeliveredCount(firstListener));
+        Assertions.assertEquals(count, ring.getDeliveredCount(secondListener));
+        Assertions.assertEquals(count, recycled.get(), "delivered buffers must not be pinned by their slots");
+
+        for(int x = 0; x < count; x++)
+        {
+            Assertions.assertEquals(x, first.get(x));
+            Assertions.assertEquals(x, second.get(x));
+        }
+
+        ring.clear();
+        Assertions.assertFalse(ring.hasListeners());
+    }
+
+    /**
+     * A stalled listener causes the oldest undelivered buffers to be overwritten, each published buffer is either
+     * delivered or counted as overflow, and every buffer is recycled exactly once.
+     */
+    @Test
+    void overwritesUndeliveredBuffersWhenLapped() throws Exception
+    {
+        int count = 100;
+        NativeBufferRing ring = new NativeBufferRing("test", 4);
+        AtomicInteger recycled = new AtomicInteger();
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        List<Long> received = Collections.synchronizedList(new ArrayList<>());
+        ring.addListener(buffer -> {
+            received.add(buffer.getTimestamp());
+            blocked.countDown();
+
+            try
+            {
+                proceed.await();
+            }
+            catch(InterruptedException ie)
+            {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        publish(ring, 0, recycled);
+        Assertions.assertTrue(blocked.await(5, TimeUnit.SECONDS));
+
+        for(int x = 1; x < count; x++)
+        {
+            publish(ring, x, recycled);
+        }
+
+        Assertions.assertEquals(count - 5, recycled.get(), "only the delivering buffer and the ring are held");
+        proceed.countDown();
+        awaitDelivered(ring, count);
+
+        Assertions.assertEquals(count, ring.getDeliveredCount() + ring.getOverflowCount());
+        Assertions.assertEquals(List.of(0L, 96L, 97L, 98L, 99L), received);
+        Assertions.assertEquals(count, recycled.get());
+        ring.clear();
+    }
+
+    /**
+     * Each listener has its own cursor: a stalled listener is lapped and skips forward on its own, while the other
+     * listener continues to receive every buffer.
+     */
+    @Test
+    void stalledListenerDoesNotStallOtherListeners() throws Exception
+    {
+        int count = 100;
+        NativeBufferRing ring = new NativeBufferRing("test", 4);
+        AtomicInteger recycled = new AtomicInteger();
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        List<Long> stalled = Collections.synchronizedList(new ArrayList<>());
+        List<Long> active = Collections.synchronizedList(new ArrayList<>());
+        Listener<INativeBuffer> stalledListener = buffer -> {
+            stalled.add(buffer.getTimestamp());
+            blocked.countDown();
+
+            try
+            {
+                proceed.await();
+            }
+            catch(InterruptedException ie)
+            {
+                Thread.currentThread().interrupt();
+            }
+        };
+        Listener<INativeBuffer> activeListener = buffer -> active.add(buffer.getTimestamp());
+        ring.addListener(stalledListener);
+        ring.addListener(activeListener);
+
+        publish(ring, 0, recycled);
+        Assertions.assertTrue(blocked.await(5, TimeUnit.SECONDS));
+
+        for(int x = 1; x < count; x++)
+        {
+            publish(ring, x, recycled);
+            long timeout = System.currentTimeMillis() + 5000;
+
+            //Pace the producer against the active listener only
+            while(ring.getDeliveredCount(activeListener) + 2 < x && System.currentTimeMillis() < timeout)
+            {
+                Thread.sleep(1);
+            }
+        }
+
+        long timeout = System.currentTimeMillis() + 5000;
+
+        while(ring.getDeliveredCount(activeListener) < count && System.currentTimeMillis() < timeout)
+        {
+            Thread.sleep(1);
+        }
+
+        //The active listener received every buffer while the stalled listener is still blocked
+        Assertions.assertEquals(count, ring.getDeliveredCount(activeListener));
+        Assertions.assertEquals(0, ring.getOverflowCount(activeListener));
+
+        proceed.countDown();
+        awaitDelivered(ring, 2L * count);
+
+        Assertions.assertEquals(5, ring.getDeliveredCount(stalledListener));
+        Assertions.assertEquals(count - 5, ring.getOverflowCount(stalledListener));
+        Assertions.assertEquals(List.of(0L, 96L, 97L, 98L, 99L), stalled);
+
+        for(int x = 0; x < count; x++)
+        {
+            Assertions.assertEquals(x, active.get(x));
+        }
+
+        Assertions.assertEquals(count, recycled.get());
+        ring.clear();
+    }
+
+    /**
+     * Removing a listener waits for a delivery in progress to the listener, so that a re-added listener is never
+     * serviced by two consumers at the same time.
+     */
+    @Test
+    void removeListenerWaitsForDeliveryInProgress() throws Exception
+    {
+        NativeBufferRing ring = new NativeBufferRing("test", 8);
+        AtomicInteger recycled = new AtomicInteger();
+        AtomicInteger concurrent = new AtomicInteger();
+        AtomicInteger maxConcurrent = new AtomicInteger();
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        Listener<INativeBuffer> listener = buffer -> {
+            maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+            blocked.countDown();
+
+            try
+            {
+                proceed.await();
+            }
+            catch(InterruptedException ie)
+            {
+                Thread.currentThread().interrupt();
+            }
+
+            concurrent.decrementAndGet();
+        };
+
+        ring.addListener(listener);
+        publish(ring, 0, recycled);
+        Assertions.assertTrue(blocked.await(5, TimeUnit.SECONDS));
+
+        Thread remover = new Thread(() -> {
+            ring.removeListener(listener);
+            ring.addListener(listener);
+        });
+        remover.start();
+        remover.join(100);
+        Assertions.assertTrue(remover.isAlive(), "remove waits while the listener is receiving a buffer");
+
+        proceed.countDown();
+        remover.join(5000);
+        Assertions.assertFalse(remover.isAlive());
+
+        publish(ring, 1, recycled);
+        awaitDelivered(ring, 2);
+        Assertions.assertEquals(1, maxConcurrent.get());
+        ring.clear();
+        Assertions.assertEquals(2, recycled.get());
+    }
+
+    @Test
+    void listenerCanRemoveItself() throws Exception
+    {
+        NativeBufferRing ring = new NativeBufferRing("test", 8);
+        AtomicInteger recycled = new AtomicInteger();
+        AtomicInteger received = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(1);
+        Listener<INativeBuffer> listener = new Listener<>()
+        {
+            @Override
+            public void receive(INativeBuffer buffer)
+            {
+                received.incrementAndGet();
+                ring.removeListener(this);
+                latch.countDown();
+            }
+        };
+        ring.addListener(listener);
+        publish(ring, 0, recycled);
+        Assertions.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        Assertions.assertFalse(ring.hasListeners());
+
+        //The consumer releases the buffer after the listener returns
+        awaitDelivered(ring, 1);
+
+        publish(ring, 1, recycled);
+        ring.clear();
+        Assertions.assertEquals(1, received.get());
+        Assertions.assertEquals(2, recycled.get());
+    }
+
+    @Test
+    void capacityMustBePowerOfTwo()
+    {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new NativeBufferRing("test", 6));
+    }
+}
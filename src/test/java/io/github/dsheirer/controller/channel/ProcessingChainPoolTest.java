@@ -0,0 +1,169 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.controller.channel;
+
+import io.github.dsheirer.alias.AliasModel;
+import io.github.dsheirer.module.ProcessingChain;
+import io.github.dsheirer.module.decode.am.DecodeConfigAM;
+import io.github.dsheirer.module.decode.event.DecodeEvent;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ProcessingChainPoolTest
+{
+    private final AliasModel mAliasModel = new AliasModel();
+    private final List<ProcessingChain> mDisposed = new ArrayList<>();
+
+    private ProcessingChainPool pool(long idleTimeout, int maxSize)
+    {
+        return new ProcessingChainPool(idleTimeout, maxSize, ProcessingChainPool.DEFAULT_PREWARM_LIMIT, mDisposed::add);
+    }
+
+    private static Channel trafficChannel(String name)
+    {
+        return new Channel(name, Channel.ChannelType.TRAFFIC);
+    }
+
+    private ProcessingChain register(ProcessingChainPool pool, Channel channel)
+    {
+        ProcessingChain processingChain = new ProcessingChain(channel, mAliasModel);
+        pool.register(channel, processingChain);
+        return processingChain;
+    }
+
+    @Test
+    void takeReusesOfferedChain()
+    {
+        ProcessingChainPool pool = pool(ProcessingChainPool.DEFAULT_IDLE_TIMEOUT_MS, 4);
+        Channel channel = trafficChannel("TS1");
+        ProcessingChain processingChain = register(pool, channel);
+
+        Assertions.assertTrue(pool.offer(channel, processingChain));
+        Assertions.assertTrue(pool.contains(channel));
+        Assertions.assertSame(processingChain, pool.take(channel));
+        Assertions.assertEquals(1, pool.getPoolHitCount());
+
+        //The chain is removed from the pool by take, so the next grant constructs a new chain
+        Assertions.assertNull(pool.take(channel));
+        Assertions.assertEquals(1, pool.getPoolMissCount());
+
+        //The chain can be returned to the pool again after the next call
+        Assertions.assertTrue(pool.offer(channel, processingChain));
+        Assertions.assertSame(processingChain, pool.take(channel));
+    }
+
+    @Test
+    void offerRejectsIneligibleChains()
+    {
+        ProcessingChainPool pool = pool(ProcessingChainPool.DEFAULT_IDLE_TIMEOUT_MS, 4);
+        Channel channel = trafficChannel("TS1");
+        Channel other = trafficChannel("TS2");
+        ProcessingChain processingChain = register(pool, channel);
+
+        Assertions.assertFalse(pool.offer(other, processingChain));
+        Assertions.assertFalse(pool.offer(channel, new ProcessingChain(channel, mAliasModel)));
+
+        Channel standard = new Channel("Control", Channel.ChannelType.STANDARD);
+        ProcessingChain standardChain = register(pool, standard);
+        Assertions.assertFalse(pool.offer(standard, standardChain));
+        Assertions.assertNull(pool.take(standard));
+        Assertions.assertEquals(0, pool.size());
+    }
+
+    @Test
+    void offerClearsDecodeEventHistory()
+    {
+        ProcessingChainPool pool = pool(ProcessingChainPool.DEFAULT_IDLE_TIMEOUT_MS, 4);
+        Channel channel = trafficChannel("TS1");
+        ProcessingChain processingChain = register(pool, channel);
+        processingChain.getDecodeEventHistory().receive(DecodeEvent.builder(System.currentTimeMillis())
+            .details("previous call").build());
+        Assertions.assertEquals(1, processingChain.getDecodeEventHistory().getItems().size());
+
+        Assertions.assertTrue(pool.offer(channel, processingChain));
+        Assertions.assertTrue(pool.take(channel).getDecodeEventHistory().getItems().isEmpty());
+    }
+
+    @Test
+    void decoderTypeMismatchDisposesPooledChain()
+    {
+        ProcessingChainPool pool = pool(ProcessingChainPool.DEFAULT_IDLE_TIMEOUT_MS, 4);
+        Channel channel = trafficChannel("TS1");
+        ProcessingChain processingChain = register(pool, channel);
+        Assertions.assertTrue(pool.offer(channel, processingChain));
+
+        channel.setDecodeConfiguration(new DecodeConfigAM());
+
+        Assertions.assertNull(pool.take(channel));
+        Assertions.assertEquals(List.of(processingChain), mDisposed);
+        Assertions.assertEquals(1, pool.getReconfiguredCount());
+        Assertions.assertEquals(1, pool.getPoolMissCount());
+        Assertions.assertFalse(pool.isEligible(channel, processingChain));
+
+        //A chain constructed before the decode configuration changed is not returned to the pool
+        Channel other = trafficChannel("TS2");
+        ProcessingChain stale = register(pool, other);
+        other.setDecodeConfiguration(new DecodeConfigAM());
+        Assertions.assertFalse(pool.offer(other, stale));
+        Assertions.assertEquals(0, pool.size());
+    }
+
+    @Test
+    void removeExpiredDisposesIdleChains() throws InterruptedException
+    {
+        ProcessingChainPool expiring = pool(0, 4);
+        Channel channel = trafficChannel("TS1");
+        ProcessingChain processingChain = register(expiring, channel);
+        Assertions.assertTrue(expiring.offer(channel, processingChain));
+
+        Thread.sleep(5);
+        expiring.removeExpired();
+        Assertions.assertEquals(0, expiring.size());
+        Assertions.assertEquals(List.of(processingChain), mDisposed);
+        Assertions.assertFalse(expiring.isEligible(channel, processingChain));
+
+        ProcessingChainPool retaining = pool(ProcessingChainPool.DEFAULT_IDLE_TIMEOUT_MS, 4);
+        Channel other = trafficChannel("TS2");
+        Assertions.assertTrue(retaining.offer(other, register(retaining, other)));
+        retaining.removeExpired();
+        Assertions.assertEquals(1, retaining.size());
+    }
+
+    @Test
+    void offerRespectsMaximumPoolSize()
+    {
+        ProcessingChainPool pool = pool(ProcessingChainPool.DEFAULT_IDLE_TIMEOUT_MS, 2);
+        Channel channel1 = trafficChannel("TS1");
+        Channel channel2 = trafficChannel("TS2");
+        Channel channel3 = trafficChannel("TS3");
+
+        Assertions.assertTrue(pool.offer(channel1, register(pool, channel1)));
+        Assertions.assertTrue(pool.offer(channel2, register(pool, channel2)));
+        Assertions.assertFalse(pool.offer(channel3, register(pool, channel3)));
+        Assertions.assertEquals(2, pool.size());
+
+        Assertions.assertNotNull(pool.take(channel1));
+        Assertions.assertTrue(pool.offer(channel3, register(pool, channel3)));
+        Assertions.assertEquals(2, pool.size());
+    }
+}
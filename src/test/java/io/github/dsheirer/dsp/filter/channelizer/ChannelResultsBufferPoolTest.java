@@ -0,0 +1,93 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.dsp.filter.channelizer;
+
+import io.github.dsheirer.util.Dispatcher;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ChannelResultsBufferPoolTest
+{
+    /**
+     * Buffer returns to the pool only after every consumer has released it.
+     */
+    @Test
+    void recycleAfterAllConsumersRelease()
+    {
+        ChannelResultsBufferPool pool = new ChannelResultsBufferPool(8, 4, 2);
+        ChannelResultsBuffer buffer = pool.getBuffer();
+        Assertions.assertEquals(1, pool.getAllocatedCount());
+
+        buffer.incrementConsumerCount();
+        buffer.incrementConsumerCount();
+        buffer.incrementRowCount();
+
+        buffer.decrementConsumerCount();
+        Assertions.assertEquals(0, pool.getIdleCount(), "Recycled while a consumer still holds the buffer");
+
+        buffer.decrementConsumerCount();
+        Assertions.assertEquals(1, pool.getIdleCount());
+        Assertions.assertEquals(0, buffer.getRowCount(), "Recycled buffer should be reset");
+
+        Assertions.assertSame(buffer, pool.getBuffer());
+        Assertions.assertEquals(1, pool.getAllocatedCount(), "Pool should reuse the idle buffer");
+    }
+
+    /**
+     * Pool retains no more than the maximum number of idle buffers.
+     */
+    @Test
+    void maximumIdleBuffers()
+    {
+        ChannelResultsBufferPool pool = new ChannelResultsBufferPool(8, 4, 2);
+        ChannelResultsBuffer[] buffers = new ChannelResultsBuffer[4];
+
+        for(int x = 0; x < buffers.length; x++)
+        {
+            buffers[x] = pool.getBuffer();
+            buffers[x].incrementConsumerCount();
+        }
+
+        for(ChannelResultsBuffer buffer: buffers)
+        {
+            buffer.decrementConsumerCount();
+        }
+
+        Assertions.assertEquals(2, pool.getIdleCount());
+    }
+
+    /**
+     * Buffers sent to a stopped dispatcher are passed to the discard listener and return to the pool.
+     */
+    @Test
+    void stoppedDispatcherReturnsBuffersToPool()
+    {
+        ChannelResultsBufferPool pool = new ChannelResultsBufferPool(8, 4, 4);
+        Dispatcher<ChannelResultsBuffer> dispatcher = new Dispatcher<>(10, "test", ChannelResultsBuffer.POISON_PILL);
+        dispatcher.setListener(ChannelResultsBuffer::decrementConsumerCount);
+        dispatcher.setDiscardListener(ChannelResultsBuffer::decrementConsumerCount);
+
+        ChannelResultsBuffer buffer = pool.getBuffer();
+        buffer.incrementConsumerCount();
+        dispatcher.receive(buffer);
+
+        Assertions.assertEquals(1, pool.getIdleCount());
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.dsp.filter.channelizer;
+
+import io.github.dsheirer.dsp.filter.design.FilterDesignException;
+import io.github.dsheirer.sample.complex.InterleavedComplexSamples;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.text.DecimalFormat;
+import java.util.Random;
+
+/**
+ * Throughput benchmark comparing the circular buffer channelizer to the array shifting ComplexPolyphaseChannelizerM2.
+ */
+public class CircularComplexPolyphaseChannelizerM2Benchmark
+{
+    private final static Logger mLog = LoggerFactory.getLogger(CircularComplexPolyphaseChannelizerM2Benchmark.class);
+
+    private static final double SAMPLE_RATE = 10_000_000.0;
+    private static final int TAPS_PER_CHANNEL = 9;
+    private static final int ITERATIONS = 20_000;
+    private static final int SAMPLE_SIZE = 16384;
+
+    /**
+     * Measures the throughput of the channelizer
+     * @param channelizer to measure
+     * @param complexSamples to process repeatedly
+     */
+    private static void measure(ComplexPolyphaseChannelizerM2 channelizer, InterleavedComplexSamples complexSamples)
+    {
+        DecimalFormat df = new DecimalFormat("0.000");
+        channelizer.start();
+
+        long start = System.currentTimeMillis();
+
+        for(int i = 0; i < ITERATIONS; i++)
+        {
+            channelizer.receive(complexSamples);
+        }
+
+        double elapsed = System.currentTimeMillis() - start;
+        channelizer.stop();
+
+        double processedSamples = (double)ITERATIONS * SAMPLE_SIZE;
+        mLog.info("Elapsed Time: " + df.format(elapsed / 1000.0d) + " seconds (" +
+            df.format(processedSamples / elapsed / 1000.0) + " MSPS) for [" + channelizer.getClass().getSimpleName() + "]");
+    }
+
+    public static void main(String[] args)
+    {
+        Random random = new Random();
+
+        float[] samples = new float[SAMPLE_SIZE * 2];
+        for(int x = 0; x < samples.length; x++)
+        {
+            samples[x] = random.nextFloat() * 2.0f - 1.0f;
+        }
+
+        InterleavedComplexSamples complexSamples = new InterleavedComplexSamples(samples, 0);
+
+        try
+        {
+            measure(new ComplexPolyphaseChannelizerM2(SAMPLE_RATE, TAPS_PER_CHANNEL), complexSamples);
+            measure(new CircularComplexPolyphaseChannelizerM2(SAMPLE_RATE, TAPS_PER_CHANNEL), complexSamples);
+        }
+        catch(FilterDesignException fde)
+        {
+            mLog.error("Error designing channelizer filter", fde);
+        }
+    }
+}
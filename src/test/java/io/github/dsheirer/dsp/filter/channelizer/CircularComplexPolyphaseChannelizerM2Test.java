@@ -0,0 +1,107 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.dsp.filter.channelizer;
+
+import io.github.dsheirer.dsp.filter.design.FilterDesignException;
+import io.github.dsheirer.sample.complex.InterleavedComplexSamples;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class CircularComplexPolyphaseChannelizerM2Test
+{
+    /**
+     * The circular buffer channelizer must produce exactly the same channel results as the array shifting channelizer,
+     * including sample buffers that do not align with the channelizer block size.
+     */
+    @Test
+    void matchesShiftingChannelizer() throws FilterDesignException
+    {
+        double sampleRate = 1_000_000.0;
+        int tapsPerChannel = 9;
+
+        List<float[]> shiftingResults = new ArrayList<>();
+        List<float[]> circularResults = new ArrayList<>();
+
+        ComplexPolyphaseChannelizerM2 shifting = new ComplexPolyphaseChannelizerM2(sampleRate, tapsPerChannel)
+        {
+            @Override
+            protected void dispatch(ChannelResultsBuffer channelResultsBuffer)
+            {
+                shiftingResults.add(copy(channelResultsBuffer));
+                super.dispatch(channelResultsBuffer);
+            }
+        };
+
+        CircularComplexPolyphaseChannelizerM2 circular = new CircularComplexPolyphaseChannelizerM2(sampleRate,
+            tapsPerChannel)
+        {
+            @Override
+            protected void dispatch(ChannelResultsBuffer channelResultsBuffer)
+            {
+                circularResults.add(copy(channelResultsBuffer));
+                super.dispatch(channelResultsBuffer);
+            }
+        };
+
+        Random random = new Random(1234);
+        shifting.start();
+        circular.start();
+
+        for(int x = 0; x < 40; x++)
+        {
+            //Odd sized buffers so that blocks span buffer boundaries
+            float[] samples = new float[(1000 + random.nextInt(3000)) * 2 + 2];
+
+            for(int y = 0; y < samples.length; y++)
+            {
+                samples[y] = random.nextFloat() * 2.0f - 1.0f;
+            }
+
+            InterleavedComplexSamples complexSamples = new InterleavedComplexSamples(samples, 0);
+            shifting.receive(complexSamples);
+            circular.receive(complexSamples);
+        }
+
+        shifting.stop();
+        circular.stop();
+
+        Assertions.assertFalse(shiftingResults.isEmpty());
+        Assertions.assertEquals(shiftingResults.size(), circularResults.size());
+
+        for(int x = 0; x < shiftingResults.size(); x++)
+        {
+            Assertions.assertArrayEquals(shiftingResults.get(x), circularResults.get(x), "Results buffer " + x);
+        }
+    }
+
+    /**
+     * Copies the loaded rows of the channel results buffer.
+     */
+    private static float[] copy(ChannelResultsBuffer channelResultsBuffer)
+    {
+        float[] copy = new float[channelResultsBuffer.getRowCount() * channelResultsBuffer.getRowLength()];
+        System.arraycopy(channelResultsBuffer.getSamples(), 0, copy, 0, copy.length);
+        return copy;
+    }
+}
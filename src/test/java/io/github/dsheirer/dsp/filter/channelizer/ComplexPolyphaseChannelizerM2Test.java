@@ -0,0 +1,145 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.dsp.filter.channelizer;
+
+import io.github.dsheirer.dsp.filter.design.FilterDesignException;
+import io.github.dsheirer.sample.complex.InterleavedComplexSamples;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class ComplexPolyphaseChannelizerM2Test
+{
+    /**
+     * Creates interleaved complex sample buffers of random samples
+     */
+    private static List<InterleavedComplexSamples> samples(int count)
+    {
+        Random random = new Random(1234);
+        List<InterleavedComplexSamples> buffers = new ArrayList<>();
+
+        for(int x = 0; x < count; x++)
+        {
+            float[] samples = new float[(1000 + random.nextInt(3000)) * 2];
+
+            for(int y = 0; y < samples.length; y++)
+            {
+                samples[y] = random.nextFloat() * 2.0f - 1.0f;
+            }
+
+            buffers.add(new InterleavedComplexSamples(samples, 0));
+        }
+
+        return buffers;
+    }
+
+    /**
+     * Creates a channelizer that copies each dispatched channel results buffer into the results list
+     */
+    private static ComplexPolyphaseChannelizerM2 channelizer(List<float[]> results) throws FilterDesignException
+    {
+        return new ComplexPolyphaseChannelizerM2(1_000_000.0, 9)
+        {
+            @Override
+            protected void dispatch(ChannelResultsBuffer channelResultsBuffer)
+            {
+                float[] copy = new float[channelResultsBuffer.getRowCount() * channelResultsBuffer.getRowLength()];
+                System.arraycopy(channelResultsBuffer.getSamples(), 0, copy, 0, copy.length);
+                results.add(copy);
+                super.dispatch(channelResultsBuffer);
+            }
+        };
+    }
+
+    /**
+     * Processes the buffers and waits for the IFFT stage to dispatch all of the queued results before stopping.
+     */
+    private static void process(ComplexPolyphaseChannelizerM2 channelizer, List<InterleavedComplexSamples> buffers,
+                                List<float[]> results) throws InterruptedException
+    {
+        channelizer.start();
+        buffers.forEach(channelizer::receive);
+
+        long timeout = System.currentTimeMillis() + 10000;
+        int previous = -1;
+
+        while((channelizer.getQueueDepth() > 0 || results.size() != previous) && System.currentTimeMillis() < timeout)
+        {
+            previous = results.size();
+            Thread.sleep(50);
+        }
+
+        channelizer.stop();
+    }
+
+    /**
+     * The parallel IFFT stage produces the same results as the single threaded IFFT stage.
+     */
+    @Test
+    void parallelIFFTMatchesSingleThreadedIFFT() throws Exception
+    {
+        List<InterleavedComplexSamples> buffers = samples(40);
+        List<float[]> single = new ArrayList<>();
+        List<float[]> parallel = new ArrayList<>();
+
+        ComplexPolyphaseChannelizerM2 reference = channelizer(single);
+        reference.setIFFTThreadCount(1);
+        process(reference, buffers, single);
+
+        ComplexPolyphaseChannelizerM2 channelizer = channelizer(parallel);
+        channelizer.setIFFTThreadCount(3);
+        process(channelizer, buffers, parallel);
+
+        Assertions.assertFalse(single.isEmpty());
+        Assertions.assertEquals(single.size(), parallel.size());
+
+        for(int x = 0; x < single.size(); x++)
+        {
+            Assertions.assertArrayEquals(single.get(x), parallel.get(x), 1e-5f, "Results buffer " + x);
+        }
+    }
+
+    /**
+     * Stopping while stripes are queued on the IFFT executor must not hang the channelizer, and the channelizer can
+     * be restarted afterward.
+     */
+    @Test
+    void stopsWhileParallelIFFTIsProcessing() throws FilterDesignException
+    {
+        List<InterleavedComplexSamples> buffers = samples(40);
+        List<float[]> results = new ArrayList<>();
+        ComplexPolyphaseChannelizerM2 channelizer = channelizer(results);
+        channelizer.setIFFTThreadCount(3);
+
+        Assertions.assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+            for(int x = 0; x < 3; x++)
+            {
+                channelizer.start();
+                buffers.forEach(channelizer::receive);
+                channelizer.stop();
+            }
+        }, "channelizer must not hang on stop");
+
+        Assertions.assertFalse(results.isEmpty());
+    }
+}
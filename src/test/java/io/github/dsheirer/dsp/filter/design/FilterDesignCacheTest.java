@@ -0,0 +1,146 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.dsp.filter.design;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+public class FilterDesignCacheTest
+{
+    private static final float[] TAPS = new float[]{0.1f, -0.25f, 0.5f, Float.MIN_VALUE};
+
+    /**
+     * Executor that holds submitted tasks until they are explicitly run, to verify that no file access happens on
+     * the calling thread.
+     */
+    private static class DeferredExecutor implements Executor
+    {
+        private final List<Runnable> mTasks = new ArrayList<>();
+
+        @Override
+        public void execute(Runnable command)
+        {
+            mTasks.add(command);
+        }
+
+        public void runAll()
+        {
+            while(!mTasks.isEmpty())
+            {
+                mTasks.remove(0).run();
+            }
+        }
+    }
+
+    @Test
+    void evictsLeastRecentlyUsed()
+    {
+        FilterDesignCache cache = new FilterDesignCache(2, Runnable::run);
+        cache.put("a", TAPS);
+        cache.put("b", TAPS);
+        Assertions.assertNotNull(cache.get("a"));
+        cache.put("c", TAPS);
+        Assertions.assertNull(cache.get("b"));
+        Assertions.assertNotNull(cache.get("a"));
+        Assertions.assertEquals(2, cache.size());
+    }
+
+    @Test
+    void returnsCopies()
+    {
+        FilterDesignCache cache = new FilterDesignCache(2, Runnable::run);
+        float[] taps = TAPS.clone();
+        cache.put("a", taps);
+        taps[0] = 5.0f;
+        cache.get("a")[1] = 5.0f;
+        Assertions.assertArrayEquals(TAPS, cache.get("a"));
+    }
+
+    @Test
+    void persistsAndReloadsExactCoefficients(@TempDir Path directory) throws Exception
+    {
+        Path file = directory.resolve("filter_design.cache");
+        DeferredExecutor executor = new DeferredExecutor();
+        FilterDesignCache cache = new FilterDesignCache(8, executor);
+        cache.setPersistenceFile(file);
+        cache.put("a", TAPS);
+        Assertions.assertFalse(Files.exists(file), "file access must run on the persistence executor");
+
+        executor.runAll();
+        cache.put("b", TAPS);
+        executor.runAll();
+
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        Assertions.assertEquals(FilterDesignCache.VERSION_LINE, lines.get(0));
+        Assertions.assertEquals(3, lines.size());
+
+        FilterDesignCache reloaded = new FilterDesignCache(8, Runnable::run);
+        reloaded.setPersistenceFile(file);
+        Assertions.assertEquals(2, reloaded.size());
+        Assertions.assertArrayEquals(TAPS, reloaded.get("a"));
+        Assertions.assertArrayEquals(TAPS, reloaded.get("b"));
+    }
+
+    @Test
+    void discardsFileWithDifferentVersion(@TempDir Path directory) throws Exception
+    {
+        Path file = directory.resolve("filter_design.cache");
+        Files.write(file, List.of("#filter design cache format:0 designer:0", "a\t3f800000"), StandardCharsets.UTF_8);
+
+        FilterDesignCache cache = new FilterDesignCache(8, Runnable::run);
+        cache.setPersistenceFile(file);
+        Assertions.assertEquals(0, cache.size());
+        Assertions.assertEquals(List.of(FilterDesignCache.VERSION_LINE),
+            Files.readAllLines(file, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void discardsFileWithoutVersion(@TempDir Path directory) throws Exception
+    {
+        Path file = directory.resolve("filter_design.cache");
+        Files.write(file, List.of("a\t3f800000"), StandardCharsets.UTF_8);
+
+        FilterDesignCache cache = new FilterDesignCache(8, Runnable::run);
+        cache.setPersistenceFile(file);
+        Assertions.assertNull(cache.get("a"));
+    }
+
+    @Test
+    void compactsDuplicateAndUnreadableEntries(@TempDir Path directory) throws Exception
+    {
+        Path file = directory.resolve("filter_design.cache");
+        Files.write(file, List.of(FilterDesignCache.VERSION_LINE, "a\t3f800000", "a\t3f800000", "b\tzz",
+            "no separator"), StandardCharsets.UTF_8);
+
+        FilterDesignCache cache = new FilterDesignCache(8, Runnable::run);
+        cache.setPersistenceFile(file);
+        Assertions.assertArrayEquals(new float[]{1.0f}, cache.get("a"));
+        Assertions.assertEquals(List.of(FilterDesignCache.VERSION_LINE, "a\t3f800000"),
+            Files.readAllLines(file, StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.dsp.filter.resample;
+
+import com.laszlosystems.libresample4j.Resampler;
+import com.laszlosystems.libresample4j.SampleBuffers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.text.DecimalFormat;
+
+/**
+ * Quality and throughput comparison of the polyphase resampler against the libresample4j (high quality) resampler
+ * for the sample rate conversions used in this application.
+ *
+ * Quality: SINAD of an in-band tone (including any images of the tone when upsampling) and, when downsampling, the
+ * gain of a tone above the output Nyquist frequency that would alias into the output.
+ */
+public class PolyphaseResamplerBenchmark
+{
+    private final static Logger mLog = LoggerFactory.getLogger(PolyphaseResamplerBenchmark.class);
+
+    /**
+     * Resamples the input with the libresample4j (high quality) resampler, in 512 sample buffers
+     * @return number of output samples
+     */
+    private static int libresample(double factor, float[] input, float[] output)
+    {
+        Resampler resampler = new Resampler(true, factor, factor);
+        ArraySampleBuffers buffers = new ArraySampleBuffers(input, output);
+
+        for(int offset = 0; offset < input.length; offset += 512)
+        {
+            buffers.mInputLimit = Math.min(input.length, offset + 512);
+            resampler.process(factor, buffers, buffers.mInputLimit == input.length);
+        }
+
+        return buffers.mOutputPointer;
+    }
+
+    public static void main(String[] args)
+    {
+        double[][] rates = {{8000, 7200}, {8000, 16000}, {8000, 22050}, {8000, 44100}, {25000, 8000}, {50000, 8000}};
+        DecimalFormat decimalFormat = new DecimalFormat("0.0");
+        int iterations = 20;
+
+        for(double[] rate: rates)
+        {
+            double inputRate = rate[0];
+            double outputRate = rate[1];
+            double factor = outputRate / inputRate;
+            int length = (int)inputRate * 4;
+            double lowerNyquist = Math.min(inputRate, outputRate) / 2.0;
+            double toneFrequency = lowerNyquist * 0.25;
+            double stopBandFrequency = inputRate > outputRate ? lowerNyquist * 1.2 : 0.0;
+            float[] tone = PolyphaseResamplerTest.tone(toneFrequency, inputRate, length);
+            float[] stopBandTone = PolyphaseResamplerTest.tone(stopBandFrequency, inputRate, length);
+
+            PolyphaseResampler resampler = new PolyphaseResampler(inputRate, outputRate);
+            float[] output = PolyphaseResamplerTest.outputBuffer(resampler, length);
+            int skip = (int)(outputRate / 10);
+
+            int polyphaseLength = PolyphaseResamplerTest.resample(resampler, tone, output);
+            double polyphaseSinad = PolyphaseResamplerTest.sinad(output, skip, polyphaseLength - 2 * skip,
+                toneFrequency, outputRate);
+            resampler.reset();
+            int libresampleLength = libresample(factor, tone, output);
+            double libresampleSinad = PolyphaseResamplerTest.sinad(output, skip, libresampleLength - 2 * skip,
+                toneFrequency, outputRate);
+
+            String stopBand = "";
+
+            if(stopBandFrequency > 0)
+            {
+                resampler.reset();
+                double polyphaseAlias = PolyphaseResamplerTest.gain(stopBandTone, output,
+                    PolyphaseResamplerTest.resample(resampler, stopBandTone, output));
+                double libresampleAlias = PolyphaseResamplerTest.gain(stopBandTone, output,
+                    libresample(factor, stopBandTone, output));
+                stopBand = " Alias Gain [" + decimalFormat.format(polyphaseAlias) + " dB vs " +
+                    decimalFormat.format(libresampleAlias) + " dB]";
+            }
+
+            //Throughput, after warming up both resamplers
+            for(int x = 0; x < iterations / 4; x++)
+            {
+                resampler.reset();
+                PolyphaseResamplerTest.resample(resampler, tone, output);
+                libresample(factor, tone, output);
+            }
+
+            long start = System.nanoTime();
+
+            for(int x = 0; x < iterations; x++)
+            {
+                resampler.reset();
+                PolyphaseResamplerTest.resample(resampler, tone, output);
+            }
+
+            double polyphaseRate = (double)length * iterations / ((System.nanoTime() - start) / 1E3);
+
+            start = System.nanoTime();
+
+            for(int x = 0; x < iterations; x++)
+            {
+                libresample(factor, tone, output);
+            }
+
+            double libresampleRate = (double)length * iterations / ((System.nanoTime() - start) / 1E3);
+
+            mLog.info("Rate [" + (int)inputRate + " > " + (int)outputRate + "] L/M [" +
+                resampler.getInterpolation() + "/" + resampler.getDecimation() + "] Taps/Phase [" +
+                resampler.getTapsPerPhase() + "] SINAD [" + decimalFormat.format(polyphaseSinad) + " dB vs " +
+                decimalFormat.format(libresampleSinad) + " dB]" + stopBand + " Throughput [" +
+                decimalFormat.format(polyphaseRate) + " vs " + decimalFormat.format(libresampleRate) +
+                " MSps] (polyphase vs libresample4j)");
+        }
+    }
+
+    /**
+     * libresample4j sample buffers backed by arrays
+     */
+    private static class ArraySampleBuffers implements SampleBuffers
+    {
+        private float[] mInput;
+        private float[] mOutput;
+        private int mInputPointer;
+        private int mInputLimit;
+        private int mOutputPointer;
+
+        private ArraySampleBuffers(float[] input, float[] output)
+        {
+            mInput = input;
+            mOutput = output;
+        }
+
+        @Override
+        public int getInputBufferLength()
+        {
+            return mInputLimit - mInputPointer;
+        }
+
+        @Override
+        public int getOutputBufferLength()
+        {
+            return mOutput.length - mOutputPointer;
+        }
+
+        @Override
+        public void produceInput(float[] samples, int offset, int length)
+        {
+            System.arraycopy(mInput, mInputPointer, samples, offset, length);
+            mInputPointer += length;
+        }
+
+        @Override
+        public void consumeOutput(float[] samples, int offset, int length)
+        {
+            System.arraycopy(samples, offset, mOutput, mOutputPointer, length);
+            mOutputPointer += length;
+        }
+    }
+}
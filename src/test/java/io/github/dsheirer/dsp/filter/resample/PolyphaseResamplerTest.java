@@ -0,0 +1,232 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.dsp.filter.resample;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+public class PolyphaseResamplerTest
+{
+    private static final double[][] RATES = {{8000, 7200}, {8000, 16000}, {8000, 22050}, {8000, 44100},
+        {25000, 8000}, {50000, 8000}};
+
+    /**
+     * Creates a tone with an amplitude of 0.5
+     */
+    static float[] tone(double frequency, double sampleRate, int length)
+    {
+        float[] samples = new float[length];
+
+        for(int x = 0; x < length; x++)
+        {
+            samples[x] = (float)(0.5 * Math.sin(2.0 * Math.PI * frequency * x / sampleRate));
+        }
+
+        return samples;
+    }
+
+    /**
+     * Resamples the input with the polyphase resampler, in 512 sample buffers, and flushes the final samples
+     * @return number of output samples
+     */
+    static int resample(PolyphaseResampler resampler, float[] input, float[] output)
+    {
+        int outputPointer = 0;
+
+        for(int offset = 0; offset < input.length; offset += 512)
+        {
+            outputPointer += resampler.resample(input, offset, Math.min(512, input.length - offset), output,
+                outputPointer);
+        }
+
+        return outputPointer + resampler.flush(output, outputPointer);
+    }
+
+    /**
+     * Output buffer large enough to resample and flush the input
+     */
+    static float[] outputBuffer(PolyphaseResampler resampler, int inputLength)
+    {
+        return new float[resampler.getOutputCapacity(inputLength + resampler.getFlushLength()) + 4096];
+    }
+
+    /**
+     * Measures the signal to noise and distortion ratio (SINAD) of the output for a tone by least-squares fitting a
+     * sinusoid at the tone frequency and treating the residual as noise and distortion.
+     * @return SINAD in dB
+     */
+    static double sinad(float[] samples, int offset, int length, double frequency, double sampleRate)
+    {
+        double ss = 0, sc = 0, cc = 0, ys = 0, yc = 0;
+
+        for(int x = offset; x < offset + length; x++)
+        {
+            double s = Math.sin(2.0 * Math.PI * frequency * x / sampleRate);
+            double c = Math.cos(2.0 * Math.PI * frequency * x / sampleRate);
+            ss += s * s;
+            sc += s * c;
+            cc += c * c;
+            ys += samples[x] * s;
+            yc += samples[x] * c;
+        }
+
+        double determinant = ss * cc - sc * sc;
+        double a = (ys * cc - yc * sc) / determinant;
+        double b = (yc * ss - ys * sc) / determinant;
+        double signal = 0;
+        double residual = 0;
+
+        for(int x = offset; x < offset + length; x++)
+        {
+            double fit = a * Math.sin(2.0 * Math.PI * frequency * x / sampleRate) +
+                b * Math.cos(2.0 * Math.PI * frequency * x / sampleRate);
+            signal += fit * fit;
+            residual += (samples[x] - fit) * (samples[x] - fit);
+        }
+
+        return 10.0 * Math.log10(signal / residual);
+    }
+
+    /**
+     * Output/input power of a tone, measured over the middle half of the input and output to exclude the start and
+     * end transients
+     * @return gain in dB
+     */
+    static double gain(float[] input, float[] output, int outputLength)
+    {
+        return 10.0 * Math.log10(power(output, outputLength) / power(input, input.length));
+    }
+
+    /**
+     * Average power of the middle half of the samples
+     */
+    private static double power(float[] samples, int length)
+    {
+        double power = 0.0;
+
+        for(int x = length / 4; x < length * 3 / 4; x++)
+        {
+            power += samples[x] * samples[x];
+        }
+
+        return power / (length * 3 / 4 - length / 4);
+    }
+
+    @Test
+    void approximatesRatio()
+    {
+        Assertions.assertArrayEquals(new int[]{9, 10}, PolyphaseResampler.getRatio(7200.0 / 8000.0));
+        Assertions.assertArrayEquals(new int[]{2, 1}, PolyphaseResampler.getRatio(16000.0 / 8000.0));
+        Assertions.assertArrayEquals(new int[]{441, 80}, PolyphaseResampler.getRatio(44100.0 / 8000.0));
+        Assertions.assertArrayEquals(new int[]{8, 25}, PolyphaseResampler.getRatio(8000.0 / 25000.0));
+    }
+
+    @Test
+    void passesInBandTone()
+    {
+        for(double[] rate: RATES)
+        {
+            double inputRate = rate[0];
+            double outputRate = rate[1];
+            int length = (int)inputRate * 2;
+            double frequency = Math.min(inputRate, outputRate) / 8.0;
+            float[] input = tone(frequency, inputRate, length);
+
+            PolyphaseResampler resampler = new PolyphaseResampler(inputRate, outputRate);
+            float[] output = outputBuffer(resampler, length);
+            int outputLength = resample(resampler, input, output);
+            int skip = (int)(outputRate / 10);
+            String label = "[" + (int)inputRate + " > " + (int)outputRate + "]";
+
+            double expectedLength = (length + resampler.getFlushLength()) * outputRate / inputRate;
+            Assertions.assertEquals(expectedLength, outputLength, 2.0, "output length " + label);
+            Assertions.assertEquals(0.0, gain(input, output, outputLength), 0.1, "pass band gain " + label);
+            Assertions.assertTrue(sinad(output, skip, outputLength - 2 * skip, frequency, outputRate) > 90.0,
+                "SINAD " + label);
+        }
+    }
+
+    @Test
+    void rejectsToneAboveOutputNyquist()
+    {
+        for(double[] rate: RATES)
+        {
+            double inputRate = rate[0];
+            double outputRate = rate[1];
+
+            if(inputRate > outputRate)
+            {
+                int length = (int)inputRate * 2;
+                float[] input = tone(outputRate / 2.0 * 1.2, inputRate, length);
+                PolyphaseResampler resampler = new PolyphaseResampler(inputRate, outputRate);
+                float[] output = outputBuffer(resampler, length);
+                int outputLength = resample(resampler, input, output);
+
+                Assertions.assertTrue(gain(input, output, outputLength) < -75.0,
+                    "alias gain [" + (int)inputRate + " > " + (int)outputRate + "]");
+            }
+        }
+    }
+
+    @Test
+    void streamingMatchesSingleBuffer()
+    {
+        float[] input = tone(1000, 8000, 8000);
+        PolyphaseResampler single = new PolyphaseResampler(8000, 7200);
+        float[] expected = outputBuffer(single, input.length);
+        int expectedLength = single.resample(input, 0, input.length, expected, 0);
+
+        PolyphaseResampler streaming = new PolyphaseResampler(8000, 7200);
+        float[] output = outputBuffer(streaming, input.length);
+        int outputLength = 0;
+        int offset = 0;
+        int chunk = 1;
+
+        while(offset < input.length)
+        {
+            int length = Math.min(chunk, input.length - offset);
+            outputLength += streaming.resample(input, offset, length, output, outputLength);
+            offset += length;
+            chunk = chunk * 3 % 997 + 1;
+        }
+
+        Assertions.assertEquals(expectedLength, outputLength);
+        Assertions.assertArrayEquals(Arrays.copyOf(expected, expectedLength), Arrays.copyOf(output, outputLength));
+    }
+
+    @Test
+    void resetRestartsTheStream()
+    {
+        float[] input = tone(1000, 8000, 4000);
+        PolyphaseResampler resampler = new PolyphaseResampler(8000, 22050);
+        float[] expected = outputBuffer(resampler, input.length);
+        int expectedLength = resampler.resample(input, 0, input.length, expected, 0);
+
+        //Leave history and a partial phase, then reset
+        float[] output = outputBuffer(resampler, input.length);
+        resampler.resample(input, 0, 333, output, 0);
+        resampler.reset();
+        int outputLength = resampler.resample(input, 0, input.length, output, 0);
+
+        Assertions.assertEquals(expectedLength, outputLength);
+        Assertions.assertArrayEquals(Arrays.copyOf(expected, expectedLength), Arrays.copyOf(output, outputLength));
+    }
+}
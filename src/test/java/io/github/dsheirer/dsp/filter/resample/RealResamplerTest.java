@@ -0,0 +1,140 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.dsp.filter.resample;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class RealResamplerTest
+{
+    /**
+     * Concatenates the output arrays
+     */
+    private static float[] concatenate(List<float[]> arrays)
+    {
+        float[] samples = new float[arrays.stream().mapToInt(array -> array.length).sum()];
+        int offset = 0;
+
+        for(float[] array: arrays)
+        {
+            System.arraycopy(array, 0, samples, offset, array.length);
+            offset += array.length;
+        }
+
+        return samples;
+    }
+
+    /**
+     * Splits the samples into buffers of varying length
+     */
+    private static List<float[]> split(float[] samples)
+    {
+        List<float[]> buffers = new ArrayList<>();
+        int offset = 0;
+        int length = 100;
+
+        while(offset < samples.length)
+        {
+            int end = Math.min(samples.length, offset + length);
+            buffers.add(Arrays.copyOfRange(samples, offset, end));
+            offset = end;
+            length = length * 7 % 613 + 50;
+        }
+
+        return buffers;
+    }
+
+    @Test
+    void deliversUniformArraysOfTheResampledStream()
+    {
+        float[] input = PolyphaseResamplerTest.tone(1000, 8000, 16000);
+        PolyphaseResampler reference = new PolyphaseResampler(8000, 44100);
+        float[] expected = PolyphaseResamplerTest.outputBuffer(reference, input.length);
+        int expectedLength = PolyphaseResamplerTest.resample(reference, input, expected);
+
+        RealResampler resampler = new RealResampler(8000, 44100, 512, 1000);
+        List<float[]> output = resampler.resample(split(input));
+
+        for(int x = 0; x < output.size() - 1; x++)
+        {
+            Assertions.assertEquals(1000, output.get(x).length, "uniform output array length");
+        }
+
+        Assertions.assertArrayEquals(Arrays.copyOf(expected, expectedLength), concatenate(output));
+    }
+
+    @Test
+    void reusesOutputBufferWhenEnabled()
+    {
+        float[] input = PolyphaseResamplerTest.tone(1000, 8000, 8000);
+        RealResampler resampler = new RealResampler(8000, 7200, 512, 240);
+        resampler.setReuseOutputBuffers(true);
+        List<float[]> arrays = new ArrayList<>();
+        List<float[]> copies = new ArrayList<>();
+        resampler.setListener(array -> {
+            arrays.add(array);
+            copies.add(array.clone());
+        });
+
+        for(float[] buffer: split(input))
+        {
+            resampler.resample(buffer);
+        }
+
+        Assertions.assertTrue(arrays.size() > 1);
+
+        for(float[] array: arrays)
+        {
+            Assertions.assertSame(arrays.get(0), array, "same output array");
+        }
+
+        //The reusable buffers deliver the same samples as new arrays
+        RealResampler allocating = new RealResampler(8000, 7200, 512, 240);
+        List<float[]> expected = new ArrayList<>();
+        allocating.setListener(expected::add);
+
+        for(float[] buffer: split(input))
+        {
+            allocating.resample(buffer);
+        }
+
+        Assertions.assertArrayEquals(concatenate(expected), concatenate(copies));
+    }
+
+    @Test
+    void resetDiscardsStagedSamples()
+    {
+        float[] input = PolyphaseResamplerTest.tone(1000, 8000, 8000);
+        RealResampler fresh = new RealResampler(8000, 7200, 512, 240);
+        List<float[]> expected = fresh.resample(split(input));
+
+        RealResampler resampler = new RealResampler(8000, 7200, 512, 240);
+        List<float[]> discarded = new ArrayList<>();
+        resampler.setListener(discarded::add);
+        resampler.resample(Arrays.copyOf(input, 100));
+        Assertions.assertTrue(discarded.isEmpty(), "samples staged for the next output array");
+        resampler.reset();
+
+        Assertions.assertArrayEquals(concatenate(expected), concatenate(resampler.resample(split(input))));
+    }
+}
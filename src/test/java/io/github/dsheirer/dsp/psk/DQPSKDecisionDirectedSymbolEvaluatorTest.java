@@ -0,0 +1,94 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.dsp.psk;
+
+import io.github.dsheirer.dsp.symbol.Dibit;
+import io.github.dsheirer.sample.complex.Complex;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class DQPSKDecisionDirectedSymbolEvaluatorTest
+{
+    private static final double REFERENCE_ANGLE = Math.PI / 4.0;
+
+    /**
+     * Evaluates a symbol at the angular offset from the +45 degree reference symbol with the specified magnitude.
+     */
+    private static float confidence(DQPSKDecisionDirectedSymbolEvaluator evaluator, double offset, float magnitude)
+    {
+        Complex symbol = Complex.fromAngle(REFERENCE_ANGLE + offset);
+        symbol.multiply(magnitude);
+        evaluator.setSymbol(new Complex(0, 0), symbol);
+        Assertions.assertEquals(Dibit.D00_PLUS_1, evaluator.getSymbolDecision());
+        return evaluator.getSymbolConfidence();
+    }
+
+    @Test
+    void confidenceRange()
+    {
+        DQPSKDecisionDirectedSymbolEvaluator evaluator = new DQPSKDecisionDirectedSymbolEvaluator();
+        Assertions.assertEquals(1.0f, confidence(evaluator, 0.0, 1.0f), 0.0001f);
+        Assertions.assertEquals(0.0f, confidence(evaluator, Math.PI / 4.0 - 0.0001, 1.0f), 0.001f);
+        Assertions.assertEquals(0.0f, confidence(evaluator, -Math.PI / 4.0 + 0.0001, 1.0f), 0.001f);
+    }
+
+    @Test
+    void confidenceDecreasesWithAngularError()
+    {
+        DQPSKDecisionDirectedSymbolEvaluator evaluator = new DQPSKDecisionDirectedSymbolEvaluator();
+        float previous = 1.1f;
+
+        for(double offset = 0.0; offset < Math.PI / 4.0; offset += 0.05)
+        {
+            float confidence = confidence(evaluator, offset, 1.0f);
+            Assertions.assertTrue(confidence < previous, "Offset " + offset);
+            Assertions.assertEquals(confidence, confidence(evaluator, -offset, 1.0f), 0.0001f);
+            previous = confidence;
+        }
+    }
+
+    /**
+     * Confidence depends only on the angle of the sampled symbol and not on the signal level.
+     */
+    @Test
+    void confidenceIndependentOfMagnitude()
+    {
+        DQPSKDecisionDirectedSymbolEvaluator evaluator = new DQPSKDecisionDirectedSymbolEvaluator();
+
+        for(double offset = -0.7; offset < 0.7; offset += 0.1)
+        {
+            float expected = confidence(evaluator, offset, 1.0f);
+
+            for(float magnitude: new float[]{0.01f, 0.3f, 2.0f, 50.0f})
+            {
+                Assertions.assertEquals(expected, confidence(evaluator, offset, magnitude), 0.0001f,
+                    "Offset " + offset + " Magnitude " + magnitude);
+            }
+        }
+    }
+
+    @Test
+    void zeroMagnitudeHasNoConfidence()
+    {
+        DQPSKDecisionDirectedSymbolEvaluator evaluator = new DQPSKDecisionDirectedSymbolEvaluator();
+        evaluator.setSymbol(new Complex(0, 0), new Complex(0, 0));
+        Assertions.assertEquals(0.0f, evaluator.getSymbolConfidence());
+    }
+}
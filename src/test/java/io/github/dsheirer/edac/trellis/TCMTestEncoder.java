@@ -0,0 +1,99 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.edac.trellis;
+
+import io.github.dsheirer.bits.CorrectedBinaryMessage;
+
+import java.util.Random;
+
+/**
+ * Trellis coded modulation (TCM) encoder for creating test messages from a decoder's state transition table.
+ */
+public class TCMTestEncoder
+{
+    /**
+     * Creates random input values for an encoded message, ending with the zero-valued flushing input.
+     * @param decoder that defines the input value range
+     * @param random generator
+     * @param symbolCount number of transmitted symbols (including the flushing symbol)
+     * @return input values
+     */
+    public static int[] randomInputs(TableViterbiDecoder decoder, Random random, int symbolCount)
+    {
+        int[] inputs = new int[symbolCount];
+
+        for(int x = 0; x < symbolCount - 1; x++)
+        {
+            inputs[x] = random.nextInt(decoder.getStateCount());
+        }
+
+        return inputs;
+    }
+
+    /**
+     * Encodes the input values into a sequence of 4-bit transmitted symbols, starting from state zero.
+     * @param decoder that defines the state transition table
+     * @param inputs to encode
+     * @return encoded message
+     */
+    public static CorrectedBinaryMessage encode(TableViterbiDecoder decoder, int[] inputs)
+    {
+        CorrectedBinaryMessage encoded = new CorrectedBinaryMessage(inputs.length * 4);
+        int state = 0;
+
+        for(int x = 0; x < inputs.length; x++)
+        {
+            int symbol = decoder.getOutputValue(state, inputs[x]);
+
+            for(int bit = 0; bit < 4; bit++)
+            {
+                if(((symbol >> (3 - bit)) & 1) == 1)
+                {
+                    encoded.set(x * 4 + bit);
+                }
+            }
+
+            state = inputs[x];
+        }
+
+        return encoded;
+    }
+
+    /**
+     * Creates a random encoded message with random bit errors.
+     * @param decoder that defines the state transition table
+     * @param random generator
+     * @param symbolCount number of transmitted symbols
+     * @param errorCount number of bits to flip
+     * @return encoded message
+     */
+    public static CorrectedBinaryMessage encode(TableViterbiDecoder decoder, Random random, int symbolCount,
+                                                int errorCount)
+    {
+        CorrectedBinaryMessage encoded = encode(decoder, randomInputs(decoder, random, symbolCount));
+
+        for(int x = 0; x < errorCount; x++)
+        {
+            encoded.flip(random.nextInt(encoded.size()));
+        }
+
+        return encoded;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.edac.trellis;
+
+import io.github.dsheirer.bits.CorrectedBinaryMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * Compares the decoding throughput of the table-driven Viterbi decoders against the node/path based decoders.
+ */
+public class TableViterbiDecoderBenchmark
+{
+    private final static Logger mLog = LoggerFactory.getLogger(TableViterbiDecoderBenchmark.class);
+    private static final int ITERATIONS = 50_000;
+    private static final int SYMBOL_COUNT = 49;
+
+    /**
+     * Measures the average decode time for each decoder across a set of randomly corrupted messages.
+     */
+    private static void measure(String label, Function<CorrectedBinaryMessage,CorrectedBinaryMessage> reference,
+                                TableViterbiDecoder table, Random random)
+    {
+        CorrectedBinaryMessage[] messages = new CorrectedBinaryMessage[1000];
+
+        for(int x = 0; x < messages.length; x++)
+        {
+            messages[x] = TCMTestEncoder.encode(table, random, SYMBOL_COUNT, random.nextInt(12));
+        }
+
+        long referenceDuration = 0;
+        long tableDuration = 0;
+
+        for(int x = 0; x < ITERATIONS; x++)
+        {
+            CorrectedBinaryMessage message = messages[x % messages.length];
+
+            long start = System.nanoTime();
+            reference.apply(message);
+            referenceDuration += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            table.decode(message);
+            tableDuration += System.nanoTime() - start;
+        }
+
+        mLog.info(label + " - Reference [" + (referenceDuration / ITERATIONS) + " ns/message] Table [" +
+            (tableDuration / ITERATIONS) + " ns/message]");
+    }
+
+    public static void main(String[] args)
+    {
+        Random random = new Random();
+        measure("P25 1/2 Rate", new ViterbiDecoder_1_2_P25()::decode, new TableViterbiDecoder_1_2_P25(), random);
+        measure("P25 3/4 Rate", new ViterbiDecoder_3_4_P25()::decode, new TableViterbiDecoder_3_4_P25(), random);
+        measure("DMR 3/4 Rate", new ViterbiDecoder_3_4_DMR()::decode, new TableViterbiDecoder_3_4_DMR(), random);
+    }
+}
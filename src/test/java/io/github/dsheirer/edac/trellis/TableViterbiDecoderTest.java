@@ -0,0 +1,186 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.edac.trellis;
+
+import io.github.dsheirer.bits.CorrectedBinaryMessage;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class TableViterbiDecoderTest
+{
+    private static final int SYMBOL_COUNT = 49;
+    private static final int MESSAGE_COUNT = 2000;
+
+    /**
+     * Error free messages decode to the encoded input values with no corrected bits.
+     */
+    @Test
+    void errorFreeRoundTrip()
+    {
+        roundTrip(new TableViterbiDecoder_1_2_P25());
+        roundTrip(new TableViterbiDecoder_3_4_P25());
+    }
+
+    private static void roundTrip(TableViterbiDecoder decoder)
+    {
+        Random random = new Random(1);
+
+        for(int x = 0; x < MESSAGE_COUNT; x++)
+        {
+            int[] inputs = TCMTestEncoder.randomInputs(decoder, random, SYMBOL_COUNT);
+            CorrectedBinaryMessage decoded = decoder.decode(TCMTestEncoder.encode(decoder, inputs));
+            int bitLength = decoder.getInputBitLength();
+
+            Assertions.assertEquals((SYMBOL_COUNT - 1) * bitLength, decoded.size());
+            Assertions.assertEquals(0, decoded.getCorrectedBitCount());
+
+            for(int y = 0; y < SYMBOL_COUNT - 1; y++)
+            {
+                Assertions.assertEquals(inputs[y], decoded.getInt(y * bitLength, (y + 1) * bitLength - 1));
+            }
+        }
+    }
+
+    /**
+     * A single bit error in a message is always corrected.
+     */
+    @Test
+    void singleBitErrorCorrected()
+    {
+        TableViterbiDecoder decoder = new TableViterbiDecoder_1_2_P25();
+        Random random = new Random(2);
+        int[] inputs = TCMTestEncoder.randomInputs(decoder, random, SYMBOL_COUNT);
+        CorrectedBinaryMessage encoded = TCMTestEncoder.encode(decoder, inputs);
+        CorrectedBinaryMessage expected = decoder.decode(encoded);
+
+        for(int bit = 0; bit < encoded.size(); bit++)
+        {
+            CorrectedBinaryMessage errored = new CorrectedBinaryMessage(encoded);
+            errored.flip(bit);
+            CorrectedBinaryMessage decoded = decoder.decode(errored);
+            Assertions.assertEquals(expected, decoded, "Bit error at " + bit);
+            Assertions.assertEquals(1, decoded.getCorrectedBitCount(), "Bit error at " + bit);
+        }
+    }
+
+    /**
+     * Table decoders produce the same decoded message and corrected bit count as the node/path based decoders.
+     */
+    @Test
+    void matchesReferenceDecoders()
+    {
+        Random random = new Random(3);
+
+        TableViterbiDecoder halfRate = new TableViterbiDecoder_1_2_P25();
+        ViterbiDecoder_1_2_P25 referenceHalfRate = new ViterbiDecoder_1_2_P25();
+        TableViterbiDecoder threeQuarterRate = new TableViterbiDecoder_3_4_P25();
+        ViterbiDecoder_3_4_P25 referenceThreeQuarterRate = new ViterbiDecoder_3_4_P25();
+        TableViterbiDecoder dmr = new TableViterbiDecoder_3_4_DMR();
+        ViterbiDecoder_3_4_DMR referenceDMR = new ViterbiDecoder_3_4_DMR();
+
+        //The reference decoders are slow, so use fewer messages
+        for(int x = 0; x < MESSAGE_COUNT / 4; x++)
+        {
+            CorrectedBinaryMessage message = TCMTestEncoder.encode(halfRate, random, SYMBOL_COUNT, random.nextInt(12));
+            assertSame(referenceHalfRate.decode(message), halfRate.decode(message));
+
+            message = TCMTestEncoder.encode(threeQuarterRate, random, SYMBOL_COUNT, random.nextInt(12));
+            assertSame(referenceThreeQuarterRate.decode(message), threeQuarterRate.decode(message));
+
+            //DMR messages are interleaved - any random bit pattern exercises the decoder
+            message = TCMTestEncoder.encode(dmr, random, SYMBOL_COUNT, 200);
+            assertSame(referenceDMR.decode(message), dmr.decode(message));
+        }
+    }
+
+    /**
+     * Soft decision decoding with full confidence for every dibit is identical to hard decision decoding.
+     */
+    @Test
+    void uniformConfidenceMatchesHardDecision()
+    {
+        Random random = new Random(4);
+        TableViterbiDecoder decoder = new TableViterbiDecoder_3_4_P25();
+        float[] fullConfidence = new float[SYMBOL_COUNT * 2];
+        Arrays.fill(fullConfidence, 1.0f);
+
+        for(int x = 0; x < MESSAGE_COUNT; x++)
+        {
+            CorrectedBinaryMessage message = TCMTestEncoder.encode(decoder, random, SYMBOL_COUNT, random.nextInt(12));
+            assertSame(decoder.decode(message), decoder.decode(message, fullConfidence));
+        }
+    }
+
+    /**
+     * When most symbol errors have low confidence, soft decision decoding recovers more messages than hard decision.
+     */
+    @Test
+    void softDecisionOutperformsHardDecision()
+    {
+        Random random = new Random(5);
+        TableViterbiDecoder decoder = new TableViterbiDecoder_1_2_P25();
+        int dibitCount = SYMBOL_COUNT * 2;
+        float[] confidence = new float[dibitCount];
+        int hardSuccess = 0;
+        int softSuccess = 0;
+
+        for(int x = 0; x < MESSAGE_COUNT; x++)
+        {
+            CorrectedBinaryMessage original = TCMTestEncoder.encode(decoder, random, SYMBOL_COUNT, 0);
+            CorrectedBinaryMessage expected = decoder.decode(original);
+            CorrectedBinaryMessage errored = new CorrectedBinaryMessage(original);
+
+            for(int y = 0; y < dibitCount; y++)
+            {
+                confidence[y] = 0.6f + random.nextFloat() * 0.4f;
+            }
+
+            int dibitErrors = 6 + random.nextInt(8);
+
+            for(int y = 0; y < dibitErrors; y++)
+            {
+                int dibit = random.nextInt(dibitCount);
+                errored.flip(dibit * 2 + random.nextInt(2));
+                confidence[dibit] = random.nextInt(4) == 0 ? 0.8f : random.nextFloat() * 0.4f;
+            }
+
+            if(decoder.decode(errored).equals(expected))
+            {
+                hardSuccess++;
+            }
+
+            if(decoder.decode(errored, confidence).equals(expected))
+            {
+                softSuccess++;
+            }
+        }
+
+        Assertions.assertTrue(softSuccess > hardSuccess, "Soft [" + softSuccess + "] Hard [" + hardSuccess + "]");
+    }
+
+    private static void assertSame(CorrectedBinaryMessage expected, CorrectedBinaryMessage actual)
+    {
+        Assertions.assertEquals(expected, actual);
+        Assertions.assertEquals(expected.getCorrectedBitCount(), actual.getCorrectedBitCount());
+    }
+}
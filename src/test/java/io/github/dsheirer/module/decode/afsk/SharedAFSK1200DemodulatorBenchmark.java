@@ -0,0 +1,100 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.module.decode.afsk;
+
+import io.github.dsheirer.module.decode.fleetsync2.Fleetsync2Decoder;
+import io.github.dsheirer.module.decode.lj1200.LJ1200Decoder;
+import io.github.dsheirer.module.decode.mdc1200.MDCDecoder;
+import io.github.dsheirer.module.decode.tait.Tait1200Decoder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares the per-channel CPU time of the auxiliary AFSK decoders when each decoder demodulates the channel audio
+ * (separate) against the decoders sharing one demodulator (shared), for 1 to 4 enabled decoders.
+ */
+public class SharedAFSK1200DemodulatorBenchmark
+{
+    private final static Logger mLog = LoggerFactory.getLogger(SharedAFSK1200DemodulatorBenchmark.class);
+    private static final int SECONDS = 120;
+    private static final int BUFFER_SIZE = 400;
+
+    /**
+     * Creates the set of auxiliary AFSK decoders
+     */
+    private static List<AbstractAFSKDecoder> createDecoders(int count)
+    {
+        List<AbstractAFSKDecoder> decoders = new ArrayList<>();
+        decoders.add(new Fleetsync2Decoder());
+        decoders.add(new MDCDecoder());
+        decoders.add(new LJ1200Decoder());
+        decoders.add(new Tait1200Decoder());
+        return decoders.subList(0, count);
+    }
+
+    public static void main(String[] args)
+    {
+        float[][] buffers = SharedAFSK1200DemodulatorTest.generate(SECONDS * 8000 / BUFFER_SIZE, BUFFER_SIZE, 0);
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        DecimalFormat decimalFormat = new DecimalFormat("0.000");
+
+        for(int decoderCount = 1; decoderCount <= 4; decoderCount++)
+        {
+            double[] cpuPerSecond = new double[2];
+
+            //Two passes: the first pass warms up the JIT and the second pass is measured
+            for(int pass = 0; pass < 2; pass++)
+            {
+                List<AbstractAFSKDecoder> separate = createDecoders(decoderCount);
+                long start = threadMXBean.getCurrentThreadCpuTime();
+
+                for(float[] buffer: buffers)
+                {
+                    for(AbstractAFSKDecoder decoder: separate)
+                    {
+                        decoder.receive(buffer);
+                    }
+                }
+
+                cpuPerSecond[0] = (threadMXBean.getCurrentThreadCpuTime() - start) / 1E6 / SECONDS;
+
+                SharedAFSK1200Demodulator demodulator = new SharedAFSK1200Demodulator();
+                createDecoders(decoderCount).forEach(demodulator::add);
+                start = threadMXBean.getCurrentThreadCpuTime();
+
+                for(float[] buffer: buffers)
+                {
+                    demodulator.receive(buffer);
+                }
+
+                cpuPerSecond[1] = (threadMXBean.getCurrentThreadCpuTime() - start) / 1E6 / SECONDS;
+            }
+
+            mLog.info("AFSK Decoders [" + decoderCount + "] Separate [" + decimalFormat.format(cpuPerSecond[0]) +
+                " ms CPU/sec audio] Shared [" + decimalFormat.format(cpuPerSecond[1]) + " ms CPU/sec audio] Speedup [" +
+                decimalFormat.format(cpuPerSecond[0] / cpuPerSecond[1]) + "x]");
+        }
+    }
+}
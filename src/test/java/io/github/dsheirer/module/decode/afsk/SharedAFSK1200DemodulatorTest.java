@@ -0,0 +1,180 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.module.decode.afsk;
+
+import io.github.dsheirer.dsp.afsk.AFSK1200Decoder;
+import io.github.dsheirer.module.decode.DecoderType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class SharedAFSK1200DemodulatorTest
+{
+    private static final int BUFFER_COUNT = 100;
+    private static final int BUFFER_SIZE = 400;
+
+    /**
+     * Generates phase-continuous AFSK 1200/1800 Hz tones for random 1200 baud symbols with added noise, at 8 kHz
+     * @param bufferCount number of buffers
+     * @param bufferSize samples per buffer
+     * @param seed for the random symbols and noise
+     */
+    static float[][] generate(int bufferCount, int bufferSize, long seed)
+    {
+        float[][] buffers = new float[bufferCount][bufferSize];
+        Random random = new Random(seed);
+        double phase = 0.0;
+        boolean symbol = false;
+        long symbolIndex = -1;
+        long sample = 0;
+
+        for(float[] buffer: buffers)
+        {
+            for(int x = 0; x < buffer.length; x++)
+            {
+                if(sample * 1200 / 8000 != symbolIndex)
+                {
+                    symbolIndex = sample * 1200 / 8000;
+                    symbol = random.nextBoolean();
+                }
+
+                phase += 2.0 * Math.PI * (symbol ? 1200.0 : 1800.0) / 8000.0;
+                buffer[x] = (float)(0.5 * Math.sin(phase) + 0.05 * random.nextGaussian());
+                sample++;
+            }
+        }
+
+        return buffers;
+    }
+
+    /**
+     * Shareable decoder that records the decoded symbols
+     */
+    private static class SymbolRecorder extends AbstractAFSKDecoder
+    {
+        private List<Boolean> mSymbols = new ArrayList<>();
+
+        private SymbolRecorder(AFSK1200Decoder.Output output)
+        {
+            super(output);
+            setSymbolProcessor(mSymbols::add);
+        }
+
+        @Override
+        public DecoderType getDecoderType()
+        {
+            return DecoderType.FLEETSYNC2;
+        }
+    }
+
+    @Test
+    void sharedSymbolsMatchSeparateDemodulation()
+    {
+        float[][] buffers = generate(BUFFER_COUNT, BUFFER_SIZE, 1);
+
+        SymbolRecorder separateNormal = new SymbolRecorder(AFSK1200Decoder.Output.NORMAL);
+        SymbolRecorder separateInverted = new SymbolRecorder(AFSK1200Decoder.Output.INVERTED);
+        SymbolRecorder sharedNormal = new SymbolRecorder(AFSK1200Decoder.Output.NORMAL);
+        SymbolRecorder sharedInverted = new SymbolRecorder(AFSK1200Decoder.Output.INVERTED);
+        SharedAFSK1200Demodulator demodulator = new SharedAFSK1200Demodulator();
+        demodulator.add(sharedNormal);
+        demodulator.add(sharedInverted);
+
+        for(float[] buffer: buffers)
+        {
+            separateNormal.receive(buffer);
+            separateInverted.receive(buffer);
+            demodulator.receive(buffer);
+        }
+
+        Assertions.assertTrue(separateNormal.mSymbols.size() > BUFFER_COUNT * BUFFER_SIZE * 1200 / 8000 - 100,
+            "symbols decoded");
+        Assertions.assertEquals(separateNormal.mSymbols, sharedNormal.mSymbols, "normal output");
+        Assertions.assertEquals(separateInverted.mSymbols, sharedInverted.mSymbols, "inverted output");
+    }
+
+    @Test
+    void resetClearsSharedDemodulatorState()
+    {
+        float[][] first = generate(BUFFER_COUNT, BUFFER_SIZE, 2);
+        float[][] second = generate(BUFFER_COUNT, BUFFER_SIZE, 3);
+
+        SymbolRecorder fresh = new SymbolRecorder(AFSK1200Decoder.Output.NORMAL);
+        SharedAFSK1200Demodulator freshDemodulator = new SharedAFSK1200Demodulator();
+        freshDemodulator.add(fresh);
+
+        for(float[] buffer: second)
+        {
+            freshDemodulator.receive(buffer);
+        }
+
+        SymbolRecorder reused = new SymbolRecorder(AFSK1200Decoder.Output.NORMAL);
+        SharedAFSK1200Demodulator reusedDemodulator = new SharedAFSK1200Demodulator();
+        reusedDemodulator.add(reused);
+
+        for(float[] buffer: first)
+        {
+            reusedDemodulator.receive(buffer);
+        }
+
+        reusedDemodulator.reset();
+        reused.mSymbols.clear();
+
+        for(float[] buffer: second)
+        {
+            reusedDemodulator.receive(buffer);
+        }
+
+        Assertions.assertEquals(fresh.mSymbols, reused.mSymbols, "symbols after reset");
+    }
+
+    @Test
+    void resetClearsSeparateDecoderState()
+    {
+        float[][] first = generate(BUFFER_COUNT, BUFFER_SIZE, 4);
+        float[][] second = generate(BUFFER_COUNT, BUFFER_SIZE, 5);
+
+        SymbolRecorder fresh = new SymbolRecorder(AFSK1200Decoder.Output.INVERTED);
+
+        for(float[] buffer: second)
+        {
+            fresh.receive(buffer);
+        }
+
+        SymbolRecorder reused = new SymbolRecorder(AFSK1200Decoder.Output.INVERTED);
+
+        for(float[] buffer: first)
+        {
+            reused.receive(buffer);
+        }
+
+        reused.reset();
+        reused.mSymbols.clear();
+
+        for(float[] buffer: second)
+        {
+            reused.receive(buffer);
+        }
+
+        Assertions.assertEquals(fresh.mSymbols, reused.mSymbols, "symbols after reset");
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.module.decode.event.store;
+
+import io.github.dsheirer.identifier.IdentifierCollection;
+import io.github.dsheirer.identifier.configuration.SystemConfigurationIdentifier;
+import io.github.dsheirer.module.decode.event.DecodeEvent;
+import io.github.dsheirer.module.decode.event.DecodeEventType;
+import io.github.dsheirer.module.decode.p25.identifier.radio.APCO25RadioIdentifier;
+import io.github.dsheirer.module.decode.p25.identifier.talkgroup.APCO25Talkgroup;
+import io.github.dsheirer.protocol.Protocol;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+public class DecodeEventStoreTest
+{
+    private static final long START = 1_600_000_000_000L;
+
+    private static DecodeEvent event(long timeStart, int talkgroup, int radio, String system)
+    {
+        IdentifierCollection identifiers = new IdentifierCollection(List.of(APCO25Talkgroup.create(talkgroup),
+            APCO25RadioIdentifier.createFrom(radio), SystemConfigurationIdentifier.create(system)));
+
+        return DecodeEvent.builder(timeStart)
+            .eventType(DecodeEventType.CALL_GROUP)
+            .eventDescription("Group Call")
+            .protocol(Protocol.APCO25)
+            .identifiers(identifiers)
+            .build();
+    }
+
+    private static DecodeEventQuery all()
+    {
+        return DecodeEventQuery.builder().build();
+    }
+
+    @Test
+    void coalescesUpdatesToTheLatestVersion(@TempDir Path directory) throws IOException
+    {
+        DecodeEventStore store = new DecodeEventStore(directory, 0);
+        store.start();
+
+        DecodeEvent event = event(START, 100, 2001, "Metro");
+        store.receive(event);
+        event.setDuration(500);
+        store.receive(event);
+        event.setDuration(1500);
+        store.receive(event);
+        store.stop();
+
+        Assertions.assertEquals(1, store.getWrittenCount(), "updates are coalesced into one version");
+
+        List<DecodeEventRecord> records = store.query(all());
+        Assertions.assertEquals(1, records.size(), "event count");
+        Assertions.assertEquals(1500, records.get(0).getDuration(), "latest update is stored");
+        Assertions.assertEquals("100", records.get(0).getToValue(), "talkgroup");
+        Assertions.assertEquals("2001", records.get(0).getFromValue(), "radio");
+        Assertions.assertEquals("Metro", records.get(0).getSystem(), "system");
+        Assertions.assertEquals(Protocol.APCO25.name(), records.get(0).getProtocol(), "protocol");
+    }
+
+    @Test
+    void capturesTheEventWhenItIsReceived(@TempDir Path directory) throws IOException
+    {
+        DecodeEventStore store = new DecodeEventStore(directory, 0);
+        store.start();
+
+        DecodeEvent event = event(START, 100, 2001, "Metro");
+        event.setDuration(250);
+        store.receive(event);
+
+        //Changes that the decoder makes without broadcasting the event are not stored
+        event.setDuration(9999);
+        event.setDetails("changed after submit");
+        store.stop();
+
+        DecodeEventRecord record = store.query(all()).get(0);
+        Assertions.assertEquals(250, record.getDuration(), "duration at submit time");
+        Assertions.assertEquals("", record.getDetails(), "details at submit time");
+    }
+
+    @Test
+    void queriesByIdentifierProtocolSystemAndTime(@TempDir Path directory) throws IOException
+    {
+        DecodeEventStore writer = new DecodeEventStore(directory, 0);
+        writer.start();
+
+        for(int x = 0; x < 20; x++)
+        {
+            writer.receive(event(START + x * 60_000L, 100 + (x % 2), 2000 + x, x < 10 ? "Metro" : "County"));
+        }
+
+        writer.stop();
+
+        //Query the store read-only, as the command line tool does
+        DecodeEventStore reader = new DecodeEventStore(directory, 0);
+        reader.load();
+        Assertions.assertTrue(reader.getSegmentCount() > 0, "segments loaded");
+
+        Assertions.assertEquals(20, reader.query(all()).size(), "all events");
+        Assertions.assertEquals(10, reader.query(DecodeEventQuery.builder().talkgroup("101").build()).size(),
+            "talkgroup");
+        Assertions.assertEquals(1, reader.query(DecodeEventQuery.builder().radio("2005").build()).size(), "radio");
+        Assertions.assertEquals(10, reader.query(DecodeEventQuery.builder().system("county").build()).size(),
+            "system is not case sensitive");
+        Assertions.assertEquals(20, reader.query(DecodeEventQuery.builder().protocol("apco25").build()).size(),
+            "protocol");
+        Assertions.assertEquals(0, reader.query(DecodeEventQuery.builder().protocol("DMR").build()).size(),
+            "other protocol");
+
+        List<DecodeEventRecord> range = reader.query(DecodeEventQuery.builder().from(START + 5 * 60_000L)
+            .to(START + 8 * 60_000L).build());
+        Assertions.assertEquals(3, range.size(), "time range");
+        Assertions.assertEquals(START + 7 * 60_000L, range.get(0).getTimeStart(), "most recent event first");
+
+        List<DecodeEventRecord> limited = reader.query(DecodeEventQuery.builder().limit(5).build());
+        Assertions.assertEquals(5, limited.size(), "limit");
+        Assertions.assertEquals(START + 19 * 60_000L, limited.get(0).getTimeStart(), "limit keeps the most recent");
+    }
+}
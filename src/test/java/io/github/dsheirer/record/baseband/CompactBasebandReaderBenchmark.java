@@ -0,0 +1,135 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.record.baseband;
+
+import io.github.dsheirer.buffer.IQSampleFormat;
+import io.github.dsheirer.buffer.MappedNativeBuffer;
+import io.github.dsheirer.buffer.RawSampleEncoding;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+
+/**
+ * Reports the compression ratio and the decoding throughput of a compact baseband recording.  Uses the recording
+ * file named in the first argument, or a synthetic 16-bit recording of a tone in noise when no file is named.
+ */
+public class CompactBasebandReaderBenchmark
+{
+    private final static Logger mLog = LoggerFactory.getLogger(CompactBasebandReaderBenchmark.class);
+    private static final double SAMPLE_RATE = 2_500_000.0;
+    private static final int FRAMES_PER_CHUNK = 131_072;
+    private static final int CHUNK_COUNT = 200;
+
+    /**
+     * Creates a synthetic recording of a tone in noise, quantized to 12 bits of dynamic range like a typical tuner.
+     */
+    private static Path createRecording() throws IOException
+    {
+        Path path = Files.createTempFile("benchmark", CompactBasebandFormat.FILE_EXTENSION);
+        Random random = new Random(0);
+        long timestamp = System.currentTimeMillis();
+        double phase = 0.0;
+        double increment = 2.0 * Math.PI * 100_000.0 / SAMPLE_RATE;
+
+        try(CompactBasebandWriter writer = new CompactBasebandWriter(path, RawSampleEncoding.SIGNED_16_BIT,
+            SAMPLE_RATE, 100_000_000))
+        {
+            for(int chunk = 0; chunk < CHUNK_COUNT; chunk++)
+            {
+                ByteBuffer samples = ByteBuffer.allocate(FRAMES_PER_CHUNK * 4).order(ByteOrder.LITTLE_ENDIAN);
+
+                for(int x = 0; x < FRAMES_PER_CHUNK; x++)
+                {
+                    samples.putShort((short)((int)(Math.cos(phase) * 400 + random.nextGaussian() * 100) << 4));
+                    samples.putShort((short)((int)(Math.sin(phase) * 400 + random.nextGaussian() * 100) << 4));
+                    phase += increment;
+                }
+
+                samples.flip();
+                writer.write(new MappedNativeBuffer(samples, IQSampleFormat.SIGNED_16_BIT, timestamp));
+                timestamp += (long)(FRAMES_PER_CHUNK * 1000.0 / SAMPLE_RATE);
+            }
+        }
+
+        return path;
+    }
+
+    public static void main(String[] args)
+    {
+        Path path = null;
+        boolean synthetic = args.length == 0;
+
+        try
+        {
+            path = synthetic ? createRecording() : Paths.get(args[0]);
+
+            try(CompactBasebandReader reader = new CompactBasebandReader(path))
+            {
+                mLog.info(reader.toString());
+                mLog.info("Duration: " + reader.getDuration() + " ms");
+
+                long start = System.nanoTime();
+                long storedBytes = 0;
+                long rawBytes = 0;
+
+                for(int x = 0; x < reader.getChunkCount(); x++)
+                {
+                    ByteBuffer header = reader.readChunkHeader(x);
+                    rawBytes += header.getInt(20);
+                    storedBytes += header.getInt(24);
+                    reader.read(0, 0).release();
+                }
+
+                double elapsed = (System.nanoTime() - start) / 1E9;
+                double wave16Bytes = reader.getFrameCount() * 4.0;
+                mLog.info(String.format("Stored: %,d bytes  Raw: %,d bytes  16-bit wave equivalent: %,.0f bytes",
+                    storedBytes, rawBytes, wave16Bytes));
+                mLog.info(String.format("Compression: %.2fx vs raw, %.2fx vs 16-bit wave",
+                    rawBytes / (double)storedBytes, wave16Bytes / storedBytes));
+                mLog.info(String.format("Decoded %,d frames in %.2f seconds (%.1f x real time)",
+                    reader.getFrameCount(), elapsed, reader.getDuration() / 1000.0 / elapsed));
+            }
+        }
+        catch(IOException ioe)
+        {
+            mLog.error("Error reading compact baseband recording", ioe);
+        }
+        finally
+        {
+            if(synthetic && path != null)
+            {
+                try
+                {
+                    Files.deleteIfExists(path);
+                }
+                catch(IOException ioe)
+                {
+                    mLog.error("Error deleting synthetic recording", ioe);
+                }
+            }
+        }
+    }
+}
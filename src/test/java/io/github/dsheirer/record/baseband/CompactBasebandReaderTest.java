@@ -0,0 +1,178 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.record.baseband;
+
+import io.github.dsheirer.buffer.INativeBuffer;
+import io.github.dsheirer.buffer.IQSampleFormat;
+import io.github.dsheirer.buffer.MappedNativeBuffer;
+import io.github.dsheirer.buffer.RawSampleEncoding;
+import io.github.dsheirer.sample.complex.InterleavedComplexSamples;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Random;
+
+public class CompactBasebandReaderTest
+{
+    private static final double SAMPLE_RATE = 50_000.0;
+    private static final long FREQUENCY = 154_000_000;
+    private static final int FRAMES_PER_CHUNK = 2500;
+    private static final int CHUNK_COUNT = 6;
+    private static final long START_TIMESTAMP = 1_600_000_000_000L;
+    private static final long CHUNK_DURATION = 50;
+    private static final float TOLERANCE = 1.0f / Short.MAX_VALUE;
+
+    /**
+     * Creates the samples for a chunk.  Even chunks are silent so that they compress, odd chunks are full scale noise
+     * so that they are stored uncompressed.
+     */
+    private static short[] samples(int chunk)
+    {
+        short[] samples = new short[FRAMES_PER_CHUNK * 2];
+
+        if(chunk % 2 == 1)
+        {
+            Random random = new Random(chunk);
+
+            for(int x = 0; x < samples.length; x++)
+            {
+                samples[x] = (short)random.nextInt();
+            }
+        }
+
+        return samples;
+    }
+
+    private static INativeBuffer buffer(short[] samples, long timestamp)
+    {
+        ByteBuffer buffer = ByteBuffer.allocate(samples.length * 2).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asShortBuffer().put(samples);
+        return new MappedNativeBuffer(buffer, IQSampleFormat.SIGNED_16_BIT, timestamp);
+    }
+
+    private static Path write(Path directory) throws IOException
+    {
+        Path path = directory.resolve("recording" + CompactBasebandFormat.FILE_EXTENSION);
+
+        try(CompactBasebandWriter writer = new CompactBasebandWriter(path, RawSampleEncoding.SIGNED_16_BIT,
+            SAMPLE_RATE, FREQUENCY))
+        {
+            for(int chunk = 0; chunk < CHUNK_COUNT; chunk++)
+            {
+                writer.write(buffer(samples(chunk), START_TIMESTAMP + chunk * CHUNK_DURATION));
+            }
+
+            Assertions.assertEquals(CHUNK_COUNT, writer.getChunkCount(), "chunk count");
+            Assertions.assertEquals((long)CHUNK_COUNT * FRAMES_PER_CHUNK, writer.getFrameCount(), "frame count");
+        }
+
+        return path;
+    }
+
+    private static void assertSamples(short[] expected, INativeBuffer buffer, String label)
+    {
+        Assertions.assertEquals(expected.length / 2, buffer.sampleCount(), label + " sample count");
+
+        Iterator<InterleavedComplexSamples> iterator = buffer.iteratorInterleaved();
+        int index = 0;
+
+        while(iterator.hasNext())
+        {
+            for(float sample: iterator.next().samples())
+            {
+                Assertions.assertEquals(expected[index] / (float)Short.MAX_VALUE, sample, TOLERANCE,
+                    label + " sample " + index);
+                index++;
+            }
+        }
+
+        Assertions.assertEquals(expected.length, index, label + " converted sample count");
+    }
+
+    @Test
+    void roundTrip(@TempDir Path directory) throws IOException
+    {
+        Path path = write(directory);
+        Assertions.assertTrue(CompactBasebandFormat.isCompactBaseband(path), "recognized as compact baseband");
+
+        try(CompactBasebandReader reader = new CompactBasebandReader(path))
+        {
+            Assertions.assertEquals(RawSampleEncoding.SIGNED_16_BIT, reader.getEncoding(), "encoding");
+            Assertions.assertEquals(SAMPLE_RATE, reader.getSampleRate(), "sample rate");
+            Assertions.assertEquals(FREQUENCY, reader.getFrequency(), "frequency");
+            Assertions.assertEquals(CHUNK_COUNT, reader.getChunkCount(), "chunk count");
+            Assertions.assertEquals((long)CHUNK_COUNT * FRAMES_PER_CHUNK, reader.getFrameCount(), "frame count");
+            Assertions.assertEquals(CHUNK_COUNT * CHUNK_DURATION, reader.getDuration(), "duration");
+
+            for(int chunk = 0; chunk < CHUNK_COUNT; chunk++)
+            {
+                Assertions.assertEquals((long)chunk * FRAMES_PER_CHUNK, reader.getFramePosition(), "frame position");
+                Assertions.assertEquals(START_TIMESTAMP + chunk * CHUNK_DURATION, reader.getRecordedTimestamp(),
+                    "recorded timestamp");
+                assertSamples(samples(chunk), reader.read(FRAMES_PER_CHUNK, 0), "chunk " + chunk);
+            }
+
+            Assertions.assertEquals(0, reader.getFramesRemaining(), "frames remaining");
+            Assertions.assertThrows(IOException.class, () -> reader.read(FRAMES_PER_CHUNK, 0), "read past end");
+        }
+    }
+
+    @Test
+    void compressesSilence(@TempDir Path directory) throws IOException
+    {
+        Path path = write(directory);
+        long rawBytes = (long)CHUNK_COUNT * FRAMES_PER_CHUNK * 4;
+
+        //Half of the chunks are noise that is stored uncompressed and half are silence that compresses
+        Assertions.assertTrue(Files.size(path) < rawBytes * 3 / 4, "recording is compressed");
+    }
+
+    @Test
+    void seek(@TempDir Path directory) throws IOException
+    {
+        Path path = write(directory);
+
+        try(CompactBasebandReader reader = new CompactBasebandReader(path))
+        {
+            reader.seekToTime(3 * CHUNK_DURATION + 10);
+            Assertions.assertEquals(3L * FRAMES_PER_CHUNK, reader.getFramePosition(), "seek to time");
+            assertSamples(samples(3), reader.read(FRAMES_PER_CHUNK, 0), "chunk 3");
+
+            reader.seek(FRAMES_PER_CHUNK + 1);
+            Assertions.assertEquals(FRAMES_PER_CHUNK, reader.getFramePosition(), "seek to frame");
+            assertSamples(samples(1), reader.read(FRAMES_PER_CHUNK, 0), "chunk 1");
+
+            reader.seekToTimestamp(START_TIMESTAMP - 1000);
+            Assertions.assertEquals(0, reader.getFramePosition(), "seek before start");
+
+            reader.skip(1);
+            Assertions.assertEquals(FRAMES_PER_CHUNK, reader.getFramePosition(), "skip advances a chunk");
+
+            reader.seek(reader.getFrameCount());
+            Assertions.assertEquals(0, reader.getFramesRemaining(), "seek to end");
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.sample;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Microbenchmark comparing the per-element broadcast cost of the Broadcaster against the previous lock-and-copy
+ * broadcast approach for varying listener counts.
+ */
+public class BroadcasterBenchmark
+{
+    private final static Logger mLog = LoggerFactory.getLogger(BroadcasterBenchmark.class);
+
+    public static void main(String[] args)
+    {
+        int iterations = 50_000_000;
+        int[] listenerCounts = {1, 2, 4};
+        DecimalFormat decimalFormat = new DecimalFormat("0.00");
+        long[] sink = new long[1];
+        Listener<Integer> counter = value -> sink[0] += value;
+
+        for(int listenerCount: listenerCounts)
+        {
+            Broadcaster<Integer> broadcaster = new Broadcaster<>();
+            List<Listener<Integer>> lockedListeners = new ArrayList<>();
+            ReentrantLock lock = new ReentrantLock();
+
+            for(int x = 0; x < listenerCount; x++)
+            {
+                //Distinct listener instances so that the broadcaster doesn't reject them as duplicates
+                Listener<Integer> listener = value -> counter.receive(value);
+                broadcaster.addListener(listener);
+                lockedListeners.add(listener);
+            }
+
+            Integer element = 1;
+
+            //Warmup both approaches
+            for(int x = 0; x < iterations / 10; x++)
+            {
+                broadcaster.broadcast(element);
+                lockAndCopyBroadcast(lock, lockedListeners, element);
+            }
+
+            long start = System.nanoTime();
+
+            for(int x = 0; x < iterations; x++)
+            {
+                broadcaster.broadcast(element);
+            }
+
+            double snapshotCost = (System.nanoTime() - start) / (double)iterations;
+
+            start = System.nanoTime();
+
+            for(int x = 0; x < iterations; x++)
+            {
+                lockAndCopyBroadcast(lock, lockedListeners, element);
+            }
+
+            double lockedCost = (System.nanoTime() - start) / (double)iterations;
+
+            mLog.info("Listeners [" + listenerCount + "] Snapshot [" + decimalFormat.format(snapshotCost) +
+                " ns/element] Lock+Copy [" + decimalFormat.format(lockedCost) + " ns/element]");
+        }
+
+        mLog.info("Checksum: " + sink[0]);
+    }
+
+    /**
+     * Legacy broadcast implementation used as the baseline by the microbenchmark.
+     */
+    private static <E> void lockAndCopyBroadcast(ReentrantLock lock, List<Listener<E>> listeners, E element)
+    {
+        lock.lock();
+
+        try
+        {
+            List<Listener<E>> copy = new ArrayList<>(listeners);
+
+            for(Listener<E> listener: copy)
+            {
+                listener.receive(element);
+            }
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+}
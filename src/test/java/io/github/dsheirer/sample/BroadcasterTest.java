@@ -0,0 +1,128 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.sample;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class BroadcasterTest
+{
+    @Test
+    void addRemoveAndDuplicates()
+    {
+        Broadcaster<Integer> broadcaster = new Broadcaster<>();
+        List<Integer> a = new ArrayList<>();
+        List<Integer> b = new ArrayList<>();
+        List<Integer> c = new ArrayList<>();
+        Listener<Integer> listenerA = a::add;
+        Listener<Integer> listenerB = b::add;
+        Listener<Integer> listenerC = c::add;
+
+        Assertions.assertFalse(broadcaster.hasListeners());
+        broadcaster.broadcast(0);
+
+        broadcaster.addListener(listenerA);
+        broadcaster.addListener(listenerA);
+        Assertions.assertEquals(1, broadcaster.getListenerCount(), "Duplicate listener should be ignored");
+
+        broadcaster.addListener(listenerB);
+        broadcaster.addListener(listenerC);
+        broadcaster.broadcast(1);
+
+        broadcaster.removeListener(listenerB);
+        broadcaster.broadcast(2);
+
+        broadcaster.removeListener(listenerA);
+        broadcaster.removeListener(listenerC);
+        Assertions.assertFalse(broadcaster.hasListeners());
+        broadcaster.broadcast(3);
+
+        Assertions.assertEquals(List.of(1, 2), a);
+        Assertions.assertEquals(List.of(1), b);
+        Assertions.assertEquals(List.of(1, 2), c);
+    }
+
+    @Test
+    void snapshotIsUnmodifiable()
+    {
+        Broadcaster<Integer> broadcaster = new Broadcaster<>();
+        broadcaster.addListener(value -> {});
+        List<Listener<Integer>> listeners = broadcaster.getListeners();
+        broadcaster.clear();
+
+        Assertions.assertEquals(1, listeners.size());
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> listeners.add(value -> {}));
+        Assertions.assertEquals(0, broadcaster.getListenerCount());
+    }
+
+    /**
+     * Listeners added and removed while another thread is broadcasting never cause an exception and a listener that
+     * stays registered receives every element.
+     */
+    @Test
+    void concurrentModificationDuringBroadcast() throws InterruptedException
+    {
+        Broadcaster<Integer> broadcaster = new Broadcaster<>();
+        AtomicInteger received = new AtomicInteger();
+        broadcaster.addListener(value -> received.incrementAndGet());
+
+        int elements = 200_000;
+        AtomicBoolean failed = new AtomicBoolean();
+        CountDownLatch started = new CountDownLatch(1);
+
+        Thread producer = new Thread(() -> {
+            started.countDown();
+
+            try
+            {
+                for(int x = 0; x < elements; x++)
+                {
+                    broadcaster.broadcast(x);
+                }
+            }
+            catch(Exception e)
+            {
+                failed.set(true);
+            }
+        });
+
+        producer.start();
+        started.await();
+
+        while(producer.isAlive())
+        {
+            Listener<Integer> transientListener = value -> {};
+            broadcaster.addListener(transientListener);
+            broadcaster.removeListener(transientListener);
+        }
+
+        producer.join();
+
+        Assertions.assertFalse(failed.get());
+        Assertions.assertEquals(elements, received.get());
+        Assertions.assertEquals(1, broadcaster.getListenerCount());
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+package io.github.dsheirer.spectrum;
+
+import io.github.dsheirer.buffer.PooledNativeBuffer;
+import io.github.dsheirer.sample.complex.ComplexSamples;
+import io.github.dsheirer.sample.complex.InterleavedComplexSamples;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class NativeBufferManagerTest
+{
+    private static final int SAMPLES_PER_BUFFER = 64;
+
+    /**
+     * Pooled buffer that counts recycle invocations and fails if it is read after it is recycled
+     */
+    private static class TestBuffer extends PooledNativeBuffer
+    {
+        private final AtomicInteger mRecycleCount = new AtomicInteger();
+        private final float[] mSamples = new float[SAMPLES_PER_BUFFER * 2];
+
+        @Override
+        protected void recycle()
+        {
+            mRecycleCount.incrementAndGet();
+        }
+
+        @Override
+        public Iterator<ComplexSamples> iterator()
+        {
+            return Collections.emptyIterator();
+        }
+
+        @Override
+        public Iterator<InterleavedComplexSamples> iteratorInterleaved()
+        {
+            if(getReferenceCount() <= 0)
+            {
+                throw new IllegalStateException("Buffer was read after it was recycled");
+            }
+
+            return List.of(new InterleavedComplexSamples(mSamples, 0)).iterator();
+        }
+
+        @Override
+        public int sampleCount()
+        {
+            return SAMPLES_PER_BUFFER;
+        }
+
+        @Override
+        public long getTimestamp()
+        {
+            return 0;
+        }
+    }
+
+    @Test
+    void getReturnsRequestedSamples() throws IOException
+    {
+        NativeBufferManager<TestBuffer> manager = new NativeBufferManager<>(SAMPLES_PER_BUFFER * 2);
+        List<TestBuffer> buffers = new ArrayList<>();
+
+        for(int x = 0; x < 4; x++)
+        {
+            TestBuffer buffer = new TestBuffer();
+            buffers.add(buffer);
+            manager.add(buffer);
+            buffer.release();
+        }
+
+        Assertions.assertEquals(SAMPLES_PER_BUFFER * 4, manager.get(SAMPLES_PER_BUFFER * 2).length);
+        Assertions.assertThrows(IOException.class, () -> manager.get(SAMPLES_PER_BUFFER * 2));
+        manager.clear();
+
+        for(TestBuffer buffer: buffers)
+        {
+            Assertions.assertEquals(1, buffer.mRecycleCount.get(), "each buffer is recycled once");
+        }
+    }
+
+    /**
+     * Buffers are added by the buffer distribution thread, consumed by the DFT thread and cleared by the GUI thread.
+     * Each buffer must be released exactly once and must not be read after it is recycled.
+     */
+    @Test
+    void concurrentAddGetAndClearReleaseEachBufferOnce() throws Exception
+    {
+        NativeBufferManager<TestBuffer> manager = new NativeBufferManager<>(SAMPLES_PER_BUFFER * 4);
+        List<TestBuffer> buffers = Collections.synchronizedList(new ArrayList<>());
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        int count = 20000;
+
+        Thread producer = new Thread(() -> {
+            for(int x = 0; x < count; x++)
+            {
+                TestBuffer buffer = new TestBuffer();
+                buffers.add(buffer);
+                manager.add(buffer);
+                buffer.release();
+                Thread.yield();
+            }
+        });
+
+        Thread consumer = new Thread(() -> {
+            while(producer.isAlive())
+            {
+                try
+                {
+                    manager.get(SAMPLES_PER_BUFFER * 4);
+                }
+                catch(IOException ioe)
+                {
+                    //Insufficient samples - try again
+                }
+
+                Thread.yield();
+            }
+        });
+
+        Thread gui = new Thread(() -> {
+            while(producer.isAlive())
+            {
+                manager.clear();
+                Thread.yield();
+            }
+        });
+
+        for(Thread thread: List.of(producer, consumer, gui))
+        {
+            thread.setUncaughtExceptionHandler((t, e) -> error.compareAndSet(null, e));
+            thread.start();
+        }
+
+        for(Thread thread: List.of(producer, consumer, gui))
+        {
+            thread.join(30000);
+        }
+
+        manager.clear();
+
+        Assertions.assertNull(error.get(), () -> "unexpected error: " + error.get());
+
+        for(TestBuffer buffer: buffers)
+        {
+            Assertions.assertEquals(1, buffer.mRecycleCount.get(), "each buffer is recycled once");
+        }
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+public class BoundedLockFreeQueueTest
+{
+    @Test
+    void capacityRoundsUpToPowerOfTwo()
+    {
+        Assertions.assertEquals(1, new BoundedLockFreeQueue<Integer>(1).capacity());
+        Assertions.assertEquals(8, new BoundedLockFreeQueue<Integer>(5).capacity());
+        Assertions.assertEquals(512, new BoundedLockFreeQueue<Integer>(500).capacity());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new BoundedLockFreeQueue<Integer>(0));
+    }
+
+    @Test
+    void firstInFirstOutAcrossLaps()
+    {
+        BoundedLockFreeQueue<Integer> queue = new BoundedLockFreeQueue<>(4);
+        Assertions.assertNull(queue.poll());
+        Assertions.assertTrue(queue.isEmpty());
+
+        int next = 0;
+        int expected = 0;
+
+        for(int lap = 0; lap < 10; lap++)
+        {
+            while(queue.offer(next))
+            {
+                next++;
+            }
+
+            Assertions.assertEquals(4, queue.size());
+            Assertions.assertEquals(expected, queue.peek());
+            Assertions.assertEquals(expected++, queue.poll());
+            Assertions.assertEquals(expected++, queue.poll());
+            Assertions.assertEquals(2, queue.size());
+        }
+
+        while(!queue.isEmpty())
+        {
+            Assertions.assertEquals(expected++, queue.poll());
+        }
+
+        Assertions.assertEquals(next, expected);
+    }
+
+    @Test
+    void iteratorSnapshotsQueuedElements()
+    {
+        BoundedLockFreeQueue<Integer> queue = new BoundedLockFreeQueue<>(4);
+        Assertions.assertFalse(queue.iterator().hasNext());
+
+        for(int x = 0; x < 6; x++)
+        {
+            queue.offer(x);
+
+            if(x % 2 == 1)
+            {
+                queue.poll();
+            }
+        }
+
+        //Queue wraps the array and contains 3, 4, 5
+        Iterator<Integer> iterator = queue.iterator();
+        queue.offer(6);
+        Assertions.assertEquals(List.of(3, 4, 5), toList(iterator));
+        Assertions.assertTrue(queue.contains(6));
+        Assertions.assertArrayEquals(new Object[]{3, 4, 5, 6}, queue.toArray());
+
+        Iterator<Integer> removal = queue.iterator();
+        removal.next();
+        Assertions.assertThrows(UnsupportedOperationException.class, removal::remove);
+
+        //Elements dequeued after the snapshot remain in the snapshot
+        Iterator<Integer> snapshot = queue.iterator();
+        queue.clear();
+        Assertions.assertTrue(queue.isEmpty());
+        Assertions.assertEquals(List.of(3, 4, 5, 6), toList(snapshot));
+        Assertions.assertFalse(queue.iterator().hasNext());
+    }
+
+    private static List<Integer> toList(Iterator<Integer> iterator)
+    {
+        List<Integer> list = new ArrayList<>();
+        iterator.forEachRemaining(list::add);
+        return list;
+    }
+
+    @Test
+    void rejectsNull()
+    {
+        Assertions.assertThrows(NullPointerException.class, () -> new BoundedLockFreeQueue<Integer>(4).offer(null));
+    }
+
+    /**
+     * Multiple producers and consumers transfer every element exactly once and each producer's elements are received
+     * in order by any single consumer.
+     */
+    @Test
+    void multipleProducersAndConsumers() throws Exception
+    {
+        int producers = 4;
+        int consumers = 4;
+        int perProducer = 20_000;
+        BoundedLockFreeQueue<Integer> queue = new BoundedLockFreeQueue<>(64);
+        AtomicIntegerArray received = new AtomicIntegerArray(producers * perProducer);
+        ExecutorService executor = Executors.newFixedThreadPool(producers + consumers);
+
+        try
+        {
+            Future<?>[] futures = new Future<?>[producers + consumers];
+
+            for(int p = 0; p < producers; p++)
+            {
+                int base = p * perProducer;
+                futures[p] = executor.submit(() -> {
+                    for(int x = 0; x < perProducer; x++)
+                    {
+                        while(!queue.offer(base + x))
+                        {
+                            Thread.yield();
+                        }
+                    }
+                });
+            }
+
+            int total = producers * perProducer / consumers;
+
+            for(int c = 0; c < consumers; c++)
+            {
+                futures[producers + c] = executor.submit(() -> {
+                    int[] last = new int[producers];
+                    Arrays.fill(last, -1);
+
+                    for(int x = 0; x < total; x++)
+                    {
+                        Integer value = queue.poll();
+
+                        while(value == null)
+                        {
+                            Thread.yield();
+                            value = queue.poll();
+                        }
+
+                        int producer = value / perProducer;
+                        Assertions.assertTrue(value % perProducer > last[producer], "per-producer order");
+                        last[producer] = value % perProducer;
+                        received.incrementAndGet(value);
+                    }
+                });
+            }
+
+            for(Future<?> future : futures)
+            {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        for(int x = 0; x < received.length(); x++)
+        {
+            Assertions.assertEquals(1, received.get(x), "element " + x);
+        }
+
+        Assertions.assertTrue(queue.isEmpty());
+    }
+}
@@ -0,0 +1,372 @@
+/*
+ * *****************************************************************************
+ * Copyright (C) 2014-2022 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class DispatcherTest
+{
+    private static final Integer POISON_PILL = -1;
+
+    /**
+     * Dispatcher that counts retain() and release() hook invocations
+     */
+    private static class CountingDispatcher extends Dispatcher<Integer>
+    {
+        private final AtomicInteger mRetained = new AtomicInteger();
+        private final AtomicInteger mReleased = new AtomicInteger();
+
+        CountingDispatcher(int maxSize, DispatcherBackend backend, Executor executor, DispatcherQueueType queueType)
+        {
+            super(maxSize, "test dispatcher", POISON_PILL, backend, executor, queueType);
+        }
+
+        @Override
+        protected void retain(Integer element)
+        {
+            mRetained.incrementAndGet();
+        }
+
+        @Override
+        protected void release(Integer element)
+        {
+            mReleased.incrementAndGet();
+        }
+    }
+
+    private static void deliversInOrder(DispatcherBackend backend, Executor executor, DispatcherQueueType queueType)
+        throws Exception
+    {
+        int count = 10_000;
+        List<Integer> received = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch latch = new CountDownLatch(count);
+        CountingDispatcher dispatcher = new CountingDispatcher(count, backend, executor, queueType);
+        dispatcher.setListener(element -> {
+            received.add(element);
+            latch.countDown();
+        });
+        dispatcher.start();
+
+        for(int x = 0; x < count; x++)
+        {
+            dispatcher.receive(x);
+        }
+
+        Assertions.assertTrue(latch.await(10, TimeUnit.SECONDS));
+        dispatcher.stop();
+
+        for(int x = 0; x < count; x++)
+        {
+            Assertions.assertEquals(x, received.get(x));
+        }
+
+        Assertions.assertEquals(count, dispatcher.getProcessedCount());
+        Assertions.assertEquals(count, dispatcher.mRetained.get());
+        Assertions.assertEquals(count, dispatcher.mReleased.get());
+    }
+
+    @Test
+    void platformThreadDeliversInOrder() throws Exception
+    {
+        deliversInOrder(DispatcherBackend.PLATFORM_THREAD, null, DispatcherQueueType.BLOCKING);
+        deliversInOrder(DispatcherBackend.PLATFORM_THREAD, null, DispatcherQueueType.LOCK_FREE);
+    }
+
+    @Test
+    void sharedExecutorDeliversInOrder() throws Exception
+    {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try
+        {
+            deliversInOrder(DispatcherBackend.SHARED_EXECUTOR, executor, DispatcherQueueType.BLOCKING);
+            deliversInOrder(DispatcherBackend.SHARED_EXECUTOR, executor, DispatcherQueueType.LOCK_FREE);
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void sharedExecutorRequiresExecutor()
+    {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new Dispatcher<>(4, "test", POISON_PILL,
+            DispatcherBackend.SHARED_EXECUTOR, null, DispatcherQueueType.BLOCKING));
+    }
+
+    @Test
+    void stoppedDispatcherDiscardsWithoutRetaining()
+    {
+        List<Integer> discarded = new ArrayList<>();
+        CountingDispatcher dispatcher = new CountingDispatcher(4, DispatcherBackend.PLATFORM_THREAD, null,
+            DispatcherQueueType.BLOCKING);
+        dispatcher.setDiscardListener(discarded::add);
+        dispatcher.receive(1);
+
+        Assertions.assertEquals(List.of(1), discarded);
+        Assertions.assertEquals(0, dispatcher.mRetained.get());
+        Assertions.assertEquals(0, dispatcher.mReleased.get());
+    }
+
+    /**
+     * Elements that overflow the queue, and elements still queued when the dispatcher is stopped, are released and
+     * passed to the discard listener.
+     */
+    @Test
+    void overflowAndStopDiscardAndRelease() throws Exception
+    {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        List<Integer> discarded = Collections.synchronizedList(new ArrayList<>());
+        CountingDispatcher dispatcher = new CountingDispatcher(2, DispatcherBackend.PLATFORM_THREAD, null,
+            DispatcherQueueType.BLOCKING);
+        dispatcher.setDiscardListener(discarded::add);
+        dispatcher.setListener(element -> {
+            blocked.countDown();
+
+            try
+            {
+                proceed.await();
+            }
+            catch(InterruptedException ie)
+            {
+                Thread.currentThread().interrupt();
+            }
+        });
+        dispatcher.start();
+
+        dispatcher.receive(0);
+        Assertions.assertTrue(blocked.await(5, TimeUnit.SECONDS));
+        dispatcher.receive(1);
+        dispatcher.receive(2);
+        dispatcher.receive(3);
+
+        Assertions.assertEquals(1, dispatcher.getDroppedCount());
+        Assertions.assertEquals(List.of(3), discarded);
+
+        Thread stopper = new Thread(dispatcher::stop);
+        stopper.start();
+        proceed.countDown();
+        stopper.join(5000);
+
+        Assertions.assertFalse(dispatcher.isRunning());
+        Assertions.assertEquals(4, dispatcher.mRetained.get());
+        Assertions.assertEquals(4, dispatcher.mReleased.get());
+    }
+
+    @Test
+    void batchListenerReceivesQueuedElements() throws Exception
+    {
+        int count = 1000;
+        List<Integer> received = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger maxBatch = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(count);
+        CountingDispatcher dispatcher = new CountingDispatcher(count, DispatcherBackend.PLATFORM_THREAD, null,
+            DispatcherQueueType.LOCK_FREE);
+        dispatcher.setBatchListener(batch -> {
+            maxBatch.accumulateAndGet(batch.size(), Math::max);
+            received.addAll(batch);
+
+            for(int x = 0; x < batch.size(); x++)
+            {
+                latch.countDown();
+            }
+        }, 16);
+        dispatcher.start();
+
+        for(int x = 0; x < count; x++)
+        {
+            dispatcher.receive(x);
+        }
+
+        Assertions.assertTrue(latch.await(10, TimeUnit.SECONDS));
+        dispatcher.stop();
+
+        Assertions.assertTrue(maxBatch.get() <= 16);
+        Assertions.assertEquals(count, dispatcher.getProcessedCount());
+        Assertions.assertEquals(count, dispatcher.mReleased.get());
+
+        for(int x = 0; x < count; x++)
+        {
+            Assertions.assertEquals(x, received.get(x));
+        }
+    }
+
+    /**
+     * A batch that ends with the stop request is delivered before the dispatcher reports that it is stopped, so that
+     * callers waiting on isRunning() don't tear down resources that the final batch is still using.
+     */
+    @Test
+    void batchDispatcherRunsUntilFinalBatchIsDelivered() throws Exception
+    {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        List<Integer> received = Collections.synchronizedList(new ArrayList<>());
+        List<Boolean> running = Collections.synchronizedList(new ArrayList<>());
+        CountingDispatcher dispatcher = new CountingDispatcher(16, DispatcherBackend.PLATFORM_THREAD, null,
+            DispatcherQueueType.BLOCKING);
+        dispatcher.setBatchListener(batch -> {
+            received.addAll(batch);
+            running.add(dispatcher.isRunning());
+            blocked.countDown();
+
+            try
+            {
+                proceed.await();
+            }
+            catch(InterruptedException ie)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }, 16);
+        dispatcher.start();
+
+        dispatcher.receive(0);
+        Assertions.assertTrue(blocked.await(5, TimeUnit.SECONDS));
+        dispatcher.receive(1);
+        dispatcher.receive(2);
+        dispatcher.flushAndStop();
+        proceed.countDown();
+
+        long timeout = System.currentTimeMillis() + 5000;
+
+        while(dispatcher.isRunning() && System.currentTimeMillis() < timeout)
+        {
+            Thread.sleep(1);
+        }
+
+        Assertions.assertFalse(dispatcher.isRunning());
+        Assertions.assertEquals(List.of(0, 1, 2), received);
+        Assertions.assertEquals(List.of(true, true), running, "running while each batch is delivered");
+        Assertions.assertEquals(3, dispatcher.mReleased.get());
+    }
+
+    @Test
+    void dropOldestEvictsOldestQueuedElement() throws Exception
+    {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        List<Integer> received = Collections.synchronizedList(new ArrayList<>());
+        List<Integer> discarded = Collections.synchronizedList(new ArrayList<>());
+        CountingDispatcher dispatcher = new CountingDispatcher(2, DispatcherBackend.PLATFORM_THREAD, null,
+            DispatcherQueueType.BLOCKING);
+        dispatcher.setOverflowPolicy(DispatcherOverflowPolicy.DROP_OLDEST);
+        dispatcher.setDiscardListener(discarded::add);
+        dispatcher.setListener(element -> {
+            received.add(element);
+            blocked.countDown();
+
+            try
+            {
+                proceed.await();
+            }
+            catch(InterruptedException ie)
+            {
+                Thread.currentThread().interrupt();
+            }
+        });
+        dispatcher.start();
+
+        dispatcher.receive(0);
+        Assertions.assertTrue(blocked.await(5, TimeUnit.SECONDS));
+
+        for(int x = 1; x <= 5; x++)
+        {
+            dispatcher.receive(x);
+        }
+
+        Assertions.assertEquals(List.of(1, 2, 3), discarded);
+        proceed.countDown();
+
+        long timeout = System.currentTimeMillis() + 5000;
+
+        while(dispatcher.getProcessedCount() < 3 && System.currentTimeMillis() < timeout)
+        {
+            Thread.sleep(1);
+        }
+
+        dispatcher.stop();
+        Assertions.assertEquals(List.of(0, 4, 5), received);
+        Assertions.assertEquals(6, dispatcher.mReleased.get());
+    }
+
+    /**
+     * A pending stop request at the head of a full queue is never evicted or reordered behind later elements.  The
+     * elements that arrived after the stop request are discarded instead of processed.
+     */
+    @Test
+    void dropOldestDoesNotProcessElementsQueuedAfterStopRequest() throws Exception
+    {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        List<Integer> received = Collections.synchronizedList(new ArrayList<>());
+        List<Integer> discarded = Collections.synchronizedList(new ArrayList<>());
+        CountingDispatcher dispatcher = new CountingDispatcher(2, DispatcherBackend.PLATFORM_THREAD, null,
+            DispatcherQueueType.BLOCKING);
+        dispatcher.setOverflowPolicy(DispatcherOverflowPolicy.DROP_OLDEST);
+        dispatcher.setDiscardListener(discarded::add);
+        dispatcher.setListener(element -> {
+            received.add(element);
+            blocked.countDown();
+
+            try
+            {
+                proceed.await();
+            }
+            catch(InterruptedException ie)
+            {
+                Thread.currentThread().interrupt();
+            }
+        });
+        dispatcher.start();
+
+        dispatcher.receive(0);
+        Assertions.assertTrue(blocked.await(5, TimeUnit.SECONDS));
+        dispatcher.flushAndStop();
+        dispatcher.receive(1);
+        dispatcher.receive(2);
+        Assertions.assertFalse(dispatcher.isRunning());
+
+        proceed.countDown();
+        long timeout = System.currentTimeMillis() + 5000;
+
+        while(dispatcher.mReleased.get() < 2 && System.currentTimeMillis() < timeout)
+        {
+            Thread.sleep(1);
+        }
+
+        Assertions.assertEquals(List.of(0), received);
+        Assertions.assertEquals(List.of(2, 1), discarded);
+        Assertions.assertEquals(3, dispatcher.mRetained.get());
+        Assertions.assertEquals(3, dispatcher.mReleased.get());
+    }
+}